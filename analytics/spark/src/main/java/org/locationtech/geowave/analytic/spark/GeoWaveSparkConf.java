@@ -13,6 +13,7 @@ import org.apache.spark.SparkConf;
 import org.apache.spark.sql.SparkSession;
 import org.apache.spark.sql.SparkSession.Builder;
 import org.locationtech.geowave.analytic.spark.sparksql.GeoWaveSpatialEncoders;
+import org.locationtech.geowave.analytic.spark.sparksql.datasource.GeoWaveSparkSessionExtensions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -104,8 +105,10 @@ public class GeoWaveSparkConf implements Serializable {
       final SparkConf conf,
       final SparkConf addonOptions) {
 
-    // Create initial SessionBuilder from default Configuration.
-    Builder builder = SparkSession.builder().config(conf);
+    // Create initial SessionBuilder from default Configuration, including
+    // the GeoWave optimizer rules.
+    Builder builder =
+        SparkSession.builder().config(conf).withExtensions(new GeoWaveSparkSessionExtensions());
 
     // Ensure SpatialEncoders and UDTs are registered at each session
     // creation.
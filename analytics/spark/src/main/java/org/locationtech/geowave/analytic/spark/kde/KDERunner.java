@@ -14,10 +14,14 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.spark.RangePartitioner;
 import org.apache.spark.api.java.JavaPairRDD;
@@ -26,7 +30,9 @@ import org.apache.spark.api.java.JavaSparkContext;
 import org.apache.spark.api.java.function.Function;
 import org.apache.spark.api.java.function.Function2;
 import org.apache.spark.api.java.function.PairFlatMapFunction;
+import org.apache.spark.broadcast.Broadcast;
 import org.apache.spark.sql.SparkSession;
+import org.apache.spark.storage.StorageLevel;
 import org.geotools.geometry.jts.JTS;
 import org.geotools.referencing.CRS;
 import org.locationtech.geowave.adapter.raster.FitToIndexGridCoverage;
@@ -49,6 +55,7 @@ import org.locationtech.geowave.core.geotime.index.SpatialOptions;
 import org.locationtech.geowave.core.geotime.store.query.api.VectorQueryBuilder;
 import org.locationtech.geowave.core.geotime.util.GeometryUtils;
 import org.locationtech.geowave.core.index.persist.PersistenceUtils;
+import org.locationtech.geowave.core.store.adapter.statistics.histogram.TDigestNumericHistogram;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.cli.store.DataStorePluginOptions;
 import org.locationtech.geowave.mapreduce.HadoopWritableSerializer;
@@ -66,6 +73,10 @@ import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoSerializable;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
 import com.google.common.collect.Iterators;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import scala.Tuple2;
@@ -100,6 +111,7 @@ public class KDERunner {
 
   private int minSplits = -1;
   private int maxSplits = -1;
+  private boolean singlePass = false;
 
   public KDERunner() {}
 
@@ -231,6 +243,19 @@ public class KDERunner {
     // expressions
     final int innerTileSize = 1;// tileSize;
     final String innerCoverageName = coverageName;
+    if (singlePass) {
+      runSinglePass(
+          kdeOpts,
+          adapter,
+          outputPrimaryIndex,
+          xMin,
+          xMax,
+          yMin,
+          yMax,
+          inputCrsCode,
+          outputCrsCode);
+      return;
+    }
     for (int level = minLevel; level <= maxLevel; level++) {
       final int numXTiles = (int) Math.pow(2, level + 1);
       final int numYTiles = (int) Math.pow(2, level);
@@ -316,6 +341,95 @@ public class KDERunner {
 
   }
 
+  /**
+   * Compute every level from a single read of the input. Each point is mapped to its cells at all
+   * levels at once, the cell weights of all levels are summed in one shuffle, and the percentile of
+   * each cell is estimated from a per level sketch of the cell weights rather than a global sort.
+   */
+  private void runSinglePass(
+      final RDDOptions kdeOpts,
+      final RasterDataAdapter adapter,
+      final Index outputPrimaryIndex,
+      final double xMin,
+      final double xMax,
+      final double yMin,
+      final double yMax,
+      final String inputCrsCode,
+      final String outputCrsCode) throws IOException {
+    final int innerTileSize = 1;
+    final String innerCoverageName = coverageName;
+    final GeoWaveRDD kdeRDD =
+        GeoWaveRDDLoader.loadRDD(session.sparkContext(), inputDataStore, kdeOpts);
+    final JavaPairRDD<Long, Double> cells =
+        kdeRDD.getRawRDD().flatMapToPair(
+            new MultiLevelCellMapper(
+                minLevel,
+                maxLevel,
+                xMin,
+                xMax,
+                yMin,
+                yMax,
+                inputCrsCode,
+                outputCrsCode)).reduceByKey((x, y) -> x + y).persist(
+                    StorageLevel.MEMORY_AND_DISK());
+    final LevelSketches sketches =
+        cells.aggregate(
+            new LevelSketches(),
+            (final LevelSketches l, final Tuple2<Long, Double> t) -> l.add(
+                MultiLevelCellMapper.getLevel(t._1),
+                t._2),
+            (final LevelSketches l1, final LevelSketches l2) -> l1.merge(l2));
+    if (sketches.isEmpty()) {
+      LOGGER.warn("No cells produced by KDE");
+      cells.unpersist();
+      return;
+    }
+    final Broadcast<LevelSketches> sketchBroadcast = jsc.broadcast(sketches);
+    JavaRDD<GridCoverage> rdd = cells.map(t -> {
+      final int level = MultiLevelCellMapper.getLevel(t._1);
+      final int numXTiles = MultiLevelCellMapper.getNumXPosts(level);
+      final int numYTiles = MultiLevelCellMapper.getNumYPosts(level);
+      final TileInfo tileInfo =
+          fromCellIndexToTileInfo(
+              MultiLevelCellMapper.getCellId(t._1),
+              numXTiles,
+              numYTiles,
+              numXTiles,
+              numYTiles,
+              xMin,
+              xMax,
+              yMin,
+              yMax,
+              innerTileSize);
+      final TDigestNumericHistogram sketch = sketchBroadcast.value().get(level);
+      final WritableRaster raster = RasterUtils.createRasterTypeDouble(NUM_BANDS, innerTileSize);
+      raster.setSample(tileInfo.x, tileInfo.y, 0, t._2);
+      raster.setSample(tileInfo.x, tileInfo.y, 1, t._2 / sketch.getMaxValue());
+      raster.setSample(tileInfo.x, tileInfo.y, 2, Math.min(1, sketch.cdf(t._2)));
+      return RasterUtils.createCoverageTypeDouble(
+          innerCoverageName,
+          tileInfo.tileWestLon,
+          tileInfo.tileEastLon,
+          tileInfo.tileSouthLat,
+          tileInfo.tileNorthLat,
+          MINS_PER_BAND,
+          MAXES_PER_BAND,
+          NAME_PER_BAND,
+          raster,
+          GeometryUtils.DEFAULT_CRS_STR);
+    });
+    LOGGER.debug("Writing results to output store...");
+    if (tileSize > 1) {
+      rdd =
+          rdd.flatMapToPair(new TransformTileSize(adapter, outputPrimaryIndex)).groupByKey().map(
+              new MergeOverlappingTiles(adapter, outputPrimaryIndex));
+    }
+    RDDUtils.writeRasterToGeoWave(jsc.sc(), outputPrimaryIndex, outputDataStore, adapter, rdd);
+    cells.unpersist();
+    sketchBroadcast.destroy();
+    LOGGER.debug("Results successfully written!");
+  }
+
   private static class PartitionAndSortKey implements Serializable {
     private static final long serialVersionUID = 1L;
     byte[] partitionKey;
@@ -455,6 +569,14 @@ public class KDERunner {
     maxSplits = max;
   }
 
+  /**
+   * @param singlePass if {@code true} all levels are computed from a single read of the input, with
+   *        percentiles estimated from a sketch
+   */
+  public void setSinglePass(final boolean singlePass) {
+    this.singlePass = singlePass;
+  }
+
   protected static class GeoWaveCellMapper implements
       PairFlatMapFunction<Tuple2<GeoWaveInputKey, SimpleFeature>, Long, Double> {
 
@@ -495,13 +617,37 @@ public class KDERunner {
     public Iterator<Tuple2<Long, Double>> call(final Tuple2<GeoWaveInputKey, SimpleFeature> t)
         throws Exception {
       final List<Tuple2<Long, Double>> cells = new ArrayList<>();
+      final Point pt = getPoint(t);
+      if (pt != null) {
+        GaussianFilter.incrementPtFast(
+            pt.getX(),
+            pt.getY(),
+            minX,
+            maxX,
+            minY,
+            maxY,
+            new CellCounter() {
+              @Override
+              public void increment(final long cellId, final double weight) {
+                cells.add(new Tuple2<>(cellId, weight));
+
+              }
+            },
+            numXPosts,
+            numYPosts);
+      }
+      return cells.iterator();
+    }
 
-      Point pt = null;
+    /**
+     * @return the centroid of the feature in the output CRS, or {@code null} if there is none
+     */
+    protected Point getPoint(final Tuple2<GeoWaveInputKey, SimpleFeature> t) {
       if ((t != null) && (t._2 != null)) {
         final Object geomObj = t._2.getDefaultGeometry();
         if ((geomObj != null) && (geomObj instanceof Geometry)) {
           if (inputCrsCode.equals(outputCrsCode)) {
-            pt = ((Geometry) geomObj).getCentroid();
+            return ((Geometry) geomObj).getCentroid();
           } else {
             if (transform == null) {
 
@@ -519,13 +665,88 @@ public class KDERunner {
 
             try {
               final Geometry transformedGeometry = JTS.transform((Geometry) geomObj, transform);
-              pt = transformedGeometry.getCentroid();
+              return transformedGeometry.getCentroid();
             } catch (MismatchedDimensionException | TransformException e) {
               LOGGER.warn(
                   "Unable to perform transform to specified CRS of the index, the feature geometry will remain in its original CRS",
                   e);
             }
           }
+        }
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Maps a feature to its weighted cells at every level from a min to a max level. The level is
+   * packed into the top bits of the cell key so that all levels can be combined in one shuffle.
+   */
+  protected static class MultiLevelCellMapper implements
+      PairFlatMapFunction<Tuple2<GeoWaveInputKey, SimpleFeature>, Long, Double> {
+    private static final long serialVersionUID = 1L;
+    private static final int LEVEL_SHIFT = 56;
+    private static final long CELL_ID_MASK = (1L << LEVEL_SHIFT) - 1;
+    private final GeoWaveCellMapper pointMapper;
+    private final int minLevel;
+    private final int maxLevel;
+    private final double minX;
+    private final double maxX;
+    private final double minY;
+    private final double maxY;
+
+    protected MultiLevelCellMapper(
+        final int minLevel,
+        final int maxLevel,
+        final double minX,
+        final double maxX,
+        final double minY,
+        final double maxY,
+        final String inputCrsCode,
+        final String outputCrsCode) {
+      this.minLevel = minLevel;
+      this.maxLevel = maxLevel;
+      this.minX = minX;
+      this.maxX = maxX;
+      this.minY = minY;
+      this.maxY = maxY;
+      pointMapper =
+          new GeoWaveCellMapper(
+              getNumXPosts(minLevel),
+              getNumYPosts(minLevel),
+              minX,
+              maxX,
+              minY,
+              maxY,
+              inputCrsCode,
+              outputCrsCode);
+    }
+
+    protected static int getNumXPosts(final int level) {
+      return (int) Math.pow(2, level + 1);
+    }
+
+    protected static int getNumYPosts(final int level) {
+      return (int) Math.pow(2, level);
+    }
+
+    protected static int getLevel(final long key) {
+      return (int) (key >>> LEVEL_SHIFT);
+    }
+
+    protected static long getCellId(final long key) {
+      return key & CELL_ID_MASK;
+    }
+
+    @Override
+    public Iterator<Tuple2<Long, Double>> call(final Tuple2<GeoWaveInputKey, SimpleFeature> t)
+        throws Exception {
+      final List<Tuple2<Long, Double>> cells = new ArrayList<>();
+      // the CRS transform is done once for the feature and shared by every level
+      final Point pt = pointMapper.getPoint(t);
+      if (pt != null) {
+        for (int level = minLevel; level <= maxLevel; level++) {
+          final long levelKey = ((long) level) << LEVEL_SHIFT;
           GaussianFilter.incrementPtFast(
               pt.getX(),
               pt.getY(),
@@ -536,18 +757,112 @@ public class KDERunner {
               new CellCounter() {
                 @Override
                 public void increment(final long cellId, final double weight) {
-                  cells.add(new Tuple2<>(cellId, weight));
-
+                  cells.add(new Tuple2<>(levelKey | cellId, weight));
                 }
               },
-              numXPosts,
-              numYPosts);
+              getNumXPosts(level),
+              getNumYPosts(level));
         }
       }
       return cells.iterator();
     }
   }
 
+  /**
+   * A sketch of the cell weights of each level, used to normalize weights and estimate percentiles.
+   * Spark is configured with Kryo (see {@link GeoWaveSparkConf}), which would otherwise silently skip
+   * the transient map, so both Java and Kryo serialization are implemented on the same encoding.
+   */
+  private static class LevelSketches implements Serializable, KryoSerializable {
+    private static final long serialVersionUID = 1L;
+    private transient Map<Integer, TDigestNumericHistogram> sketches = new HashMap<>();
+
+    public LevelSketches add(final int level, final double weight) {
+      TDigestNumericHistogram sketch = sketches.get(level);
+      if (sketch == null) {
+        sketch = new TDigestNumericHistogram();
+        sketches.put(level, sketch);
+      }
+      sketch.add(weight);
+      return this;
+    }
+
+    public LevelSketches merge(final LevelSketches other) {
+      for (final Entry<Integer, TDigestNumericHistogram> entry : other.sketches.entrySet()) {
+        final TDigestNumericHistogram sketch = sketches.get(entry.getKey());
+        if (sketch == null) {
+          sketches.put(entry.getKey(), entry.getValue());
+        } else {
+          sketch.merge(entry.getValue());
+        }
+      }
+      return this;
+    }
+
+    public TDigestNumericHistogram get(final int level) {
+      return sketches.get(level);
+    }
+
+    public boolean isEmpty() {
+      return sketches.isEmpty();
+    }
+
+    private static byte[] toBinary(final TDigestNumericHistogram sketch) {
+      final ByteBuffer buffer = ByteBuffer.allocate(sketch.bufferSize());
+      sketch.toBinary(buffer);
+      return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static TDigestNumericHistogram fromBinary(final byte[] sketchBytes) {
+      final TDigestNumericHistogram sketch = new TDigestNumericHistogram();
+      sketch.fromBinary(ByteBuffer.wrap(sketchBytes));
+      return sketch;
+    }
+
+    @Override
+    public void write(final Kryo kryo, final Output output) {
+      output.writeInt(sketches.size());
+      for (final Entry<Integer, TDigestNumericHistogram> entry : sketches.entrySet()) {
+        final byte[] sketchBytes = toBinary(entry.getValue());
+        output.writeInt(entry.getKey());
+        output.writeInt(sketchBytes.length);
+        output.writeBytes(sketchBytes);
+      }
+    }
+
+    @Override
+    public void read(final Kryo kryo, final Input input) {
+      final int numLevels = input.readInt();
+      sketches = new HashMap<>(numLevels);
+      for (int i = 0; i < numLevels; i++) {
+        final int level = input.readInt();
+        sketches.put(level, fromBinary(input.readBytes(input.readInt())));
+      }
+    }
+
+    private void readObject(final ObjectInputStream aInputStream)
+        throws ClassNotFoundException, IOException {
+      final int numLevels = aInputStream.readInt();
+      sketches = new HashMap<>(numLevels);
+      for (int i = 0; i < numLevels; i++) {
+        final int level = aInputStream.readInt();
+        final byte[] sketchBytes = new byte[aInputStream.readInt()];
+        aInputStream.readFully(sketchBytes);
+        sketches.put(level, fromBinary(sketchBytes));
+      }
+    }
+
+    private void writeObject(final ObjectOutputStream aOutputStream) throws IOException {
+      aOutputStream.writeInt(sketches.size());
+      for (final Entry<Integer, TDigestNumericHistogram> entry : sketches.entrySet()) {
+        final byte[] sketchBytes = toBinary(entry.getValue());
+        aOutputStream.writeInt(entry.getKey());
+        aOutputStream.writeInt(sketchBytes.length);
+        aOutputStream.write(sketchBytes);
+      }
+    }
+  }
+
   private static class MergeOverlappingTiles implements
       Function<Tuple2<PartitionAndSortKey, Iterable<GridCoverageWritable>>, GridCoverage> {
 
@@ -54,6 +54,11 @@ public class KDESparkOptions {
       description = "An optional index for output datastore. Only spatial index type is supported")
   private String outputIndex;
 
+  @Parameter(
+      names = "--singlePass",
+      description = "Read the input once and compute every level in a single pass, estimating percentiles rather than sorting each level")
+  private boolean singlePass = false;
+
   public String getOutputIndex() {
     return outputIndex;
   }
@@ -157,4 +162,12 @@ public class KDESparkOptions {
   public void setCoverageName(final String coverageName) {
     this.coverageName = coverageName;
   }
+
+  public boolean isSinglePass() {
+    return singlePass;
+  }
+
+  public void setSinglePass(final boolean singlePass) {
+    this.singlePass = singlePass;
+  }
 }
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.sparksql;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.apache.spark.api.java.function.FlatMapFunction;
+import org.locationtech.geowave.core.arrow.ArrowRecordBatchWriter;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+
+/**
+ * Maps a partition of simple features to Arrow IPC streams of at most {@code batchSize} rows each.
+ * Attribute values are written directly into column vectors rather than being converted to Spark
+ * rows, and geometries are written as WKB, so the streams can be handed to pyarrow, pandas and
+ * GeoPandas without any per-row conversion.
+ */
+public class SimpleFeatureArrowMapper implements FlatMapFunction<Iterator<SimpleFeature>, byte[]> {
+  /**
+   *
+   */
+  private static final long serialVersionUID = 1L;
+
+  private final String[] fieldNames;
+  private final Class<?>[] fieldTypes;
+  private final int batchSize;
+
+  /**
+   * @param featureType the feature type of the features
+   * @param fieldNames the names of the Arrow fields, in the same order as the feature attributes
+   * @param batchSize the maximum number of rows in each stream
+   */
+  public SimpleFeatureArrowMapper(
+      final SimpleFeatureType featureType,
+      final String[] fieldNames,
+      final int batchSize) {
+    this.fieldNames = fieldNames;
+    this.batchSize = batchSize;
+    fieldTypes = new Class<?>[featureType.getAttributeCount()];
+    for (int i = 0; i < fieldTypes.length; i++) {
+      fieldTypes[i] = featureType.getDescriptor(i).getType().getBinding();
+    }
+  }
+
+  @Override
+  public Iterator<byte[]> call(final Iterator<SimpleFeature> features) throws Exception {
+    return new Iterator<byte[]>() {
+      @Override
+      public boolean hasNext() {
+        return features.hasNext();
+      }
+
+      @Override
+      public byte[] next() {
+        if (!features.hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ArrowRecordBatchWriter writer =
+            new ArrowRecordBatchWriter(fieldNames, fieldTypes, out, batchSize)) {
+          for (int row = 0; (row < batchSize) && features.hasNext(); row++) {
+            final SimpleFeature feature = features.next();
+            for (int i = 0; i < fieldTypes.length; i++) {
+              writer.setValue(i, feature.getAttribute(i));
+            }
+            writer.endRow();
+          }
+        } catch (final IOException e) {
+          throw new RuntimeException("Unable to write Arrow record batch", e);
+        }
+        return out.toByteArray();
+      }
+    };
+  }
+}
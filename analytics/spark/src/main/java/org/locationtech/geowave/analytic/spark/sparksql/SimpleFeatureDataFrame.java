@@ -77,6 +77,21 @@ public class SimpleFeatureDataFrame {
     return dataFrame;
   }
 
+  /**
+   * Get the features as Arrow IPC streams rather than as a data frame. Each stream contains a
+   * single record batch of at most {@code batchSize} rows with the same column names as the data
+   * frame, and geometries are written as WKB. This avoids converting each feature to a Spark row,
+   * which makes it the cheaper path for handing data to pyarrow, pandas or GeoPandas.
+   *
+   * @param pairRDD the features
+   * @param batchSize the maximum number of rows in each stream
+   * @return the Arrow IPC streams
+   */
+  public JavaRDD<byte[]> getArrowRDD(final GeoWaveRDD pairRDD, final int batchSize) {
+    return pairRDD.getRawRDD().values().mapPartitions(
+        new SimpleFeatureArrowMapper(featureType, schema.fieldNames(), batchSize));
+  }
+
   public Dataset<Row> resetDataFrame(final GeoWaveRDD pairRDD) {
     rowRDD = null;
     dataFrame = null;
@@ -29,7 +29,9 @@ import org.locationtech.geowave.analytic.spark.GeoWaveRDD;
 import org.locationtech.geowave.analytic.spark.GeoWaveRDDLoader;
 import org.locationtech.geowave.analytic.spark.GeoWaveSparkConf;
 import org.locationtech.geowave.analytic.spark.RDDOptions;
+import org.locationtech.geowave.analytic.spark.sparksql.datasource.GeoWaveDataSource;
 import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomFunction;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomFunctionRegistry;
 import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomWithinDistance;
 import org.locationtech.geowave.analytic.spark.sparksql.udf.UDFRegistrySPI;
 import org.locationtech.geowave.analytic.spark.sparksql.udf.UDFRegistrySPI.UDFNameAndConstructor;
@@ -268,9 +270,15 @@ public class SqlQueryRunner {
             rightMappings[0].getIndex(rightStore.getOrCreateIndexStore()).getIndexStrategy();
       }
       joinRunner.setLeftRDD(
-          GeoWaveRDDLoader.loadIndexedRDD(session.sparkContext(), leftStore.rdd, leftStrat));
+          GeoWaveRDDLoader.loadIndexedRDD(
+              session.sparkContext(),
+              leftStore.getOrLoadRDD(session),
+              leftStrat));
       joinRunner.setRightRDD(
-          GeoWaveRDDLoader.loadIndexedRDD(session.sparkContext(), rightStore.rdd, rightStrat));
+          GeoWaveRDDLoader.loadIndexedRDD(
+              session.sparkContext(),
+              rightStore.getOrLoadRDD(session),
+              rightStrat));
 
       joinRunner.setPredicate(pred.predicate);
 
@@ -343,23 +351,16 @@ public class SqlQueryRunner {
   private void loadStoresAndViews() throws IOException {
     final Collection<InputStoreInfo> addStores = inputStores.values();
 
+    GeomFunctionRegistry.registerGeometryFunctions(session);
     for (final InputStoreInfo storeInfo : addStores) {
-      final RDDOptions rddOpts = new RDDOptions();
-      rddOpts.setQuery(QueryBuilder.newBuilder().addTypeName(storeInfo.typeName).build());
-      storeInfo.rdd =
-          GeoWaveRDDLoader.loadRDD(session.sparkContext(), storeInfo.storeOptions, rddOpts);
+      // Create a DataFrame backed by the GeoWave data source so that filters
+      // and column selections are pushed into the GeoWave query
+      final Dataset<Row> dfTemp =
+          session.read().format(GeoWaveDataSource.SHORT_NAME).options(
+              GeoWaveDataSource.options(storeInfo.storeOptions, storeInfo.typeName)).load();
 
-      // Create a DataFrame from the Left RDD
-      final SimpleFeatureDataFrame dataFrame = new SimpleFeatureDataFrame(session);
+      LOGGER.debug(dfTemp.schema().json());
 
-      if (!dataFrame.init(storeInfo.storeOptions, storeInfo.typeName)) {
-        LOGGER.error("Failed to initialize dataframe");
-        return;
-      }
-
-      LOGGER.debug(dataFrame.getSchema().json());
-
-      final Dataset<Row> dfTemp = dataFrame.getDataFrame(storeInfo.rdd);
       dfTemp.createOrReplaceTempView(storeInfo.viewName);
     }
   }
@@ -459,6 +460,15 @@ public class SqlQueryRunner {
       return internalAdapterStore;
     }
 
+    private GeoWaveRDD getOrLoadRDD(final SparkSession session) throws IOException {
+      if (rdd == null) {
+        final RDDOptions rddOpts = new RDDOptions();
+        rddOpts.setQuery(QueryBuilder.newBuilder().addTypeName(typeName).build());
+        rdd = GeoWaveRDDLoader.loadRDD(session.sparkContext(), storeOptions, rddOpts);
+      }
+      return rdd;
+    }
+
     private AdapterIndexMappingStore getOrCreateAdapterIndexMappingStore() {
       if (adapterIndexMappingStore == null) {
         adapterIndexMappingStore = storeOptions.createAdapterIndexMappingStore();
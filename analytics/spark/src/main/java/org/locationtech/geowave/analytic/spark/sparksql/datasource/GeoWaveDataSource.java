@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.sparksql.datasource;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.apache.spark.sql.connector.catalog.Table;
+import org.apache.spark.sql.connector.catalog.TableProvider;
+import org.apache.spark.sql.connector.expressions.Transform;
+import org.apache.spark.sql.sources.DataSourceRegister;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.util.CaseInsensitiveStringMap;
+import org.locationtech.geowave.adapter.vector.util.FeatureDataUtils;
+import org.locationtech.geowave.analytic.spark.sparksql.util.SchemaConverter;
+import org.locationtech.geowave.core.cli.operations.config.options.ConfigOptions;
+import org.locationtech.geowave.core.store.cli.store.DataStorePluginOptions;
+import org.locationtech.geowave.core.store.cli.store.StoreLoader;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Spark DataSource V2 implementation that reads a GeoWave vector type. Unlike loading a
+ * {@link org.locationtech.geowave.analytic.spark.GeoWaveRDD} into a data frame, filters and column
+ * selections of Spark SQL queries are pushed into the GeoWave query so that only the matching key
+ * ranges and fields are read.
+ *
+ * <p> The store is either a named store from the GeoWave configuration file, given with the
+ * {@value #STORE_OPTION} option, or the store's own options (as returned by
+ * {@link DataStorePluginOptions#getOptionsAsMap()}). For example:
+ *
+ * <pre>
+ * spark.read().format("geowave").options(GeoWaveDataSource.options(storeOptions, "gdeltevent")).load();
+ * spark.read().format("geowave").option("geowave.store", "gdelt").option("geowave.typeName", "gdeltevent").load();
+ * </pre>
+ *
+ * <p> Spatial predicates on the geometry column that use the functions of
+ * {@link org.locationtech.geowave.analytic.spark.sparksql.udf.GeomFunctionRegistry} are only pushed
+ * down when the session was created with {@link GeoWaveSparkSessionExtensions}.
+ */
+public class GeoWaveDataSource implements TableProvider, DataSourceRegister {
+  private static final Logger LOGGER = LoggerFactory.getLogger(GeoWaveDataSource.class);
+
+  public static final String SHORT_NAME = "geowave";
+  public static final String STORE_OPTION = "geowave.store";
+  public static final String TYPE_NAME_OPTION = "geowave.typeName";
+  public static final String MIN_SPLITS_OPTION = "geowave.minSplits";
+  public static final String MAX_SPLITS_OPTION = "geowave.maxSplits";
+  private static final String OPTION_PREFIX = "geowave.";
+
+  /**
+   * @return the data source options to read a type from the given store
+   */
+  public static Map<String, String> options(
+      final DataStorePluginOptions storeOptions,
+      final String typeName) {
+    final Map<String, String> options = new HashMap<>(storeOptions.getOptionsAsMap());
+    if (typeName != null) {
+      options.put(TYPE_NAME_OPTION, typeName);
+    }
+    return options;
+  }
+
+  @Override
+  public String shortName() {
+    return SHORT_NAME;
+  }
+
+  @Override
+  public StructType inferSchema(final CaseInsensitiveStringMap options) {
+    return getTable(options).schema();
+  }
+
+  @Override
+  public Table getTable(
+      final StructType schema,
+      final Transform[] partitioning,
+      final Map<String, String> properties) {
+    return getTable(new CaseInsensitiveStringMap(properties));
+  }
+
+  @Override
+  public boolean supportsExternalMetadata() {
+    return false;
+  }
+
+  private static GeoWaveTable getTable(final CaseInsensitiveStringMap options) {
+    final DataStorePluginOptions storeOptions = getStoreOptions(options);
+    final SimpleFeatureType featureType =
+        FeatureDataUtils.getFeatureType(storeOptions, options.get(TYPE_NAME_OPTION));
+    if (featureType == null) {
+      throw new IllegalArgumentException(
+          "Unable to find vector type '" + options.get(TYPE_NAME_OPTION) + "' in store");
+    }
+    final StructType schema = SchemaConverter.schemaFromFeatureType(featureType);
+    if (schema == null) {
+      throw new IllegalArgumentException(
+          "Unable to create a schema for type '" + featureType.getTypeName() + "'");
+    }
+    return new GeoWaveTable(
+        storeOptions,
+        featureType,
+        schema,
+        options.getInt(MIN_SPLITS_OPTION, -1),
+        options.getInt(MAX_SPLITS_OPTION, -1));
+  }
+
+  private static DataStorePluginOptions getStoreOptions(final CaseInsensitiveStringMap options) {
+    final String storeName = options.get(STORE_OPTION);
+    if (storeName != null) {
+      final File configFile = ConfigOptions.getDefaultPropertyFile();
+      final StoreLoader storeLoader = new StoreLoader(storeName);
+      if (!storeLoader.loadFromConfig(configFile)) {
+        throw new IllegalArgumentException("Cannot find store name: " + storeName);
+      }
+      return storeLoader.getDataStorePlugin();
+    }
+    // store option keys are case sensitive
+    final Map<String, String> storeConfigOptions = new HashMap<>();
+    for (final Entry<String, String> option : options.asCaseSensitiveMap().entrySet()) {
+      if (!option.getKey().startsWith(OPTION_PREFIX) && !option.getKey().equals("path")) {
+        storeConfigOptions.put(option.getKey(), option.getValue());
+      }
+    }
+    try {
+      return new DataStorePluginOptions(storeConfigOptions);
+    } catch (final IllegalArgumentException e) {
+      LOGGER.error("Unable to find a GeoWave store for the data source options", e);
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.sparksql.datasource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Writable;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.util.ReflectionUtils;
+import org.apache.spark.sql.connector.read.InputPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A Spark input partition wrapping a GeoWave input split. Input splits are Hadoop writables rather
+ * than serializable, so the split is kept in its written form.
+ */
+public class GeoWaveInputPartition implements InputPartition {
+  private static final long serialVersionUID = 1L;
+  private static final Logger LOGGER = LoggerFactory.getLogger(GeoWaveInputPartition.class);
+
+  private final String splitClassName;
+  private final byte[] splitBytes;
+  private final String[] locations;
+
+  public GeoWaveInputPartition(final InputSplit split) {
+    splitClassName = split.getClass().getName();
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      ((Writable) split).write(out);
+    } catch (final IOException e) {
+      LOGGER.error("Unable to write input split", e);
+      throw new RuntimeException("Unable to write input split", e);
+    }
+    splitBytes = bytes.toByteArray();
+    String[] splitLocations;
+    try {
+      splitLocations = split.getLocations();
+    } catch (IOException | InterruptedException e) {
+      LOGGER.warn("Unable to get input split locations", e);
+      splitLocations = new String[0];
+    }
+    locations = splitLocations == null ? new String[0] : splitLocations;
+  }
+
+  @Override
+  public String[] preferredLocations() {
+    return locations;
+  }
+
+  /**
+   * @return the input split of this partition
+   */
+  public InputSplit getSplit(final Configuration conf) throws IOException {
+    final Object split;
+    try {
+      split = ReflectionUtils.newInstance(Class.forName(splitClassName), conf);
+    } catch (final ClassNotFoundException e) {
+      throw new IOException("Unable to find input split class " + splitClassName, e);
+    }
+    try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(splitBytes))) {
+      ((Writable) split).readFields(in);
+    }
+    return (InputSplit) split;
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.sparksql.datasource;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.Date;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.RecordReader;
+import org.apache.hadoop.mapreduce.TaskAttemptContext;
+import org.apache.hadoop.mapreduce.TaskAttemptID;
+import org.apache.hadoop.mapreduce.task.TaskAttemptContextImpl;
+import org.apache.spark.SerializableWritable;
+import org.apache.spark.broadcast.Broadcast;
+import org.apache.spark.sql.Row;
+import org.apache.spark.sql.RowFactory;
+import org.apache.spark.sql.catalyst.InternalRow;
+import org.apache.spark.sql.catalyst.encoders.ExpressionEncoder;
+import org.apache.spark.sql.catalyst.encoders.RowEncoder;
+import org.apache.spark.sql.connector.read.InputPartition;
+import org.apache.spark.sql.connector.read.PartitionReader;
+import org.apache.spark.sql.connector.read.PartitionReaderFactory;
+import org.apache.spark.sql.types.StructType;
+import org.locationtech.geowave.mapreduce.input.GeoWaveInputFormat;
+import org.locationtech.geowave.mapreduce.input.GeoWaveInputKey;
+import org.opengis.feature.simple.SimpleFeature;
+
+/**
+ * Creates the readers that run on the executors. Each reader reads a single GeoWave input split
+ * with a {@link GeoWaveInputFormat} record reader and converts the features to rows of the read
+ * schema.
+ */
+public class GeoWavePartitionReaderFactory implements PartitionReaderFactory {
+  private static final long serialVersionUID = 1L;
+
+  private final Broadcast<SerializableWritable<Configuration>> conf;
+  private final StructType readSchema;
+  private final String[] attributeNames;
+
+  public GeoWavePartitionReaderFactory(
+      final Broadcast<SerializableWritable<Configuration>> conf,
+      final StructType readSchema,
+      final String[] attributeNames) {
+    this.conf = conf;
+    this.readSchema = readSchema;
+    this.attributeNames = attributeNames;
+  }
+
+  @Override
+  public PartitionReader<InternalRow> createReader(final InputPartition partition) {
+    final Configuration config = conf.value().value();
+    try {
+      final InputSplit split = ((GeoWaveInputPartition) partition).getSplit(config);
+      final TaskAttemptContext context = new TaskAttemptContextImpl(config, new TaskAttemptID());
+      final RecordReader<GeoWaveInputKey, SimpleFeature> reader =
+          new GeoWaveInputFormat<SimpleFeature>().createRecordReader(split, context);
+      reader.initialize(split, context);
+      return new GeoWavePartitionReader(reader);
+    } catch (IOException | InterruptedException e) {
+      throw new RuntimeException("Unable to read GeoWave input partition", e);
+    }
+  }
+
+  private class GeoWavePartitionReader implements PartitionReader<InternalRow> {
+    private final RecordReader<GeoWaveInputKey, SimpleFeature> reader;
+    private final ExpressionEncoder.Serializer<Row> serializer =
+        RowEncoder.apply(readSchema).createSerializer();
+    private final Object[] values = new Object[attributeNames.length];
+
+    private GeoWavePartitionReader(final RecordReader<GeoWaveInputKey, SimpleFeature> reader) {
+      this.reader = reader;
+    }
+
+    @Override
+    public boolean next() throws IOException {
+      try {
+        return reader.nextKeyValue();
+      } catch (final InterruptedException e) {
+        throw new IOException("Interrupted while reading GeoWave input partition", e);
+      }
+    }
+
+    @Override
+    public InternalRow get() {
+      final SimpleFeature feature;
+      try {
+        feature = reader.getCurrentValue();
+      } catch (IOException | InterruptedException e) {
+        throw new RuntimeException("Unable to read feature", e);
+      }
+      for (int i = 0; i < attributeNames.length; i++) {
+        final Object value = feature.getAttribute(attributeNames[i]);
+        if ((value instanceof Date) && !(value instanceof Timestamp)) {
+          values[i] = new Timestamp(((Date) value).getTime());
+        } else {
+          values[i] = value;
+        }
+      }
+      return serializer.apply(RowFactory.create(values));
+    }
+
+    @Override
+    public void close() throws IOException {
+      reader.close();
+    }
+  }
+}
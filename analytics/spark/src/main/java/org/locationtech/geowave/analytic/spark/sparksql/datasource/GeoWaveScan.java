@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.sparksql.datasource;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.OptionalLong;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.mapreduce.InputSplit;
+import org.apache.hadoop.mapreduce.JobID;
+import org.apache.hadoop.mapreduce.task.JobContextImpl;
+import org.apache.spark.SerializableWritable;
+import org.apache.spark.SparkContext;
+import org.apache.spark.api.java.JavaSparkContext;
+import org.apache.spark.broadcast.Broadcast;
+import org.apache.spark.sql.SparkSession;
+import org.apache.spark.sql.connector.read.Batch;
+import org.apache.spark.sql.connector.read.InputPartition;
+import org.apache.spark.sql.connector.read.PartitionReaderFactory;
+import org.apache.spark.sql.connector.read.Scan;
+import org.apache.spark.sql.connector.read.Statistics;
+import org.apache.spark.sql.connector.read.SupportsReportStatistics;
+import org.apache.spark.sql.types.StructType;
+import org.locationtech.geowave.analytic.spark.GeoWaveRDDLoader;
+import org.locationtech.geowave.analytic.spark.RDDOptions;
+import org.locationtech.geowave.core.store.api.Query;
+import org.locationtech.geowave.mapreduce.input.GeoWaveInputFormat;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.filter.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A scan of a GeoWave type with the constraints and field subset of a query. Each input split of
+ * {@link GeoWaveInputFormat} becomes a Spark input partition, and the number of rows estimated by
+ * {@link GeoWaveTable#estimateRows(Query, List)} is reported to the optimizer.
+ */
+public class GeoWaveScan implements Scan, Batch, SupportsReportStatistics {
+  private static final Logger LOGGER = LoggerFactory.getLogger(GeoWaveScan.class);
+
+  private final GeoWaveTable table;
+  private final StructType readSchema;
+  private final Query<SimpleFeature> query;
+  private final List<Filter> filters;
+  private Statistics statistics = null;
+
+  public GeoWaveScan(
+      final GeoWaveTable table,
+      final StructType readSchema,
+      final Query<SimpleFeature> query,
+      final List<Filter> filters) {
+    this.table = table;
+    this.readSchema = readSchema;
+    this.query = query;
+    this.filters = filters;
+  }
+
+  @Override
+  public StructType readSchema() {
+    return readSchema;
+  }
+
+  @Override
+  public String description() {
+    return "GeoWaveScan [type=" + table.name() + ", filters=" + filters + "]";
+  }
+
+  @Override
+  public Batch toBatch() {
+    return this;
+  }
+
+  @Override
+  public InputPartition[] planInputPartitions() {
+    final SparkContext sc = SparkSession.active().sparkContext();
+    final RDDOptions rddOpts = new RDDOptions();
+    rddOpts.setQuery(query);
+    rddOpts.setMinSplits(table.getMinSplits());
+    rddOpts.setMaxSplits(table.getMaxSplits());
+    final Configuration conf =
+        GeoWaveRDDLoader.createInputConfiguration(sc, table.getStoreOptions(), rddOpts);
+    final List<InputSplit> splits;
+    try {
+      splits =
+          new GeoWaveInputFormat<SimpleFeature>().getSplits(new JobContextImpl(conf, new JobID()));
+    } catch (IOException | InterruptedException e) {
+      LOGGER.error("Unable to get input splits for type '" + table.name() + "'", e);
+      throw new RuntimeException("Unable to get input splits for type '" + table.name() + "'", e);
+    }
+    final InputPartition[] partitions = new InputPartition[splits.size()];
+    for (int i = 0; i < partitions.length; i++) {
+      partitions[i] = new GeoWaveInputPartition(splits.get(i));
+    }
+    return partitions;
+  }
+
+  @Override
+  public PartitionReaderFactory createReaderFactory() {
+    final SparkContext sc = SparkSession.active().sparkContext();
+    final RDDOptions rddOpts = new RDDOptions();
+    rddOpts.setQuery(query);
+    final Configuration conf =
+        GeoWaveRDDLoader.createInputConfiguration(sc, table.getStoreOptions(), rddOpts);
+    final Broadcast<SerializableWritable<Configuration>> broadcastConf =
+        JavaSparkContext.fromSparkContext(sc).broadcast(new SerializableWritable<>(conf));
+    final String[] attributeNames = new String[readSchema.size()];
+    for (int i = 0; i < attributeNames.length; i++) {
+      attributeNames[i] = table.getAttributeName(readSchema.fields()[i].name());
+    }
+    return new GeoWavePartitionReaderFactory(broadcastConf, readSchema, attributeNames);
+  }
+
+  @Override
+  public Statistics estimateStatistics() {
+    if (statistics == null) {
+      statistics =
+          new GeoWaveStatistics(table.estimateRows(query, filters), readSchema.defaultSize());
+    }
+    return statistics;
+  }
+
+  private static class GeoWaveStatistics implements Statistics {
+    private final long numRows;
+    private final long rowSize;
+
+    private GeoWaveStatistics(final long numRows, final long rowSize) {
+      this.numRows = numRows;
+      this.rowSize = rowSize;
+    }
+
+    @Override
+    public OptionalLong sizeInBytes() {
+      return numRows < 0 ? OptionalLong.empty() : OptionalLong.of(numRows * rowSize);
+    }
+
+    @Override
+    public OptionalLong numRows() {
+      return numRows < 0 ? OptionalLong.empty() : OptionalLong.of(numRows);
+    }
+  }
+}
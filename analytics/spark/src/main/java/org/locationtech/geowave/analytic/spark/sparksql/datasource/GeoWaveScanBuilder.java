@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.sparksql.datasource;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.spark.sql.connector.read.Scan;
+import org.apache.spark.sql.connector.read.ScanBuilder;
+import org.apache.spark.sql.connector.read.SupportsPushDownFilters;
+import org.apache.spark.sql.connector.read.SupportsPushDownRequiredColumns;
+import org.apache.spark.sql.types.StructField;
+import org.apache.spark.sql.types.StructType;
+import org.geotools.factory.CommonFactoryFinder;
+import org.locationtech.geowave.core.geotime.store.query.api.VectorQueryBuilder;
+import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory2;
+
+/**
+ * Builds a GeoWave query from the filters and columns Spark pushes down. Filters that translate to
+ * GeoTools filters become query constraints so that GeoWave only scans the matching key ranges, and
+ * the required columns become a field subset of the query.
+ */
+public class GeoWaveScanBuilder implements
+    ScanBuilder,
+    SupportsPushDownFilters,
+    SupportsPushDownRequiredColumns {
+  private static final FilterFactory2 FF = CommonFactoryFinder.getFilterFactory2();
+
+  private final GeoWaveTable table;
+  private StructType requiredSchema;
+  private org.apache.spark.sql.sources.Filter[] pushedFilters =
+      new org.apache.spark.sql.sources.Filter[0];
+  private final List<Filter> translatedFilters = new ArrayList<>();
+
+  public GeoWaveScanBuilder(final GeoWaveTable table) {
+    this.table = table;
+    requiredSchema = table.schema();
+  }
+
+  @Override
+  public org.apache.spark.sql.sources.Filter[] pushFilters(
+      final org.apache.spark.sql.sources.Filter[] filters) {
+    final SparkFilterTranslator translator = new SparkFilterTranslator(table);
+    final List<org.apache.spark.sql.sources.Filter> pushed = new ArrayList<>();
+    translatedFilters.clear();
+    for (final org.apache.spark.sql.sources.Filter filter : filters) {
+      final Filter translated = translator.translate(filter);
+      if (translated != null) {
+        translatedFilters.add(translated);
+        pushed.add(filter);
+      }
+    }
+    pushedFilters = pushed.toArray(new org.apache.spark.sql.sources.Filter[pushed.size()]);
+    // GeoWave evaluates pushed filters exactly, but Spark and GeoTools comparison semantics can
+    // differ slightly (such as for timestamp precision and type coercion), so every filter is
+    // still evaluated by Spark after the scan
+    return filters;
+  }
+
+  @Override
+  public org.apache.spark.sql.sources.Filter[] pushedFilters() {
+    return pushedFilters;
+  }
+
+  @Override
+  public void pruneColumns(final StructType requiredSchema) {
+    this.requiredSchema = requiredSchema;
+  }
+
+  @Override
+  public Scan build() {
+    final String typeName = table.getFeatureType().getTypeName();
+    final VectorQueryBuilder bldr = VectorQueryBuilder.newBuilder().addTypeName(typeName);
+    final List<Filter> filters = new ArrayList<>(table.getSpatialFilters());
+    filters.addAll(translatedFilters);
+    if (!filters.isEmpty()) {
+      bldr.constraints(
+          bldr.constraintsFactory().filterConstraints(
+              filters.size() == 1 ? filters.get(0) : FF.and(filters)));
+    }
+    if (requiredSchema.size() < table.schema().size()) {
+      final Set<String> fieldNames = new LinkedHashSet<>();
+      for (final StructField field : requiredSchema.fields()) {
+        fieldNames.add(table.getAttributeName(field.name()));
+      }
+      if (fieldNames.isEmpty() && (table.getFeatureType().getGeometryDescriptor() != null)) {
+        // nothing is selected (such as for a count), so read the smallest set of fields possible
+        fieldNames.add(table.getFeatureType().getGeometryDescriptor().getLocalName());
+      }
+      if (!fieldNames.isEmpty()) {
+        bldr.subsetFields(typeName, fieldNames.toArray(new String[fieldNames.size()]));
+      }
+    }
+    return new GeoWaveScan(table, requiredSchema, bldr.build(), filters);
+  }
+}
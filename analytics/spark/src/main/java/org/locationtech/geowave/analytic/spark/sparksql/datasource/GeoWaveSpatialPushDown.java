@@ -0,0 +1,235 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.sparksql.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.spark.sql.catalyst.expressions.And;
+import org.apache.spark.sql.catalyst.expressions.AttributeReference;
+import org.apache.spark.sql.catalyst.expressions.Expression;
+import org.apache.spark.sql.catalyst.expressions.GreaterThan;
+import org.apache.spark.sql.catalyst.expressions.GreaterThanOrEqual;
+import org.apache.spark.sql.catalyst.expressions.LessThan;
+import org.apache.spark.sql.catalyst.expressions.LessThanOrEqual;
+import org.apache.spark.sql.catalyst.expressions.ScalaUDF;
+import org.apache.spark.sql.catalyst.plans.logical.Filter;
+import org.apache.spark.sql.catalyst.plans.logical.LogicalPlan;
+import org.apache.spark.sql.catalyst.rules.Rule;
+import org.apache.spark.sql.execution.datasources.v2.DataSourceV2Relation;
+import org.geotools.factory.CommonFactoryFinder;
+import org.locationtech.geowave.analytic.spark.sparksql.GeoWaveSpatialEncoders;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomDisjoint;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomFunction;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.UDFRegistrySPI;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.UDFRegistrySPI.UDFNameAndConstructor;
+import org.locationtech.geowave.core.geotime.util.GeometryUtils;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.opengis.filter.FilterFactory2;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import scala.Function1;
+import scala.runtime.AbstractPartialFunction;
+
+/**
+ * An optimizer rule that pushes spatial predicates on the geometry column of a {@link GeoWaveTable}
+ * down into the GeoWave query. Spark only pushes simple comparisons to data sources, so predicates
+ * using the functions of
+ * {@link org.locationtech.geowave.analytic.spark.sparksql.udf.GeomFunctionRegistry} would otherwise
+ * be evaluated after a full scan.
+ *
+ * <p> A predicate is pushed when one argument is the geometry column and the other is a constant,
+ * such as {@code GeomIntersects(geom, GeomFromWKT('POLYGON(...)'))} or
+ * {@code GeomDistance(geom, GeomFromWKT('POINT(...)')) <= 0.5}. Every predicate other than
+ * {@code GeomDisjoint} implies that the geometry intersects the constant, or its envelope expanded by
+ * the distance, which is what is pushed. The original predicate is kept in the plan so that results
+ * are exact.
+ */
+public class GeoWaveSpatialPushDown extends Rule<LogicalPlan> {
+  private static final Logger LOGGER = LoggerFactory.getLogger(GeoWaveSpatialPushDown.class);
+  private static final FilterFactory2 FF = CommonFactoryFinder.getFilterFactory2();
+  private static final String GEOMETRY_COLUMN = "geom";
+  private static final String DISTANCE_FUNCTION = "GeomDistance";
+
+  @Override
+  public LogicalPlan apply(final LogicalPlan plan) {
+    return plan.transformDown(new AbstractPartialFunction<LogicalPlan, LogicalPlan>() {
+      @Override
+      public boolean isDefinedAt(final LogicalPlan node) {
+        return (node instanceof Filter)
+            && (((Filter) node).child() instanceof DataSourceV2Relation)
+            && (((DataSourceV2Relation) ((Filter) node).child()).table() instanceof GeoWaveTable);
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public <A1 extends LogicalPlan, B1> B1 applyOrElse(
+          final A1 node,
+          final Function1<A1, B1> defaultFunction) {
+        if (!isDefinedAt(node)) {
+          return defaultFunction.apply(node);
+        }
+        return (B1) pushDown((Filter) node);
+      }
+    });
+  }
+
+  private static LogicalPlan pushDown(final Filter filter) {
+    final DataSourceV2Relation relation = (DataSourceV2Relation) filter.child();
+    final GeoWaveTable table = (GeoWaveTable) relation.table();
+    if (table.getFeatureType().getGeometryDescriptor() == null) {
+      return filter;
+    }
+    final String geometryAttribute = table.getFeatureType().getGeometryDescriptor().getLocalName();
+    final List<org.opengis.filter.Filter> spatialFilters = new ArrayList<>();
+    for (final Expression conjunct : splitConjuncts(filter.condition())) {
+      final Geometry constraint = toSpatialConstraint(conjunct, relation);
+      if (constraint != null) {
+        spatialFilters.add(
+            FF.intersects(FF.property(geometryAttribute), FF.literal(constraint)));
+      }
+    }
+    if (spatialFilters.isEmpty()) {
+      return filter;
+    }
+    final GeoWaveTable constrainedTable = table.withSpatialFilters(spatialFilters);
+    if (constrainedTable == table) {
+      return filter;
+    }
+    LOGGER.debug("Pushing spatial filters {} to GeoWave type '{}'", spatialFilters, table.name());
+    return new Filter(
+        filter.condition(),
+        new DataSourceV2Relation(
+            constrainedTable,
+            relation.output(),
+            relation.catalog(),
+            relation.identifier(),
+            relation.options()));
+  }
+
+  private static List<Expression> splitConjuncts(final Expression condition) {
+    final List<Expression> conjuncts = new ArrayList<>();
+    if (condition instanceof And) {
+      conjuncts.addAll(splitConjuncts(((And) condition).left()));
+      conjuncts.addAll(splitConjuncts(((And) condition).right()));
+    } else {
+      conjuncts.add(condition);
+    }
+    return conjuncts;
+  }
+
+  /**
+   * @return a geometry that the geometry column must intersect for the predicate to hold, or
+   *         {@code null} if the predicate does not constrain the geometry column
+   */
+  private static Geometry toSpatialConstraint(
+      final Expression predicate,
+      final DataSourceV2Relation relation) {
+    if (predicate instanceof ScalaUDF) {
+      final ScalaUDF udf = (ScalaUDF) predicate;
+      if (udf.udfName().isEmpty() || DISTANCE_FUNCTION.equals(udf.udfName().get())) {
+        return null;
+      }
+      final UDFNameAndConstructor function = UDFRegistrySPI.findFunctionByName(udf.udfName().get());
+      if (function == null) {
+        return null;
+      }
+      final GeomFunction geomFunction = function.getPredicateConstructor().get();
+      if (geomFunction instanceof GeomDisjoint) {
+        return null;
+      }
+      return getConstantGeometry(udf, relation, geomFunction.getBufferAmount());
+    }
+    // a distance comparison such as GeomDistance(geom, <constant>) <= distance
+    if ((predicate instanceof LessThan) || (predicate instanceof LessThanOrEqual)) {
+      return getDistanceConstraint(
+          predicate.children().apply(0),
+          predicate.children().apply(1),
+          relation);
+    }
+    if ((predicate instanceof GreaterThan) || (predicate instanceof GreaterThanOrEqual)) {
+      return getDistanceConstraint(
+          predicate.children().apply(1),
+          predicate.children().apply(0),
+          relation);
+    }
+    return null;
+  }
+
+  private static Geometry getDistanceConstraint(
+      final Expression distanceFunction,
+      final Expression distance,
+      final DataSourceV2Relation relation) {
+    if (!(distanceFunction instanceof ScalaUDF)
+        || ((ScalaUDF) distanceFunction).udfName().isEmpty()
+        || !DISTANCE_FUNCTION.equals(((ScalaUDF) distanceFunction).udfName().get())
+        || !isConstant(distance)) {
+      return null;
+    }
+    final Object value = distance.eval(null);
+    if (!(value instanceof Number)) {
+      return null;
+    }
+    return getConstantGeometry(
+        (ScalaUDF) distanceFunction,
+        relation,
+        ((Number) value).doubleValue());
+  }
+
+  private static Geometry getConstantGeometry(
+      final ScalaUDF udf,
+      final DataSourceV2Relation relation,
+      final double distance) {
+    if ((udf.children().size() != 2) || (distance < 0) || Double.isNaN(distance)) {
+      return null;
+    }
+    final Expression first = udf.children().apply(0);
+    final Expression second = udf.children().apply(1);
+    final Expression constant;
+    if (isGeometryColumn(first, relation) && isConstant(second)) {
+      constant = second;
+    } else if (isGeometryColumn(second, relation) && isConstant(first)) {
+      constant = first;
+    } else {
+      return null;
+    }
+    final Geometry geometry;
+    try {
+      final Object value = constant.eval(null);
+      if (value == null) {
+        return null;
+      }
+      geometry = GeoWaveSpatialEncoders.geometryUDT.deserialize(value);
+    } catch (final Exception e) {
+      LOGGER.debug("Unable to evaluate constant geometry", e);
+      return null;
+    }
+    if ((geometry == null) || geometry.isEmpty()) {
+      return null;
+    }
+    if (distance > 0) {
+      final Envelope envelope = new Envelope(geometry.getEnvelopeInternal());
+      envelope.expandBy(distance);
+      return GeometryUtils.GEOMETRY_FACTORY.toGeometry(envelope);
+    }
+    return geometry;
+  }
+
+  private static boolean isGeometryColumn(
+      final Expression expression,
+      final DataSourceV2Relation relation) {
+    return (expression instanceof AttributeReference)
+        && GEOMETRY_COLUMN.equals(((AttributeReference) expression).name())
+        && relation.outputSet().contains((AttributeReference) expression);
+  }
+
+  private static boolean isConstant(final Expression expression) {
+    return expression.references().isEmpty() && expression.deterministic();
+  }
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.sparksql.datasource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.spark.sql.connector.catalog.SupportsRead;
+import org.apache.spark.sql.connector.catalog.TableCapability;
+import org.apache.spark.sql.connector.read.ScanBuilder;
+import org.apache.spark.sql.types.StructType;
+import org.apache.spark.sql.util.CaseInsensitiveStringMap;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.IndexCostEstimate;
+import org.locationtech.geowave.core.store.api.Query;
+import org.locationtech.geowave.core.store.api.StatisticQueryBuilder;
+import org.locationtech.geowave.core.store.cli.store.DataStorePluginOptions;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic.CountValue;
+import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
+import org.opengis.filter.Filter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A GeoWave vector type exposed as a Spark table. The table may carry spatial filters that were
+ * extracted from the query plan by {@link GeoWaveSpatialPushDown}; they are added to the constraints
+ * of every scan of the table.
+ */
+public class GeoWaveTable implements SupportsRead {
+  private static final Logger LOGGER = LoggerFactory.getLogger(GeoWaveTable.class);
+  private static final Set<TableCapability> CAPABILITIES =
+      Collections.unmodifiableSet(EnumSet.of(TableCapability.BATCH_READ));
+
+  private final DataStorePluginOptions storeOptions;
+  private final SimpleFeatureType featureType;
+  private final StructType schema;
+  private final int minSplits;
+  private final int maxSplits;
+  private final List<Filter> spatialFilters;
+  private final StoreLookup storeLookup;
+
+  public GeoWaveTable(
+      final DataStorePluginOptions storeOptions,
+      final SimpleFeatureType featureType,
+      final StructType schema,
+      final int minSplits,
+      final int maxSplits) {
+    this(
+        storeOptions,
+        featureType,
+        schema,
+        minSplits,
+        maxSplits,
+        Collections.emptyList(),
+        new StoreLookup(storeOptions));
+  }
+
+  private GeoWaveTable(
+      final DataStorePluginOptions storeOptions,
+      final SimpleFeatureType featureType,
+      final StructType schema,
+      final int minSplits,
+      final int maxSplits,
+      final List<Filter> spatialFilters,
+      final StoreLookup storeLookup) {
+    this.storeOptions = storeOptions;
+    this.featureType = featureType;
+    this.schema = schema;
+    this.minSplits = minSplits;
+    this.maxSplits = maxSplits;
+    this.spatialFilters = spatialFilters;
+    this.storeLookup = storeLookup;
+  }
+
+  @Override
+  public String name() {
+    return featureType.getTypeName();
+  }
+
+  @Override
+  public StructType schema() {
+    return schema;
+  }
+
+  @Override
+  public Set<TableCapability> capabilities() {
+    return CAPABILITIES;
+  }
+
+  @Override
+  public ScanBuilder newScanBuilder(final CaseInsensitiveStringMap options) {
+    return new GeoWaveScanBuilder(this);
+  }
+
+  public DataStorePluginOptions getStoreOptions() {
+    return storeOptions;
+  }
+
+  public SimpleFeatureType getFeatureType() {
+    return featureType;
+  }
+
+  public int getMinSplits() {
+    return minSplits;
+  }
+
+  public int getMaxSplits() {
+    return maxSplits;
+  }
+
+  public List<Filter> getSpatialFilters() {
+    return spatialFilters;
+  }
+
+  /**
+   * @return the name of the feature attribute that backs the given column of the schema
+   */
+  public String getAttributeName(final String columnName) {
+    // the schema converter always names the geometry column "geom"
+    if ("geom".equals(columnName) && (featureType.getGeometryDescriptor() != null)) {
+      return featureType.getGeometryDescriptor().getLocalName();
+    }
+    return columnName;
+  }
+
+  /**
+   * @return a copy of this table that also constrains scans by the given spatial filters, or this
+   *         table if it already has all of them
+   */
+  public GeoWaveTable withSpatialFilters(final List<Filter> filters) {
+    final List<Filter> combined = new ArrayList<>(spatialFilters);
+    for (final Filter filter : filters) {
+      if (!combined.contains(filter)) {
+        combined.add(filter);
+      }
+    }
+    if (combined.size() == spatialFilters.size()) {
+      return this;
+    }
+    return new GeoWaveTable(
+        storeOptions,
+        featureType,
+        schema,
+        minSplits,
+        maxSplits,
+        combined,
+        storeLookup);
+  }
+
+  /**
+   * Estimate the number of rows a scan returns. Filtered scans use the estimate of the index the
+   * query would use and unfiltered scans use the count statistic.
+   *
+   * @param query the query of the scan
+   * @param filters the filters of the query, including the spatial filters of the table
+   * @return the estimated number of rows, or -1 if it is unknown
+   */
+  public long estimateRows(final Query<SimpleFeature> query, final List<Filter> filters) {
+    return storeLookup.estimateRows(name(), query, filters);
+  }
+
+  /**
+   * The store of a table and the row estimates of its scans. It is shared by the copies of a table
+   * so that the store is created once and each estimate is only looked up once, however many times
+   * the table's scans are planned.
+   */
+  private static class StoreLookup {
+    private final DataStorePluginOptions storeOptions;
+    private DataStore dataStore = null;
+    private final Map<List<Filter>, Long> estimatedRows = new HashMap<>();
+
+    private StoreLookup(final DataStorePluginOptions storeOptions) {
+      this.storeOptions = storeOptions;
+    }
+
+    private synchronized long estimateRows(
+        final String typeName,
+        final Query<SimpleFeature> query,
+        final List<Filter> filters) {
+      Long rows = estimatedRows.get(filters);
+      if (rows == null) {
+        rows = lookupRows(typeName, query, filters);
+        estimatedRows.put(new ArrayList<>(filters), rows);
+      }
+      return rows;
+    }
+
+    private long lookupRows(
+        final String typeName,
+        final Query<SimpleFeature> query,
+        final List<Filter> filters) {
+      try {
+        if (dataStore == null) {
+          dataStore = storeOptions.createDataStore();
+        }
+        if (!filters.isEmpty()) {
+          for (final IndexCostEstimate estimate : dataStore.explainIndexSelection(query)) {
+            if (estimate.isSelected() && estimate.isCostKnown()) {
+              return (long) Math.ceil(estimate.getEstimatedRows());
+            }
+          }
+        }
+        final CountValue count =
+            dataStore.aggregateStatistics(
+                StatisticQueryBuilder.newBuilder(CountStatistic.STATS_TYPE).typeName(
+                    typeName).build());
+        if ((count != null) && (count.getValue() != null)) {
+          return count.getValue();
+        }
+      } catch (final Exception e) {
+        LOGGER.warn("Unable to estimate the number of rows of type '" + typeName + "'", e);
+      }
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.analytic.spark.sparksql.datasource;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.spark.sql.sources.And;
+import org.apache.spark.sql.sources.EqualNullSafe;
+import org.apache.spark.sql.sources.EqualTo;
+import org.apache.spark.sql.sources.GreaterThan;
+import org.apache.spark.sql.sources.GreaterThanOrEqual;
+import org.apache.spark.sql.sources.In;
+import org.apache.spark.sql.sources.IsNotNull;
+import org.apache.spark.sql.sources.IsNull;
+import org.apache.spark.sql.sources.LessThan;
+import org.apache.spark.sql.sources.LessThanOrEqual;
+import org.apache.spark.sql.sources.Not;
+import org.apache.spark.sql.sources.Or;
+import org.apache.spark.sql.sources.StringStartsWith;
+import org.geotools.factory.CommonFactoryFinder;
+import org.opengis.filter.Filter;
+import org.opengis.filter.FilterFactory2;
+import org.opengis.filter.expression.Literal;
+import org.opengis.filter.expression.PropertyName;
+
+/**
+ * Translates the filters Spark pushes to a data source into GeoTools filters, which GeoWave turns
+ * into index constraints for spatial, temporal and attribute indices and evaluates exactly for the
+ * rest. Filters on the geometry column or on values that can not be represented are not translated.
+ */
+public class SparkFilterTranslator {
+  private static final FilterFactory2 FF = CommonFactoryFinder.getFilterFactory2();
+  private static final char WILDCARD = '*';
+  private static final char SINGLE_CHAR = '?';
+  private static final char ESCAPE = '\\';
+
+  private final GeoWaveTable table;
+
+  public SparkFilterTranslator(final GeoWaveTable table) {
+    this.table = table;
+  }
+
+  /**
+   * @return the GeoTools filter, or {@code null} if the filter can not be translated
+   */
+  public Filter translate(final org.apache.spark.sql.sources.Filter filter) {
+    if (filter instanceof And) {
+      final Filter left = translate(((And) filter).left());
+      final Filter right = translate(((And) filter).right());
+      return (left == null) || (right == null) ? null : FF.and(left, right);
+    } else if (filter instanceof Or) {
+      final Filter left = translate(((Or) filter).left());
+      final Filter right = translate(((Or) filter).right());
+      return (left == null) || (right == null) ? null : FF.or(left, right);
+    } else if (filter instanceof Not) {
+      final Filter child = translate(((Not) filter).child());
+      return child == null ? null : FF.not(child);
+    } else if (filter instanceof IsNull) {
+      final PropertyName property = property(((IsNull) filter).attribute());
+      return property == null ? null : FF.isNull(property);
+    } else if (filter instanceof IsNotNull) {
+      final PropertyName property = property(((IsNotNull) filter).attribute());
+      return property == null ? null : FF.not(FF.isNull(property));
+    } else if (filter instanceof EqualTo) {
+      final EqualTo equalTo = (EqualTo) filter;
+      final PropertyName property = property(equalTo.attribute());
+      final Literal value = literal(equalTo.value());
+      return (property == null) || (value == null) ? null : FF.equals(property, value);
+    } else if (filter instanceof EqualNullSafe) {
+      final EqualNullSafe equalTo = (EqualNullSafe) filter;
+      final PropertyName property = property(equalTo.attribute());
+      if (property == null) {
+        return null;
+      }
+      if (equalTo.value() == null) {
+        return FF.isNull(property);
+      }
+      final Literal value = literal(equalTo.value());
+      return value == null ? null : FF.equals(property, value);
+    } else if (filter instanceof GreaterThan) {
+      final GreaterThan comparison = (GreaterThan) filter;
+      final PropertyName property = property(comparison.attribute());
+      final Literal value = literal(comparison.value());
+      return (property == null) || (value == null) ? null : FF.greater(property, value);
+    } else if (filter instanceof GreaterThanOrEqual) {
+      final GreaterThanOrEqual comparison = (GreaterThanOrEqual) filter;
+      final PropertyName property = property(comparison.attribute());
+      final Literal value = literal(comparison.value());
+      return (property == null) || (value == null) ? null : FF.greaterOrEqual(property, value);
+    } else if (filter instanceof LessThan) {
+      final LessThan comparison = (LessThan) filter;
+      final PropertyName property = property(comparison.attribute());
+      final Literal value = literal(comparison.value());
+      return (property == null) || (value == null) ? null : FF.less(property, value);
+    } else if (filter instanceof LessThanOrEqual) {
+      final LessThanOrEqual comparison = (LessThanOrEqual) filter;
+      final PropertyName property = property(comparison.attribute());
+      final Literal value = literal(comparison.value());
+      return (property == null) || (value == null) ? null : FF.lessOrEqual(property, value);
+    } else if (filter instanceof In) {
+      final In in = (In) filter;
+      final PropertyName property = property(in.attribute());
+      if ((property == null) || (in.values().length == 0)) {
+        return null;
+      }
+      final List<Filter> equals = new ArrayList<>(in.values().length);
+      for (final Object v : in.values()) {
+        final Literal value = literal(v);
+        if (value == null) {
+          return null;
+        }
+        equals.add(FF.equals(property, value));
+      }
+      return equals.size() == 1 ? equals.get(0) : FF.or(equals);
+    } else if (filter instanceof StringStartsWith) {
+      final StringStartsWith startsWith = (StringStartsWith) filter;
+      final PropertyName property = property(startsWith.attribute());
+      return property == null ? null
+          : FF.like(
+              property,
+              escapeLike(startsWith.value()) + WILDCARD,
+              String.valueOf(WILDCARD),
+              String.valueOf(SINGLE_CHAR),
+              String.valueOf(ESCAPE),
+              true);
+    }
+    return null;
+  }
+
+  private PropertyName property(final String column) {
+    if ((column == null) || column.contains(".") || "geom".equals(column)) {
+      // nested columns and the geometry column are not supported
+      return null;
+    }
+    if (table.getFeatureType().getDescriptor(table.getAttributeName(column)) == null) {
+      return null;
+    }
+    return FF.property(table.getAttributeName(column));
+  }
+
+  private static Literal literal(final Object value) {
+    if ((value instanceof String)
+        || (value instanceof Number)
+        || (value instanceof Boolean)
+        || (value instanceof java.util.Date)) {
+      // java.sql.Timestamp and java.sql.Date are both dates
+      return FF.literal(value);
+    }
+    return null;
+  }
+
+  private static String escapeLike(final String value) {
+    final StringBuilder escaped = new StringBuilder(value.length());
+    for (final char c : value.toCharArray()) {
+      if ((c == WILDCARD) || (c == SINGLE_CHAR) || (c == ESCAPE)) {
+        escaped.append(ESCAPE);
+      }
+      escaped.append(c);
+    }
+    return escaped.toString();
+  }
+}
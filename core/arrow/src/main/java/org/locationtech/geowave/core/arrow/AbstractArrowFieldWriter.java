@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.arrow;
+
+import org.apache.arrow.vector.BaseFixedWidthVector;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.FieldVector;
+
+/**
+ * Base class for Arrow field writers that handles null values so that subclasses only need to write
+ * non-null values.
+ *
+ * @param <T> the type of the field values
+ * @param <V> the type of the vector
+ */
+public abstract class AbstractArrowFieldWriter<T, V extends FieldVector> implements
+    ArrowFieldWriter<T> {
+  protected final V vector;
+
+  public AbstractArrowFieldWriter(final V vector) {
+    this.vector = vector;
+  }
+
+  @Override
+  public V getVector() {
+    return vector;
+  }
+
+  @Override
+  public void setValue(final int index, final T value) {
+    if (value == null) {
+      setNull(index);
+    } else {
+      setNonNullValue(index, value);
+    }
+  }
+
+  protected void setNull(final int index) {
+    if (vector instanceof BaseFixedWidthVector) {
+      ((BaseFixedWidthVector) vector).setNull(index);
+    } else if (vector instanceof BaseVariableWidthVector) {
+      ((BaseVariableWidthVector) vector).setNull(index);
+    } else {
+      throw new UnsupportedOperationException(
+          "Null values are not supported for vectors of type " + vector.getMinorType());
+    }
+  }
+
+  /**
+   * Set a non-null value of the vector at the given index, growing the vector if necessary.
+   *
+   * @param index the index of the row
+   * @param value the value to set
+   */
+  protected abstract void setNonNullValue(int index, T value);
+}
@@ -0,0 +1,31 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.arrow;
+
+import org.apache.arrow.vector.FieldVector;
+
+/**
+ * Writes the values of a single field into an Apache Arrow vector.
+ *
+ * @param <T> the type of the field values
+ */
+public interface ArrowFieldWriter<T> {
+  /**
+   * @return the vector that values are written to
+   */
+  FieldVector getVector();
+
+  /**
+   * Set the value of the vector at the given index, growing the vector if necessary.
+   *
+   * @param index the index of the row
+   * @param value the value to set, which may be {@code null}
+   */
+  void setValue(int index, T value);
+}
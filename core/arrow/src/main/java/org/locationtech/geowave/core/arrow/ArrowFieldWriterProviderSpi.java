@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.arrow;
+
+import org.apache.arrow.memory.BufferAllocator;
+
+/**
+ * Provides Arrow field writers for a field type. Types without a registered provider are written as
+ * strings, so providers only need to be registered for types that have a better columnar
+ * representation, such as geometries.
+ *
+ * @param <T> the field type
+ */
+public interface ArrowFieldWriterProviderSpi<T> {
+  /**
+   * @param fieldName the name of the Arrow field
+   * @param allocator the allocator to create the vector with
+   * @return a writer for a new vector
+   */
+  ArrowFieldWriter<T> createFieldWriter(String fieldName, BufferAllocator allocator);
+}
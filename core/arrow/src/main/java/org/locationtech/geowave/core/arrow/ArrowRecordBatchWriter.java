@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.arrow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+
+/**
+ * Writes rows of field values as an Arrow IPC stream. Values are written directly into one vector
+ * per field, and every {@code batchSize} rows the vectors are written as a record batch and reused
+ * for the next batch, so memory use is bounded by the batch size regardless of the number of rows.
+ */
+public class ArrowRecordBatchWriter implements Closeable {
+  private final BufferAllocator allocator;
+  private final ArrowFieldWriter<Object>[] fieldWriters;
+  private final VectorSchemaRoot root;
+  private final ArrowStreamWriter writer;
+  private final int batchSize;
+  private int rowCount = 0;
+
+  /**
+   * @param fieldNames the names of the fields
+   * @param fieldTypes the types of the field values
+   * @param out the output stream, which is closed when this writer is closed
+   * @param batchSize the maximum number of rows in each record batch
+   */
+  @SuppressWarnings("unchecked")
+  public ArrowRecordBatchWriter(
+      final String[] fieldNames,
+      final Class<?>[] fieldTypes,
+      final OutputStream out,
+      final int batchSize) throws IOException {
+    this.batchSize = batchSize;
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    fieldWriters = new ArrowFieldWriter[fieldNames.length];
+    final List<FieldVector> vectors = new ArrayList<>(fieldNames.length);
+    for (int i = 0; i < fieldNames.length; i++) {
+      fieldWriters[i] = ArrowUtils.createFieldWriter(fieldNames[i], fieldTypes[i], allocator);
+      vectors.add(fieldWriters[i].getVector());
+    }
+    root = new VectorSchemaRoot(vectors);
+    root.allocateNew();
+    writer = new ArrowStreamWriter(root, null, Channels.newChannel(out));
+    writer.start();
+  }
+
+  /**
+   * Set the value of a field in the current row.
+   *
+   * @param fieldIndex the index of the field
+   * @param value the value, which may be {@code null}
+   */
+  public void setValue(final int fieldIndex, final Object value) {
+    fieldWriters[fieldIndex].setValue(rowCount, value);
+  }
+
+  /**
+   * Complete the current row, writing a record batch if the batch is full. Fields that were not set
+   * for the row are null.
+   */
+  public void endRow() throws IOException {
+    rowCount++;
+    if (rowCount >= batchSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Write any buffered rows as a record batch.
+   */
+  public void flush() throws IOException {
+    if (rowCount == 0) {
+      return;
+    }
+    for (final ArrowFieldWriter<Object> fieldWriter : fieldWriters) {
+      fieldWriter.getVector().setValueCount(rowCount);
+    }
+    root.setRowCount(rowCount);
+    writer.writeBatch();
+    for (final ArrowFieldWriter<Object> fieldWriter : fieldWriters) {
+      fieldWriter.getVector().reset();
+    }
+    rowCount = 0;
+  }
+
+  @Override
+  public void close() throws IOException {
+    try {
+      flush();
+      writer.end();
+    } finally {
+      writer.close();
+      root.close();
+      allocator.close();
+    }
+  }
+}
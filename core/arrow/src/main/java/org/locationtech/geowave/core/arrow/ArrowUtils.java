@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.arrow;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import org.apache.arrow.memory.BufferAllocator;
+import org.locationtech.geowave.core.index.SPIServiceRegistry;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Query;
+import org.locationtech.geowave.core.arrow.BaseArrowFieldWriters.BooleanFieldWriter;
+import org.locationtech.geowave.core.arrow.BaseArrowFieldWriters.ByteArrayFieldWriter;
+import org.locationtech.geowave.core.arrow.BaseArrowFieldWriters.ByteFieldWriter;
+import org.locationtech.geowave.core.arrow.BaseArrowFieldWriters.DateFieldWriter;
+import org.locationtech.geowave.core.arrow.BaseArrowFieldWriters.DoubleFieldWriter;
+import org.locationtech.geowave.core.arrow.BaseArrowFieldWriters.FloatFieldWriter;
+import org.locationtech.geowave.core.arrow.BaseArrowFieldWriters.IntegerFieldWriter;
+import org.locationtech.geowave.core.arrow.BaseArrowFieldWriters.LongFieldWriter;
+import org.locationtech.geowave.core.arrow.BaseArrowFieldWriters.ShortFieldWriter;
+import org.locationtech.geowave.core.arrow.BaseArrowFieldWriters.StringFieldWriter;
+import org.locationtech.geowave.core.store.data.field.FieldUtils;
+import org.locationtech.geowave.core.store.query.gwql.Result;
+import org.locationtech.geowave.core.store.query.gwql.ResultSet;
+import org.locationtech.geowave.core.store.util.GenericTypeResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class has a set of convenience methods to determine the appropriate Arrow field writer for a
+ * given field type and to write query results as Arrow record batches.
+ */
+public class ArrowUtils {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ArrowUtils.class);
+  public static final int DEFAULT_BATCH_SIZE = 10000;
+  private static Map<Class<?>, ArrowFieldWriterProviderSpi<?>> writerProviderRegistry = null;
+
+  private static synchronized Map<Class<?>, ArrowFieldWriterProviderSpi<?>> getWriterProviders() {
+    if (writerProviderRegistry == null) {
+      initRegistry();
+    }
+    return writerProviderRegistry;
+  }
+
+  private static synchronized void initRegistry() {
+    writerProviderRegistry = new HashMap<>();
+    writerProviderRegistry.put(
+        String.class,
+        (ArrowFieldWriterProviderSpi<Object>) StringFieldWriter::new);
+    registerWriterProvider(Boolean.class, BooleanFieldWriter::new);
+    registerWriterProvider(Byte.class, ByteFieldWriter::new);
+    registerWriterProvider(Short.class, ShortFieldWriter::new);
+    registerWriterProvider(Integer.class, IntegerFieldWriter::new);
+    registerWriterProvider(Long.class, LongFieldWriter::new);
+    registerWriterProvider(Float.class, FloatFieldWriter::new);
+    registerWriterProvider(Double.class, DoubleFieldWriter::new);
+    registerWriterProvider(Date.class, DateFieldWriter::new);
+    registerWriterProvider(byte[].class, ByteArrayFieldWriter::new);
+    final Iterator<ArrowFieldWriterProviderSpi> writerProviders =
+        new SPIServiceRegistry(ArrowFieldWriterProviderSpi.class).load(
+            ArrowFieldWriterProviderSpi.class);
+    while (writerProviders.hasNext()) {
+      final ArrowFieldWriterProviderSpi<?> writerProvider = writerProviders.next();
+      if (writerProvider != null) {
+        final Class<?> type =
+            GenericTypeResolver.resolveTypeArgument(
+                writerProvider.getClass(),
+                ArrowFieldWriterProviderSpi.class);
+        if (writerProviderRegistry.containsKey(type)) {
+          LOGGER.warn(
+              "Arrow field writer already registered for "
+                  + type
+                  + "; not able to add "
+                  + writerProvider);
+        } else {
+          writerProviderRegistry.put(type, writerProvider);
+        }
+      }
+    }
+  }
+
+  private static <T> void registerWriterProvider(
+      final Class<T> type,
+      final ArrowFieldWriterProviderSpi<T> provider) {
+    writerProviderRegistry.put(type, provider);
+  }
+
+  /**
+   * Create an Arrow field writer for the given field type. Values of types without a registered
+   * writer are written as strings.
+   *
+   * @param fieldName the name of the Arrow field
+   * @param type the type of the field values, may be {@code null} if it is unknown
+   * @param allocator the allocator to create the vector with
+   * @return the field writer
+   */
+  @SuppressWarnings("unchecked")
+  public static ArrowFieldWriter<Object> createFieldWriter(
+      final String fieldName,
+      final Class<?> type,
+      final BufferAllocator allocator) {
+    ArrowFieldWriterProviderSpi<?> provider = null;
+    if (type != null) {
+      final Map<Class<?>, ArrowFieldWriterProviderSpi<?>> providers = getWriterProviders();
+      synchronized (providers) {
+        provider = providers.get(type);
+        if (provider == null) {
+          // if the concrete class lookup failed, try inheritance
+          provider = FieldUtils.getAssignableValueFromClassMap(type, providers);
+          if (provider != null) {
+            providers.put(type, provider);
+          }
+        }
+      }
+    }
+    if (provider == null) {
+      return new StringFieldWriter(fieldName, allocator);
+    }
+    return (ArrowFieldWriter<Object>) provider.createFieldWriter(fieldName, allocator);
+  }
+
+  /**
+   * Write the given entries as an Arrow IPC stream. Field values are read from the entries and
+   * written directly into column vectors without any intermediate row representation.
+   *
+   * @param adapter the adapter of the entries
+   * @param fieldNames the fields to write, or {@code null} to write all fields of the adapter
+   * @param entries the entries to write
+   * @param out the output stream, which is closed when the stream has been written
+   * @param batchSize the maximum number of rows in each record batch
+   */
+  public static <T> void writeEntries(
+      final DataTypeAdapter<T> adapter,
+      final String[] fieldNames,
+      final Iterator<T> entries,
+      final OutputStream out,
+      final int batchSize) throws IOException {
+    final String[] names = getFieldNames(adapter, fieldNames);
+    try (ArrowRecordBatchWriter writer =
+        new ArrowRecordBatchWriter(names, getFieldTypes(adapter, names), out, batchSize)) {
+      while (entries.hasNext()) {
+        writeEntry(writer, adapter, names, entries.next());
+      }
+    }
+  }
+
+  private static String[] getFieldNames(
+      final DataTypeAdapter<?> adapter,
+      final String[] fieldNames) {
+    if ((fieldNames != null) && (fieldNames.length > 0)) {
+      return fieldNames;
+    }
+    final String[] names = new String[adapter.getFieldDescriptors().length];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = adapter.getFieldDescriptors()[i].fieldName();
+    }
+    return names;
+  }
+
+  private static Class<?>[] getFieldTypes(
+      final DataTypeAdapter<?> adapter,
+      final String[] fieldNames) {
+    final Class<?>[] types = new Class<?>[fieldNames.length];
+    for (int i = 0; i < fieldNames.length; i++) {
+      types[i] = adapter.getFieldDescriptor(fieldNames[i]).bindingClass();
+    }
+    return types;
+  }
+
+  private static <T> void writeEntry(
+      final ArrowRecordBatchWriter writer,
+      final DataTypeAdapter<T> adapter,
+      final String[] fieldNames,
+      final T entry) throws IOException {
+    for (int i = 0; i < fieldNames.length; i++) {
+      writer.setValue(i, adapter.getFieldValue(entry, fieldNames[i]));
+    }
+    writer.endRow();
+  }
+
+  /**
+   * Write the given query results as an Arrow IPC stream.
+   *
+   * @param results the results to write
+   * @param out the output stream, which is closed when the stream has been written
+   * @param batchSize the maximum number of rows in each record batch
+   */
+  public static void writeResults(
+      final ResultSet results,
+      final OutputStream out,
+      final int batchSize) throws IOException {
+    final String[] names = new String[results.columnCount()];
+    final Class<?>[] types = new Class<?>[results.columnCount()];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = results.columnName(i);
+      types[i] = results.columnType(i);
+    }
+    try (ArrowRecordBatchWriter writer = new ArrowRecordBatchWriter(names, types, out, batchSize)) {
+      while (results.hasNext()) {
+        final Result result = results.next();
+        for (int i = 0; i < names.length; i++) {
+          writer.setValue(i, result.columnValue(i));
+        }
+        writer.endRow();
+      }
+    }
+  }
+
+  /**
+   * Query a single type and return the results as an Arrow IPC stream. This is intended for clients
+   * such as Python that can read the stream without converting each result. The stream is returned
+   * in chunks that are written as they are requested, so that only one record batch is buffered at
+   * a time. The first chunk is the schema, each following chunk is a record batch, and the last
+   * chunk also ends the stream.
+   *
+   * @param dataStore the data store to query
+   * @param query the query, which must be limited to exactly one type unless the data store only
+   *        has one type
+   * @param batchSize the maximum number of rows in each record batch
+   * @return the chunks of the Arrow IPC stream, the iterator should be closed if it isn't read to
+   *         the end
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> CloseableIterator<byte[]> queryToArrow(
+      final DataStore dataStore,
+      final Query<T> query,
+      final int batchSize) throws IOException {
+    final String[] typeNames = query.getDataTypeQueryOptions().getTypeNames();
+    final DataTypeAdapter<T> adapter;
+    if ((typeNames == null) || (typeNames.length == 0)) {
+      // a query of all types is fine as long as there is only one
+      final DataTypeAdapter<?>[] types = dataStore.getTypes();
+      adapter = types.length == 1 ? (DataTypeAdapter<T>) types[0] : null;
+    } else if (typeNames.length == 1) {
+      adapter = (DataTypeAdapter<T>) dataStore.getType(typeNames[0]);
+    } else {
+      adapter = null;
+    }
+    if (adapter == null) {
+      throw new IllegalArgumentException(
+          "Arrow results require a query of exactly one existing type");
+    }
+    final String[] names = getFieldNames(adapter, query.getDataTypeQueryOptions().getFieldNames());
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final ArrowRecordBatchWriter writer =
+        new ArrowRecordBatchWriter(names, getFieldTypes(adapter, names), out, batchSize);
+    final CloseableIterator<T> entries;
+    try {
+      entries = dataStore.query(query);
+    } catch (final RuntimeException e) {
+      writer.close();
+      throw e;
+    }
+    return new ArrowStreamIterator<>(adapter, names, entries, writer, out);
+  }
+
+  /**
+   * Writes entries into an Arrow IPC stream as the chunks of the stream are requested.
+   */
+  private static class ArrowStreamIterator<T> implements CloseableIterator<byte[]> {
+    private final DataTypeAdapter<T> adapter;
+    private final String[] fieldNames;
+    private final CloseableIterator<T> entries;
+    private final ArrowRecordBatchWriter writer;
+    private final ByteArrayOutputStream out;
+    private boolean ended = false;
+    private boolean closed = false;
+
+    private ArrowStreamIterator(
+        final DataTypeAdapter<T> adapter,
+        final String[] fieldNames,
+        final CloseableIterator<T> entries,
+        final ArrowRecordBatchWriter writer,
+        final ByteArrayOutputStream out) {
+      this.adapter = adapter;
+      this.fieldNames = fieldNames;
+      this.entries = entries;
+      this.writer = writer;
+      this.out = out;
+    }
+
+    @Override
+    public boolean hasNext() {
+      // the end of the stream is always written, even if there are no more entries
+      return (out.size() > 0) || !ended;
+    }
+
+    @Override
+    public byte[] next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      try {
+        // the schema was written when the writer was created, and each record batch is written to
+        // the output as soon as it is full
+        while ((out.size() == 0) && !ended) {
+          if (entries.hasNext()) {
+            writeEntry(writer, adapter, fieldNames, entries.next());
+          } else {
+            ended = true;
+            close();
+          }
+        }
+      } catch (final IOException e) {
+        close();
+        throw new RuntimeException("Unable to write Arrow record batch", e);
+      }
+      final byte[] chunk = out.toByteArray();
+      out.reset();
+      return chunk;
+    }
+
+    @Override
+    public void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try {
+        entries.close();
+      } finally {
+        try {
+          // writes the remaining rows and the end of the stream
+          writer.close();
+        } catch (final IOException e) {
+          LOGGER.warn("Unable to close Arrow record batch writer", e);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.arrow;
+
+import java.util.Date;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.Float4Vector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.SmallIntVector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.TinyIntVector;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.locationtech.geowave.core.index.StringUtils;
+
+/**
+ * Arrow field writers for the basic Java types. Values of types without a registered writer are
+ * written as strings by {@link StringFieldWriter}.
+ */
+public class BaseArrowFieldWriters {
+  private static final String UTC = "UTC";
+
+  public static class StringFieldWriter extends AbstractArrowFieldWriter<Object, VarCharVector> {
+    public StringFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new VarCharVector(fieldName, allocator));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Object value) {
+      vector.setSafe(index, StringUtils.stringToBinary(value.toString()));
+    }
+  }
+
+  public static class BooleanFieldWriter extends AbstractArrowFieldWriter<Boolean, BitVector> {
+    public BooleanFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new BitVector(fieldName, allocator));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Boolean value) {
+      vector.setSafe(index, value ? 1 : 0);
+    }
+  }
+
+  public static class ByteFieldWriter extends AbstractArrowFieldWriter<Byte, TinyIntVector> {
+    public ByteFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new TinyIntVector(fieldName, allocator));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Byte value) {
+      vector.setSafe(index, value);
+    }
+  }
+
+  public static class ShortFieldWriter extends AbstractArrowFieldWriter<Short, SmallIntVector> {
+    public ShortFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new SmallIntVector(fieldName, allocator));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Short value) {
+      vector.setSafe(index, value);
+    }
+  }
+
+  public static class IntegerFieldWriter extends AbstractArrowFieldWriter<Integer, IntVector> {
+    public IntegerFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new IntVector(fieldName, allocator));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Integer value) {
+      vector.setSafe(index, value);
+    }
+  }
+
+  public static class LongFieldWriter extends AbstractArrowFieldWriter<Long, BigIntVector> {
+    public LongFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new BigIntVector(fieldName, allocator));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Long value) {
+      vector.setSafe(index, value);
+    }
+  }
+
+  public static class FloatFieldWriter extends AbstractArrowFieldWriter<Float, Float4Vector> {
+    public FloatFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new Float4Vector(fieldName, allocator));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Float value) {
+      vector.setSafe(index, value);
+    }
+  }
+
+  public static class DoubleFieldWriter extends AbstractArrowFieldWriter<Double, Float8Vector> {
+    public DoubleFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new Float8Vector(fieldName, allocator));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Double value) {
+      vector.setSafe(index, value);
+    }
+  }
+
+  /**
+   * Writes dates, including {@link java.sql.Timestamp} and {@link java.sql.Date}, as UTC timestamps
+   * with millisecond precision.
+   */
+  public static class DateFieldWriter extends
+      AbstractArrowFieldWriter<Date, TimeStampMilliTZVector> {
+    public DateFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new TimeStampMilliTZVector(fieldName, allocator, UTC));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Date value) {
+      vector.setSafe(index, value.getTime());
+    }
+  }
+
+  public static class ByteArrayFieldWriter extends
+      AbstractArrowFieldWriter<byte[], VarBinaryVector> {
+    public ByteArrayFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new VarBinaryVector(fieldName, allocator));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final byte[] value) {
+      vector.setSafe(index, value);
+    }
+  }
+}
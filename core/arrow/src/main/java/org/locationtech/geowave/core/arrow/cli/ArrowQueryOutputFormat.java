@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.arrow.cli;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import org.locationtech.geowave.core.arrow.ArrowUtils;
+import org.locationtech.geowave.core.store.cli.query.QueryOutputFormatSpi;
+import org.locationtech.geowave.core.store.query.gwql.ResultSet;
+import com.beust.jcommander.Parameter;
+
+/**
+ * Writes query results as an Apache Arrow IPC stream that can be read by columnar consumers such as
+ * pyarrow and pandas.
+ */
+public class ArrowQueryOutputFormat extends QueryOutputFormatSpi {
+  public static final String FORMAT_NAME = "arrow";
+
+  @Parameter(names = {"-o", "--outputFile"}, required = true, description = "Output file")
+  private String outputFile;
+
+  @Parameter(
+      names = {"--batchSize"},
+      description = "The maximum number of rows in each Arrow record batch")
+  private int batchSize = ArrowUtils.DEFAULT_BATCH_SIZE;
+
+  public ArrowQueryOutputFormat() {
+    super(FORMAT_NAME);
+  }
+
+  @Override
+  public void output(final ResultSet results) {
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(outputFile))) {
+      ArrowUtils.writeResults(results, out, batchSize);
+    } catch (IOException e) {
+      throw new RuntimeException("Error writing Arrow: " + e.getMessage(), e);
+    }
+  }
+
+}
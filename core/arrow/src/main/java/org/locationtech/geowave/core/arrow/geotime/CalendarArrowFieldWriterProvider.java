@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.arrow.geotime;
+
+import java.util.Calendar;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.locationtech.geowave.core.arrow.AbstractArrowFieldWriter;
+import org.locationtech.geowave.core.arrow.ArrowFieldWriter;
+import org.locationtech.geowave.core.arrow.ArrowFieldWriterProviderSpi;
+
+/**
+ * Writes calendars to Arrow as UTC timestamps with millisecond precision, the same as dates.
+ */
+public class CalendarArrowFieldWriterProvider implements ArrowFieldWriterProviderSpi<Calendar> {
+  @Override
+  public ArrowFieldWriter<Calendar> createFieldWriter(
+      final String fieldName,
+      final BufferAllocator allocator) {
+    return new CalendarArrowFieldWriter(fieldName, allocator);
+  }
+
+  protected static class CalendarArrowFieldWriter extends
+      AbstractArrowFieldWriter<Calendar, TimeStampMilliTZVector> {
+    public CalendarArrowFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(new TimeStampMilliTZVector(fieldName, allocator, "UTC"));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Calendar value) {
+      vector.setSafe(index, value.getTimeInMillis());
+    }
+  }
+}
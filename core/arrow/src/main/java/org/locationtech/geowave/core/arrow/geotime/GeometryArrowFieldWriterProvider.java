@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.arrow.geotime;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VarBinaryVector;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.locationtech.geowave.core.arrow.AbstractArrowFieldWriter;
+import org.locationtech.geowave.core.arrow.ArrowFieldWriter;
+import org.locationtech.geowave.core.arrow.ArrowFieldWriterProviderSpi;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.WKBWriter;
+
+/**
+ * Writes geometries to Arrow as WKB. The field is tagged with the GeoArrow {@code geoarrow.wkb}
+ * extension name so that consumers such as GeoPandas can recognize it as a geometry column.
+ */
+public class GeometryArrowFieldWriterProvider implements ArrowFieldWriterProviderSpi<Geometry> {
+  public static final String EXTENSION_NAME_KEY = "ARROW:extension:name";
+  public static final String EXTENSION_METADATA_KEY = "ARROW:extension:metadata";
+  public static final String WKB_EXTENSION_NAME = "geoarrow.wkb";
+  private static final Map<String, String> FIELD_METADATA;
+
+  static {
+    final Map<String, String> metadata = new HashMap<>();
+    metadata.put(EXTENSION_NAME_KEY, WKB_EXTENSION_NAME);
+    metadata.put(EXTENSION_METADATA_KEY, "{}");
+    FIELD_METADATA = Collections.unmodifiableMap(metadata);
+  }
+
+  @Override
+  public ArrowFieldWriter<Geometry> createFieldWriter(
+      final String fieldName,
+      final BufferAllocator allocator) {
+    return new GeometryArrowFieldWriter(fieldName, allocator);
+  }
+
+  protected static class GeometryArrowFieldWriter extends
+      AbstractArrowFieldWriter<Geometry, VarBinaryVector> {
+    // WKB writers are not thread-safe, but each field writer is only used by a single thread
+    private final WKBWriter wkbWriter = new WKBWriter();
+
+    public GeometryArrowFieldWriter(final String fieldName, final BufferAllocator allocator) {
+      super(
+          new VarBinaryVector(
+              fieldName,
+              new FieldType(true, ArrowType.Binary.INSTANCE, null, FIELD_METADATA),
+              allocator));
+    }
+
+    @Override
+    protected void setNonNullValue(final int index, final Geometry value) {
+      vector.setSafe(index, wkbWriter.write(value));
+    }
+  }
+}
@@ -0,0 +1,222 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.arrow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.TimeStampMilliTZVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.adapter.BasicDataTypeAdapter;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveDataType;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveField;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.DataStoreFactory;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.api.QueryBuilder;
+import org.locationtech.geowave.core.store.api.Writer;
+import org.locationtech.geowave.core.store.index.AttributeDimensionalityTypeProvider;
+import org.locationtech.geowave.core.store.memory.MemoryRequiredOptions;
+
+public class ArrowUtilsTest {
+  private static final int ENTRY_COUNT = 25;
+
+  private DataStore dataStore;
+  private DataTypeAdapter<ArrowTestType> adapter;
+
+  @Before
+  public void createStore() {
+    dataStore = DataStoreFactory.createDataStore(new MemoryRequiredOptions());
+    adapter = BasicDataTypeAdapter.newAdapter("arrow", ArrowTestType.class, "id");
+    final Index index =
+        AttributeDimensionalityTypeProvider.createIndexForDescriptor(
+            adapter,
+            adapter.getFieldDescriptor("count"),
+            "countIdx");
+    dataStore.addType(adapter, index);
+    try (Writer<ArrowTestType> writer = dataStore.createWriter(adapter.getTypeName())) {
+      for (int i = 0; i < ENTRY_COUNT; i++) {
+        writer.write(
+            new ArrowTestType(
+                Integer.toString(i),
+                (long) i,
+                // every fifth value is null
+                (i % 5) == 0 ? null : i / 2.0,
+                i % 2 == 0));
+      }
+    }
+  }
+
+  @After
+  public void tearDown() {
+    dataStore.deleteAll();
+  }
+
+  @Test
+  public void testQueryToArrow() throws IOException {
+    final List<byte[]> chunks =
+        readChunks(
+            ArrowUtils.queryToArrow(
+                dataStore,
+                QueryBuilder.newBuilder(ArrowTestType.class).addTypeName(
+                    adapter.getTypeName()).build(),
+                10));
+    // the schema, a chunk for each full record batch, and the last batch with the end of the stream
+    assertEquals(4, chunks.size());
+    final Set<String> ids = new HashSet<>();
+    int batches = 0;
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+        ArrowStreamReader reader = new ArrowStreamReader(toInputStream(chunks), allocator)) {
+      final VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      assertEquals(4, root.getSchema().getFields().size());
+      assertTrue(root.getVector("value").getField().getType() instanceof ArrowType.FloatingPoint);
+      while (reader.loadNextBatch()) {
+        batches++;
+        assertTrue(root.getRowCount() <= 10);
+        final VarCharVector idVector = (VarCharVector) root.getVector("id");
+        final BigIntVector countVector = (BigIntVector) root.getVector("count");
+        final Float8Vector valueVector = (Float8Vector) root.getVector("value");
+        final BitVector flagVector = (BitVector) root.getVector("flag");
+        for (int i = 0; i < root.getRowCount(); i++) {
+          final String id = new String(idVector.get(i));
+          final long count = countVector.get(i);
+          assertEquals(Long.parseLong(id), count);
+          if ((count % 5) == 0) {
+            assertTrue(valueVector.isNull(i));
+          } else {
+            assertFalse(valueVector.isNull(i));
+            assertEquals(count / 2.0, valueVector.get(i), 0);
+          }
+          assertEquals((count % 2) == 0 ? 1 : 0, flagVector.get(i));
+          ids.add(id);
+        }
+      }
+    }
+    assertEquals(3, batches);
+    assertEquals(ENTRY_COUNT, ids.size());
+  }
+
+  @Test
+  public void testFieldSubset() throws IOException {
+    final List<byte[]> chunks =
+        readChunks(
+            ArrowUtils.queryToArrow(
+                dataStore,
+                QueryBuilder.newBuilder(ArrowTestType.class).addTypeName(
+                    adapter.getTypeName()).subsetFields(
+                        adapter.getTypeName(),
+                        "id",
+                        "flag").build(),
+                ArrowUtils.DEFAULT_BATCH_SIZE));
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE);
+        ArrowStreamReader reader = new ArrowStreamReader(toInputStream(chunks), allocator)) {
+      final VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      assertEquals(2, root.getSchema().getFields().size());
+      assertEquals("id", root.getSchema().getFields().get(0).getName());
+      assertEquals("flag", root.getSchema().getFields().get(1).getName());
+      assertTrue(reader.loadNextBatch());
+      assertEquals(ENTRY_COUNT, root.getRowCount());
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+
+  @Test
+  public void testUnregisteredTypesAreWrittenAsStrings() {
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      final ArrowFieldWriter<Object> writer =
+          ArrowUtils.createFieldWriter("field", StringBuilder.class, allocator);
+      writer.setValue(0, new StringBuilder("value"));
+      writer.getVector().setValueCount(1);
+      assertEquals("value", writer.getVector().getObject(0).toString());
+      writer.getVector().close();
+    }
+  }
+
+  @Test
+  public void testDatesAreWrittenAsTimestamps() {
+    try (BufferAllocator allocator = new RootAllocator(Long.MAX_VALUE)) {
+      final ArrowFieldWriter<Object> writer =
+          ArrowUtils.createFieldWriter("field", Timestamp.class, allocator);
+      writer.setValue(0, new Timestamp(1000L));
+      writer.setValue(1, null);
+      writer.getVector().setValueCount(2);
+      assertTrue(writer.getVector() instanceof TimeStampMilliTZVector);
+      assertEquals(1000L, ((TimeStampMilliTZVector) writer.getVector()).get(0));
+      assertTrue(writer.getVector().isNull(1));
+      writer.getVector().close();
+    }
+  }
+
+  private static List<byte[]> readChunks(final CloseableIterator<byte[]> it) {
+    final List<byte[]> chunks = new ArrayList<>();
+    try (CloseableIterator<byte[]> chunkIt = it) {
+      chunkIt.forEachRemaining(chunks::add);
+    }
+    return chunks;
+  }
+
+  private static InputStream toInputStream(final List<byte[]> chunks) {
+    final Vector<InputStream> streams = new Vector<>();
+    for (final byte[] chunk : chunks) {
+      streams.add(new ByteArrayInputStream(chunk));
+    }
+    return new SequenceInputStream(streams.elements());
+  }
+
+  @GeoWaveDataType
+  public static class ArrowTestType {
+    @GeoWaveField
+    private String id;
+
+    @GeoWaveField
+    private Long count;
+
+    @GeoWaveField
+    private Double value;
+
+    @GeoWaveField
+    private Boolean flag;
+
+    public ArrowTestType() {}
+
+    public ArrowTestType(
+        final String id,
+        final Long count,
+        final Double value,
+        final Boolean flag) {
+      this.id = id;
+      this.count = count;
+      this.value = value;
+      this.flag = flag;
+    }
+  }
+}
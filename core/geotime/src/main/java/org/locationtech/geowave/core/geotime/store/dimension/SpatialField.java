@@ -68,8 +68,10 @@ public abstract class SpatialField implements NumericDimensionField<Geometry> {
     }
     this.baseDefinition = baseDefinition;
     this.geometryPrecision = geometryPrecision;
+    // the common index geometry is decoded before filters see it, so it never needs the bounding
+    // box header
     final GeometrySerializationProvider serialization =
-        new GeometrySerializationProvider(geometryPrecision);
+        new GeometrySerializationProvider(geometryPrecision, false);
     geometryReader = serialization.getFieldReader();
     geometryWriter = serialization.getFieldWriter();
   }
@@ -186,7 +188,7 @@ public abstract class SpatialField implements NumericDimensionField<Geometry> {
       geometryPrecision = Integer.valueOf(precision);
     }
     final GeometrySerializationProvider serialization =
-        new GeometrySerializationProvider(geometryPrecision);
+        new GeometrySerializationProvider(geometryPrecision, false);
     geometryReader = serialization.getFieldReader();
     geometryWriter = serialization.getFieldWriter();
     final byte[] crsBinary = new byte[buf.remaining()];
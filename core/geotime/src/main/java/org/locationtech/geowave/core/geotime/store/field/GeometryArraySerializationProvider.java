@@ -10,6 +10,7 @@ package org.locationtech.geowave.core.geotime.store.field;
 
 import org.locationtech.geowave.core.geotime.store.field.GeometrySerializationProvider.GeometryReader;
 import org.locationtech.geowave.core.geotime.store.field.GeometrySerializationProvider.GeometryWriter;
+import org.locationtech.geowave.core.geotime.util.GeometryUtils;
 import org.locationtech.geowave.core.store.data.field.ArrayReader;
 import org.locationtech.geowave.core.store.data.field.ArrayWriter.VariableSizeObjectArrayWriter;
 import org.locationtech.geowave.core.store.data.field.FieldReader;
@@ -37,7 +38,8 @@ public class GeometryArraySerializationProvider implements
 
   private static class GeometryArrayWriter extends VariableSizeObjectArrayWriter<Geometry> {
     public GeometryArrayWriter() {
-      super(new GeometryWriter());
+      // filters only read the bounding box header of single geometries
+      super(new GeometryWriter(GeometryUtils.MAX_GEOMETRY_PRECISION, false));
     }
   }
 }
@@ -14,18 +14,39 @@ import org.locationtech.geowave.core.store.data.field.FieldReader;
 import org.locationtech.geowave.core.store.data.field.FieldSerializationProviderSpi;
 import org.locationtech.geowave.core.store.data.field.FieldUtils;
 import org.locationtech.geowave.core.store.data.field.FieldWriter;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 
 public class GeometrySerializationProvider implements FieldSerializationProviderSpi<Geometry> {
+  /**
+   * Set this system property to {@code true} to write non-point geometries with a bounding box
+   * header, so that spatial filters can reject entries without decoding their geometries. Only set
+   * it once every version that reads the data understands the header, older versions ignore it and
+   * misread the geometry.
+   */
+  public static final String BOUNDING_BOX_PROPERTY = "geowave.geometry.boundingBox";
   private Integer geometryPrecision;
+  private boolean boundingBox;
 
   public GeometrySerializationProvider() {
-    geometryPrecision = GeometryUtils.MAX_GEOMETRY_PRECISION;
+    this(GeometryUtils.MAX_GEOMETRY_PRECISION);
   }
 
   public GeometrySerializationProvider(@Nullable final Integer geometryPrecision) {
+    this(geometryPrecision, true);
+  }
+
+  /**
+   * @param geometryPrecision the precision to encode geometries with
+   * @param boundingBox whether geometries may be written with a bounding box header, it should only
+   *        be allowed where filters read the header from the encoded value
+   */
+  public GeometrySerializationProvider(
+      @Nullable final Integer geometryPrecision,
+      final boolean boundingBox) {
     super();
     this.geometryPrecision = geometryPrecision;
+    this.boundingBox = boundingBox;
   }
 
   @Override
@@ -35,10 +56,10 @@ public class GeometrySerializationProvider implements FieldSerializationProvider
 
   @Override
   public FieldWriter<Geometry> getFieldWriter() {
-    return new GeometryWriter(geometryPrecision);
+    return new GeometryWriter(geometryPrecision, boundingBox);
   }
 
-  protected static class GeometryReader implements FieldReader<Geometry> {
+  public static class GeometryReader implements FieldReader<Geometry> {
     private Integer geometryPrecision;
 
     public GeometryReader() {
@@ -71,17 +92,37 @@ public class GeometrySerializationProvider implements FieldSerializationProvider
       }
       return GeometryUtils.geometryFromBinary(fieldData, geometryPrecision, serializationVersion);
     }
+
+    /**
+     * Read the envelope of an encoded geometry without decoding the full geometry.
+     *
+     * @param fieldData the encoded geometry
+     * @return the envelope of the geometry, or {@code null} if it could not be determined without
+     *         decoding the full geometry
+     */
+    public Envelope readEnvelope(final byte[] fieldData) {
+      if ((fieldData == null) || (fieldData.length < 1)) {
+        return null;
+      }
+      return GeometryUtils.envelopeFromBinary(fieldData, geometryPrecision);
+    }
   }
 
   protected static class GeometryWriter implements FieldWriter<Geometry> {
     private Integer geometryPrecision;
+    private final boolean boundingBox;
 
     public GeometryWriter() {
-      geometryPrecision = GeometryUtils.MAX_GEOMETRY_PRECISION;
+      this(GeometryUtils.MAX_GEOMETRY_PRECISION);
     }
 
     public GeometryWriter(@Nullable final Integer geometryPrecision) {
+      this(geometryPrecision, true);
+    }
+
+    public GeometryWriter(@Nullable final Integer geometryPrecision, final boolean boundingBox) {
       this.geometryPrecision = geometryPrecision;
+      this.boundingBox = boundingBox;
     }
 
     public void setPrecision(@Nullable final Integer geometryPrecision) {
@@ -93,7 +134,10 @@ public class GeometrySerializationProvider implements FieldSerializationProvider
       if (fieldValue == null) {
         return new byte[] {};
       }
-      return GeometryUtils.geometryToBinary(fieldValue, geometryPrecision);
+      return GeometryUtils.geometryToBinary(
+          fieldValue,
+          geometryPrecision,
+          boundingBox && Boolean.getBoolean(BOUNDING_BOX_PROPERTY));
     }
   }
 }
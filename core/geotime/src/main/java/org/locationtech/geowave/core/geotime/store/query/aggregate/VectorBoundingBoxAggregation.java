@@ -8,13 +8,20 @@
  */
 package org.locationtech.geowave.core.geotime.store.query.aggregate;
 
+import org.locationtech.geowave.core.geotime.store.statistics.BoundingBoxStatistic;
+import org.locationtech.geowave.core.geotime.store.statistics.BoundingBoxStatistic.BoundingBoxValue;
 import org.locationtech.geowave.core.store.adapter.FieldDescriptor;
 import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.StatisticValue;
 import org.locationtech.geowave.core.store.query.aggregate.FieldNameParam;
+import org.locationtech.geowave.core.store.query.aggregate.StatisticsCompatibleAggregation;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 
-public class VectorBoundingBoxAggregation<T> extends BoundingBoxAggregation<FieldNameParam, T> {
+public class VectorBoundingBoxAggregation<T> extends BoundingBoxAggregation<FieldNameParam, T>
+    implements
+    StatisticsCompatibleAggregation<Envelope> {
   private FieldNameParam fieldNameParam;
   private String spatialField = null;
 
@@ -37,6 +44,24 @@ public class VectorBoundingBoxAggregation<T> extends BoundingBoxAggregation<Fiel
     this.fieldNameParam = fieldNameParam;
   }
 
+  @Override
+  public boolean isResolvableFrom(final DataTypeAdapter<?> adapter, final Statistic<?> statistic) {
+    // Only a statistic on the same field without a CRS transform will have the same envelope
+    return (fieldNameParam != null)
+        && !fieldNameParam.isEmpty()
+        && BoundingBoxStatistic.STATS_TYPE.equals(statistic.getStatisticType())
+        && fieldNameParam.getFieldName().equals(
+            ((BoundingBoxStatistic) statistic).getFieldName())
+        && (((BoundingBoxStatistic) statistic).getTransform() == null);
+  }
+
+  @Override
+  public Envelope resultFromStatistic(
+      final DataTypeAdapter<?> adapter,
+      final StatisticValue<?> value) {
+    return ((BoundingBoxValue) value).getValue();
+  }
+
   @Override
   protected Envelope getEnvelope(final DataTypeAdapter<T> adapter, final T entry) {
     if ((fieldNameParam != null) && !fieldNameParam.isEmpty()) {
@@ -11,16 +11,23 @@ package org.locationtech.geowave.core.geotime.store.query.aggregate;
 import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
+import org.locationtech.geowave.core.geotime.store.statistics.TimeRangeStatistic;
+import org.locationtech.geowave.core.geotime.store.statistics.TimeRangeStatistic.TimeRangeValue;
 import org.locationtech.geowave.core.geotime.util.TimeDescriptors;
 import org.locationtech.geowave.core.geotime.util.TimeUtils;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.StatisticValue;
 import org.locationtech.geowave.core.store.query.aggregate.FieldNameParam;
+import org.locationtech.geowave.core.store.query.aggregate.StatisticsCompatibleAggregation;
 import org.opengis.feature.simple.SimpleFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.threeten.extra.Interval;
 
 public class VectorTimeRangeAggregation extends
-    TimeRangeAggregation<FieldNameParam, SimpleFeature> {
+    TimeRangeAggregation<FieldNameParam, SimpleFeature> implements
+    StatisticsCompatibleAggregation<Interval> {
   private static final Logger LOGGER = LoggerFactory.getLogger(VectorTimeRangeAggregation.class);
   private FieldNameParam fieldNameParam;
   private final Map<String, TimeDescriptors> descMap = new HashMap<>();
@@ -44,6 +51,21 @@ public class VectorTimeRangeAggregation extends
     this.fieldNameParam = fieldNameParam;
   }
 
+  @Override
+  public boolean isResolvableFrom(final DataTypeAdapter<?> adapter, final Statistic<?> statistic) {
+    return (fieldNameParam != null)
+        && !fieldNameParam.isEmpty()
+        && TimeRangeStatistic.STATS_TYPE.equals(statistic.getStatisticType())
+        && fieldNameParam.getFieldName().equals(((TimeRangeStatistic) statistic).getFieldName());
+  }
+
+  @Override
+  public Interval resultFromStatistic(
+      final DataTypeAdapter<?> adapter,
+      final StatisticValue<?> value) {
+    return ((TimeRangeValue) value).getValue();
+  }
+
   @Override
   protected Interval getInterval(final SimpleFeature entry) {
     if ((fieldNameParam != null) && !fieldNameParam.isEmpty()) {
@@ -11,11 +11,13 @@ package org.locationtech.geowave.core.geotime.store.query.filter.expression.spat
 import java.util.Map;
 import java.util.Set;
 import org.geotools.referencing.CRS;
+import org.locationtech.geowave.core.geotime.store.field.GeometrySerializationProvider.GeometryReader;
 import org.locationtech.geowave.core.geotime.util.GeometryUtils;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.api.DataTypeAdapter;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.api.IndexFieldMapper;
+import org.locationtech.geowave.core.store.data.field.FieldReader;
 import org.locationtech.geowave.core.store.query.filter.expression.BinaryPredicate;
 import org.locationtech.geowave.core.store.query.filter.expression.FieldValue;
 import org.locationtech.geowave.core.store.query.filter.expression.FilterConstraints;
@@ -111,6 +113,68 @@ public abstract class BinarySpatialPredicate extends BinaryPredicate<SpatialExpr
       final FilterGeometry value1,
       final FilterGeometry value2);
 
+  @Override
+  public boolean preEvaluate(
+      final DataTypeAdapter<?> adapter,
+      final Map<String, byte[]> encodedFieldValues) {
+    // if one side is an encoded field and the other is a literal, the envelope of the field can
+    // often be read from its header without decoding any coordinates
+    final Envelope envelope1 = getEnvelope(expression1, adapter, encodedFieldValues);
+    if (envelope1 == null) {
+      return true;
+    }
+    final Envelope envelope2 = getEnvelope(expression2, adapter, encodedFieldValues);
+    if (envelope2 == null) {
+      return true;
+    }
+    return evaluateEnvelopes(envelope1, envelope2);
+  }
+
+  private Envelope getEnvelope(
+      final SpatialExpression expression,
+      final DataTypeAdapter<?> adapter,
+      final Map<String, byte[]> encodedFieldValues) {
+    final Envelope envelope;
+    if (expression.isLiteral()) {
+      final FilterGeometry literal = expression.evaluateValue(null);
+      if ((literal == null) || (literal.getGeometry() == null)) {
+        return null;
+      }
+      envelope = literal.getGeometry().getEnvelopeInternal();
+    } else if (expression instanceof SpatialFieldValue) {
+      final String fieldName = ((SpatialFieldValue) expression).getFieldName();
+      final byte[] encodedValue = encodedFieldValues.get(fieldName);
+      if (encodedValue == null) {
+        return null;
+      }
+      final FieldReader<Object> reader = adapter.getReader(fieldName);
+      if (!(reader instanceof GeometryReader)) {
+        return null;
+      }
+      envelope = ((GeometryReader) reader).readEnvelope(encodedValue);
+    } else {
+      return null;
+    }
+    // null envelopes belong to empty geometries, leave those to the full evaluation
+    if ((envelope == null) || envelope.isNull()) {
+      return null;
+    }
+    return envelope;
+  }
+
+  /**
+   * Test whether this predicate could pass given only the envelopes of its operands. This is used
+   * to reject entries before their geometries are decoded. By default the envelopes must intersect,
+   * predicates that can pass on disjoint geometries must override this.
+   *
+   * @param envelope1 the envelope of the first operand
+   * @param envelope2 the envelope of the second operand
+   * @return {@code false} if the predicate can never pass for geometries with these envelopes
+   */
+  protected boolean evaluateEnvelopes(final Envelope envelope1, final Envelope envelope2) {
+    return envelope1.intersects(envelope2);
+  }
+
 
 
   @Override
@@ -15,6 +15,7 @@ import org.locationtech.geowave.core.store.api.DataTypeAdapter;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.query.filter.expression.FilterConstraints;
 import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
+import org.locationtech.jts.geom.Envelope;
 
 /**
  * Predicate that passes when the first operand is disjoint from the second operand.
@@ -42,6 +43,11 @@ public class Disjoint extends BinarySpatialPredicate {
     return value1.disjoint(value2);
   }
 
+  @Override
+  protected boolean evaluateEnvelopes(final Envelope envelope1, final Envelope envelope2) {
+    return !loose || envelope1.disjoint(envelope2);
+  }
+
   @Override
   public <V extends Comparable<V>> FilterConstraints<V> getConstraints(
       final Class<V> constraintClass,
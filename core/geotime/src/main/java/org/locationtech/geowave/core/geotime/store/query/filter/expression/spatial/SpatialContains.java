@@ -8,6 +8,8 @@
  */
 package org.locationtech.geowave.core.geotime.store.query.filter.expression.spatial;
 
+import org.locationtech.jts.geom.Envelope;
+
 /**
  * Predicate that passes when the first operand contains the second operand.
  */
@@ -24,6 +26,11 @@ public class SpatialContains extends BinarySpatialPredicate {
     return value1.contains(value2);
   }
 
+  @Override
+  protected boolean evaluateEnvelopes(final Envelope envelope1, final Envelope envelope2) {
+    return envelope1.covers(envelope2);
+  }
+
   @Override
   protected boolean isExact() {
     return false;
@@ -15,6 +15,7 @@ import org.locationtech.geowave.core.store.api.DataTypeAdapter;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.query.filter.expression.FilterConstraints;
 import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
+import org.locationtech.jts.geom.Envelope;
 
 /**
  * Predicate that passes when the first operand is not topologically equal to the second operand.
@@ -73,6 +74,12 @@ public class SpatialNotEqualTo extends BinarySpatialPredicate {
     return !value1.isEqualTo(value2);
   }
 
+  @Override
+  protected boolean evaluateEnvelopes(final Envelope envelope1, final Envelope envelope2) {
+    // geometries with different envelopes are never equal, so this can't be rejected early
+    return true;
+  }
+
   @Override
   public String toString() {
     final StringBuilder sb = new StringBuilder("NOT_EQUALS(");
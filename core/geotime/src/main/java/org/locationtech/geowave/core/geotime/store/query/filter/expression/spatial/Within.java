@@ -8,6 +8,8 @@
  */
 package org.locationtech.geowave.core.geotime.store.query.filter.expression.spatial;
 
+import org.locationtech.jts.geom.Envelope;
+
 /**
  * Predicate that passes when the first operand is within the second operand.
  */
@@ -24,6 +26,11 @@ public class Within extends BinarySpatialPredicate {
     return value1.within(value2);
   }
 
+  @Override
+  protected boolean evaluateEnvelopes(final Envelope envelope1, final Envelope envelope2) {
+    return envelope2.covers(envelope1);
+  }
+
   @Override
   protected boolean isExact() {
     return false;
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.geotime.store.query.gwql;
+
+import org.locationtech.geowave.core.geotime.binning.ComplexGeometryBinningOption;
+import org.locationtech.geowave.core.geotime.binning.SpatialBinningType;
+import org.locationtech.geowave.core.geotime.store.statistics.binning.SpatialFieldValueBinningStrategy;
+import org.locationtech.geowave.core.store.adapter.FieldDescriptor;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.StatisticBinningStrategy;
+import org.locationtech.geowave.core.store.query.gwql.function.binning.BinningFunction;
+import org.locationtech.jts.geom.Geometry;
+
+/**
+ * Binning function that groups results by the spatial bin (GeoHash, S2, or H3) containing the
+ * centroid of a geometry column. The function accepts the geometry column name and the precision of
+ * the bins, for example {@code GROUP BY GEOHASH(geom, 5)}.
+ */
+public class SpatialBinningFunction implements BinningFunction {
+  private final SpatialBinningType type;
+
+  public SpatialBinningFunction(final SpatialBinningType type) {
+    this.type = type;
+  }
+
+  @Override
+  public String getName() {
+    return type.name();
+  }
+
+  @Override
+  public StatisticBinningStrategy getBinningStrategy(
+      final DataTypeAdapter<?> adapter,
+      final String[] functionArgs) {
+    if ((functionArgs == null) || (functionArgs.length != 2)) {
+      throw new RuntimeException(getName() + " takes exactly 2 parameters");
+    }
+    final FieldDescriptor<?> descriptor = adapter.getFieldDescriptor(functionArgs[0]);
+    if (descriptor == null) {
+      throw new RuntimeException(
+          "No attribute called '" + functionArgs[0] + "' was found in the given type.");
+    }
+    if (!Geometry.class.isAssignableFrom(descriptor.bindingClass())) {
+      throw new RuntimeException(
+          getName()
+              + " binning only works on geometry fields, given field was of type "
+              + descriptor.bindingClass().getName()
+              + ".");
+    }
+    final int precision;
+    try {
+      precision = Integer.parseInt(functionArgs[1]);
+    } catch (final NumberFormatException e) {
+      throw new RuntimeException(getName() + " precision must be an integer.");
+    }
+    return new SpatialFieldValueBinningStrategy(
+        type,
+        precision,
+        ComplexGeometryBinningOption.USE_CENTROID_ONLY,
+        functionArgs[0]);
+  }
+}
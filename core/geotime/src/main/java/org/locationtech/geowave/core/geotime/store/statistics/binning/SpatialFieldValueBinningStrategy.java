@@ -19,8 +19,11 @@ import org.locationtech.geowave.core.index.VarintUtils;
 import org.locationtech.geowave.core.store.api.BinConstraints.ByteArrayConstraints;
 import org.locationtech.geowave.core.store.api.DataTypeAdapter;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
+import org.locationtech.geowave.core.store.query.filter.expression.Include;
 import org.locationtech.geowave.core.store.statistics.binning.BinningStrategyUtils;
 import org.locationtech.geowave.core.store.statistics.binning.FieldValueBinningStrategy;
+import org.locationtech.geowave.core.store.statistics.query.BinConstraintsImpl.ExplicitConstraints;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import com.beust.jcommander.IStringConverter;
@@ -153,6 +156,19 @@ public class SpatialFieldValueBinningStrategy extends FieldValueBinningStrategy
     return getAllCombinationsNoSeparator(fieldValues);
   }
 
+  @Override
+  public ByteArrayConstraints constraintsForFilter(
+      final DataTypeAdapter<?> adapter,
+      final Filter filter) {
+    // Spatial filters select cells by intersection, which can never be proven exact, and full
+    // geometries may fall into more than one cell
+    if (((filter == null) || (filter instanceof Include))
+        && ComplexGeometryBinningOption.USE_CENTROID_ONLY.equals(complexGeometry)) {
+      return new ExplicitConstraints(true);
+    }
+    return null;
+  }
+
   @Override
   public String binToString(final ByteArray bin) {
     final ByteBuffer buffer = ByteBuffer.wrap(bin.getBytes());
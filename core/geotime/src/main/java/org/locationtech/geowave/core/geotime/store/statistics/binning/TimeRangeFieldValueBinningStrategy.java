@@ -9,20 +9,27 @@
 package org.locationtech.geowave.core.geotime.store.statistics.binning;
 
 import java.nio.ByteBuffer;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.Set;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.ArrayUtils;
 import org.locationtech.geowave.core.geotime.index.SpatialTemporalDimensionalityTypeProvider.UnitConverter;
 import org.locationtech.geowave.core.geotime.index.dimension.TemporalBinningStrategy;
 import org.locationtech.geowave.core.geotime.index.dimension.TemporalBinningStrategy.Unit;
+import org.locationtech.geowave.core.geotime.store.query.filter.expression.temporal.During;
+import org.locationtech.geowave.core.geotime.store.query.filter.expression.temporal.TemporalFieldValue;
 import org.locationtech.geowave.core.geotime.util.TimeUtils;
 import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.index.StringUtils;
 import org.locationtech.geowave.core.index.VarintUtils;
 import org.locationtech.geowave.core.index.dimension.bin.BinRange;
+import org.locationtech.geowave.core.store.adapter.FieldDescriptor;
 import org.locationtech.geowave.core.store.api.BinConstraints.ByteArrayConstraints;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
 import org.locationtech.geowave.core.store.statistics.binning.FieldValueBinningStrategy;
 import org.locationtech.geowave.core.store.statistics.query.BinConstraintsImpl.ExplicitConstraints;
 import org.threeten.extra.Interval;
@@ -114,6 +121,62 @@ public class TimeRangeFieldValueBinningStrategy extends FieldValueBinningStrateg
     return super.constraints(constraint);
   }
 
+  @Override
+  protected boolean addFilterBins(
+      final DataTypeAdapter<?> adapter,
+      final String field,
+      final Filter filter,
+      final Set<ByteArray> bins) {
+    if (filter instanceof During) {
+      final ByteArray[] duringBins = getDuringBins(adapter, field, (During) filter);
+      if (duringBins == null) {
+        return false;
+      }
+      bins.addAll(Arrays.asList(duringBins));
+      return true;
+    }
+    return super.addFilterBins(adapter, field, filter, bins);
+  }
+
+  @Override
+  protected ByteArray getEqualityBin(
+      final DataTypeAdapter<?> adapter,
+      final String field,
+      final Filter filter) {
+    // bins hold ranges of time, so an equality never lines up with a bin
+    return null;
+  }
+
+  /**
+   * A during filter on an instant field lines up with the bins if the interval starts and ends on
+   * bin boundaries. Interval fields are binned by their start, so they never line up.
+   */
+  private ByteArray[] getDuringBins(
+      final DataTypeAdapter<?> adapter,
+      final String field,
+      final During filter) {
+    final FieldDescriptor<?> descriptor = adapter.getFieldDescriptor(field);
+    if ((binningStrategy == null)
+        || (descriptor == null)
+        || Interval.class.isAssignableFrom(descriptor.bindingClass())
+        || !(filter.getExpression1() instanceof TemporalFieldValue)
+        || !field.equals(((TemporalFieldValue) filter.getExpression1()).getFieldName())
+        || !filter.getExpression2().isLiteral()) {
+      return null;
+    }
+    final Interval interval = TimeUtils.getInterval(filter.getExpression2().evaluateValue(null));
+    if ((interval == null) || interval.isEmpty()) {
+      return null;
+    }
+    final long start = interval.getStart().toEpochMilli();
+    final long lastMillis = interval.getEnd().toEpochMilli() - 1;
+    if (!getInterval(getTimeBin(start)).getStart().equals(interval.getStart())
+        || !getInterval(getTimeBin(lastMillis)).getEnd().equals(interval.getEnd())) {
+      return null;
+    }
+    return getNumericBins(Interval.of(interval.getStart(), Instant.ofEpochMilli(lastMillis)));
+  }
+
   @Override
   protected ByteArray getSingleBin(final Object value) {
     final long millis = TimeUtils.getTimeMillis(value);
@@ -408,10 +408,49 @@ public class GeometryUtils {
   public static byte[] geometryToBinary(
       final Geometry geometry,
       final @Nullable Integer precision) {
+    return geometryToBinary(geometry, precision, false);
+  }
+
+  /**
+   * Converts a JTS geometry to binary, optionally including a bounding box header so that the
+   * envelope of the geometry can later be read using {@link #envelopeFromBinary}. The header is
+   * only written for non-point geometries when a precision is provided.
+   *
+   * @param geometry The JTS geometry
+   * @param precision The precision to use, or {@code null} to use well known binary
+   * @param includeBoundingBox whether or not to include the bounding box header
+   * @return The binary representation of the geometry
+   */
+  public static byte[] geometryToBinary(
+      final Geometry geometry,
+      final @Nullable Integer precision,
+      final boolean includeBoundingBox) {
     if (precision == null) {
       return new WKBWriter().write(geometry);
     }
-    return new TWKBWriter(precision).write(geometry);
+    return new TWKBWriter(precision, includeBoundingBox).write(geometry);
+  }
+
+  /**
+   * Reads the envelope of a binary geometry without decoding all of its coordinates.
+   *
+   * @param binary The binary geometry
+   * @param precision The precision the geometry was written with, or {@code null} if it was written
+   *        as well known binary
+   * @return The envelope of the geometry, or {@code null} if it could not be determined without
+   *         fully decoding the geometry
+   */
+  public static Envelope envelopeFromBinary(
+      final byte[] binary,
+      final @Nullable Integer precision) {
+    if (precision == null) {
+      return null;
+    }
+    try {
+      return new TWKBReader().readEnvelope(binary);
+    } catch (final ParseException e) {
+      throw new GeoWaveSerializationException("Unable to deserialize geometry envelope", e);
+    }
   }
 
   /**
@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.nio.ByteBuffer;
 import org.locationtech.geowave.core.index.VarintUtils;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.LineString;
@@ -43,6 +44,9 @@ public class TWKBReader {
       } else {
         precision = new PrecisionReader(basePrecision);
       }
+      if ((metadata & TWKBUtils.BOUNDING_BOX) != 0) {
+        precision.readBoundingBox(input);
+      }
       switch (type) {
         case TWKBUtils.POINT_TYPE:
           return readPoint(precision, metadata, input);
@@ -65,6 +69,48 @@ public class TWKBReader {
     }
   }
 
+  /**
+   * Read the envelope of a TWKB geometry without decoding all of its coordinates. This is only
+   * possible for points, empty geometries, and geometries that were written with a bounding box
+   * header.
+   *
+   * @param bytes the TWKB geometry
+   * @return the envelope of the geometry, or {@code null} if it cannot be determined without
+   *         decoding the full geometry
+   * @throws ParseException if the header could not be read
+   */
+  public Envelope readEnvelope(final byte[] bytes) throws ParseException {
+    return readEnvelope(ByteBuffer.wrap(bytes));
+  }
+
+  public Envelope readEnvelope(final ByteBuffer input) throws ParseException {
+    try {
+      final byte typeAndPrecision = input.get();
+      final byte type = (byte) (typeAndPrecision & 0x0F);
+      final int basePrecision = TWKBUtils.zigZagDecode((typeAndPrecision & 0xF0) >> 4);
+      final byte metadata = input.get();
+      if ((metadata & TWKBUtils.EMPTY_GEOMETRY) != 0) {
+        return new Envelope();
+      }
+      PrecisionReader precision;
+      if ((metadata & TWKBUtils.EXTENDED_DIMENSIONS) != 0) {
+        final byte extendedDimensions = input.get();
+        precision = new ExtendedPrecisionReader(basePrecision, extendedDimensions);
+      } else {
+        precision = new PrecisionReader(basePrecision);
+      }
+      if ((metadata & TWKBUtils.BOUNDING_BOX) != 0) {
+        return precision.readBoundingBox(input);
+      }
+      if (type == TWKBUtils.POINT_TYPE) {
+        return new Envelope(precision.readPoint(input));
+      }
+      return null;
+    } catch (final IOException e) {
+      throw new ParseException("Error reading TWKB geometry envelope.", e);
+    }
+  }
+
   private Point readPoint(
       final PrecisionReader precision,
       final byte metadata,
@@ -181,6 +227,18 @@ public class TWKBReader {
       precisionMultiplier = Math.pow(10, precision);
     }
 
+    public Envelope readBoundingBox(final ByteBuffer input) throws IOException {
+      final long minX = VarintUtils.readSignedLong(input);
+      final long maxX = VarintUtils.readSignedLong(input) + minX;
+      final long minY = VarintUtils.readSignedLong(input);
+      final long maxY = VarintUtils.readSignedLong(input) + minY;
+      return new Envelope(
+          minX / precisionMultiplier,
+          maxX / precisionMultiplier,
+          minY / precisionMultiplier,
+          maxY / precisionMultiplier);
+    }
+
     public Coordinate readPoint(final ByteBuffer input) throws IOException {
       return new Coordinate(
           (VarintUtils.readSignedLong(input)) / precisionMultiplier,
@@ -222,6 +280,21 @@ public class TWKBReader {
       }
     }
 
+    @Override
+    public Envelope readBoundingBox(final ByteBuffer input) throws IOException {
+      final Envelope envelope = super.readBoundingBox(input);
+      // envelopes are only two dimensional, so skip over any extended dimension ranges
+      if (hasZ) {
+        VarintUtils.readSignedLong(input);
+        VarintUtils.readSignedLong(input);
+      }
+      if (hasM) {
+        VarintUtils.readSignedLong(input);
+        VarintUtils.readSignedLong(input);
+      }
+      return envelope;
+    }
+
     @Override
     public Coordinate readPoint(final ByteBuffer input) throws IOException {
       final Coordinate coordinate = super.readPoint(input);
@@ -17,6 +17,7 @@ public class TWKBUtils {
   public static final byte MULTIPOLYGON_TYPE = 6;
   public static final byte GEOMETRYCOLLECTION_TYPE = 7;
 
+  public static final byte BOUNDING_BOX = 1;
   public static final byte EXTENDED_DIMENSIONS = 1 << 3;
   public static final byte EMPTY_GEOMETRY = 1 << 4;
 
@@ -26,13 +26,24 @@ import com.clearspring.analytics.util.Varint;
 
 public class TWKBWriter {
   private final int maxPrecision;
+  private final boolean includeBoundingBox;
 
   public TWKBWriter() {
     this(TWKBUtils.MAX_COORD_PRECISION);
   }
 
   public TWKBWriter(final int maxPrecision) {
+    this(maxPrecision, false);
+  }
+
+  /**
+   * @param maxPrecision the maximum number of decimal places to keep for each coordinate
+   * @param includeBoundingBox if {@code true}, non-point geometries will be written with a bounding
+   *        box header so that their envelope can be read without decoding any coordinates
+   */
+  public TWKBWriter(final int maxPrecision, final boolean includeBoundingBox) {
     this.maxPrecision = Math.min(TWKBUtils.MAX_COORD_PRECISION, maxPrecision);
+    this.includeBoundingBox = includeBoundingBox;
   }
 
   public byte[] write(final Geometry geom) {
@@ -62,9 +73,16 @@ public class TWKBWriter {
     } else {
       precision = new PrecisionWriter().calculate(coordinates, maxPrecision);
     }
+    final boolean writeBoundingBox = includeBoundingBox && (type != TWKBUtils.POINT_TYPE);
+    if (writeBoundingBox) {
+      metadata |= TWKBUtils.BOUNDING_BOX;
+    }
     output.writeByte(getTypeAndPrecisionByte(type, precision.precision));
     output.writeByte(metadata);
     precision.writeExtendedPrecision(output);
+    if (writeBoundingBox) {
+      precision.writeBoundingBox(coordinates, output);
+    }
 
     switch (type) {
       case TWKBUtils.POINT_TYPE:
@@ -216,6 +234,26 @@ public class TWKBWriter {
       return;
     }
 
+    public void writeBoundingBox(final Coordinate[] coordinates, final DataOutput output)
+        throws IOException {
+      long minX = Long.MAX_VALUE;
+      long maxX = Long.MIN_VALUE;
+      long minY = Long.MAX_VALUE;
+      long maxY = Long.MIN_VALUE;
+      for (final Coordinate c : coordinates) {
+        final long x = Math.round(c.getX() * precisionMultiplier);
+        final long y = Math.round(c.getY() * precisionMultiplier);
+        minX = Math.min(minX, x);
+        maxX = Math.max(maxX, x);
+        minY = Math.min(minY, y);
+        maxY = Math.max(maxY, y);
+      }
+      Varint.writeSignedVarLong(minX, output);
+      Varint.writeSignedVarLong(maxX - minX, output);
+      Varint.writeSignedVarLong(minY, output);
+      Varint.writeSignedVarLong(maxY - minY, output);
+    }
+
     public void writePoint(final Coordinate coordinate, final DataOutput output)
         throws IOException {
       Varint.writeSignedVarLong(Math.round(coordinate.getX() * precisionMultiplier), output);
@@ -294,6 +332,34 @@ public class TWKBWriter {
       output.writeByte(extendedDimensions);
     }
 
+    @Override
+    public void writeBoundingBox(final Coordinate[] coordinates, final DataOutput output)
+        throws IOException {
+      super.writeBoundingBox(coordinates, output);
+      if (hasZ) {
+        writeRange(coordinates, true, zPrecisionMultiplier, output);
+      }
+      if (hasM) {
+        writeRange(coordinates, false, mPrecisionMultiplier, output);
+      }
+    }
+
+    private void writeRange(
+        final Coordinate[] coordinates,
+        final boolean z,
+        final double multiplier,
+        final DataOutput output) throws IOException {
+      long min = Long.MAX_VALUE;
+      long max = Long.MIN_VALUE;
+      for (final Coordinate c : coordinates) {
+        final long value = Math.round((z ? c.getZ() : c.getM()) * multiplier);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+      Varint.writeSignedVarLong(min, output);
+      Varint.writeSignedVarLong(max - min, output);
+    }
+
     @Override
     public void writePoint(final Coordinate coordinate, final DataOutput output)
         throws IOException {
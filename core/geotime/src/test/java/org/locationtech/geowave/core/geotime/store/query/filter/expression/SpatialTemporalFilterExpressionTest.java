@@ -8,6 +8,7 @@
  */
 package org.locationtech.geowave.core.geotime.store.query.filter.expression;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -15,12 +16,16 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import java.time.Instant;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Map;
 import java.util.TimeZone;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.junit.Test;
 import org.locationtech.geowave.core.geotime.adapter.SpatialFieldDescriptorBuilder;
 import org.locationtech.geowave.core.geotime.adapter.TemporalFieldDescriptorBuilder;
+import org.locationtech.geowave.core.geotime.store.dimension.LatitudeField;
+import org.locationtech.geowave.core.geotime.store.field.GeometrySerializationProvider;
 import org.locationtech.geowave.core.geotime.store.query.filter.expression.spatial.BBox;
 import org.locationtech.geowave.core.geotime.store.query.filter.expression.spatial.Crosses;
 import org.locationtech.geowave.core.geotime.store.query.filter.expression.spatial.Disjoint;
@@ -54,6 +59,7 @@ import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.threeten.extra.Interval;
+import com.google.common.collect.Maps;
 
 public class SpatialTemporalFilterExpressionTest {
 
@@ -668,6 +674,54 @@ public class SpatialTemporalFilterExpressionTest {
         ((Interval) ((TemporalLiteral) overlaps.getExpression2()).getValue()).getEnd().toEpochMilli());
   }
 
+  @Test
+  public void testSpatialPreEvaluation() {
+    final DataTypeAdapter<TestType> adapter = new TestTypeBasicDataAdapter("test");
+    final SpatialFieldValue spatialField = SpatialFieldValue.of("geom");
+    final SpatialLiteral bboxLit = SpatialLiteral.of(new Envelope(0, 5, 0, 5));
+    final Geometry line =
+        GeometryUtils.GEOMETRY_FACTORY.createLineString(
+            new Coordinate[] {new Coordinate(10, 10), new Coordinate(20, 20)});
+    final Map<String, byte[]> encodedFieldValues = Maps.newHashMap();
+    // without the bounding box header the line has to be decoded
+    encodedFieldValues.put("geom", adapter.getWriter("geom").writeField(line));
+    assertTrue(spatialField.intersects(bboxLit).preEvaluate(adapter, encodedFieldValues));
+
+    System.setProperty(GeometrySerializationProvider.BOUNDING_BOX_PROPERTY, "true");
+    try {
+      encodedFieldValues.put("geom", adapter.getWriter("geom").writeField(line));
+      // the common index geometry is decoded before filters see it, so it never has the header
+      assertArrayEquals(
+          GeometryUtils.geometryToBinary(line, GeometryUtils.MAX_GEOMETRY_PRECISION),
+          new LatitudeField(GeometryUtils.MAX_GEOMETRY_PRECISION).getWriter().writeField(line));
+    } finally {
+      System.clearProperty(GeometrySerializationProvider.BOUNDING_BOX_PROPERTY);
+    }
+
+    // the line is outside of the literal, so these can be rejected without decoding it
+    assertFalse(spatialField.intersects(bboxLit).preEvaluate(adapter, encodedFieldValues));
+    assertFalse(spatialField.bbox(0, 0, 5, 5).preEvaluate(adapter, encodedFieldValues));
+    assertFalse(spatialField.within(bboxLit).preEvaluate(adapter, encodedFieldValues));
+    assertFalse(bboxLit.contains(spatialField).preEvaluate(adapter, encodedFieldValues));
+    assertFalse(
+        spatialField.intersects(bboxLit).and(spatialField.isNotNull()).preEvaluate(
+            adapter,
+            encodedFieldValues));
+    // these may still pass, so they need to be fully evaluated
+    assertTrue(spatialField.disjoint(bboxLit).preEvaluate(adapter, encodedFieldValues));
+    assertTrue(spatialField.isNotEqualTo(bboxLit).preEvaluate(adapter, encodedFieldValues));
+    assertTrue(
+        spatialField.intersects(new Envelope(0, 15, 0, 15)).preEvaluate(
+            adapter,
+            encodedFieldValues));
+    assertTrue(
+        spatialField.intersects(bboxLit).or(spatialField.isNull()).preEvaluate(
+            adapter,
+            encodedFieldValues));
+    assertTrue(
+        spatialField.intersects(bboxLit).preEvaluate(adapter, Collections.emptyMap()));
+  }
+
   public static class TestType {
     public Geometry geom;
     public Date date;
@@ -12,6 +12,7 @@ import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryCollection;
 import org.locationtech.jts.geom.GeometryFactory;
@@ -829,4 +830,53 @@ public class TWKBTest {
     decoded = reader.read(encoded);
     Assert.assertEquals(expected, decoded);
   }
+
+  @Test
+  public void testReadWriteBoundingBox() throws ParseException {
+    final TWKBWriter boundingBoxWriter = new TWKBWriter(3, true);
+    final Polygon poly =
+        factory.createPolygon(
+            new Coordinate[] {
+                new Coordinate(12.13281248321, -1518.375),
+                new Coordinate(24.875, -1518.38),
+                new Coordinate(24.875, -1612.5),
+                new Coordinate(12.13281248321, -1518.375)});
+    final Polygon expected =
+        factory.createPolygon(
+            new Coordinate[] {
+                new Coordinate(12.133, -1518.375),
+                new Coordinate(24.875, -1518.38),
+                new Coordinate(24.875, -1612.5),
+                new Coordinate(12.133, -1518.375)});
+    byte[] encoded = boundingBoxWriter.write(poly);
+    Assert.assertEquals(expected, reader.read(encoded));
+    Assert.assertEquals(expected.getEnvelopeInternal(), reader.readEnvelope(encoded));
+    // without the header, the envelope of a polygon can't be read without decoding it
+    Assert.assertNull(reader.readEnvelope(writer3Precision.write(poly)));
+
+    // points never have a bounding box header, but the envelope can still be read
+    final Point point = factory.createPoint(new Coordinate(12.13281248321, -1518.375));
+    encoded = boundingBoxWriter.write(point);
+    Assert.assertArrayEquals(writer3Precision.write(point), encoded);
+    Assert.assertEquals(
+        new Envelope(new Coordinate(12.133, -1518.375)),
+        reader.readEnvelope(encoded));
+
+    // nested geometries also have the header
+    final GeometryCollection geoms =
+        factory.createGeometryCollection(new Geometry[] {point, poly, factory.createPoint()});
+    encoded = boundingBoxWriter.write(geoms);
+    Assert.assertEquals(
+        factory.createGeometryCollection(
+            new Geometry[] {
+                factory.createPoint(new Coordinate(12.133, -1518.375)),
+                expected,
+                factory.createPoint()}),
+        reader.read(encoded));
+    Assert.assertEquals(expected.getEnvelopeInternal(), reader.readEnvelope(encoded));
+
+    // empty geometries have a null envelope
+    Assert.assertTrue(
+        reader.readEnvelope(boundingBoxWriter.write(factory.createPolygon())).isNull());
+  }
 }
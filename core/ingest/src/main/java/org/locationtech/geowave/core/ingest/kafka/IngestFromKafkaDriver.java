@@ -271,6 +271,8 @@ public class IngestFromKafkaDriver {
     final IndexProvider indexProvider = plugin;
 
     final Map<String, Writer> writerMap = new HashMap<>();
+    // entries are written per type as a batch once the whole message is converted
+    final Map<String, List<Object>> entryMap = new HashMap<>();
     final Map<String, Index> indexMap = new HashMap<>();
 
     for (final Index index : indices) {
@@ -310,11 +312,15 @@ public class IngestFromKafkaDriver {
                   visibilityHandler,
                   indexList.toArray(new Index[indexList.size()]));
           writerMap.put(adapter.getTypeName(), indexWriter);
+          entryMap.put(adapter.getTypeName(), new ArrayList<>());
         }
 
-        indexWriter.write(geowaveData.getValue());
+        entryMap.get(adapter.getTypeName()).add(geowaveData.getValue());
       }
     }
+    for (final Entry<String, List<Object>> entries : entryMap.entrySet()) {
+      writerMap.get(entries.getKey()).writeAll(entries.getValue());
+    }
   }
 
   public List<Future<?>> getFutures() {
@@ -16,6 +16,7 @@ import org.locationtech.geowave.core.store.query.gwql.GWQLParseHelper;
 import org.locationtech.geowave.core.store.query.gwql.GWQLParseException;
 import org.locationtech.geowave.core.store.query.gwql.AggregationSelector;
 import org.locationtech.geowave.core.store.query.gwql.ColumnSelector;
+import org.locationtech.geowave.core.store.query.gwql.OrderBy;
 import org.locationtech.geowave.core.store.query.gwql.Selector;
 import org.locationtech.geowave.core.store.query.gwql.statement.Statement;
 import org.locationtech.geowave.core.store.query.gwql.statement.SelectStatement;
@@ -93,14 +94,18 @@ selectStatement
 	locals [
 		Filter f = null,
 		Integer limit = null,
-		List<Selector> selectorList = Lists.newArrayList()
+		List<Selector> selectorList = Lists.newArrayList(),
+		List<Selector> groupByList = Lists.newArrayList(),
+		List<OrderBy> orderByList = Lists.newArrayList()
 	]
  	: K_SELECT selectors[$selectorList]
 	  K_FROM adapterName
 	( K_WHERE filter { $f = $filter.value; })?
+	( K_GROUP K_BY groupBy[$groupByList] )?
+	( K_ORDER K_BY orderBy[$orderByList] )?
 	( K_LIMIT INTEGER { $limit = $INTEGER.int; })?
 	{
-		$stmt = new SelectStatement(dataStore, adapter, $selectorList, $f, $limit);
+		$stmt = new SelectStatement(dataStore, adapter, $selectorList, $f, $groupByList, $orderByList, $limit);
 	}
 ;
  
@@ -112,11 +117,18 @@ error
 ;
 
 selectors [List<Selector> selectorList]
-	: agg1=aggregate { $selectorList.add($agg1.sel); } (COMMA aggN=aggregate { $selectorList.add($aggN.sel); } )*
-	| sel1=selector { $selectorList.add($sel1.sel); } (COMMA selN=selector { $selectorList.add($selN.sel); } )*
+	: sel1=selectorItem { $selectorList.add($sel1.sel); } (COMMA selN=selectorItem { $selectorList.add($selN.sel); } )*
 	| '*'
 ;
 
+selectorItem
+	returns [
+		Selector sel
+	]
+	: aggregate { $sel = $aggregate.sel; }
+	| selector { $sel = $selector.sel; }
+;
+
 selector
 	returns [
 		ColumnSelector sel
@@ -139,16 +151,64 @@ aggregate
 	locals [
 		String alias = null
 	]
-	: functionName '(' functionArg ')'
+	: functionCall
 	( K_AS columnAlias { $alias = $columnAlias.text; } )?
 	{
-		$sel = new AggregationSelector($functionName.text, new String[] { $functionArg.text }, $alias);
+		$sel = new AggregationSelector($functionCall.name, $functionCall.args, $alias);
+	}
+;
+
+functionCall
+	returns [
+		String name,
+		String[] args
+	]
+	locals [
+		List<String> argList = Lists.newArrayList()
+	]
+	: functionName '(' arg1=functionArg { $argList.add($arg1.text); } (COMMA argN=functionArg { $argList.add($argN.text); } )* ')'
+	{
+		$name = $functionName.text;
+		$args = $argList.toArray(new String[$argList.size()]);
 	}
 ;
 
 functionArg
 	: '*'
 	| columnName
+	| number
+;
+
+groupBy [List<Selector> groupByList]
+	: g1=groupByItem { $groupByList.add($g1.sel); } (COMMA gN=groupByItem { $groupByList.add($gN.sel); } )*
+;
+
+groupByItem
+	returns [
+		Selector sel
+	]
+	: functionCall { $sel = new AggregationSelector($functionCall.name, $functionCall.args); }
+	| columnName { $sel = new ColumnSelector($columnName.text); }
+;
+
+orderBy [List<OrderBy> orderByList]
+	: o1=orderByItem { $orderByList.add($o1.value); } (COMMA oN=orderByItem { $orderByList.add($oN.value); } )*
+;
+
+orderByItem
+	returns [
+		OrderBy value
+	]
+	locals [
+		String name = null,
+		boolean descending = false
+	]
+	: ( functionCall { $name = new AggregationSelector($functionCall.name, $functionCall.args).name(); }
+	  | columnName { $name = $columnName.text; } )
+	( K_ASC | K_DESC { $descending = true; } )?
+	{
+		$value = new OrderBy($name, $descending);
+	}
 ;
 
 adapterName
@@ -310,10 +370,15 @@ SEMICOLON: ';';
 
 K_AND : A N D;
 K_AS : A S;
+K_ASC : A S C;
+K_BY : B Y;
 K_DELETE : D E L E T E;
+K_DESC : D E S C;
 K_FROM : F R O M;
+K_GROUP : G R O U P;
 K_LIMIT : L I M I T;
 K_OR : O R;
+K_ORDER : O R D E R;
 K_SELECT : S E L E C T;
 K_WHERE : W H E R E;
 K_NOT : N O T;
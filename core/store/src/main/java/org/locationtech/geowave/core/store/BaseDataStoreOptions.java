@@ -23,12 +23,30 @@ public class BaseDataStoreOptions implements DataStoreOptions {
   @Parameter(names = "--enableSecondaryIndexing")
   protected boolean enableSecondaryIndexing = false;
 
+  @Parameter(
+      names = "--compactStatistics",
+      description = "Periodically merge the statistic values written during ingest. This should only be enabled when a single process writes to the data store at a time.")
+  protected boolean compactStatistics = false;
+
   @Parameter(names = "--enableVisibility", arity = 1)
   protected Boolean configuredEnableVisibility = null;
 
   @Parameter(names = "--dataIndexBatchSize")
   protected int configuredDataIndexBatchSize = Integer.MIN_VALUE;
 
+  @Parameter(
+      names = "--dataIndexCacheSizeMB",
+      description = "The size of the cache of secondary index lookups. Only writes made through the same process invalidate it. Defaults to 0, which disables the cache.")
+  protected int configuredDataIndexCacheSizeMB = Integer.MIN_VALUE;
+
+  @Parameter(
+      names = "--dataIndexCacheExpirySeconds",
+      description = "The number of seconds a cached secondary index lookup is kept, which bounds how long writes from other processes can go unseen. Defaults to 60.")
+  protected int configuredDataIndexCacheExpirySeconds = Integer.MIN_VALUE;
+
+  @Parameter(names = "--dataIndexThreads")
+  protected int configuredDataIndexThreads = Integer.MIN_VALUE;
+
   @Parameter(names = "--maxRangeDecomposition", arity = 1)
   protected int configuredMaxRangeDecomposition = Integer.MIN_VALUE;
 
@@ -54,6 +72,15 @@ public class BaseDataStoreOptions implements DataStoreOptions {
     this.enableSecondaryIndexing = enableSecondaryIndexing;
   }
 
+  @Override
+  public boolean isCompactStatistics() {
+    return compactStatistics;
+  }
+
+  public void setCompactStatistics(final boolean compactStatistics) {
+    this.compactStatistics = compactStatistics;
+  }
+
   @Override
   public boolean isEnableBlockCache() {
     return enableBlockCache;
@@ -109,6 +136,53 @@ public class BaseDataStoreOptions implements DataStoreOptions {
     return 2000;
   }
 
+  public void setDataIndexBatchSize(final int dataIndexBatchSize) {
+    configuredDataIndexBatchSize = dataIndexBatchSize;
+  }
+
+  @Override
+  public int getDataIndexCacheSizeMB() {
+    return configuredDataIndexCacheSizeMB == Integer.MIN_VALUE ? defaultDataIndexCacheSizeMB()
+        : configuredDataIndexCacheSizeMB;
+  }
+
+  protected int defaultDataIndexCacheSizeMB() {
+    return 0;
+  }
+
+  public void setDataIndexCacheSizeMB(final int dataIndexCacheSizeMB) {
+    configuredDataIndexCacheSizeMB = dataIndexCacheSizeMB;
+  }
+
+  @Override
+  public int getDataIndexCacheExpirySeconds() {
+    return configuredDataIndexCacheExpirySeconds == Integer.MIN_VALUE
+        ? defaultDataIndexCacheExpirySeconds()
+        : configuredDataIndexCacheExpirySeconds;
+  }
+
+  protected int defaultDataIndexCacheExpirySeconds() {
+    return 60;
+  }
+
+  public void setDataIndexCacheExpirySeconds(final int dataIndexCacheExpirySeconds) {
+    configuredDataIndexCacheExpirySeconds = dataIndexCacheExpirySeconds;
+  }
+
+  @Override
+  public int getDataIndexThreads() {
+    return configuredDataIndexThreads == Integer.MIN_VALUE ? defaultDataIndexThreads()
+        : configuredDataIndexThreads;
+  }
+
+  protected int defaultDataIndexThreads() {
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  public void setDataIndexThreads(final int dataIndexThreads) {
+    configuredDataIndexThreads = dataIndexThreads;
+  }
+
   protected int defaultAggregationMaxRangeDecomposition() {
     return 10;
   }
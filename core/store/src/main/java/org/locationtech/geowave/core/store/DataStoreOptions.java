@@ -23,6 +23,12 @@ public interface DataStoreOptions {
 
   int getDataIndexBatchSize();
 
+  int getDataIndexCacheSizeMB();
+
+  int getDataIndexCacheExpirySeconds();
+
+  int getDataIndexThreads();
+
   int getMaxRangeDecomposition();
 
   int getAggregationMaxRangeDecomposition();
@@ -30,4 +36,6 @@ public interface DataStoreOptions {
   boolean isSecondaryIndexing();
 
   void setSecondaryIndexing(boolean se);
+
+  boolean isCompactStatistics();
 }
@@ -44,6 +44,8 @@ import org.locationtech.geowave.core.store.query.aggregate.MergingAggregation;
 import org.locationtech.geowave.core.store.query.aggregate.OptimalCountAggregation;
 import org.locationtech.geowave.core.store.query.aggregate.OptimalCountAggregation.CommonIndexCountAggregation;
 import org.locationtech.geowave.core.store.query.aggregate.OptimalCountAggregation.FieldCountAggregation;
+import org.locationtech.geowave.core.store.query.aggregate.TopKAggregation;
+import org.locationtech.geowave.core.store.query.aggregate.TopKOptions;
 import org.locationtech.geowave.core.store.query.constraints.BasicOrderedConstraintQuery;
 import org.locationtech.geowave.core.store.query.constraints.BasicOrderedConstraintQuery.OrderedConstraints;
 import org.locationtech.geowave.core.store.query.constraints.BasicQuery;
@@ -224,6 +226,8 @@ public class StorePersistableRegistry implements
         new PersistableIdAndConstructor((short) 3003, FieldMaxAggregation::new),
         new PersistableIdAndConstructor((short) 3004, FieldMinAggregation::new),
         new PersistableIdAndConstructor((short) 3005, FieldSumAggregation::new),
-        new PersistableIdAndConstructor((short) 3006, CompositeAggregation::new)};
+        new PersistableIdAndConstructor((short) 3006, CompositeAggregation::new),
+        new PersistableIdAndConstructor((short) 3007, TopKAggregation::new),
+        new PersistableIdAndConstructor((short) 3008, TopKOptions::new)};
   }
 }
@@ -8,6 +8,7 @@
  */
 package org.locationtech.geowave.core.store.adapter;
 
+import java.util.Map;
 import org.locationtech.geowave.core.store.data.CommonIndexedPersistenceEncoding;
 import org.locationtech.geowave.core.store.data.PersistentDataset;
 import org.locationtech.geowave.core.store.index.CommonIndexModel;
@@ -54,4 +55,35 @@ public abstract class AbstractAdapterPersistenceEncoding extends CommonIndexedPe
   public abstract void convertUnknownValues(
       final InternalDataAdapter<?> adapter,
       final CommonIndexModel model);
+
+  /**
+   * Get the value of a single adapter extended field. Implementations that hold encoded values
+   * should only decode the requested field, so that callers which only need a few fields don't pay
+   * for decoding all of them.
+   *
+   * @param adapter the data adapter
+   * @param model the common index model
+   * @param fieldName the name of the field
+   * @return the value of the field, or {@code null} if the field has no value
+   */
+  public Object getAdapterExtendedValue(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model,
+      final String fieldName) {
+    convertUnknownValues(adapter, model);
+    return getAdapterExtendedData().getValue(fieldName);
+  }
+
+  /**
+   * Get the encoded values of any adapter extended fields that have not been decoded yet.
+   *
+   * @param adapter the data adapter
+   * @param model the common index model
+   * @return a map of field name to encoded value
+   */
+  public Map<String, byte[]> getEncodedAdapterExtendedValues(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model) {
+    return getUnknownData().getValues();
+  }
 }
@@ -52,4 +52,24 @@ public class IndexedAdapterPersistenceEncoding extends AbstractAdapterPersistenc
       adapterExtendedData.addValue(v.getKey(), value);
     }
   }
+
+  @Override
+  public Object getAdapterExtendedValue(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model,
+      final String fieldName) {
+    final Object value = getAdapterExtendedData().getValue(fieldName);
+    if (value != null) {
+      return value;
+    }
+    // the encoded value is removed once decoded so that it isn't decoded again when the rest of the
+    // unknown values are converted
+    final byte[] encodedValue = getUnknownData().removeValue(fieldName);
+    if (encodedValue == null) {
+      return null;
+    }
+    final Object decodedValue = adapter.getReader(fieldName).readField(encodedValue);
+    adapterExtendedData.addValue(fieldName, decodedValue);
+    return decodedValue;
+  }
 }
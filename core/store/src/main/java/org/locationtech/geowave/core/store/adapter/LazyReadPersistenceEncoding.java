@@ -8,7 +8,11 @@
  */
 package org.locationtech.geowave.core.store.adapter;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.function.Supplier;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.api.IndexFieldMapper;
@@ -32,6 +36,9 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
  */
 public class LazyReadPersistenceEncoding extends IndexedAdapterPersistenceEncoding {
   private FieldValueReader deferredFieldReader;
+  private final InternalDataAdapter<?> dataAdapter;
+  // adapter extended values that have been read but won't be decoded until they are needed
+  private Map<String, byte[]> undecodedValues = null;
 
   public LazyReadPersistenceEncoding(
       final short adapterId,
@@ -54,6 +61,7 @@ public class LazyReadPersistenceEncoding extends IndexedAdapterPersistenceEncodi
         new MultiFieldPersistentDataset<>(),
         new MultiFieldPersistentDataset<byte[]>(),
         new MultiFieldPersistentDataset<>());
+    this.dataAdapter = dataAdapter;
     deferredFieldReader =
         new InstanceFieldValueReader(
             fieldSubsetBitmask,
@@ -84,6 +92,7 @@ public class LazyReadPersistenceEncoding extends IndexedAdapterPersistenceEncodi
         new MultiFieldPersistentDataset<>(),
         new MultiFieldPersistentDataset<byte[]>(),
         new MultiFieldPersistentDataset<>());
+    this.dataAdapter = dataAdapter;
     deferredFieldReader =
         new SupplierFieldValueReader(
             fieldSubsetBitmask,
@@ -98,9 +107,63 @@ public class LazyReadPersistenceEncoding extends IndexedAdapterPersistenceEncodi
   public PersistentDataset<Object> getAdapterExtendedData() {
     // defer any reading of fieldValues until necessary
     deferredReadFields();
+    decodeUndecodedValues();
     return super.getAdapterExtendedData();
   }
 
+  @Override
+  public void convertUnknownValues(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model) {
+    deferredReadFields();
+    decodeUndecodedValues();
+    super.convertUnknownValues(adapter, model);
+  }
+
+  @Override
+  public Object getAdapterExtendedValue(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model,
+      final String fieldName) {
+    deferredReadFields();
+    synchronized (this) {
+      if (undecodedValues != null) {
+        final byte[] encodedValue = undecodedValues.remove(fieldName);
+        if (encodedValue != null) {
+          final Object value = dataAdapter.getReader(fieldName).readField(encodedValue);
+          adapterExtendedData.addValue(fieldName, value);
+          return value;
+        }
+      }
+    }
+    return adapterExtendedData.getValue(fieldName);
+  }
+
+  @Override
+  public Map<String, byte[]> getEncodedAdapterExtendedValues(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model) {
+    deferredReadFields();
+    synchronized (this) {
+      if ((undecodedValues == null) || undecodedValues.isEmpty()) {
+        return super.getEncodedAdapterExtendedValues(adapter, model);
+      }
+      return Collections.unmodifiableMap(undecodedValues);
+    }
+  }
+
+  private synchronized void decodeUndecodedValues() {
+    if (undecodedValues != null) {
+      for (final Entry<String, byte[]> encodedValue : undecodedValues.entrySet()) {
+        final FieldReader<Object> reader = dataAdapter.getReader(encodedValue.getKey());
+        adapterExtendedData.addValue(
+            encodedValue.getKey(),
+            reader.readField(encodedValue.getValue()));
+      }
+      undecodedValues = null;
+    }
+  }
+
   @Override
   public PersistentDataset<byte[]> getUnknownData() {
     // defer any reading of fieldValues until necessary
@@ -189,9 +252,18 @@ public class LazyReadPersistenceEncoding extends IndexedAdapterPersistenceEncodi
         } else {
           final FieldReader<?> extFieldReader = dataAdapter.getReader(fieldName);
           if (extFieldReader != null) {
-            final Object objValue = extFieldReader.readField(fieldInfo.getValue());
-            // TODO GEOWAVE-1018, do we care about visibility
-            adapterExtendedData.addValue(fieldName, objValue);
+            if (isSecondaryIndex) {
+              final Object objValue = extFieldReader.readField(fieldInfo.getValue());
+              // TODO GEOWAVE-1018, do we care about visibility
+              adapterExtendedData.addValue(fieldName, objValue);
+            } else {
+              // the secondary index needs the decoded values below, otherwise decoding can wait
+              // until the value is actually requested
+              if (undecodedValues == null) {
+                undecodedValues = new HashMap<>();
+              }
+              undecodedValues.put(fieldName, fieldInfo.getValue());
+            }
           } else {
             LOGGER.error("field reader not found for data entry, the value may be ignored");
             unknownData.addValue(fieldName, fieldInfo.getValue());
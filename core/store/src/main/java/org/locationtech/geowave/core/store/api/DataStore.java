@@ -95,6 +95,17 @@ public interface DataStore {
    */
   ResultSet query(final String queryStr, final String... authorizations);
 
+  /**
+   * Explain how the data store would choose an index for a query without running it. Every index
+   * that is able to answer the query for each of the queried types is listed with its estimated
+   * cost, which is derived from the index statistics, and the index that would be used for each
+   * type is flagged as selected.
+   *
+   * @param query data constraints for the query and additional options for processing the query
+   * @return the cost estimate of each candidate index for each queried type
+   */
+  List<IndexCostEstimate> explainIndexSelection(final Query<?> query);
+
   /**
    * Perform an aggregation on the data and just return the aggregated result. The query criteria is
    * very similar to querying the individual entries except in this case it defines the input to the
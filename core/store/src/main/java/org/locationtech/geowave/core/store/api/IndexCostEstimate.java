@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.api;
+
+/**
+ * The estimated cost of answering a query for a single data type using a candidate index, as
+ * returned by {@link DataStore#explainIndexSelection(Query)}. Costs are expressed as an equivalent
+ * number of rows scanned.
+ */
+public class IndexCostEstimate {
+  /** The cost of seeking to the start of a range, expressed as an equivalent number of rows. */
+  public static final double RANGE_SEEK_COST = 10;
+
+  private final Index index;
+  private final String typeName;
+  private final boolean fullTableScan;
+  private final int rangeCount;
+  private final int partitionCount;
+  private final double estimatedRows;
+  private final double duplicateRatio;
+  private boolean selected = false;
+
+  public IndexCostEstimate(
+      final Index index,
+      final String typeName,
+      final boolean fullTableScan,
+      final int rangeCount,
+      final int partitionCount,
+      final double estimatedRows,
+      final double duplicateRatio) {
+    this.index = index;
+    this.typeName = typeName;
+    this.fullTableScan = fullTableScan;
+    this.rangeCount = rangeCount;
+    this.partitionCount = partitionCount;
+    this.estimatedRows = estimatedRows;
+    this.duplicateRatio = duplicateRatio;
+  }
+
+  public Index getIndex() {
+    return index;
+  }
+
+  public String getTypeName() {
+    return typeName;
+  }
+
+  /**
+   * @return {@code true} if the query constraints do not constrain this index
+   */
+  public boolean isFullTableScan() {
+    return fullTableScan;
+  }
+
+  /**
+   * @return the number of sort key ranges the query decomposes into on this index
+   */
+  public int getRangeCount() {
+    return rangeCount;
+  }
+
+  /**
+   * @return the number of partitions that would be scanned
+   */
+  public int getPartitionCount() {
+    return partitionCount;
+  }
+
+  /**
+   * @return the estimated number of rows scanned, or a negative value if the statistics needed to
+   *         estimate it are not available
+   */
+  public double getEstimatedRows() {
+    return estimatedRows;
+  }
+
+  /**
+   * @return the fraction of scanned rows that are expected to be duplicates
+   */
+  public double getDuplicateRatio() {
+    return duplicateRatio;
+  }
+
+  public boolean isCostKnown() {
+    return estimatedRows >= 0;
+  }
+
+  /**
+   * @return the estimated cost, or {@link Double#POSITIVE_INFINITY} if it is unknown
+   */
+  public double getCost() {
+    if (!isCostKnown()) {
+      return Double.POSITIVE_INFINITY;
+    }
+    return (estimatedRows * (1 + duplicateRatio))
+        + (rangeCount * RANGE_SEEK_COST);
+  }
+
+  /**
+   * @return {@code true} if this index is the one the query will use for this type
+   */
+  public boolean isSelected() {
+    return selected;
+  }
+
+  public void setSelected(final boolean selected) {
+    this.selected = selected;
+  }
+
+  @Override
+  public String toString() {
+    return "IndexCostEstimate [index="
+        + index.getName()
+        + ", typeName="
+        + typeName
+        + ", fullTableScan="
+        + fullTableScan
+        + ", rangeCount="
+        + rangeCount
+        + ", partitionCount="
+        + partitionCount
+        + ", estimatedRows="
+        + (isCostKnown() ? String.format("%.0f", estimatedRows) : "unknown")
+        + ", duplicateRatio="
+        + String.format("%.3f", duplicateRatio)
+        + ", cost="
+        + (isCostKnown() ? String.format("%.0f", getCost()) : "unknown")
+        + ", selected="
+        + selected
+        + "]";
+  }
+}
@@ -10,10 +10,12 @@ package org.locationtech.geowave.core.store.api;
 
 import java.util.Arrays;
 import java.util.Set;
+import javax.annotation.Nullable;
 import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.index.ByteArrayRange;
 import org.locationtech.geowave.core.index.persist.Persistable;
 import org.locationtech.geowave.core.store.api.BinConstraints.ByteArrayConstraints;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
 import org.locationtech.geowave.core.store.statistics.query.BinConstraintsImpl.ExplicitConstraints;
 
 /**
@@ -89,4 +91,21 @@ public interface StatisticBinningStrategy extends Persistable, BinningStrategy {
     }
     return new ExplicitConstraints();
   }
+
+  /**
+   * Get the bins that contain exactly the entries that match the given filter. This is used to
+   * answer aggregations from binned statistics without scanning the data, so constraints should
+   * only be returned when every entry contributes to at most one bin and the selected bins hold all
+   * of the entries that match the filter and nothing else. Entries without a bin are only ignored
+   * when results are grouped by this strategy, since grouping drops them as well.
+   *
+   * @param adapter the adapter being filtered
+   * @param filter the filter to align with bins, or {@code null} to select every entry
+   * @return the bin constraints, or {@code null} if the filter does not line up with the bins
+   */
+  default ByteArrayConstraints constraintsForFilter(
+      final DataTypeAdapter<?> adapter,
+      final @Nullable Filter filter) {
+    return null;
+  }
 }
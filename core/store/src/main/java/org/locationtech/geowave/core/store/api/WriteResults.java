@@ -8,11 +8,15 @@
  */
 package org.locationtech.geowave.core.store.api;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.locationtech.geowave.core.index.InsertionIds;
+import org.locationtech.geowave.core.index.SinglePartitionInsertionIds;
+import com.google.common.collect.Maps;
 
 public class WriteResults {
   private final Map<String, InsertionIds> insertionIdsPerIndex;
@@ -41,4 +45,31 @@ public class WriteResults {
   public boolean isEmpty() {
     return insertionIdsPerIndex.isEmpty();
   }
+
+  /**
+   * Combine several write results into one that contains all of their insertion IDs, grouped by
+   * index.
+   *
+   * @param results the results to combine
+   * @return the combined results
+   */
+  public static WriteResults merge(final Iterable<WriteResults> results) {
+    final Map<String, List<SinglePartitionInsertionIds>> insertionIdsPerIndex = new HashMap<>();
+    for (final WriteResults ids : results) {
+      for (final String indexName : ids.getWrittenIndexNames()) {
+        final InsertionIds insertionIds = ids.getInsertionIdsWritten(indexName);
+        if (insertionIds == null) {
+          continue;
+        }
+        List<SinglePartitionInsertionIds> partitionInsertionIds =
+            insertionIdsPerIndex.get(indexName);
+        if (partitionInsertionIds == null) {
+          partitionInsertionIds = new ArrayList<>();
+          insertionIdsPerIndex.put(indexName, partitionInsertionIds);
+        }
+        partitionInsertionIds.addAll(insertionIds.getPartitionKeys());
+      }
+    }
+    return new WriteResults(Maps.transformValues(insertionIdsPerIndex, v -> new InsertionIds(v)));
+  }
 }
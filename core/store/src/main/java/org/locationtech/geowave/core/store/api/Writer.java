@@ -9,6 +9,9 @@
 package org.locationtech.geowave.core.store.api;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public interface Writer<T> extends Closeable {
   /**
@@ -28,6 +31,64 @@ public interface Writer<T> extends Closeable {
    */
   WriteResults write(final T entry, final VisibilityHandler visibilityHandler);
 
+  /**
+   * Writes a batch of entries using default visibilities set elsewhere. Writing a batch is
+   * equivalent to writing each entry individually, but implementations may encode and write the
+   * batch as a whole which avoids much of the per-entry overhead. The entries are only iterated
+   * once. Batches are not overloads of write, so an entry that is itself iterable or an array is
+   * still written as a single entry by write.
+   *
+   * @param entries the entries to write
+   * @return the Insertion IDs representing where the entries were written
+   */
+  default WriteResults writeAll(final Iterable<T> entries) {
+    final List<WriteResults> results = new ArrayList<>();
+    for (final T entry : entries) {
+      results.add(write(entry));
+    }
+    return WriteResults.merge(results);
+  }
+
+  /**
+   * Writes a batch of entries using the provided visibility handler. Writing a batch is equivalent
+   * to writing each entry individually, but implementations may encode and write the batch as a
+   * whole which avoids much of the per-entry overhead. The entries are only iterated once.
+   *
+   * @param entries the entries to write
+   * @param visibilityHandler the handler for determining field visibility
+   * @return the Insertion IDs representing where the entries were written
+   */
+  default WriteResults writeAll(
+      final Iterable<T> entries,
+      final VisibilityHandler visibilityHandler) {
+    final List<WriteResults> results = new ArrayList<>();
+    for (final T entry : entries) {
+      results.add(write(entry, visibilityHandler));
+    }
+    return WriteResults.merge(results);
+  }
+
+  /**
+   * Writes a batch of entries using default visibilities set elsewhere.
+   *
+   * @param entries the entries to write
+   * @return the Insertion IDs representing where the entries were written
+   */
+  default WriteResults writeAll(final T[] entries) {
+    return writeAll(Arrays.asList(entries));
+  }
+
+  /**
+   * Writes a batch of entries using the provided visibility handler.
+   *
+   * @param entries the entries to write
+   * @param visibilityHandler the handler for determining field visibility
+   * @return the Insertion IDs representing where the entries were written
+   */
+  default WriteResults writeAll(final T[] entries, final VisibilityHandler visibilityHandler) {
+    return writeAll(Arrays.asList(entries), visibilityHandler);
+  }
+
   /**
    * Get the indices that are being written to.
    *
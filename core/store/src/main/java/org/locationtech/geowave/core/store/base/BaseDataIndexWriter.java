@@ -11,6 +11,8 @@ package org.locationtech.geowave.core.store.base;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.DataStoreOptions;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
@@ -92,6 +94,49 @@ class BaseDataIndexWriter<T> implements Writer<T> {
     return new WriteResults();
   }
 
+  @Override
+  public WriteResults writeAll(final Iterable<T> entries) {
+    return writeAll(entries, visibilityHandler);
+  }
+
+  @Override
+  public WriteResults writeAll(
+      final Iterable<T> entries,
+      final VisibilityHandler visibilityHandler) {
+    ensureOpen();
+
+    if (writer == null) {
+      LOGGER.error("Null writer - empty list returned");
+      return new WriteResults();
+    }
+    final List<T> batchEntries = new ArrayList<>(BaseIndexWriter.BATCH_SIZE);
+    final List<GeoWaveRow[]> batchRows = new ArrayList<>(BaseIndexWriter.BATCH_SIZE);
+    int rowCount = 0;
+    for (final T entry : entries) {
+      final GeoWaveRow[] rows =
+          BaseDataStoreUtils.getWriteInfo(
+              entry,
+              adapter,
+              indexMapping,
+              DataIndexUtils.DATA_ID_INDEX,
+              visibilityHandler,
+              options.isSecondaryIndexing(),
+              true,
+              options.isVisibilityEnabled()).getRows();
+      batchEntries.add(entry);
+      batchRows.add(rows);
+      rowCount += rows.length;
+      if (batchEntries.size() >= BaseIndexWriter.BATCH_SIZE) {
+        BaseIndexWriter.writeBatch(writer, callback, batchEntries, batchRows, rowCount);
+        rowCount = 0;
+      }
+    }
+    if (!batchEntries.isEmpty()) {
+      BaseIndexWriter.writeBatch(writer, callback, batchEntries, batchRows, rowCount);
+    }
+    return new WriteResults();
+  }
+
   @Override
   public void close() {
     try {
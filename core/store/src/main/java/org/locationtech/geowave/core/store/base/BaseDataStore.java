@@ -15,15 +15,24 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.index.QueryRanges;
 import org.locationtech.geowave.core.index.persist.Persistable;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.CloseableIterator;
@@ -46,6 +55,7 @@ import org.locationtech.geowave.core.store.api.DataTypeAdapter;
 import org.locationtech.geowave.core.store.api.DataTypeStatistic;
 import org.locationtech.geowave.core.store.api.FieldStatistic;
 import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.api.IndexCostEstimate;
 import org.locationtech.geowave.core.store.api.IndexStatistic;
 import org.locationtech.geowave.core.store.api.IngestOptions;
 import org.locationtech.geowave.core.store.api.Query;
@@ -55,6 +65,7 @@ import org.locationtech.geowave.core.store.api.StatisticQuery;
 import org.locationtech.geowave.core.store.api.StatisticValue;
 import org.locationtech.geowave.core.store.api.VisibilityHandler;
 import org.locationtech.geowave.core.store.api.Writer;
+import org.locationtech.geowave.core.store.base.dataidx.DataIndexCache;
 import org.locationtech.geowave.core.store.base.dataidx.DataIndexUtils;
 import org.locationtech.geowave.core.store.callback.DeleteCallbackList;
 import org.locationtech.geowave.core.store.callback.DeleteOtherIndicesCallback;
@@ -78,22 +89,28 @@ import org.locationtech.geowave.core.store.operations.MetadataQuery;
 import org.locationtech.geowave.core.store.operations.MetadataReader;
 import org.locationtech.geowave.core.store.operations.MetadataType;
 import org.locationtech.geowave.core.store.operations.MetadataWriter;
+import org.locationtech.geowave.core.store.operations.ReaderParams;
 import org.locationtech.geowave.core.store.operations.ReaderParamsBuilder;
 import org.locationtech.geowave.core.store.operations.RowReader;
 import org.locationtech.geowave.core.store.operations.RowWriter;
 import org.locationtech.geowave.core.store.query.aggregate.AdapterAndIndexBasedAggregation;
+import org.locationtech.geowave.core.store.query.aggregate.StatisticsAggregationResolver;
 import org.locationtech.geowave.core.store.query.constraints.AdapterAndIndexBasedQueryConstraints;
 import org.locationtech.geowave.core.store.query.constraints.DataIdQuery;
 import org.locationtech.geowave.core.store.query.constraints.DataIdRangeQuery;
 import org.locationtech.geowave.core.store.query.constraints.EverythingQuery;
+import org.locationtech.geowave.core.store.query.constraints.IndexCombination;
 import org.locationtech.geowave.core.store.query.constraints.InsertionIdQuery;
+import org.locationtech.geowave.core.store.query.constraints.OptimalExpressionQuery;
 import org.locationtech.geowave.core.store.query.constraints.PrefixIdQuery;
 import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
 import org.locationtech.geowave.core.store.query.constraints.TypeConstraintQuery;
 import org.locationtech.geowave.core.store.query.filter.DedupeFilter;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
 import org.locationtech.geowave.core.store.query.gwql.ResultSet;
 import org.locationtech.geowave.core.store.query.gwql.parse.GWQLParser;
 import org.locationtech.geowave.core.store.query.gwql.statement.Statement;
+import org.locationtech.geowave.core.store.query.options.CommonQueryOptions;
 import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
 import org.locationtech.geowave.core.store.statistics.DefaultStatisticsProvider;
 import org.locationtech.geowave.core.store.statistics.InternalStatisticsHelper;
@@ -119,6 +136,9 @@ import com.google.common.collect.Sets;
 
 public class BaseDataStore implements DataStore {
   private static final Logger LOGGER = LoggerFactory.getLogger(BaseDataStore.class);
+  // the number of data IDs resolved at once when combining indices, if there is no data index batch
+  // size configured
+  private static final int DEFAULT_COMBINATION_BATCH_SIZE = 2000;
 
   protected final IndexStore indexStore;
   protected final PersistentAdapterStore adapterStore;
@@ -128,6 +148,7 @@ public class BaseDataStore implements DataStore {
   protected final DataStoreOptions baseOptions;
   protected final InternalAdapterStore internalAdapterStore;
   protected final PropertyStore propertyStore;
+  private DataIndexCache dataIndexCache = null;
 
   protected enum DeletionMode {
     DONT_DELETE, DELETE, DELETE_WITH_DUPLICATES;
@@ -190,6 +211,34 @@ public class BaseDataStore implements DataStore {
     return statisticsStore;
   }
 
+  /**
+   * @return the cache of data index lookups shared by queries of this data store, or {@code null}
+   *         if secondary indexing is not enabled
+   */
+  protected synchronized DataIndexCache getDataIndexCache() {
+    if ((dataIndexCache == null)
+        && baseOptions.isSecondaryIndexing()
+        && (baseOptions.getDataIndexBatchSize() > 1)) {
+      dataIndexCache =
+          new DataIndexCache(
+              baseOptions.getDataIndexCacheSizeMB() * 1024L * 1024L,
+              baseOptions.getDataIndexCacheExpirySeconds(),
+              baseOptions.getDataIndexThreads());
+    }
+    return dataIndexCache;
+  }
+
+  /**
+   * Release the cache of data index lookups, data stores that can be closed should call this when
+   * they are closed.
+   */
+  protected synchronized void closeDataIndexCache() {
+    if (dataIndexCache != null) {
+      dataIndexCache.close();
+      dataIndexCache = null;
+    }
+  }
+
   public Short getAdapterId(final String typeName) {
     return internalAdapterStore.getAdapterId(typeName);
   }
@@ -229,6 +278,7 @@ public class BaseDataStore implements DataStore {
     if (secondaryIndex) {
       final DataStoreCallbackManager callbackManager =
           new DataStoreCallbackManager(statisticsStore, true);
+      callbackManager.setDataIndexCache(getDataIndexCache());
       final AdapterToIndexMapping indexMapping =
           indexMappingStore.getMapping(
               adapter.getAdapterId(),
@@ -305,6 +355,21 @@ public class BaseDataStore implements DataStore {
     return statement.execute(authorizations);
   }
 
+  @Override
+  public List<IndexCostEstimate> explainIndexSelection(final Query<?> query) {
+    final BaseQueryOptions queryOptions =
+        new BaseQueryOptions(query, adapterStore, internalAdapterStore);
+    final QueryConstraints constraints =
+        query.getQueryConstraints() == null ? new EverythingQuery() : query.getQueryConstraints();
+    return queryOptions.explainIndexSelection(
+        new MemoryPersistentAdapterStore(queryOptions.getAdaptersArray(adapterStore)),
+        indexMappingStore,
+        indexStore,
+        statisticsStore,
+        constraints,
+        baseOptions.getMaxRangeDecomposition());
+  }
+
   protected <T> CloseableIterator<T> internalQuery(
       final Query<T> query,
       final DeletionMode delete) {
@@ -383,6 +448,24 @@ public class BaseDataStore implements DataStore {
             && ((sanitizedConstraints instanceof DataIdQuery)
                 || (sanitizedConstraints instanceof DataIdRangeQuery)
                 || (sanitizedConstraints instanceof EverythingQuery));
+    final Map<Short, IndexCombination> indexCombinations;
+    if (!delete
+        && !dataIdIndexIsBest
+        && baseOptions.isSecondaryIndexing()
+        && (queryOptions.getAggregation() == null)
+        && (queryOptions.getFieldIdsAdapterPair() == null)) {
+      // with secondary indexing the attribute indices only contain data IDs, so combining the IDs
+      // from several indices is cheaper than resolving every row of the single best index
+      indexCombinations =
+          queryOptions.getIndexCombinations(
+              adapterStore,
+              indexMappingStore,
+              indexStore,
+              statisticsStore,
+              sanitizedConstraints);
+    } else {
+      indexCombinations = Collections.emptyMap();
+    }
     if (!delete && dataIdIndexIsBest) {
       try {
         // just grab the values directly from the Data Index
@@ -478,6 +561,13 @@ public class BaseDataStore implements DataStore {
       } catch (final IOException e1) {
         LOGGER.error("Failed to resolve adapter or index for query", e1);
       }
+    } else if (!indexCombinations.isEmpty()) {
+      for (final InternalDataAdapter<?> adapter : queryOptions.getAdaptersArray(adapterStore)) {
+        final IndexCombination combination = indexCombinations.get(adapter.getAdapterId());
+        if (combination != null) {
+          results.add(queryIndexCombination(adapter, combination, queryOptions));
+        }
+      }
     } else {
       final boolean isConstraintsAdapterIndexSpecific =
           sanitizedConstraints instanceof AdapterAndIndexBasedQueryConstraints;
@@ -509,7 +599,8 @@ public class BaseDataStore implements DataStore {
                   indexMappingStore,
                   indexStore,
                   statisticsStore,
-                  sanitizedConstraints);
+                  sanitizedConstraints,
+                  baseOptions.getMaxRangeDecomposition());
       Map<Short, List<Index>> additionalIndicesToDelete = null;
       if (DeletionMode.DELETE_WITH_DUPLICATES.equals(deleteMode)
           && !deleteAllIndicesByConstraints) {
@@ -550,11 +641,14 @@ public class BaseDataStore implements DataStore {
               // this must be a data index only adapter, just worry about updating statistics and
               // not other indices or duplicates
               ScanCallback scanCallback = callback;
-              if (baseOptions.isPersistDataStatistics()) {
+              final DataIndexCache cache = getDataIndexCache();
+              if (baseOptions.isPersistDataStatistics() || (cache != null)) {
                 final DataStoreCallbackManager callbackCache =
                     new DataStoreCallbackManager(
                         statisticsStore,
                         queriedAdapters.add(adapter.getAdapterId()));
+                callbackCache.setPersistStats(baseOptions.isPersistDataStatistics());
+                callbackCache.setDataIndexCache(cache);
                 deleteCallbacks.add(callbackCache);
                 scanCallback = new ScanCallback<Object, GeoWaveRow>() {
 
@@ -641,6 +735,7 @@ public class BaseDataStore implements DataStore {
             } else {
               callbackCache.setPersistStats(false);
             }
+            callbackCache.setDataIndexCache(getDataIndexCache());
 
             deleteCallbacks.add(callbackCache);
 
@@ -939,6 +1034,9 @@ public class BaseDataStore implements DataStore {
       indexMappingStore.removeAll();
 
       baseOperations.deleteAll();
+      if (dataIndexCache != null) {
+        dataIndexCache.invalidateAll();
+      }
       return true;
     } catch (final Exception e) {
       LOGGER.error("Unable to delete all tables", e);
@@ -963,8 +1061,221 @@ public class BaseDataStore implements DataStore {
         adapter.getTypeName(),
         adapter.getAdapterId(),
         additionalAuthorizations);
+    if (dataIndexCache != null) {
+      dataIndexCache.invalidate(adapter.getAdapterId());
+    }
+  }
+
+
+  /**
+   * Scans each index of the combination for data IDs only, intersects or unions the resulting sets,
+   * and resolves the surviving data IDs through the data ID index a batch at a time.
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  protected CloseableIterator<Object> queryIndexCombination(
+      final InternalDataAdapter<?> adapter,
+      final IndexCombination combination,
+      final BaseQueryOptions sanitizedQueryOptions) {
+    final Set<ByteArray> dataIds =
+        scanIndexCombination(adapter.getAdapterId(), combination, sanitizedQueryOptions);
+    if (dataIds.isEmpty()) {
+      return new CloseableIterator.Empty<>();
+    }
+    final int batchSize =
+        baseOptions.getDataIndexBatchSize() > 0 ? baseOptions.getDataIndexBatchSize()
+            : DEFAULT_COMBINATION_BATCH_SIZE;
+    final DataIdBatchRowIterator rowIt =
+        new DataIdBatchRowIterator(
+            Iterators.partition(dataIds.iterator(), batchSize),
+            batch -> DataIndexUtils.getRowReader(
+                baseOperations,
+                adapterStore,
+                indexMappingStore,
+                internalAdapterStore,
+                null,
+                null,
+                sanitizedQueryOptions.getAuthorizations(),
+                adapter.getAdapterId(),
+                batch.stream().map(ByteArray::getBytes).toArray(i -> new byte[i][])));
+    Iterator<Object> it =
+        new NativeEntryIteratorWrapper(
+            adapterStore,
+            indexMappingStore,
+            DataIndexUtils.DATA_ID_INDEX,
+            rowIt,
+            null,
+            sanitizedQueryOptions.getScanCallback(),
+            null,
+            sanitizedQueryOptions.getMaxResolutionSubsamplingPerDimension(),
+            true,
+            null);
+    final Filter residualFilter = combination.getResidualFilter();
+    if (residualFilter != null) {
+      final DataTypeAdapter dataAdapter = adapter.getAdapter();
+      it = Iterators.filter(it, entry -> residualFilter.evaluate(dataAdapter, entry));
+    }
+    final Integer limit = sanitizedQueryOptions.getLimit();
+    if ((limit != null) && (limit > 0)) {
+      it = Iterators.limit(it, limit);
+    }
+    return new CloseableIteratorWrapper<>(rowIt, it);
+  }
+
+  /**
+   * Determine the data IDs matched by the combination. Each index is scanned on its own thread.
+   *
+   * <p> For an intersection the first (most selective) index is scanned on its own and the
+   * remaining indices only keep the IDs it matched, so memory is bounded by the most selective
+   * index rather than by the sum of all of them. A union has to hold every distinct ID to remove
+   * duplicates, so its memory is bounded by the size of the result.
+   */
+  private Set<ByteArray> scanIndexCombination(
+      final short adapterId,
+      final IndexCombination combination,
+      final BaseQueryOptions sanitizedQueryOptions) {
+    final List<Pair<Index, QueryRanges>> indexRanges = combination.getIndexRanges();
+    if (combination.isIntersection()) {
+      final Set<ByteArray> dataIds =
+          scanDataIds(adapterId, indexRanges.get(0), sanitizedQueryOptions, null);
+      if (dataIds.isEmpty() || (indexRanges.size() == 1)) {
+        return dataIds;
+      }
+      for (final Set<ByteArray> scannedIds : scanDataIdsInParallel(
+          adapterId,
+          indexRanges.subList(1, indexRanges.size()),
+          sanitizedQueryOptions,
+          dataIds)) {
+        dataIds.retainAll(scannedIds);
+      }
+      return dataIds;
+    }
+    final Set<ByteArray> dataIds = new TreeSet<>();
+    for (final Set<ByteArray> scannedIds : scanDataIdsInParallel(
+        adapterId,
+        indexRanges,
+        sanitizedQueryOptions,
+        null)) {
+      dataIds.addAll(scannedIds);
+    }
+    return dataIds;
   }
 
+  private List<Set<ByteArray>> scanDataIdsInParallel(
+      final short adapterId,
+      final List<Pair<Index, QueryRanges>> indexRanges,
+      final BaseQueryOptions sanitizedQueryOptions,
+      final Set<ByteArray> retainedIds) {
+    // the scans block on the data store so they run on the bounded data index threads rather than
+    // the common pool, or one after another if there are none
+    final DataIndexCache cache = getDataIndexCache();
+    final Executor executor = cache != null ? cache.getExecutor() : Runnable::run;
+    final List<CompletableFuture<Set<ByteArray>>> futures =
+        indexRanges.stream().map(
+            r -> CompletableFuture.supplyAsync(
+                () -> scanDataIds(adapterId, r, sanitizedQueryOptions, retainedIds),
+                executor)).collect(Collectors.toList());
+    final List<Set<ByteArray>> results = new ArrayList<>(futures.size());
+    try {
+      for (final CompletableFuture<Set<ByteArray>> future : futures) {
+        results.add(future.get());
+      }
+    } catch (final InterruptedException e) {
+      futures.forEach(f -> f.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (final ExecutionException e) {
+      futures.forEach(f -> f.cancel(true));
+      throw new RuntimeException(e.getCause());
+    }
+    return results;
+  }
+
+  /**
+   * Scan an index for the data IDs within its ranges, only keeping IDs in the retained set if one
+   * is given.
+   */
+  private Set<ByteArray> scanDataIds(
+      final short adapterId,
+      final Pair<Index, QueryRanges> indexRanges,
+      final BaseQueryOptions sanitizedQueryOptions,
+      final Set<ByteArray> retainedIds) {
+    final Set<ByteArray> dataIds = new TreeSet<>();
+    final boolean indexExists;
+    try {
+      indexExists = baseOperations.indexExists(indexRanges.getLeft().getName());
+    } catch (final IOException e) {
+      throw new RuntimeException(
+          "Unable to determine existence of index " + indexRanges.getLeft().getName(),
+          e);
+    }
+    if (!indexExists) {
+      return dataIds;
+    }
+    final ReaderParams<GeoWaveRow> readerParams =
+        new ReaderParamsBuilder<>(
+            indexRanges.getLeft(),
+            adapterStore,
+            indexMappingStore,
+            internalAdapterStore,
+            GeoWaveRowIteratorTransformer.NO_OP_TRANSFORMER).adapterIds(adapterId).queryRanges(
+                indexRanges.getRight()).additionalAuthorizations(
+                    sanitizedQueryOptions.getAuthorizations()).maxRangeDecomposition(
+                        baseOptions.getMaxRangeDecomposition()).build();
+    try (RowReader<GeoWaveRow> reader = baseOperations.createReader(readerParams)) {
+      while (reader.hasNext()) {
+        final ByteArray dataId = new ByteArray(reader.next().getDataId());
+        if ((retainedIds == null) || retainedIds.contains(dataId)) {
+          dataIds.add(dataId);
+        }
+      }
+    }
+    return dataIds;
+  }
+
+  /**
+   * Reads the rows for batches of data IDs, opening a reader for the next batch only once the
+   * previous one is exhausted.
+   */
+  private static class DataIdBatchRowIterator implements CloseableIterator<GeoWaveRow> {
+    private final Iterator<List<ByteArray>> batches;
+    private final Function<List<ByteArray>, RowReader<GeoWaveRow>> readerFunction;
+    private RowReader<GeoWaveRow> currentReader = null;
+
+    private DataIdBatchRowIterator(
+        final Iterator<List<ByteArray>> batches,
+        final Function<List<ByteArray>, RowReader<GeoWaveRow>> readerFunction) {
+      this.batches = batches;
+      this.readerFunction = readerFunction;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while ((currentReader == null) || !currentReader.hasNext()) {
+        close();
+        if (!batches.hasNext()) {
+          return false;
+        }
+        currentReader = readerFunction.apply(batches.next());
+      }
+      return true;
+    }
+
+    @Override
+    public GeoWaveRow next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return currentReader.next();
+    }
+
+    @Override
+    public void close() {
+      if (currentReader != null) {
+        currentReader.close();
+        currentReader = null;
+      }
+    }
+  }
 
   protected CloseableIterator<Object> queryConstraints(
       final List<Short> adapterIdsToQuery,
@@ -1017,7 +1328,8 @@ public class BaseDataStore implements DataStore {
                 sanitizedQueryOptions.getFieldIdsAdapterPair(),
                 sanitizedQueryOptions.getAggregation(),
                 sanitizedQueryOptions.getAuthorizations(),
-                baseOptions.getDataIndexBatchSize()),
+                baseOptions.getDataIndexBatchSize(),
+                getDataIndexCache()),
             sanitizedQueryOptions.getAuthorizations());
 
     return constraintsQuery.query(
@@ -1070,7 +1382,8 @@ public class BaseDataStore implements DataStore {
                 sanitizedQueryOptions.getFieldIdsAdapterPair(),
                 sanitizedQueryOptions.getAggregation(),
                 sanitizedQueryOptions.getAuthorizations(),
-                baseOptions.getDataIndexBatchSize()),
+                baseOptions.getDataIndexBatchSize(),
+                getDataIndexCache()),
             sanitizedQueryOptions.getAuthorizations());
 
     return prefixQuery.query(
@@ -1126,7 +1439,8 @@ public class BaseDataStore implements DataStore {
                 sanitizedQueryOptions.getFieldIdsAdapterPair(),
                 sanitizedQueryOptions.getAggregation(),
                 sanitizedQueryOptions.getAuthorizations(),
-                baseOptions.getDataIndexBatchSize()),
+                baseOptions.getDataIndexBatchSize(),
+                getDataIndexCache()),
             sanitizedQueryOptions.getAuthorizations());
     return q.query(
         baseOperations,
@@ -1426,9 +1740,12 @@ public class BaseDataStore implements DataStore {
       LOGGER.warn("Aggregation must be defined");
       return null;
     }
-    R results = null;
-
     final Aggregation<P, R, T> aggregation = query.getDataTypeQueryOptions().getAggregation();
+    final Supplier<R> statisticsResult = resolveFromStatistics(query, aggregation);
+    if (statisticsResult != null) {
+      return statisticsResult.get();
+    }
+    R results = null;
     try (CloseableIterator<R> resultsIt =
         internalQuery(
             query.getQueryConstraints(),
@@ -1451,6 +1768,47 @@ public class BaseDataStore implements DataStore {
     }
   }
 
+  /**
+   * Determine if an aggregation can be answered from statistics rather than a scan. This is only
+   * done when requested with the {@link DataStoreUtils#AGGREGATE_FROM_STATISTICS} hint, because
+   * statistics are not always exact, and only for unlimited aggregations on a single type whose
+   * filter, if any, lines up with the bins of a statistic that holds the aggregation result.
+   */
+  private <P extends Persistable, R, T> Supplier<R> resolveFromStatistics(
+      final AggregationQuery<P, R, T> query,
+      final Aggregation<P, R, T> aggregation) {
+    final CommonQueryOptions commonOptions = query.getCommonQueryOptions();
+    if ((aggregation == null)
+        || ((commonOptions.getLimit() != null) && (commonOptions.getLimit() > 0))
+        || (commonOptions.getHints() == null)
+        || !Boolean.TRUE.equals(
+            commonOptions.getHints().get(DataStoreUtils.AGGREGATE_FROM_STATISTICS))) {
+      return null;
+    }
+    final String[] typeNames = query.getDataTypeQueryOptions().getTypeNames();
+    if ((typeNames == null) || (typeNames.length != 1)) {
+      return null;
+    }
+    final QueryConstraints constraints = query.getQueryConstraints();
+    final Filter filter;
+    if ((constraints == null) || (constraints instanceof EverythingQuery)) {
+      filter = null;
+    } else if (constraints instanceof OptimalExpressionQuery) {
+      filter = ((OptimalExpressionQuery) constraints).getFilter();
+    } else {
+      return null;
+    }
+    final DataTypeAdapter<?> adapter = getType(typeNames[0]);
+    if (adapter == null) {
+      return null;
+    }
+    return new StatisticsAggregationResolver(
+        statisticsStore,
+        adapter,
+        filter,
+        commonOptions.getAuthorizations()).resolve(aggregation);
+  }
+
   @SuppressWarnings("unchecked")
   protected <V extends StatisticValue<R>, R> CloseableIterator<V> internalQueryStatistics(
       final StatisticQuery<V, R> query) {
@@ -1948,6 +2306,9 @@ public class BaseDataStore implements DataStore {
       if (baseOptions.isSecondaryIndexing()) {
         baseOperations.deleteAll(DataIndexUtils.DATA_ID_INDEX.getName(), typeName, adapterId);
       }
+      if (dataIndexCache != null) {
+        dataIndexCache.invalidate(adapterId);
+      }
 
       statisticsStore.removeStatistics(adapterStore.getAdapter(adapterId));
       indexMappingStore.remove(adapterId);
@@ -1014,6 +1014,15 @@ public class BaseDataStoreUtils {
       final QueryConstraints query,
       final Function<T, ? extends InternalDataAdapter<?>> adapterLookup)
       throws IllegalArgumentException {
+    return chooseBestIndex(indexAdapterPairList, mappingStore, query, adapterLookup, null);
+  }
+
+  public static <T> List<Pair<Index, List<T>>> chooseBestIndex(
+      final List<Pair<Index, List<T>>> indexAdapterPairList,
+      final AdapterIndexMappingStore mappingStore,
+      final QueryConstraints query,
+      final Function<T, ? extends InternalDataAdapter<?>> adapterLookup,
+      final @Nullable IndexCostEstimator costEstimator) throws IllegalArgumentException {
     if (indexAdapterPairList.size() <= 1) {
       return indexAdapterPairList;
     }
@@ -1039,7 +1048,8 @@ public class BaseDataStoreUtils {
                   e.getValue().toArray(new Index[0]),
                   query,
                   adapterLookup.apply(e.getKey()),
-                  mappingStore);
+                  mappingStore,
+                  costEstimator);
       List<T> adapters = retVal.get(index);
       if (adapters == null) {
         adapters = new ArrayList<>();
@@ -1051,6 +1061,24 @@ public class BaseDataStoreUtils {
         Collectors.toList());
   }
 
+  /**
+   * Choose the index with the lowest estimated cost for the query, falling back to the index that
+   * uses the most dimensions of the query constraints when no cost estimator is given or the
+   * statistics needed to compare costs are unavailable.
+   */
+  public static Index chooseBestIndex(
+      final Index[] indices,
+      final QueryConstraints query,
+      final InternalDataAdapter<?> adapter,
+      final AdapterIndexMappingStore mappingStore,
+      final @Nullable IndexCostEstimator costEstimator) {
+    final Index heuristicIndex = chooseBestIndex(indices, query, adapter, mappingStore);
+    if ((costEstimator == null) || (query == null) || (indices.length <= 1)) {
+      return heuristicIndex;
+    }
+    return costEstimator.chooseCheapestIndex(indices, query, adapter, heuristicIndex);
+  }
+
   public static Index chooseBestIndex(
       final Index[] indices,
       final QueryConstraints query,
@@ -1128,7 +1156,7 @@ public class BaseDataStoreUtils {
     return bestIdx;
   }
 
-  private static boolean queryRangeDimensionsMatch(
+  static boolean queryRangeDimensionsMatch(
       final int indexDimensions,
       final List<MultiDimensionalNumericData> queryRanges) {
     for (final MultiDimensionalNumericData qr : queryRanges) {
@@ -11,6 +11,12 @@ package org.locationtech.geowave.core.store.base;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.locationtech.geowave.core.index.InsertionIds;
+import org.locationtech.geowave.core.index.SinglePartitionInsertionIds;
 import org.locationtech.geowave.core.index.StringUtils;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.DataStoreOptions;
@@ -31,6 +37,8 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 class BaseIndexWriter<T> implements Writer<T> {
   private static final Logger LOGGER = LoggerFactory.getLogger(BaseIndexWriter.class);
+  // the number of entries that are encoded before their rows are handed to the row writer
+  protected static final int BATCH_SIZE = 1000;
   protected final Index index;
   protected final DataStoreOperations operations;
   protected final DataStoreOptions options;
@@ -41,6 +49,8 @@ class BaseIndexWriter<T> implements Writer<T> {
   protected final AdapterToIndexMapping indexMapping;
   protected final VisibilityHandler visibilityHandler;
   final Closeable closable;
+  // visibilities that authorizations have already been ensured for
+  private final Set<String> authorizedVisibilities = ConcurrentHashMap.newKeySet();
 
   public BaseIndexWriter(
       final InternalDataAdapter<T> adapter,
@@ -98,6 +108,77 @@ class BaseIndexWriter<T> implements Writer<T> {
     return new WriteResults(index.getName(), entryInfo.getInsertionIds());
   }
 
+  @Override
+  public WriteResults writeAll(final Iterable<T> entries) {
+    return writeAll(entries, visibilityHandler);
+  }
+
+  @Override
+  public WriteResults writeAll(
+      final Iterable<T> entries,
+      final VisibilityHandler visibilityHandler) {
+    ensureOpen();
+
+    if (writer == null) {
+      LOGGER.error("Null writer - empty list returned");
+      return new WriteResults();
+    }
+    final List<SinglePartitionInsertionIds> insertionIds = new ArrayList<>();
+    final List<T> batchEntries = new ArrayList<>(BATCH_SIZE);
+    final List<GeoWaveRow[]> batchRows = new ArrayList<>(BATCH_SIZE);
+    int rowCount = 0;
+    for (final T entry : entries) {
+      final IntermediaryWriteEntryInfo entryInfo =
+          BaseDataStoreUtils.getWriteInfo(
+              entry,
+              adapter,
+              indexMapping,
+              index,
+              visibilityHandler,
+              options.isSecondaryIndexing(),
+              false,
+              options.isVisibilityEnabled());
+      verifyVisibility(visibilityHandler, entryInfo);
+      final GeoWaveRow[] rows = entryInfo.getRows();
+      batchEntries.add(entry);
+      batchRows.add(rows);
+      rowCount += rows.length;
+      insertionIds.addAll(entryInfo.getInsertionIds().getPartitionKeys());
+      if (batchEntries.size() >= BATCH_SIZE) {
+        writeBatch(writer, callback, batchEntries, batchRows, rowCount);
+        rowCount = 0;
+      }
+    }
+    if (!batchEntries.isEmpty()) {
+      writeBatch(writer, callback, batchEntries, batchRows, rowCount);
+    }
+    return new WriteResults(index.getName(), new InsertionIds(insertionIds));
+  }
+
+  /**
+   * Hand the rows of a batch of entries to the row writer as one array, notify the callback of each
+   * entry, and clear the batch.
+   */
+  static <T> void writeBatch(
+      final RowWriter writer,
+      final IngestCallback<T> callback,
+      final List<T> batchEntries,
+      final List<GeoWaveRow[]> batchRows,
+      final int rowCount) {
+    final GeoWaveRow[] allRows = new GeoWaveRow[rowCount];
+    int offset = 0;
+    for (final GeoWaveRow[] rows : batchRows) {
+      System.arraycopy(rows, 0, allRows, offset, rows.length);
+      offset += rows.length;
+    }
+    writer.write(allRows);
+    for (int i = 0; i < batchEntries.size(); i++) {
+      callback.entryIngested(batchEntries.get(i), batchRows.get(i));
+    }
+    batchEntries.clear();
+    batchRows.clear();
+  }
+
   @Override
   public void close() {
     try {
@@ -130,13 +211,15 @@ class BaseIndexWriter<T> implements Writer<T> {
     if (visibilityHandler != DataStoreUtils.UNCONSTRAINED_VISIBILITY) {
       for (final GeoWaveValue value : ingestInfo.getValues()) {
         if ((value.getVisibility() != null) && (value.getVisibility().length > 0)) {
-          if (!operations.ensureAuthorizations(
-              null,
-              StringUtils.stringFromBinary(value.getVisibility()))) {
+          final String visibility = StringUtils.stringFromBinary(value.getVisibility());
+          if (authorizedVisibilities.contains(visibility)) {
+            continue;
+          }
+          if (operations.ensureAuthorizations(null, visibility)) {
+            authorizedVisibilities.add(visibility);
+          } else {
             LOGGER.error(
-                "Unable to set authorizations for ingested visibility '"
-                    + StringUtils.stringFromBinary(value.getVisibility())
-                    + "'");
+                "Unable to set authorizations for ingested visibility '" + visibility + "'");
           }
         }
       }
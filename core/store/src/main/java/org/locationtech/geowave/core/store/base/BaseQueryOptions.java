@@ -14,6 +14,8 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -26,10 +28,12 @@ import org.locationtech.geowave.core.store.adapter.PersistentAdapterStore;
 import org.locationtech.geowave.core.store.api.Aggregation;
 import org.locationtech.geowave.core.store.api.AggregationQuery;
 import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.api.IndexCostEstimate;
 import org.locationtech.geowave.core.store.api.Query;
 import org.locationtech.geowave.core.store.callback.ScanCallback;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.index.IndexStore;
+import org.locationtech.geowave.core.store.query.constraints.IndexCombination;
 import org.locationtech.geowave.core.store.query.constraints.OptimalExpressionQuery;
 import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
 import org.locationtech.geowave.core.store.query.options.AggregateTypeQueryOptions;
@@ -408,8 +412,9 @@ public class BaseQueryOptions {
 
   /**
    * This will get all relevant adapter index pairs and then select the best index for each adapter
-   * given the constraint. Currently, it determines what is best by the index which can satisfy the
-   * most dimensions of the given constraint.
+   * given the constraint. The index with the lowest estimated cost is chosen when the index
+   * statistics are available, otherwise it determines what is best by the index which can satisfy
+   * the most dimensions of the given constraint.
    *
    */
   public List<Pair<Index, List<InternalDataAdapter<?>>>> getBestQueryIndices(
@@ -417,7 +422,8 @@ public class BaseQueryOptions {
       final AdapterIndexMappingStore adapterIndexMappingStore,
       final IndexStore indexStore,
       final DataStatisticsStore statisticsStore,
-      final QueryConstraints query) {
+      final QueryConstraints query,
+      final int defaultMaxRangeDecomposition) {
     if (query instanceof OptimalExpressionQuery) {
       return ((OptimalExpressionQuery) query).determineBestIndices(
           this,
@@ -429,8 +435,101 @@ public class BaseQueryOptions {
     return BaseDataStoreUtils.chooseBestIndex(
         BaseDataStoreUtils.combineByIndex(
             compileIndicesForAdapters(adapterStore, adapterIndexMappingStore, indexStore, true)),
+        adapterIndexMappingStore,
         query,
-        adapterIndexMappingStore);
+        Function.identity(),
+        createCostEstimator(
+            adapterIndexMappingStore,
+            statisticsStore,
+            defaultMaxRangeDecomposition));
+  }
+
+  /**
+   * Determine which adapters can answer the given constraint by combining the data IDs of multiple
+   * attribute indices. This only applies to expression queries.
+   *
+   * @return a map of adapter ID to index combination, empty if the indices cannot be combined
+   */
+  public Map<Short, IndexCombination> getIndexCombinations(
+      final PersistentAdapterStore adapterStore,
+      final AdapterIndexMappingStore adapterIndexMappingStore,
+      final IndexStore indexStore,
+      final DataStatisticsStore statisticsStore,
+      final QueryConstraints query) {
+    if (query instanceof OptimalExpressionQuery) {
+      return ((OptimalExpressionQuery) query).determineIndexCombinations(
+          this,
+          getAdaptersArray(adapterStore),
+          adapterIndexMappingStore,
+          indexStore,
+          statisticsStore);
+    }
+    return Collections.emptyMap();
+  }
+
+  /**
+   * Estimate the cost of every candidate index of each adapter for the given constraint, flagging
+   * the index that {@link #getBestQueryIndices} selects.
+   */
+  public List<IndexCostEstimate> explainIndexSelection(
+      final PersistentAdapterStore adapterStore,
+      final AdapterIndexMappingStore adapterIndexMappingStore,
+      final IndexStore indexStore,
+      final DataStatisticsStore statisticsStore,
+      final QueryConstraints query,
+      final int defaultMaxRangeDecomposition) {
+    final List<Pair<Index, List<InternalDataAdapter<?>>>> bestIndices =
+        getBestQueryIndices(
+            adapterStore,
+            adapterIndexMappingStore,
+            indexStore,
+            statisticsStore,
+            query,
+            defaultMaxRangeDecomposition);
+    final IndexCostEstimator costEstimator =
+        createCostEstimator(
+            adapterIndexMappingStore,
+            statisticsStore,
+            defaultMaxRangeDecomposition);
+    final List<IndexCostEstimate> estimates = new ArrayList<>();
+    if (costEstimator == null) {
+      return estimates;
+    }
+    for (final InternalDataAdapter<?> adapter : getAdaptersArray(adapterStore)) {
+      final List<Index> candidates = new ArrayList<>();
+      for (final AdapterToIndexMapping mapping : adapterIndexMappingStore.getIndicesForAdapter(
+          adapter.getAdapterId())) {
+        if ((indexName == null) || indexName.equals(mapping.getIndexName())) {
+          candidates.add(mapping.getIndex(indexStore));
+        }
+      }
+      for (final IndexCostEstimate estimate : costEstimator.estimate(
+          candidates.toArray(new Index[0]),
+          query,
+          adapter)) {
+        estimate.setSelected(
+            bestIndices.stream().anyMatch(
+                pair -> estimate.getIndex().equals(pair.getLeft())
+                    && pair.getRight().stream().anyMatch(
+                        a -> a.getAdapterId() == adapter.getAdapterId())));
+        estimates.add(estimate);
+      }
+    }
+    return estimates;
+  }
+
+  private IndexCostEstimator createCostEstimator(
+      final AdapterIndexMappingStore adapterIndexMappingStore,
+      final DataStatisticsStore statisticsStore,
+      final int defaultMaxRangeDecomposition) {
+    if (statisticsStore == null) {
+      return null;
+    }
+    return new IndexCostEstimator(
+        statisticsStore,
+        adapterIndexMappingStore,
+        maxRangeDecomposition != null ? maxRangeDecomposition : defaultMaxRangeDecomposition,
+        authorizations);
   }
 
   public boolean isAllIndices() {
@@ -17,6 +17,7 @@ import java.util.Map;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
 import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.base.dataidx.DataIndexCache;
 import org.locationtech.geowave.core.store.callback.DeleteCallback;
 import org.locationtech.geowave.core.store.callback.DeleteCallbackList;
 import org.locationtech.geowave.core.store.callback.IngestCallback;
@@ -30,6 +31,7 @@ public class DataStoreCallbackManager {
   private boolean persistStats = true;
 
   private final boolean captureAdapterStats;
+  private DataIndexCache dataIndexCache = null;
 
   final Map<Short, IngestCallback<?>> icache = new HashMap<>();
   final Map<Short, DeleteCallback<?, GeoWaveRow>> dcache = new HashMap<>();
@@ -55,6 +57,9 @@ public class DataStoreCallbackManager {
                 writableAdapter,
                 captureAdapterStats));
       }
+      if (dataIndexCache != null) {
+        callbackList.add(dataIndexCache.getIngestCallback());
+      }
       icache.put(writableAdapter.getAdapterId(), new IngestCallbackList<>(callbackList));
     }
     return (IngestCallback<T>) icache.get(writableAdapter.getAdapterId());
@@ -64,6 +69,14 @@ public class DataStoreCallbackManager {
     this.persistStats = persistStats;
   }
 
+  /**
+   * @param dataIndexCache a cache of data index values to invalidate when entries are written or
+   *        deleted, may be {@code null}
+   */
+  public void setDataIndexCache(final DataIndexCache dataIndexCache) {
+    this.dataIndexCache = dataIndexCache;
+  }
+
   public <T> DeleteCallback<T, GeoWaveRow> getDeleteCallback(
       final InternalDataAdapter<T> writableAdapter,
       final AdapterToIndexMapping indexMapping,
@@ -78,6 +91,9 @@ public class DataStoreCallbackManager {
                 writableAdapter,
                 captureAdapterStats));
       }
+      if (dataIndexCache != null) {
+        callbackList.add(dataIndexCache.getDeleteCallback());
+      }
       dcache.put(writableAdapter.getAdapterId(), new DeleteCallbackList<>(callbackList));
     }
     return (DeleteCallback<T, GeoWaveRow>) dcache.get(writableAdapter.getAdapterId());
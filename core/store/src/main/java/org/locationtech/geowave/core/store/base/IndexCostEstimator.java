@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.index.IndexUtils;
+import org.locationtech.geowave.core.index.QueryRanges;
+import org.locationtech.geowave.core.index.SinglePartitionQueryRanges;
+import org.locationtech.geowave.core.index.numeric.MultiDimensionalNumericData;
+import org.locationtech.geowave.core.store.adapter.AdapterIndexMappingStore;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.api.IndexCostEstimate;
+import org.locationtech.geowave.core.store.query.constraints.AdapterAndIndexBasedQueryConstraints;
+import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
+import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
+import org.locationtech.geowave.core.store.statistics.InternalStatisticsHelper;
+import org.locationtech.geowave.core.store.statistics.index.DuplicateEntryCountStatistic;
+import org.locationtech.geowave.core.store.statistics.index.DuplicateEntryCountStatistic.DuplicateEntryCountValue;
+import org.locationtech.geowave.core.store.statistics.index.PartitionsStatistic;
+import org.locationtech.geowave.core.store.statistics.index.PartitionsStatistic.PartitionsValue;
+import org.locationtech.geowave.core.store.statistics.index.RowRangeHistogramStatistic.RowRangeHistogramValue;
+import org.locationtech.geowave.core.store.util.DataStoreUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Estimates the cost of answering a query with each candidate index of a data type using the
+ * internal index statistics. The cost is the number of rows expected to be scanned, derived from
+ * the row range histogram of every partition the query touches, inflated by the fraction of rows
+ * that are duplicates (which must be de-duplicated client side), plus a fixed cost for every
+ * decomposed range to account for seeks.
+ *
+ * <p> If the statistics for any candidate are missing, costs are not comparable and callers should
+ * fall back to the dimensionality heuristic in
+ * {@link BaseDataStoreUtils#chooseBestIndex(Index[], QueryConstraints, InternalDataAdapter, AdapterIndexMappingStore)}.
+ */
+public class IndexCostEstimator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(IndexCostEstimator.class);
+
+  private final DataStatisticsStore statisticsStore;
+  private final AdapterIndexMappingStore mappingStore;
+  private final int maxRangeDecomposition;
+  private final String[] authorizations;
+
+  public IndexCostEstimator(
+      final DataStatisticsStore statisticsStore,
+      final AdapterIndexMappingStore mappingStore,
+      final int maxRangeDecomposition,
+      final String... authorizations) {
+    this.statisticsStore = statisticsStore;
+    this.mappingStore = mappingStore;
+    this.maxRangeDecomposition = maxRangeDecomposition;
+    this.authorizations = authorizations;
+  }
+
+  /**
+   * Estimate the cost of each index that is able to answer the query for the given adapter.
+   *
+   * @param indices the candidate indices
+   * @param query the query constraints
+   * @param adapter the adapter being queried
+   * @return an estimate for every usable candidate, in the order of the given indices
+   */
+  public List<IndexCostEstimate> estimate(
+      final Index[] indices,
+      final QueryConstraints query,
+      final InternalDataAdapter<?> adapter) {
+    final List<IndexCostEstimate> estimates = new ArrayList<>(indices.length);
+    for (final Index index : indices) {
+      final IndexCostEstimate estimate = estimate(index, query, adapter);
+      if (estimate != null) {
+        estimates.add(estimate);
+      }
+    }
+    return estimates;
+  }
+
+  /**
+   * Estimate the cost of answering the query for the given adapter with a single index.
+   *
+   * @param index the candidate index
+   * @param query the query constraints
+   * @param adapter the adapter being queried
+   * @return the estimate, or {@code null} if the index cannot be used for the query
+   */
+  public IndexCostEstimate estimate(
+      final Index index,
+      final QueryConstraints query,
+      final InternalDataAdapter<?> adapter) {
+    if ((index == null)
+        || (index.getIndexStrategy() == null)
+        || (index.getIndexStrategy().getOrderedDimensionDefinitions() == null)
+        || (index.getIndexStrategy().getOrderedDimensionDefinitions().length == 0)) {
+      return null;
+    }
+    QueryConstraints indexConstraints = query;
+    if (query instanceof AdapterAndIndexBasedQueryConstraints) {
+      indexConstraints =
+          ((AdapterAndIndexBasedQueryConstraints) query).createQueryConstraints(
+              adapter,
+              index,
+              mappingStore.getMapping(adapter.getAdapterId(), index.getName()));
+      if (indexConstraints == null) {
+        return null;
+      }
+    }
+    final List<MultiDimensionalNumericData> constraints =
+        indexConstraints.getIndexConstraints(index);
+    final boolean fullTableScan =
+        IndexUtils.isFullTableScan(constraints)
+            || !BaseDataStoreUtils.queryRangeDimensionsMatch(
+                index.getIndexStrategy().getOrderedDimensionDefinitions().length,
+                constraints);
+
+    final String typeName = adapter.getTypeName();
+    final PartitionsValue partitions =
+        InternalStatisticsHelper.getIndexStatistic(
+            statisticsStore,
+            PartitionsStatistic.STATS_TYPE,
+            index.getName(),
+            typeName,
+            null,
+            authorizations);
+    final DuplicateEntryCountValue duplicates =
+        InternalStatisticsHelper.getIndexStatistic(
+            statisticsStore,
+            DuplicateEntryCountStatistic.STATS_TYPE,
+            index.getName(),
+            typeName,
+            null,
+            authorizations);
+    Set<ByteArray> existingPartitions = partitions == null ? null : partitions.getValue();
+    if ((existingPartitions != null) && existingPartitions.isEmpty()) {
+      // rows without a partition key are not retained by the partitions statistic
+      existingPartitions = Collections.singleton(null);
+    }
+
+    int rangeCount = 0;
+    int partitionCount = 0;
+    double estimatedRows = 0;
+    double partitionRows = 0;
+    if (fullTableScan) {
+      if (existingPartitions == null) {
+        return unknown(index, typeName, true, 1, 0);
+      }
+      for (final ByteArray partition : existingPartitions) {
+        final RowRangeHistogramValue histogram = getHistogram(index, typeName, partition);
+        if (histogram == null) {
+          return unknown(index, typeName, true, existingPartitions.size(), 0);
+        }
+        rangeCount++;
+        partitionCount++;
+        estimatedRows += histogram.getTotalCount();
+      }
+      partitionRows = estimatedRows;
+    } else {
+      final QueryRanges ranges =
+          DataStoreUtils.constraintsToQueryRanges(constraints, index, null, maxRangeDecomposition);
+      boolean known = existingPartitions != null;
+      for (final SinglePartitionQueryRanges partitionRanges : ranges.getPartitionQueryRanges()) {
+        rangeCount += partitionRanges.getSortKeyRanges().size();
+        if (!known) {
+          continue;
+        }
+        final ByteArray partition = toPartition(partitionRanges.getPartitionKey());
+        if (!existingPartitions.contains(partition)) {
+          // nothing has been written to this partition
+          continue;
+        }
+        final RowRangeHistogramValue histogram = getHistogram(index, typeName, partition);
+        if (histogram == null) {
+          known = false;
+          continue;
+        }
+        partitionCount++;
+        partitionRows += histogram.getTotalCount();
+        for (final ByteArrayRange range : partitionRanges.getSortKeyRanges()) {
+          estimatedRows += histogram.cardinality(range.getStart(), range.getEnd());
+        }
+      }
+      if (!known) {
+        return unknown(index, typeName, false, rangeCount, partitionCount);
+      }
+    }
+    double duplicateRatio = 0;
+    if ((duplicates != null) && (partitionRows > 0)) {
+      duplicateRatio = Math.min(1.0, duplicates.getValue() / partitionRows);
+    }
+    return new IndexCostEstimate(
+        index,
+        typeName,
+        fullTableScan,
+        rangeCount,
+        partitionCount,
+        estimatedRows,
+        duplicateRatio);
+  }
+
+  /**
+   * Choose the cheapest index to answer the query for the given adapter.
+   *
+   * @param indices the candidate indices
+   * @param query the query constraints
+   * @param adapter the adapter being queried
+   * @param defaultIndex the index to use if the costs can not be compared or there is a tie
+   * @return the cheapest index
+   */
+  public Index chooseCheapestIndex(
+      final Index[] indices,
+      final QueryConstraints query,
+      final InternalDataAdapter<?> adapter,
+      final Index defaultIndex) {
+    IndexCostEstimate cheapest = null;
+    IndexCostEstimate defaultEstimate = null;
+    for (final IndexCostEstimate estimate : estimate(indices, query, adapter)) {
+      if (!estimate.isCostKnown()) {
+        LOGGER.debug(
+            "Statistics are unavailable for index '{}', unable to estimate index cost",
+            estimate.getIndex().getName());
+        return defaultIndex;
+      }
+      if (estimate.getIndex().equals(defaultIndex)) {
+        defaultEstimate = estimate;
+      }
+      if ((cheapest == null) || (estimate.getCost() < cheapest.getCost())) {
+        cheapest = estimate;
+      }
+    }
+    if ((cheapest == null)
+        || ((defaultEstimate != null) && (cheapest.getCost() >= defaultEstimate.getCost()))) {
+      return defaultIndex;
+    }
+    LOGGER.debug("Choosing index based on estimated cost: {}", cheapest);
+    return cheapest.getIndex();
+  }
+
+  private RowRangeHistogramValue getHistogram(
+      final Index index,
+      final String typeName,
+      final ByteArray partition) {
+    return InternalStatisticsHelper.getRangeStats(
+        statisticsStore,
+        index.getName(),
+        typeName,
+        partition == null ? new ByteArray() : partition,
+        authorizations);
+  }
+
+  private static ByteArray toPartition(final byte[] partitionKey) {
+    // this matches the partition keys that are tracked by the partitions statistic
+    return ((partitionKey == null) || (partitionKey.length == 0)) ? null
+        : new ByteArray(partitionKey);
+  }
+
+  private static IndexCostEstimate unknown(
+      final Index index,
+      final String typeName,
+      final boolean fullTableScan,
+      final int rangeCount,
+      final int partitionCount) {
+    return new IndexCostEstimate(index, typeName, fullTableScan, rangeCount, partitionCount, -1, 0);
+  }
+}
@@ -8,12 +8,14 @@
  */
 package org.locationtech.geowave.core.store.base.dataidx;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.index.ByteArray;
@@ -45,6 +47,8 @@ public class BatchIndexRetrievalImpl implements BatchDataIndexRetrieval {
   private final Pair<InternalDataAdapter<?>, Aggregation<?, ?, ?>> aggregation;
   private final String[] additionalAuthorizations;
   private final AtomicInteger outstandingIterators = new AtomicInteger(0);
+  private final DataIndexCache cache;
+  private final String authorizationsKey;
 
   public BatchIndexRetrievalImpl(
       final DataStoreOperations operations,
@@ -55,6 +59,32 @@ public class BatchIndexRetrievalImpl implements BatchDataIndexRetrieval {
       final Pair<InternalDataAdapter<?>, Aggregation<?, ?, ?>> aggregation,
       final String[] additionalAuthorizations,
       final int batchSize) {
+    this(
+        operations,
+        adapterStore,
+        mappingStore,
+        internalAdapterStore,
+        fieldSubsets,
+        aggregation,
+        additionalAuthorizations,
+        batchSize,
+        null);
+  }
+
+  /**
+   * @param cache values retrieved by other queries that can be shared with this one, may be
+   *        {@code null}
+   */
+  public BatchIndexRetrievalImpl(
+      final DataStoreOperations operations,
+      final PersistentAdapterStore adapterStore,
+      final AdapterIndexMappingStore mappingStore,
+      final InternalAdapterStore internalAdapterStore,
+      final Pair<String[], InternalDataAdapter<?>> fieldSubsets,
+      final Pair<InternalDataAdapter<?>, Aggregation<?, ?, ?>> aggregation,
+      final String[] additionalAuthorizations,
+      final int batchSize,
+      final DataIndexCache cache) {
     this.operations = operations;
     this.adapterStore = adapterStore;
     this.mappingStore = mappingStore;
@@ -63,6 +93,9 @@ public class BatchIndexRetrievalImpl implements BatchDataIndexRetrieval {
     this.aggregation = aggregation;
     this.additionalAuthorizations = additionalAuthorizations;
     this.batchSize = batchSize;
+    // values retrieved with a subset of fields or an aggregation can't be shared
+    this.cache = (fieldSubsets == null) && (aggregation == null) ? cache : null;
+    authorizationsKey = DataIndexCache.authorizationsKey(additionalAuthorizations);
   }
 
   @Override
@@ -94,7 +127,25 @@ public class BatchIndexRetrievalImpl implements BatchDataIndexRetrieval {
   }
 
   @Override
-  public synchronized CompletableFuture<GeoWaveValue[]> getDataAsync(
+  public CompletableFuture<GeoWaveValue[]> getDataAsync(
+      final short adapterId,
+      final byte[] dataId) {
+    if (cache != null) {
+      final GeoWaveValue[] cached = cache.getIfPresent(adapterId, dataId, authorizationsKey);
+      if (cached != null) {
+        return CompletableFuture.completedFuture(cached);
+      }
+      // another query may already be retrieving this data ID
+      final CompletableFuture<GeoWaveValue[]> inFlight =
+          cache.getInFlight(adapterId, dataId, authorizationsKey);
+      if (inFlight != null) {
+        return inFlight;
+      }
+    }
+    return addToBatch(adapterId, dataId);
+  }
+
+  private synchronized CompletableFuture<GeoWaveValue[]> addToBatch(
       final short adapterId,
       final byte[] dataId) {
     Map<ByteArray, CompletableFuture<GeoWaveValue[]>> batch =
@@ -122,35 +173,52 @@ public class BatchIndexRetrievalImpl implements BatchDataIndexRetrieval {
   private void flush(
       final Short adapterId,
       final Map<ByteArray, CompletableFuture<GeoWaveValue[]>> batch) {
-    final byte[][] internalDataIds;
-    final CompletableFuture<GeoWaveValue[]>[] internalSuppliers;
-    internalDataIds = new byte[batch.size()][];
-    internalSuppliers = new CompletableFuture[batch.size()];
-    final Iterator<Entry<ByteArray, CompletableFuture<GeoWaveValue[]>>> it =
-        batch.entrySet().iterator();
-    for (int i = 0; i < internalDataIds.length; i++) {
-      final Entry<ByteArray, CompletableFuture<GeoWaveValue[]>> entry = it.next();
-      internalDataIds[i] = entry.getKey().getBytes();
-      internalSuppliers[i] = entry.getValue();
+    final List<byte[]> dataIds = new ArrayList<>(batch.size());
+    final List<CompletableFuture<GeoWaveValue[]>> suppliers = new ArrayList<>(batch.size());
+    final List<DataIndexCache.Retrieval> retrievals = new ArrayList<>(batch.size());
+    for (final Entry<ByteArray, CompletableFuture<GeoWaveValue[]>> entry : batch.entrySet()) {
+      final byte[] dataId = entry.getKey().getBytes();
+      final CompletableFuture<GeoWaveValue[]> supplier = entry.getValue();
+      if (cache != null) {
+        final DataIndexCache.Retrieval retrieval =
+            cache.startRetrieval(adapterId, dataId, authorizationsKey, supplier);
+        if ((retrieval != null) && (retrieval.getFuture() != supplier)) {
+          // another query started retrieving this data ID since it was added to the batch
+          retrieval.getFuture().whenComplete((v, e) -> {
+            if (e != null) {
+              supplier.completeExceptionally(e);
+            } else {
+              supplier.complete(v);
+            }
+          });
+          continue;
+        }
+        retrievals.add(retrieval);
+      }
+      dataIds.add(dataId);
+      suppliers.add(supplier);
     }
     batch.clear();
-    if (internalSuppliers.length > 0) {
-      CompletableFuture.supplyAsync(() -> getData(adapterId, internalDataIds)).whenComplete(
-          (values, ex) -> {
+    if (!suppliers.isEmpty()) {
+      final byte[][] internalDataIds = dataIds.toArray(new byte[dataIds.size()][]);
+      final Executor executor = cache != null ? cache.getExecutor() : ForkJoinPool.commonPool();
+      CompletableFuture.supplyAsync(
+          () -> getData(adapterId, internalDataIds),
+          executor).whenComplete((values, ex) -> {
             if (values != null) {
               try {
                 int i = 0;
-                while (values.hasNext() && (i < internalSuppliers.length)) {
+                while (values.hasNext() && (i < suppliers.size())) {
                   // the iterator has to be in order
-                  internalSuppliers[i++].complete(values.next());
+                  complete(suppliers, retrievals, i++, values.next());
                 }
                 if (values.hasNext()) {
                   LOGGER.warn("There are more data index results than expected");
-                } else if (i < internalSuppliers.length) {
+                } else if (i < suppliers.size()) {
                   LOGGER.warn("There are less data index results than expected");
-                  while (i < internalSuppliers.length) {
+                  while (i < suppliers.size()) {
                     // there should be exactly as many results as suppliers so this shouldn't happen
-                    internalSuppliers[i++].complete(null);
+                    complete(suppliers, retrievals, i++, null);
                   }
                 }
               } finally {
@@ -158,12 +226,24 @@ public class BatchIndexRetrievalImpl implements BatchDataIndexRetrieval {
               }
             } else if (ex != null) {
               LOGGER.warn("Unable to retrieve from data index", ex);
-              Arrays.stream(internalSuppliers).forEach(s -> s.completeExceptionally(ex));
+              retrievals.forEach(r -> cache.complete(r, null));
+              suppliers.forEach(s -> s.completeExceptionally(ex));
             }
           });
     }
   }
 
+  private void complete(
+      final List<CompletableFuture<GeoWaveValue[]>> suppliers,
+      final List<DataIndexCache.Retrieval> retrievals,
+      final int i,
+      final GeoWaveValue[] values) {
+    if (cache != null) {
+      cache.complete(retrievals.get(i), values);
+    }
+    suppliers.get(i).complete(values);
+  }
+
   @Override
   public synchronized void flush() {
     if (!currentBatchesPerAdapter.isEmpty()) {
@@ -0,0 +1,316 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base.dataidx;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.store.callback.DeleteCallback;
+import org.locationtech.geowave.core.store.callback.IngestCallback;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * State shared by every data index lookup of a data store. It holds a bounded cache of the field
+ * values retrieved from the data ID index, tracks the batches that are currently being retrieved so
+ * that concurrent queries asking for the same data ID share a single lookup, and owns the executor
+ * that batches are retrieved on.
+ *
+ * <p> Values are only cached for lookups that retrieve every field without an aggregation. Each
+ * entry remembers the authorizations it was retrieved with and is only returned for lookups with
+ * the same authorizations. Entries are invalidated by the ingest and delete callbacks returned by
+ * {@link #getIngestCallback()} and {@link #getDeleteCallback()}. Those only see writes made through
+ * this process, so entries also expire a fixed time after they are cached to bound how long writes
+ * made by other processes to a shared data store can go unseen.
+ */
+public class DataIndexCache implements Closeable {
+  // rough per entry overhead of the key, the cached value and the cache itself
+  private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+  private final Cache<CacheKey, CachedValues> cache;
+  private final ConcurrentHashMap<CacheKey, Retrieval> inFlight = new ConcurrentHashMap<>();
+  // incremented on every invalidation so that a retrieval that overlaps a write is not cached
+  private final AtomicLong invalidations = new AtomicLong(0);
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * Create a data index cache.
+   *
+   * @param maxSizeBytes the approximate maximum number of bytes of field values to cache, a value
+   *        of zero or less disables caching but still coalesces concurrent lookups
+   * @param expireAfterWriteSeconds the number of seconds after which a cached value expires
+   * @param parallelism the number of threads used to retrieve batches from the data index
+   */
+  public DataIndexCache(
+      final long maxSizeBytes,
+      final int expireAfterWriteSeconds,
+      final int parallelism) {
+    this(maxSizeBytes, expireAfterWriteSeconds, parallelism, Ticker.systemTicker());
+  }
+
+  DataIndexCache(
+      final long maxSizeBytes,
+      final int expireAfterWriteSeconds,
+      final int parallelism,
+      final Ticker ticker) {
+    cache =
+        maxSizeBytes > 0 ? Caffeine.newBuilder().maximumWeight(maxSizeBytes).weigher(
+            (final CacheKey k, final CachedValues v) -> v.weight).expireAfterWrite(
+                Math.max(0, expireAfterWriteSeconds),
+                TimeUnit.SECONDS).ticker(ticker).build()
+            : null;
+    executor =
+        new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            new DataIndexThreadFactory());
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  public ExecutorService getExecutor() {
+    return executor;
+  }
+
+  /**
+   * @return the cached values, or {@code null} if they are not cached for these authorizations
+   */
+  public GeoWaveValue[] getIfPresent(
+      final short adapterId,
+      final byte[] dataId,
+      final String authorizations) {
+    if (cache == null) {
+      return null;
+    }
+    final CachedValues cached = cache.getIfPresent(new CacheKey(adapterId, dataId));
+    if ((cached != null) && cached.authorizations.equals(authorizations)) {
+      return cached.values;
+    }
+    return null;
+  }
+
+  /**
+   * @return a retrieval of the data ID that is already underway with the same authorizations, or
+   *         {@code null} if there is none
+   */
+  public CompletableFuture<GeoWaveValue[]> getInFlight(
+      final short adapterId,
+      final byte[] dataId,
+      final String authorizations) {
+    final Retrieval current = inFlight.get(new CacheKey(adapterId, dataId));
+    if ((current != null) && current.authorizations.equals(authorizations)) {
+      return current.future;
+    }
+    return null;
+  }
+
+  /**
+   * Register a retrieval that is about to start. If another retrieval of the same data ID with the
+   * same authorizations is already underway it is returned instead, and the caller should wait on
+   * its future rather than retrieving the data ID itself.
+   *
+   * @return the registered retrieval, or {@code null} if a retrieval with other authorizations is
+   *         underway in which case this one is not tracked
+   */
+  Retrieval startRetrieval(
+      final short adapterId,
+      final byte[] dataId,
+      final String authorizations,
+      final CompletableFuture<GeoWaveValue[]> future) {
+    final CacheKey key = new CacheKey(adapterId, dataId);
+    final Retrieval retrieval = new Retrieval(key, authorizations, future, invalidations.get());
+    final Retrieval existing = inFlight.putIfAbsent(key, retrieval);
+    if (existing == null) {
+      return retrieval;
+    }
+    return existing.authorizations.equals(authorizations) ? existing : null;
+  }
+
+  /**
+   * Finish a retrieval that was started with
+   * {@link #startRetrieval(short, byte[], String, CompletableFuture)}, caching the values unless
+   * the data ID was written or deleted in the meantime.
+   */
+  void complete(final Retrieval retrieval, final GeoWaveValue[] values) {
+    if ((retrieval != null)
+        && inFlight.remove(retrieval.key, retrieval)
+        && (cache != null)
+        && (values != null)
+        && (invalidations.get() == retrieval.invalidationsAtStart)) {
+      cache.put(retrieval.key, new CachedValues(retrieval.authorizations, values, retrieval.key));
+    }
+  }
+
+  /** Remove a single data ID from the cache. */
+  public void invalidate(final short adapterId, final byte[] dataId) {
+    invalidations.incrementAndGet();
+    final CacheKey key = new CacheKey(adapterId, dataId);
+    inFlight.remove(key);
+    if (cache != null) {
+      cache.invalidate(key);
+    }
+  }
+
+  /** Remove every data ID of a type from the cache. */
+  public void invalidate(final short adapterId) {
+    invalidations.incrementAndGet();
+    inFlight.keySet().removeIf(k -> k.adapterId == adapterId);
+    if (cache != null) {
+      cache.asMap().keySet().removeIf(k -> k.adapterId == adapterId);
+    }
+  }
+
+  public void invalidateAll() {
+    invalidations.incrementAndGet();
+    inFlight.clear();
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  public <T> IngestCallback<T> getIngestCallback() {
+    return (entry, rows) -> invalidate(rows);
+  }
+
+  public <T> DeleteCallback<T, GeoWaveRow> getDeleteCallback() {
+    return (entry, rows) -> invalidate(rows);
+  }
+
+  private void invalidate(final GeoWaveRow[] rows) {
+    for (final GeoWaveRow row : rows) {
+      invalidate(row.getAdapterId(), row.getDataId());
+    }
+  }
+
+  /**
+   * @return the key to cache lookups with the given authorizations under
+   */
+  public static String authorizationsKey(final String[] authorizations) {
+    if ((authorizations == null) || (authorizations.length == 0)) {
+      return "";
+    }
+    final String[] sorted = authorizations.clone();
+    Arrays.sort(sorted);
+    return String.join(",", sorted);
+  }
+
+  /**
+   * Release the cached values and stop the retrieval threads. The threads are daemons that time out
+   * when idle, so a cache that is never closed does not keep them alive.
+   */
+  @Override
+  public void close() {
+    invalidateAll();
+    executor.shutdown();
+  }
+
+  private static class CacheKey {
+    private final short adapterId;
+    private final ByteArray dataId;
+
+    private CacheKey(final short adapterId, final byte[] dataId) {
+      this.adapterId = adapterId;
+      this.dataId = new ByteArray(dataId);
+    }
+
+    @Override
+    public int hashCode() {
+      return (31 * adapterId) + dataId.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if ((obj == null) || (getClass() != obj.getClass())) {
+        return false;
+      }
+      final CacheKey other = (CacheKey) obj;
+      return (adapterId == other.adapterId) && dataId.equals(other.dataId);
+    }
+  }
+
+  private static class CachedValues {
+    private final String authorizations;
+    private final GeoWaveValue[] values;
+    private final int weight;
+
+    private CachedValues(
+        final String authorizations,
+        final GeoWaveValue[] values,
+        final CacheKey key) {
+      this.authorizations = authorizations;
+      this.values = values;
+      long bytes = ENTRY_OVERHEAD_BYTES + key.dataId.getBytes().length + authorizations.length();
+      for (final GeoWaveValue value : values) {
+        if (value != null) {
+          bytes +=
+              length(value.getFieldMask())
+                  + length(value.getVisibility())
+                  + length(value.getValue());
+        }
+      }
+      weight = (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int length(final byte[] bytes) {
+      return bytes == null ? 0 : bytes.length;
+    }
+  }
+
+  static class Retrieval {
+    private final CacheKey key;
+    private final String authorizations;
+    private final CompletableFuture<GeoWaveValue[]> future;
+    private final long invalidationsAtStart;
+
+    private Retrieval(
+        final CacheKey key,
+        final String authorizations,
+        final CompletableFuture<GeoWaveValue[]> future,
+        final long invalidationsAtStart) {
+      this.key = key;
+      this.authorizations = authorizations;
+      this.future = future;
+      this.invalidationsAtStart = invalidationsAtStart;
+    }
+
+    CompletableFuture<GeoWaveValue[]> getFuture() {
+      return future;
+    }
+  }
+
+  private static class DataIndexThreadFactory implements ThreadFactory {
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+    private final String namePrefix = "geowave-dataindex-" + POOL_NUMBER.getAndIncrement() + "-";
+
+    @Override
+    public Thread newThread(final Runnable r) {
+      final Thread t = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+      t.setDaemon(true);
+      return t;
+    }
+  }
+}
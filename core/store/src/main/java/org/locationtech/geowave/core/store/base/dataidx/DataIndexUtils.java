@@ -135,6 +135,30 @@ public class DataIndexUtils {
       final Pair<InternalDataAdapter<?>, Aggregation<?, ?, ?>> aggregation,
       final String[] additionalAuthorizations,
       final int dataIndexBatchSize) {
+    return getDataIndexRetrieval(
+        operations,
+        adapterStore,
+        mappingStore,
+        internalAdapterStore,
+        index,
+        fieldSubsets,
+        aggregation,
+        additionalAuthorizations,
+        dataIndexBatchSize,
+        null);
+  }
+
+  public static DataIndexRetrieval getDataIndexRetrieval(
+      final DataStoreOperations operations,
+      final PersistentAdapterStore adapterStore,
+      final AdapterIndexMappingStore mappingStore,
+      final InternalAdapterStore internalAdapterStore,
+      final Index index,
+      final Pair<String[], InternalDataAdapter<?>> fieldSubsets,
+      final Pair<InternalDataAdapter<?>, Aggregation<?, ?, ?>> aggregation,
+      final String[] additionalAuthorizations,
+      final int dataIndexBatchSize,
+      final DataIndexCache cache) {
     if ((dataIndexBatchSize > 0) && !isDataIndex(index.getName())) {
       // this implies that this index merely contains a reference by data ID and a second lookup
       // must be done
@@ -147,7 +171,8 @@ public class DataIndexUtils {
             fieldSubsets,
             aggregation,
             additionalAuthorizations,
-            dataIndexBatchSize);
+            dataIndexBatchSize,
+            cache);
       }
       return new DataIndexRetrievalImpl(
           operations,
@@ -24,6 +24,9 @@ import org.locationtech.geowave.core.index.SPIServiceRegistry;
 import org.locationtech.geowave.core.store.cli.CLIUtils;
 import org.locationtech.geowave.core.store.cli.store.DataStorePluginOptions;
 import org.locationtech.geowave.core.store.query.gwql.ResultSet;
+import org.locationtech.geowave.core.store.query.gwql.parse.GWQLParser;
+import org.locationtech.geowave.core.store.query.gwql.statement.SelectStatement;
+import org.locationtech.geowave.core.store.query.gwql.statement.Statement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.beust.jcommander.Parameter;
@@ -52,6 +55,12 @@ public class GWQLQuery extends DefaultOperation implements Command {
       description = "Authorization to use.  Can be specified multiple times.")
   private List<String> authorizations = new ArrayList<>();
 
+  @Parameter(
+      names = "--useStatistics",
+      required = false,
+      description = "Answer aggregations from statistics when possible instead of scanning the data. Results may differ from a scan, for example after deletes.")
+  private boolean useStatistics = false;
+
   @ParametersDelegate
   private QueryOutputFormatSpi output;
 
@@ -65,6 +74,10 @@ public class GWQLQuery extends DefaultOperation implements Command {
     this.outputFormat = outputFormat;
   }
 
+  public void setUseStatistics(final boolean useStatistics) {
+    this.useStatistics = useStatistics;
+  }
+
   public void setDebug(final boolean debug) {
     this.debug = debug;
   }
@@ -126,10 +139,13 @@ public class GWQLQuery extends DefaultOperation implements Command {
     final String query = parameters.get(1);
     final StopWatch stopWatch = new StopWatch();
     stopWatch.start();
+    final Statement statement =
+        GWQLParser.parseStatement(inputStoreOptions.createDataStore(), query);
+    if (useStatistics && (statement instanceof SelectStatement)) {
+      ((SelectStatement<?>) statement).setUseStatistics(true);
+    }
     final ResultSet results =
-        inputStoreOptions.createDataStore().query(
-            query,
-            authorizations.toArray(new String[authorizations.size()]));
+        statement.execute(authorizations.toArray(new String[authorizations.size()]));
     stopWatch.stop();
     output.output(results);
     results.close();
@@ -8,7 +8,10 @@
  */
 package org.locationtech.geowave.core.store.data;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import org.locationtech.geowave.core.store.adapter.AbstractAdapterPersistenceEncoding;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
 import org.locationtech.geowave.core.store.data.field.FieldReader;
@@ -26,6 +29,7 @@ public class DeferredReadCommonIndexedPersistenceEncoding extends
     AbstractAdapterPersistenceEncoding {
 
   private final FlattenedUnreadData unreadData;
+  private Map<String, byte[]> encodedValues = null;
 
   public DeferredReadCommonIndexedPersistenceEncoding(
       final short adapterId,
@@ -51,17 +55,43 @@ public class DeferredReadCommonIndexedPersistenceEncoding extends
   public void convertUnknownValues(
       final InternalDataAdapter<?> adapter,
       final CommonIndexModel model) {
-    if (unreadData != null) {
-      final List<FlattenedFieldInfo> fields = unreadData.finishRead();
-      for (final FlattenedFieldInfo field : fields) {
-        String fieldName = adapter.getFieldNameForPosition(model, field.getFieldPosition());
-        if (fieldName == null) {
-          fieldName = adapter.getFieldNameForPosition(model, field.getFieldPosition());
+    final Map<String, byte[]> encodedValues = getEncodedAdapterExtendedValues(adapter, model);
+    for (final Entry<String, byte[]> encodedValue : encodedValues.entrySet()) {
+      final FieldReader<Object> reader = adapter.getReader(encodedValue.getKey());
+      final Object value = reader.readField(encodedValue.getValue());
+      adapterExtendedData.addValue(encodedValue.getKey(), value);
+    }
+    encodedValues.clear();
+  }
+
+  @Override
+  public Object getAdapterExtendedValue(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model,
+      final String fieldName) {
+    final byte[] encodedValue = getEncodedAdapterExtendedValues(adapter, model).remove(fieldName);
+    if (encodedValue != null) {
+      final Object value = adapter.getReader(fieldName).readField(encodedValue);
+      adapterExtendedData.addValue(fieldName, value);
+      return value;
+    }
+    return adapterExtendedData.getValue(fieldName);
+  }
+
+  @Override
+  public Map<String, byte[]> getEncodedAdapterExtendedValues(
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel model) {
+    if (encodedValues == null) {
+      encodedValues = new HashMap<>();
+      if (unreadData != null) {
+        final List<FlattenedFieldInfo> fields = unreadData.finishRead();
+        for (final FlattenedFieldInfo field : fields) {
+          final String fieldName = adapter.getFieldNameForPosition(model, field.getFieldPosition());
+          encodedValues.put(fieldName, field.getValue());
         }
-        final FieldReader<Object> reader = adapter.getReader(fieldName);
-        final Object value = reader.readField(field.getValue());
-        adapterExtendedData.addValue(fieldName, value);
       }
     }
+    return encodedValues;
   }
 }
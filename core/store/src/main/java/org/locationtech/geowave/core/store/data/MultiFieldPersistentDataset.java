@@ -64,6 +64,11 @@ public class MultiFieldPersistentDataset<T> implements PersistentDataset<T> {
     return fieldNameToValueMap.get(fieldName);
   }
 
+  @Override
+  public T removeValue(final String fieldName) {
+    return fieldNameToValueMap.remove(fieldName);
+  }
+
   /*
    * (non-Javadoc)
    *
@@ -31,6 +31,14 @@ public interface PersistentDataset<T> {
    */
   T getValue(String fieldName);
 
+  /**
+   * Remove the value associated with a field ID from this data set.
+   *
+   * @param fieldName the field ID
+   * @return the removed field value, null if this did not contain a value for the ID
+   */
+  T removeValue(String fieldName);
+
   /**
    * Get all of the values from this persistent data set
    *
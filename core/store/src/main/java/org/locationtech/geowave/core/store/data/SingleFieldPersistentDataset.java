@@ -72,6 +72,16 @@ public class SingleFieldPersistentDataset<T> implements PersistentDataset<T> {
     return null;
   }
 
+  @Override
+  public T removeValue(final String fieldName) {
+    final T removedValue = getValue(fieldName);
+    if (removedValue != null) {
+      this.fieldName = null;
+      value = null;
+    }
+    return removedValue;
+  }
+
   /*
    * (non-Javadoc)
    *
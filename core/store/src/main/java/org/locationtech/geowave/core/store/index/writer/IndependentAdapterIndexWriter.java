@@ -9,19 +9,15 @@
 package org.locationtech.geowave.core.store.index.writer;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Function;
-import org.locationtech.geowave.core.index.InsertionIds;
-import org.locationtech.geowave.core.index.SinglePartitionInsertionIds;
 import org.locationtech.geowave.core.store.adapter.IndexDependentDataAdapter;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.api.VisibilityHandler;
 import org.locationtech.geowave.core.store.api.WriteResults;
 import org.locationtech.geowave.core.store.api.Writer;
-import com.google.common.collect.Maps;
+import com.google.common.collect.Iterators;
 
 public class IndependentAdapterIndexWriter<T> implements Writer<T> {
 
@@ -51,20 +47,28 @@ public class IndependentAdapterIndexWriter<T> implements Writer<T> {
       final T entry,
       final Function<T, WriteResults> internalWriter) {
     final Iterator<T> indexedEntries = adapter.convertToIndex(index, entry);
-    final Map<String, List<SinglePartitionInsertionIds>> insertionIdsPerIndex = new HashMap<>();
+    final List<WriteResults> results = new ArrayList<>();
     while (indexedEntries.hasNext()) {
-      final WriteResults ids = internalWriter.apply(indexedEntries.next());
-      for (final String indexName : ids.getWrittenIndexNames()) {
-        List<SinglePartitionInsertionIds> partitionInsertionIds =
-            insertionIdsPerIndex.get(indexName);
-        if (partitionInsertionIds == null) {
-          partitionInsertionIds = new ArrayList<>();
-          insertionIdsPerIndex.put(indexName, partitionInsertionIds);
-        }
-        partitionInsertionIds.addAll(ids.getInsertionIdsWritten(indexName).getPartitionKeys());
-      }
+      results.add(internalWriter.apply(indexedEntries.next()));
     }
-    return new WriteResults(Maps.transformValues(insertionIdsPerIndex, v -> new InsertionIds(v)));
+    return WriteResults.merge(results);
+  }
+
+  @Override
+  public WriteResults writeAll(final Iterable<T> entries) {
+    return writeAll(entries, visibilityHandler);
+  }
+
+  @Override
+  public WriteResults writeAll(
+      final Iterable<T> entries,
+      final VisibilityHandler visibilityHandler) {
+    // convert the whole batch so that it is written to the underlying writer as a batch
+    final List<T> indexedEntries = new ArrayList<>();
+    for (final T entry : entries) {
+      Iterators.addAll(indexedEntries, adapter.convertToIndex(index, entry));
+    }
+    return writer.writeAll(indexedEntries, visibilityHandler);
   }
 
   @Override
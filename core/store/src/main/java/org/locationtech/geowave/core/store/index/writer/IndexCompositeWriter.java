@@ -10,17 +10,12 @@ package org.locationtech.geowave.core.store.index.writer;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Function;
-import org.locationtech.geowave.core.index.InsertionIds;
-import org.locationtech.geowave.core.index.SinglePartitionInsertionIds;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.api.VisibilityHandler;
 import org.locationtech.geowave.core.store.api.WriteResults;
 import org.locationtech.geowave.core.store.api.Writer;
-import com.google.common.collect.Maps;
 
 public class IndexCompositeWriter<T> implements Writer<T> {
   final Writer<T>[] writers;
@@ -39,31 +34,47 @@ public class IndexCompositeWriter<T> implements Writer<T> {
 
   @Override
   public WriteResults write(final T entry) {
-    return internalWrite(entry, (w -> w.write(entry)));
+    return internalWrite(w -> w.write(entry));
   }
 
   @Override
   public WriteResults write(final T entry, final VisibilityHandler visibilityHandler) {
-    return internalWrite(entry, (w -> w.write(entry, visibilityHandler)));
+    return internalWrite(w -> w.write(entry, visibilityHandler));
   }
 
-  protected WriteResults internalWrite(
-      final T entry,
-      final Function<Writer<T>, WriteResults> internalWriter) {
-    final Map<String, List<SinglePartitionInsertionIds>> insertionIdsPerIndex = new HashMap<>();
+  @Override
+  public WriteResults writeAll(final Iterable<T> entries) {
+    final List<T> entryList = toList(entries);
+    return internalWrite(w -> w.writeAll(entryList));
+  }
+
+  @Override
+  public WriteResults writeAll(
+      final Iterable<T> entries,
+      final VisibilityHandler visibilityHandler) {
+    final List<T> entryList = toList(entries);
+    return internalWrite(w -> w.writeAll(entryList, visibilityHandler));
+  }
+
+  /**
+   * Each index writer iterates the batch, so it is materialized once up front in case the iterable
+   * can only be iterated a single time.
+   */
+  private static <T> List<T> toList(final Iterable<T> entries) {
+    if (entries instanceof List) {
+      return (List<T>) entries;
+    }
+    final List<T> entryList = new ArrayList<>();
+    entries.forEach(entryList::add);
+    return entryList;
+  }
+
+  protected WriteResults internalWrite(final Function<Writer<T>, WriteResults> internalWriter) {
+    final List<WriteResults> results = new ArrayList<>(writers.length);
     for (final Writer<T> indexWriter : writers) {
-      final WriteResults ids = internalWriter.apply(indexWriter);
-      for (final String indexName : ids.getWrittenIndexNames()) {
-        List<SinglePartitionInsertionIds> partitionInsertionIds =
-            insertionIdsPerIndex.get(indexName);
-        if (partitionInsertionIds == null) {
-          partitionInsertionIds = new ArrayList<>();
-          insertionIdsPerIndex.put(indexName, partitionInsertionIds);
-        }
-        partitionInsertionIds.addAll(ids.getInsertionIdsWritten(indexName).getPartitionKeys());
-      }
+      results.add(internalWriter.apply(indexWriter));
     }
-    return new WriteResults(Maps.transformValues(insertionIdsPerIndex, v -> new InsertionIds(v)));
+    return WriteResults.merge(results);
   }
 
   @Override
@@ -10,6 +10,7 @@ package org.locationtech.geowave.core.store.ingest;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -21,7 +22,9 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.io.FilenameUtils;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.api.DataStore;
@@ -39,8 +42,12 @@ import org.slf4j.LoggerFactory;
 abstract public class AbstractLocalFileIngestDriver extends
     AbstractLocalFileDriver<LocalFileIngestPlugin<?>, LocalIngestRunData> {
   private static final int INGEST_BATCH_SIZE = 50000;
+  private static final long DEFAULT_SPLIT_SIZE = 64L * 1024L * 1024L;
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractLocalFileIngestDriver.class);
   protected ExecutorService ingestExecutor;
+  // bounds the number of splits that are being ingested or are waiting to be ingested
+  private Semaphore splitPermits;
+  private final AtomicBoolean splitFailed = new AtomicBoolean(false);
 
   public AbstractLocalFileIngestDriver() {
     super();
@@ -87,7 +94,7 @@ abstract public class AbstractLocalFileIngestDriver extends
     } finally {
       shutdownExecutor();
     }
-    return true;
+    return !splitFailed.get();
   }
 
   /**
@@ -97,6 +104,7 @@ abstract public class AbstractLocalFileIngestDriver extends
   public void startExecutor() {
     if (getNumThreads() > 1) {
       ingestExecutor = Executors.newFixedThreadPool(getNumThreads());
+      splitPermits = new Semaphore(getNumThreads() * 2);
     }
   }
 
@@ -160,6 +168,16 @@ abstract public class AbstractLocalFileIngestDriver extends
           specifiedPrimaryIndexes,
           requiredIndexMap,
           getVisibilityHandler());
+    } else if (plugin instanceof SplittableLocalFileIngestPlugin) {
+      // splits are ingested asynchronously so that several files can be processed at once
+      processFileSplits(
+          file,
+          (SplittableLocalFileIngestPlugin<?>) plugin,
+          ingestRunData,
+          specifiedPrimaryIndexes,
+          requiredIndexMap,
+          getVisibilityHandler());
+      return;
     } else {
       processFileMultiThreaded(
           file,
@@ -183,13 +201,130 @@ abstract public class AbstractLocalFileIngestDriver extends
       final Map<String, Index> requiredIndexMap,
       final VisibilityHandler visibilityHandler) throws IOException {
 
-    int count = 0;
-    long dbWriteMs = 0L;
-    final Map<String, Writer<?>> indexWriters = new HashMap<>();
     // Read files until EOF from the command line.
     try (CloseableIterator<?> geowaveDataIt =
         plugin.toGeoWaveData(file, specifiedPrimaryIndexes.keySet().toArray(new String[0]))) {
+      ingestAll(
+          geowaveDataIt,
+          FilenameUtils.getName(file.getPath()),
+          ingestRunData,
+          specifiedPrimaryIndexes,
+          requiredIndexMap,
+          visibilityHandler);
+    }
+  }
+
+  /**
+   * Ingest the splits of a file on the ingest executor, each split being both parsed and written by
+   * a single thread. Files that can not be split are ingested as a single split. This blocks while
+   * too many splits are already waiting to be ingested, which bounds memory use and keeps the file
+   * visitor from running too far ahead of the ingest threads.
+   */
+  public void processFileSplits(
+      final URL file,
+      final SplittableLocalFileIngestPlugin<?> plugin,
+      final LocalIngestRunData ingestRunData,
+      final Map<String, Index> specifiedPrimaryIndexes,
+      final Map<String, Index> requiredIndexMap,
+      final VisibilityHandler visibilityHandler) throws IOException {
+    final String fileName = FilenameUtils.getName(file.getPath());
+    final String[] indexNames = specifiedPrimaryIndexes.keySet().toArray(new String[0]);
+    final long fileSize = plugin.isSplittable(file) ? getFileSize(file) : -1;
+    final long splitSize = getSplitSize();
+    if (fileSize <= splitSize) {
+      submitSplit(
+          () -> plugin.toGeoWaveData(file, indexNames),
+          fileName,
+          ingestRunData,
+          specifiedPrimaryIndexes,
+          requiredIndexMap,
+          visibilityHandler);
+      return;
+    }
+    LOGGER.debug(
+        String.format(
+            "Ingesting file [%s] in %d splits",
+            fileName,
+            ((fileSize + splitSize) - 1) / splitSize));
+    for (long start = 0; start < fileSize; start += splitSize) {
+      final long splitStart = start;
+      final long splitEnd = Math.min(start + splitSize, fileSize);
+      submitSplit(
+          () -> plugin.toGeoWaveData(file, splitStart, splitEnd, indexNames),
+          String.format("%s[%d-%d]", fileName, splitStart, splitEnd),
+          ingestRunData,
+          specifiedPrimaryIndexes,
+          requiredIndexMap,
+          visibilityHandler);
+    }
+  }
+
+  private void submitSplit(
+      final SplitReader splitReader,
+      final String splitName,
+      final LocalIngestRunData ingestRunData,
+      final Map<String, Index> specifiedPrimaryIndexes,
+      final Map<String, Index> requiredIndexMap,
+      final VisibilityHandler visibilityHandler) throws IOException {
+    try {
+      splitPermits.acquire();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted waiting to ingest " + splitName, e);
+    }
+    try {
+      ingestExecutor.submit(() -> {
+        try (CloseableIterator<?> geowaveDataIt = splitReader.read()) {
+          ingestAll(
+              geowaveDataIt,
+              splitName,
+              ingestRunData,
+              specifiedPrimaryIndexes,
+              requiredIndexMap,
+              visibilityHandler);
+        } catch (final Exception e) {
+          splitFailed.set(true);
+          LOGGER.error(String.format("Unable to ingest [%s]", splitName), e);
+        } finally {
+          splitPermits.release();
+        }
+      });
+    } catch (final RuntimeException e) {
+      splitPermits.release();
+      throw e;
+    }
+  }
 
+  private static long getFileSize(final URL file) {
+    if ("file".equalsIgnoreCase(file.getProtocol())) {
+      try {
+        return new File(file.toURI()).length();
+      } catch (final URISyntaxException | IllegalArgumentException e) {
+        LOGGER.warn("Unable to get the size of file: " + file, e);
+      }
+    }
+    // other URLs are not split
+    return -1;
+  }
+
+  /**
+   * @return the size in bytes of the splits that splittable files are divided into
+   */
+  protected long getSplitSize() {
+    return DEFAULT_SPLIT_SIZE;
+  }
+
+  private void ingestAll(
+      final CloseableIterator<?> geowaveDataIt,
+      final String inputName,
+      final LocalIngestRunData ingestRunData,
+      final Map<String, Index> specifiedPrimaryIndexes,
+      final Map<String, Index> requiredIndexMap,
+      final VisibilityHandler visibilityHandler) {
+    int count = 0;
+    long dbWriteMs = 0L;
+    final Map<String, Writer<?>> indexWriters = new HashMap<>();
+    try {
       while (geowaveDataIt.hasNext()) {
         final GeoWaveData<?> geowaveData = (GeoWaveData<?>) geowaveDataIt.next();
         try {
@@ -199,7 +334,7 @@ abstract public class AbstractLocalFileIngestDriver extends
                 String.format(
                     "Adapter not found for [%s] file [%s]",
                     geowaveData.getValue(),
-                    FilenameUtils.getName(file.getPath())));
+                    inputName));
             continue;
           }
 
@@ -224,7 +359,7 @@ abstract public class AbstractLocalFileIngestDriver extends
       LOGGER.debug(
           String.format(
               "Finished ingest for file: [%s]; Ingested %d items in %d seconds",
-              FilenameUtils.getName(file.getPath()),
+              inputName,
               count,
               (int) dbWriteMs / 1000));
 
@@ -395,6 +530,11 @@ abstract public class AbstractLocalFileIngestDriver extends
       final String providerName,
       final DataAdapterProvider<?> adapterProvider);
 
+  @FunctionalInterface
+  private static interface SplitReader {
+    CloseableIterator<?> read() throws IOException;
+  }
+
   private static BlockingQueue<GeoWaveData<?>> createBlockingQueue(final int batchSize) {
     return new LinkedBlockingQueue<>(batchSize);
   }
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.ingest;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Reads the lines of a file that start within a byte range. A line that starts before the range is
+ * skipped, and the last line that starts within the range is read to its end even if that is past
+ * the end of the range, so that every line of a file is read by exactly one of a set of adjacent
+ * ranges. Both {@code \n} and {@code \r\n} line endings are supported.
+ */
+public class LineRangeReader implements Closeable {
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private final InputStream in;
+  private final long end;
+  private final Charset charset;
+  private byte[] lineBuffer = new byte[256];
+  private long position;
+  private long lineStart;
+
+  /**
+   * @param file the file to read
+   * @param start the offset of the first byte of the range (inclusive)
+   * @param end the offset of the end of the range (exclusive)
+   * @param charset the character set of the file
+   */
+  public LineRangeReader(final URL file, final long start, final long end, final Charset charset)
+      throws IOException {
+    this.end = end;
+    this.charset = charset;
+    in = new BufferedInputStream(file.openStream(), BUFFER_SIZE);
+    if (start > 0) {
+      // start at the byte before the range so that a line starting exactly at the start of the
+      // range is not skipped
+      skipFully(start - 1);
+      position = start - 1;
+      skipLine();
+    }
+  }
+
+  private void skipFully(final long bytes) throws IOException {
+    long remaining = bytes;
+    while (remaining > 0) {
+      final long skipped = in.skip(remaining);
+      if (skipped <= 0) {
+        if (in.read() < 0) {
+          throw new EOFException("Range starts past the end of the file");
+        }
+        remaining--;
+      } else {
+        remaining -= skipped;
+      }
+    }
+  }
+
+  private void skipLine() throws IOException {
+    int b;
+    while ((b = in.read()) >= 0) {
+      position++;
+      if (b == '\n') {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return the next line without its line terminator, or {@code null} if there are no more lines
+   *         that start within the range
+   */
+  public String readLine() throws IOException {
+    if (position >= end) {
+      return null;
+    }
+    lineStart = position;
+    int length = 0;
+    int b;
+    while ((b = in.read()) >= 0) {
+      position++;
+      if (b == '\n') {
+        break;
+      }
+      if (length == lineBuffer.length) {
+        lineBuffer = Arrays.copyOf(lineBuffer, lineBuffer.length * 2);
+      }
+      lineBuffer[length++] = (byte) b;
+    }
+    if ((b < 0) && (length == 0)) {
+      // end of file
+      return null;
+    }
+    if ((length > 0) && (lineBuffer[length - 1] == '\r')) {
+      length--;
+    }
+    return new String(lineBuffer, 0, length, charset);
+  }
+
+  /**
+   * @return the offset in the file of the first byte of the last line that was read
+   */
+  public long getLineStart() {
+    return lineStart;
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.ingest;
+
+import java.net.URL;
+import org.locationtech.geowave.core.store.CloseableIterator;
+
+/**
+ * A local file ingest plugin that can convert byte ranges of a file independently of each other.
+ * When ingesting with multiple threads, large files are divided into splits that are parsed and
+ * written concurrently, and several files are processed at once, rather than parsing each file on a
+ * single thread.
+ *
+ * <p> A record belongs to the split that contains its first byte, so the plugin must skip a partial
+ * record at the start of a split and read past the end of a split to complete the last record.
+ * {@link LineRangeReader} does this for line-based formats. Implementations must support converting
+ * several files and splits concurrently.
+ *
+ * @param <O> The type of data to write to GeoWave
+ */
+public interface SplittableLocalFileIngestPlugin<O> extends LocalFileIngestPlugin<O> {
+  /**
+   * Determine whether the given file can be split. Compressed files, and formats in which records
+   * depend on each other, typically can not be split, in which case the whole file is converted by
+   * a single thread but still concurrently with other files.
+   *
+   * @param file the file to ingest
+   * @return {@code true} if byte ranges of the file can be converted independently
+   */
+  boolean isSplittable(URL file);
+
+  /**
+   * Convert the records that start within the given byte range of a file.
+   *
+   * @param file the file to ingest
+   * @param start the offset of the first byte of the split (inclusive)
+   * @param end the offset of the end of the split (exclusive)
+   * @param indexNames The set of index IDs specified via a commandline argument
+   * @return The objects that can be directly ingested into GeoWave
+   */
+  CloseableIterator<GeoWaveData<O>> toGeoWaveData(
+      URL file,
+      long start,
+      long end,
+      String[] indexNames);
+}
@@ -14,13 +14,16 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.locationtech.geowave.core.index.ByteArray;
@@ -64,15 +67,14 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Ordering;
-import com.google.common.collect.Sets;
 import com.google.common.primitives.UnsignedBytes;
 
 public class MemoryDataStoreOperations implements DataStoreOperations {
   private static final Logger LOGGER = LoggerFactory.getLogger(MemoryDataStoreOperations.class);
-  private final Map<String, SortedSet<MemoryStoreEntry>> storeData =
-      Collections.synchronizedMap(new HashMap<String, SortedSet<MemoryStoreEntry>>());
-  private final Map<MetadataType, SortedSet<MemoryMetadataEntry>> metadataStore =
-      Collections.synchronizedMap(new HashMap<MetadataType, SortedSet<MemoryMetadataEntry>>());
+  private final Map<String, ConcurrentNavigableMap<MemoryRowKey, MemoryStoreEntry>> storeData =
+      new ConcurrentHashMap<>();
+  private final Map<MetadataType, ConcurrentSkipListSet<MemoryMetadataEntry>> metadataStore =
+      new ConcurrentHashMap<>();
   private final DataStoreOptions options;
 
   public MemoryDataStoreOperations() {
@@ -126,119 +128,96 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
     return new MyIndexDeleter(indexName, authorizations);
   }
 
-  protected SortedSet<MemoryStoreEntry> getRowsForIndex(final String id) {
-    SortedSet<MemoryStoreEntry> set = storeData.get(id);
-    if (set == null) {
-      set = Collections.synchronizedSortedSet(new TreeSet<MemoryStoreEntry>());
-      storeData.put(id, set);
-    }
-    return set;
+  protected ConcurrentNavigableMap<MemoryRowKey, MemoryStoreEntry> getRowsForIndex(
+      final String id) {
+    return storeData.computeIfAbsent(id, k -> new ConcurrentSkipListMap<>());
   }
 
   @Override
   public <T> RowReader<T> createReader(final ReaderParams<T> readerParams) {
-    final SortedSet<MemoryStoreEntry> internalData =
+    final ConcurrentNavigableMap<MemoryRowKey, MemoryStoreEntry> internalData =
         storeData.get(readerParams.getIndex().getName());
-    int counter = 0;
-    List<MemoryStoreEntry> retVal = new ArrayList<>();
+    if (internalData == null) {
+      return new MyIndexReader<>(Collections.emptyIterator(), readerParams.getRowTransformer());
+    }
+    // rows are streamed straight from weakly consistent views of the skip list, so readers never
+    // copy result sets and never block (or get blocked by) concurrent writers
+    Iterator<MemoryStoreEntry> it;
     final Collection<SinglePartitionQueryRanges> partitionRanges =
         readerParams.getQueryRanges().getPartitionQueryRanges();
     if ((partitionRanges == null) || partitionRanges.isEmpty()) {
-      retVal.addAll(internalData);
-      // remove unauthorized
-      final Iterator<MemoryStoreEntry> it = retVal.iterator();
-      while (it.hasNext()) {
-        if (!isAuthorized(it.next(), readerParams.getAdditionalAuthorizations())) {
-          it.remove();
-        }
-      }
-      if ((readerParams.getLimit() != null)
-          && (readerParams.getLimit() > 0)
-          && (retVal.size() > readerParams.getLimit())) {
-        retVal = retVal.subList(0, readerParams.getLimit());
-      }
+      it =
+          Iterators.filter(
+              internalData.values().iterator(),
+              entry -> isAuthorized(entry, readerParams.getAdditionalAuthorizations()));
     } else {
-      for (final SinglePartitionQueryRanges p : partitionRanges) {
-        for (final ByteArrayRange r : p.getSortKeyRanges()) {
-          final SortedSet<MemoryStoreEntry> set;
-          if (r.isSingleValue()) {
-            set =
-                Sets.newTreeSet(
-                    internalData.subSet(
-                        new MemoryStoreEntry(p.getPartitionKey(), r.getStart()),
-                        new MemoryStoreEntry(
-                            p.getPartitionKey(),
-                            ByteArrayUtils.getNextPrefix(r.getStart()))));
-          } else {
-            set =
-                Sets.newTreeSet(
-                    internalData.tailSet(
-                        new MemoryStoreEntry(p.getPartitionKey(), r.getStart())).headSet(
-                            new MemoryStoreEntry(p.getPartitionKey(), r.getEndAsNextPrefix())));
-          }
-          // remove unauthorized
-          final Iterator<MemoryStoreEntry> it = set.iterator();
-          while (it.hasNext()) {
-            final MemoryStoreEntry entry = it.next();
-            if (!isAuthorized(entry, readerParams.getAdditionalAuthorizations())) {
-              it.remove();
-            } else if (!ArrayUtils.contains(
-                readerParams.getAdapterIds(),
-                entry.row.getAdapterId())) {
-              it.remove();
-            }
-          }
-          if ((readerParams.getLimit() != null)
-              && (readerParams.getLimit() > 0)
-              && ((counter + set.size()) > readerParams.getLimit())) {
-            final List<MemoryStoreEntry> subset = new ArrayList<>(set);
-            retVal.addAll(subset.subList(0, readerParams.getLimit() - counter));
-            break;
-          } else {
-            retVal.addAll(set);
-            counter += set.size();
-            if ((readerParams.getLimit() != null)
-                && (readerParams.getLimit() > 0)
-                && (counter >= readerParams.getLimit())) {
-              break;
-            }
+      it =
+          Iterators.filter(
+              Iterators.concat(
+                  Iterators.transform(
+                      partitionRanges.iterator(),
+                      p -> Iterators.concat(
+                          Iterators.transform(
+                              p.getSortKeyRanges().iterator(),
+                              r -> getRange(internalData, p.getPartitionKey(), r))))),
+              entry -> isAuthorized(entry, readerParams.getAdditionalAuthorizations())
+                  && ArrayUtils.contains(readerParams.getAdapterIds(), entry.row.getAdapterId()));
+    }
+    if ((readerParams.getLimit() != null) && (readerParams.getLimit() > 0)) {
+      it = Iterators.limit(it, readerParams.getLimit());
+    }
+    return new MyIndexReader<>(Iterators.filter(it, new Predicate<MemoryStoreEntry>() {
+      @Override
+      public boolean apply(final MemoryStoreEntry input) {
+        if ((readerParams.getFilter() != null) && options.isServerSideLibraryEnabled()) {
+          final PersistentDataset<Object> commonData = new MultiFieldPersistentDataset<>();
+          final List<FlattenedUnreadData> unreadData = new ArrayList<>();
+          final List<String> commonIndexFieldNames =
+              DataStoreUtils.getUniqueDimensionFields(readerParams.getIndex().getIndexModel());
+          for (final GeoWaveValue v : input.getRow().getFieldValues()) {
+            unreadData.add(
+                DataStoreUtils.aggregateFieldData(
+                    input.getRow(),
+                    v,
+                    commonData,
+                    readerParams.getIndex().getIndexModel(),
+                    commonIndexFieldNames));
           }
+          return readerParams.getFilter().accept(
+              readerParams.getIndex().getIndexModel(),
+              new DeferredReadCommonIndexedPersistenceEncoding(
+                  input.getRow().getAdapterId(),
+                  input.getRow().getDataId(),
+                  input.getRow().getPartitionKey(),
+                  input.getRow().getSortKey(),
+                  input.getRow().getNumberOfDuplicates(),
+                  commonData,
+                  unreadData.isEmpty() ? null : new UnreadFieldDataList(unreadData)));
         }
+        return true;
       }
-    }
-    return new MyIndexReader<>(
-        Iterators.filter(retVal.iterator(), new Predicate<MemoryStoreEntry>() {
-          @Override
-          public boolean apply(final MemoryStoreEntry input) {
-            if ((readerParams.getFilter() != null) && options.isServerSideLibraryEnabled()) {
-              final PersistentDataset<Object> commonData = new MultiFieldPersistentDataset<>();
-              final List<FlattenedUnreadData> unreadData = new ArrayList<>();
-              final List<String> commonIndexFieldNames =
-                  DataStoreUtils.getUniqueDimensionFields(readerParams.getIndex().getIndexModel());
-              for (final GeoWaveValue v : input.getRow().getFieldValues()) {
-                unreadData.add(
-                    DataStoreUtils.aggregateFieldData(
-                        input.getRow(),
-                        v,
-                        commonData,
-                        readerParams.getIndex().getIndexModel(),
-                        commonIndexFieldNames));
-              }
-              return readerParams.getFilter().accept(
-                  readerParams.getIndex().getIndexModel(),
-                  new DeferredReadCommonIndexedPersistenceEncoding(
-                      input.getRow().getAdapterId(),
-                      input.getRow().getDataId(),
-                      input.getRow().getPartitionKey(),
-                      input.getRow().getSortKey(),
-                      input.getRow().getNumberOfDuplicates(),
-                      commonData,
-                      unreadData.isEmpty() ? null : new UnreadFieldDataList(unreadData)));
-            }
-            return true;
-          }
-        }),
-        readerParams.getRowTransformer());
+    }), readerParams.getRowTransformer());
+  }
+
+  private static Iterator<MemoryStoreEntry> getRange(
+      final ConcurrentNavigableMap<MemoryRowKey, MemoryStoreEntry> rows,
+      final byte[] partitionKey,
+      final ByteArrayRange range) {
+    final MemoryRowKey start = MemoryRowKey.lowerBound(partitionKey, range.getStart());
+    final byte[] endExclusive =
+        range.isSingleValue() ? ByteArrayUtils.getNextPrefix(range.getStart())
+            : range.getEndAsNextPrefix();
+    if (endExclusive == null) {
+      // open ended, read to the end of the partition
+      return Iterators.filter(
+          rows.tailMap(start, true).values().iterator(),
+          entry -> Arrays.equals(start.getPartitionKey(), entry.getKey().getPartitionKey()));
+    }
+    return rows.subMap(
+        start,
+        true,
+        MemoryRowKey.lowerBound(partitionKey, endExclusive),
+        false).values().iterator();
   }
 
   private boolean isAuthorized(final MemoryStoreEntry row, final String... authorizations) {
@@ -303,17 +282,9 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
 
     @Override
     public void write(final GeoWaveRow row) {
-      SortedSet<MemoryStoreEntry> rowTreeSet = storeData.get(indexName);
-      if (rowTreeSet == null) {
-        rowTreeSet = new TreeSet<>();
-        storeData.put(indexName, rowTreeSet);
-      }
-      if (rowTreeSet.contains(new MemoryStoreEntry(row))) {
-        rowTreeSet.remove(new MemoryStoreEntry(row));
-      }
-      if (!rowTreeSet.add(new MemoryStoreEntry(row))) {
-        LOGGER.warn("Unable to add new entry");
-      }
+      // a single put replaces any existing row with the same key
+      final MemoryStoreEntry entry = new MemoryStoreEntry(row);
+      getRowsForIndex(indexName).put(entry.getKey(), entry);
     }
   }
 
@@ -333,11 +304,10 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
     public void delete(final GeoWaveRow row) {
       final MemoryStoreEntry entry = new MemoryStoreEntry(row);
       if (isAuthorized(entry, authorizations)) {
-        final SortedSet<MemoryStoreEntry> rowTreeSet = storeData.get(indexName);
-        if (rowTreeSet != null) {
-          if (!rowTreeSet.remove(entry)) {
-            LOGGER.warn("Unable to remove entry");
-          }
+        final ConcurrentNavigableMap<MemoryRowKey, MemoryStoreEntry> rows =
+            storeData.get(indexName);
+        if ((rows != null) && (rows.remove(entry.getKey()) == null)) {
+          LOGGER.warn("Unable to remove entry");
         }
       }
     }
@@ -350,6 +320,7 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
 
   public static class MemoryStoreEntry implements Comparable<MemoryStoreEntry> {
     private final GeoWaveRow row;
+    private final MemoryRowKey key;
 
     public MemoryStoreEntry(final byte[] comparisonPartitionKey, final byte[] comparisonSortKey) {
       row =
@@ -361,52 +332,34 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
                   comparisonSortKey,
                   0),
               null);
+      key = new MemoryRowKey(row);
     }
 
     public MemoryStoreEntry(final GeoWaveRow row) {
       this.row = row;
+      key = new MemoryRowKey(row);
     }
 
     public GeoWaveRow getRow() {
       return row;
     }
 
+    public MemoryRowKey getKey() {
+      return key;
+    }
+
     public byte[] getCompositeInsertionId() {
       return ((GeoWaveKeyImpl) ((GeoWaveRowImpl) row).getKey()).getCompositeInsertionId();
     }
 
     @Override
     public int compareTo(final MemoryStoreEntry other) {
-      final int indexIdCompare =
-          UnsignedBytes.lexicographicalComparator().compare(
-              getCompositeInsertionId(),
-              other.getCompositeInsertionId());
-      if (indexIdCompare != 0) {
-        return indexIdCompare;
-      }
-      final int dataIdCompare =
-          UnsignedBytes.lexicographicalComparator().compare(
-              row.getDataId(),
-              other.getRow().getDataId());
-      if (dataIdCompare != 0) {
-        return dataIdCompare;
-      }
-      final int adapterIdCompare =
-          UnsignedBytes.lexicographicalComparator().compare(
-              ByteArrayUtils.shortToByteArray(row.getAdapterId()),
-              ByteArrayUtils.shortToByteArray(other.getRow().getAdapterId()));
-      if (adapterIdCompare != 0) {
-        return adapterIdCompare;
-      }
-      return 0;
+      return key.compareTo(other.key);
     }
 
     @Override
     public int hashCode() {
-      final int prime = 31;
-      int result = 1;
-      result = (prime * result) + ((row == null) ? 0 : row.hashCode());
-      return result;
+      return key.hashCode();
     }
 
     @Override
@@ -414,19 +367,10 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
       if (this == obj) {
         return true;
       }
-      if (obj == null) {
+      if ((obj == null) || (getClass() != obj.getClass())) {
         return false;
       }
-      if (getClass() != obj.getClass()) {
-        return false;
-      }
-      final MemoryStoreEntry other = (MemoryStoreEntry) obj;
-      if (row == null) {
-        if (other.row != null) {
-          return false;
-        }
-      }
-      return compareTo(other) == 0;
+      return key.equals(((MemoryStoreEntry) obj).key);
     }
   }
 
@@ -456,7 +400,7 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
     @SuppressWarnings({"rawtypes", "unchecked"})
     @Override
     public CloseableIterator<GeoWaveMetadata> query(final MetadataQuery query) {
-      final SortedSet<MemoryMetadataEntry> typeStore = metadataStore.get(type);
+      final ConcurrentSkipListSet<MemoryMetadataEntry> typeStore = metadataStore.get(type);
       if (typeStore == null) {
         return new CloseableIterator.Empty<>();
       }
@@ -612,15 +556,9 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
 
     @Override
     public void write(final GeoWaveMetadata metadata) {
-      SortedSet<MemoryMetadataEntry> typeStore = metadataStore.get(type);
-      if (typeStore == null) {
-        typeStore = new TreeSet<>();
-        metadataStore.put(type, typeStore);
-      }
-      if (typeStore.contains(new MemoryMetadataEntry(metadata))) {
-        typeStore.remove(new MemoryMetadataEntry(metadata));
-      }
-      if (!typeStore.add(new MemoryMetadataEntry(metadata))) {
+      // every entry gets a unique UUID so this never replaces an existing entry
+      if (!metadataStore.computeIfAbsent(type, k -> new ConcurrentSkipListSet<>()).add(
+          new MemoryMetadataEntry(metadata))) {
         LOGGER.warn("Unable to add new metadata");
       }
     }
@@ -649,11 +587,24 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
       return true;
     }
 
+    @Override
+    public boolean canDeleteRows() {
+      return true;
+    }
+
+    @Override
+    public boolean deleteRow(final GeoWaveMetadata row) {
+      return metadataStore.get(type).remove(
+          new MemoryMetadataEntry(row, ((GeoWaveMetadataWithUUID) row).uuidBytes));
+    }
+
     @Override
     public void flush() {}
   }
 
   public static class MemoryMetadataEntry implements Comparable<MemoryMetadataEntry> {
+    private static final Comparator<byte[]> LEXY_WITH_NULL_HANDLING =
+        Ordering.from(UnsignedBytes.lexicographicalComparator()).nullsFirst();
     private final GeoWaveMetadata metadata;
     // this is just to allow storing duplicates in the treemap
     private final byte[] uuidBytes;
@@ -673,25 +624,25 @@ public class MemoryDataStoreOperations implements DataStoreOperations {
 
     @Override
     public int compareTo(final MemoryMetadataEntry other) {
-      final Comparator<byte[]> lexyWithNullHandling =
-          Ordering.from(UnsignedBytes.lexicographicalComparator()).nullsFirst();
       final int primaryIdCompare =
-          lexyWithNullHandling.compare(metadata.getPrimaryId(), other.metadata.getPrimaryId());
+          LEXY_WITH_NULL_HANDLING.compare(metadata.getPrimaryId(), other.metadata.getPrimaryId());
       if (primaryIdCompare != 0) {
         return primaryIdCompare;
       }
       final int secondaryIdCompare =
-          lexyWithNullHandling.compare(metadata.getSecondaryId(), other.metadata.getSecondaryId());
+          LEXY_WITH_NULL_HANDLING.compare(
+              metadata.getSecondaryId(),
+              other.metadata.getSecondaryId());
       if (secondaryIdCompare != 0) {
         return secondaryIdCompare;
       }
       final int visibilityCompare =
-          lexyWithNullHandling.compare(metadata.getVisibility(), other.metadata.getVisibility());
+          LEXY_WITH_NULL_HANDLING.compare(metadata.getVisibility(), other.metadata.getVisibility());
       if (visibilityCompare != 0) {
         return visibilityCompare;
       }
       // this is just to allow storing duplicates in the treemap
-      return lexyWithNullHandling.compare(uuidBytes, other.uuidBytes);
+      return LEXY_WITH_NULL_HANDLING.compare(uuidBytes, other.uuidBytes);
     }
 
     @Override
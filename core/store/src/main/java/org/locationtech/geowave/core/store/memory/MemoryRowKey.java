@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.memory;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import org.locationtech.geowave.core.store.entities.GeoWaveKey;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Key of a row in the memory data store. Rows are ordered by partition key, sort key, data ID and
+ * finally adapter ID, all compared as unsigned bytes, so that a partition and sort key range maps
+ * directly onto a contiguous sub map of the index.
+ */
+public class MemoryRowKey implements Comparable<MemoryRowKey> {
+  private static final byte[] EMPTY = new byte[0];
+  private static final Comparator<byte[]> COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+  private final byte[] partitionKey;
+  private final byte[] sortKey;
+  private final byte[] dataId;
+  private final short adapterId;
+  private int hashCode = 0;
+
+  public MemoryRowKey(final GeoWaveKey key) {
+    this(key.getPartitionKey(), key.getSortKey(), key.getDataId(), key.getAdapterId());
+  }
+
+  public MemoryRowKey(
+      final byte[] partitionKey,
+      final byte[] sortKey,
+      final byte[] dataId,
+      final short adapterId) {
+    this.partitionKey = partitionKey == null ? EMPTY : partitionKey;
+    this.sortKey = sortKey == null ? EMPTY : sortKey;
+    this.dataId = dataId == null ? EMPTY : dataId;
+    this.adapterId = adapterId;
+  }
+
+  /**
+   * @return a key that sorts before every row with the given partition and sort key
+   */
+  public static MemoryRowKey lowerBound(final byte[] partitionKey, final byte[] sortKey) {
+    return new MemoryRowKey(partitionKey, sortKey, EMPTY, (short) 0);
+  }
+
+  public byte[] getPartitionKey() {
+    return partitionKey;
+  }
+
+  public byte[] getSortKey() {
+    return sortKey;
+  }
+
+  public byte[] getDataId() {
+    return dataId;
+  }
+
+  public short getAdapterId() {
+    return adapterId;
+  }
+
+  @Override
+  public int compareTo(final MemoryRowKey other) {
+    int compare = COMPARATOR.compare(partitionKey, other.partitionKey);
+    if (compare != 0) {
+      return compare;
+    }
+    compare = COMPARATOR.compare(sortKey, other.sortKey);
+    if (compare != 0) {
+      return compare;
+    }
+    compare = COMPARATOR.compare(dataId, other.dataId);
+    if (compare != 0) {
+      return compare;
+    }
+    return Integer.compare(adapterId & 0xFFFF, other.adapterId & 0xFFFF);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = hashCode;
+    if (result == 0) {
+      final int prime = 31;
+      result = 1;
+      result = (prime * result) + Arrays.hashCode(partitionKey);
+      result = (prime * result) + Arrays.hashCode(sortKey);
+      result = (prime * result) + Arrays.hashCode(dataId);
+      result = (prime * result) + adapterId;
+      hashCode = result;
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if ((obj == null) || (getClass() != obj.getClass())) {
+      return false;
+    }
+    return compareTo((MemoryRowKey) obj) == 0;
+  }
+}
@@ -10,11 +10,24 @@ package org.locationtech.geowave.core.store.metadata;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import javax.annotation.Nullable;
 import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.index.persist.PersistenceUtils;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.DataStoreOptions;
@@ -27,10 +40,12 @@ import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.api.IndexStatistic;
 import org.locationtech.geowave.core.store.api.Statistic;
 import org.locationtech.geowave.core.store.api.StatisticValue;
+import org.locationtech.geowave.core.store.entities.GeoWaveMetadata;
 import org.locationtech.geowave.core.store.operations.DataStoreOperations;
 import org.locationtech.geowave.core.store.operations.MetadataDeleter;
 import org.locationtech.geowave.core.store.operations.MetadataQuery;
 import org.locationtech.geowave.core.store.operations.MetadataType;
+import org.locationtech.geowave.core.store.operations.MetadataWriter;
 import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
 import org.locationtech.geowave.core.store.statistics.StatisticId;
 import org.locationtech.geowave.core.store.statistics.StatisticType;
@@ -43,6 +58,8 @@ import org.locationtech.geowave.core.store.statistics.binning.DataTypeBinningStr
 import org.locationtech.geowave.core.store.statistics.field.FieldStatisticId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 
@@ -55,10 +72,21 @@ public class DataStatisticsStoreImpl extends
   public static final int STATS_COMBINER_PRIORITY = 10;
   public static final String STATISTICS_COMBINER_NAME = "STATS_COMBINER";
 
+  // values written by other processes are only picked up once the cached value expires
+  private static final long VALUE_CACHE_EXPIRATION_SECONDS = 10;
+  private static final byte[] NO_VALUE = new byte[0];
+  // statistic stores that share data store operations share a value cache so that writes through
+  // one store invalidate the values cached by the others
+  private static final Cache<DataStoreOperations, ValueCache> VALUE_CACHES =
+      Caffeine.newBuilder().weakKeys().build();
+
+  private final ValueCache valueCache;
+
   public DataStatisticsStoreImpl(
       final DataStoreOperations operations,
       final DataStoreOptions options) {
     super(operations, options, MetadataType.STATISTICS);
+    valueCache = VALUE_CACHES.get(operations, k -> new ValueCache());
   }
 
   @Override
@@ -102,6 +130,7 @@ public class DataStatisticsStoreImpl extends
 
   @Override
   public boolean removeStatistics(final Index index) {
+    valueCache.invalidateAll();
     boolean removed = deleteObjects(IndexStatistic.generateGroupId(index.getName()));
     removed =
         deleteObjects(
@@ -115,6 +144,7 @@ public class DataStatisticsStoreImpl extends
 
   @Override
   public boolean removeStatistics(final DataTypeAdapter<?> type, final Index... adapterIndices) {
+    valueCache.invalidateAll();
     boolean removed = deleteObjects(DataTypeStatistic.generateGroupId(type.getTypeName()));
     removed =
         deleteObjects(
@@ -367,9 +397,64 @@ public class DataStatisticsStoreImpl extends
   @Override
   public <V extends StatisticValue<R>, R> StatisticValueWriter<V> createStatisticValueWriter(
       final Statistic<V> statistic) {
-    return new StatisticValueWriter<>(
-        operations.createMetadataWriter(MetadataType.STATISTIC_VALUES),
-        statistic);
+    invalidateValues(statistic);
+    final MetadataWriter writer = operations.createMetadataWriter(MetadataType.STATISTIC_VALUES);
+    return new StatisticValueWriter<>(new MetadataWriter() {
+      @Override
+      public void write(final GeoWaveMetadata metadata) {
+        writer.write(metadata);
+      }
+
+      @Override
+      public void flush() {
+        writer.flush();
+        invalidateValues(statistic);
+      }
+
+      @Override
+      public void close() throws Exception {
+        try {
+          writer.close();
+        } finally {
+          invalidateValues(statistic);
+        }
+      }
+    }, statistic);
+  }
+
+  private void invalidateValues(final Statistic<?> statistic) {
+    final ByteArray uniqueId = statistic.getId().getUniqueId();
+    final ByteArray groupId = statistic.getId().getGroupId();
+    valueCache.invalidate(key -> key.uniqueId.equals(uniqueId) && key.groupId.equals(groupId));
+  }
+
+  /**
+   * Get a statistic value from the value cache, reading and merging it from the metadata table if
+   * it is not cached. The returned value is a copy that the caller is free to modify.
+   */
+  private <V extends StatisticValue<R>, R> V getCachedStatisticValue(
+      final Statistic<V> statistic,
+      final ByteArray bin,
+      final String... authorizations) {
+    final byte[] valueBinary =
+        valueCache.get(new ValueCacheKey(statistic, bin, authorizations), k -> {
+          try (StatisticValueReader<V, R> reader =
+              createStatisticValueReader(statistic, bin, true, authorizations)) {
+            if (reader.hasNext()) {
+              return PersistenceUtils.toBinary(reader.next());
+            }
+          }
+          return NO_VALUE;
+        });
+    if (valueBinary.length == 0) {
+      return null;
+    }
+    final V value = statistic.createEmpty();
+    value.fromBinary(PersistenceUtils.stripClassId(valueBinary));
+    if (bin != null) {
+      value.setBin(bin);
+    }
+    return value;
   }
 
   private <V extends StatisticValue<R>, R> StatisticValueReader<V, R> createStatisticValueReader(
@@ -421,6 +506,7 @@ public class DataStatisticsStoreImpl extends
           "The given statistic uses a binning strategy, but no bin was specified.");
     }
     boolean deleted = false;
+    invalidateValues(statistic);
     try (
         MetadataDeleter deleter = operations.createMetadataDeleter(MetadataType.STATISTIC_VALUES)) {
       deleted =
@@ -443,6 +529,7 @@ public class DataStatisticsStoreImpl extends
           "The given statistic does not use a binning strategy, but a bin was specified.");
     }
     boolean deleted = false;
+    invalidateValues(statistic);
     try (
         MetadataDeleter deleter = operations.createMetadataDeleter(MetadataType.STATISTIC_VALUES)) {
       deleted =
@@ -495,13 +582,7 @@ public class DataStatisticsStoreImpl extends
       throw new UnsupportedOperationException(
           "The given statistic uses a binning strategy, but no bin was specified.");
     }
-    try (StatisticValueReader<V, R> reader =
-        createStatisticValueReader(statistic, null, true, authorizations)) {
-      if (reader.hasNext()) {
-        return reader.next();
-      }
-    }
-    return null;
+    return getCachedStatisticValue(statistic, null, authorizations);
   }
 
   @Override
@@ -513,14 +594,7 @@ public class DataStatisticsStoreImpl extends
       throw new UnsupportedOperationException(
           "The given statistic does not use a binning strategy, but a bin was specified.");
     }
-    // allow for bin prefix scans
-    try (StatisticValueReader<V, R> reader =
-        createStatisticValueReader(statistic, bin, true, authorizations)) {
-      if (reader.hasNext()) {
-        return reader.next();
-      }
-    }
-    return null;
+    return getCachedStatisticValue(statistic, bin, authorizations);
   }
 
   @Override
@@ -550,7 +624,11 @@ public class DataStatisticsStoreImpl extends
     if (statistic.getBinningStrategy() != null) {
       return createStatisticValueReader(statistic, null, false, authorizations);
     }
-    return createStatisticValueReader(statistic, null, true, authorizations);
+    final V value = getCachedStatisticValue(statistic, null, authorizations);
+    if (value == null) {
+      return new CloseableIterator.Empty<>();
+    }
+    return new CloseableIterator.Wrapper<>(Iterators.singletonIterator(value));
   }
 
   @Override
@@ -582,12 +660,19 @@ public class DataStatisticsStoreImpl extends
         }
       }
     }
-    return new StatisticUpdateCallback<>(statistics, this, index, indexMapping, adapter);
+    return new StatisticUpdateCallback<>(
+        statistics,
+        this,
+        index,
+        indexMapping,
+        adapter,
+        (options != null) && options.isCompactStatistics());
   }
 
   @Override
   public void removeAll() {
     deleteObjects(null, null, operations, MetadataType.STATISTIC_VALUES, null);
+    valueCache.invalidateAll();
     super.removeAll();
   }
 
@@ -615,6 +700,164 @@ public class DataStatisticsStoreImpl extends
     return true;
   }
 
+  @Override
+  public <V extends StatisticValue<R>, R> boolean compactStatisticValues(
+      final Statistic<V> statistic,
+      final String... authorizations) {
+    final MetadataQuery query;
+    if (statistic.getBinningStrategy() != null) {
+      query =
+          new MetadataQuery(
+              StatisticValue.getValueId(statistic.getId(), new byte[0]),
+              statistic.getId().getGroupId().getBytes(),
+              true,
+              authorizations);
+    } else {
+      query =
+          new MetadataQuery(
+              statistic.getId().getUniqueId().getBytes(),
+              statistic.getId().getGroupId().getBytes(),
+              false,
+              authorizations);
+    }
+    try (
+        MetadataDeleter deleter = operations.createMetadataDeleter(MetadataType.STATISTIC_VALUES)) {
+      if (!deleter.canDeleteRows()) {
+        // without deleting exactly the rows that were read, partial values written concurrently
+        // would be lost
+        return false;
+      }
+      // group the partial values by value ID and visibility, keeping the order of the value IDs
+      final Map<ByteArray, Map<ByteArray, V>> valuesById = new LinkedHashMap<>();
+      final Map<ByteArray, List<GeoWaveMetadata>> rowsById = new HashMap<>();
+      final Set<ByteArray> idsToCompact = new HashSet<>();
+      try (CloseableIterator<GeoWaveMetadata> it =
+          operations.createMetadataReader(MetadataType.STATISTIC_VALUES).query(query)) {
+        while (it.hasNext()) {
+          final GeoWaveMetadata row = it.next();
+          final ByteArray primaryId = new ByteArray(row.getPrimaryId());
+          final ByteArray visibility =
+              new ByteArray(row.getVisibility() == null ? new byte[0] : row.getVisibility());
+          final V value = statistic.createEmpty();
+          value.fromBinary(PersistenceUtils.stripClassId(row.getValue()));
+          final Map<ByteArray, V> visibilityValues =
+              valuesById.computeIfAbsent(primaryId, k -> new HashMap<>());
+          final V existing = visibilityValues.get(visibility);
+          if (existing == null) {
+            visibilityValues.put(visibility, value);
+          } else {
+            existing.merge(value);
+            idsToCompact.add(primaryId);
+          }
+          rowsById.computeIfAbsent(primaryId, k -> new ArrayList<>()).add(row);
+        }
+      }
+      if (idsToCompact.isEmpty()) {
+        return false;
+      }
+      // write the merged values before removing the rows they replace so that a failure can not
+      // lose a value
+      try (MetadataWriter writer = operations.createMetadataWriter(MetadataType.STATISTIC_VALUES)) {
+        for (final Entry<ByteArray, Map<ByteArray, V>> idValues : valuesById.entrySet()) {
+          if (!idsToCompact.contains(idValues.getKey())) {
+            continue;
+          }
+          for (final Entry<ByteArray, V> visibilityValue : idValues.getValue().entrySet()) {
+            writer.write(
+                new GeoWaveMetadata(
+                    idValues.getKey().getBytes(),
+                    statistic.getId().getGroupId().getBytes(),
+                    visibilityValue.getKey().getBytes(),
+                    PersistenceUtils.toBinary(visibilityValue.getValue())));
+          }
+        }
+      }
+      for (final ByteArray primaryId : idsToCompact) {
+        for (final GeoWaveMetadata row : rowsById.get(primaryId)) {
+          deleter.deleteRow(row);
+        }
+      }
+    } catch (final Exception e) {
+      LOGGER.error("Unable to compact values for statistic", e);
+      return false;
+    } finally {
+      invalidateValues(statistic);
+    }
+    return true;
+  }
+
+  /**
+   * Statistic values cached by their statistic, bin and authorizations. A value that was read while
+   * the values were invalidated is not kept because it may have been read before the write.
+   */
+  private static class ValueCache {
+    private final Cache<ValueCacheKey, byte[]> cache =
+        Caffeine.newBuilder().maximumSize(MAX_ENTRIES).expireAfterWrite(
+            VALUE_CACHE_EXPIRATION_SECONDS,
+            TimeUnit.SECONDS).build();
+    // incremented on every invalidation so that a read that overlaps a write is not cached
+    private final AtomicLong invalidations = new AtomicLong(0);
+
+    private byte[] get(final ValueCacheKey key, final Function<ValueCacheKey, byte[]> loader) {
+      final long invalidationsAtStart = invalidations.get();
+      final byte[] value = cache.get(key, loader);
+      if (invalidations.get() != invalidationsAtStart) {
+        // the value may have been read before the invalidation removed the values it covers
+        cache.invalidate(key);
+      }
+      return value;
+    }
+
+    private void invalidate(final Predicate<ValueCacheKey> keys) {
+      invalidations.incrementAndGet();
+      cache.asMap().keySet().removeIf(keys);
+    }
+
+    private void invalidateAll() {
+      invalidations.incrementAndGet();
+      cache.invalidateAll();
+    }
+  }
+
+  private static class ValueCacheKey {
+    private final ByteArray uniqueId;
+    private final ByteArray groupId;
+    private final ByteArray bin;
+    private final Set<String> authorizations;
+
+    private ValueCacheKey(
+        final Statistic<?> statistic,
+        final ByteArray bin,
+        final String... authorizations) {
+      uniqueId = statistic.getId().getUniqueId();
+      groupId = statistic.getId().getGroupId();
+      this.bin = bin;
+      this.authorizations =
+          authorizations == null ? Collections.emptySet()
+              : new HashSet<>(Arrays.asList(authorizations));
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(uniqueId, groupId, bin, authorizations);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if ((obj == null) || (getClass() != obj.getClass())) {
+        return false;
+      }
+      final ValueCacheKey other = (ValueCacheKey) obj;
+      return uniqueId.equals(other.uniqueId)
+          && groupId.equals(other.groupId)
+          && Objects.equals(bin, other.bin)
+          && authorizations.equals(other.authorizations);
+    }
+  }
+
   protected static class TagFilter implements
       CloseableIterator<Statistic<? extends StatisticValue<?>>> {
 
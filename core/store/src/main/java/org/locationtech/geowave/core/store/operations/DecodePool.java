@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.operations;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread pool shared by every {@link ParallelDecoder}. Rather than giving each query its own
+ * threads, decode tasks from all queries are queued on this pool. Each task decodes a bounded
+ * number of batches before yielding its thread back to the pool, and each query limits how many of
+ * its tasks may be queued at once, so a large scan cannot starve smaller concurrent queries.
+ *
+ * <p> The parallelism of the default pool can be set with the {@code geowave.decode.threads} system
+ * property or {@link #setDefaultParallelism(int)}.
+ */
+public class DecodePool {
+  public static final String PARALLELISM_PROPERTY = "geowave.decode.threads";
+  private static final int DEFAULT_PARALLELISM =
+      Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+
+  private static DecodePool defaultPool = null;
+
+  private final ThreadPoolExecutor executor;
+  private final DecodeMetrics metrics = new DecodeMetrics();
+
+  /**
+   * Create a decode pool.
+   *
+   * @param parallelism the maximum number of threads used for decoding
+   */
+  public DecodePool(final int parallelism) {
+    executor =
+        new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            60,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<Runnable>(),
+            new DecodeThreadFactory());
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  /** @return the pool shared by decoders that are not given a pool explicitly */
+  public static synchronized DecodePool getDefault() {
+    if (defaultPool == null) {
+      defaultPool = new DecodePool(Integer.getInteger(PARALLELISM_PROPERTY, DEFAULT_PARALLELISM));
+    }
+    return defaultPool;
+  }
+
+  /**
+   * Set the number of threads of the default pool. This takes effect immediately if the default
+   * pool is already in use.
+   *
+   * @param parallelism the maximum number of threads used for decoding
+   */
+  public static synchronized void setDefaultParallelism(final int parallelism) {
+    if (defaultPool == null) {
+      defaultPool = new DecodePool(parallelism);
+    } else {
+      defaultPool.setParallelism(parallelism);
+    }
+  }
+
+  /**
+   * Change the number of threads of this pool.
+   *
+   * @param parallelism the maximum number of threads used for decoding
+   */
+  public synchronized void setParallelism(final int parallelism) {
+    if (parallelism > executor.getMaximumPoolSize()) {
+      executor.setMaximumPoolSize(parallelism);
+      executor.setCorePoolSize(parallelism);
+    } else {
+      executor.setCorePoolSize(parallelism);
+      executor.setMaximumPoolSize(parallelism);
+    }
+  }
+
+  public int getParallelism() {
+    return executor.getMaximumPoolSize();
+  }
+
+  /** @return the number of decode tasks waiting for a thread */
+  public int getQueuedTasks() {
+    return executor.getQueue().size();
+  }
+
+  public DecodeMetrics getMetrics() {
+    return metrics;
+  }
+
+  void execute(final Runnable task) {
+    executor.execute(task);
+  }
+
+  /**
+   * Cumulative throughput and latency metrics of a decode pool.
+   */
+  public static class DecodeMetrics {
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAdder handoffNanos = new LongAdder();
+    private final LongAdder firstResultNanos = new LongAdder();
+    private final LongAdder queriesWithResults = new LongAdder();
+
+    void queryStarted() {
+      queries.increment();
+    }
+
+    void batchDecoded(final int rowCount, final long nanos) {
+      rows.add(rowCount);
+      batches.increment();
+      decodeNanos.add(nanos);
+    }
+
+    void batchConsumed(final long nanosSinceDecoded) {
+      handoffNanos.add(nanosSinceDecoded);
+    }
+
+    void firstResult(final long nanosSinceStart) {
+      firstResultNanos.add(nanosSinceStart);
+      queriesWithResults.increment();
+    }
+
+    /** @return the number of queries that have been decoded */
+    public long getQueryCount() {
+      return queries.sum();
+    }
+
+    /** @return the number of rows that have been decoded */
+    public long getRowCount() {
+      return rows.sum();
+    }
+
+    /** @return the number of batches that have been handed to consumers */
+    public long getBatchCount() {
+      return batches.sum();
+    }
+
+    /** @return rows decoded per second of decode thread time */
+    public double getRowsPerSecond() {
+      final long nanos = decodeNanos.sum();
+      return nanos == 0 ? 0 : (rows.sum() * 1e9) / nanos;
+    }
+
+    /**
+     * @return the average time in milliseconds a decoded batch waits before the query consumes it
+     */
+    public double getAverageHandoffMillis() {
+      final long count = batches.sum();
+      return count == 0 ? 0 : handoffNanos.sum() / (count * 1e6);
+    }
+
+    /** @return the average time in milliseconds from starting a decode to its first result */
+    public double getAverageFirstResultMillis() {
+      final long count = queriesWithResults.sum();
+      return count == 0 ? 0 : firstResultNanos.sum() / (count * 1e6);
+    }
+
+    @Override
+    public String toString() {
+      return "DecodeMetrics [queries="
+          + getQueryCount()
+          + ", rows="
+          + getRowCount()
+          + ", batches="
+          + getBatchCount()
+          + ", rowsPerSecond="
+          + String.format("%.0f", getRowsPerSecond())
+          + ", averageHandoffMillis="
+          + String.format("%.3f", getAverageHandoffMillis())
+          + ", averageFirstResultMillis="
+          + String.format("%.3f", getAverageFirstResultMillis())
+          + "]";
+    }
+  }
+
+  private static class DecodeThreadFactory implements ThreadFactory {
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger(1);
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+    private final String namePrefix = "geowave-decode-" + POOL_NUMBER.getAndIncrement() + "-";
+
+    @Override
+    public Thread newThread(final Runnable r) {
+      final Thread t = new Thread(r, namePrefix + threadNumber.getAndIncrement());
+      t.setDaemon(true);
+      return t;
+    }
+  }
+}
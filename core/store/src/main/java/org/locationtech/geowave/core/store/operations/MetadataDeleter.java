@@ -8,6 +8,8 @@
  */
 package org.locationtech.geowave.core.store.operations;
 
+import org.locationtech.geowave.core.store.entities.GeoWaveMetadata;
+
 /**
  * Provides an interface for deleting GeoWave metadata. A {@link MetadataQuery} is used to specify
  * the metadata to be deleted.
@@ -26,6 +28,29 @@ public interface MetadataDeleter extends AutoCloseable {
    */
   boolean delete(MetadataQuery query);
 
+  /**
+   * @return {@code true} if this deleter can delete individual rows using
+   *         {@link #deleteRow(GeoWaveMetadata)}
+   */
+  default boolean canDeleteRows() {
+    return false;
+  }
+
+  /**
+   * Delete exactly the given row, as returned by a {@link MetadataReader} for the same metadata
+   * type. Unlike {@link #delete(MetadataQuery)}, other rows that share the IDs and visibility of
+   * the row are left in place.
+   *
+   * Preconditions: <ul> <li>The deleter is not closed</li> <li>{@link #canDeleteRows()} is
+   * {@code true}</li> </ul>
+   *
+   * @param row the row to delete
+   * @return {@code true} if the row was found and successfully deleted, {@code false} otherwise.
+   */
+  default boolean deleteRow(final GeoWaveMetadata row) {
+    throw new UnsupportedOperationException("Individual metadata rows can not be deleted");
+  }
+
   /**
    * Flush the deleter, committing all pending changes. Note that the changes may already be
    * committed - this method just establishes that they *must* be committed after the method
@@ -12,37 +12,60 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * An abstract class that offers data stores a way to scan and decode rows in parallel. It is up to
  * the data store implementation to provide implementations of {@link ParallelDecoder.RowProvider}
  * to be used for providing rows from the underlying database.
  *
+ * <p> Decoding runs on a {@link DecodePool} that is shared across queries. Decoded rows are handed
+ * to the consumer in batches through a bounded buffer. A task that finds the buffer full is parked
+ * rather than blocking a pool thread, and is rescheduled as soon as the consumer frees up space.
+ *
  * <p> Note: The row transformer passed in MUST be thread-safe, as decoding happens in parallel.
  *
  * @param <T> the type of the decoded rows
  */
 public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
-  private BlockingQueue<Object> results;
-  private ExecutorService threadPool;
+  private static final Logger LOGGER = LoggerFactory.getLogger(ParallelDecoder.class);
+  /** The number of decoded rows handed to the consumer at a time. */
+  protected static final int BATCH_SIZE = 256;
+  // roughly 10,000 rows
+  private static final int RESULT_BUFFER_BATCHES = 40;
+  // the number of batches a task decodes before yielding its thread to other queries
+  private static final int BATCHES_PER_SLICE = 16;
+  private static final long POLL_INTERVAL_MILLIS = 100;
+  private static final Batch TASK_END_MARKER = new Batch(new Object[0], 0);
+
+  private final BlockingQueue<Batch> results = new ArrayBlockingQueue<>(RESULT_BUFFER_BATCHES);
+  private final Queue<DecodeTask<T>> waitingTasks = new ConcurrentLinkedQueue<>();
+  private final Queue<DecodeTask<T>> parkedTasks = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger scheduledTasks = new AtomicInteger(0);
+  private final DecodePool pool;
   private final GeoWaveRowIteratorTransformer<T> rowTransformer;
-  private static int RESULT_BUFFER_SIZE = 10000;
-  private int remainingTasks = 0;
   private final int numThreads;
-  private static Object TASK_END_MARKER = new Object();
+  private int remainingTasks = 0;
+  private volatile boolean closed = false;
 
   private Exception exception = null;
 
+  private Batch currentBatch = null;
+  private int currentIndex = 0;
+  private long startNanos;
+  private long rowCount = 0;
+
   /**
    * Create a parallel decoder with the given row transformer.
    *
@@ -56,26 +79,32 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
    * Create a parallel decoder with the given row transformer and number of threads.
    *
    * @param rowTransformer the thread-safe row transformer to use for decoding rows
-   * @param numThreads the number of threads to allow in the thread pool
+   * @param numThreads the maximum number of threads of the shared decode pool this decoder may use
+   *        at once
    */
   public ParallelDecoder(
       final GeoWaveRowIteratorTransformer<T> rowTransformer,
       final int numThreads) {
+    this(rowTransformer, numThreads, DecodePool.getDefault());
+  }
+
+  /**
+   * Create a parallel decoder with the given row transformer, number of threads and decode pool.
+   *
+   * @param rowTransformer the thread-safe row transformer to use for decoding rows
+   * @param numThreads the maximum number of threads of the decode pool this decoder may use at once
+   * @param pool the pool to decode on
+   */
+  public ParallelDecoder(
+      final GeoWaveRowIteratorTransformer<T> rowTransformer,
+      final int numThreads,
+      final DecodePool pool) {
     this.numThreads = numThreads;
     this.rowTransformer = rowTransformer;
-    this.threadPool =
-        new ThreadPoolExecutor(
-            numThreads,
-            numThreads,
-            60,
-            TimeUnit.SECONDS,
-            new LinkedBlockingQueue<Runnable>(),
-            Executors.defaultThreadFactory());
-    ((ThreadPoolExecutor) this.threadPool).allowCoreThreadTimeOut(true);
-    results = new ArrayBlockingQueue<>(RESULT_BUFFER_SIZE);
-  }
-
-  /** @return the number of threads allowed in the thread pool */
+    this.pool = pool;
+  }
+
+  /** @return the maximum number of decode tasks this decoder runs at once */
   protected int getNumThreads() {
     return numThreads;
   }
@@ -89,7 +118,7 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
   protected synchronized void setDecodeException(final Exception e) {
     if (exception == null) {
       this.exception = e;
-      this.threadPool.shutdownNow();
+      closed = true;
     }
   }
 
@@ -107,15 +136,66 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
    * @throws Exception
    */
   public void startDecode() throws Exception {
+    startNanos = System.nanoTime();
+    pool.getMetrics().queryStarted();
     final List<RowProvider> rowProviders = getRowProviders();
     remainingTasks = rowProviders.size();
     for (final RowProvider rowProvider : rowProviders) {
-      threadPool.submit(new DecodeTask<>(rowProvider, this));
+      waitingTasks.add(new DecodeTask<>(rowProvider, this));
     }
+    dispatch();
   }
 
   /**
-   * Task to decode the rows from a single row provider.
+   * Submit waiting tasks to the pool, up to the maximum number of tasks this decoder may run at
+   * once.
+   */
+  private void dispatch() {
+    while (!closed) {
+      final int scheduled = scheduledTasks.get();
+      if (scheduled >= numThreads) {
+        return;
+      }
+      if (!scheduledTasks.compareAndSet(scheduled, scheduled + 1)) {
+        continue;
+      }
+      final DecodeTask<T> task = waitingTasks.poll();
+      if (task == null) {
+        scheduledTasks.decrementAndGet();
+        // a task may have been added between the poll and the decrement
+        if (waitingTasks.isEmpty()) {
+          return;
+        }
+        continue;
+      }
+      pool.execute(task);
+    }
+  }
+
+  private void unpark(final DecodeTask<T> task) {
+    waitingTasks.add(task);
+    dispatch();
+  }
+
+  private static class Batch {
+    private final Object[] values;
+    private final int size;
+    private final long createdNanos;
+
+    private Batch(final Object[] values, final int size) {
+      this.values = values;
+      this.size = size;
+      createdNanos = System.nanoTime();
+    }
+  }
+
+  private enum SliceResult {
+    YIELD, PARK, DONE
+  }
+
+  /**
+   * Task to decode the rows from a single row provider. Each run decodes a slice of at most
+   * {@link ParallelDecoder#BATCHES_PER_SLICE} batches.
    *
    * @param <T> the type of the decoded rows
    */
@@ -123,71 +203,154 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
 
     private final RowProvider rowProvider;
     private final ParallelDecoder<T> parent;
+    private Iterator<T> transformed = null;
+    private Batch pending = null;
 
     public DecodeTask(final RowProvider rowProvider, final ParallelDecoder<T> parent) {
       this.rowProvider = rowProvider;
       this.parent = parent;
     }
 
-    private boolean shouldTerminate() {
-      return Thread.currentThread().isInterrupted();
+    private Batch nextBatch() {
+      final long start = System.nanoTime();
+      final Object[] values = new Object[BATCH_SIZE];
+      int size = 0;
+      while ((size < BATCH_SIZE) && !parent.closed && transformed.hasNext()) {
+        values[size++] = transformed.next();
+      }
+      if (size == 0) {
+        return TASK_END_MARKER;
+      }
+      parent.pool.getMetrics().batchDecoded(size, System.nanoTime() - start);
+      return new Batch(values, size);
     }
 
-    private void offerResult(final Object result) throws InterruptedException {
-      while (!shouldTerminate() && !parent.results.offer(result)) {
-        // Results buffer is full, wait until there is some space
-        Thread.sleep(1);
+    private SliceResult decodeSlice() {
+      if (transformed == null) {
+        rowProvider.init();
+        transformed = parent.rowTransformer.apply(rowProvider);
       }
+      for (int i = 0; i < BATCHES_PER_SLICE; i++) {
+        if (parent.closed) {
+          return SliceResult.DONE;
+        }
+        if (pending == null) {
+          pending = nextBatch();
+        }
+        if (!parent.results.offer(pending)) {
+          return SliceResult.PARK;
+        }
+        if (pending == TASK_END_MARKER) {
+          return SliceResult.DONE;
+        }
+        pending = null;
+      }
+      return SliceResult.YIELD;
     }
 
     @Override
     public void run() {
+      SliceResult result = SliceResult.DONE;
       try {
-        rowProvider.init();
-        final Iterator<T> transformed = parent.rowTransformer.apply(rowProvider);
-        while (transformed.hasNext() && !shouldTerminate()) {
-          offerResult(transformed.next());
-        }
-        // No more rows, signal the end of this task.
-        offerResult(TASK_END_MARKER);
+        result = decodeSlice();
       } catch (final Exception e) {
         // Don't overwrite the original exception if there is one
         if (!parent.hasException()) {
           parent.setDecodeException(e);
         }
       } finally {
-        try {
-          rowProvider.close();
-        } catch (final IOException e) {
-          // Ignore
+        if (result == SliceResult.DONE) {
+          close();
         }
       }
+      if (result == SliceResult.PARK) {
+        parent.parkedTasks.add(this);
+      }
+      parent.scheduledTasks.decrementAndGet();
+      if (result == SliceResult.YIELD) {
+        // go to the back of the pool's queue so other queries get a turn
+        parent.waitingTasks.add(this);
+      } else if ((result == SliceResult.PARK)
+          && (parent.results.remainingCapacity() > 0)
+          && parent.parkedTasks.remove(this)) {
+        // the consumer freed up space before this task was parked
+        parent.waitingTasks.add(this);
+      }
+      if (parent.closed) {
+        // the decoder may have been closed while this task was being requeued
+        parent.closeAll(parent.parkedTasks);
+        parent.closeAll(parent.waitingTasks);
+      } else {
+        parent.dispatch();
+      }
+    }
+
+    private void close() {
+      try {
+        rowProvider.close();
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to close row provider", e);
+      }
     }
   }
 
   @Override
   public void close() {
-    threadPool.shutdownNow();
+    if (!closed) {
+      closed = true;
+      logMetrics();
+    }
+    // close the providers of any tasks that will not run again, running tasks close their own
+    closeAll(parkedTasks);
+    closeAll(waitingTasks);
   }
 
-  Object nextResult = null;
+  private void closeAll(final Queue<DecodeTask<T>> tasks) {
+    DecodeTask<T> task;
+    while ((task = tasks.poll()) != null) {
+      if (task.transformed != null) {
+        task.close();
+      }
+    }
+  }
+
+  private void logMetrics() {
+    if (LOGGER.isDebugEnabled()) {
+      final long elapsedNanos = System.nanoTime() - startNanos;
+      LOGGER.debug(
+          "Decoded {} rows in {} ms ({} rows/s), {}",
+          rowCount,
+          elapsedNanos / 1000000,
+          elapsedNanos == 0 ? 0 : (long) ((rowCount * 1e9) / elapsedNanos),
+          pool.getMetrics());
+    }
+  }
 
   private void computeNext() {
     try {
-      nextResult = null;
-      while (remainingTasks > 0) {
-        while (!hasException() && ((nextResult = results.poll()) == null)) {
-          // No results available, but there are still tasks running,
-          // wait for more results.
-          Thread.sleep(1);
+      while ((remainingTasks > 0) && !hasException()) {
+        final Batch batch = results.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (batch == null) {
+          continue;
+        }
+        // space was freed in the buffer, let a parked task continue
+        final DecodeTask<T> parked = parkedTasks.poll();
+        if (parked != null) {
+          unpark(parked);
         }
-        // task end was signaled, reduce remaining task count.
-        if (nextResult == TASK_END_MARKER) {
+        if (batch == TASK_END_MARKER) {
+          // task end was signaled, reduce remaining task count.
           remainingTasks--;
-          nextResult = null;
           continue;
         }
-        break;
+        if (rowCount == 0) {
+          pool.getMetrics().firstResult(System.nanoTime() - startNanos);
+        }
+        pool.getMetrics().batchConsumed(System.nanoTime() - batch.createdNanos);
+        rowCount += batch.size;
+        currentBatch = batch;
+        currentIndex = 0;
+        return;
       }
     } catch (final InterruptedException e) {
       setDecodeException(e);
@@ -195,25 +358,28 @@ public abstract class ParallelDecoder<T> implements CloseableIterator<T> {
     if (hasException()) {
       throw new RuntimeException(getException());
     }
+    if (!closed) {
+      closed = true;
+      logMetrics();
+    }
   }
 
   @Override
   public boolean hasNext() {
-    if (nextResult == null) {
+    if ((currentBatch == null) || (currentIndex >= currentBatch.size)) {
+      currentBatch = null;
       computeNext();
     }
-    return nextResult != null;
+    return currentBatch != null;
   }
 
   @SuppressWarnings("unchecked")
   @Override
   public T next() {
-    if (nextResult == null) {
-      computeNext();
+    if (!hasNext()) {
+      throw new NoSuchElementException();
     }
-    final Object next = nextResult;
-    nextResult = null;
-    return (T) next;
+    return (T) currentBatch.values[currentIndex++];
   }
 
   /**
@@ -12,64 +12,25 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
+import java.util.NoSuchElementException;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
 
 /**
  * An implementation of {@link ParallelDecoder} that consumes a single {@link GeoWaveRow} iterator
- * and decodes it in parallel.
+ * and decodes it in parallel. Each decode task takes rows from the source iterator a batch at a
+ * time, so the iterator is only contended once per batch.
  *
  * @param <T> the type of the decoded rows
  */
 public class SimpleParallelDecoder<T> extends ParallelDecoder<T> {
-  private ArrayBlockingQueue<GeoWaveRow> consumedRows;
-  private Thread consumerThread;
-  private volatile boolean isTerminating = false;
-  private static final int CONSUMED_ROW_BUFFER_SIZE = 10000;
+  private final Iterator<GeoWaveRow> sourceIterator;
 
   public SimpleParallelDecoder(
       final GeoWaveRowIteratorTransformer<T> rowTransformer,
       final Iterator<GeoWaveRow> sourceIterator) {
     super(rowTransformer);
-    consumedRows = new ArrayBlockingQueue<>(CONSUMED_ROW_BUFFER_SIZE);
-    consumerThread = new Thread(new Runnable() {
-      @Override
-      public void run() {
-        try {
-          while (sourceIterator.hasNext() && !Thread.interrupted()) {
-            final GeoWaveRow next = sourceIterator.next();
-            while (!consumedRows.offer(next)) {
-              // queue is full, wait for space
-              try {
-                Thread.sleep(1);
-              } catch (final InterruptedException e) {
-                isTerminating = true;
-                return;
-              }
-            }
-          }
-        } catch (final Exception e) {
-          setDecodeException(e);
-        }
-        isTerminating = true;
-      }
-    });
-    consumerThread.setDaemon(true);
-  }
-
-  @Override
-  public void startDecode() throws Exception {
-    consumerThread.start();
-    super.startDecode();
-  }
-
-  @Override
-  public void close() {
-    if (consumerThread.isAlive()) {
-      consumerThread.interrupt();
-    }
-    super.close();
+    this.sourceIterator = sourceIterator;
   }
 
   @Override
@@ -77,19 +38,23 @@ public class SimpleParallelDecoder<T> extends ParallelDecoder<T> {
     final int numThreads = getNumThreads();
     final List<RowProvider> rowProviders = new ArrayList<>(numThreads);
     for (int i = 0; i < numThreads; i++) {
-      rowProviders.add(new BlockingQueueRowProvider<>(this));
+      rowProviders.add(new SharedIteratorRowProvider(sourceIterator));
     }
     return rowProviders;
   }
 
   /*
-   * Simple row provider that provides the next result from the blocking queue.
+   * Row provider that takes batches of rows from an iterator shared with other row providers.
    */
-  private static class BlockingQueueRowProvider<T> extends ParallelDecoder.RowProvider {
+  private static class SharedIteratorRowProvider extends ParallelDecoder.RowProvider {
 
-    private final SimpleParallelDecoder<T> source;
+    private final Iterator<GeoWaveRow> source;
+    private final GeoWaveRow[] batch = new GeoWaveRow[BATCH_SIZE];
+    private int batchSize = 0;
+    private int batchIndex = 0;
+    private boolean exhausted = false;
 
-    public BlockingQueueRowProvider(final SimpleParallelDecoder<T> source) {
+    public SharedIteratorRowProvider(final Iterator<GeoWaveRow> source) {
       this.source = source;
     }
 
@@ -98,37 +63,34 @@ public class SimpleParallelDecoder<T> extends ParallelDecoder<T> {
       // Do nothing
     }
 
-    private GeoWaveRow next = null;
-
-    private void computeNext() {
-      while ((next = source.consumedRows.poll()) == null) {
-        if (source.isTerminating) {
-          next = source.consumedRows.poll();
-          break;
-        }
-        try {
-          Thread.sleep(1);
-        } catch (final InterruptedException e) {
-          return;
+    private void fillBatch() {
+      batchSize = 0;
+      batchIndex = 0;
+      synchronized (source) {
+        while ((batchSize < BATCH_SIZE) && source.hasNext()) {
+          batch[batchSize++] = source.next();
         }
       }
+      if (batchSize == 0) {
+        exhausted = true;
+      }
     }
 
     @Override
     public boolean hasNext() {
-      if (next == null) {
-        computeNext();
+      if ((batchIndex >= batchSize) && !exhausted) {
+        fillBatch();
       }
-      return next != null;
+      return batchIndex < batchSize;
     }
 
     @Override
     public GeoWaveRow next() {
-      if (next == null) {
-        computeNext();
+      if (!hasNext()) {
+        throw new NoSuchElementException();
       }
-      final GeoWaveRow retVal = next;
-      next = null;
+      final GeoWaveRow retVal = batch[batchIndex];
+      batch[batchIndex++] = null;
       return retVal;
     }
 
@@ -12,9 +12,15 @@ import java.nio.ByteBuffer;
 import org.locationtech.geowave.core.index.VarintUtils;
 import org.locationtech.geowave.core.index.persist.Persistable;
 import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.StatisticValue;
 import org.locationtech.geowave.core.store.data.CommonIndexedPersistenceEncoding;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic.CountValue;
 
-public class CountAggregation implements CommonIndexAggregation<Persistable, Long> {
+public class CountAggregation implements
+    CommonIndexAggregation<Persistable, Long>,
+    StatisticsCompatibleAggregation<Long> {
   private long count = 0;
 
   public CountAggregation() {}
@@ -48,6 +54,16 @@ public class CountAggregation implements CommonIndexAggregation<Persistable, Lon
   @Override
   public void setParameters(final Persistable parameters) {}
 
+  @Override
+  public boolean isResolvableFrom(final DataTypeAdapter<?> adapter, final Statistic<?> statistic) {
+    return CountStatistic.STATS_TYPE.equals(statistic.getStatisticType());
+  }
+
+  @Override
+  public Long resultFromStatistic(final DataTypeAdapter<?> adapter, final StatisticValue<?> value) {
+    return ((CountValue) value).getValue();
+  }
+
   @Override
   public void clearResult() {
     count = 0;
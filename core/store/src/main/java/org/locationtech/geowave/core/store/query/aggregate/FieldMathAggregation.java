@@ -12,7 +12,10 @@ import java.math.BigDecimal;
 import java.nio.ByteBuffer;
 import org.locationtech.geowave.core.index.VarintUtils;
 import org.locationtech.geowave.core.store.api.Aggregation;
+import org.locationtech.geowave.core.store.adapter.FieldDescriptor;
 import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.statistics.field.NumericRangeStatistic;
 
 /**
  * Base aggregation class for performing math operations on numeric attributes. It uses BigDecimal
@@ -80,4 +83,54 @@ public abstract class FieldMathAggregation<T> implements
 
   protected abstract BigDecimal agg(final BigDecimal a, final BigDecimal b);
 
+  /**
+   * Determine if the given statistic is a numeric range of the aggregated field. Numeric ranges are
+   * tracked as doubles, so only field types whose values survive that conversion unchanged can be
+   * resolved from them. Long values above 2^53 do not, so long fields are always scanned.
+   *
+   * @param adapter the adapter being aggregated
+   * @param statistic the statistic to check
+   * @return {@code true} if the statistic holds the range of the aggregated field
+   */
+  protected boolean isNumericRangeOfField(
+      final DataTypeAdapter<?> adapter,
+      final Statistic<?> statistic) {
+    if ((fieldNameParam == null)
+        || fieldNameParam.isEmpty()
+        || !NumericRangeStatistic.STATS_TYPE.equals(statistic.getStatisticType())
+        || !fieldNameParam.getFieldName().equals(
+            ((NumericRangeStatistic) statistic).getFieldName())) {
+      return false;
+    }
+    final FieldDescriptor<?> descriptor = adapter.getFieldDescriptor(fieldNameParam.getFieldName());
+    if (descriptor == null) {
+      return false;
+    }
+    final Class<?> binding = descriptor.bindingClass();
+    return Integer.class.equals(binding)
+        || Short.class.equals(binding)
+        || Byte.class.equals(binding)
+        || Double.class.equals(binding)
+        || Float.class.equals(binding);
+  }
+
+  /**
+   * Convert a value from a numeric range statistic into the decimal this aggregation would have
+   * produced from the original field value.
+   *
+   * @param adapter the adapter being aggregated
+   * @param value the statistic value
+   * @return the decimal value
+   */
+  protected BigDecimal toFieldDecimal(final DataTypeAdapter<?> adapter, final double value) {
+    final Class<?> binding =
+        adapter.getFieldDescriptor(fieldNameParam.getFieldName()).bindingClass();
+    if (Double.class.equals(binding)) {
+      return new BigDecimal(Double.toString(value));
+    } else if (Float.class.equals(binding)) {
+      return new BigDecimal(Float.toString((float) value));
+    }
+    return BigDecimal.valueOf((long) value);
+  }
+
 }
@@ -9,11 +9,16 @@
 package org.locationtech.geowave.core.store.query.aggregate;
 
 import java.math.BigDecimal;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.StatisticValue;
+import org.locationtech.geowave.core.store.statistics.field.NumericRangeStatistic.NumericRangeValue;
 
 /**
  * Aggregates to find the maximum value of a given numeric attribute. Ignores null attribute values.
  */
-public class FieldMaxAggregation<T> extends FieldMathAggregation<T> {
+public class FieldMaxAggregation<T> extends FieldMathAggregation<T> implements
+    StatisticsCompatibleAggregation<BigDecimal> {
 
   public FieldMaxAggregation() {
     this(null);
@@ -33,4 +38,19 @@ public class FieldMaxAggregation<T> extends FieldMathAggregation<T> {
     return a.max(b);
   }
 
+  @Override
+  public boolean isResolvableFrom(final DataTypeAdapter<?> adapter, final Statistic<?> statistic) {
+    return isNumericRangeOfField(adapter, statistic);
+  }
+
+  @Override
+  public BigDecimal resultFromStatistic(
+      final DataTypeAdapter<?> adapter,
+      final StatisticValue<?> value) {
+    final NumericRangeValue range = (NumericRangeValue) value;
+    if (!range.isSet()) {
+      return null;
+    }
+    return toFieldDecimal(adapter, range.getMax());
+  }
 }
@@ -12,9 +12,14 @@ import java.nio.ByteBuffer;
 import org.locationtech.geowave.core.index.VarintUtils;
 import org.locationtech.geowave.core.store.api.Aggregation;
 import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.StatisticValue;
 import org.locationtech.geowave.core.store.data.CommonIndexedPersistenceEncoding;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic.CountValue;
 
-public class OptimalCountAggregation<T> extends OptimalFieldAggregation<Long, T> {
+public class OptimalCountAggregation<T> extends OptimalFieldAggregation<Long, T> implements
+    StatisticsCompatibleAggregation<Long> {
 
   public OptimalCountAggregation() {
     super();
@@ -34,8 +39,30 @@ public class OptimalCountAggregation<T> extends OptimalFieldAggregation<Long, T>
     return new FieldCountAggregation<>(fieldNameParam);
   }
 
+  @Override
+  public boolean isResolvableFrom(final DataTypeAdapter<?> adapter, final Statistic<?> statistic) {
+    return isCountStatistic(fieldNameParam, statistic);
+  }
+
+  @Override
+  public Long resultFromStatistic(final DataTypeAdapter<?> adapter, final StatisticValue<?> value) {
+    return ((CountValue) value).getValue();
+  }
+
+  /**
+   * Counts of all entries can be read from the count statistic of the type, counts of a specific
+   * field require a scan since null values are not tracked by any statistic.
+   */
+  private static boolean isCountStatistic(
+      final FieldNameParam fieldNameParam,
+      final Statistic<?> statistic) {
+    return ((fieldNameParam == null) || fieldNameParam.isEmpty())
+        && CountStatistic.STATS_TYPE.equals(statistic.getStatisticType());
+  }
+
   public static class CommonIndexCountAggregation implements
-      CommonIndexAggregation<FieldNameParam, Long> {
+      CommonIndexAggregation<FieldNameParam, Long>,
+      StatisticsCompatibleAggregation<Long> {
     private FieldNameParam fieldNameParam;
     private long count = 0;
 
@@ -79,6 +106,20 @@ public class OptimalCountAggregation<T> extends OptimalFieldAggregation<Long, T>
       return value1 + value2;
     }
 
+    @Override
+    public boolean isResolvableFrom(
+        final DataTypeAdapter<?> adapter,
+        final Statistic<?> statistic) {
+      return isCountStatistic(fieldNameParam, statistic);
+    }
+
+    @Override
+    public Long resultFromStatistic(
+        final DataTypeAdapter<?> adapter,
+        final StatisticValue<?> value) {
+      return ((CountValue) value).getValue();
+    }
+
     @Override
     public void clearResult() {
       count = 0;
@@ -96,7 +137,9 @@ public class OptimalCountAggregation<T> extends OptimalFieldAggregation<Long, T>
     }
   }
 
-  public static class FieldCountAggregation<T> implements Aggregation<FieldNameParam, Long, T> {
+  public static class FieldCountAggregation<T> implements
+      Aggregation<FieldNameParam, Long, T>,
+      StatisticsCompatibleAggregation<Long> {
     private FieldNameParam fieldNameParam;
     private long count = 0;
 
@@ -140,6 +183,20 @@ public class OptimalCountAggregation<T> extends OptimalFieldAggregation<Long, T>
       return value1 + value2;
     }
 
+    @Override
+    public boolean isResolvableFrom(
+        final DataTypeAdapter<?> adapter,
+        final Statistic<?> statistic) {
+      return isCountStatistic(fieldNameParam, statistic);
+    }
+
+    @Override
+    public Long resultFromStatistic(
+        final DataTypeAdapter<?> adapter,
+        final StatisticValue<?> value) {
+      return ((CountValue) value).getValue();
+    }
+
     @Override
     public void clearResult() {
       count = 0;
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.aggregate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.index.persist.PersistenceUtils;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.api.Aggregation;
+import org.locationtech.geowave.core.store.api.BinConstraints.ByteArrayConstraints;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.StatisticBinningStrategy;
+import org.locationtech.geowave.core.store.api.StatisticValue;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
+import org.locationtech.geowave.core.store.query.filter.expression.Include;
+import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic.CountValue;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Resolves aggregations from persisted statistics when a statistic of the aggregated type already
+ * holds the exact result. A filter can only be applied if it lines up with the bins of a binned
+ * statistic. Composite aggregations are resolved when each of their aggregations can be, and
+ * binning aggregations are resolved from statistics that are binned with the same strategy.
+ */
+public class StatisticsAggregationResolver {
+  private static final ByteArray UNBINNED = new ByteArray();
+
+  private final DataStatisticsStore statisticsStore;
+  private final DataTypeAdapter<?> adapter;
+  private final Filter filter;
+  private final String[] authorizations;
+  private List<Statistic<?>> statistics = null;
+
+  /**
+   * @param statisticsStore the statistics store of the data store
+   * @param adapter the adapter being aggregated
+   * @param filter the filter of the aggregation query, or {@code null} if there is none
+   * @param authorizations the authorizations of the aggregation query
+   */
+  public StatisticsAggregationResolver(
+      final DataStatisticsStore statisticsStore,
+      final DataTypeAdapter<?> adapter,
+      final @Nullable Filter filter,
+      final String... authorizations) {
+    this.statisticsStore = statisticsStore;
+    this.adapter = adapter;
+    this.filter = filter instanceof Include ? null : filter;
+    this.authorizations = authorizations;
+  }
+
+  /**
+   * Determine if the given aggregation can be answered from statistics.
+   *
+   * @param aggregation the aggregation to resolve
+   * @return a supplier that reads the aggregation result from statistics, or {@code null} if the
+   *         aggregation requires a scan
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public <R> Supplier<R> resolve(final Aggregation<?, R, ?> aggregation) {
+    if (aggregation instanceof BinningAggregation) {
+      final BinningAggregationOptions<?, ?> options =
+          ((BinningAggregation) aggregation).getParameters();
+      // a limited number of bins depends on the order entries are scanned
+      if ((options == null)
+          || (options.maxBins > 0)
+          || !(options.binningStrategy instanceof StatisticBinningStrategy)) {
+        return null;
+      }
+      final Aggregation baseAggregation =
+          (Aggregation) PersistenceUtils.fromBinary(options.baseBytes);
+      baseAggregation.setParameters(PersistenceUtils.fromBinary(options.baseParamBytes));
+      final Resolution resolution =
+          resolve(baseAggregation, (StatisticBinningStrategy) options.binningStrategy);
+      if (resolution == null) {
+        return null;
+      }
+      return () -> (R) resolution.values.get();
+    }
+    final Resolution resolution = resolve(aggregation, null);
+    if (resolution == null) {
+      return null;
+    }
+    return () -> {
+      final Object result = resolution.values.get().get(UNBINNED);
+      return (R) (result == null ? resolution.emptyValue : result);
+    };
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Resolution resolve(
+      final Aggregation<?, ?, ?> aggregation,
+      final StatisticBinningStrategy groupStrategy) {
+    if (aggregation instanceof CompositeAggregation) {
+      final List<Aggregation> aggregations = ((CompositeAggregation) aggregation).aggregations;
+      final List<Resolution> resolutions = Lists.newArrayListWithCapacity(aggregations.size());
+      for (final Aggregation child : aggregations) {
+        final Resolution resolution = resolve(child, groupStrategy);
+        if (resolution == null) {
+          return null;
+        }
+        resolutions.add(resolution);
+      }
+      final List<Object> emptyValue = Lists.newArrayListWithCapacity(resolutions.size());
+      resolutions.forEach(r -> emptyValue.add(r.emptyValue));
+      return new Resolution(() -> combine(resolutions), emptyValue);
+    } else if (aggregation instanceof StatisticsCompatibleAggregation) {
+      return resolveStatistic((StatisticsCompatibleAggregation<?>) aggregation, groupStrategy);
+    }
+    return null;
+  }
+
+  private Map<ByteArray, Object> combine(final List<Resolution> resolutions) {
+    final List<Map<ByteArray, Object>> values = Lists.newArrayListWithCapacity(resolutions.size());
+    resolutions.forEach(r -> values.add(r.values.get()));
+    final Map<ByteArray, Object> combined = Maps.newHashMap();
+    for (final ByteArray bin : values.get(0).keySet()) {
+      final List<Object> binValues = Lists.newArrayListWithCapacity(values.size());
+      for (final Map<ByteArray, Object> childValues : values) {
+        // every statistic sees every entry, so a bin missing from one of them has no entries
+        if (!childValues.containsKey(bin)) {
+          break;
+        }
+        binValues.add(childValues.get(bin));
+      }
+      if (binValues.size() == values.size()) {
+        combined.put(bin, binValues);
+      }
+    }
+    return combined;
+  }
+
+  private Resolution resolveStatistic(
+      final StatisticsCompatibleAggregation<?> aggregation,
+      final StatisticBinningStrategy groupStrategy) {
+    Statistic<?> match = null;
+    ByteArrayConstraints matchBins = null;
+    for (final Statistic<?> statistic : getStatistics()) {
+      if (!aggregation.isResolvableFrom(adapter, statistic)) {
+        continue;
+      }
+      final StatisticBinningStrategy binningStrategy = statistic.getBinningStrategy();
+      if (binningStrategy == null) {
+        if ((groupStrategy == null) && (filter == null)) {
+          // an unbinned statistic is the cheapest to read
+          match = statistic;
+          matchBins = null;
+          break;
+        }
+      } else if ((match == null)
+          && ((groupStrategy != null) || (filter != null))
+          && ((groupStrategy == null) || isSameStrategy(groupStrategy, binningStrategy))) {
+        // without grouping or a filter, entries that fall into no bin would be missed
+        final ByteArrayConstraints bins = binningStrategy.constraintsForFilter(adapter, filter);
+        if (bins != null) {
+          match = statistic;
+          matchBins = bins;
+        }
+      }
+    }
+    if (match == null) {
+      return null;
+    }
+    final Statistic<?> statistic = match;
+    final ByteArrayConstraints bins = matchBins;
+    return new Resolution(
+        () -> readValues(aggregation, statistic, bins, groupStrategy != null),
+        aggregation.resultFromStatistic(adapter, statistic.createEmpty()));
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Map<ByteArray, Object> readValues(
+      final StatisticsCompatibleAggregation<?> aggregation,
+      final Statistic<?> statistic,
+      final ByteArrayConstraints bins,
+      final boolean grouped) {
+    final Map<ByteArray, StatisticValue<?>> values = Maps.newHashMap();
+    try (CloseableIterator<? extends StatisticValue<?>> it =
+        statisticsStore.getStatisticValues(
+            Iterators.singletonIterator(statistic),
+            bins,
+            authorizations)) {
+      while (it.hasNext()) {
+        final StatisticValue<?> value = it.next();
+        final ByteArray bin = grouped ? value.getBin() : UNBINNED;
+        if (bin == null) {
+          continue;
+        }
+        final StatisticValue existing = values.get(bin);
+        if (existing == null) {
+          values.put(bin, value);
+        } else {
+          existing.merge(value);
+        }
+      }
+    }
+    final Map<ByteArray, Object> results = Maps.newHashMapWithExpectedSize(values.size());
+    for (final Entry<ByteArray, StatisticValue<?>> value : values.entrySet()) {
+      // bins are retained after all of their entries are deleted, a scan would not produce them
+      if (grouped
+          && (value.getValue() instanceof CountValue)
+          && (((CountValue) value.getValue()).getValue() <= 0)) {
+        continue;
+      }
+      results.put(value.getKey(), aggregation.resultFromStatistic(adapter, value.getValue()));
+    }
+    return results;
+  }
+
+  private List<Statistic<?>> getStatistics() {
+    if (statistics == null) {
+      statistics = Lists.newArrayList();
+      try (CloseableIterator<? extends Statistic<?>> it =
+          statisticsStore.getDataTypeStatistics(adapter, null, null)) {
+        it.forEachRemaining(statistics::add);
+      }
+      try (CloseableIterator<? extends Statistic<?>> it =
+          statisticsStore.getFieldStatistics(adapter, null, null, null)) {
+        it.forEachRemaining(statistics::add);
+      }
+    }
+    return statistics;
+  }
+
+  private static boolean isSameStrategy(
+      final StatisticBinningStrategy strategy1,
+      final StatisticBinningStrategy strategy2) {
+    return strategy1.getClass().equals(strategy2.getClass())
+        && Arrays.equals(strategy1.toBinary(), strategy2.toBinary());
+  }
+
+  private static class Resolution {
+    private final Supplier<Map<ByteArray, Object>> values;
+    private final Object emptyValue;
+
+    public Resolution(final Supplier<Map<ByteArray, Object>> values, final Object emptyValue) {
+      this.values = values;
+      this.emptyValue = emptyValue;
+    }
+  }
+}
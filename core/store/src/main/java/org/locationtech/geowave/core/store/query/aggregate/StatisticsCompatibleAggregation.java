@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.aggregate;
+
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Statistic;
+import org.locationtech.geowave.core.store.api.StatisticValue;
+
+/**
+ * Interface for aggregations whose result can be read from a persisted statistic instead of being
+ * computed by scanning the data. When a compatible statistic exists for the type being aggregated,
+ * the data store can answer the aggregation without a scan.
+ *
+ * @param <R> the aggregation result type
+ */
+public interface StatisticsCompatibleAggregation<R> {
+
+  /**
+   * Determine if the value of the given statistic is exactly the result this aggregation would
+   * produce over the same entries.
+   *
+   * @param adapter the adapter being aggregated
+   * @param statistic the statistic to check
+   * @return {@code true} if the statistic can be used to resolve this aggregation
+   */
+  boolean isResolvableFrom(DataTypeAdapter<?> adapter, Statistic<?> statistic);
+
+  /**
+   * Convert the value of a compatible statistic into the result of this aggregation.
+   *
+   * @param adapter the adapter being aggregated
+   * @param value the statistic value
+   * @return the aggregation result
+   */
+  R resultFromStatistic(DataTypeAdapter<?> adapter, StatisticValue<?> value);
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.aggregate;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import org.locationtech.geowave.core.index.VarintUtils;
+import org.locationtech.geowave.core.store.adapter.FieldDescriptor;
+import org.locationtech.geowave.core.store.api.Aggregation;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.RowBuilder;
+import com.google.common.collect.Lists;
+
+/**
+ * Aggregation that retains the first k entries of an ordering on one or more fields. Each instance
+ * only keeps a bounded heap of k entries, so when it runs as a server-side aggregation at most k
+ * entries per scan are sent back to the client, where the partial results are merged.
+ *
+ * @param <T> the type of the entries being aggregated
+ */
+public class TopKAggregation<T> implements Aggregation<TopKOptions, List<T>, T> {
+  private TopKOptions options;
+  private Comparator<T> comparator;
+  // ordered so that the head of the queue is the entry that would be evicted first
+  private PriorityQueue<T> heap;
+
+  public TopKAggregation() {}
+
+  public TopKAggregation(
+      final DataTypeAdapter<T> adapter,
+      final String[] sortFields,
+      final boolean[] descending,
+      final int k) {
+    setParameters(new TopKOptions(adapter, sortFields, descending, k));
+  }
+
+  @Override
+  public TopKOptions getParameters() {
+    return options;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void setParameters(final TopKOptions parameters) {
+    options = parameters;
+    comparator =
+        createComparator(
+            (DataTypeAdapter<T>) options.getAdapter(),
+            options.getSortFields(),
+            options.getDescending());
+    heap = new PriorityQueue<>(Math.min(options.getK(), 1024) + 1, comparator.reversed());
+  }
+
+  /**
+   * Create a comparator that orders entries by the given fields, with null values first.
+   *
+   * @param adapter the adapter used to get field values
+   * @param sortFields the fields to sort by, in order of precedence
+   * @param descending whether each sort field should be sorted in descending order
+   * @return the comparator
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public static <T> Comparator<T> createComparator(
+      final DataTypeAdapter<T> adapter,
+      final String[] sortFields,
+      final boolean[] descending) {
+    Comparator<T> retVal = null;
+    for (int i = 0; i < sortFields.length; i++) {
+      final String field = sortFields[i];
+      Comparator<T> fieldComparator =
+          Comparator.comparing(
+              e -> (Comparable) adapter.getFieldValue(e, field),
+              Comparator.nullsFirst(Comparator.naturalOrder()));
+      if (descending[i]) {
+        fieldComparator = fieldComparator.reversed();
+      }
+      retVal = retVal == null ? fieldComparator : retVal.thenComparing(fieldComparator);
+    }
+    return retVal == null ? (e1, e2) -> 0 : retVal;
+  }
+
+  @Override
+  public List<T> getResult() {
+    final List<T> result = Lists.newArrayList(heap);
+    Collections.sort(result, comparator);
+    return result;
+  }
+
+  @Override
+  public List<T> merge(final List<T> result1, final List<T> result2) {
+    if (result1 == null) {
+      return result2;
+    } else if (result2 == null) {
+      return result1;
+    }
+    final List<T> merged = Lists.newArrayListWithCapacity(result1.size() + result2.size());
+    merged.addAll(result1);
+    merged.addAll(result2);
+    Collections.sort(merged, comparator);
+    if (merged.size() > options.getK()) {
+      return Lists.newArrayList(merged.subList(0, options.getK()));
+    }
+    return merged;
+  }
+
+  @Override
+  public void aggregate(final DataTypeAdapter<T> adapter, final T entry) {
+    if (options.getK() <= 0) {
+      return;
+    }
+    if (heap.size() < options.getK()) {
+      heap.offer(entry);
+    } else if (comparator.compare(entry, heap.peek()) < 0) {
+      heap.poll();
+      heap.offer(entry);
+    }
+  }
+
+  @Override
+  public void clearResult() {
+    heap.clear();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public byte[] resultToBinary(final List<T> result) {
+    final DataTypeAdapter<T> adapter = (DataTypeAdapter<T>) options.getAdapter();
+    final FieldDescriptor<?>[] fields = adapter.getFieldDescriptors();
+    final List<byte[]> parts = Lists.newArrayList();
+    int length = VarintUtils.unsignedIntByteLength(result.size());
+    for (final T entry : result) {
+      final byte[] dataId = adapter.getDataId(entry);
+      parts.add(dataId);
+      length += VarintUtils.unsignedIntByteLength(dataId.length) + dataId.length;
+      for (final FieldDescriptor<?> field : fields) {
+        final Object value = adapter.getFieldValue(entry, field.fieldName());
+        // a zero length marks a null value, so non-null values are offset by one
+        final byte[] valueBytes =
+            value == null ? null : adapter.getWriter(field.fieldName()).writeField(value);
+        parts.add(valueBytes);
+        length +=
+            valueBytes == null ? 1
+                : (VarintUtils.unsignedIntByteLength(valueBytes.length + 1) + valueBytes.length);
+      }
+    }
+    final ByteBuffer buffer = ByteBuffer.allocate(length);
+    VarintUtils.writeUnsignedInt(result.size(), buffer);
+    for (int i = 0; i < parts.size(); i++) {
+      final byte[] part = parts.get(i);
+      if ((i % (fields.length + 1)) == 0) {
+        VarintUtils.writeUnsignedInt(part.length, buffer);
+        buffer.put(part);
+      } else if (part == null) {
+        VarintUtils.writeUnsignedInt(0, buffer);
+      } else {
+        VarintUtils.writeUnsignedInt(part.length + 1, buffer);
+        buffer.put(part);
+      }
+    }
+    return buffer.array();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public List<T> resultFromBinary(final byte[] binary) {
+    final DataTypeAdapter<T> adapter = (DataTypeAdapter<T>) options.getAdapter();
+    final FieldDescriptor<?>[] fields = adapter.getFieldDescriptors();
+    final RowBuilder<T> builder = adapter.newRowBuilder(fields);
+    final ByteBuffer buffer = ByteBuffer.wrap(binary);
+    final int count = VarintUtils.readUnsignedInt(buffer);
+    final List<T> result = Lists.newArrayListWithCapacity(count);
+    for (int i = 0; i < count; i++) {
+      final byte[] dataId = new byte[VarintUtils.readUnsignedInt(buffer)];
+      buffer.get(dataId);
+      for (final FieldDescriptor<?> field : fields) {
+        final int length = VarintUtils.readUnsignedInt(buffer);
+        if (length == 0) {
+          builder.setField(field.fieldName(), null);
+        } else {
+          final byte[] valueBytes = new byte[length - 1];
+          buffer.get(valueBytes);
+          builder.setField(
+              field.fieldName(),
+              adapter.getReader(field.fieldName()).readField(valueBytes));
+        }
+      }
+      result.add(builder.buildRow(dataId));
+    }
+    return result;
+  }
+}
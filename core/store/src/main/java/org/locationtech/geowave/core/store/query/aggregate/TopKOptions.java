@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.aggregate;
+
+import java.nio.ByteBuffer;
+import org.locationtech.geowave.core.index.StringUtils;
+import org.locationtech.geowave.core.index.VarintUtils;
+import org.locationtech.geowave.core.index.persist.Persistable;
+import org.locationtech.geowave.core.index.persist.PersistenceUtils;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+
+/**
+ * The configuration parameters of a {@link TopKAggregation}. The adapter is included so that the
+ * retained entries can be serialized and deserialized independently of the aggregation.
+ */
+public class TopKOptions implements Persistable {
+  private DataTypeAdapter<?> adapter;
+  private String[] sortFields;
+  private boolean[] descending;
+  private int k;
+
+  public TopKOptions() {}
+
+  /**
+   * @param adapter the adapter of the entries being aggregated
+   * @param sortFields the fields to order entries by, in order of precedence
+   * @param descending whether or not each of the sort fields should be ordered descending
+   * @param k the maximum number of entries to retain
+   */
+  public TopKOptions(
+      final DataTypeAdapter<?> adapter,
+      final String[] sortFields,
+      final boolean[] descending,
+      final int k) {
+    this.adapter = adapter;
+    this.sortFields = sortFields;
+    this.descending = descending;
+    this.k = k;
+  }
+
+  public DataTypeAdapter<?> getAdapter() {
+    return adapter;
+  }
+
+  public String[] getSortFields() {
+    return sortFields;
+  }
+
+  public boolean[] getDescending() {
+    return descending;
+  }
+
+  public int getK() {
+    return k;
+  }
+
+  @Override
+  public byte[] toBinary() {
+    final byte[] adapterBytes = PersistenceUtils.toBinary(adapter);
+    final byte[] fieldBytes = StringUtils.stringsToBinary(sortFields);
+    final ByteBuffer buffer =
+        ByteBuffer.allocate(
+            VarintUtils.unsignedIntByteLength(adapterBytes.length)
+                + adapterBytes.length
+                + VarintUtils.unsignedIntByteLength(fieldBytes.length)
+                + fieldBytes.length
+                + descending.length
+                + VarintUtils.unsignedIntByteLength(k));
+    VarintUtils.writeUnsignedInt(adapterBytes.length, buffer);
+    buffer.put(adapterBytes);
+    VarintUtils.writeUnsignedInt(fieldBytes.length, buffer);
+    buffer.put(fieldBytes);
+    for (final boolean desc : descending) {
+      buffer.put(desc ? (byte) 1 : (byte) 0);
+    }
+    VarintUtils.writeUnsignedInt(k, buffer);
+    return buffer.array();
+  }
+
+  @Override
+  public void fromBinary(final byte[] bytes) {
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    final byte[] adapterBytes = new byte[VarintUtils.readUnsignedInt(buffer)];
+    buffer.get(adapterBytes);
+    adapter = (DataTypeAdapter<?>) PersistenceUtils.fromBinary(adapterBytes);
+    final byte[] fieldBytes = new byte[VarintUtils.readUnsignedInt(buffer)];
+    buffer.get(fieldBytes);
+    sortFields = StringUtils.stringsFromBinary(fieldBytes);
+    descending = new boolean[sortFields.length];
+    for (int i = 0; i < descending.length; i++) {
+      descending[i] = buffer.get() != 0;
+    }
+    k = VarintUtils.readUnsignedInt(buffer);
+  }
+}
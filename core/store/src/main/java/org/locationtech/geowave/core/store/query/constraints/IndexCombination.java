@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.constraints;
+
+import java.util.List;
+import org.apache.commons.lang3.tuple.Pair;
+import org.locationtech.geowave.core.index.QueryRanges;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
+
+/**
+ * A plan for answering a filter over a single adapter by combining the data IDs matched by multiple
+ * attribute indices. Each index is scanned for data IDs only, the resulting ID sets are either
+ * intersected or unioned, and the surviving IDs are resolved through the data ID index. Any part of
+ * the filter that was not answered exactly by one of the indices is retained as a residual filter
+ * that must be applied to the resolved entries.
+ */
+public class IndexCombination {
+  private final boolean intersection;
+  private final List<Pair<Index, QueryRanges>> indexRanges;
+  private final Filter residualFilter;
+
+  public IndexCombination(
+      final boolean intersection,
+      final List<Pair<Index, QueryRanges>> indexRanges,
+      final Filter residualFilter) {
+    this.intersection = intersection;
+    this.indexRanges = indexRanges;
+    this.residualFilter = residualFilter;
+  }
+
+  /**
+   * @return {@code true} if the data IDs from each index should be intersected, {@code false} if
+   *         they should be unioned
+   */
+  public boolean isIntersection() {
+    return intersection;
+  }
+
+  /**
+   * @return the indices to scan along with the ranges to scan on each, ordered from the most
+   *         selective to the least selective when statistics are available
+   */
+  public List<Pair<Index, QueryRanges>> getIndexRanges() {
+    return indexRanges;
+  }
+
+  /**
+   * @return the portion of the filter that still needs to be applied to resolved entries, or
+   *         {@code null} if the indices answer the filter exactly
+   */
+  public Filter getResidualFilter() {
+    return residualFilter;
+  }
+}
@@ -9,6 +9,7 @@
 package org.locationtech.geowave.core.store.query.constraints;
 
 import java.nio.ByteBuffer;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -36,8 +37,11 @@ import org.locationtech.geowave.core.store.index.IndexStore;
 import org.locationtech.geowave.core.store.index.TextAttributeIndexProvider.AdapterFieldTextIndexEntryConverter;
 import org.locationtech.geowave.core.store.query.filter.ExpressionQueryFilter;
 import org.locationtech.geowave.core.store.query.filter.QueryFilter;
+import org.locationtech.geowave.core.store.query.filter.expression.And;
 import org.locationtech.geowave.core.store.query.filter.expression.Filter;
 import org.locationtech.geowave.core.store.query.filter.expression.FilterConstraints;
+import org.locationtech.geowave.core.store.query.filter.expression.MultiFilterOperator;
+import org.locationtech.geowave.core.store.query.filter.expression.Or;
 import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
 import org.locationtech.geowave.core.store.statistics.StatisticId;
 import org.locationtech.geowave.core.store.statistics.index.RowRangeHistogramStatistic;
@@ -71,6 +75,10 @@ public class OptimalExpressionQuery implements
     this.indexFilter = indexFilter;
   }
 
+  public Filter getFilter() {
+    return filter;
+  }
+
   private final Map<String, FilterConstraints<?>> constraintCache = Maps.newHashMap();
 
   @SuppressWarnings({"rawtypes", "unchecked"})
@@ -104,44 +112,13 @@ public class OptimalExpressionQuery implements
             || ((bestIndex instanceof AttributeIndex) && !(index instanceof AttributeIndex))) {
           bestIndex = index;
         }
-        final Set<String> indexedFields = Sets.newHashSet();
-        final Class<? extends Comparable> filterClass;
-        if ((index instanceof CustomIndex)
-            && (((CustomIndex<?, ?>) index).getCustomIndexStrategy() instanceof TextIndexStrategy)) {
-          final TextIndexStrategy<?> indexStrategy =
-              (TextIndexStrategy<?>) ((CustomIndex<?, ?>) index).getCustomIndexStrategy();
-          if (!(indexStrategy.getEntryConverter() instanceof AdapterFieldTextIndexEntryConverter)) {
-            continue;
-          }
-          indexedFields.add(
-              ((AdapterFieldTextIndexEntryConverter<?>) indexStrategy.getEntryConverter()).getFieldName());
-          filterClass = String.class;
-        } else {
-          for (final IndexFieldMapper<?, ?> mapper : mapping.getIndexFieldMappers()) {
-            for (final String adapterField : mapper.getAdapterFields()) {
-              indexedFields.add(adapterField);
-            }
-          }
-          // Remove any fields that are part of the common index model, but not used in the index
-          // strategy. They shouldn't be considered when trying to find a best match. In the future
-          // it may be useful to consider an index that has extra common index dimensions that
-          // contain filtered fields over one that only matches indexed dimensions. For example, if
-          // I have a spatial index, and a spatial index that stores time, it should pick the one
-          // that stores time if I supply a temporal constraint, even though it isn't part of the
-          // index strategy.
-          final int modelDimensions = index.getIndexModel().getDimensions().length;
-          final int strategyDimensions =
-              index.getIndexStrategy().getOrderedDimensionDefinitions().length;
-          for (int i = modelDimensions - 1; i >= strategyDimensions; i--) {
-            final IndexFieldMapper<?, ?> mapper =
-                mapping.getMapperForIndexField(
-                    index.getIndexModel().getDimensions()[i].getFieldName());
-            for (final String adapterField : mapper.getAdapterFields()) {
-              indexedFields.remove(adapterField);
-            }
-          }
-          filterClass = Double.class;
+        final Pair<Set<String>, Class<? extends Comparable>> indexedFieldsAndClass =
+            getIndexedFields(mapping, index);
+        if (indexedFieldsAndClass == null) {
+          continue;
         }
+        final Set<String> indexedFields = indexedFieldsAndClass.getLeft();
+        final Class<? extends Comparable> filterClass = indexedFieldsAndClass.getRight();
         if (referencedFields.containsAll(indexedFields)) {
           final FilterConstraints<?> constraints =
               filter.getConstraints(
@@ -173,20 +150,8 @@ public class OptimalExpressionQuery implements
           // TODO: A future optimization would be to add a default numeric histogram for any numeric
           // index dimensions and just use the index data ranges to determine cardinality rather
           // than decomposing query ranges.
-          final StatisticId<RowRangeHistogramValue> statisticId =
-              IndexStatistic.generateStatisticId(
-                  entry.getKey().getName(),
-                  RowRangeHistogramStatistic.STATS_TYPE,
-                  Statistic.INTERNAL_TAG);
-          final RowRangeHistogramStatistic histogram =
-              (RowRangeHistogramStatistic) statisticsStore.getStatisticById(statisticId);
           final double cardinality =
-              DataStoreUtils.cardinality(
-                  statisticsStore,
-                  histogram,
-                  adapter,
-                  bestConstrainedIndex,
-                  ranges);
+              estimateCardinality(statisticsStore, adapter, entry.getKey(), ranges);
           if ((bestConstrainedIndex == null) || (cardinality < bestCardinality)) {
             bestConstrainedIndex = entry.getKey();
             bestCardinality = cardinality;
@@ -209,6 +174,185 @@ public class OptimalExpressionQuery implements
         Collectors.toList());
   }
 
+  /**
+   * Determines whether the filter can be answered for each matched adapter by combining the data
+   * IDs from multiple attribute indices rather than by scanning a single index. This is possible
+   * when the filter is an {@link And} or an {@link Or} whose children are each represented exactly
+   * by the constraints of an attribute index. An {@link And} needs at least two such children, any
+   * remaining children are kept as a residual filter. Every child of an {@link Or} must be indexed.
+   *
+   * @param baseOptions the query options
+   * @param adapters the adapters being queried
+   * @param adapterIndexMappingStore the adapter index mapping store
+   * @param indexStore the index store
+   * @param statisticsStore the statistics store
+   * @return a map of adapter ID to index combination, or an empty map if any of the matched
+   *         adapters cannot be answered by combining indices
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public Map<Short, IndexCombination> determineIndexCombinations(
+      final BaseQueryOptions baseOptions,
+      final InternalDataAdapter<?>[] adapters,
+      final AdapterIndexMappingStore adapterIndexMappingStore,
+      final IndexStore indexStore,
+      final DataStatisticsStore statisticsStore) {
+    if ((baseOptions.getIndexName() != null)
+        || (!(filter instanceof And) && !(filter instanceof Or))) {
+      return Collections.emptyMap();
+    }
+    final boolean intersection = filter instanceof And;
+    final Filter[] children = ((MultiFilterOperator) filter).getChildren();
+    if (children.length < 2) {
+      return Collections.emptyMap();
+    }
+    final Set<String> referencedFields = Sets.newHashSet();
+    filter.addReferencedFields(referencedFields);
+    final Map<Short, IndexCombination> combinations = Maps.newHashMap();
+    for (final InternalDataAdapter<?> adapter : adapters) {
+      if (!adapterMatchesFilter(adapter, referencedFields)) {
+        continue;
+      }
+      final List<AdapterToIndexMapping> attributeMappings = Lists.newArrayList();
+      final List<Index> attributeIndices = Lists.newArrayList();
+      for (final AdapterToIndexMapping mapping : adapterIndexMappingStore.getIndicesForAdapter(
+          adapter.getAdapterId())) {
+        final Index index = mapping.getIndex(indexStore);
+        if ((index instanceof AttributeIndex)
+            && ((indexFilter == null) || indexFilter.test(index))) {
+          attributeMappings.add(mapping);
+          attributeIndices.add(index);
+        }
+      }
+      final List<Pair<Pair<Index, QueryRanges>, Double>> indexRanges = Lists.newArrayList();
+      final List<Filter> residualFilters = Lists.newArrayList();
+      for (final Filter child : children) {
+        final Set<String> childFields = Sets.newHashSet();
+        child.addReferencedFields(childFields);
+        Pair<Index, QueryRanges> bestRanges = null;
+        double bestCardinality = Double.MAX_VALUE;
+        for (int i = 0; i < attributeIndices.size(); i++) {
+          final Index index = attributeIndices.get(i);
+          final AdapterToIndexMapping mapping = attributeMappings.get(i);
+          final Pair<Set<String>, Class<? extends Comparable>> indexedFields =
+              getIndexedFields(mapping, index);
+          if ((indexedFields == null) || !childFields.containsAll(indexedFields.getLeft())) {
+            continue;
+          }
+          final FilterConstraints<?> constraints =
+              child.getConstraints(
+                  indexedFields.getRight(),
+                  statisticsStore,
+                  adapter,
+                  mapping,
+                  index,
+                  indexedFields.getLeft());
+          // only children that are exactly represented by the index ranges can be combined,
+          // otherwise the data IDs would need to be resolved before they could be filtered
+          if (!constraints.constrainsAllFields(indexedFields.getLeft())
+              || (child.removePredicatesForFields(
+                  constraints.getExactConstrainedFields()) != null)) {
+            continue;
+          }
+          final QueryRanges ranges = constraints.getQueryRanges(baseOptions, statisticsStore);
+          final double cardinality = estimateCardinality(statisticsStore, adapter, index, ranges);
+          if ((bestRanges == null) || (cardinality < bestCardinality)) {
+            bestRanges = Pair.of(index, ranges);
+            bestCardinality = cardinality;
+          }
+        }
+        if (bestRanges != null) {
+          indexRanges.add(Pair.of(bestRanges, bestCardinality));
+        } else if (intersection) {
+          residualFilters.add(child);
+        } else {
+          return Collections.emptyMap();
+        }
+      }
+      if (indexRanges.size() < 2) {
+        return Collections.emptyMap();
+      }
+      // scan the most selective index first so that intersections can be short-circuited
+      indexRanges.sort((r1, r2) -> Double.compare(r1.getRight(), r2.getRight()));
+      final Filter residualFilter;
+      if (residualFilters.isEmpty()) {
+        residualFilter = null;
+      } else if (residualFilters.size() == 1) {
+        residualFilter = residualFilters.get(0);
+      } else {
+        residualFilter = new And(residualFilters.toArray(new Filter[residualFilters.size()]));
+      }
+      combinations.put(
+          adapter.getAdapterId(),
+          new IndexCombination(
+              intersection,
+              indexRanges.stream().map(Pair::getLeft).collect(Collectors.toList()),
+              residualFilter));
+    }
+    return combinations;
+  }
+
+  @SuppressWarnings("rawtypes")
+  private Pair<Set<String>, Class<? extends Comparable>> getIndexedFields(
+      final AdapterToIndexMapping mapping,
+      final Index index) {
+    final Set<String> indexedFields = Sets.newHashSet();
+    final Class<? extends Comparable> filterClass;
+    if ((index instanceof CustomIndex)
+        && (((CustomIndex<?, ?>) index).getCustomIndexStrategy() instanceof TextIndexStrategy)) {
+      final TextIndexStrategy<?> indexStrategy =
+          (TextIndexStrategy<?>) ((CustomIndex<?, ?>) index).getCustomIndexStrategy();
+      if (!(indexStrategy.getEntryConverter() instanceof AdapterFieldTextIndexEntryConverter)) {
+        return null;
+      }
+      indexedFields.add(
+          ((AdapterFieldTextIndexEntryConverter<?>) indexStrategy.getEntryConverter()).getFieldName());
+      filterClass = String.class;
+    } else {
+      for (final IndexFieldMapper<?, ?> mapper : mapping.getIndexFieldMappers()) {
+        for (final String adapterField : mapper.getAdapterFields()) {
+          indexedFields.add(adapterField);
+        }
+      }
+      // Remove any fields that are part of the common index model, but not used in the index
+      // strategy. They shouldn't be considered when trying to find a best match. In the future
+      // it may be useful to consider an index that has extra common index dimensions that
+      // contain filtered fields over one that only matches indexed dimensions. For example, if
+      // I have a spatial index, and a spatial index that stores time, it should pick the one
+      // that stores time if I supply a temporal constraint, even though it isn't part of the
+      // index strategy.
+      final int modelDimensions = index.getIndexModel().getDimensions().length;
+      final int strategyDimensions =
+          index.getIndexStrategy().getOrderedDimensionDefinitions().length;
+      for (int i = modelDimensions - 1; i >= strategyDimensions; i--) {
+        final IndexFieldMapper<?, ?> mapper =
+            mapping.getMapperForIndexField(index.getIndexModel().getDimensions()[i].getFieldName());
+        for (final String adapterField : mapper.getAdapterFields()) {
+          indexedFields.remove(adapterField);
+        }
+      }
+      filterClass = Double.class;
+    }
+    return Pair.of(indexedFields, filterClass);
+  }
+
+  private double estimateCardinality(
+      final DataStatisticsStore statisticsStore,
+      final InternalDataAdapter<?> adapter,
+      final Index index,
+      final QueryRanges ranges) {
+    final StatisticId<RowRangeHistogramValue> statisticId =
+        IndexStatistic.generateStatisticId(
+            index.getName(),
+            RowRangeHistogramStatistic.STATS_TYPE,
+            Statistic.INTERNAL_TAG);
+    final RowRangeHistogramStatistic histogram =
+        (RowRangeHistogramStatistic) statisticsStore.getStatisticById(statisticId);
+    if (histogram == null) {
+      return Long.MAX_VALUE - 1;
+    }
+    return DataStoreUtils.cardinality(statisticsStore, histogram, adapter, index, ranges);
+  }
+
   private boolean adapterMatchesFilter(
       final DataTypeAdapter<?> adapter,
       final Set<String> filteredFields) {
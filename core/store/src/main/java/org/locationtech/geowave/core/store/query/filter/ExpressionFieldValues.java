@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.filter;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.locationtech.geowave.core.store.adapter.AbstractAdapterPersistenceEncoding;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.api.IndexFieldMapper;
+import org.locationtech.geowave.core.store.api.RowBuilder;
+import org.locationtech.geowave.core.store.data.IndexedPersistenceEncoding;
+import org.locationtech.geowave.core.store.index.CommonIndexModel;
+import com.google.common.collect.Maps;
+
+/**
+ * The field values of a single row that are used to evaluate a filter expression. Each field that
+ * is referenced by the filter is bound to a slot ahead of time, and values are only read from the
+ * row the first time they are requested. This way a row doesn't need a new hash map, and fields
+ * that the filter never reaches are never decoded.
+ */
+class ExpressionFieldValues extends AbstractMap<String, Object> {
+  private static final Object UNRESOLVED = new Object();
+
+  private final FieldSlots slots;
+  private final InternalDataAdapter<?> adapter;
+  private final CommonIndexModel indexModel;
+  private final IndexedPersistenceEncoding<?> persistenceEncoding;
+  private final Object[] values;
+  private IndexFieldSetter indexFieldSetter = null;
+
+  ExpressionFieldValues(
+      final FieldSlots slots,
+      final InternalDataAdapter<?> adapter,
+      final CommonIndexModel indexModel,
+      final IndexedPersistenceEncoding<?> persistenceEncoding) {
+    this.slots = slots;
+    this.adapter = adapter;
+    this.indexModel = indexModel;
+    this.persistenceEncoding = persistenceEncoding;
+    values = new Object[slots.fieldNames.length];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = UNRESOLVED;
+    }
+  }
+
+  @Override
+  public Object get(final Object key) {
+    final Integer slot = slots.slotIndices.get(key);
+    if (slot == null) {
+      return null;
+    }
+    return getValue(slot);
+  }
+
+  @Override
+  public boolean containsKey(final Object key) {
+    return slots.slotIndices.containsKey(key);
+  }
+
+  @Override
+  public Set<Entry<String, Object>> entrySet() {
+    return IntStream.range(0, values.length).mapToObj(
+        i -> Maps.immutableEntry(slots.fieldNames[i], getValue(i))).collect(Collectors.toSet());
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Object getValue(final int slot) {
+    if (values[slot] == UNRESOLVED) {
+      final IndexFieldMapper<?, ?> mapper = slots.indexFieldMappers[slot];
+      if (mapper != null) {
+        // the mapper sets the value of every adapter field that it maps to
+        values[slot] = null;
+        final Object indexValue =
+            persistenceEncoding.getCommonData().getValue(mapper.indexFieldName());
+        if (indexFieldSetter == null) {
+          indexFieldSetter = new IndexFieldSetter();
+        }
+        ((IndexFieldMapper) mapper).toAdapter(indexValue, indexFieldSetter);
+      } else {
+        final String fieldName = slots.fieldNames[slot];
+        Object value = persistenceEncoding.getCommonData().getValue(fieldName);
+        if ((value == null)
+            && (persistenceEncoding instanceof AbstractAdapterPersistenceEncoding)) {
+          value =
+              ((AbstractAdapterPersistenceEncoding) persistenceEncoding).getAdapterExtendedValue(
+                  adapter,
+                  indexModel,
+                  fieldName);
+        }
+        values[slot] = value;
+      }
+    }
+    return values[slot];
+  }
+
+  private void setField(final String fieldName, final Object fieldValue) {
+    final Integer slot = slots.slotIndices.get(fieldName);
+    if (slot != null) {
+      values[slot] = fieldValue;
+    }
+  }
+
+  /**
+   * Receives the adapter field values that an index field mapper maps an index value back to. Only
+   * the field setters are used by the mappers, so no row is ever built from it.
+   */
+  private class IndexFieldSetter implements RowBuilder<Object> {
+    @Override
+    public void setField(final String fieldName, final Object fieldValue) {
+      ExpressionFieldValues.this.setField(fieldName, fieldValue);
+    }
+
+    @Override
+    public void setFields(final Map<String, Object> fieldValues) {
+      fieldValues.forEach(this::setField);
+    }
+
+    @Override
+    public Object buildRow(final byte[] dataId) {
+      throw new UnsupportedOperationException("Index field values do not build rows");
+    }
+  }
+
+  /**
+   * The binding of field names to slots for a single adapter and index mapping. This is created
+   * once per filter and shared by every row.
+   */
+  static class FieldSlots {
+    private final String[] fieldNames;
+    private final Map<String, Integer> slotIndices;
+    private final IndexFieldMapper<?, ?>[] indexFieldMappers;
+    private final boolean hasAdapterExtendedFields;
+
+    FieldSlots(final String[] fieldNames, final IndexFieldMapper<?, ?>[] indexFieldMappers) {
+      this.fieldNames = fieldNames;
+      this.indexFieldMappers = indexFieldMappers;
+      slotIndices = Maps.newHashMapWithExpectedSize(fieldNames.length);
+      boolean hasAdapterExtendedFields = false;
+      for (int i = 0; i < fieldNames.length; i++) {
+        slotIndices.put(fieldNames[i], i);
+        if (indexFieldMappers[i] == null) {
+          hasAdapterExtendedFields = true;
+        }
+      }
+      this.hasAdapterExtendedFields = hasAdapterExtendedFields;
+    }
+
+    String[] getFieldNames() {
+      return fieldNames;
+    }
+
+    boolean isIndexField(final int slot) {
+      return indexFieldMappers[slot] != null;
+    }
+
+    boolean hasAdapterExtendedFields() {
+      return hasAdapterExtendedFields;
+    }
+  }
+}
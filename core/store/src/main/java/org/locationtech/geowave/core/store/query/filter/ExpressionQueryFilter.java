@@ -9,6 +9,10 @@
 package org.locationtech.geowave.core.store.query.filter;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.Map;
 import java.util.Set;
 import org.locationtech.geowave.core.index.ByteArrayUtils;
@@ -16,14 +20,18 @@ import org.locationtech.geowave.core.index.VarintUtils;
 import org.locationtech.geowave.core.index.persist.PersistenceUtils;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.adapter.AbstractAdapterPersistenceEncoding;
+import org.locationtech.geowave.core.store.adapter.AsyncPersistenceEncoding;
+import org.locationtech.geowave.core.store.adapter.FieldDescriptor;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
-import org.locationtech.geowave.core.store.adapter.MapRowBuilder;
 import org.locationtech.geowave.core.store.api.IndexFieldMapper;
 import org.locationtech.geowave.core.store.data.IndexedPersistenceEncoding;
-import org.locationtech.geowave.core.store.data.MultiFieldPersistentDataset;
-import org.locationtech.geowave.core.store.data.PersistentDataset;
 import org.locationtech.geowave.core.store.index.CommonIndexModel;
+import org.locationtech.geowave.core.store.query.filter.ExpressionFieldValues.FieldSlots;
+import org.locationtech.geowave.core.store.query.filter.expression.And;
 import org.locationtech.geowave.core.store.query.filter.expression.Filter;
+import org.locationtech.geowave.core.store.query.filter.expression.MultiFilterOperator;
+import org.locationtech.geowave.core.store.query.filter.expression.Not;
+import org.locationtech.geowave.core.store.query.filter.expression.Or;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.common.collect.Maps;
@@ -37,9 +45,8 @@ public class ExpressionQueryFilter<T> implements QueryFilter {
   private InternalDataAdapter<T> adapter;
   private AdapterToIndexMapping indexMapping;
   private Filter filter;
-  private Set<String> referencedFields = null;
-  private Map<String, IndexFieldMapper<?, ?>> fieldToIndexFieldMap = null;
-  private boolean referencedFieldsInitialized = false;
+  // the filter compiled for this adapter and index mapping, along with its field bindings
+  private volatile CompiledFilter compiledFilter = null;
 
   public ExpressionQueryFilter() {
     super();
@@ -62,73 +69,145 @@ public class ExpressionQueryFilter<T> implements QueryFilter {
     return filter;
   }
 
-  private void initReferencedFields() {
-    synchronized (indexMapping) {
-      if (!referencedFieldsInitialized) {
-        this.referencedFields = Sets.newHashSet();
-        this.fieldToIndexFieldMap = Maps.newHashMap();
-        filter.addReferencedFields(referencedFields);
-        for (final IndexFieldMapper<?, ?> mapper : indexMapping.getIndexFieldMappers()) {
-          for (final String field : mapper.getAdapterFields()) {
-            fieldToIndexFieldMap.put(field, mapper);
-          }
+  private CompiledFilter getCompiledFilter() {
+    CompiledFilter compiled = compiledFilter;
+    if (compiled == null) {
+      synchronized (this) {
+        compiled = compiledFilter;
+        if (compiled == null) {
+          compiled = compile();
+          compiledFilter = compiled;
         }
-        referencedFieldsInitialized = true;
       }
     }
+    return compiled;
+  }
+
+  /**
+   * Binds the fields referenced by the filter to slots, and reorders the filter so that cheaper
+   * predicates are tested before more expensive ones. This only needs to be done once for the
+   * adapter and index mapping, rather than on every row.
+   */
+  private CompiledFilter compile() {
+    final Set<String> referencedFields = Sets.newLinkedHashSet();
+    filter.addReferencedFields(referencedFields);
+    final Map<String, IndexFieldMapper<?, ?>> fieldToIndexFieldMap = Maps.newHashMap();
+    for (final IndexFieldMapper<?, ?> mapper : indexMapping.getIndexFieldMappers()) {
+      for (final String field : mapper.getAdapterFields()) {
+        fieldToIndexFieldMap.put(field, mapper);
+      }
+    }
+    final String[] fieldNames = referencedFields.toArray(new String[referencedFields.size()]);
+    final IndexFieldMapper<?, ?>[] indexFieldMappers =
+        new IndexFieldMapper<?, ?>[fieldNames.length];
+    for (int i = 0; i < fieldNames.length; i++) {
+      indexFieldMappers[i] = fieldToIndexFieldMap.get(fieldNames[i]);
+    }
+    final FieldSlots slots = new FieldSlots(fieldNames, indexFieldMappers);
+    return new CompiledFilter(orderByCost(filter, fieldToIndexFieldMap.keySet()), slots);
+  }
+
+  /**
+   * Reorders the children of AND and OR operators so that the cheapest filters are evaluated first.
+   * Both operators short circuit, and field values are only decoded when a filter needs them, so
+   * expensive fields such as geometries are often never decoded at all.
+   */
+  private Filter orderByCost(final Filter f, final Set<String> indexedFields) {
+    if (f instanceof MultiFilterOperator) {
+      final Filter[] children =
+          Arrays.stream(((MultiFilterOperator) f).getChildren()).map(
+              child -> orderByCost(child, indexedFields)).sorted(
+                  Comparator.comparingInt(child -> getCost(child, indexedFields))).toArray(
+                      Filter[]::new);
+      if (f instanceof And) {
+        return new And(children);
+      } else if (f instanceof Or) {
+        return new Or(children);
+      }
+    } else if (f instanceof Not) {
+      return new Not(orderByCost(((Not) f).getFilter(), indexedFields));
+    }
+    return f;
+  }
+
+  /**
+   * Estimates the relative cost of evaluating a filter based on the fields it needs to decode.
+   * Indexed fields are already decoded, simple values are cheap to decode, and anything else, such
+   * as a geometry, is expensive.
+   */
+  private int getCost(final Filter f, final Set<String> indexedFields) {
+    final Set<String> fields = Sets.newHashSet();
+    f.addReferencedFields(fields);
+    int cost = 0;
+    for (final String field : fields) {
+      if (indexedFields.contains(field)) {
+        cost += 1;
+        continue;
+      }
+      final FieldDescriptor<?> descriptor = adapter.getFieldDescriptor(field);
+      final Class<?> bindingClass = descriptor == null ? null : descriptor.bindingClass();
+      if ((bindingClass != null)
+          && (Number.class.isAssignableFrom(bindingClass)
+              || Boolean.class.isAssignableFrom(bindingClass)
+              || Date.class.isAssignableFrom(bindingClass)
+              || Calendar.class.isAssignableFrom(bindingClass))) {
+        cost += 2;
+      } else if (String.class.equals(bindingClass)) {
+        cost += 4;
+      } else {
+        cost += 8;
+      }
+    }
+    return cost;
   }
 
-  @SuppressWarnings({"unchecked", "rawtypes"})
   @Override
   public boolean accept(
       final CommonIndexModel indexModel,
       final IndexedPersistenceEncoding<?> persistenceEncoding) {
     if ((filter != null) && (indexModel != null) && (adapter != null) && (indexMapping != null)) {
-      final Map<String, Object> fieldValues = Maps.newHashMap();
-      if (!referencedFieldsInitialized) {
-        initReferencedFields();
-      }
-      final PersistentDataset<?> commonData = persistenceEncoding.getCommonData();
-      PersistentDataset<Object> adapterExtendedValues = null;
-      for (final String field : referencedFields) {
-        if (fieldValues.containsKey(field)) {
-          continue;
-        }
-        if (fieldToIndexFieldMap.containsKey(field)) {
-          final IndexFieldMapper<?, ?> mapper = fieldToIndexFieldMap.get(field);
-          final Object indexValue = commonData.getValue(mapper.indexFieldName());
-          ((IndexFieldMapper) mapper).toAdapter(indexValue, new MapRowBuilder(fieldValues));
-        } else {
-          final Object value = commonData.getValue(field);
-          if (value != null) {
-            fieldValues.put(field, value);
-          } else {
-            if (adapterExtendedValues == null) {
-              adapterExtendedValues = new MultiFieldPersistentDataset<>();
-              if (persistenceEncoding instanceof AbstractAdapterPersistenceEncoding) {
-                ((AbstractAdapterPersistenceEncoding) persistenceEncoding).convertUnknownValues(
-                    adapter,
-                    indexModel);
-                final PersistentDataset<Object> existingExtValues =
-                    ((AbstractAdapterPersistenceEncoding) persistenceEncoding).getAdapterExtendedData();
-
-                if (persistenceEncoding.isAsync()) {
-                  return false;
-                }
-                if (existingExtValues != null) {
-                  adapterExtendedValues.addValues(existingExtValues.getValues());
-                }
-              }
+      final CompiledFilter compiled = getCompiledFilter();
+      final FieldSlots slots = compiled.slots;
+      if (slots.hasAdapterExtendedFields()
+          && (persistenceEncoding instanceof AbstractAdapterPersistenceEncoding)) {
+        final AbstractAdapterPersistenceEncoding adapterEncoding =
+            (AbstractAdapterPersistenceEncoding) persistenceEncoding;
+        if (persistenceEncoding instanceof AsyncPersistenceEncoding) {
+          if (needsAdapterExtendedData(slots, persistenceEncoding)) {
+            adapterEncoding.convertUnknownValues(adapter, indexModel);
+            if (persistenceEncoding.isAsync()) {
+              return false;
             }
-            fieldValues.put(field, adapterExtendedValues.getValue(field));
+          }
+        } else {
+          final Map<String, byte[]> encodedValues =
+              adapterEncoding.getEncodedAdapterExtendedValues(adapter, indexModel);
+          if (!encodedValues.isEmpty() && !compiled.filter.preEvaluate(adapter, encodedValues)) {
+            // the encoded values are enough to tell that this entry will not pass, so
+            // don't bother decoding them
+            return false;
           }
         }
       }
-      return filter.evaluate(fieldValues);
+      return compiled.filter.evaluate(
+          new ExpressionFieldValues(slots, adapter, indexModel, persistenceEncoding));
     }
     return true;
   }
 
+  private boolean needsAdapterExtendedData(
+      final FieldSlots slots,
+      final IndexedPersistenceEncoding<?> persistenceEncoding) {
+    final String[] fieldNames = slots.getFieldNames();
+    for (int i = 0; i < fieldNames.length; i++) {
+      if (!slots.isIndexField(i)
+          && (persistenceEncoding.getCommonData().getValue(fieldNames[i]) == null)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public byte[] toBinary() {
     byte[] filterBytes;
@@ -211,4 +290,14 @@ public class ExpressionQueryFilter<T> implements QueryFilter {
       indexMapping = null;
     }
   }
+
+  private static class CompiledFilter {
+    private final Filter filter;
+    private final FieldSlots slots;
+
+    private CompiledFilter(final Filter filter, final FieldSlots slots) {
+      this.filter = filter;
+      this.slots = slots;
+    }
+  }
 }
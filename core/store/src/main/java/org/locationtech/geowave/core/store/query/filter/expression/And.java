@@ -41,6 +41,13 @@ public class And extends MultiFilterOperator {
     return Arrays.stream(getChildren()).allMatch(f -> f.evaluate(adapter, entry));
   }
 
+  @Override
+  public boolean preEvaluate(
+      final DataTypeAdapter<?> adapter,
+      final Map<String, byte[]> encodedFieldValues) {
+    return Arrays.stream(getChildren()).allMatch(f -> f.preEvaluate(adapter, encodedFieldValues));
+  }
+
   @Override
   public <V extends Comparable<V>> FilterConstraints<V> getConstraints(
       final Class<V> constraintClass,
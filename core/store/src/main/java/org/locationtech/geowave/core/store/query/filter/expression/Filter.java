@@ -41,6 +41,22 @@ public interface Filter extends Persistable {
    */
   <T> boolean evaluate(DataTypeAdapter<T> adapter, T entry);
 
+  /**
+   * Test whether an entry could pass this filter using only the encoded values of fields that have
+   * not been decoded yet. This allows entries to be cheaply rejected before their field values are
+   * deserialized, so implementations must only return {@code false} if the entry can never pass.
+   *
+   * @param adapter the data type adapter
+   * @param encodedFieldValues the encoded field values, the key represents the field name, and the
+   *        value represents the serialized field value
+   * @return {@code false} if the entry definitely does not pass the filter
+   */
+  default boolean preEvaluate(
+      final DataTypeAdapter<?> adapter,
+      final Map<String, byte[]> encodedFieldValues) {
+    return true;
+  }
+
   /**
    * Prepare this filter for efficient testing using the provided adapter and index.
    * 
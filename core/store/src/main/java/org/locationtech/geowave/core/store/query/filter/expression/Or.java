@@ -75,6 +75,13 @@ public class Or extends MultiFilterOperator {
     return Arrays.stream(getChildren()).anyMatch(f -> f.evaluate(adapter, entry));
   }
 
+  @Override
+  public boolean preEvaluate(
+      final DataTypeAdapter<?> adapter,
+      final Map<String, byte[]> encodedFieldValues) {
+    return Arrays.stream(getChildren()).anyMatch(f -> f.preEvaluate(adapter, encodedFieldValues));
+  }
+
   @Override
   public Set<String> getConstrainableFields() {
     final Filter[] children = getChildren();
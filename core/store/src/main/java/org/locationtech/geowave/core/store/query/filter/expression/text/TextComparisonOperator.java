@@ -46,6 +46,10 @@ public class TextComparisonOperator extends ComparisonOperator<TextExpression, S
     this.ignoreCase = ignoreCase;
   }
 
+  public boolean isIgnoreCase() {
+    return ignoreCase;
+  }
+
   @Override
   public void prepare(
       final DataTypeAdapter<?> adapter,
@@ -16,6 +16,7 @@ import org.locationtech.geowave.core.store.query.gwql.function.aggregation.Count
 import org.locationtech.geowave.core.store.query.gwql.function.aggregation.MaxFunction;
 import org.locationtech.geowave.core.store.query.gwql.function.aggregation.MinFunction;
 import org.locationtech.geowave.core.store.query.gwql.function.aggregation.SumFunction;
+import org.locationtech.geowave.core.store.query.gwql.function.binning.BinningFunction;
 import org.locationtech.geowave.core.store.query.gwql.function.expression.AbsFunction;
 import org.locationtech.geowave.core.store.query.gwql.function.expression.ConcatFunction;
 import org.locationtech.geowave.core.store.query.gwql.function.expression.ExpressionFunction;
@@ -58,6 +59,11 @@ public class GWQLCoreExtensions implements GWQLExtensionRegistrySpi {
     return null;
   }
 
+  @Override
+  public BinningFunction[] getBinningFunctions() {
+    return null;
+  }
+
   @Override
   public CastableType<?>[] getCastableTypes() {
     return new CastableType<?>[] {new TextCastableType(), new NumberCastableType(),};
@@ -16,6 +16,7 @@ import org.locationtech.geowave.core.index.SPIServiceRegistry;
 import org.locationtech.geowave.core.store.query.filter.expression.FieldValue;
 import org.locationtech.geowave.core.store.query.gwql.GWQLExtensionRegistrySpi.FieldValueBuilder;
 import org.locationtech.geowave.core.store.query.gwql.function.aggregation.AggregationFunction;
+import org.locationtech.geowave.core.store.query.gwql.function.binning.BinningFunction;
 import org.locationtech.geowave.core.store.query.gwql.function.expression.ExpressionFunction;
 import org.locationtech.geowave.core.store.query.gwql.function.operator.OperatorFunction;
 import org.locationtech.geowave.core.store.query.gwql.function.predicate.PredicateFunction;
@@ -35,6 +36,7 @@ public class GWQLExtensionRegistry {
   private Map<String, PredicateFunction> predicateFunctions = Maps.newHashMap();
   private Map<String, OperatorFunction> operatorFunctions = Maps.newHashMap();
   private Map<String, ExpressionFunction<?>> expressionFunctions = Maps.newHashMap();
+  private Map<String, BinningFunction> binningFunctions = Maps.newHashMap();
   private Map<String, CastableType<?>> castableTypes = Maps.newHashMap();
 
   private GWQLExtensionRegistry() {
@@ -58,6 +60,10 @@ public class GWQLExtensionRegistry {
       if (expressions != null) {
         Arrays.stream(expressions).forEach(f -> registerFunction(f, expressionFunctions));
       }
+      final BinningFunction[] binnings = functionSet.getBinningFunctions();
+      if (binnings != null) {
+        Arrays.stream(binnings).forEach(f -> registerFunction(f, binningFunctions));
+      }
       final CastableType<?>[] types = functionSet.getCastableTypes();
       if (types != null) {
         Arrays.stream(types).forEach(t -> registerCastableType(t));
@@ -134,6 +140,16 @@ public class GWQLExtensionRegistry {
     return expressionFunctions.get(functionName.toUpperCase());
   }
 
+  /**
+   * Retrieves the binning function with the given name.
+   * 
+   * @param functionName the function name
+   * @return the function that matches the given name, or {@code null} if it could not be found
+   */
+  public BinningFunction getBinningFunction(final String functionName) {
+    return binningFunctions.get(functionName.toUpperCase());
+  }
+
   /**
    * Get a castable type with the given name.
    * 
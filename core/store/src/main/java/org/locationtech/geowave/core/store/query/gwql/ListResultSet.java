@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.gwql;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A result set that wraps a list of results that have already been computed.
+ */
+public class ListResultSet implements ResultSet {
+
+  private final List<String> columnNames;
+  private final List<Class<?>> columnTypes;
+  private final Iterator<Result> results;
+
+  /**
+   * @param columnNames the display name of each column
+   * @param columnTypes the type of each column
+   * @param results the results
+   */
+  public ListResultSet(
+      final List<String> columnNames,
+      final List<Class<?>> columnTypes,
+      final List<Result> results) {
+    this.columnNames = columnNames;
+    this.columnTypes = columnTypes;
+    this.results = results.iterator();
+  }
+
+  @Override
+  public void close() {}
+
+  @Override
+  public boolean hasNext() {
+    return results.hasNext();
+  }
+
+  @Override
+  public Result next() {
+    return results.next();
+  }
+
+  @Override
+  public int columnCount() {
+    return columnNames.size();
+  }
+
+  @Override
+  public String columnName(final int index) {
+    return columnNames.get(index);
+  }
+
+  @Override
+  public int columnIndex(final String columnName) {
+    return columnNames.indexOf(columnName);
+  }
+
+  @Override
+  public Class<?> columnType(final int index) {
+    return columnTypes.get(index);
+  }
+
+}
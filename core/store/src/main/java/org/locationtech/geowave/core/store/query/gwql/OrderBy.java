@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.gwql;
+
+/**
+ * A single term of an ORDER BY clause.
+ */
+public class OrderBy {
+  private final String name;
+  private final boolean descending;
+
+  /**
+   * @param name the column name, alias, or aggregation to order by
+   * @param descending {@code true} if results should be in descending order
+   */
+  public OrderBy(final String name, final boolean descending) {
+    this.name = name;
+    this.descending = descending;
+  }
+
+  /**
+   * @return the column name, alias, or aggregation to order by
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * @return {@code true} if results should be in descending order
+   */
+  public boolean isDescending() {
+    return descending;
+  }
+}
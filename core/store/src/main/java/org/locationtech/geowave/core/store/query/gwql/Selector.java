@@ -59,5 +59,5 @@ public abstract class Selector {
   /**
    * @return the non-aliased display name of the selector
    */
-  protected abstract String selectorName();
+  public abstract String selectorName();
 }
@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.gwql.function.binning;
+
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.StatisticBinningStrategy;
+import org.locationtech.geowave.core.store.query.gwql.QLFunction;
+
+/**
+ * A function that can be used in the GROUP BY clause of a statement to bin aggregation results by a
+ * derived value of a column rather than by the column value itself. Bins are reported as strings.
+ */
+public interface BinningFunction extends QLFunction<String> {
+  /**
+   * Gets the binning strategy associated with this function.
+   *
+   * @param adapter the adapter being aggregated
+   * @param functionArgs the function arguments
+   * @return the binning strategy for this function
+   */
+  StatisticBinningStrategy getBinningStrategy(
+      final DataTypeAdapter<?> adapter,
+      final String[] functionArgs);
+
+  @Override
+  default Class<String> getReturnType() {
+    return String.class;
+  }
+}
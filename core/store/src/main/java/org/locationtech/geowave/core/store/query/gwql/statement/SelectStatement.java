@@ -9,30 +9,53 @@
 package org.locationtech.geowave.core.store.query.gwql.statement;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
+import org.apache.commons.lang3.tuple.Pair;
+import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.index.persist.PersistableList;
+import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.api.AggregationQueryBuilder;
 import org.locationtech.geowave.core.store.api.DataStore;
 import org.locationtech.geowave.core.store.api.DataTypeAdapter;
 import org.locationtech.geowave.core.store.api.QueryBuilder;
+import org.locationtech.geowave.core.store.api.StatisticBinningStrategy;
 import org.locationtech.geowave.core.store.query.aggregate.CompositeAggregation;
+import org.locationtech.geowave.core.store.query.aggregate.TopKAggregation;
+import org.locationtech.geowave.core.store.query.aggregate.TopKOptions;
 import org.locationtech.geowave.core.store.query.filter.expression.Filter;
 import org.locationtech.geowave.core.store.query.gwql.AdapterEntryResultSet;
 import org.locationtech.geowave.core.store.query.gwql.AggregationSelector;
 import org.locationtech.geowave.core.store.query.gwql.ColumnSelector;
 import org.locationtech.geowave.core.store.query.gwql.GWQLExtensionRegistry;
+import org.locationtech.geowave.core.store.query.gwql.GWQLParseException;
+import org.locationtech.geowave.core.store.query.gwql.ListResultSet;
+import org.locationtech.geowave.core.store.query.gwql.OrderBy;
+import org.locationtech.geowave.core.store.query.gwql.Result;
 import org.locationtech.geowave.core.store.query.gwql.ResultSet;
 import org.locationtech.geowave.core.store.query.gwql.Selector;
 import org.locationtech.geowave.core.store.query.gwql.Selector.SelectorType;
 import org.locationtech.geowave.core.store.query.gwql.SingletonResultSet;
 import org.locationtech.geowave.core.store.query.gwql.function.aggregation.AggregationFunction;
+import org.locationtech.geowave.core.store.query.gwql.function.binning.BinningFunction;
+import org.locationtech.geowave.core.store.statistics.binning.CompositeBinningStrategy;
+import org.locationtech.geowave.core.store.statistics.binning.FieldValueBinningStrategy;
+import org.locationtech.geowave.core.store.util.DataStoreUtils;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 /**
- * Select data from a GeoWave type. This can be an aggregation or a plain query.
+ * Select data from a GeoWave type. This can be an aggregation or a plain query. Aggregations can be
+ * grouped, in which case they are run as a binning aggregation with a bin for each distinct group.
+ * Results can be ordered, and when they are also limited, only the top results are retained while
+ * aggregating so that the full result set never needs to be returned to the client.
  */
 public class SelectStatement<T> implements Statement {
 
@@ -40,7 +63,10 @@ public class SelectStatement<T> implements Statement {
   private final DataTypeAdapter<T> adapter;
   private List<Selector> selectors;
   private final Filter filter;
+  private final List<Selector> groupBy;
+  private final List<OrderBy> orderBy;
   private final Integer limit;
+  private boolean useStatistics = false;
 
   /**
    * @param adapter the adapter to select data from
@@ -54,21 +80,78 @@ public class SelectStatement<T> implements Statement {
       final List<Selector> selectors,
       final @Nullable Filter filter,
       final @Nullable Integer limit) {
+    this(dataStore, adapter, selectors, filter, null, null, limit);
+  }
+
+  /**
+   * @param adapter the adapter to select data from
+   * @param selectors the selectors to use
+   * @param filter the filter to use
+   * @param groupBy the columns or binning functions to group aggregations by
+   * @param orderBy the terms to order the results by
+   * @param limit the limit to use
+   */
+  public SelectStatement(
+      final DataStore dataStore,
+      final DataTypeAdapter<T> adapter,
+      final List<Selector> selectors,
+      final @Nullable Filter filter,
+      final @Nullable List<Selector> groupBy,
+      final @Nullable List<OrderBy> orderBy,
+      final @Nullable Integer limit) {
     this.dataStore = dataStore;
     this.adapter = adapter;
     this.selectors = selectors;
     this.filter = filter;
+    this.groupBy = groupBy == null ? Collections.emptyList() : groupBy;
+    this.orderBy = orderBy == null ? Collections.emptyList() : orderBy;
     this.limit = limit;
+    validate();
+  }
+
+  private void validate() {
+    final boolean hasAggregation =
+        (selectors != null)
+            && selectors.stream().anyMatch(s -> s.type() == SelectorType.AGGREGATION);
+    if (!groupBy.isEmpty()) {
+      if ((selectors == null) || selectors.isEmpty()) {
+        throw new GWQLParseException("GROUP BY cannot be used when selecting all columns");
+      }
+      final Set<String> groupNames =
+          groupBy.stream().map(Selector::selectorName).collect(Collectors.toSet());
+      for (final Selector selector : selectors) {
+        if ((selector instanceof ColumnSelector)
+            && !groupNames.contains(((ColumnSelector) selector).columnName())) {
+          throw new GWQLParseException(
+              "Column '"
+                  + ((ColumnSelector) selector).columnName()
+                  + "' must be an aggregation or appear in the GROUP BY clause");
+        }
+      }
+    } else if (hasAggregation) {
+      if (selectors.stream().anyMatch(s -> s.type() != SelectorType.AGGREGATION)) {
+        throw new GWQLParseException(
+            "Columns cannot be selected alongside aggregations without a GROUP BY clause");
+      }
+      if (!orderBy.isEmpty()) {
+        throw new GWQLParseException("ORDER BY cannot be used on an aggregation without GROUP BY");
+      }
+    }
   }
 
   @Override
   public ResultSet execute(final String... authorizations) {
     final String typeName = adapter.getTypeName();
 
-    if (isAggregation()) {
+    if (isGrouped()) {
+      return executeGrouped(authorizations);
+    } else if (isAggregation()) {
       final AggregationQueryBuilder<PersistableList, List<Object>, T, ?> bldr =
           AggregationQueryBuilder.newBuilder();
       bldr.setAuthorizations(authorizations);
+      if (useStatistics) {
+        bldr.addHint(DataStoreUtils.AGGREGATE_FROM_STATISTICS, true);
+      }
       if (filter != null) {
         bldr.filter(filter);
       }
@@ -81,18 +164,15 @@ public class SelectStatement<T> implements Statement {
       final List<Class<?>> columnTypes = Lists.newArrayListWithCapacity(selectors.size());
       for (final Selector selector : selectors) {
         final AggregationSelector aggregation = (AggregationSelector) selector;
-        final AggregationFunction<?> function =
-            GWQLExtensionRegistry.instance().getAggregationFunction(aggregation.functionName());
-        if (function == null) {
-          throw new RuntimeException(
-              "No aggregation function called '" + aggregation.functionName() + "' was found.");
-        }
+        final AggregationFunction<?> function = getAggregationFunction(aggregation);
         composite.add(function.getAggregation(adapter, aggregation.functionArgs()));
         columnNames.add(selector.name());
         columnTypes.add(function.getReturnType());
       }
       bldr.aggregate(typeName, composite);
       return new SingletonResultSet(columnNames, columnTypes, dataStore.aggregate(bldr.build()));
+    } else if (!orderBy.isEmpty()) {
+      return executeOrdered(authorizations);
     } else {
       final QueryBuilder<T, ?> bldr =
           QueryBuilder.newBuilder(adapter.getDataClass()).addTypeName(typeName);
@@ -115,10 +195,7 @@ public class SelectStatement<T> implements Statement {
         }
         bldr.subsetFields(typeName, usedAttributes.toArray(new String[usedAttributes.size()]));
       } else {
-        selectors =
-            Lists.transform(
-                Arrays.asList(adapter.getFieldDescriptors()),
-                f -> new ColumnSelector(f.fieldName()));
+        selectors = allColumns();
       }
       if (limit != null) {
         bldr.limit(limit);
@@ -127,14 +204,280 @@ public class SelectStatement<T> implements Statement {
     }
   }
 
+  /**
+   * Orders plain query results. With a limit a top-k aggregation is used so that only the top
+   * entries are retained wherever the data is aggregated. Without a limit every matching entry has
+   * to be returned anyway, so the entries are queried normally and sorted on the client.
+   */
+  private ResultSet executeOrdered(final String... authorizations) {
+    final String typeName = adapter.getTypeName();
+    if ((selectors == null) || selectors.isEmpty()) {
+      selectors = allColumns();
+    }
+    for (final Selector selector : selectors) {
+      final String columnName = ((ColumnSelector) selector).columnName();
+      if (adapter.getFieldDescriptor(columnName) == null) {
+        throw new RuntimeException("No column named " + columnName + " was found in " + typeName);
+      }
+    }
+    final String[] sortFields = new String[orderBy.size()];
+    final boolean[] descending = new boolean[orderBy.size()];
+    for (int i = 0; i < orderBy.size(); i++) {
+      final String name = orderBy.get(i).name();
+      // ordering terms can refer to a column alias or to any column of the type
+      sortFields[i] =
+          selectors.stream().filter(s -> name.equals(s.alias())).map(
+              s -> ((ColumnSelector) s).columnName()).findFirst().orElse(name);
+      if (adapter.getFieldDescriptor(sortFields[i]) == null) {
+        throw new RuntimeException("No column named " + name + " was found in " + typeName);
+      }
+      descending[i] = orderBy.get(i).isDescending();
+    }
+    final List<T> results;
+    if (limit == null) {
+      final QueryBuilder<T, ?> bldr =
+          QueryBuilder.newBuilder(adapter.getDataClass()).addTypeName(typeName);
+      bldr.setAuthorizations(authorizations);
+      if (filter != null) {
+        bldr.filter(filter);
+      }
+      results = Lists.newArrayList();
+      try (CloseableIterator<T> it = dataStore.query(bldr.build())) {
+        it.forEachRemaining(results::add);
+      }
+      Collections.sort(results, TopKAggregation.createComparator(adapter, sortFields, descending));
+    } else {
+      final AggregationQueryBuilder<TopKOptions, List<T>, T, ?> bldr =
+          AggregationQueryBuilder.newBuilder();
+      bldr.setAuthorizations(authorizations);
+      if (filter != null) {
+        bldr.filter(filter);
+      }
+      bldr.aggregate(typeName, new TopKAggregation<>(adapter, sortFields, descending, limit));
+      results = dataStore.aggregate(bldr.build());
+    }
+    return new AdapterEntryResultSet<>(
+        selectors,
+        adapter,
+        new CloseableIterator.Wrapper<>(
+            results == null ? Collections.emptyIterator() : results.iterator()));
+  }
+
+  /**
+   * Runs the aggregation selectors as a binning aggregation with a bin for each group, then orders
+   * and limits the groups. Ordering and limiting has to wait until the bins from every scan have
+   * been merged because partial bins cannot be ranked reliably.
+   */
+  private ResultSet executeGrouped(final String... authorizations) {
+    final String typeName = adapter.getTypeName();
+    final StatisticBinningStrategy[] groupStrategies = new StatisticBinningStrategy[groupBy.size()];
+    for (int i = 0; i < groupBy.size(); i++) {
+      groupStrategies[i] = getBinningStrategy(groupBy.get(i));
+    }
+    final StatisticBinningStrategy binningStrategy =
+        groupStrategies.length == 1 ? groupStrategies[0]
+            : new CompositeBinningStrategy(groupStrategies);
+
+    final CompositeAggregation<T> composite = new CompositeAggregation<>();
+    final List<String> columnNames = Lists.newArrayListWithCapacity(selectors.size());
+    final List<Class<?>> columnTypes = Lists.newArrayListWithCapacity(selectors.size());
+    // for each selector, either the index of the group it refers to or the index of its aggregation
+    // in the composite aggregation encoded as a negative value
+    final int[] columnSources = new int[selectors.size()];
+    int aggregationCount = 0;
+    for (int i = 0; i < selectors.size(); i++) {
+      final Selector selector = selectors.get(i);
+      final int groupIndex = groupIndex(selector);
+      columnNames.add(selector.name());
+      if (groupIndex >= 0) {
+        columnSources[i] = groupIndex;
+        columnTypes.add(String.class);
+      } else {
+        final AggregationSelector aggregation = (AggregationSelector) selector;
+        final AggregationFunction<?> function = getAggregationFunction(aggregation);
+        composite.add(function.getAggregation(adapter, aggregation.functionArgs()));
+        columnSources[i] = -(++aggregationCount);
+        columnTypes.add(function.getReturnType());
+      }
+    }
+
+    final AggregationQueryBuilder<PersistableList, List<Object>, T, ?> bldr =
+        AggregationQueryBuilder.newBuilder();
+    bldr.setAuthorizations(authorizations);
+    if (useStatistics) {
+      bldr.addHint(DataStoreUtils.AGGREGATE_FROM_STATISTICS, true);
+    }
+    if (filter != null) {
+      bldr.filter(filter);
+    }
+    bldr.aggregate(typeName, composite);
+    final Map<ByteArray, List<Object>> bins =
+        dataStore.aggregate(bldr.buildWithBinningStrategy(binningStrategy, -1));
+
+    final Comparator<Result> comparator = resultComparator(columnNames);
+    final int maxResults = limit == null ? Integer.MAX_VALUE : limit;
+    // retain only the top results while converting bins so that a small limit over many groups
+    // stays bounded in memory
+    final PriorityQueue<Result> heap =
+        comparator == null ? null
+            : new PriorityQueue<>(Math.min(maxResults, 1024) + 1, comparator.reversed());
+    final List<Result> results = Lists.newArrayList();
+    if (bins != null) {
+      for (final Entry<ByteArray, List<Object>> bin : bins.entrySet()) {
+        if ((heap == null) && (results.size() >= maxResults)) {
+          break;
+        }
+        final String[] groupValues = groupValues(binningStrategy, groupStrategies, bin.getKey());
+        final List<Object> values = Lists.newArrayListWithCapacity(columnSources.length);
+        for (final int source : columnSources) {
+          values.add(source >= 0 ? groupValues[source] : bin.getValue().get(-source - 1));
+        }
+        final Result result = new Result(values);
+        if (heap == null) {
+          results.add(result);
+        } else if (heap.size() < maxResults) {
+          heap.offer(result);
+        } else if ((maxResults > 0) && (comparator.compare(result, heap.peek()) < 0)) {
+          heap.poll();
+          heap.offer(result);
+        }
+      }
+    }
+    if (heap != null) {
+      results.addAll(heap);
+      Collections.sort(results, comparator);
+    }
+    return new ListResultSet(columnNames, columnTypes, results);
+  }
+
+  private int groupIndex(final Selector selector) {
+    if (selector instanceof ColumnSelector) {
+      for (int i = 0; i < groupBy.size(); i++) {
+        if (groupBy.get(i).selectorName().equals(((ColumnSelector) selector).columnName())) {
+          return i;
+        }
+      }
+    } else if (GWQLExtensionRegistry.instance().getBinningFunction(
+        ((AggregationSelector) selector).functionName()) != null) {
+      for (int i = 0; i < groupBy.size(); i++) {
+        if (groupBy.get(i).selectorName().equals(selector.selectorName())) {
+          return i;
+        }
+      }
+      throw new RuntimeException(
+          "Binning function '" + selector.selectorName() + "' must appear in the GROUP BY clause");
+    }
+    return -1;
+  }
+
+  private StatisticBinningStrategy getBinningStrategy(final Selector group) {
+    if (group instanceof ColumnSelector) {
+      final String columnName = ((ColumnSelector) group).columnName();
+      if (adapter.getFieldDescriptor(columnName) == null) {
+        throw new RuntimeException(
+            "No column named " + columnName + " was found in " + adapter.getTypeName());
+      }
+      return new FieldValueBinningStrategy(columnName);
+    }
+    final AggregationSelector function = (AggregationSelector) group;
+    final BinningFunction binningFunction =
+        GWQLExtensionRegistry.instance().getBinningFunction(function.functionName());
+    if (binningFunction == null) {
+      throw new RuntimeException(
+          "No binning function called '" + function.functionName() + "' was found.");
+    }
+    return binningFunction.getBinningStrategy(adapter, function.functionArgs());
+  }
+
+  private static String[] groupValues(
+      final StatisticBinningStrategy binningStrategy,
+      final StatisticBinningStrategy[] groupStrategies,
+      final ByteArray bin) {
+    if (groupStrategies.length == 1) {
+      return new String[] {binningStrategy.binToString(bin)};
+    }
+    final Pair<StatisticBinningStrategy, ByteArray>[] subBins =
+        ((CompositeBinningStrategy) binningStrategy).getSubBins(bin);
+    final String[] values = new String[subBins.length];
+    for (int i = 0; i < subBins.length; i++) {
+      values[i] = subBins[i].getLeft().binToString(subBins[i].getRight());
+    }
+    return values;
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private Comparator<Result> resultComparator(final List<String> columnNames) {
+    Comparator<Result> comparator = null;
+    for (final OrderBy term : orderBy) {
+      int columnIndex = columnNames.indexOf(term.name());
+      if (columnIndex < 0) {
+        // the term may refer to a selected column or aggregation by its un-aliased name
+        for (int i = 0; i < selectors.size(); i++) {
+          if (selectors.get(i).selectorName().equals(term.name())) {
+            columnIndex = i;
+            break;
+          }
+        }
+      }
+      if (columnIndex < 0) {
+        throw new RuntimeException("ORDER BY term '" + term.name() + "' must be selected");
+      }
+      final int index = columnIndex;
+      Comparator<Result> termComparator =
+          Comparator.comparing(
+              r -> (Comparable) r.columnValue(index),
+              Comparator.nullsFirst(Comparator.naturalOrder()));
+      if (term.isDescending()) {
+        termComparator = termComparator.reversed();
+      }
+      comparator = comparator == null ? termComparator : comparator.thenComparing(termComparator);
+    }
+    return comparator;
+  }
+
+  private AggregationFunction<?> getAggregationFunction(final AggregationSelector aggregation) {
+    final AggregationFunction<?> function =
+        GWQLExtensionRegistry.instance().getAggregationFunction(aggregation.functionName());
+    if (function == null) {
+      throw new RuntimeException(
+          "No aggregation function called '" + aggregation.functionName() + "' was found.");
+    }
+    return function;
+  }
+
+  private List<Selector> allColumns() {
+    return Lists.transform(
+        Arrays.asList(adapter.getFieldDescriptors()),
+        f -> new ColumnSelector(f.fieldName()));
+  }
+
+  /**
+   * By default, aggregations are computed by scanning the data. Statistics can answer some
+   * aggregations without a scan, but their results are not always the same as those of a scan.
+   *
+   * @param useStatistics if {@code true}, aggregations that line up with a statistic are answered
+   *        from the statistic
+   * @see DataStoreUtils#AGGREGATE_FROM_STATISTICS
+   */
+  public void setUseStatistics(final boolean useStatistics) {
+    this.useStatistics = useStatistics;
+  }
+
   /**
    * @return {@code true} if this select statement represents an aggregation, {@code false}
    *         otherwise
    */
   public boolean isAggregation() {
-    return (selectors != null)
-        && !selectors.isEmpty()
-        && (selectors.get(0).type() == SelectorType.AGGREGATION);
+    return isGrouped()
+        || ((selectors != null)
+            && selectors.stream().anyMatch(s -> s.type() == SelectorType.AGGREGATION));
+  }
+
+  /**
+   * @return {@code true} if this select statement represents a grouped aggregation
+   */
+  public boolean isGrouped() {
+    return !groupBy.isEmpty();
   }
 
   /**
@@ -151,6 +494,20 @@ public class SelectStatement<T> implements Statement {
     return filter;
   }
 
+  /**
+   * @return the columns and binning functions to group by
+   */
+  public List<Selector> getGroupBy() {
+    return groupBy;
+  }
+
+  /**
+   * @return the terms to order results by
+   */
+  public List<OrderBy> getOrderBy() {
+    return orderBy;
+  }
+
   /**
    * @return the limit for the query
    */
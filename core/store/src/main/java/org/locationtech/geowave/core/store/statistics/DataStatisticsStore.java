@@ -340,6 +340,24 @@ public interface DataStatisticsStore {
    */
   boolean mergeStats();
 
+  /**
+   * Merges the values of a single statistic that share a bin and visibility. Unlike
+   * {@link #mergeStats()}, the visibility of each value is preserved, and only values that are
+   * visible with the given authorizations are merged. The merged values are written before exactly
+   * the rows they replace are deleted, so values that are written while the merge is in progress
+   * are kept. Until the merge completes, a concurrent read may count a merged value twice. Nothing
+   * is merged if the data store can not delete individual statistic value rows.
+   *
+   * @param statistic the statistic to merge values for
+   * @param authorizations authorizations for the values to merge
+   * @return {@code true} if any values were merged
+   */
+  default <V extends StatisticValue<R>, R> boolean compactStatisticValues(
+      final Statistic<V> statistic,
+      final String... authorizations) {
+    return false;
+  }
+
   /**
    * Remove all statistics from the data store.
    */
@@ -10,7 +10,15 @@ package org.locationtech.geowave.core.store.statistics;
 
 import java.io.Closeable;
 import java.io.Flushable;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
 import org.locationtech.geowave.core.store.api.Index;
@@ -20,12 +28,19 @@ import org.locationtech.geowave.core.store.callback.DeleteCallback;
 import org.locationtech.geowave.core.store.callback.IngestCallback;
 import org.locationtech.geowave.core.store.callback.ScanCallback;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 /**
  * This class is responsible for managing updates to a set of statistics for a given type and index.
  * It serves as an ingest, scan, and delete callback that will write all statistic updates to the
  * statistics store.
+ *
+ * <p> Each flush writes a partial value for each statistic. If compaction is enabled, the values
+ * written by this callback are periodically compacted in the background to keep the number of
+ * partial values in the statistics store from growing without bound.
  */
 public class StatisticUpdateCallback<T> implements
     IngestCallback<T>,
@@ -35,15 +50,26 @@ public class StatisticUpdateCallback<T> implements
     Closeable,
     Flushable {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(StatisticUpdateCallback.class);
+  private static final Pattern AUTHORIZATION_SEPARATOR = Pattern.compile("[&|()]");
   private static final int FLUSH_STATS_THRESHOLD = 1000000;
+  // the number of flushes after which the partial values are compacted
+  private static final int COMPACT_STATS_THRESHOLD = 16;
+  private static final ExecutorService COMPACTION_EXECUTOR =
+      Executors.newSingleThreadExecutor(
+          new ThreadFactoryBuilder().setNameFormat("statistics-compaction-%d").setDaemon(
+              true).build());
 
   private final List<StatisticUpdateHandler<T, ?, ?>> statisticUpdateHandlers;
   private final Object MUTEX = new Object();
   private final DataStatisticsStore statisticsStore;
   private final boolean skipFlush;
+  private final boolean compactValues;
   private boolean overwrite;
 
   private int updateCount = 0;
+  private int flushCount = 0;
+  private Future<?> compaction = null;
 
   /**
    * Create an update callback for the given set of statistics.
@@ -53,14 +79,35 @@ public class StatisticUpdateCallback<T> implements
    * @param index the index used in the operation
    * @param type the type used in the operation
    */
-  @SuppressWarnings({"rawtypes", "unchecked"})
   public StatisticUpdateCallback(
       final List<Statistic<? extends StatisticValue<?>>> statistics,
       final DataStatisticsStore statisticsStore,
       final Index index,
       final AdapterToIndexMapping indexMapping,
       final InternalDataAdapter<T> type) {
+    this(statistics, statisticsStore, index, indexMapping, type, false);
+  }
+
+  /**
+   * Create an update callback for the given set of statistics.
+   * 
+   * @param statistics the statistics to update
+   * @param statisticsStore the statistics store
+   * @param index the index used in the operation
+   * @param type the type used in the operation
+   * @param compactValues whether to periodically compact the partial values written by this
+   *        callback
+   */
+  @SuppressWarnings({"rawtypes", "unchecked"})
+  public StatisticUpdateCallback(
+      final List<Statistic<? extends StatisticValue<?>>> statistics,
+      final DataStatisticsStore statisticsStore,
+      final Index index,
+      final AdapterToIndexMapping indexMapping,
+      final InternalDataAdapter<T> type,
+      final boolean compactValues) {
     this.statisticsStore = statisticsStore;
+    this.compactValues = compactValues;
     statisticUpdateHandlers = Lists.newArrayListWithCapacity(statistics.size());
     for (Statistic<?> statistic : statistics) {
       StatisticUpdateHandler handler =
@@ -108,12 +155,57 @@ public class StatisticUpdateCallback<T> implements
       }
       // just overwrite the initial set of values
       overwrite = false;
+      if (compactValues
+          && (++flushCount >= COMPACT_STATS_THRESHOLD)
+          && ((compaction == null) || compaction.isDone())) {
+        flushCount = 0;
+        compaction = COMPACTION_EXECUTOR.submit(this::compact);
+      }
+    }
+  }
+
+  private void compact() {
+    // compaction only deletes the rows it has merged, so values may be flushed concurrently
+    for (final StatisticUpdateHandler<T, ?, ?> updateHandler : statisticUpdateHandlers) {
+      try {
+        statisticsStore.compactStatisticValues(
+            updateHandler.getStatistic(),
+            getAuthorizations(updateHandler.getWrittenVisibilities()));
+      } catch (final Exception e) {
+        LOGGER.warn("Unable to compact values for statistic " + updateHandler.getStatistic(), e);
+      }
+    }
+  }
+
+  /**
+   * Get the authorizations needed to see statistic values with any of the given visibilities.
+   */
+  private static String[] getAuthorizations(final Set<ByteArray> visibilities) {
+    final Set<String> authorizations = new HashSet<>();
+    for (final ByteArray visibility : visibilities) {
+      for (final String token : AUTHORIZATION_SEPARATOR.split(visibility.getString())) {
+        if (!token.trim().isEmpty()) {
+          authorizations.add(token.trim());
+        }
+      }
     }
+    return authorizations.toArray(new String[authorizations.size()]);
   }
 
   @Override
   public void close() {
     flush();
+    final Future<?> pendingCompaction;
+    synchronized (MUTEX) {
+      pendingCompaction = compaction;
+    }
+    if (pendingCompaction != null) {
+      try {
+        pendingCompaction.get();
+      } catch (InterruptedException | ExecutionException e) {
+        LOGGER.warn("Statistics compaction did not complete", e);
+      }
+    }
   }
 
 }
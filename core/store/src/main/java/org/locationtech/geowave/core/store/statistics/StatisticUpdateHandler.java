@@ -8,6 +8,7 @@
  */
 package org.locationtech.geowave.core.store.statistics;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -38,14 +39,21 @@ import com.google.common.collect.Sets;
 /**
  * This class handles updates for a single statistic. It is responsible for creating separate
  * statistic values for each visibility and bin combination.
+ *
+ * <p> Updates are accumulated in a number of independently locked stripes so that concurrent ingest
+ * threads rarely contend with one another. The stripes are merged when the statistic values are
+ * written.
  */
 public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implements
     IngestCallback<T>,
     DeleteCallback<T, GeoWaveRow>,
     ScanCallback<T, GeoWaveRow> {
   private static final Logger LOGGER = LoggerFactory.getLogger(StatisticUpdateHandler.class);
+  private static final int NUM_STRIPES =
+      Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1) << 1);
   private final Statistic<V> statistic;
-  private final Map<ByteArray, Map<ByteArray, V>> statisticsMap = new HashMap<>();
+  private final Stripe<V>[] stripes;
+  private final Set<ByteArray> writtenVisibilities = Sets.newConcurrentHashSet();
   private final EntryVisibilityHandler<T> visibilityHandler;
   private final InternalDataAdapter<T> adapter;
   private final IngestHandler<T, V, R> ingestHandler;
@@ -56,6 +64,7 @@ public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implement
 
   private static final ByteArray NO_BIN = new ByteArray(new byte[0]);
 
+  @SuppressWarnings("unchecked")
   public StatisticUpdateHandler(
       final Statistic<V> statistic,
       final Index index,
@@ -66,6 +75,10 @@ public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implement
     this.visibilityHandler = getVisibilityHandler(indexMapping, index);
     this.ingestHandler = new IngestHandler<>();
     this.deleteHandler = new DeleteHandler<>();
+    stripes = new Stripe[NUM_STRIPES];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new Stripe<>();
+    }
     final V value = statistic.createEmpty();
     supportsIngestCallback = value instanceof StatisticsIngestCallback;
     supportsDeleteCallback = value instanceof StatisticsDeleteCallback;
@@ -81,6 +94,17 @@ public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implement
     }
   }
 
+  public Statistic<V> getStatistic() {
+    return statistic;
+  }
+
+  /**
+   * @return the visibilities of all of the statistic values that have been written by this handler
+   */
+  public Set<ByteArray> getWrittenVisibilities() {
+    return writtenVisibilities;
+  }
+
   protected void handleEntry(
       final Handler<T, V, R> handler,
       final T entry,
@@ -89,47 +113,52 @@ public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implement
       // This can happen with attribute indices when the attribute value is null
       return;
     }
-    final ByteArray visibility = new ByteArray(visibilityHandler.getVisibility(entry, rows));
-    Map<ByteArray, V> binnedValues = statisticsMap.get(visibility);
-    if (binnedValues == null) {
-      binnedValues = Maps.newHashMap();
-      statisticsMap.put(visibility, binnedValues);
-    }
-    if (statistic.getBinningStrategy() != null) {
-      if (filterByPartition) {
-        for (final GeoWaveRow row : rows) {
-          handleBinnedRows(handler, binnedValues, entry, row);
+    final byte[] visibility = visibilityHandler.getVisibility(entry, rows);
+    final Stripe<V> stripe = stripes[(int) Thread.currentThread().getId() & (stripes.length - 1)];
+    synchronized (stripe) {
+      final Map<ByteArray, V> binnedValues = stripe.getBinnedValues(visibility);
+      if (statistic.getBinningStrategy() != null) {
+        if (filterByPartition) {
+          for (final GeoWaveRow row : rows) {
+            handleBinnedRows(handler, stripe, binnedValues, entry, row);
+          }
+        } else {
+          handleBinnedRows(handler, stripe, binnedValues, entry, rows);
         }
       } else {
-        handleBinnedRows(handler, binnedValues, entry, rows);
+        handleBin(handler, stripe, binnedValues, NO_BIN, entry, rows);
       }
-    } else {
-      handleBin(handler, binnedValues, NO_BIN, entry, rows);
     }
   }
 
   protected void handleBinnedRows(
       final Handler<T, V, R> handler,
+      final Stripe<V> stripe,
       final Map<ByteArray, V> binnedValues,
       final T entry,
       final GeoWaveRow... rows) {
     final ByteArray[] bins = statistic.getBinningStrategy().getBins(adapter, entry, rows);
     for (final ByteArray bin : bins) {
-      handleBin(handler, binnedValues, bin, entry, rows);
+      handleBin(handler, stripe, binnedValues, bin, entry, rows);
     }
   }
 
   protected void handleBin(
       final Handler<T, V, R> handler,
+      final Stripe<V> stripe,
       final Map<ByteArray, V> binnedValues,
       final ByteArray bin,
       final T entry,
       final GeoWaveRow... rows) {
-    V value = binnedValues.get(bin);
+    V value = stripe.getCachedValue(bin);
     if (value == null) {
-      value = statistic.createEmpty();
-      value.setBin(bin);
-      binnedValues.put(bin, value);
+      value = binnedValues.get(bin);
+      if (value == null) {
+        value = statistic.createEmpty();
+        value.setBin(bin);
+        binnedValues.put(bin, value);
+      }
+      stripe.cacheValue(bin, value);
     }
     handler.handle(value, adapter, entry, rows);
   }
@@ -163,27 +192,52 @@ public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implement
   }
 
   @Override
-  public synchronized void entryIngested(final T entry, final GeoWaveRow... rows) {
+  public void entryIngested(final T entry, final GeoWaveRow... rows) {
     if (supportsIngestCallback) {
       handleEntry(ingestHandler, entry, rows);
     }
   }
 
   @Override
-  public synchronized void entryDeleted(final T entry, final GeoWaveRow... rows) {
+  public void entryDeleted(final T entry, final GeoWaveRow... rows) {
     if (supportsDeleteCallback) {
       handleEntry(deleteHandler, entry, rows);
     }
   }
 
   @Override
-  public synchronized void entryScanned(final T entry, final GeoWaveRow row) {
+  public void entryScanned(final T entry, final GeoWaveRow row) {
     if (supportsIngestCallback) {
       handleEntry(ingestHandler, entry, row);
     }
   }
 
-  public void writeStatistics(final DataStatisticsStore statisticsStore, final boolean overwrite) {
+  public synchronized void writeStatistics(
+      final DataStatisticsStore statisticsStore,
+      final boolean overwrite) {
+    // merge the stripes so that only one value is written for each visibility and bin
+    final Map<ByteArray, Map<ByteArray, V>> statisticsMap = new HashMap<>();
+    for (final Stripe<V> stripe : stripes) {
+      final Map<ByteArray, Map<ByteArray, V>> stripeValues;
+      synchronized (stripe) {
+        stripeValues = stripe.drain();
+      }
+      for (final Entry<ByteArray, Map<ByteArray, V>> visibilityStatistic : stripeValues.entrySet()) {
+        final Map<ByteArray, V> bins = statisticsMap.get(visibilityStatistic.getKey());
+        if (bins == null) {
+          statisticsMap.put(visibilityStatistic.getKey(), visibilityStatistic.getValue());
+          continue;
+        }
+        for (final Entry<ByteArray, V> binValue : visibilityStatistic.getValue().entrySet()) {
+          final V value = bins.get(binValue.getKey());
+          if (value == null) {
+            bins.put(binValue.getKey(), binValue.getValue());
+          } else {
+            value.merge(binValue.getValue());
+          }
+        }
+      }
+    }
     if (overwrite) {
       statisticsStore.removeStatisticValues(statistic);
     }
@@ -197,13 +251,64 @@ public class StatisticUpdateHandler<T, V extends StatisticValue<R>, R> implement
               visibilityStatistic.getKey().getBytes(),
               binValue.getValue());
         }
+        writtenVisibilities.add(visibilityStatistic.getKey());
       }
-      statisticsMap.clear();
     } catch (final Exception e) {
       LOGGER.error("Unable to write statistic value.", e);
     }
   }
 
+  /**
+   * Accumulates statistic values for the threads that map to it. The most recently used visibility
+   * and bin are cached, as consecutive entries usually share them.
+   */
+  private static class Stripe<V> {
+    private Map<ByteArray, Map<ByteArray, V>> statisticsMap = new HashMap<>();
+    private byte[] lastVisibility = null;
+    private Map<ByteArray, V> lastBinnedValues = null;
+    private ByteArray lastBin = null;
+    private V lastValue = null;
+
+    private Map<ByteArray, V> getBinnedValues(final byte[] visibility) {
+      if ((lastBinnedValues != null) && Arrays.equals(lastVisibility, visibility)) {
+        return lastBinnedValues;
+      }
+      final ByteArray visibilityKey = new ByteArray(visibility);
+      Map<ByteArray, V> binnedValues = statisticsMap.get(visibilityKey);
+      if (binnedValues == null) {
+        binnedValues = Maps.newHashMap();
+        statisticsMap.put(visibilityKey, binnedValues);
+      }
+      lastVisibility = visibility;
+      lastBinnedValues = binnedValues;
+      lastBin = null;
+      lastValue = null;
+      return binnedValues;
+    }
+
+    private V getCachedValue(final ByteArray bin) {
+      if ((lastBin != null) && lastBin.equals(bin)) {
+        return lastValue;
+      }
+      return null;
+    }
+
+    private void cacheValue(final ByteArray bin, final V value) {
+      lastBin = bin;
+      lastValue = value;
+    }
+
+    private Map<ByteArray, Map<ByteArray, V>> drain() {
+      final Map<ByteArray, Map<ByteArray, V>> values = statisticsMap;
+      statisticsMap = new HashMap<>();
+      lastVisibility = null;
+      lastBinnedValues = null;
+      lastBin = null;
+      lastValue = null;
+      return values;
+    }
+  }
+
   private static interface Handler<T, V extends StatisticValue<R>, R> {
     public void handle(
         V value,
@@ -27,6 +27,8 @@ import org.locationtech.geowave.core.store.api.BinConstraints.ByteArrayConstrain
 import org.locationtech.geowave.core.store.api.DataTypeAdapter;
 import org.locationtech.geowave.core.store.api.StatisticBinningStrategy;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
+import org.locationtech.geowave.core.store.query.filter.expression.Include;
 import org.locationtech.geowave.core.store.statistics.query.BinConstraintsImpl.ExplicitConstraints;
 import com.google.common.collect.Lists;
 
@@ -216,6 +218,23 @@ public class CompositeBinningStrategy implements StatisticBinningStrategy {
     return new ByteArray(bytes.array());
   }
 
+  @Override
+  public ByteArrayConstraints constraintsForFilter(
+      final DataTypeAdapter<?> adapter,
+      final Filter filter) {
+    if ((filter != null) && !(filter instanceof Include)) {
+      return null;
+    }
+    // composite bins only partition the entries if every child strategy does
+    for (final StatisticBinningStrategy child : childBinningStrategies) {
+      final ByteArrayConstraints constraints = child.constraintsForFilter(adapter, null);
+      if ((constraints == null) || !constraints.isAllBins()) {
+        return null;
+      }
+    }
+    return new ExplicitConstraints(true);
+  }
+
   @Override
   public ByteArrayConstraints constraints(final Object constraint) {
     if ((constraint != null) && (constraint instanceof Object[])) {
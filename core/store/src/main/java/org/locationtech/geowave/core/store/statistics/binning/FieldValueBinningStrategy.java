@@ -13,6 +13,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.apache.commons.lang3.ArrayUtils;
@@ -20,10 +21,19 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.index.ByteArrayRange;
 import org.locationtech.geowave.core.index.StringUtils;
+import org.locationtech.geowave.core.store.adapter.FieldDescriptor;
 import org.locationtech.geowave.core.store.api.BinConstraints.ByteArrayConstraints;
 import org.locationtech.geowave.core.store.api.DataTypeAdapter;
 import org.locationtech.geowave.core.store.api.StatisticBinningStrategy;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.query.filter.expression.ComparisonOperator.CompareOp;
+import org.locationtech.geowave.core.store.query.filter.expression.Expression;
+import org.locationtech.geowave.core.store.query.filter.expression.FieldValue;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
+import org.locationtech.geowave.core.store.query.filter.expression.Include;
+import org.locationtech.geowave.core.store.query.filter.expression.Or;
+import org.locationtech.geowave.core.store.query.filter.expression.numeric.NumericComparisonOperator;
+import org.locationtech.geowave.core.store.query.filter.expression.text.TextComparisonOperator;
 import org.locationtech.geowave.core.store.statistics.query.BinConstraintsImpl.ExplicitConstraints;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Strings;
@@ -235,6 +245,124 @@ public class FieldValueBinningStrategy implements StatisticBinningStrategy {
     }
   }
 
+  @Override
+  public ByteArrayConstraints constraintsForFilter(
+      final DataTypeAdapter<?> adapter,
+      final Filter filter) {
+    if ((filter == null) || (filter instanceof Include)) {
+      // every entry falls into exactly one bin
+      return new ExplicitConstraints(true);
+    }
+    if (fields.size() != 1) {
+      return null;
+    }
+    final Set<ByteArray> bins = new TreeSet<>();
+    if (!addFilterBins(adapter, fields.get(0), filter, bins)) {
+      return null;
+    }
+    return new ExplicitConstraints(bins.toArray(new ByteArray[bins.size()]));
+  }
+
+  /**
+   * Add the bins that exactly match the given filter on the given field. A disjunction aligns with
+   * the bins if each of its children do.
+   *
+   * @param adapter the adapter being filtered
+   * @param field the binned field
+   * @param filter the filter to align
+   * @param bins the set to add matching bins to
+   * @return {@code true} if the filter lines up with the bins
+   */
+  protected boolean addFilterBins(
+      final DataTypeAdapter<?> adapter,
+      final String field,
+      final Filter filter,
+      final Set<ByteArray> bins) {
+    if (filter instanceof Or) {
+      for (final Filter child : ((Or) filter).getChildren()) {
+        if (!addFilterBins(adapter, field, child, bins)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    final ByteArray bin = getEqualityBin(adapter, field, filter);
+    if (bin == null) {
+      return false;
+    }
+    bins.add(bin);
+    return true;
+  }
+
+  /**
+   * Get the bin that holds exactly the entries whose field is equal to the literal of the given
+   * filter. Bins are derived from the string value of the field, so this only applies to case
+   * sensitive text equality and to integral equality where the string forms are unambiguous.
+   *
+   * @param adapter the adapter being filtered
+   * @param field the binned field
+   * @param filter the filter to check
+   * @return the matching bin, or {@code null} if the filter is not an aligned equality
+   */
+  protected ByteArray getEqualityBin(
+      final DataTypeAdapter<?> adapter,
+      final String field,
+      final Filter filter) {
+    final FieldDescriptor<?> descriptor = adapter.getFieldDescriptor(field);
+    if (descriptor == null) {
+      return null;
+    }
+    if (filter instanceof TextComparisonOperator) {
+      final TextComparisonOperator comparison = (TextComparisonOperator) filter;
+      if (!CompareOp.EQUAL_TO.equals(comparison.getCompareOp())
+          || comparison.isIgnoreCase()
+          || !String.class.equals(descriptor.bindingClass())) {
+        return null;
+      }
+      final Object value =
+          getLiteral(field, comparison.getExpression1(), comparison.getExpression2());
+      // an empty string shares the bin of null values
+      if ((value instanceof String) && !((String) value).isEmpty()) {
+        return new ByteArray((String) value);
+      }
+    } else if (filter instanceof NumericComparisonOperator) {
+      final NumericComparisonOperator comparison = (NumericComparisonOperator) filter;
+      final Class<?> binding = descriptor.bindingClass();
+      if (!CompareOp.EQUAL_TO.equals(comparison.getCompareOp())
+          || !(Long.class.equals(binding)
+              || Integer.class.equals(binding)
+              || Short.class.equals(binding)
+              || Byte.class.equals(binding))) {
+        return null;
+      }
+      final Object value =
+          getLiteral(field, comparison.getExpression1(), comparison.getExpression2());
+      // numeric equality is fuzzy, so only whole literals map to a single integral bin
+      if ((value instanceof Double)
+          && (Math.rint((Double) value) == (Double) value)
+          && (Math.abs((Double) value) < Long.MAX_VALUE)) {
+        return new ByteArray(Long.toString(((Double) value).longValue()));
+      }
+    }
+    return null;
+  }
+
+  private static Object getLiteral(
+      final String field,
+      final Expression<?> expression1,
+      final Expression<?> expression2) {
+    if ((expression1 instanceof FieldValue)
+        && field.equals(((FieldValue<?>) expression1).getFieldName())
+        && expression2.isLiteral()) {
+      return expression2.evaluateValue(null);
+    } else if ((expression2 instanceof FieldValue)
+        && field.equals(((FieldValue<?>) expression2).getFieldName())
+        && expression1.isLiteral()) {
+      return expression1.evaluateValue(null);
+    }
+    return null;
+  }
+
   protected static ByteArray[] getAllCombinations(final ByteArray[][] perFieldBins) {
     return BinningStrategyUtils.getAllCombinations(perFieldBins, FieldValueBinningStrategy::getBin);
   }
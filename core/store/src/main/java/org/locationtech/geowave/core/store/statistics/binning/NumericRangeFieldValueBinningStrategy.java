@@ -21,6 +21,8 @@ import org.apache.commons.lang3.Range;
 import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.index.lexicoder.Lexicoders;
 import org.locationtech.geowave.core.store.api.BinConstraints.ByteArrayConstraints;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
 import org.locationtech.geowave.core.store.statistics.query.BinConstraintsImpl.ExplicitConstraints;
 import com.beust.jcommander.Parameter;
 
@@ -106,6 +108,15 @@ public class NumericRangeFieldValueBinningStrategy extends FieldValueBinningStra
     return getNumericBin((Number) value);
   }
 
+  @Override
+  protected ByteArray getEqualityBin(
+      final DataTypeAdapter<?> adapter,
+      final String field,
+      final Filter filter) {
+    // a range bin holds more than the single value being compared
+    return null;
+  }
+
   private ByteArray getNumericBin(final Number value) {
     final long bin = (long) Math.floor(((value.doubleValue() + offset) / interval));
     return getBinId(bin);
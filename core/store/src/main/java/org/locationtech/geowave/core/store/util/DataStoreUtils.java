@@ -108,6 +108,13 @@ public class DataStoreUtils {
   public static HintKey<Integer> MAX_RANGE_DECOMPOSITION = new HintKey<>(Integer.class);
   public static HintKey<double[]> TARGET_RESOLUTION_PER_DIMENSION_FOR_HIERARCHICAL_INDEX =
       new HintKey<>(double[].class);
+  /**
+   * When set to {@code true}, aggregations that line up with a statistic are answered from the
+   * statistic rather than by scanning the data. The results can differ from a scan: range
+   * statistics such as numeric ranges and bounding boxes are not narrowed when entries are deleted,
+   * and statistics that were added without being computed only reflect entries written afterward.
+   */
+  public static HintKey<Boolean> AGGREGATE_FROM_STATISTICS = new HintKey<>(Boolean.class);
   // we append a 0 byte, 8 bytes of timestamp, and 16 bytes of UUID
   public static final int UNIQUE_ADDED_BYTES = 1 + 8 + 16;
   public static final byte UNIQUE_ID_DELIMITER = 0;
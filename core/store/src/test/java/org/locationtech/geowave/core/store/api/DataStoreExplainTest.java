@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.util.Collections;
+import java.util.List;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.numeric.BasicNumericDataset;
+import org.locationtech.geowave.core.index.numeric.MultiDimensionalNumericData;
+import org.locationtech.geowave.core.index.numeric.NumericData;
+import org.locationtech.geowave.core.index.numeric.NumericRange;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.adapter.BasicDataTypeAdapter;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveDataType;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveField;
+import org.locationtech.geowave.core.store.data.IndexedPersistenceEncoding;
+import org.locationtech.geowave.core.store.index.AttributeDimensionalityTypeProvider;
+import org.locationtech.geowave.core.store.index.CommonIndexModel;
+import org.locationtech.geowave.core.store.memory.MemoryRequiredOptions;
+import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
+import org.locationtech.geowave.core.store.query.filter.QueryFilter;
+
+public class DataStoreExplainTest {
+
+  private DataStore dataStore;
+  private DataTypeAdapter<ExplainTestType> adapter;
+  private Index selectiveIndex;
+  private Index unselectiveIndex;
+
+  @Before
+  public void createStore() {
+    dataStore = DataStoreFactory.createDataStore(new MemoryRequiredOptions());
+    adapter = BasicDataTypeAdapter.newAdapter("explain", ExplainTestType.class, "id");
+    selectiveIndex =
+        AttributeDimensionalityTypeProvider.createIndexForDescriptor(
+            adapter,
+            adapter.getFieldDescriptor("value"),
+            "selective");
+    unselectiveIndex =
+        AttributeDimensionalityTypeProvider.createIndexForDescriptor(
+            adapter,
+            adapter.getFieldDescriptor("flag"),
+            "unselective");
+    // add the unselective index first so it is not chosen just because it was the first candidate
+    dataStore.addType(adapter, unselectiveIndex, selectiveIndex);
+    try (Writer<ExplainTestType> writer = dataStore.createWriter(adapter.getTypeName())) {
+      for (int i = 0; i < 1000; i++) {
+        writer.write(new ExplainTestType(Integer.toString(i), (long) i, (long) (i % 2)));
+      }
+    }
+  }
+
+  @After
+  public void tearDown() {
+    dataStore.deleteAll();
+  }
+
+  @Test
+  public void testCheapestIndexIsSelected() {
+    final Query<ExplainTestType> query =
+        QueryBuilder.newBuilder(ExplainTestType.class).addTypeName(
+            adapter.getTypeName()).constraints(new ExplainTestQuery()).build();
+    final List<IndexCostEstimate> estimates = dataStore.explainIndexSelection(query);
+    assertEquals(2, estimates.size());
+    IndexCostEstimate selective = null;
+    IndexCostEstimate unselective = null;
+    for (final IndexCostEstimate estimate : estimates) {
+      assertTrue(estimate.isCostKnown());
+      assertFalse(estimate.isFullTableScan());
+      if (estimate.getIndex().getName().equals(selectiveIndex.getName())) {
+        selective = estimate;
+      } else {
+        unselective = estimate;
+      }
+    }
+    assertTrue(selective.getCost() < unselective.getCost());
+    assertTrue(selective.isSelected());
+    assertFalse(unselective.isSelected());
+
+    // the query itself should read from the selected index, which only constrains value
+    int count = 0;
+    try (CloseableIterator<ExplainTestType> it = dataStore.query(query)) {
+      while (it.hasNext()) {
+        final ExplainTestType next = it.next();
+        assertTrue((next.value >= 100) && (next.value <= 110));
+        count++;
+      }
+    }
+    assertEquals(11, count);
+  }
+
+  @Test
+  public void testFullTableScan() {
+    final List<IndexCostEstimate> estimates =
+        dataStore.explainIndexSelection(
+            QueryBuilder.newBuilder().addTypeName(adapter.getTypeName()).build());
+    assertEquals(2, estimates.size());
+    for (final IndexCostEstimate estimate : estimates) {
+      assertTrue(estimate.isFullTableScan());
+      assertEquals(1000, estimate.getEstimatedRows(), 0);
+    }
+  }
+
+  /**
+   * Constrains value to [100, 110] on the selective index and flag to 0 on the unselective index.
+   */
+  public static class ExplainTestQuery implements QueryConstraints {
+
+    @Override
+    public List<QueryFilter> createFilters(final Index index) {
+      return Collections.singletonList(new ExplainTestFilter());
+    }
+
+    @Override
+    public List<MultiDimensionalNumericData> getIndexConstraints(final Index index) {
+      final NumericRange range =
+          index.getName().equals("selective") ? new NumericRange(100, 110) : new NumericRange(0, 0);
+      return Collections.<MultiDimensionalNumericData>singletonList(
+          new BasicNumericDataset(new NumericData[] {range}));
+    }
+
+    @Override
+    public byte[] toBinary() {
+      return new byte[0];
+    }
+
+    @Override
+    public void fromBinary(final byte[] bytes) {}
+  }
+
+  public static class ExplainTestFilter implements QueryFilter {
+
+    @Override
+    public boolean accept(
+        final CommonIndexModel indexModel,
+        final IndexedPersistenceEncoding<?> persistenceEncoding) {
+      return true;
+    }
+
+    @Override
+    public byte[] toBinary() {
+      return new byte[0];
+    }
+
+    @Override
+    public void fromBinary(final byte[] bytes) {}
+  }
+
+  @GeoWaveDataType
+  public static class ExplainTestType {
+    @GeoWaveField
+    private String id;
+
+    @GeoWaveField
+    private Long value;
+
+    @GeoWaveField
+    private Long flag;
+
+    public ExplainTestType() {}
+
+    public ExplainTestType(final String id, final Long value, final Long flag) {
+      this.id = id;
+      this.value = value;
+      this.flag = flag;
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.api;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.BaseDataStoreOptions;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.DataStoreOptions;
+import org.locationtech.geowave.core.store.adapter.BasicDataTypeAdapter;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveDataType;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveField;
+import org.locationtech.geowave.core.store.base.BaseDataStore;
+import org.locationtech.geowave.core.store.base.BaseQueryOptions;
+import org.locationtech.geowave.core.store.index.AttributeDimensionalityTypeProvider;
+import org.locationtech.geowave.core.store.memory.MemoryFactoryHelper;
+import org.locationtech.geowave.core.store.memory.MemoryRequiredOptions;
+import org.locationtech.geowave.core.store.metadata.AdapterIndexMappingStoreImpl;
+import org.locationtech.geowave.core.store.metadata.AdapterStoreImpl;
+import org.locationtech.geowave.core.store.metadata.DataStatisticsStoreImpl;
+import org.locationtech.geowave.core.store.metadata.IndexStoreImpl;
+import org.locationtech.geowave.core.store.metadata.InternalAdapterStoreImpl;
+import org.locationtech.geowave.core.store.metadata.PropertyStoreImpl;
+import org.locationtech.geowave.core.store.operations.DataStoreOperations;
+import org.locationtech.geowave.core.store.query.constraints.IndexCombination;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
+import org.locationtech.geowave.core.store.query.filter.expression.numeric.NumericFieldValue;
+
+public class IndexCombinationQueryTest {
+  private static final int ENTRY_COUNT = 1000;
+
+  private CombinationCountingDataStore dataStore;
+  private DataTypeAdapter<CombinationTestType> adapter;
+
+  @Before
+  public void createStore() {
+    final MemoryRequiredOptions options = new MemoryRequiredOptions();
+    options.getStoreOptions().setSecondaryIndexing(true);
+    // a small batch size so that the combined data IDs are resolved over several batches
+    ((BaseDataStoreOptions) options.getStoreOptions()).setDataIndexBatchSize(50);
+    dataStore = new CombinationCountingDataStore(options);
+    adapter = BasicDataTypeAdapter.newAdapter("combination", CombinationTestType.class, "id");
+    final Index aIndex =
+        AttributeDimensionalityTypeProvider.createIndexForDescriptor(
+            adapter,
+            adapter.getFieldDescriptor("a"),
+            "aIdx");
+    final Index bIndex =
+        AttributeDimensionalityTypeProvider.createIndexForDescriptor(
+            adapter,
+            adapter.getFieldDescriptor("b"),
+            "bIdx");
+    dataStore.addType(adapter, aIndex, bIndex);
+    try (Writer<CombinationTestType> writer = dataStore.createWriter(adapter.getTypeName())) {
+      for (int i = 0; i < ENTRY_COUNT; i++) {
+        writer.write(
+            new CombinationTestType(
+                Integer.toString(i),
+                (long) (i % 10),
+                (long) (i % 7),
+                (long) i));
+      }
+    }
+  }
+
+  @After
+  public void tearDown() {
+    dataStore.deleteAll();
+  }
+
+  @Test
+  public void testIntersection() {
+    assertQuery(
+        NumericFieldValue.of("a").isEqualTo(3).and(NumericFieldValue.of("b").isEqualTo(2)),
+        e -> (e.a == 3) && (e.b == 2),
+        true);
+    assertQuery(
+        NumericFieldValue.of("a").isGreaterThan(7).and(
+            NumericFieldValue.of("b").isLessThanOrEqualTo(1)),
+        e -> (e.a > 7) && (e.b <= 1),
+        true);
+    // disjoint constraints should produce no results
+    assertQuery(
+        NumericFieldValue.of("a").isEqualTo(3).and(NumericFieldValue.of("a").isEqualTo(4)),
+        e -> false,
+        true);
+  }
+
+  @Test
+  public void testIntersectionWithResidualFilter() {
+    assertQuery(
+        NumericFieldValue.of("a").isEqualTo(3).and(
+            NumericFieldValue.of("b").isEqualTo(2),
+            NumericFieldValue.of("c").isLessThan(500)),
+        e -> (e.a == 3) && (e.b == 2) && (e.c < 500),
+        true);
+  }
+
+  @Test
+  public void testUnion() {
+    assertQuery(
+        NumericFieldValue.of("a").isEqualTo(3).or(NumericFieldValue.of("b").isEqualTo(2)),
+        e -> (e.a == 3) || (e.b == 2),
+        true);
+    // an unindexed child prevents the union, but results should be the same
+    assertQuery(
+        NumericFieldValue.of("a").isEqualTo(3).or(NumericFieldValue.of("c").isLessThan(10)),
+        e -> (e.a == 3) || (e.c < 10),
+        false);
+  }
+
+  private void assertQuery(
+      final Filter filter,
+      final Predicate<CombinationTestType> expected,
+      final boolean expectCombination) {
+    final int combinationsBefore = dataStore.combinationQueries.get();
+    int expectedCount = 0;
+    for (int i = 0; i < ENTRY_COUNT; i++) {
+      if (expected.test(
+          new CombinationTestType(
+              Integer.toString(i),
+              (long) (i % 10),
+              (long) (i % 7),
+              (long) i))) {
+        expectedCount++;
+      }
+    }
+    int count = 0;
+    try (CloseableIterator<CombinationTestType> it =
+        dataStore.query(
+            QueryBuilder.newBuilder(CombinationTestType.class).addTypeName(
+                adapter.getTypeName()).filter(filter).build())) {
+      while (it.hasNext()) {
+        assertTrue(expected.test(it.next()));
+        count++;
+      }
+    }
+    assertEquals(expectedCount, count);
+    assertEquals(
+        "Unexpected query plan",
+        expectCombination,
+        dataStore.combinationQueries.get() > combinationsBefore);
+  }
+
+  /**
+   * A memory data store that counts how many queries were answered by combining indices.
+   */
+  private static class CombinationCountingDataStore extends BaseDataStore {
+    private final AtomicInteger combinationQueries = new AtomicInteger(0);
+
+    private CombinationCountingDataStore(final MemoryRequiredOptions options) {
+      this(new MemoryFactoryHelper().createOperations(options), options.getStoreOptions());
+    }
+
+    private CombinationCountingDataStore(
+        final DataStoreOperations operations,
+        final DataStoreOptions options) {
+      super(
+          new IndexStoreImpl(operations, options),
+          new AdapterStoreImpl(operations, options),
+          new DataStatisticsStoreImpl(operations, options),
+          new AdapterIndexMappingStoreImpl(operations, options),
+          operations,
+          options,
+          new InternalAdapterStoreImpl(operations),
+          new PropertyStoreImpl(operations, options));
+    }
+
+    @Override
+    protected CloseableIterator<Object> queryIndexCombination(
+        final InternalDataAdapter<?> adapter,
+        final IndexCombination combination,
+        final BaseQueryOptions sanitizedQueryOptions) {
+      combinationQueries.incrementAndGet();
+      return super.queryIndexCombination(adapter, combination, sanitizedQueryOptions);
+    }
+  }
+
+  @GeoWaveDataType
+  public static class CombinationTestType {
+    @GeoWaveField
+    private String id;
+
+    @GeoWaveField
+    private Long a;
+
+    @GeoWaveField
+    private Long b;
+
+    @GeoWaveField
+    private Long c;
+
+    public CombinationTestType() {}
+
+    public CombinationTestType(final String id, final Long a, final Long b, final Long c) {
+      this.id = id;
+      this.a = a;
+      this.b = b;
+      this.c = c;
+    }
+  }
+}
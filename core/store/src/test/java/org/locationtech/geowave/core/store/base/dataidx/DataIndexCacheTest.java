@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.base.dataidx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.BaseDataStoreOptions;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.adapter.BasicDataTypeAdapter;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveDataType;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveField;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.DataStoreFactory;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.api.QueryBuilder;
+import org.locationtech.geowave.core.store.api.Writer;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
+import org.locationtech.geowave.core.store.index.AttributeDimensionalityTypeProvider;
+import org.locationtech.geowave.core.store.memory.MemoryRequiredOptions;
+import org.locationtech.geowave.core.store.query.filter.expression.numeric.NumericFieldValue;
+
+public class DataIndexCacheTest {
+  private static final short ADAPTER_ID = 1;
+  private static final byte[] DATA_ID = new byte[] {1, 2, 3};
+
+  @Test
+  public void testCoalesceAndCache() {
+    final DataIndexCache cache = new DataIndexCache(1024 * 1024, 60, 1);
+    final CompletableFuture<GeoWaveValue[]> first = new CompletableFuture<>();
+    final DataIndexCache.Retrieval retrieval = cache.startRetrieval(ADAPTER_ID, DATA_ID, "", first);
+    assertSame(first, retrieval.getFuture());
+
+    // a concurrent lookup with the same authorizations waits on the first retrieval
+    assertSame(first, cache.getInFlight(ADAPTER_ID, DATA_ID, ""));
+    assertSame(
+        first,
+        cache.startRetrieval(ADAPTER_ID, DATA_ID, "", new CompletableFuture<>()).getFuture());
+    // but one with other authorizations does not
+    assertNull(cache.getInFlight(ADAPTER_ID, DATA_ID, "a"));
+
+    final GeoWaveValue[] values = values();
+    cache.complete(retrieval, values);
+    assertNull(cache.getInFlight(ADAPTER_ID, DATA_ID, ""));
+    assertSame(values, cache.getIfPresent(ADAPTER_ID, DATA_ID, ""));
+    assertNull(cache.getIfPresent(ADAPTER_ID, DATA_ID, "a"));
+
+    cache.invalidate(ADAPTER_ID, DATA_ID);
+    assertNull(cache.getIfPresent(ADAPTER_ID, DATA_ID, ""));
+    cache.close();
+  }
+
+  @Test
+  public void testWriteDuringRetrievalIsNotCached() {
+    final DataIndexCache cache = new DataIndexCache(1024 * 1024, 60, 1);
+    final DataIndexCache.Retrieval retrieval =
+        cache.startRetrieval(ADAPTER_ID, DATA_ID, "", new CompletableFuture<>());
+    cache.invalidate(ADAPTER_ID, DATA_ID);
+    cache.complete(retrieval, values());
+    assertNull(cache.getIfPresent(ADAPTER_ID, DATA_ID, ""));
+    cache.close();
+  }
+
+  @Test
+  public void testCachedValuesExpire() {
+    final AtomicLong nanos = new AtomicLong(0);
+    final DataIndexCache cache = new DataIndexCache(1024 * 1024, 60, 1, nanos::get);
+    final DataIndexCache.Retrieval retrieval =
+        cache.startRetrieval(ADAPTER_ID, DATA_ID, "", new CompletableFuture<>());
+    final GeoWaveValue[] values = values();
+    cache.complete(retrieval, values);
+    assertSame(values, cache.getIfPresent(ADAPTER_ID, DATA_ID, ""));
+
+    // writes by other processes are not seen, so values must not be served indefinitely
+    nanos.addAndGet(TimeUnit.SECONDS.toNanos(61));
+    assertNull(cache.getIfPresent(ADAPTER_ID, DATA_ID, ""));
+    cache.close();
+  }
+
+  @Test
+  public void testUpdatesAreVisibleThroughSecondaryIndex() {
+    final MemoryRequiredOptions options = new MemoryRequiredOptions();
+    options.getStoreOptions().setSecondaryIndexing(true);
+    // the cache is disabled by default
+    ((BaseDataStoreOptions) options.getStoreOptions()).setDataIndexCacheSizeMB(64);
+    final DataStore dataStore = DataStoreFactory.createDataStore(options);
+    final DataTypeAdapter<CacheTestType> adapter =
+        BasicDataTypeAdapter.newAdapter("cacheTest", CacheTestType.class, "id");
+    final Index index =
+        AttributeDimensionalityTypeProvider.createIndexForDescriptor(
+            adapter,
+            adapter.getFieldDescriptor("value"),
+            "value_idx");
+    dataStore.addType(adapter, index);
+    try (Writer<CacheTestType> writer = dataStore.createWriter(adapter.getTypeName())) {
+      for (int i = 0; i < 100; i++) {
+        writer.write(new CacheTestType(Integer.toString(i), (long) i, "original"));
+      }
+    }
+    // query twice so that the second query is answered from the cache
+    assertEquals("original", queryLabel(dataStore, 50));
+    assertEquals("original", queryLabel(dataStore, 50));
+
+    try (Writer<CacheTestType> writer = dataStore.createWriter(adapter.getTypeName())) {
+      writer.write(new CacheTestType("50", 50L, "updated"));
+    }
+    assertEquals("updated", queryLabel(dataStore, 50));
+
+    dataStore.delete(
+        QueryBuilder.newBuilder(CacheTestType.class).addTypeName(adapter.getTypeName()).filter(
+            NumericFieldValue.of("value").isEqualTo(50)).build());
+    assertNull(queryLabel(dataStore, 50));
+    dataStore.deleteAll();
+  }
+
+  private static String queryLabel(final DataStore dataStore, final long value) {
+    try (CloseableIterator<CacheTestType> it =
+        dataStore.query(
+            QueryBuilder.newBuilder(CacheTestType.class).addTypeName("cacheTest").filter(
+                NumericFieldValue.of("value").isEqualTo(value)).build())) {
+      if (it.hasNext()) {
+        final CacheTestType result = it.next();
+        assertNotNull(result);
+        return result.label;
+      }
+    }
+    return null;
+  }
+
+  private static GeoWaveValue[] values() {
+    return new GeoWaveValue[] {new GeoWaveValueImpl(new byte[] {1}, new byte[0], new byte[16])};
+  }
+
+  @GeoWaveDataType
+  public static class CacheTestType {
+    @GeoWaveField
+    private String id;
+
+    @GeoWaveField
+    private Long value;
+
+    @GeoWaveField
+    private String label;
+
+    public CacheTestType() {}
+
+    public CacheTestType(final String id, final Long value, final String label) {
+      this.id = id;
+      this.value = value;
+      this.label = label;
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.ingest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class LineRangeReaderTest {
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testEveryLineIsReadOnce() throws IOException {
+    final List<String> expected = new ArrayList<>();
+    final StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      // vary the line lengths so that split boundaries fall everywhere within lines
+      final StringBuilder line = new StringBuilder("line" + i);
+      for (int j = 0; j < (i % 7); j++) {
+        line.append(",é");
+      }
+      expected.add(line.toString());
+      content.append(line).append((i % 3) == 0 ? "\r\n" : "\n");
+    }
+    final File file = tempFolder.newFile("lines.txt");
+    Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+    final URL url = file.toURI().toURL();
+    final long length = file.length();
+    for (final long splitSize : new long[] {1, 2, 3, 17, 100, length - 1, length, length + 1}) {
+      final List<String> lines = new ArrayList<>();
+      for (long start = 0; start < length; start += splitSize) {
+        try (LineRangeReader reader =
+            new LineRangeReader(
+                url,
+                start,
+                Math.min(start + splitSize, length),
+                StandardCharsets.UTF_8)) {
+          String line;
+          while ((line = reader.readLine()) != null) {
+            lines.add(line);
+          }
+        }
+      }
+      assertEquals("Split size " + splitSize, expected, lines);
+    }
+  }
+
+  @Test
+  public void testLastLineWithoutTerminator() throws IOException {
+    final File file = tempFolder.newFile("noterminator.txt");
+    Files.write(file.toPath(), "a\nbc\ndef".getBytes(StandardCharsets.UTF_8));
+    final URL url = file.toURI().toURL();
+    try (LineRangeReader reader = new LineRangeReader(url, 3, 6, StandardCharsets.UTF_8)) {
+      // the range starts within "bc" so the first line read is "def"
+      assertEquals("def", reader.readLine());
+      assertEquals(5, reader.getLineStart());
+      assertNull(reader.readLine());
+    }
+    try (LineRangeReader reader = new LineRangeReader(url, 0, 2, StandardCharsets.UTF_8)) {
+      assertEquals("a", reader.readLine());
+      assertNull(reader.readLine());
+    }
+  }
+}
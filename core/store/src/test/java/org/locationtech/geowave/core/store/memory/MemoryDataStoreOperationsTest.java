@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.memory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.index.QueryRanges;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.base.dataidx.DataIndexUtils;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.core.store.operations.ReaderParams;
+import org.locationtech.geowave.core.store.operations.RowReader;
+import org.locationtech.geowave.core.store.operations.RowWriter;
+import com.google.common.primitives.UnsignedBytes;
+
+public class MemoryDataStoreOperationsTest {
+  private static final Index INDEX = DataIndexUtils.DATA_ID_INDEX;
+  private static final short ADAPTER_ID = 1;
+
+  @Test
+  public void testConcurrentWriteAndRangeRead() throws Exception {
+    final MemoryDataStoreOperations operations = new MemoryDataStoreOperations();
+    final int writers = 4;
+    final int rowsPerWriter = 2000;
+    final ExecutorService executor = Executors.newFixedThreadPool(writers + 2);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        final int writer = w;
+        futures.add(executor.submit(() -> {
+          final RowWriter rowWriter = operations.createWriter(INDEX, null);
+          for (int i = writer; i < (writers * rowsPerWriter); i += writers) {
+            rowWriter.write(row(i));
+          }
+        }));
+      }
+      for (int r = 0; r < 2; r++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 50; i++) {
+            // ranges are read while writers are still inserting, results must still be ordered
+            assertSorted(read(operations, range(100, 500)));
+          }
+        }));
+      }
+      for (final Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(writers * rowsPerWriter, read(operations, null).size());
+    assertEquals(401, read(operations, range(100, 500)).size());
+
+    // rewriting the same rows replaces them rather than adding duplicates
+    final RowWriter rowWriter = operations.createWriter(INDEX, null);
+    for (int i = 0; i < 10; i++) {
+      rowWriter.write(row(i));
+    }
+    assertEquals(writers * rowsPerWriter, read(operations, null).size());
+
+    operations.createRowDeleter(INDEX.getName(), null, null).delete(row(200));
+    assertEquals(400, read(operations, range(100, 500)).size());
+  }
+
+  private static void assertSorted(final List<GeoWaveRow> rows) {
+    for (int i = 1; i < rows.size(); i++) {
+      assertTrue(
+          UnsignedBytes.lexicographicalComparator().compare(
+              rows.get(i - 1).getSortKey(),
+              rows.get(i).getSortKey()) < 0);
+    }
+  }
+
+  private static GeoWaveRow row(final int i) {
+    final byte[] id = ByteBuffer.allocate(4).putInt(i).array();
+    return new GeoWaveRowImpl(
+        new GeoWaveKeyImpl(id, ADAPTER_ID, new byte[0], id, 0),
+        new GeoWaveValue[0]);
+  }
+
+  private static QueryRanges range(final int start, final int end) {
+    return new QueryRanges(
+        new ByteArrayRange(
+            ByteBuffer.allocate(4).putInt(start).array(),
+            ByteBuffer.allocate(4).putInt(end).array()));
+  }
+
+  private static List<GeoWaveRow> read(
+      final MemoryDataStoreOperations operations,
+      final QueryRanges ranges) {
+    final List<GeoWaveRow> rows = new ArrayList<>();
+    try (RowReader<GeoWaveRow> reader =
+        operations.createReader(
+            new ReaderParams<>(
+                INDEX,
+                null,
+                null,
+                null,
+                new short[] {ADAPTER_ID},
+                null,
+                null,
+                null,
+                false,
+                false,
+                false,
+                false,
+                ranges == null ? new QueryRanges() : ranges,
+                null,
+                null,
+                null,
+                null,
+                null,
+                GeoWaveRowIteratorTransformer.NO_OP_TRANSFORMER,
+                new String[0]))) {
+      reader.forEachRemaining(rows::add);
+    }
+    return rows;
+  }
+}
@@ -12,15 +12,20 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Test;
 import org.locationtech.geowave.core.index.numeric.BasicNumericDataset;
 import org.locationtech.geowave.core.index.numeric.MultiDimensionalNumericData;
 import org.locationtech.geowave.core.index.numeric.NumericData;
 import org.locationtech.geowave.core.index.numeric.NumericRange;
+import org.locationtech.geowave.core.store.BaseDataStoreOptions;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.StoreFactoryFamilySpi;
 import org.locationtech.geowave.core.store.adapter.MockComponents;
@@ -32,12 +37,17 @@ import org.locationtech.geowave.core.store.api.QueryBuilder;
 import org.locationtech.geowave.core.store.api.Statistic;
 import org.locationtech.geowave.core.store.api.StatisticValue;
 import org.locationtech.geowave.core.store.api.VisibilityHandler;
+import org.locationtech.geowave.core.store.api.WriteResults;
 import org.locationtech.geowave.core.store.api.Writer;
 import org.locationtech.geowave.core.store.data.CommonIndexedPersistenceEncoding;
 import org.locationtech.geowave.core.store.data.IndexedPersistenceEncoding;
 import org.locationtech.geowave.core.store.data.visibility.GlobalVisibilityHandler;
+import org.locationtech.geowave.core.store.entities.GeoWaveMetadata;
 import org.locationtech.geowave.core.store.index.CommonIndexModel;
 import org.locationtech.geowave.core.store.index.IndexImpl;
+import org.locationtech.geowave.core.store.operations.DataStoreOperations;
+import org.locationtech.geowave.core.store.operations.MetadataQuery;
+import org.locationtech.geowave.core.store.operations.MetadataType;
 import org.locationtech.geowave.core.store.query.constraints.DataIdQuery;
 import org.locationtech.geowave.core.store.query.constraints.QueryConstraints;
 import org.locationtech.geowave.core.store.query.filter.QueryFilter;
@@ -152,6 +162,268 @@ public class MemoryDataStoreTest {
     }
   }
 
+  @Test
+  public void testBatchWrite() throws IOException {
+    final Index index1 =
+        new IndexImpl(
+            new MockComponents.MockIndexStrategy(),
+            new MockComponents.TestIndexModel("tm1"));
+    final Index index2 =
+        new IndexImpl(
+            new MockComponents.MockIndexStrategy(),
+            new MockComponents.TestIndexModel("tm2"));
+    final String namespace = "test3_" + getClass().getName();
+    final StoreFactoryFamilySpi storeFamily = new MemoryStoreFactoryFamily();
+    final MemoryRequiredOptions opts = new MemoryRequiredOptions();
+    opts.setGeoWaveNamespace(namespace);
+    final DataStore dataStore = storeFamily.getDataStoreFactory().createStore(opts);
+    final DataStatisticsStore statsStore =
+        storeFamily.getDataStatisticsStoreFactory().createStore(opts);
+    final DataTypeAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+
+    final VisibilityHandler visHandler = new GlobalVisibilityHandler("aaa&bbb");
+    final List<Statistic<?>> statistics = Lists.newArrayList();
+    statistics.add(new CountStatistic(adapter.getTypeName()));
+    statistics.add(
+        new NumericRangeStatistic(adapter.getTypeName(), MockAbstractDataAdapter.INTEGER));
+    dataStore.addType(adapter, statistics, index1, index2);
+
+    final List<Integer> entries = new ArrayList<>();
+    for (int i = 0; i < 2500; i++) {
+      entries.add(i);
+    }
+    try (final Writer<Integer> indexWriter = dataStore.createWriter(adapter.getTypeName())) {
+      final WriteResults results = indexWriter.writeAll(entries, visHandler);
+      assertEquals(2, results.getWrittenIndexNames().size());
+      assertFalse(results.getInsertionIdsWritten(index1.getName()).isEmpty());
+      assertFalse(results.getInsertionIdsWritten(index2.getName()).isEmpty());
+      indexWriter.writeAll(new Integer[] {2500, 2501}, visHandler);
+    }
+
+    for (final Index index : new Index[] {index1, index2}) {
+      try (CloseableIterator<?> itemIt =
+          dataStore.query(
+              QueryBuilder.newBuilder().addTypeName(adapter.getTypeName()).indexName(
+                  index.getName()).addAuthorization("aaa").addAuthorization("bbb").constraints(
+                      new TestQuery(999.5, 1999.5)).build())) {
+        int count = 0;
+        while (itemIt.hasNext()) {
+          itemIt.next();
+          count++;
+        }
+        assertEquals(1000, count);
+      }
+    }
+    try (CloseableIterator<? extends Statistic<? extends StatisticValue<?>>> statsIt =
+        statsStore.getAllStatistics(null)) {
+      try (CloseableIterator<? extends StatisticValue<?>> statisticValues =
+          statsStore.getStatisticValues(statsIt, null, "aaa", "bbb")) {
+        assertTrue(checkStats(statisticValues, 2502, new NumericRange(0, 2501)));
+      }
+    }
+  }
+
+  @Test
+  public void testConcurrentStatistics() throws Exception {
+    final Index index =
+        new IndexImpl(new MockComponents.MockIndexStrategy(), new MockComponents.TestIndexModel());
+    final String namespace = "test4_" + getClass().getName();
+    final StoreFactoryFamilySpi storeFamily = new MemoryStoreFactoryFamily();
+    final MemoryRequiredOptions opts = new MemoryRequiredOptions();
+    opts.setGeoWaveNamespace(namespace);
+    ((BaseDataStoreOptions) opts.getStoreOptions()).setCompactStatistics(true);
+    final DataStore dataStore = storeFamily.getDataStoreFactory().createStore(opts);
+    final DataStatisticsStore statsStore =
+        storeFamily.getDataStatisticsStoreFactory().createStore(opts);
+    final DataStoreOperations operations =
+        storeFamily.getDataStoreOperationsFactory().createStore(opts);
+    final DataTypeAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+
+    final VisibilityHandler visHandler = new GlobalVisibilityHandler("aaa&bbb");
+    final List<Statistic<?>> statistics = Lists.newArrayList();
+    statistics.add(new CountStatistic(adapter.getTypeName()));
+    statistics.add(
+        new NumericRangeStatistic(adapter.getTypeName(), MockAbstractDataAdapter.INTEGER));
+    dataStore.addType(adapter, statistics, index);
+
+    final int numThreads = 4;
+    final int entriesPerThread = 500;
+    final ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+    try (final Writer<Integer> indexWriter = dataStore.createWriter(adapter.getTypeName())) {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < numThreads; t++) {
+        final int offset = t * entriesPerThread;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < entriesPerThread; i++) {
+            indexWriter.write(offset + i, visHandler);
+            if ((i % 10) == 0) {
+              indexWriter.flush();
+            }
+          }
+        }));
+      }
+      for (final Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    try (CloseableIterator<? extends Statistic<? extends StatisticValue<?>>> statsIt =
+        statsStore.getAllStatistics(null)) {
+      try (CloseableIterator<? extends StatisticValue<?>> statisticValues =
+          statsStore.getStatisticValues(statsIt, null, "aaa", "bbb")) {
+        assertTrue(
+            checkStats(
+                statisticValues,
+                numThreads * entriesPerThread,
+                new NumericRange(0, (numThreads * entriesPerThread) - 1)));
+      }
+    }
+    // the partial values from the many flushes should have been compacted in the background
+    int valueRows = 0;
+    try (CloseableIterator<GeoWaveMetadata> it =
+        operations.createMetadataReader(MetadataType.STATISTIC_VALUES).query(new MetadataQuery())) {
+      while (it.hasNext()) {
+        it.next();
+        valueRows++;
+      }
+    }
+    assertTrue(valueRows < ((numThreads * entriesPerThread) / 10));
+  }
+
+  @Test
+  public void testCompactStatisticValues() throws IOException {
+    final Index index =
+        new IndexImpl(new MockComponents.MockIndexStrategy(), new MockComponents.TestIndexModel());
+    final String namespace = "test6_" + getClass().getName();
+    final StoreFactoryFamilySpi storeFamily = new MemoryStoreFactoryFamily();
+    final MemoryRequiredOptions opts = new MemoryRequiredOptions();
+    opts.setGeoWaveNamespace(namespace);
+    final DataStore dataStore = storeFamily.getDataStoreFactory().createStore(opts);
+    final DataStatisticsStore statsStore =
+        storeFamily.getDataStatisticsStoreFactory().createStore(opts);
+    final DataStoreOperations operations =
+        storeFamily.getDataStoreOperationsFactory().createStore(opts);
+    final DataTypeAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+    final CountStatistic countStat = new CountStatistic(adapter.getTypeName());
+    dataStore.addType(adapter, Collections.singletonList(countStat), index);
+
+    // compaction is not enabled, so every flush leaves a partial value
+    try (final Writer<Integer> indexWriter = dataStore.createWriter(adapter.getTypeName())) {
+      for (int i = 0; i < 40; i++) {
+        indexWriter.write(i);
+        indexWriter.flush();
+      }
+    }
+    assertTrue(countValueRows(operations, countStat) > 1);
+    assertEquals(40L, statsStore.getStatisticValue(countStat).getValue().longValue());
+
+    assertTrue(statsStore.compactStatisticValues(countStat));
+    assertEquals(1, countValueRows(operations, countStat));
+    assertEquals(40L, statsStore.getStatisticValue(countStat).getValue().longValue());
+    assertFalse(statsStore.compactStatisticValues(countStat));
+  }
+
+  private static int countValueRows(
+      final DataStoreOperations operations,
+      final Statistic<?> statistic) {
+    int valueRows = 0;
+    try (CloseableIterator<GeoWaveMetadata> it =
+        operations.createMetadataReader(MetadataType.STATISTIC_VALUES).query(
+            new MetadataQuery(
+                statistic.getId().getUniqueId().getBytes(),
+                statistic.getId().getGroupId().getBytes(),
+                false))) {
+      while (it.hasNext()) {
+        it.next();
+        valueRows++;
+      }
+    }
+    return valueRows;
+  }
+
+  @Test
+  public void testStatisticValueCache() throws IOException {
+    final Index index =
+        new IndexImpl(new MockComponents.MockIndexStrategy(), new MockComponents.TestIndexModel());
+    final String namespace = "test5_" + getClass().getName();
+    final StoreFactoryFamilySpi storeFamily = new MemoryStoreFactoryFamily();
+    final MemoryRequiredOptions opts = new MemoryRequiredOptions();
+    opts.setGeoWaveNamespace(namespace);
+    final DataStore dataStore = storeFamily.getDataStoreFactory().createStore(opts);
+    final DataStatisticsStore statsStore =
+        storeFamily.getDataStatisticsStoreFactory().createStore(opts);
+    final DataTypeAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+    final CountStatistic countStat = new CountStatistic(adapter.getTypeName());
+    dataStore.addType(adapter, Collections.singletonList(countStat), index);
+
+    try (final Writer<Integer> indexWriter = dataStore.createWriter(adapter.getTypeName())) {
+      indexWriter.write(new Integer(25));
+    }
+    final CountValue first = statsStore.getStatisticValue(countStat);
+    assertEquals(1L, first.getValue().longValue());
+    // values are copies, so changing one must not change the cached value
+    first.merge(first);
+    assertEquals(1L, statsStore.getStatisticValue(countStat).getValue().longValue());
+
+    // writes through another store must invalidate the cached value
+    try (final Writer<Integer> indexWriter = dataStore.createWriter(adapter.getTypeName())) {
+      indexWriter.write(new Integer(35));
+    }
+    assertEquals(2L, statsStore.getStatisticValue(countStat).getValue().longValue());
+
+    dataStore.delete(
+        QueryBuilder.newBuilder().addTypeName(adapter.getTypeName()).indexName(
+            index.getName()).constraints(new TestQuery(23, 26)).build());
+    assertEquals(1L, statsStore.getStatisticValue(countStat).getValue().longValue());
+  }
+
+  @Test
+  public void testBatchWriteSinglePassIterable() throws IOException {
+    final Index index1 =
+        new IndexImpl(
+            new MockComponents.MockIndexStrategy(),
+            new MockComponents.TestIndexModel("tm1"));
+    final Index index2 =
+        new IndexImpl(
+            new MockComponents.MockIndexStrategy(),
+            new MockComponents.TestIndexModel("tm2"));
+    final String namespace = "test7_" + getClass().getName();
+    final StoreFactoryFamilySpi storeFamily = new MemoryStoreFactoryFamily();
+    final MemoryRequiredOptions opts = new MemoryRequiredOptions();
+    opts.setGeoWaveNamespace(namespace);
+    final DataStore dataStore = storeFamily.getDataStoreFactory().createStore(opts);
+    final DataTypeAdapter<Integer> adapter = new MockComponents.MockAbstractDataAdapter();
+    dataStore.addType(adapter, index1, index2);
+
+    final List<Integer> entries = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      entries.add(i);
+    }
+    // an iterable that can only be iterated once, such as one backed by a stream
+    final Iterator<Integer> entryIt = entries.iterator();
+    final Iterable<Integer> singlePass = () -> entryIt;
+    try (final Writer<Integer> indexWriter = dataStore.createWriter(adapter.getTypeName())) {
+      indexWriter.writeAll(singlePass, new GlobalVisibilityHandler("aaa"));
+    }
+
+    for (final Index index : new Index[] {index1, index2}) {
+      try (CloseableIterator<?> itemIt =
+          dataStore.query(
+              QueryBuilder.newBuilder().addTypeName(adapter.getTypeName()).indexName(
+                  index.getName()).addAuthorization("aaa").constraints(
+                      new TestQuery(-0.5, 99.5)).build())) {
+        int count = 0;
+        while (itemIt.hasNext()) {
+          itemIt.next();
+          count++;
+        }
+        assertEquals(100, count);
+      }
+    }
+  }
+
   @Test
   public void testMultipleIndices() throws IOException {
     final Index index1 =
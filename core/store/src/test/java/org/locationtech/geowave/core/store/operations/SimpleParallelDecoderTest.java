@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import com.google.common.collect.Iterators;
+
+public class SimpleParallelDecoderTest {
+  private static final GeoWaveRowIteratorTransformer<Integer> DECODE_ID =
+      rows -> Iterators.transform(rows, r -> ByteBuffer.wrap(r.getDataId()).getInt());
+
+  @Test
+  public void testDecodesEveryRow() throws Exception {
+    final int rowCount = 100000;
+    final BitSet seen = new BitSet(rowCount);
+    try (SimpleParallelDecoder<Integer> decoder =
+        new SimpleParallelDecoder<>(DECODE_ID, rows(rowCount, new AtomicInteger()))) {
+      decoder.startDecode();
+      while (decoder.hasNext()) {
+        final int id = decoder.next();
+        assertTrue("row " + id + " decoded twice", !seen.get(id));
+        seen.set(id);
+      }
+    }
+    assertEquals(rowCount, seen.cardinality());
+  }
+
+  @Test
+  public void testCloseStopsDecoding() throws Exception {
+    final AtomicInteger produced = new AtomicInteger();
+    final SimpleParallelDecoder<Integer> decoder =
+        new SimpleParallelDecoder<>(DECODE_ID, rows(Integer.MAX_VALUE, produced));
+    decoder.startDecode();
+    for (int i = 0; i < 10; i++) {
+      decoder.next();
+    }
+    decoder.close();
+    Thread.sleep(100);
+    final int afterClose = produced.get();
+    Thread.sleep(100);
+    // once in flight batches have finished, no more rows are taken from the source
+    assertEquals(afterClose, produced.get());
+  }
+
+  @Test
+  public void testSourceException() throws Exception {
+    final Iterator<GeoWaveRow> failing =
+        Iterators.concat(rows(1000, new AtomicInteger()), new Iterator<GeoWaveRow>() {
+          @Override
+          public boolean hasNext() {
+            return true;
+          }
+
+          @Override
+          public GeoWaveRow next() {
+            throw new IllegalStateException("source failure");
+          }
+        });
+    try (SimpleParallelDecoder<Integer> decoder = new SimpleParallelDecoder<>(DECODE_ID, failing)) {
+      decoder.startDecode();
+      while (decoder.hasNext()) {
+        decoder.next();
+      }
+      fail("Expected the source exception to be rethrown");
+    } catch (final RuntimeException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+  }
+
+  private static Iterator<GeoWaveRow> rows(final int count, final AtomicInteger produced) {
+    return new Iterator<GeoWaveRow>() {
+      private int next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < count;
+      }
+
+      @Override
+      public GeoWaveRow next() {
+        produced.incrementAndGet();
+        final byte[] id = ByteBuffer.allocate(4).putInt(next++).array();
+        return new GeoWaveRowImpl(
+            new GeoWaveKeyImpl(id, (short) 1, new byte[0], new byte[0], 0),
+            new GeoWaveValue[0]);
+      }
+    };
+  }
+}
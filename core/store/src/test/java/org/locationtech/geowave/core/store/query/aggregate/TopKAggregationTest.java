@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.aggregate;
+
+import static org.junit.Assert.assertEquals;
+import java.util.List;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.adapter.BasicDataTypeAdapter;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveDataType;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveField;
+import org.locationtech.geowave.core.store.api.DataTypeAdapter;
+import com.google.common.collect.Lists;
+
+public class TopKAggregationTest extends AbstractAggregationTest {
+
+  @Test
+  public void testTopK() {
+    final DataTypeAdapter<TopKTestType> adapter =
+        BasicDataTypeAdapter.newAdapter("type", TopKTestType.class, "id");
+    final List<TopKTestType> entries = Lists.newArrayList();
+    for (int i = 0; i < 20; i++) {
+      entries.add(new TopKTestType("id" + i, (long) ((i * 7) % 20), i % 3 == 0 ? null : "v" + i));
+    }
+    List<TopKTestType> result =
+        aggregateObjects(
+            adapter,
+            new TopKAggregation<>(adapter, new String[] {"value"}, new boolean[] {true}, 3),
+            entries);
+    assertEquals(3, result.size());
+    assertEquals(19L, (long) result.get(0).value);
+    assertEquals(18L, (long) result.get(1).value);
+    assertEquals(17L, (long) result.get(2).value);
+
+    result =
+        aggregateObjects(
+            adapter,
+            new TopKAggregation<>(adapter, new String[] {"value"}, new boolean[] {false}, 2),
+            entries);
+    assertEquals(2, result.size());
+    assertEquals(0L, (long) result.get(0).value);
+    assertEquals(1L, (long) result.get(1).value);
+
+    // null values are ordered first and survive serialization
+    result =
+        aggregateObjects(
+            adapter,
+            new TopKAggregation<>(adapter, new String[] {"comment"}, new boolean[] {false}, 10),
+            entries);
+    assertEquals(10, result.size());
+    for (int i = 0; i < 7; i++) {
+      assertEquals(null, result.get(i).comment);
+    }
+    assertEquals("v1", result.get(7).comment);
+  }
+
+  @GeoWaveDataType
+  protected static class TopKTestType {
+    @GeoWaveField
+    private String id;
+
+    @GeoWaveField
+    private Long value;
+
+    @GeoWaveField
+    private String comment;
+
+    public TopKTestType() {}
+
+    public TopKTestType(final String id, final Long value, final String comment) {
+      this.id = id;
+      this.value = value;
+      this.comment = comment;
+    }
+  }
+}
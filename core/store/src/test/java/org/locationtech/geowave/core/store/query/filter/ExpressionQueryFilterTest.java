@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.core.store.query.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.Collections;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.StringUtils;
+import org.locationtech.geowave.core.index.persist.PersistenceUtils;
+import org.locationtech.geowave.core.store.AdapterToIndexMapping;
+import org.locationtech.geowave.core.store.adapter.AbstractDataTypeAdapterTest.TestTypeBasicDataAdapter;
+import org.locationtech.geowave.core.store.adapter.IndexedAdapterPersistenceEncoding;
+import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
+import org.locationtech.geowave.core.store.data.MultiFieldPersistentDataset;
+import org.locationtech.geowave.core.store.data.PersistentDataset;
+import org.locationtech.geowave.core.store.dimension.NumericDimensionField;
+import org.locationtech.geowave.core.store.index.BasicIndexModel;
+import org.locationtech.geowave.core.store.index.CommonIndexModel;
+import org.locationtech.geowave.core.store.query.BasicQueryByClassTest;
+import org.locationtech.geowave.core.store.query.filter.expression.Filter;
+import org.locationtech.geowave.core.store.query.filter.expression.numeric.NumericFieldValue;
+import org.locationtech.geowave.core.store.query.filter.expression.text.TextFieldValue;
+
+public class ExpressionQueryFilterTest {
+  private static final InternalDataAdapter<?> ADAPTER =
+      new TestTypeBasicDataAdapter("test").asInternalAdapter((short) 1);
+  private static final AdapterToIndexMapping MAPPING =
+      new AdapterToIndexMapping((short) 1, "testIndex", Collections.emptyList());
+  private static final CommonIndexModel MODEL =
+      new BasicIndexModel(
+          new NumericDimensionField[] {new BasicQueryByClassTest.ExampleDimensionOne()});
+
+  @Test
+  public void testFieldsAreDecodedLazily() {
+    // the cheaper numeric predicate should be evaluated first even though it is listed last
+    final Filter filter =
+        TextFieldValue.of("name").startsWith("a").and(
+            NumericFieldValue.of("doubleField").isGreaterThan(5));
+    final ExpressionQueryFilter<?> queryFilter =
+        new ExpressionQueryFilter<>(filter, ADAPTER, MAPPING);
+
+    IndexedAdapterPersistenceEncoding encoding = encode("abc", 1.0);
+    assertFalse(queryFilter.accept(MODEL, encoding));
+    assertEquals(1.0, encoding.getAdapterExtendedData().getValue("doubleField"));
+    assertNull(encoding.getAdapterExtendedData().getValue("name"));
+    // decoded values should no longer be held in their encoded form
+    assertNull(encoding.getUnknownData().getValue("doubleField"));
+    assertNotNull(encoding.getUnknownData().getValue("name"));
+
+    encoding = encode("abc", 10.0);
+    assertTrue(queryFilter.accept(MODEL, encoding));
+    assertEquals("abc", encoding.getAdapterExtendedData().getValue("name"));
+
+    encoding = encode("xyz", 10.0);
+    assertFalse(queryFilter.accept(MODEL, encoding));
+
+    // the compiled filter is not persisted, so a deserialized filter should behave the same
+    final ExpressionQueryFilter<?> deserialized =
+        (ExpressionQueryFilter<?>) PersistenceUtils.fromBinary(
+            PersistenceUtils.toBinary(queryFilter));
+    assertTrue(deserialized.accept(MODEL, encode("abc", 10.0)));
+    assertFalse(deserialized.accept(MODEL, encode("abc", 1.0)));
+    assertEquals(filter.toString(), deserialized.getFilter().toString());
+  }
+
+  @Test
+  public void testMissingFields() {
+    final ExpressionQueryFilter<?> queryFilter =
+        new ExpressionQueryFilter<>(
+            NumericFieldValue.of("doubleField").isNull().or(
+                TextFieldValue.of("name").isEqualTo("abc")),
+            ADAPTER,
+            MAPPING);
+    assertTrue(queryFilter.accept(MODEL, encode("abc", null)));
+    assertTrue(queryFilter.accept(MODEL, encode("xyz", null)));
+    assertFalse(queryFilter.accept(MODEL, encode("xyz", 1.0)));
+    assertTrue(queryFilter.accept(MODEL, encode("abc", 1.0)));
+  }
+
+  private static IndexedAdapterPersistenceEncoding encode(final String name, final Double value) {
+    final PersistentDataset<byte[]> unknownData = new MultiFieldPersistentDataset<>();
+    unknownData.addValue("name", StringUtils.stringToBinary(name));
+    if (value != null) {
+      unknownData.addValue("doubleField", ADAPTER.getWriter("doubleField").writeField(value));
+    }
+    return new IndexedAdapterPersistenceEncoding(
+        (short) 1,
+        StringUtils.stringToBinary(name),
+        new byte[0],
+        new byte[0],
+        0,
+        new MultiFieldPersistentDataset<>(),
+        unknownData,
+        new MultiFieldPersistentDataset<>());
+  }
+}
@@ -20,6 +20,7 @@ import org.locationtech.geowave.core.store.adapter.BasicDataTypeAdapter;
 import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveDataType;
 import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveField;
 import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.Writer;
 import org.locationtech.geowave.core.store.query.filter.expression.And;
 import org.locationtech.geowave.core.store.query.filter.expression.Filter;
 import org.locationtech.geowave.core.store.query.filter.expression.numeric.NumericBetween;
@@ -27,6 +28,9 @@ import org.locationtech.geowave.core.store.query.filter.expression.text.TextComp
 import org.locationtech.geowave.core.store.query.gwql.parse.GWQLParser;
 import org.locationtech.geowave.core.store.query.gwql.statement.SelectStatement;
 import org.locationtech.geowave.core.store.query.gwql.statement.Statement;
+import org.locationtech.geowave.core.store.statistics.adapter.CountStatistic;
+import org.locationtech.geowave.core.store.statistics.binning.FieldValueBinningStrategy;
+import org.locationtech.geowave.core.store.statistics.field.NumericRangeStatistic;
 
 public class SelectStatementTest extends AbstractGWQLTest {
   @Test
@@ -47,7 +51,27 @@ public class SelectStatementTest extends AbstractGWQLTest {
     // No selectors
     assertInvalidStatement(dataStore, "SELECT FROM type", "expecting {'*', IDENTIFIER}");
     // Aggregation and non aggregation selectors
-    assertInvalidStatement(dataStore, "SELECT agg(*), pop FROM type", "expecting '('");
+    assertInvalidStatement(
+        dataStore,
+        "SELECT agg(*), pop FROM type",
+        "Columns cannot be selected alongside aggregations without a GROUP BY clause");
+    // Column not in group by
+    assertInvalidStatement(
+        dataStore,
+        "SELECT count(*), comment FROM type GROUP BY pid",
+        "must be an aggregation or appear in the GROUP BY clause");
+    // All columns with group by
+    assertInvalidStatement(
+        dataStore,
+        "SELECT * FROM type GROUP BY pid",
+        "GROUP BY cannot be used when selecting all columns");
+    // Ungrouped aggregation with order by
+    assertInvalidStatement(
+        dataStore,
+        "SELECT count(*) FROM type ORDER BY pop",
+        "ORDER BY cannot be used on an aggregation without GROUP BY");
+    // Missing group by columns
+    assertInvalidStatement(dataStore, "SELECT count(*) FROM type GROUP BY", "IDENTIFIER");
     // No where filter
     assertInvalidStatement(dataStore, "SELECT * FROM type WHERE", "mismatched input '<EOF>'");
     // No limit count
@@ -296,4 +320,229 @@ public class SelectStatementTest extends AbstractGWQLTest {
       this.c3 = c3;
     }
   }
+
+  @Test
+  public void testGroupBy() {
+    final DataStore dataStore = createDataStore();
+    final String statement =
+        "SELECT pid, count(*) AS total FROM type GROUP BY pid ORDER BY total DESC, pid LIMIT 2";
+    final Statement gwStatement = GWQLParser.parseStatement(dataStore, statement);
+    assertTrue(gwStatement instanceof SelectStatement);
+    final SelectStatement<?> selectStatement = (SelectStatement<?>) gwStatement;
+    assertTrue(selectStatement.isAggregation());
+    assertTrue(selectStatement.isGrouped());
+    assertEquals(2, selectStatement.getSelectors().size());
+    assertTrue(selectStatement.getSelectors().get(0) instanceof ColumnSelector);
+    assertTrue(selectStatement.getSelectors().get(1) instanceof AggregationSelector);
+    assertEquals(1, selectStatement.getGroupBy().size());
+    assertTrue(selectStatement.getGroupBy().get(0) instanceof ColumnSelector);
+    assertEquals("pid", ((ColumnSelector) selectStatement.getGroupBy().get(0)).columnName());
+    assertEquals(2, selectStatement.getOrderBy().size());
+    assertEquals("total", selectStatement.getOrderBy().get(0).name());
+    assertTrue(selectStatement.getOrderBy().get(0).isDescending());
+    assertEquals("pid", selectStatement.getOrderBy().get(1).name());
+    assertFalse(selectStatement.getOrderBy().get(1).isDescending());
+    assertEquals(2, (int) selectStatement.getLimit());
+  }
+
+  @Test
+  public void testOrderBy() {
+    final DataStore dataStore = createDataStore();
+    final String statement = "SELECT pid, pop FROM type ORDER BY pop ASC LIMIT 1";
+    final Statement gwStatement = GWQLParser.parseStatement(dataStore, statement);
+    assertTrue(gwStatement instanceof SelectStatement);
+    final SelectStatement<?> selectStatement = (SelectStatement<?>) gwStatement;
+    assertFalse(selectStatement.isAggregation());
+    assertTrue(selectStatement.getGroupBy().isEmpty());
+    assertEquals(1, selectStatement.getOrderBy().size());
+    assertEquals("pop", selectStatement.getOrderBy().get(0).name());
+    assertFalse(selectStatement.getOrderBy().get(0).isDescending());
+    assertEquals(1, (int) selectStatement.getLimit());
+  }
+
+  @Test
+  public void testGroupByExecution() {
+    final DataStore dataStore = createDataStore();
+    ingestDefaultData(dataStore);
+    try (final ResultSet results =
+        GWQLParser.parseStatement(
+            dataStore,
+            "SELECT comment, count(*) AS total FROM type GROUP BY comment ORDER BY total DESC LIMIT 2").execute()) {
+      assertEquals(2, results.columnCount());
+      assertEquals("comment", results.columnName(0));
+      assertEquals("total", results.columnName(1));
+      assertTrue(results.hasNext());
+      Result result = results.next();
+      assertEquals("c", result.columnValue(0));
+      assertEquals(3L, ((Number) result.columnValue(1)).longValue());
+      assertTrue(results.hasNext());
+      result = results.next();
+      assertEquals("b", result.columnValue(0));
+      assertEquals(2L, ((Number) result.columnValue(1)).longValue());
+      assertFalse(results.hasNext());
+    }
+  }
+
+  @Test
+  public void testOrderByExecution() {
+    final DataStore dataStore = createDataStore();
+    ingestDefaultData(dataStore);
+    try (final ResultSet results =
+        GWQLParser.parseStatement(
+            dataStore,
+            "SELECT pid, pop AS population FROM type ORDER BY population DESC LIMIT 3").execute()) {
+      assertEquals(2, results.columnCount());
+      long previous = Long.MAX_VALUE;
+      int count = 0;
+      while (results.hasNext()) {
+        final long pop = ((Number) results.next().columnValue(1)).longValue();
+        assertTrue(pop <= previous);
+        previous = pop;
+        count++;
+      }
+      assertEquals(3, count);
+      assertEquals(4L, previous);
+    }
+  }
+
+  @Test
+  public void testOrderByWithoutLimitExecution() {
+    final DataStore dataStore = createDataStore();
+    try {
+      ingestDefaultData(dataStore);
+      try (final ResultSet results =
+          GWQLParser.parseStatement(
+              dataStore,
+              "SELECT pid, pop FROM type WHERE pop > 1 ORDER BY pop DESC").execute()) {
+        long previous = Long.MAX_VALUE;
+        int count = 0;
+        while (results.hasNext()) {
+          final long pop = ((Number) results.next().columnValue(1)).longValue();
+          assertTrue(pop <= previous);
+          previous = pop;
+          count++;
+        }
+        assertEquals(5, count);
+        assertEquals(2L, previous);
+      }
+    } finally {
+      dataStore.deleteAll();
+    }
+  }
+
+  @Test
+  public void testStatisticsResolution() {
+    final DataStore dataStore = createDataStore();
+    try {
+      ingestDefaultData(dataStore);
+      // Empty statistics only see entries written after they are added, so results that come from
+      // them differ from the results of a scan
+      dataStore.addEmptyStatistic(new NumericRangeStatistic("type", "pop"));
+      final CountStatistic binnedCount = new CountStatistic("type");
+      binnedCount.setBinningStrategy(new FieldValueBinningStrategy("comment"));
+      dataStore.addEmptyStatistic(binnedCount);
+      try (final Writer<DefaultGWQLTestType> writer = dataStore.createWriter("type")) {
+        writer.write(new DefaultGWQLTestType("c4", 10L, "c"));
+        writer.write(new DefaultGWQLTestType("d1", 11L, "d"));
+      }
+
+      // By default aggregations are computed by a scan, even when a statistic lines up with them
+      assertSingleValue(dataStore, "SELECT COUNT(*) FROM type", false, 8L);
+      assertMinMax(dataStore, false, 1L, 11L);
+      assertSingleValue(dataStore, "SELECT COUNT(*) FROM type WHERE comment = 'c'", false, 4L);
+      assertSingleValue(
+          dataStore,
+          "SELECT COUNT(*) FROM type WHERE comment = 'c' OR comment = 'd'",
+          false,
+          5L);
+      assertGroupCounts(dataStore, false, new String[] {"a", "b", "c", "d"}, 1L, 2L, 4L, 1L);
+
+      // The default count statistic is complete, so it matches the scan
+      assertSingleValue(dataStore, "SELECT COUNT(*) FROM type", true, 8L);
+
+      // Long values are not exact in a numeric range statistic, so they are always scanned
+      assertMinMax(dataStore, true, 1L, 11L);
+
+      // Statistics are used when requested, even though the empty statistics differ from a scan
+      assertSingleValue(dataStore, "SELECT COUNT(*) FROM type WHERE comment = 'c'", true, 1L);
+      assertSingleValue(
+          dataStore,
+          "SELECT COUNT(*) FROM type WHERE comment = 'c' OR comment = 'd'",
+          true,
+          2L);
+      assertGroupCounts(dataStore, true, new String[] {"c", "d"}, 1L, 1L);
+
+      // Filters that don't line up with any bins require a scan
+      assertSingleValue(dataStore, "SELECT COUNT(*) FROM type WHERE comment < 'c'", true, 3L);
+      assertSingleValue(dataStore, "SELECT COUNT(*) FROM type WHERE pop > 5", true, 3L);
+    } finally {
+      // the statistics added here would otherwise be used by other tests in the same namespace
+      dataStore.deleteAll();
+    }
+  }
+
+  private void assertSingleValue(
+      final DataStore dataStore,
+      final String query,
+      final boolean useStatistics,
+      final long expected) {
+    try (final ResultSet results = execute(dataStore, query, useStatistics)) {
+      assertTrue(results.hasNext());
+      assertEquals(expected, ((Number) results.next().columnValue(0)).longValue());
+      assertFalse(results.hasNext());
+    }
+  }
+
+  private void assertMinMax(
+      final DataStore dataStore,
+      final boolean useStatistics,
+      final long expectedMin,
+      final long expectedMax) {
+    try (final ResultSet results =
+        execute(dataStore, "SELECT MIN(pop), MAX(pop) FROM type", useStatistics)) {
+      final Result result = results.next();
+      assertEquals(expectedMin, ((Number) result.columnValue(0)).longValue());
+      assertEquals(expectedMax, ((Number) result.columnValue(1)).longValue());
+      assertFalse(results.hasNext());
+    }
+  }
+
+  private void assertGroupCounts(
+      final DataStore dataStore,
+      final boolean useStatistics,
+      final String[] expectedGroups,
+      final long... expectedCounts) {
+    try (final ResultSet results =
+        execute(
+            dataStore,
+            "SELECT comment, COUNT(*) FROM type GROUP BY comment ORDER BY comment",
+            useStatistics)) {
+      for (int i = 0; i < expectedGroups.length; i++) {
+        final Result result = results.next();
+        assertEquals(expectedGroups[i], result.columnValue(0));
+        assertEquals(expectedCounts[i], ((Number) result.columnValue(1)).longValue());
+      }
+      assertFalse(results.hasNext());
+    }
+  }
+
+  private ResultSet execute(
+      final DataStore dataStore,
+      final String query,
+      final boolean useStatistics) {
+    final Statement statement = GWQLParser.parseStatement(dataStore, query);
+    ((SelectStatement<?>) statement).setUseStatistics(useStatistics);
+    return statement.execute();
+  }
+
+  private void ingestDefaultData(final DataStore dataStore) {
+    try (final Writer<DefaultGWQLTestType> writer = dataStore.createWriter("type")) {
+      writer.write(new DefaultGWQLTestType("a1", 1L, "a"));
+      writer.write(new DefaultGWQLTestType("b1", 2L, "b"));
+      writer.write(new DefaultGWQLTestType("b2", 3L, "b"));
+      writer.write(new DefaultGWQLTestType("c1", 4L, "c"));
+      writer.write(new DefaultGWQLTestType("c2", 5L, "c"));
+      writer.write(new DefaultGWQLTestType("c3", 6L, "c"));
+    }
+  }
 }
@@ -27,6 +27,7 @@ import java.awt.image.Raster;
 import java.awt.image.RenderedImage;
 import java.awt.image.SampleModel;
 import java.awt.image.WritableRaster;
+import java.awt.image.renderable.ParameterBlock;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -34,6 +35,9 @@ import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.media.jai.BorderExtender;
 import javax.media.jai.Histogram;
 import javax.media.jai.Interpolation;
@@ -42,6 +46,7 @@ import javax.media.jai.PlanarImage;
 import javax.media.jai.RasterFactory;
 import javax.media.jai.RenderedImageAdapter;
 import javax.media.jai.RenderedOp;
+import javax.media.jai.TileCache;
 import javax.media.jai.TiledImage;
 import org.geotools.coverage.Category;
 import org.geotools.coverage.CoverageFactoryFinder;
@@ -118,7 +123,19 @@ public class RasterUtils {
 
   public static final CoordinateOperationFactory OPERATION_FACTORY =
       new BufferedCoordinateOperationFactory(new Hints(Hints.LENIENT_DATUM_SHIFT, Boolean.TRUE));
-  private static Operations resampleOperations;
+  private static volatile Operations resampleOperations;
+  // the size of the coverage data that is buffered before it is written into the mosaic
+  private static final long MOSAIC_BATCH_BYTES = 16L * 1024 * 1024;
+  private static final int MIN_PIXELS_PER_STRIP = 256 * 256;
+  // shared by every mosaic rather than contending on the JAI default cache with other operations
+  private static final TileCache MOSAIC_TILE_CACHE = JAI.createTileCache(64L * 1024 * 1024);
+  private static final int MOSAIC_PARALLELISM = Runtime.getRuntime().availableProcessors();
+  private static final ExecutorService MOSAIC_EXECUTOR =
+      Executors.newFixedThreadPool(MOSAIC_PARALLELISM, r -> {
+        final Thread t = new Thread(r, "geowave-raster-mosaic");
+        t.setDaemon(true);
+        return t;
+      });
   private static final Logger LOGGER = LoggerFactory.getLogger(RasterUtils.class);
   private static final int MIN_SEGMENTS = 5;
   private static final int MAX_SEGMENTS = 500;
@@ -443,7 +460,12 @@ public class RasterUtils {
     }
   }
 
-  public static synchronized GridCoverage2D mosaicGridCoverages(
+  /**
+   * Mosaic the given coverages into a single coverage covering the request envelope. This is safe
+   * to call concurrently. Mosaics use a JAI tile cache of their own, and large mosaics are composed
+   * in parallel, one horizontal strip of the output per task.
+   */
+  public static GridCoverage2D mosaicGridCoverages(
       final Iterator<GridCoverage> gridCoverages,
       final Color backgroundColor,
       final Color outputTransparentColor,
@@ -478,6 +500,8 @@ public class RasterUtils {
     SampleDimension[] sampleDimensions = null;
     double[][] extrema = null;
     boolean extremaValid = false;
+    final List<PositionedRaster> pending = new ArrayList<>();
+    long pendingBytes = 0;
     while (gridCoverages.hasNext()) {
       final GridCoverage currentCoverage = gridCoverages.next();
       if (sampleDimensions == null) {
@@ -504,8 +528,15 @@ public class RasterUtils {
           (int) ((coverageEnv.getMinimum(0) - requestEnvelope.getMinimum(0)) / levelResX);
       final int posy =
           (int) ((requestEnvelope.getMaximum(1) - coverageEnv.getMaximum(1)) / levelResY);
-
-      image.getRaster().setRect(posx, posy, coverageImage.getData());
+      pendingBytes += addTiles(pending, posx, posy, coverageImage);
+      if (pendingBytes >= MOSAIC_BATCH_BYTES) {
+        composeRasters(image.getRaster(), pending);
+        pending.clear();
+        pendingBytes = 0;
+      }
+    }
+    if (image != null) {
+      composeRasters(image.getRaster(), pending);
     }
     if (image == null) {
       image =
@@ -532,6 +563,7 @@ public class RasterUtils {
     } else {
       resultEnvelope = requestEnvelope;
     }
+    final TileCache tileCache = MOSAIC_TILE_CACHE;
     final double scaleX = rescaleX * (width / imageWidth);
     final double scaleY = rescaleY * (height / imageHeight);
     if ((Math.abs(scaleX - 1) > FloatCompareUtils.COMP_EPSILON)
@@ -541,7 +573,8 @@ public class RasterUtils {
               interpolation,
               rescaleX * (width / imageWidth),
               rescaleY * (height / imageHeight),
-              image);
+              image,
+              tileCache);
     }
     RenderedImage result = image;
     // hypothetically masking the output transparent color should happen
@@ -567,6 +600,7 @@ public class RasterUtils {
         case DataBuffer.TYPE_SHORT:
           // rescale to byte
           final ImageWorkerPredefineStats w = new ImageWorkerPredefineStats(result);
+          w.setRenderingHint(JAI.KEY_TILE_CACHE, tileCache);
           // it was found that geoserver will perform this, and worse
           // perform it on local extrema calculated from a single
           // tile, this is our one opportunity to at least ensure this
@@ -600,12 +634,120 @@ public class RasterUtils {
       final RenderedImageAdapter adaptedResult = new RenderedImageAdapter(result);
       adaptedResult.setProperty("histogram", histogram);
       adaptedResult.setProperty("extrema", computedExtrema);
-      result = JAI.create("matchcdf", adaptedResult, cdFeq);
+      result =
+          JAI.create(
+              "matchcdf",
+              new ParameterBlock().addSource(adaptedResult).add(cdFeq),
+              new RenderingHints(JAI.KEY_TILE_CACHE, tileCache));
     }
     return coverageFactory.create(coverageName, result, resultEnvelope);
   }
 
-  private static long i = 0;
+  /**
+   * Add the tiles of the image, clipped to the image bounds, to the rasters to write into the
+   * mosaic. Unlike {@link RenderedImage#getData()} this doesn't copy the tiles.
+   *
+   * @return the size of the added rasters in bytes
+   */
+  private static long addTiles(
+      final List<PositionedRaster> rasters,
+      final int x,
+      final int y,
+      final RenderedImage image) {
+    final Rectangle imageBounds =
+        new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight());
+    final int maxTileX = image.getMinTileX() + image.getNumXTiles();
+    final int maxTileY = image.getMinTileY() + image.getNumYTiles();
+    long bytes = 0;
+    for (int tileY = image.getMinTileY(); tileY < maxTileY; tileY++) {
+      for (int tileX = image.getMinTileX(); tileX < maxTileX; tileX++) {
+        Raster tile = image.getTile(tileX, tileY);
+        final Rectangle bounds = tile.getBounds().intersection(imageBounds);
+        if (bounds.isEmpty()) {
+          continue;
+        }
+        if (!bounds.equals(tile.getBounds())) {
+          tile =
+              tile.createChild(
+                  bounds.x,
+                  bounds.y,
+                  bounds.width,
+                  bounds.height,
+                  bounds.x,
+                  bounds.y,
+                  null);
+        }
+        rasters.add(new PositionedRaster(x, y, tile));
+        final int bitsPerSample = DataBuffer.getDataTypeSize(tile.getDataBuffer().getDataType());
+        bytes += ((long) bounds.width * bounds.height * tile.getNumBands() * bitsPerSample) / 8;
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Write the rasters into the image in order. Large images are split into horizontal strips that
+   * are written in parallel, each strip receiving every raster in order so that overlapping rasters
+   * are resolved exactly as a sequential write would.
+   */
+  private static void composeRasters(
+      final WritableRaster target,
+      final List<PositionedRaster> rasters) {
+    if (rasters.isEmpty()) {
+      return;
+    }
+    final int strips =
+        Math.min(
+            MOSAIC_PARALLELISM,
+            (int) (((long) target.getWidth() * target.getHeight()) / MIN_PIXELS_PER_STRIP));
+    if ((strips <= 1) || (rasters.size() == 1)) {
+      for (final PositionedRaster raster : rasters) {
+        target.setRect(raster.x, raster.y, raster.raster);
+      }
+      return;
+    }
+    final int stripHeight = (target.getHeight() + strips - 1) / strips;
+    final List<CompletableFuture<Void>> futures = new ArrayList<>(strips);
+    for (int y = target.getMinY(); y < (target.getMinY() + target.getHeight()); y += stripHeight) {
+      // the child shares the parent's coordinates so setRect clips to the strip
+      final WritableRaster strip =
+          target.createWritableChild(
+              target.getMinX(),
+              y,
+              target.getWidth(),
+              Math.min(stripHeight, (target.getMinY() + target.getHeight()) - y),
+              target.getMinX(),
+              y,
+              null);
+      futures.add(CompletableFuture.runAsync(() -> {
+        for (final PositionedRaster raster : rasters) {
+          // a raster is written offset from its own location by the raster's position
+          final Rectangle bounds =
+              new Rectangle(
+                  raster.x + raster.raster.getMinX(),
+                  raster.y + raster.raster.getMinY(),
+                  raster.raster.getWidth(),
+                  raster.raster.getHeight());
+          if (bounds.intersects(strip.getBounds())) {
+            strip.setRect(raster.x, raster.y, raster.raster);
+          }
+        }
+      }, MOSAIC_EXECUTOR));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+  }
+
+  private static class PositionedRaster {
+    private final int x;
+    private final int y;
+    private final Raster raster;
+
+    private PositionedRaster(final int x, final int y, final Raster raster) {
+      this.x = x;
+      this.y = y;
+      this.raster = raster;
+    }
+  }
 
   @SuppressFBWarnings(
       value = {"RV_RETURN_VALUE_IGNORED_NO_SIDE_EFFECT"},
@@ -657,9 +799,11 @@ public class RasterUtils {
       final Interpolation interpolation,
       final double rescaleX,
       final double rescaleY,
-      final BufferedImage image) {
+      final BufferedImage image,
+      final TileCache tileCache) {
     final PlanarImage planarImage = new TiledImage(image, image.getWidth(), image.getHeight());
     final ImageWorker w = new ImageWorker(planarImage);
+    w.setRenderingHint(JAI.KEY_TILE_CACHE, tileCache);
     w.scale((float) rescaleX, (float) rescaleY, 0.0f, 0.0f, interpolation);
     final RenderedOp result = w.getRenderedOperation();
     final Raster raster = result.getData();
@@ -686,11 +830,18 @@ public class RasterUtils {
     resampleOperations = new Operations(renderingHints);
   }
 
-  public static synchronized Operations getCoverageOperations() {
-    if (resampleOperations == null) {
-      resampleOperations = new Operations(DEFAULT_RENDERING_HINTS);
+  public static Operations getCoverageOperations() {
+    Operations operations = resampleOperations;
+    if (operations == null) {
+      synchronized (RasterUtils.class) {
+        operations = resampleOperations;
+        if (operations == null) {
+          operations = new Operations(DEFAULT_RENDERING_HINTS);
+          resampleOperations = operations;
+        }
+      }
     }
-    return resampleOperations;
+    return operations;
   }
 
   public static BufferedImage getEmptyImage(
@@ -0,0 +1,396 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.adapter.raster.util;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferShort;
+import java.awt.image.DataBufferUShort;
+import java.nio.ByteBuffer;
+import org.locationtech.geowave.core.index.VarintUtils;
+import me.lemire.integercompression.differential.IntegratedIntCompressor;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * Binary encoding of a {@link DataBuffer} that works directly on the primitive bank arrays. The
+ * encoding starts with a zero byte, which is never the first byte of the legacy protobuf encoding,
+ * followed by a version byte so both can be read side by side.
+ *
+ * <p> Each bank is encoded independently. Integral banks are compressed with FastPFor, as in the
+ * legacy encoding. Floating point banks are byte-shuffled, grouping the n-th byte of every sample
+ * together so that the slowly varying sign and exponent bytes compress well, and then compressed
+ * with LZ4. Byte banks are compressed with LZ4. A bank is stored uncompressed if compression would
+ * not make it smaller, or if compression is disabled with the {@code geowave.raster.compression}
+ * system property set to {@code none}.
+ */
+public class DataBufferCodec {
+  public static final String COMPRESSION_PROPERTY = "geowave.raster.compression";
+  protected static final byte MARKER = 0;
+  protected static final byte VERSION = 1;
+
+  private static final byte CODEC_RAW = 0;
+  private static final byte CODEC_LZ4 = 1;
+  private static final byte CODEC_SHUFFLE_LZ4 = 2;
+  private static final byte CODEC_FASTPFOR = 3;
+
+  private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+  private final boolean compress;
+
+  public DataBufferCodec() {
+    this(!"none".equalsIgnoreCase(System.getProperty(COMPRESSION_PROPERTY)));
+  }
+
+  public DataBufferCodec(final boolean compress) {
+    this.compress = compress;
+  }
+
+  /**
+   * @return {@code true} if the binary was written by this codec rather than the legacy encoding
+   */
+  public static boolean isEncoded(final byte[] binary) {
+    return (binary.length > 1) && (binary[0] == MARKER);
+  }
+
+  public byte[] encode(final DataBuffer dataBuffer) {
+    final int type = dataBuffer.getDataType();
+    final int[] offsets = dataBuffer.getOffsets();
+    final byte[][] banks;
+    final byte[] codecs;
+    final int[] sampleCounts;
+    switch (type) {
+      case DataBuffer.TYPE_BYTE: {
+        final byte[][] data = ((DataBufferByte) dataBuffer).getBankData();
+        banks = new byte[data.length][];
+        codecs = new byte[data.length];
+        sampleCounts = new int[data.length];
+        for (int b = 0; b < data.length; b++) {
+          sampleCounts[b] = data[b].length;
+          banks[b] = data[b];
+          codecs[b] = CODEC_RAW;
+          if (compress) {
+            final byte[] compressed = lz4(data[b]);
+            if (compressed.length < data[b].length) {
+              banks[b] = compressed;
+              codecs[b] = CODEC_LZ4;
+            }
+          }
+        }
+        break;
+      }
+      case DataBuffer.TYPE_SHORT:
+      case DataBuffer.TYPE_USHORT: {
+        final short[][] data =
+            type == DataBuffer.TYPE_SHORT ? ((DataBufferShort) dataBuffer).getBankData()
+                : ((DataBufferUShort) dataBuffer).getBankData();
+        banks = new byte[data.length][];
+        codecs = new byte[data.length];
+        sampleCounts = new int[data.length];
+        for (int b = 0; b < data.length; b++) {
+          sampleCounts[b] = data[b].length;
+          final ByteBuffer buf = ByteBuffer.allocate(data[b].length * 2);
+          buf.asShortBuffer().put(data[b]);
+          banks[b] = buf.array();
+          codecs[b] = CODEC_RAW;
+          if (compress) {
+            final int[] samples = new int[data[b].length];
+            for (int i = 0; i < samples.length; i++) {
+              samples[i] = data[b][i];
+            }
+            setFastPForBank(samples, b, banks, codecs);
+          }
+        }
+        break;
+      }
+      case DataBuffer.TYPE_INT: {
+        final int[][] data = ((DataBufferInt) dataBuffer).getBankData();
+        banks = new byte[data.length][];
+        codecs = new byte[data.length];
+        sampleCounts = new int[data.length];
+        for (int b = 0; b < data.length; b++) {
+          sampleCounts[b] = data[b].length;
+          final ByteBuffer buf = ByteBuffer.allocate(data[b].length * 4);
+          buf.asIntBuffer().put(data[b]);
+          banks[b] = buf.array();
+          codecs[b] = CODEC_RAW;
+          if (compress) {
+            setFastPForBank(data[b], b, banks, codecs);
+          }
+        }
+        break;
+      }
+      case DataBuffer.TYPE_FLOAT: {
+        final float[][] data = ((DataBufferFloat) dataBuffer).getBankData();
+        banks = new byte[data.length][];
+        codecs = new byte[data.length];
+        sampleCounts = new int[data.length];
+        for (int b = 0; b < data.length; b++) {
+          sampleCounts[b] = data[b].length;
+          final ByteBuffer buf = ByteBuffer.allocate(data[b].length * 4);
+          buf.asFloatBuffer().put(data[b]);
+          setFloatingPointBank(buf.array(), 4, b, banks, codecs);
+        }
+        break;
+      }
+      case DataBuffer.TYPE_DOUBLE: {
+        final double[][] data = ((DataBufferDouble) dataBuffer).getBankData();
+        banks = new byte[data.length][];
+        codecs = new byte[data.length];
+        sampleCounts = new int[data.length];
+        for (int b = 0; b < data.length; b++) {
+          sampleCounts[b] = data[b].length;
+          final ByteBuffer buf = ByteBuffer.allocate(data[b].length * 8);
+          buf.asDoubleBuffer().put(data[b]);
+          setFloatingPointBank(buf.array(), 8, b, banks, codecs);
+        }
+        break;
+      }
+      default:
+        throw new RuntimeException("Unsupported DataBuffer type for serialization " + type);
+    }
+
+    int length =
+        3
+            + VarintUtils.unsignedIntByteLength(dataBuffer.getSize())
+            + VarintUtils.unsignedIntByteLength(offsets.length)
+            + VarintUtils.unsignedIntByteLength(banks.length);
+    for (final int offset : offsets) {
+      length += VarintUtils.unsignedIntByteLength(offset);
+    }
+    for (int b = 0; b < banks.length; b++) {
+      length +=
+          1
+              + VarintUtils.unsignedIntByteLength(sampleCounts[b])
+              + VarintUtils.unsignedIntByteLength(banks[b].length)
+              + banks[b].length;
+    }
+    final ByteBuffer buf = ByteBuffer.allocate(length);
+    buf.put(MARKER);
+    buf.put(VERSION);
+    buf.put((byte) type);
+    VarintUtils.writeUnsignedInt(dataBuffer.getSize(), buf);
+    VarintUtils.writeUnsignedInt(offsets.length, buf);
+    for (final int offset : offsets) {
+      VarintUtils.writeUnsignedInt(offset, buf);
+    }
+    VarintUtils.writeUnsignedInt(banks.length, buf);
+    for (int b = 0; b < banks.length; b++) {
+      buf.put(codecs[b]);
+      VarintUtils.writeUnsignedInt(sampleCounts[b], buf);
+      VarintUtils.writeUnsignedInt(banks[b].length, buf);
+      buf.put(banks[b]);
+    }
+    return buf.array();
+  }
+
+  public DataBuffer decode(final byte[] binary) {
+    final ByteBuffer buf = ByteBuffer.wrap(binary);
+    buf.get(); // marker
+    final byte version = buf.get();
+    if (version != VERSION) {
+      throw new RuntimeException("Unsupported raster tile encoding version " + version);
+    }
+    final int type = buf.get();
+    final int size = VarintUtils.readUnsignedInt(buf);
+    final int[] offsets = new int[VarintUtils.readUnsignedInt(buf)];
+    for (int i = 0; i < offsets.length; i++) {
+      offsets[i] = VarintUtils.readUnsignedInt(buf);
+    }
+    final int numBanks = VarintUtils.readUnsignedInt(buf);
+    switch (type) {
+      case DataBuffer.TYPE_BYTE: {
+        final byte[][] data = new byte[numBanks][];
+        for (int b = 0; b < numBanks; b++) {
+          data[b] = readBytes(buf, 1);
+        }
+        return new DataBufferByte(data, size, offsets);
+      }
+      case DataBuffer.TYPE_SHORT:
+      case DataBuffer.TYPE_USHORT: {
+        final short[][] data = new short[numBanks][];
+        for (int b = 0; b < numBanks; b++) {
+          final byte codec = buf.get();
+          final int sampleCount = VarintUtils.readUnsignedInt(buf);
+          final int length = VarintUtils.readUnsignedInt(buf);
+          data[b] = new short[sampleCount];
+          if (codec == CODEC_FASTPFOR) {
+            final int[] samples = unFastPFor(buf, length);
+            for (int i = 0; i < sampleCount; i++) {
+              data[b][i] = (short) samples[i];
+            }
+          } else {
+            buf.asShortBuffer().get(data[b]);
+            buf.position(buf.position() + length);
+          }
+        }
+        return type == DataBuffer.TYPE_SHORT ? new DataBufferShort(data, size, offsets)
+            : new DataBufferUShort(data, size, offsets);
+      }
+      case DataBuffer.TYPE_INT: {
+        final int[][] data = new int[numBanks][];
+        for (int b = 0; b < numBanks; b++) {
+          final byte codec = buf.get();
+          final int sampleCount = VarintUtils.readUnsignedInt(buf);
+          final int length = VarintUtils.readUnsignedInt(buf);
+          if (codec == CODEC_FASTPFOR) {
+            data[b] = unFastPFor(buf, length);
+          } else {
+            data[b] = new int[sampleCount];
+            buf.asIntBuffer().get(data[b]);
+            buf.position(buf.position() + length);
+          }
+        }
+        return new DataBufferInt(data, size, offsets);
+      }
+      case DataBuffer.TYPE_FLOAT: {
+        final float[][] data = new float[numBanks][];
+        for (int b = 0; b < numBanks; b++) {
+          final ByteBuffer bank = ByteBuffer.wrap(readBytes(buf, 4));
+          data[b] = new float[bank.capacity() / 4];
+          bank.asFloatBuffer().get(data[b]);
+        }
+        return new DataBufferFloat(data, size, offsets);
+      }
+      case DataBuffer.TYPE_DOUBLE: {
+        final double[][] data = new double[numBanks][];
+        for (int b = 0; b < numBanks; b++) {
+          final ByteBuffer bank = ByteBuffer.wrap(readBytes(buf, 8));
+          data[b] = new double[bank.capacity() / 8];
+          bank.asDoubleBuffer().get(data[b]);
+        }
+        return new DataBufferDouble(data, size, offsets);
+      }
+      default:
+        throw new RuntimeException("Unsupported data buffer type for deserialization " + type);
+    }
+  }
+
+  private void setFloatingPointBank(
+      final byte[] raw,
+      final int sampleWidth,
+      final int b,
+      final byte[][] banks,
+      final byte[] codecs) {
+    banks[b] = raw;
+    codecs[b] = CODEC_RAW;
+    if (compress) {
+      final byte[] compressed = lz4(shuffle(raw, sampleWidth));
+      if (compressed.length < raw.length) {
+        banks[b] = compressed;
+        codecs[b] = CODEC_SHUFFLE_LZ4;
+      }
+    }
+  }
+
+  /**
+   * Replace a raw bank with its FastPFor encoding if that is smaller. Noisy samples, such as the
+   * full range of a 16 bit sensor, can encode to more than their raw size.
+   */
+  private static void setFastPForBank(
+      final int[] samples,
+      final int b,
+      final byte[][] banks,
+      final byte[] codecs) {
+    final byte[] compressed = fastPFor(samples);
+    if (compressed.length < banks[b].length) {
+      banks[b] = compressed;
+      codecs[b] = CODEC_FASTPFOR;
+    }
+  }
+
+  /**
+   * Read a bank of raw, LZ4 or shuffled LZ4 bytes.
+   */
+  private static byte[] readBytes(final ByteBuffer buf, final int sampleWidth) {
+    final byte codec = buf.get();
+    final int sampleCount = VarintUtils.readUnsignedInt(buf);
+    final int length = VarintUtils.readUnsignedInt(buf);
+    final int rawLength = sampleCount * sampleWidth;
+    final byte[] bytes = new byte[rawLength];
+    switch (codec) {
+      case CODEC_RAW:
+        buf.get(bytes);
+        return bytes;
+      case CODEC_LZ4:
+      case CODEC_SHUFFLE_LZ4:
+        final LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+        if (buf.hasArray()) {
+          decompressor.decompress(
+              buf.array(),
+              buf.arrayOffset() + buf.position(),
+              bytes,
+              0,
+              rawLength);
+          buf.position(buf.position() + length);
+        } else {
+          final byte[] compressed = new byte[length];
+          buf.get(compressed);
+          decompressor.decompress(compressed, 0, bytes, 0, rawLength);
+        }
+        return codec == CODEC_SHUFFLE_LZ4 ? unshuffle(bytes, sampleWidth) : bytes;
+      default:
+        throw new RuntimeException("Unsupported raster bank codec " + codec);
+    }
+  }
+
+  private static byte[] lz4(final byte[] bytes) {
+    final LZ4Compressor compressor = LZ4.fastCompressor();
+    final byte[] compressed = new byte[compressor.maxCompressedLength(bytes.length)];
+    final int length = compressor.compress(bytes, 0, bytes.length, compressed, 0, compressed.length);
+    final byte[] retVal = new byte[length];
+    System.arraycopy(compressed, 0, retVal, 0, length);
+    return retVal;
+  }
+
+  private static byte[] fastPFor(final int[] samples) {
+    final int[] compressed = new IntegratedIntCompressor().compress(samples);
+    final ByteBuffer buf = ByteBuffer.allocate(compressed.length * 4);
+    buf.asIntBuffer().put(compressed);
+    return buf.array();
+  }
+
+  private static int[] unFastPFor(final ByteBuffer buf, final int length) {
+    final int[] compressed = new int[length / 4];
+    buf.asIntBuffer().get(compressed);
+    buf.position(buf.position() + length);
+    return new IntegratedIntCompressor().uncompress(compressed);
+  }
+
+  /**
+   * Group the n-th byte of each sample together.
+   */
+  protected static byte[] shuffle(final byte[] bytes, final int sampleWidth) {
+    final int sampleCount = bytes.length / sampleWidth;
+    final byte[] shuffled = new byte[bytes.length];
+    for (int i = 0; i < sampleCount; i++) {
+      final int offset = i * sampleWidth;
+      for (int k = 0; k < sampleWidth; k++) {
+        shuffled[(k * sampleCount) + i] = bytes[offset + k];
+      }
+    }
+    return shuffled;
+  }
+
+  protected static byte[] unshuffle(final byte[] shuffled, final int sampleWidth) {
+    final int sampleCount = shuffled.length / sampleWidth;
+    final byte[] bytes = new byte[shuffled.length];
+    for (int k = 0; k < sampleWidth; k++) {
+      final int plane = k * sampleCount;
+      for (int i = 0; i < sampleCount; i++) {
+        bytes[(i * sampleWidth) + k] = shuffled[plane + i];
+      }
+    }
+    return bytes;
+  }
+}
@@ -35,7 +35,21 @@ import com.google.protobuf.ByteString;
 import me.lemire.integercompression.differential.IntegratedIntCompressor;
 
 public class DataBufferPersistenceUtils {
+  /**
+   * Set this system property to {@code true} to write tiles with the legacy protobuf encoding, for
+   * instance while older versions that can only read the legacy encoding are still deployed.
+   */
+  public static final String LEGACY_ENCODING_PROPERTY = "geowave.raster.legacyEncoding";
+  private static final DataBufferCodec CODEC = new DataBufferCodec();
+
   public static byte[] getDataBufferBinary(final DataBuffer dataBuffer) {
+    if (Boolean.getBoolean(LEGACY_ENCODING_PROPERTY)) {
+      return getLegacyDataBufferBinary(dataBuffer);
+    }
+    return CODEC.encode(dataBuffer);
+  }
+
+  protected static byte[] getLegacyDataBufferBinary(final DataBuffer dataBuffer) {
     final DataBufferProtos.DataBuffer.Builder bldr = DataBufferProtos.DataBuffer.newBuilder();
     bldr.setType(dataBuffer.getDataType());
     bldr.addAllOffsets(Ints.asList(dataBuffer.getOffsets()));
@@ -143,6 +157,9 @@ public class DataBufferPersistenceUtils {
 
   public static DataBuffer getDataBuffer(final byte[] binary)
       throws IOException, ClassNotFoundException {
+    if (DataBufferCodec.isEncoded(binary)) {
+      return CODEC.decode(binary);
+    }
     // // Read serialized form from the stream.
     final DataBufferProtos.DataBuffer buffer = DataBufferProtos.DataBuffer.parseFrom(binary);
 
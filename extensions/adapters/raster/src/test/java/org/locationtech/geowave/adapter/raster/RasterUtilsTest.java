@@ -8,10 +8,25 @@
  */
 package org.locationtech.geowave.adapter.raster;
 
+import java.awt.Color;
+import java.awt.Rectangle;
+import java.awt.image.DataBuffer;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.media.jai.Interpolation;
+import org.geotools.coverage.CoverageFactoryFinder;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.geometry.GeneralEnvelope;
 import org.junit.Assert;
 import org.junit.Test;
 import org.locationtech.geowave.adapter.raster.adapter.RasterDataAdapter;
 import org.locationtech.geowave.adapter.raster.adapter.merge.nodata.NoDataMergeStrategy;
+import org.locationtech.geowave.core.geotime.util.GeometryUtils;
+import org.opengis.coverage.grid.GridCoverage;
+import org.opengis.geometry.Envelope;
 
 public class RasterUtilsTest {
   @Test
@@ -23,4 +38,86 @@ public class RasterUtilsTest {
     Assert.assertEquals(3, adapter.getSampleModel().getNumBands());
     Assert.assertEquals(256, adapter.getTileSize());
   }
+
+  @Test
+  public void testMosaicGridCoverages() {
+    // a power of two resolution so that tile positions are exact
+    final double resolution = 1.0 / 64;
+    final int width = 1024;
+    final int height = 512;
+    final int tileSize = 64;
+    final double[][] noData = new double[][] {{-1}};
+    final GeneralEnvelope requestEnvelope =
+        new GeneralEnvelope(
+            new double[] {0, 0},
+            new double[] {width * resolution, height * resolution});
+    requestEnvelope.setCoordinateReferenceSystem(GeometryUtils.getDefaultCRS());
+
+    // enough overlapping tiles, some partly outside of the request, to be written in several
+    // batches and strips
+    final Random random = new Random(7);
+    final List<GridCoverage> coverages = new ArrayList<>();
+    for (int t = 0; t < 2000; t++) {
+      final int x = random.nextInt(width + tileSize) - tileSize;
+      final int y = random.nextInt(height + tileSize) - tileSize;
+      final WritableRaster raster = RasterUtils.createRasterTypeDouble(1, tileSize);
+      for (int i = 0; i < tileSize; i++) {
+        for (int j = 0; j < tileSize; j++) {
+          raster.setSample(i, j, 0, (t * 10000) + (j * tileSize) + i);
+        }
+      }
+      coverages.add(
+          RasterUtils.createCoverageTypeDouble(
+              "test",
+              x * resolution,
+              (x + tileSize) * resolution,
+              (height - y - tileSize) * resolution,
+              (height - y) * resolution,
+              raster));
+    }
+
+    final GridCoverage2D mosaic =
+        RasterUtils.mosaicGridCoverages(
+            coverages.iterator(),
+            Color.BLACK,
+            null,
+            new Rectangle(width, height),
+            requestEnvelope,
+            resolution,
+            resolution,
+            noData,
+            false,
+            CoverageFactoryFinder.getGridCoverageFactory(null),
+            "test",
+            Interpolation.getInstance(Interpolation.INTERP_NEAREST),
+            null,
+            false,
+            false,
+            null);
+
+    // the same tiles written one at a time, in order
+    final WritableRaster expected =
+        Raster.createBandedRaster(DataBuffer.TYPE_DOUBLE, width, height, 1, null);
+    RasterUtils.fillWithNoDataValues(expected, noData);
+    for (final GridCoverage coverage : coverages) {
+      final Envelope envelope = coverage.getEnvelope();
+      expected.setRect(
+          (int) Math.round(envelope.getMinimum(0) / resolution),
+          (int) Math.round(((height * resolution) - envelope.getMaximum(1)) / resolution),
+          coverage.getRenderedImage().getData());
+    }
+
+    final Raster actual = mosaic.getRenderedImage().getData();
+    Assert.assertEquals(width, actual.getWidth());
+    Assert.assertEquals(height, actual.getHeight());
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        Assert.assertEquals(
+            "pixel (" + x + ", " + y + ")",
+            expected.getSampleDouble(x, y, 0),
+            actual.getSampleDouble(actual.getMinX() + x, actual.getMinY() + y, 0),
+            0);
+      }
+    }
+  }
 }
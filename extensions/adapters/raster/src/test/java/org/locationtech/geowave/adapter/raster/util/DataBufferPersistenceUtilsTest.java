@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.adapter.raster.util;
+
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferDouble;
+import java.awt.image.DataBufferFloat;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DataBufferPersistenceUtilsTest {
+  private static final int TILE_SIZE = 256 * 256;
+
+  @Test
+  public void testDoubleRoundTrip() throws Exception {
+    final double[][] banks = new double[3][TILE_SIZE];
+    for (int b = 0; b < banks.length; b++) {
+      for (int i = 0; i < TILE_SIZE; i++) {
+        banks[b][i] = (Math.sin(i / 100.0) * b) + (i * 0.5);
+      }
+    }
+    banks[2][7] = Double.NaN;
+    for (final DataBuffer result : roundTrip(new DataBufferDouble(banks, TILE_SIZE))) {
+      for (int b = 0; b < banks.length; b++) {
+        Assert.assertArrayEquals(banks[b], ((DataBufferDouble) result).getBankData()[b], 0);
+      }
+    }
+  }
+
+  @Test
+  public void testFloatRoundTrip() throws Exception {
+    final float[][] banks = new float[2][TILE_SIZE];
+    for (int i = 0; i < TILE_SIZE; i++) {
+      banks[0][i] = i / 3f;
+      banks[1][i] = -1;
+    }
+    for (final DataBuffer result : roundTrip(
+        new DataBufferFloat(banks, TILE_SIZE, new int[] {0, 0}))) {
+      Assert.assertArrayEquals(new int[] {0, 0}, result.getOffsets());
+      for (int b = 0; b < banks.length; b++) {
+        Assert.assertArrayEquals(banks[b], ((DataBufferFloat) result).getBankData()[b], 0);
+      }
+    }
+  }
+
+  @Test
+  public void testIntegralRoundTrip() throws Exception {
+    final int[][] ints = new int[1][TILE_SIZE];
+    final short[][] shorts = new short[1][TILE_SIZE];
+    for (int i = 0; i < TILE_SIZE; i++) {
+      ints[0][i] = (i % 2) == 0 ? i : -i;
+      shorts[0][i] = (short) (i * 31);
+    }
+    for (final DataBuffer result : roundTrip(new DataBufferInt(ints, TILE_SIZE))) {
+      Assert.assertArrayEquals(ints[0], ((DataBufferInt) result).getBankData()[0]);
+    }
+    for (final DataBuffer result : roundTrip(new DataBufferUShort(shorts, TILE_SIZE))) {
+      Assert.assertArrayEquals(shorts[0], ((DataBufferUShort) result).getBankData()[0]);
+    }
+  }
+
+  @Test
+  public void testLegacyEncodingIsReadable() throws Exception {
+    final double[][] banks = new double[][] {{1, 2, 3, 4}};
+    final byte[] legacy =
+        DataBufferPersistenceUtils.getLegacyDataBufferBinary(new DataBufferDouble(banks, 4));
+    Assert.assertFalse(DataBufferCodec.isEncoded(legacy));
+    final DataBuffer result = DataBufferPersistenceUtils.getDataBuffer(legacy);
+    Assert.assertArrayEquals(banks[0], ((DataBufferDouble) result).getBankData()[0], 0);
+  }
+
+  @Test
+  public void testCompressionShrinksSmoothTiles() {
+    final double[][] banks = new double[1][TILE_SIZE];
+    for (int i = 0; i < TILE_SIZE; i++) {
+      banks[0][i] = i / 256;
+    }
+    final DataBuffer buffer = new DataBufferDouble(banks, TILE_SIZE);
+    Assert.assertTrue(
+        new DataBufferCodec(true).encode(buffer).length < (new DataBufferCodec(false).encode(
+            buffer).length / 2));
+  }
+
+  @Test
+  public void testNoisyIntegralTilesAreNotExpanded() throws Exception {
+    final Random random = new Random(0);
+    final int[][] ints = new int[1][TILE_SIZE];
+    final short[][] shorts = new short[1][TILE_SIZE];
+    for (int i = 0; i < TILE_SIZE; i++) {
+      ints[0][i] = random.nextInt();
+      shorts[0][i] = (short) random.nextInt();
+    }
+    for (final DataBuffer buffer : new DataBuffer[] {
+        new DataBufferInt(ints, TILE_SIZE),
+        new DataBufferUShort(shorts, TILE_SIZE)}) {
+      Assert.assertEquals(
+          new DataBufferCodec(false).encode(buffer).length,
+          new DataBufferCodec(true).encode(buffer).length);
+    }
+    for (final DataBuffer result : roundTrip(new DataBufferInt(ints, TILE_SIZE))) {
+      Assert.assertArrayEquals(ints[0], ((DataBufferInt) result).getBankData()[0]);
+    }
+    for (final DataBuffer result : roundTrip(new DataBufferUShort(shorts, TILE_SIZE))) {
+      Assert.assertArrayEquals(shorts[0], ((DataBufferUShort) result).getBankData()[0]);
+    }
+  }
+
+  private static DataBuffer[] roundTrip(final DataBuffer buffer) throws Exception {
+    // the buffer is encoded both with and without compression
+    final DataBuffer[] results = new DataBuffer[2];
+    for (int i = 0; i < results.length; i++) {
+      final byte[] binary = new DataBufferCodec(i == 0).encode(buffer);
+      Assert.assertTrue(DataBufferCodec.isEncoded(binary));
+      results[i] = DataBufferPersistenceUtils.getDataBuffer(binary);
+      Assert.assertEquals(buffer.getDataType(), results[i].getDataType());
+      Assert.assertEquals(buffer.getSize(), results[i].getSize());
+    }
+    return results;
+  }
+}
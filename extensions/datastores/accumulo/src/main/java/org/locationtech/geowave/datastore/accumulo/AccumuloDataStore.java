@@ -124,6 +124,7 @@ public class AccumuloDataStore extends BaseMapReduceDataStore implements Closeab
    */
   @Override
   public void close() {
+    closeDataIndexCache();
     ((AccumuloOperations) baseOperations).close();
   }
 
@@ -36,6 +36,7 @@ public class FileSystemDataStore extends BaseMapReduceDataStore implements Close
 
   @Override
   public void close() {
+    closeDataIndexCache();
     ((FileSystemOperations) baseOperations).close();
   }
 }
@@ -17,6 +17,7 @@ import org.locationtech.geowave.core.store.StoreFactoryOptions;
 import org.locationtech.geowave.datastore.filesystem.FileSystemStoreFactoryFamily;
 import org.locationtech.geowave.datastore.filesystem.util.FileSystemUtils;
 import org.locationtech.geowave.datastore.filesystem.util.GeoWaveBinaryDataFormatter;
+import com.beust.jcommander.IStringConverter;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.ParametersDelegate;
@@ -35,6 +36,23 @@ public class FileSystemOptions extends StoreFactoryOptions {
           + "\" which is a compact geowave serialization.  Use `geowave util filesystem listformats` to see available formats.")
   private String format = "binary";
 
+  @Parameter(
+      names = "--storageMode",
+      description = "Can be \"file\" to write each row as its own file or \"segment\" to append rows to a write-ahead log and keep them in sorted, immutable segment files that are merged in the background.  Rows are formatted by --format in either mode.  Defaults to file.",
+      converter = StorageModeConverter.class)
+  private StorageMode storageMode = StorageMode.FILE;
+
+  @Parameter(
+      names = "--segmentSize",
+      description = "The size in MB that rows written in \"segment\" storage mode are buffered in memory before they are written as a new segment.  Defaults to 32.")
+  private int segmentSize = 32;
+
+  @Parameter(
+      names = "--keyIndex",
+      arity = 1,
+      description = "Whether to keep a sorted index of the files in each table directory in \"file\" storage mode, so that queries read only the matching files rather than listing the directory.  Only enable it if no other process writes to the same directory, otherwise a reader that has already loaded the index does not see files that other processes write later.  Defaults to false.")
+  private boolean keyIndex = false;
+
   @ParametersDelegate
   protected BaseDataStoreOptions baseOptions = new BaseDataStoreOptions() {
     @Override
@@ -89,6 +107,30 @@ public class FileSystemOptions extends StoreFactoryOptions {
     super(geowaveNamespace);
   }
 
+  public StorageMode getStorageMode() {
+    return storageMode;
+  }
+
+  public void setStorageMode(final StorageMode storageMode) {
+    this.storageMode = storageMode;
+  }
+
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  public void setSegmentSize(final int segmentSize) {
+    this.segmentSize = segmentSize;
+  }
+
+  public boolean isKeyIndex() {
+    return keyIndex;
+  }
+
+  public void setKeyIndex(final boolean keyIndex) {
+    this.keyIndex = keyIndex;
+  }
+
   public void setDirectory(final String dir) {
     this.dir = dir;
   }
@@ -106,4 +148,16 @@ public class FileSystemOptions extends StoreFactoryOptions {
   public DataStoreOptions getStoreOptions() {
     return baseOptions;
   }
+
+  public static enum StorageMode {
+    FILE, SEGMENT
+  };
+
+  public static class StorageModeConverter implements IStringConverter<StorageMode> {
+
+    @Override
+    public StorageMode convert(final String value) {
+      return StorageMode.valueOf(value.toUpperCase());
+    }
+  }
 }
@@ -40,8 +40,12 @@ public class FileSystemDataIndexWriter implements RowWriter {
   }
 
   @Override
-  public void flush() {}
+  public void flush() {
+    table.flush();
+  }
 
   @Override
-  public void close() {}
+  public void close() {
+    flush();
+  }
 }
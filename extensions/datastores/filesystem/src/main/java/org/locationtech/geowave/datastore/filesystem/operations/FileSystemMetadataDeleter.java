@@ -41,6 +41,17 @@ public class FileSystemMetadataDeleter implements MetadataDeleter {
     return atLeastOneDeletion;
   }
 
+  @Override
+  public boolean canDeleteRows() {
+    return true;
+  }
+
+  @Override
+  public boolean deleteRow(final GeoWaveMetadata row) {
+    table.remove(((FileSystemGeoWaveMetadata) row).getKey());
+    return true;
+  }
+
   @Override
   public void flush() {}
 
@@ -35,6 +35,7 @@ import org.locationtech.geowave.core.store.operations.RowReader;
 import org.locationtech.geowave.core.store.operations.RowWriter;
 import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
 import org.locationtech.geowave.datastore.filesystem.config.FileSystemOptions;
+import org.locationtech.geowave.datastore.filesystem.config.FileSystemOptions.StorageMode;
 import org.locationtech.geowave.datastore.filesystem.util.DataFormatterCache;
 import org.locationtech.geowave.datastore.filesystem.util.FileSystemClient;
 import org.locationtech.geowave.datastore.filesystem.util.FileSystemClientCache;
@@ -52,6 +53,9 @@ public class FileSystemOperations implements MapReduceDataStoreOperations, Close
   private final String directory;
   private final boolean visibilityEnabled;
   private final String format;
+  private final StorageMode storageMode;
+  private final int segmentSize;
+  private final boolean keyIndex;
 
   public FileSystemOperations(final FileSystemOptions options) {
     if ((options.getGeoWaveNamespace() == null)
@@ -64,8 +68,18 @@ public class FileSystemOperations implements MapReduceDataStoreOperations, Close
 
     visibilityEnabled = options.getStoreOptions().isVisibilityEnabled();
     format = options.getFormat();
+    storageMode = options.getStorageMode();
+    segmentSize = options.getSegmentSize();
+    keyIndex = options.isKeyIndex();
     // a factory method for accessing filesystem directories
-    client = FileSystemClientCache.getInstance().getClient(directory, format, visibilityEnabled);
+    client =
+        FileSystemClientCache.getInstance().getClient(
+            directory,
+            format,
+            visibilityEnabled,
+            storageMode,
+            segmentSize,
+            keyIndex);
   }
 
   @Override
@@ -243,6 +257,12 @@ public class FileSystemOperations implements MapReduceDataStoreOperations, Close
 
   @Override
   public void close() {
-    FileSystemClientCache.getInstance().close(directory, format, visibilityEnabled);
+    FileSystemClientCache.getInstance().close(
+        directory,
+        format,
+        visibilityEnabled,
+        storageMode,
+        segmentSize,
+        keyIndex);
   }
 }
@@ -77,7 +77,9 @@ public class FileSystemWriter implements RowWriter {
   }
 
   @Override
-  public void flush() {}
+  public void flush() {
+    tableCache.asMap().values().forEach(FileSystemIndexTable::flush);
+  }
 
   @Override
   public void close() {
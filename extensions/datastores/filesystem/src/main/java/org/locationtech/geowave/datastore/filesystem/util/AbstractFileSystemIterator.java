@@ -8,25 +8,16 @@
  */
 package org.locationtech.geowave.datastore.filesystem.util;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.function.Function;
 import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.index.ByteArrayRange;
 import org.locationtech.geowave.core.store.CloseableIterator;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import com.google.common.primitives.UnsignedBytes;
 
 public abstract class AbstractFileSystemIterator<T> implements CloseableIterator<T> {
-  private static final Logger LOGGER = LoggerFactory.getLogger(AbstractFileSystemIterator.class);
-  // this is a memoized supplier to support lazy evaluation because readRow actually relies on
-  // member variables set in child constructors
-  final Iterator<Pair<FileSystemKey, Path>> iterator;
+  final CloseableIterator<Pair<FileSystemKey, byte[]>> iterator;
   boolean closed = false;
 
   public AbstractFileSystemIterator(
@@ -43,46 +34,23 @@ public abstract class AbstractFileSystemIterator<T> implements CloseableIterator
       final byte[] endKey,
       final boolean endKeyInclusive,
       final Function<String, FileSystemKey> fileNameToKey) {
-    super();
-    iterator =
-        FileSystemUtils.getSortedSet(
-            subDirectory,
+    this(
+        new FileSystemFileStorage(subDirectory, fileNameToKey).iterator(
             startKey,
             endKey,
-            endKeyInclusive,
-            fileNameToKey).iterator();
+            endKeyInclusive));
   }
 
   public AbstractFileSystemIterator(
       final Path subDirectory,
       final Collection<ByteArrayRange> ranges,
       final Function<String, FileSystemKey> fileNameToKey) {
-    super();
-    iterator =
-        FileSystemUtils.getSortedSet(subDirectory, fileNameToKey).stream().filter(
-            p -> inRanges(ranges, p.getKey().getSortOrderKey())).iterator();
-  }
-
-  private static boolean inRanges(final Collection<ByteArrayRange> ranges, final byte[] key) {
-    if ((ranges == null) || ranges.isEmpty()) {
-      return true;
-    }
-    for (final ByteArrayRange range : ranges) {
-      if (inRange(range, key)) {
-        return true;
-      }
-    }
-    return false;
+    this(new FileSystemFileStorage(subDirectory, fileNameToKey).iterator(ranges));
   }
 
-  private static boolean inRange(final ByteArrayRange range, final byte[] key) {
-
-    return ((range.getStart() == null)
-        || (UnsignedBytes.lexicographicalComparator().compare(range.getStart(), key) <= 0))
-        && ((range.getEnd() == null)
-            || (UnsignedBytes.lexicographicalComparator().compare(
-                range.getEndAsNextPrefix(),
-                key) > 0));
+  AbstractFileSystemIterator(final CloseableIterator<Pair<FileSystemKey, byte[]>> iterator) {
+    super();
+    this.iterator = iterator;
   }
 
   @Override
@@ -95,21 +63,8 @@ public abstract class AbstractFileSystemIterator<T> implements CloseableIterator
     if (closed) {
       throw new NoSuchElementException();
     }
-    Pair<FileSystemKey, Path> next = iterator.next();
-    while (!Files.exists(next.getRight())) {
-      if (!iterator.hasNext()) {
-        LOGGER.warn("No more files exist in the directory");
-        return null;
-      }
-      next = iterator.next();
-    }
-    try {
-      return readRow(next.getLeft(), Files.readAllBytes(next.getRight()));
-    } catch (final IOException e) {
-      LOGGER.warn("Unable to read file " + next, e);
-    }
-
-    return null;
+    final Pair<FileSystemKey, byte[]> next = iterator.next();
+    return readRow(next.getLeft(), next.getRight());
   }
 
   protected abstract T readRow(FileSystemKey key, byte[] value);
@@ -117,5 +72,6 @@ public abstract class AbstractFileSystemIterator<T> implements CloseableIterator
   @Override
   public void close() {
     closed = true;
+    iterator.close();
   }
 }
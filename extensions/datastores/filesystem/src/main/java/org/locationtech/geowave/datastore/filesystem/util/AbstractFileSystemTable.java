@@ -8,57 +8,81 @@
  */
 package org.locationtech.geowave.datastore.filesystem.util;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
+import java.util.function.Function;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-abstract public class AbstractFileSystemTable {
-  private static final Logger LOGGER = LoggerFactory.getLogger(AbstractFileSystemTable.class);
+import org.locationtech.geowave.datastore.filesystem.config.FileSystemOptions.StorageMode;
 
+abstract public class AbstractFileSystemTable implements Closeable {
   protected Path tableDirectory;
   protected final short adapterId;
   protected final String typeName;
   protected boolean visibilityEnabled;
   protected FileSystemDataFormatter formatter;
+  protected final StorageMode storageMode;
+  protected final int segmentSize;
+  protected final boolean keyIndex;
+  protected FileSystemTableStorage storage;
 
   public AbstractFileSystemTable(
       final short adapterId,
       final String typeName,
       final String format,
-      final boolean visibilityEnabled) throws IOException {
+      final boolean visibilityEnabled,
+      final StorageMode storageMode,
+      final int segmentSize,
+      final boolean keyIndex) throws IOException {
     super();
     this.adapterId = adapterId;
     this.typeName = typeName;
     this.visibilityEnabled = visibilityEnabled;
+    this.storageMode = storageMode;
+    this.segmentSize = segmentSize;
+    this.keyIndex = keyIndex;
     formatter = DataFormatterCache.getInstance().getFormatter(format, visibilityEnabled);
   }
 
   protected void setTableDirectory(final Path tableDirectory) throws IOException {
     this.tableDirectory = Files.createDirectories(tableDirectory);
+    if (StorageMode.SEGMENT.equals(storageMode)) {
+      storage =
+          new FileSystemSegmentStorage(
+              this.tableDirectory,
+              fileNameToKey(),
+              segmentSize * 1024L * 1024L);
+    } else if (keyIndex) {
+      storage =
+          new FileSystemFileStorage(
+              this.tableDirectory,
+              fileNameToKey(),
+              new FileSystemKeyIndex(this.tableDirectory, fileNameToKey()));
+    } else {
+      storage = new FileSystemFileStorage(this.tableDirectory, fileNameToKey());
+    }
   }
 
+  protected abstract Function<String, FileSystemKey> fileNameToKey();
+
   public void deleteFile(final String fileName) {
-    try {
-      Files.delete(tableDirectory.resolve(fileName));
-    } catch (final IOException e) {
-      LOGGER.warn("Unable to delete file", e);
-    }
+    storage.delete(fileName);
   }
 
   protected void writeFile(final String fileName, final byte[] value) {
-    try {
-      Files.write(
-          tableDirectory.resolve(fileName),
-          value,
-          StandardOpenOption.CREATE,
-          StandardOpenOption.TRUNCATE_EXISTING,
-          StandardOpenOption.SYNC);
-    } catch (final IOException e) {
-      LOGGER.warn("Unable to write file", e);
-    }
+    storage.write(fileName, value);
+  }
+
+  /**
+   * Make every write and delete to this table durable.
+   */
+  public void flush() {
+    storage.flush();
+  }
+
+  @Override
+  public void close() {
+    storage.close();
   }
 }
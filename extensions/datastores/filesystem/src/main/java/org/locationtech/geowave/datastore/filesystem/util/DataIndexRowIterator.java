@@ -8,7 +8,8 @@
  */
 package org.locationtech.geowave.datastore.filesystem.util;
 
-import java.nio.file.Path;
+import org.apache.commons.lang3.tuple.Pair;
+import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
@@ -20,19 +21,12 @@ public class DataIndexRowIterator extends AbstractFileSystemIterator<GeoWaveRow>
   private final String typeName;
   private final DataIndexFormatter formatter;
 
-  public DataIndexRowIterator(
-      final Path subDirectory,
-      final byte[] startKey,
-      final byte[] endKey,
+  DataIndexRowIterator(
+      final CloseableIterator<Pair<FileSystemKey, byte[]>> rows,
       final short adapterId,
       final String typeName,
       final DataIndexFormatter formatter) {
-    super(
-        subDirectory,
-        startKey,
-        endKey,
-        true,
-        fileName -> new BasicFileSystemKey(formatter.getDataId(fileName, typeName), fileName));
+    super(rows);
     this.adapterId = adapterId;
     this.typeName = typeName;
     this.formatter = formatter;
@@ -11,9 +11,13 @@ package org.locationtech.geowave.datastore.filesystem.util;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 import org.locationtech.geowave.core.store.operations.MetadataType;
+import org.locationtech.geowave.datastore.filesystem.config.FileSystemOptions.StorageMode;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 
@@ -202,14 +206,23 @@ public class FileSystemClient {
   private final String subDirectory;
   private final boolean visibilityEnabled;
   private final String format;
+  private final StorageMode storageMode;
+  private final int segmentSize;
+  private final boolean keyIndex;
 
   public FileSystemClient(
       final String subDirectory,
       final String format,
-      final boolean visibilityEnabled) {
+      final boolean visibilityEnabled,
+      final StorageMode storageMode,
+      final int segmentSize,
+      final boolean keyIndex) {
     this.subDirectory = subDirectory;
     this.visibilityEnabled = visibilityEnabled;
     this.format = format;
+    this.storageMode = storageMode;
+    this.segmentSize = segmentSize;
+    this.keyIndex = keyIndex;
   }
 
   private FileSystemMetadataTable loadMetadataTable(final MetadataCacheKey key) throws IOException {
@@ -230,7 +243,10 @@ public class FileSystemClient {
         key.partition,
         format,
         key.requiresTimestamp,
-        visibilityEnabled);
+        visibilityEnabled,
+        storageMode,
+        segmentSize,
+        keyIndex);
   }
 
   private FileSystemDataIndexTable loadDataIndexTable(final DataIndexCacheKey key)
@@ -240,7 +256,10 @@ public class FileSystemClient {
         key.adapterId,
         key.typeName,
         format,
-        visibilityEnabled);
+        visibilityEnabled,
+        storageMode,
+        segmentSize,
+        keyIndex);
   }
 
   public String getSubDirectory() {
@@ -275,15 +294,23 @@ public class FileSystemClient {
             FileSystemUtils.getMetadataTablePath(subDirectory, format, visibilityEnabled, type));
   }
 
-  public void invalidateDataIndexCache(final short adapterId, final String typeName) {
-    dataIndexTableCache.invalidate(new DataIndexCacheKey(adapterId, typeName));
+  public synchronized void invalidateDataIndexCache(final short adapterId, final String typeName) {
+    final DataIndexCacheKey key = new DataIndexCacheKey(adapterId, typeName);
+    final FileSystemDataIndexTable table = dataIndexTableCache.getIfPresent(key);
+    if (table != null) {
+      dataIndexTableCache.invalidate(key);
+      table.close();
+    }
   }
 
-  public void invalidateIndexCache(final String indexName, final String typeName) {
-    indexTableCache.invalidateAll(
+  public synchronized void invalidateIndexCache(final String indexName, final String typeName) {
+    final List<IndexCacheKey> keys =
         indexTableCache.asMap().keySet().stream().filter(
             k -> k.typeName.equals(typeName) && k.indexName.equals(indexName)).collect(
-                Collectors.toList()));
+                Collectors.toList());
+    final Collection<FileSystemIndexTable> tables = indexTableCache.getAllPresent(keys).values();
+    indexTableCache.invalidateAll(keys);
+    tables.forEach(FileSystemIndexTable::close);
   }
 
   public boolean isVisibilityEnabled() {
@@ -293,4 +320,26 @@ public class FileSystemClient {
   public String getFormat() {
     return format;
   }
+
+  public StorageMode getStorageMode() {
+    return storageMode;
+  }
+
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  public boolean isKeyIndex() {
+    return keyIndex;
+  }
+
+  public synchronized void close() {
+    // closing the tables writes out anything still buffered by the storage mode
+    final List<AbstractFileSystemTable> tables = new ArrayList<>();
+    tables.addAll(indexTableCache.asMap().values());
+    tables.addAll(dataIndexTableCache.asMap().values());
+    indexTableCache.invalidateAll();
+    dataIndexTableCache.invalidateAll();
+    tables.forEach(AbstractFileSystemTable::close);
+  }
 }
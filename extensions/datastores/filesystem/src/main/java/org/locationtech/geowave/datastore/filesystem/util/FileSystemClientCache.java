@@ -8,6 +8,9 @@
  */
 package org.locationtech.geowave.datastore.filesystem.util;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import org.locationtech.geowave.datastore.filesystem.config.FileSystemOptions.StorageMode;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
 
@@ -26,7 +29,10 @@ public class FileSystemClientCache {
         return new FileSystemClient(
             clientInfo.directory,
             clientInfo.format,
-            clientInfo.visibilityEnabled);
+            clientInfo.visibilityEnabled,
+            clientInfo.storageMode,
+            clientInfo.segmentSize,
+            clientInfo.keyIndex);
       });
 
   protected FileSystemClientCache() {}
@@ -34,35 +40,58 @@ public class FileSystemClientCache {
   public FileSystemClient getClient(
       final String directory,
       final String format,
-      final boolean visibilityEnabled) {
-    return clientCache.get(new ClientKey(directory, format, visibilityEnabled));
+      final boolean visibilityEnabled,
+      final StorageMode storageMode,
+      final int segmentSize,
+      final boolean keyIndex) {
+    return clientCache.get(
+        new ClientKey(directory, format, visibilityEnabled, storageMode, segmentSize, keyIndex));
   }
 
   public synchronized void close(
       final String directory,
       final String format,
-      final boolean visibilityEnabled) {
-    final ClientKey key = new ClientKey(directory, format, visibilityEnabled);
+      final boolean visibilityEnabled,
+      final StorageMode storageMode,
+      final int segmentSize,
+      final boolean keyIndex) {
+    final ClientKey key =
+        new ClientKey(directory, format, visibilityEnabled, storageMode, segmentSize, keyIndex);
     final FileSystemClient client = clientCache.getIfPresent(key);
     if (client != null) {
       clientCache.invalidate(key);
+      client.close();
     }
   }
 
   public synchronized void closeAll() {
+    final Collection<FileSystemClient> clients = new ArrayList<>(clientCache.asMap().values());
     clientCache.invalidateAll();
+    clients.forEach(FileSystemClient::close);
   }
 
   private static class ClientKey {
     private final String directory;
     private final String format;
     private final boolean visibilityEnabled;
+    private final StorageMode storageMode;
+    private final int segmentSize;
+    private final boolean keyIndex;
 
-    public ClientKey(final String directory, final String format, final boolean visibilityEnabled) {
+    public ClientKey(
+        final String directory,
+        final String format,
+        final boolean visibilityEnabled,
+        final StorageMode storageMode,
+        final int segmentSize,
+        final boolean keyIndex) {
       super();
       this.directory = directory;
       this.format = format;
       this.visibilityEnabled = visibilityEnabled;
+      this.storageMode = storageMode;
+      this.segmentSize = segmentSize;
+      this.keyIndex = keyIndex;
     }
 
     @Override
@@ -72,6 +101,9 @@ public class FileSystemClientCache {
       result = (prime * result) + ((directory == null) ? 0 : directory.hashCode());
       result = (prime * result) + ((format == null) ? 0 : format.hashCode());
       result = (prime * result) + (visibilityEnabled ? 1231 : 1237);
+      result = (prime * result) + ((storageMode == null) ? 0 : storageMode.hashCode());
+      result = (prime * result) + segmentSize;
+      result = (prime * result) + (keyIndex ? 1231 : 1237);
       return result;
     }
 
@@ -104,6 +136,15 @@ public class FileSystemClientCache {
       if (visibilityEnabled != other.visibilityEnabled) {
         return false;
       }
+      if (storageMode != other.storageMode) {
+        return false;
+      }
+      if (segmentSize != other.segmentSize) {
+        return false;
+      }
+      if (keyIndex != other.keyIndex) {
+        return false;
+      }
       return true;
     }
 
@@ -9,9 +9,9 @@
 package org.locationtech.geowave.datastore.filesystem.util;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.function.Function;
 import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
@@ -19,25 +19,34 @@ import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
 import org.locationtech.geowave.core.store.entities.GeoWaveValue;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.DataIndexFormatter;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.locationtech.geowave.datastore.filesystem.config.FileSystemOptions.StorageMode;
 
 public class FileSystemDataIndexTable extends AbstractFileSystemTable {
-  private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemDataIndexTable.class);
 
   public FileSystemDataIndexTable(
       final String subDirectory,
       final short adapterId,
       final String typeName,
       final String format,
-      final boolean visibilityEnabled) throws IOException {
-    super(adapterId, typeName, format, visibilityEnabled);
+      final boolean visibilityEnabled,
+      final StorageMode storageMode,
+      final int segmentSize,
+      final boolean keyIndex) throws IOException {
+    super(adapterId, typeName, format, visibilityEnabled, storageMode, segmentSize, keyIndex);
     setTableDirectory(
         FileSystemUtils.getSubdirectory(
             subDirectory,
             formatter.getDataIndexFormatter().getDirectoryName(typeName)));
   }
 
+  @Override
+  protected Function<String, FileSystemKey> fileNameToKey() {
+    final DataIndexFormatter dataIndexFormatter = formatter.getDataIndexFormatter();
+    return fileName -> new BasicFileSystemKey(
+        dataIndexFormatter.getDataId(fileName, typeName),
+        fileName);
+  }
+
   public synchronized void add(final byte[] dataId, final GeoWaveValue value) {
     writeFile(
         formatter.getDataIndexFormatter().getFileName(typeName, dataId),
@@ -48,42 +57,29 @@ public class FileSystemDataIndexTable extends AbstractFileSystemTable {
     final DataIndexFormatter dataIndexFormatter = formatter.getDataIndexFormatter();
     return new CloseableIterator.Wrapper(
         Arrays.stream(dataIds).map(
-            // convert to pair with path so the path is only instantiated once (depending on
-            // filesystem (such as S3 or HDFS) can be modestly expensive
-            dataId -> Pair.of(
-                dataId,
-                tableDirectory.resolve(dataIndexFormatter.getFileName(typeName, dataId)))).filter(
-                    p -> Files.exists(p.getRight())).map(pair -> {
-                      try {
-                        return new GeoWaveRowImpl(
-                            new GeoWaveKeyImpl(
-                                pair.getLeft(),
-                                adapterId,
-                                new byte[0],
-                                new byte[0],
-                                0),
-                            new GeoWaveValue[] {
-                                dataIndexFormatter.getValue(
-                                    pair.getRight().getFileName().toString(),
-                                    typeName,
-                                    pair.getLeft(),
-                                    Files.readAllBytes(pair.getRight()))});
-                      } catch (final IOException e) {
-                        LOGGER.error(
-                            "Unable to read value by data ID for file '" + pair.getRight() + "'",
-                            e);
-                        return null;
-                      }
-                    }).filter(Objects::nonNull).iterator());
+            // convert to pair with file name so the file name is only instantiated once
+            dataId -> Pair.of(dataId, dataIndexFormatter.getFileName(typeName, dataId))).map(
+                pair -> {
+                  final byte[] contents = storage.read(pair.getRight());
+                  if (contents == null) {
+                    return null;
+                  }
+                  return new GeoWaveRowImpl(
+                      new GeoWaveKeyImpl(pair.getLeft(), adapterId, new byte[0], new byte[0], 0),
+                      new GeoWaveValue[] {
+                          dataIndexFormatter.getValue(
+                              pair.getRight(),
+                              typeName,
+                              pair.getLeft(),
+                              contents)});
+                }).filter(Objects::nonNull).iterator());
   }
 
   public CloseableIterator<GeoWaveRow> dataIndexIterator(
       final byte[] startDataId,
       final byte[] endDataId) {
     return new DataIndexRowIterator(
-        tableDirectory,
-        startDataId,
-        endDataId,
+        storage.iterator(startDataId, endDataId, true),
         adapterId,
         typeName,
         formatter.getDataIndexFormatter());
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import org.apache.commons.lang3.tuple.Pair;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.collect.Iterators;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Keeps each row as its own file in the table directory, which is the layout produced by every
+ * version of this data store prior to segment storage. When a {@link FileSystemKeyIndex} is used,
+ * ranges are found within the index and only the matching files are opened, otherwise the directory
+ * is listed for every read.
+ */
+class FileSystemFileStorage implements FileSystemTableStorage {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemFileStorage.class);
+  private final Path tableDirectory;
+  private final Function<String, FileSystemKey> fileNameToKey;
+  private final FileSystemKeyIndex keyIndex;
+
+  public FileSystemFileStorage(
+      final Path tableDirectory,
+      final Function<String, FileSystemKey> fileNameToKey) {
+    this.tableDirectory = tableDirectory;
+    this.fileNameToKey = fileNameToKey;
+    keyIndex = null;
+  }
+
+  public FileSystemFileStorage(
+      final Path tableDirectory,
+      final Function<String, FileSystemKey> fileNameToKey,
+      final FileSystemKeyIndex keyIndex) {
+    this.tableDirectory = tableDirectory;
+    this.fileNameToKey = fileNameToKey;
+    this.keyIndex = keyIndex;
+  }
+
+  @Override
+  public void write(final String fileName, final byte[] contents) {
+    if (keyIndex != null) {
+      // the index is updated first so it never misses a file, reads skip files that don't exist
+      keyIndex.add(fileName);
+    }
+    try {
+      Files.write(
+          tableDirectory.resolve(fileName),
+          contents,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.TRUNCATE_EXISTING,
+          StandardOpenOption.SYNC);
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to write file", e);
+    }
+  }
+
+  @Override
+  public void delete(final String fileName) {
+    try {
+      Files.delete(tableDirectory.resolve(fileName));
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to delete file", e);
+    }
+    if (keyIndex != null) {
+      keyIndex.remove(fileName);
+    }
+  }
+
+  @Override
+  public void deleteRange(final byte[] startKeyInclusive, final byte[] endKeyExclusive) {
+    if (keyIndex != null) {
+      final List<String> fileNames = new ArrayList<>();
+      keyIndex.iterator(startKeyInclusive, endKeyExclusive, false).forEachRemaining(
+          k -> fileNames.add(k.getFileName()));
+      fileNames.forEach(this::delete);
+      return;
+    }
+    FileSystemUtils.visit(tableDirectory, startKeyInclusive, endKeyExclusive, p -> {
+      try {
+        Files.delete(p);
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to delete file", e);
+      }
+    }, fileNameToKey);
+  }
+
+  @Override
+  public byte[] read(final String fileName) {
+    try {
+      return Files.readAllBytes(tableDirectory.resolve(fileName));
+    } catch (final NoSuchFileException e) {
+      return null;
+    } catch (final IOException e) {
+      LOGGER.error("Unable to read file '" + fileName + "'", e);
+    }
+    return null;
+  }
+
+  @Override
+  public CloseableIterator<Pair<FileSystemKey, byte[]>> iterator(
+      final byte[] startKeyInclusive,
+      final byte[] endKey,
+      final boolean endKeyInclusive) {
+    if (keyIndex != null) {
+      return new CloseableIterator.Wrapper<>(
+          readFiles(toFiles(keyIndex.iterator(startKeyInclusive, endKey, endKeyInclusive))));
+    }
+    return new CloseableIterator.Wrapper<>(
+        readFiles(
+            FileSystemUtils.getSortedSet(
+                tableDirectory,
+                startKeyInclusive,
+                endKey,
+                endKeyInclusive,
+                fileNameToKey).iterator()));
+  }
+
+  @Override
+  public CloseableIterator<Pair<FileSystemKey, byte[]>> iterator(
+      final Collection<ByteArrayRange> ranges) {
+    if (keyIndex != null) {
+      if ((ranges == null) || ranges.isEmpty()) {
+        return iterator(null, null, false);
+      }
+      return new CloseableIterator.Wrapper<>(
+          readFiles(
+              toFiles(
+                  FileSystemUtils.concatenateRanges(
+                      ranges,
+                      range -> keyIndex.iterator(
+                          range.getStart(),
+                          range.getEnd() == null ? null : range.getEndAsNextPrefix(),
+                          false),
+                      k -> k))));
+    }
+    return new CloseableIterator.Wrapper<>(
+        readFiles(
+            FileSystemUtils.getSortedSet(tableDirectory, fileNameToKey).stream().filter(
+                p -> inRanges(ranges, p.getKey().getSortOrderKey())).iterator()));
+  }
+
+  private Iterator<Pair<FileSystemKey, Path>> toFiles(final Iterator<FileSystemRowKey> rowKeys) {
+    return Iterators.transform(
+        rowKeys,
+        k -> Pair.of(
+            fileNameToKey.apply(k.getFileName()),
+            tableDirectory.resolve(k.getFileName())));
+  }
+
+  /**
+   * Lazily read the files, skipping any that have been deleted since the directory was listed.
+   */
+  static Iterator<Pair<FileSystemKey, byte[]>> readFiles(
+      final Iterator<Pair<FileSystemKey, Path>> files) {
+    return Iterators.filter(Iterators.transform(files, p -> {
+      try {
+        return Pair.of(p.getLeft(), Files.readAllBytes(p.getRight()));
+      } catch (final NoSuchFileException e) {
+        LOGGER.debug("File '" + p.getRight() + "' no longer exists", e);
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to read file " + p, e);
+      }
+      return null;
+    }), Objects::nonNull);
+  }
+
+  static boolean inRanges(final Collection<ByteArrayRange> ranges, final byte[] key) {
+    if ((ranges == null) || ranges.isEmpty()) {
+      return true;
+    }
+    for (final ByteArrayRange range : ranges) {
+      if (inRange(range, key)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean inRange(final ByteArrayRange range, final byte[] key) {
+
+    return ((range.getStart() == null)
+        || (UnsignedBytes.lexicographicalComparator().compare(range.getStart(), key) <= 0))
+        && ((range.getEnd() == null)
+            || (UnsignedBytes.lexicographicalComparator().compare(
+                range.getEndAsNextPrefix(),
+                key) > 0));
+  }
+
+  @Override
+  public void flush() {
+    // every file is written synchronously
+  }
+
+  @Override
+  public void close() {
+    if (keyIndex != null) {
+      keyIndex.close();
+    }
+  }
+}
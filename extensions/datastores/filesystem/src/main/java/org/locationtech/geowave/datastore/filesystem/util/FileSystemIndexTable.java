@@ -9,7 +9,6 @@
 package org.locationtech.geowave.datastore.filesystem.util;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.function.Function;
@@ -21,12 +20,10 @@ import org.locationtech.geowave.core.store.entities.GeoWaveValue;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.FileSystemIndexKey;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.FormattedFileInfo;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.IndexFormatter;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.locationtech.geowave.datastore.filesystem.config.FileSystemOptions.StorageMode;
 import com.google.common.primitives.Bytes;
 
 public class FileSystemIndexTable extends AbstractFileSystemTable {
-  private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemIndexTable.class);
   private final boolean requiresTimestamp;
   private final String indexName;
   private final byte[] partitionKey;
@@ -39,8 +36,11 @@ public class FileSystemIndexTable extends AbstractFileSystemTable {
       final byte[] partitionKey,
       final String format,
       final boolean requiresTimestamp,
-      final boolean visibilityEnabled) throws IOException {
-    super(adapterId, typeName, format, visibilityEnabled);
+      final boolean visibilityEnabled,
+      final StorageMode storageMode,
+      final int segmentSize,
+      final boolean keyIndex) throws IOException {
+    super(adapterId, typeName, format, visibilityEnabled, storageMode, segmentSize, keyIndex);
     this.requiresTimestamp = requiresTimestamp;
     this.indexName = indexName;
     this.partitionKey = partitionKey;
@@ -55,15 +55,10 @@ public class FileSystemIndexTable extends AbstractFileSystemTable {
 
   public void delete(final byte[] sortKey, final byte[] dataId) {
     final byte[] prefix = Bytes.concat(sortKey, dataId);
-    FileSystemUtils.visit(tableDirectory, prefix, ByteArrayUtils.getNextPrefix(prefix), p -> {
-      try {
-        Files.delete(p);
-      } catch (final IOException e) {
-        LOGGER.warn("Unable to delete file", e);
-      }
-    }, fileNameToKey());
+    storage.deleteRange(prefix, ByteArrayUtils.getNextPrefix(prefix));
   }
 
+  @Override
   protected Function<String, FileSystemKey> fileNameToKey() {
     return fileName -> new FileSystemIndexKeyWrapper(
         formatter.getIndexFormatter().getKey(fileName, typeName, indexName, requiresTimestamp),
@@ -91,26 +86,21 @@ public class FileSystemIndexTable extends AbstractFileSystemTable {
 
   public CloseableIterator<GeoWaveRow> iterator() {
     return new FileSystemRowIterator(
-        tableDirectory,
-        null,
-        null,
+        storage.iterator(null, null, false),
         adapterId,
         typeName,
         indexName,
         partitionKey,
-        formatter.getIndexFormatter(),
-        fileNameToKey());
+        formatter.getIndexFormatter());
   }
 
   public CloseableIterator<GeoWaveRow> iterator(final Collection<ByteArrayRange> ranges) {
     return new FileSystemRowIterator(
-        tableDirectory,
-        ranges,
+        storage.iterator(ranges),
         adapterId,
         typeName,
         indexName,
         partitionKey,
-        formatter.getIndexFormatter(),
-        fileNameToKey());
+        formatter.getIndexFormatter());
   }
 }
@@ -0,0 +1,370 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * A sorted index of the row file names within a table directory, so that a range can be found by
+ * binary search rather than by listing and decoding every file name in the directory.
+ *
+ * <p> The index is kept as an immutable, memory-mapped file of the sorted keys followed by the
+ * offset of each key, along with the additions and removals made since it was written which are
+ * kept in memory. Once enough changes accumulate, or when the table is closed, the changes are
+ * merged into a new index file. While there are changes that are not in the index file a marker
+ * file is kept in the directory, and if the marker is found when the index is opened the index is
+ * rebuilt from a directory listing because the table was not closed cleanly.
+ */
+class FileSystemKeyIndex implements Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemKeyIndex.class);
+  static final String INDEX_FILE = "keys.idx";
+  static final String DIRTY_FILE = "keys.idx.dirty";
+  private static final String TEMP_FILE = "keys.idx.tmp";
+  private static final int MAGIC = 0x47574B49;
+  // offsets start, count, magic
+  private static final int FOOTER_LENGTH = 8 + 4 + 4;
+  private static final int MAX_CHANGES = 100000;
+
+  private final Path tableDirectory;
+  private final Function<String, FileSystemKey> fileNameToKey;
+  private SortedKeys keys = SortedKeys.EMPTY;
+  // true for a file that has been added and false for a file that has been removed
+  private ConcurrentSkipListMap<FileSystemRowKey, Boolean> changes = new ConcurrentSkipListMap<>();
+  private boolean dirty = false;
+
+  public FileSystemKeyIndex(
+      final Path tableDirectory,
+      final Function<String, FileSystemKey> fileNameToKey) throws IOException {
+    this.tableDirectory = tableDirectory;
+    this.fileNameToKey = fileNameToKey;
+    final Path indexFile = tableDirectory.resolve(INDEX_FILE);
+    if (Files.exists(tableDirectory.resolve(DIRTY_FILE)) || !Files.exists(indexFile)) {
+      rebuild();
+    } else {
+      try {
+        keys = SortedKeys.map(indexFile);
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to read key index '" + indexFile + "', rebuilding it", e);
+        rebuild();
+      }
+    }
+  }
+
+  static boolean isIndexFile(final String fileName) {
+    return INDEX_FILE.equals(fileName) || DIRTY_FILE.equals(fileName) || TEMP_FILE.equals(fileName);
+  }
+
+  private FileSystemRowKey toRowKey(final String fileName) {
+    return new FileSystemRowKey(fileNameToKey.apply(fileName).getSortOrderKey(), fileName);
+  }
+
+  private void rebuild() throws IOException {
+    final List<FileSystemRowKey> rowKeys;
+    try (Stream<Path> files = Files.list(tableDirectory)) {
+      rowKeys =
+          files.filter(Files::isRegularFile).map(p -> p.getFileName().toString()).filter(
+              f -> !isIndexFile(f)).map(this::toRowKey).sorted().collect(Collectors.toList());
+    }
+    writeIndex(rowKeys.iterator());
+  }
+
+  public synchronized void add(final String fileName) {
+    change(fileName, true);
+  }
+
+  public synchronized void remove(final String fileName) {
+    change(fileName, false);
+  }
+
+  private void change(final String fileName, final boolean added) {
+    if (!dirty) {
+      try {
+        Files.write(
+            tableDirectory.resolve(DIRTY_FILE),
+            new byte[0],
+            StandardOpenOption.CREATE,
+            StandardOpenOption.SYNC);
+        dirty = true;
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to mark key index as modified", e);
+      }
+    }
+    changes.put(toRowKey(fileName), added);
+    if (changes.size() >= MAX_CHANGES) {
+      compact();
+    }
+  }
+
+  /**
+   * Merge the changes into a new index file.
+   */
+  public synchronized void compact() {
+    if (!dirty && changes.isEmpty()) {
+      return;
+    }
+    try {
+      writeIndex(merge(keys, changes, null, null, false));
+    } catch (final IOException e) {
+      // the changes are still in memory, and the marker file will cause a rebuild if the table
+      // isn't closed cleanly
+      LOGGER.warn("Unable to write key index in '" + tableDirectory + "'", e);
+    }
+  }
+
+  private synchronized void writeIndex(final Iterator<FileSystemRowKey> rowKeys)
+      throws IOException {
+    final Path tempFile = tableDirectory.resolve(TEMP_FILE);
+    final Path indexFile = tableDirectory.resolve(INDEX_FILE);
+    try (FileOutputStream fileOut = new FileOutputStream(tempFile.toFile())) {
+      final DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024));
+      int[] offsets = new int[1024];
+      int count = 0;
+      long position = 0;
+      while (rowKeys.hasNext()) {
+        final FileSystemRowKey rowKey = rowKeys.next();
+        if (position > Integer.MAX_VALUE) {
+          throw new IOException("Key index is too large to be memory-mapped");
+        }
+        if (count == offsets.length) {
+          offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        offsets[count++] = (int) position;
+        final byte[] fileName = rowKey.getFileName().getBytes(StandardCharsets.UTF_8);
+        out.writeShort(rowKey.getSortOrderKey().length);
+        out.write(rowKey.getSortOrderKey());
+        out.writeShort(fileName.length);
+        out.write(fileName);
+        position += 4 + rowKey.getSortOrderKey().length + fileName.length;
+      }
+      for (int i = 0; i < count; i++) {
+        out.writeInt(offsets[i]);
+      }
+      if (count == 0) {
+        // don't leave any files behind in a table directory without rows
+        out.close();
+        Files.delete(tempFile);
+        Files.deleteIfExists(indexFile);
+        keys = SortedKeys.EMPTY;
+        changes = new ConcurrentSkipListMap<>();
+        Files.deleteIfExists(tableDirectory.resolve(DIRTY_FILE));
+        dirty = false;
+        return;
+      }
+      out.writeLong(position);
+      out.writeInt(count);
+      out.writeInt(MAGIC);
+      out.flush();
+      fileOut.getChannel().force(true);
+    }
+    Files.move(tempFile, indexFile, StandardCopyOption.ATOMIC_MOVE);
+    keys = SortedKeys.map(indexFile);
+    changes = new ConcurrentSkipListMap<>();
+    Files.deleteIfExists(tableDirectory.resolve(DIRTY_FILE));
+    dirty = false;
+  }
+
+  /**
+   * Iterate the keys of the rows within the range in sort order, either key may be null to leave
+   * that end of the range unbounded.
+   */
+  public Iterator<FileSystemRowKey> iterator(
+      final byte[] startKeyInclusive,
+      final byte[] endKey,
+      final boolean endKeyInclusive) {
+    final SortedKeys currentKeys;
+    final ConcurrentSkipListMap<FileSystemRowKey, Boolean> currentChanges;
+    synchronized (this) {
+      currentKeys = keys;
+      currentChanges = changes;
+    }
+    return merge(currentKeys, currentChanges, startKeyInclusive, endKey, endKeyInclusive);
+  }
+
+  private static Iterator<FileSystemRowKey> merge(
+      final SortedKeys keys,
+      final ConcurrentSkipListMap<FileSystemRowKey, Boolean> changes,
+      final byte[] startKeyInclusive,
+      final byte[] endKey,
+      final boolean endKeyInclusive) {
+    final PeekingIterator<FileSystemRowKey> indexed =
+        Iterators.peekingIterator(keys.iterator(startKeyInclusive));
+    // the empty file name sorts before any row with the same sort order key
+    final PeekingIterator<Entry<FileSystemRowKey, Boolean>> changed =
+        Iterators.peekingIterator(
+            (startKeyInclusive == null ? changes
+                : changes.tailMap(
+                    new FileSystemRowKey(startKeyInclusive, ""),
+                    true)).entrySet().iterator());
+    return new AbstractIterator<FileSystemRowKey>() {
+      @Override
+      protected FileSystemRowKey computeNext() {
+        while (indexed.hasNext() || changed.hasNext()) {
+          final FileSystemRowKey next;
+          final boolean exists;
+          if (!changed.hasNext()) {
+            next = indexed.next();
+            exists = true;
+          } else if (!indexed.hasNext()) {
+            final Entry<FileSystemRowKey, Boolean> change = changed.next();
+            next = change.getKey();
+            exists = change.getValue();
+          } else {
+            final int compare = indexed.peek().compareTo(changed.peek().getKey());
+            if (compare < 0) {
+              next = indexed.next();
+              exists = true;
+            } else {
+              if (compare == 0) {
+                // the change supersedes the indexed key
+                indexed.next();
+              }
+              final Entry<FileSystemRowKey, Boolean> change = changed.next();
+              next = change.getKey();
+              exists = change.getValue();
+            }
+          }
+          if (endKey != null) {
+            final int compare =
+                UnsignedBytes.lexicographicalComparator().compare(next.getSortOrderKey(), endKey);
+            if ((compare > 0) || ((compare == 0) && !endKeyInclusive)) {
+              break;
+            }
+          }
+          if (exists) {
+            return next;
+          }
+        }
+        return endOfData();
+      }
+    };
+  }
+
+  @Override
+  public void close() {
+    compact();
+  }
+
+  /**
+   * The memory-mapped contents of an index file.
+   */
+  private static class SortedKeys {
+    private static final SortedKeys EMPTY = new SortedKeys(ByteBuffer.allocate(0), 0, 0);
+    private final ByteBuffer buffer;
+    private final int offsetsStart;
+    private final int count;
+
+    private SortedKeys(final ByteBuffer buffer, final int offsetsStart, final int count) {
+      this.buffer = buffer;
+      this.offsetsStart = offsetsStart;
+      this.count = count;
+    }
+
+    private static SortedKeys map(final Path indexFile) throws IOException {
+      try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+        final long size = channel.size();
+        if ((size < FOOTER_LENGTH) || (size > Integer.MAX_VALUE)) {
+          throw new IOException("Invalid key index size " + size);
+        }
+        // the mapping remains valid after the channel is closed
+        final ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, size);
+        final int footer = (int) size - FOOTER_LENGTH;
+        final long offsetsStart = buffer.getLong(footer);
+        final int count = buffer.getInt(footer + 8);
+        if ((buffer.getInt(footer + 12) != MAGIC) || ((offsetsStart + (count * 4L)) != footer)) {
+          throw new IOException("Key index is corrupt");
+        }
+        return new SortedKeys(buffer, (int) offsetsStart, count);
+      }
+    }
+
+    private int offset(final int i) {
+      return buffer.getInt(offsetsStart + (i * 4));
+    }
+
+    private int compareSortOrderKey(final int i, final byte[] key) {
+      final int offset = offset(i);
+      final int length = Short.toUnsignedInt(buffer.getShort(offset));
+      final int minLength = Math.min(length, key.length);
+      for (int j = 0; j < minLength; j++) {
+        final int compare = UnsignedBytes.compare(buffer.get(offset + 2 + j), key[j]);
+        if (compare != 0) {
+          return compare;
+        }
+      }
+      return length - key.length;
+    }
+
+    private FileSystemRowKey get(final int i) {
+      final ByteBuffer entry = buffer.duplicate();
+      entry.position(offset(i));
+      final byte[] sortOrderKey = new byte[Short.toUnsignedInt(entry.getShort())];
+      entry.get(sortOrderKey);
+      final byte[] fileName = new byte[Short.toUnsignedInt(entry.getShort())];
+      entry.get(fileName);
+      return new FileSystemRowKey(sortOrderKey, new String(fileName, StandardCharsets.UTF_8));
+    }
+
+    private Iterator<FileSystemRowKey> iterator(final byte[] startKeyInclusive) {
+      int start = 0;
+      if (startKeyInclusive != null) {
+        // the first key that isn't before the start key
+        int low = 0;
+        int high = count;
+        while (low < high) {
+          final int mid = (low + high) >>> 1;
+          if (compareSortOrderKey(mid, startKeyInclusive) < 0) {
+            low = mid + 1;
+          } else {
+            high = mid;
+          }
+        }
+        start = low;
+      }
+      final int first = start;
+      return new AbstractIterator<FileSystemRowKey>() {
+        private int next = first;
+
+        @Override
+        protected FileSystemRowKey computeNext() {
+          if (next >= count) {
+            return endOfData();
+          }
+          return get(next++);
+        }
+      };
+    }
+  }
+}
@@ -8,10 +8,8 @@
  */
 package org.locationtech.geowave.datastore.filesystem.util;
 
-import java.nio.file.Path;
-import java.util.Collection;
-import java.util.function.Function;
-import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.apache.commons.lang3.tuple.Pair;
+import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.FileSystemIndexKey;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.FormattedFileInfo;
@@ -24,34 +22,14 @@ public class FileSystemRowIterator extends AbstractFileSystemIterator<GeoWaveRow
   private final String typeName;
   private final String indexName;
 
-  public FileSystemRowIterator(
-      final Path subDirectory,
-      final byte[] startKey,
-      final byte[] endKey,
+  FileSystemRowIterator(
+      final CloseableIterator<Pair<FileSystemKey, byte[]>> rows,
       final short adapterId,
       final String typeName,
       final String indexName,
       final byte[] partition,
-      final IndexFormatter formatter,
-      final Function<String, FileSystemKey> fileNameToKey) {
-    super(subDirectory, startKey, endKey, fileNameToKey);
-    this.adapterId = adapterId;
-    this.typeName = typeName;
-    this.indexName = indexName;
-    this.partition = partition;
-    this.formatter = formatter;
-  }
-
-  public FileSystemRowIterator(
-      final Path subDirectory,
-      final Collection<ByteArrayRange> ranges,
-      final short adapterId,
-      final String typeName,
-      final String indexName,
-      final byte[] partition,
-      final IndexFormatter formatter,
-      final Function<String, FileSystemKey> fileNameToKey) {
-    super(subDirectory, ranges, fileNameToKey);
+      final IndexFormatter formatter) {
+    super(rows);
     this.adapterId = adapterId;
     this.typeName = typeName;
     this.indexName = indexName;
@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * Identifies a row within a table by its file name. Rows are ordered by their sort order key and
+ * then by file name so that rows with the same sort order key remain distinct.
+ */
+class FileSystemRowKey implements Comparable<FileSystemRowKey> {
+  private final byte[] sortOrderKey;
+  private final String fileName;
+
+  public FileSystemRowKey(final byte[] sortOrderKey, final String fileName) {
+    this.sortOrderKey = sortOrderKey;
+    this.fileName = fileName;
+  }
+
+  public byte[] getSortOrderKey() {
+    return sortOrderKey;
+  }
+
+  public String getFileName() {
+    return fileName;
+  }
+
+  @Override
+  public int compareTo(final FileSystemRowKey o) {
+    final int compare =
+        UnsignedBytes.lexicographicalComparator().compare(sortOrderKey, o.sortOrderKey);
+    if (compare != 0) {
+      return compare;
+    }
+    return fileName.compareTo(o.fileName);
+  }
+
+  @Override
+  public int hashCode() {
+    return fileName.hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if ((obj == null) || (getClass() != obj.getClass())) {
+      return false;
+    }
+    return compareTo((FileSystemRowKey) obj) == 0;
+  }
+}
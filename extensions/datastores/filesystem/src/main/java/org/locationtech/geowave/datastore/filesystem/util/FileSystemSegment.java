@@ -0,0 +1,420 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.io.CountingInputStream;
+import com.google.common.io.CountingOutputStream;
+import com.google.common.primitives.UnsignedBytes;
+
+/**
+ * An immutable file of rows sorted by sort order key and then file name. The rows are followed by a
+ * sparse index of every {@link #INDEX_INTERVAL}th row so that a range can be read by seeking
+ * directly to it, and a fixed length footer. Deleted rows are kept as tombstones so that they hide
+ * the row in older segments until they are merged away.
+ *
+ * <p> Each segment covers the range of write sequence numbers it was created from. A segment
+ * produced by merging covers the range of every segment merged into it, which is what allows
+ * segments that were left behind by an interrupted merge to be recognized and removed.
+ */
+class FileSystemSegment {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemSegment.class);
+  static final String SEGMENT_SUFFIX = ".segment";
+  static final String TEMP_SUFFIX = ".tmp";
+  private static final int MAGIC = 0x4757534D;
+  // index offset, row count, min sequence, max sequence, magic
+  private static final int FOOTER_LENGTH = 8 + 8 + 8 + 8 + 4;
+  private static final int INDEX_INTERVAL = 64;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final Path file;
+  private final long dataLength;
+  private final long rowCount;
+  private final long minSequence;
+  private final long maxSequence;
+  private final FileSystemRowKey[] indexKeys;
+  private final long[] indexOffsets;
+  private int references = 1;
+  private boolean obsolete = false;
+
+  public FileSystemSegment(final Path file) throws IOException {
+    this.file = file;
+    try (RandomAccessFile in = new RandomAccessFile(file.toFile(), "r")) {
+      final long length = in.length();
+      if (length < FOOTER_LENGTH) {
+        throw new IOException("Segment '" + file + "' is truncated");
+      }
+      in.seek(length - FOOTER_LENGTH);
+      dataLength = in.readLong();
+      rowCount = in.readLong();
+      minSequence = in.readLong();
+      maxSequence = in.readLong();
+      if (in.readInt() != MAGIC) {
+        throw new IOException("'" + file + "' is not a valid segment");
+      }
+      in.seek(dataLength);
+      final int indexSize = in.readInt();
+      indexKeys = new FileSystemRowKey[indexSize];
+      indexOffsets = new long[indexSize];
+      for (int i = 0; i < indexSize; i++) {
+        final byte[] sortOrderKey = new byte[in.readInt()];
+        in.readFully(sortOrderKey);
+        indexKeys[i] = new FileSystemRowKey(sortOrderKey, in.readUTF());
+        indexOffsets[i] = in.readLong();
+      }
+    }
+  }
+
+  /**
+   * Write the rows to a new segment. The segment is written to a temporary file and only moved into
+   * place once it is durable, so a segment file is never seen partially written.
+   *
+   * @param file the path of the segment
+   * @param rows the rows in sorted order
+   * @param minSequence the lowest write sequence number the segment covers
+   * @param maxSequence the highest write sequence number the segment covers
+   * @param dropTombstones whether deleted rows can be left out entirely, which is only true if
+   *        there is no older segment that the tombstones could be hiding rows in
+   * @return the segment
+   * @throws IOException if the segment could not be written
+   */
+  public static FileSystemSegment write(
+      final Path file,
+      final Iterator<SegmentEntry> rows,
+      final long minSequence,
+      final long maxSequence,
+      final boolean dropTombstones) throws IOException {
+    final Path tempFile = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+    try (FileOutputStream fileOut = new FileOutputStream(tempFile.toFile())) {
+      final CountingOutputStream counter =
+          new CountingOutputStream(new BufferedOutputStream(fileOut, BUFFER_SIZE));
+      final DataOutputStream out = new DataOutputStream(counter);
+      final List<FileSystemRowKey> indexKeys = new ArrayList<>();
+      final List<Long> indexOffsets = new ArrayList<>();
+      long rowCount = 0;
+      while (rows.hasNext()) {
+        final SegmentEntry row = rows.next();
+        if (dropTombstones && row.isTombstone()) {
+          continue;
+        }
+        if ((rowCount % INDEX_INTERVAL) == 0) {
+          indexKeys.add(row.getKey());
+          indexOffsets.add(counter.getCount());
+        }
+        writeRow(out, row);
+        rowCount++;
+      }
+      final long dataLength = counter.getCount();
+      out.writeInt(indexKeys.size());
+      for (int i = 0; i < indexKeys.size(); i++) {
+        final FileSystemRowKey key = indexKeys.get(i);
+        out.writeInt(key.getSortOrderKey().length);
+        out.write(key.getSortOrderKey());
+        out.writeUTF(key.getFileName());
+        out.writeLong(indexOffsets.get(i));
+      }
+      out.writeLong(dataLength);
+      out.writeLong(rowCount);
+      out.writeLong(minSequence);
+      out.writeLong(maxSequence);
+      out.writeInt(MAGIC);
+      out.flush();
+      fileOut.getChannel().force(true);
+    }
+    Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE);
+    return new FileSystemSegment(file);
+  }
+
+  private static void writeRow(final DataOutputStream out, final SegmentEntry row)
+      throws IOException {
+    out.writeInt(row.getKey().getSortOrderKey().length);
+    out.write(row.getKey().getSortOrderKey());
+    out.writeUTF(row.getKey().getFileName());
+    if (row.isTombstone()) {
+      out.writeInt(-1);
+    } else {
+      out.writeInt(row.getValue().length);
+      out.write(row.getValue());
+    }
+  }
+
+  public Path getFile() {
+    return file;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public long getDataLength() {
+    return dataLength;
+  }
+
+  public long getMinSequence() {
+    return minSequence;
+  }
+
+  public long getMaxSequence() {
+    return maxSequence;
+  }
+
+  /**
+   * @return whether every write this segment was created from is also covered by the other segment
+   */
+  public boolean isCoveredBy(final FileSystemSegment other) {
+    return (other != this)
+        && (other.minSequence <= minSequence)
+        && (maxSequence <= other.maxSequence)
+        && ((other.maxSequence - other.minSequence) > (maxSequence - minSequence));
+  }
+
+  /**
+   * Find the row in this segment.
+   *
+   * @param key the key of the row
+   * @return the row, which may be a tombstone, or null if this segment has no row for the key
+   */
+  public SegmentEntry get(final FileSystemRowKey key) {
+    final int indexPosition = floorIndex(key);
+    if (indexPosition < 0) {
+      return null;
+    }
+    try (SegmentIterator it =
+        new SegmentIterator(indexOffsets[indexPosition], key.getSortOrderKey(), null, false)) {
+      while (it.hasNext()) {
+        final SegmentEntry row = it.next();
+        final int compare = row.getKey().compareTo(key);
+        if (compare == 0) {
+          return row;
+        } else if (compare > 0) {
+          break;
+        }
+      }
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to read segment '" + file + "'", e);
+    }
+    return null;
+  }
+
+  /**
+   * Iterate the rows of the segment within the range, including tombstones. The iterator must be
+   * closed.
+   */
+  public SegmentIterator iterator(
+      final byte[] startKeyInclusive,
+      final byte[] endKey,
+      final boolean endKeyInclusive) throws IOException {
+    long offset = 0;
+    if (startKeyInclusive != null) {
+      // the last indexed row that sorts strictly before the start key
+      int low = 0;
+      int high = indexKeys.length - 1;
+      int position = -1;
+      while (low <= high) {
+        final int mid = (low + high) >>> 1;
+        if (UnsignedBytes.lexicographicalComparator().compare(
+            indexKeys[mid].getSortOrderKey(),
+            startKeyInclusive) < 0) {
+          position = mid;
+          low = mid + 1;
+        } else {
+          high = mid - 1;
+        }
+      }
+      if (position >= 0) {
+        offset = indexOffsets[position];
+      }
+    }
+    return new SegmentIterator(offset, startKeyInclusive, endKey, endKeyInclusive);
+  }
+
+  private int floorIndex(final FileSystemRowKey key) {
+    int low = 0;
+    int high = indexKeys.length - 1;
+    int position = -1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      if (indexKeys[mid].compareTo(key) <= 0) {
+        position = mid;
+        low = mid + 1;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return position;
+  }
+
+  /**
+   * Take a reference to the segment so that its file is not deleted while it is read.
+   */
+  public synchronized void retain() {
+    references++;
+  }
+
+  public synchronized void release() {
+    references--;
+    deleteIfUnused();
+  }
+
+  /**
+   * Release the reference held by the table, deleting the file once nothing is reading it.
+   */
+  public synchronized void markObsolete() {
+    if (!obsolete) {
+      obsolete = true;
+      release();
+    }
+  }
+
+  private void deleteIfUnused() {
+    if (obsolete && (references <= 0)) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to delete segment '" + file + "'", e);
+      }
+    }
+  }
+
+  class SegmentIterator implements Iterator<SegmentEntry>, Closeable {
+    private final CountingInputStream counter;
+    private final DataInputStream in;
+    private final long offset;
+    private final byte[] startKey;
+    private final byte[] endKey;
+    private final boolean endKeyInclusive;
+    private SegmentEntry next = null;
+    private boolean finished = false;
+
+    private SegmentIterator(
+        final long offset,
+        final byte[] startKey,
+        final byte[] endKey,
+        final boolean endKeyInclusive) throws IOException {
+      final FileInputStream fileIn = new FileInputStream(file.toFile());
+      fileIn.getChannel().position(offset);
+      counter = new CountingInputStream(new BufferedInputStream(fileIn, BUFFER_SIZE));
+      in = new DataInputStream(counter);
+      this.offset = offset;
+      this.startKey = startKey;
+      this.endKey = endKey;
+      this.endKeyInclusive = endKeyInclusive;
+    }
+
+    private void computeNext() {
+      while ((next == null) && !finished) {
+        if ((offset + counter.getCount()) >= dataLength) {
+          finish();
+          break;
+        }
+        try {
+          final byte[] sortOrderKey = new byte[in.readInt()];
+          in.readFully(sortOrderKey);
+          final String fileName = in.readUTF();
+          final int valueLength = in.readInt();
+          final byte[] value;
+          if (valueLength < 0) {
+            value = null;
+          } else {
+            value = new byte[valueLength];
+            in.readFully(value);
+          }
+          if ((startKey != null)
+              && (UnsignedBytes.lexicographicalComparator().compare(sortOrderKey, startKey) < 0)) {
+            continue;
+          }
+          if (endKey != null) {
+            final int compare =
+                UnsignedBytes.lexicographicalComparator().compare(sortOrderKey, endKey);
+            if ((compare > 0) || ((compare == 0) && !endKeyInclusive)) {
+              finish();
+              break;
+            }
+          }
+          next = new SegmentEntry(new FileSystemRowKey(sortOrderKey, fileName), value);
+        } catch (final IOException e) {
+          LOGGER.warn("Unable to read segment '" + file + "'", e);
+          finish();
+        }
+      }
+    }
+
+    private void finish() {
+      finished = true;
+      close();
+    }
+
+    @Override
+    public boolean hasNext() {
+      computeNext();
+      return next != null;
+    }
+
+    @Override
+    public SegmentEntry next() {
+      computeNext();
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      final SegmentEntry retVal = next;
+      next = null;
+      return retVal;
+    }
+
+    @Override
+    public void close() {
+      finished = true;
+      try {
+        in.close();
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to close segment '" + file + "'", e);
+      }
+    }
+  }
+
+  static class SegmentEntry {
+    private final FileSystemRowKey key;
+    // null for a deleted row
+    private final byte[] value;
+
+    public SegmentEntry(final FileSystemRowKey key, final byte[] value) {
+      this.key = key;
+      this.value = value;
+    }
+
+    public FileSystemRowKey getKey() {
+      return key;
+    }
+
+    public byte[] getValue() {
+      return value;
+    }
+
+    public boolean isTombstone() {
+      return value == null;
+    }
+  }
+}
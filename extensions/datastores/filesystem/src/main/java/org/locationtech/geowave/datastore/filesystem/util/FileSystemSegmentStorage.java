@@ -0,0 +1,738 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+import org.apache.commons.lang3.tuple.Pair;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.CloseableIteratorWrapper;
+import org.locationtech.geowave.datastore.filesystem.util.FileSystemSegment.SegmentEntry;
+import org.locationtech.geowave.datastore.filesystem.util.FileSystemSegment.SegmentIterator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
+import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Log-structured storage for a table. Writes and deletes are appended to a write-ahead log and kept
+ * in a sorted in-memory table, which is written out as a new immutable {@link FileSystemSegment}
+ * once it reaches the configured size. Reads merge the in-memory table with every segment, with
+ * newer rows taking precedence. Runs of adjacent segments of similar size are merged in the
+ * background, so that a row is only rewritten each time its segment grows by the merge threshold
+ * rather than on every merge.
+ *
+ * <p> A full in-memory table is frozen and replaced by an empty one before its segment is written,
+ * so that reads and writes can continue while the segment is written. Only one table is written at
+ * a time, a writer that fills the next in-memory table in the meantime waits for it.
+ */
+class FileSystemSegmentStorage implements FileSystemTableStorage {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FileSystemSegmentStorage.class);
+  static final String WRITE_AHEAD_LOG = "segments.wal";
+  // the log of the in-memory table that is being written as a segment
+  static final String FLUSHING_WRITE_AHEAD_LOG = WRITE_AHEAD_LOG + ".flushing";
+  // the number of adjacent, similarly sized segments that are merged into one
+  private static final int MERGE_THRESHOLD = 4;
+  // segments are similarly sized if the largest is at most this many times the smallest
+  private static final int MERGE_SIZE_RATIO = 2;
+  // past this many segments the smallest adjacent segments are merged even if their sizes differ
+  private static final int MAX_SEGMENTS = 32;
+  private static final byte PUT = 0;
+  private static final byte DELETE = 1;
+  // a distinct instance so that deletes can be told apart from empty rows in the in-memory table
+  private static final byte[] TOMBSTONE = new byte[0];
+  private static final ExecutorService MERGE_THREADS =
+      MoreExecutors.getExitingExecutorService(
+          (ThreadPoolExecutor) Executors.newFixedThreadPool(
+              Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+
+  private final Path tableDirectory;
+  private final Function<String, FileSystemKey> fileNameToKey;
+  private final long maxMemTableBytes;
+  private ConcurrentSkipListMap<FileSystemRowKey, byte[]> memTable = new ConcurrentSkipListMap<>();
+  private long memTableBytes = 0;
+  // a full in-memory table that is being written as a segment and its sequence number
+  private ConcurrentSkipListMap<FileSystemRowKey, byte[]> flushingMemTable = null;
+  private long flushingSequence;
+  // held while a segment is written from the in-memory table, without holding the table's lock
+  private final Object flushMutex = new Object();
+  // ordered from newest to oldest
+  private List<FileSystemSegment> segments = new ArrayList<>();
+  private long nextSequence = 0;
+  private FileOutputStream writeAheadLogFile;
+  private DataOutputStream writeAheadLog;
+  private Future<?> merge = null;
+  private boolean closed = false;
+
+  public FileSystemSegmentStorage(
+      final Path tableDirectory,
+      final Function<String, FileSystemKey> fileNameToKey,
+      final long maxMemTableBytes) throws IOException {
+    this.tableDirectory = tableDirectory;
+    this.fileNameToKey = fileNameToKey;
+    this.maxMemTableBytes = maxMemTableBytes;
+    loadSegments();
+    final ConcurrentSkipListMap<FileSystemRowKey, byte[]> flushingRows =
+        new ConcurrentSkipListMap<>();
+    if (replayWriteAheadLog(tableDirectory.resolve(FLUSHING_WRITE_AHEAD_LOG), flushingRows)) {
+      // the process stopped while this was being written as a segment
+      flushingMemTable = flushingRows;
+      flushingSequence = nextSequence++;
+    }
+    if (replayWriteAheadLog(tableDirectory.resolve(WRITE_AHEAD_LOG), memTable)) {
+      memTableBytes =
+          memTable.entrySet().stream().mapToLong(e -> estimateSize(e.getKey(), e.getValue())).sum();
+    }
+    // anything that was recovered from the logs is written as a segment so the log can start over
+    flushMemTable(true);
+    synchronized (this) {
+      if (writeAheadLog == null) {
+        // keep anything in the log that could not be written as a segment
+        openWriteAheadLog(true);
+      }
+    }
+  }
+
+  private void loadSegments() throws IOException {
+    final List<FileSystemSegment> loaded = new ArrayList<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(tableDirectory)) {
+      for (final Path file : files) {
+        final String fileName = file.getFileName().toString();
+        if (fileName.endsWith(FileSystemSegment.TEMP_SUFFIX)) {
+          // a segment that was never completely written
+          Files.delete(file);
+        } else if (fileName.endsWith(FileSystemSegment.SEGMENT_SUFFIX)) {
+          try {
+            loaded.add(new FileSystemSegment(file));
+          } catch (final IOException e) {
+            LOGGER.warn("Unable to open segment '" + file + "'", e);
+          }
+        }
+      }
+    }
+    // segments that were merged into another segment but not deleted before the merge was
+    // interrupted are redundant
+    for (final FileSystemSegment segment : loaded) {
+      if (loaded.stream().anyMatch(segment::isCoveredBy)) {
+        segment.markObsolete();
+      } else {
+        segments.add(segment);
+        nextSequence = Math.max(nextSequence, segment.getMaxSequence() + 1);
+      }
+    }
+    segments.sort(Comparator.comparingLong(FileSystemSegment::getMaxSequence).reversed());
+  }
+
+  private boolean replayWriteAheadLog(
+      final Path logFile,
+      final ConcurrentSkipListMap<FileSystemRowKey, byte[]> rows) throws IOException {
+    if (!Files.exists(logFile)) {
+      return false;
+    }
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile)))) {
+      while (true) {
+        final byte op;
+        try {
+          op = in.readByte();
+        } catch (final EOFException e) {
+          break;
+        }
+        try {
+          final String fileName = in.readUTF();
+          if (op == PUT) {
+            final byte[] contents = new byte[in.readInt()];
+            in.readFully(contents);
+            rows.put(toFileSystemRowKey(fileName), contents);
+          } else {
+            rows.put(toFileSystemRowKey(fileName), TOMBSTONE);
+          }
+        } catch (final EOFException e) {
+          // the last entry was only partially written, and was never flushed
+          LOGGER.warn("Ignoring incomplete entry at the end of '" + logFile + "'");
+          break;
+        }
+      }
+    }
+    return true;
+  }
+
+  private FileSystemRowKey toFileSystemRowKey(final String fileName) {
+    return new FileSystemRowKey(fileNameToKey.apply(fileName).getSortOrderKey(), fileName);
+  }
+
+  private void putInMemTable(final String fileName, final byte[] contents) {
+    final FileSystemRowKey key = toFileSystemRowKey(fileName);
+    memTable.put(key, contents);
+    memTableBytes += estimateSize(key, contents);
+  }
+
+  private static long estimateSize(final FileSystemRowKey key, final byte[] contents) {
+    // roughly account for the key objects in addition to the data
+    return key.getSortOrderKey().length + (key.getFileName().length() * 2) + contents.length + 64;
+  }
+
+  private void openWriteAheadLog(final boolean append) {
+    try {
+      closeWriteAheadLog();
+      writeAheadLogFile =
+          new FileOutputStream(tableDirectory.resolve(WRITE_AHEAD_LOG).toFile(), append);
+      writeAheadLog = new DataOutputStream(new BufferedOutputStream(writeAheadLogFile));
+    } catch (final IOException e) {
+      LOGGER.error("Unable to open write-ahead log in '" + tableDirectory + "'", e);
+    }
+  }
+
+  private void closeWriteAheadLog() throws IOException {
+    if (writeAheadLog != null) {
+      writeAheadLog.close();
+      writeAheadLog = null;
+      writeAheadLogFile = null;
+    }
+  }
+
+  private boolean checkOpen() {
+    if (closed) {
+      LOGGER.warn("Unable to modify table '" + tableDirectory + "' because it has been closed");
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public void write(final String fileName, final byte[] contents) {
+    synchronized (this) {
+      if (!checkOpen()) {
+        return;
+      }
+      try {
+        writeAheadLog.writeByte(PUT);
+        writeAheadLog.writeUTF(fileName);
+        writeAheadLog.writeInt(contents.length);
+        writeAheadLog.write(contents);
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to write to write-ahead log", e);
+      }
+      putInMemTable(fileName, contents);
+      if (memTableBytes < maxMemTableBytes) {
+        return;
+      }
+    }
+    flushMemTable(false);
+  }
+
+  @Override
+  public void delete(final String fileName) {
+    synchronized (this) {
+      if (!checkOpen()) {
+        return;
+      }
+      try {
+        writeAheadLog.writeByte(DELETE);
+        writeAheadLog.writeUTF(fileName);
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to write to write-ahead log", e);
+      }
+      putInMemTable(fileName, TOMBSTONE);
+      if (memTableBytes < maxMemTableBytes) {
+        return;
+      }
+    }
+    flushMemTable(false);
+  }
+
+  @Override
+  public void deleteRange(final byte[] startKeyInclusive, final byte[] endKeyExclusive) {
+    final List<String> fileNames = new ArrayList<>();
+    try (CloseableIterator<Pair<FileSystemKey, byte[]>> it =
+        iterator(startKeyInclusive, endKeyExclusive, false)) {
+      it.forEachRemaining(p -> fileNames.add(p.getLeft().getFileName()));
+    }
+    fileNames.forEach(this::delete);
+  }
+
+  @Override
+  public byte[] read(final String fileName) {
+    final FileSystemRowKey key = toFileSystemRowKey(fileName);
+    final Snapshot snapshot = snapshot();
+    try {
+      for (final ConcurrentSkipListMap<FileSystemRowKey, byte[]> rows : snapshot.memTables) {
+        final byte[] value = rows.get(key);
+        if (value != null) {
+          return value == TOMBSTONE ? null : value;
+        }
+      }
+      for (final FileSystemSegment segment : snapshot.segments) {
+        final SegmentEntry entry = segment.get(key);
+        if (entry != null) {
+          return entry.getValue();
+        }
+      }
+      return null;
+    } finally {
+      snapshot.close();
+    }
+  }
+
+  @Override
+  public CloseableIterator<Pair<FileSystemKey, byte[]>> iterator(
+      final byte[] startKeyInclusive,
+      final byte[] endKey,
+      final boolean endKeyInclusive) {
+    final Snapshot snapshot = snapshot();
+    final MergingIterator it =
+        new MergingIterator(snapshot, startKeyInclusive, endKey, endKeyInclusive);
+    return new CloseableIteratorWrapper<>(() -> {
+      it.close();
+      snapshot.close();
+    }, toRows(it));
+  }
+
+  @Override
+  public CloseableIterator<Pair<FileSystemKey, byte[]>> iterator(
+      final Collection<ByteArrayRange> ranges) {
+    if ((ranges == null) || ranges.isEmpty()) {
+      return iterator(null, null, false);
+    }
+    final Snapshot snapshot = snapshot();
+    final List<MergingIterator> rangeIterators = new ArrayList<>();
+    final Iterator<SegmentEntry> entries = FileSystemUtils.concatenateRanges(ranges, range -> {
+      final MergingIterator it =
+          new MergingIterator(
+              snapshot,
+              range.getStart(),
+              range.getEnd() == null ? null : range.getEndAsNextPrefix(),
+              false);
+      rangeIterators.add(it);
+      return it;
+    }, SegmentEntry::getKey);
+    return new CloseableIteratorWrapper<>(() -> {
+      rangeIterators.forEach(MergingIterator::close);
+      snapshot.close();
+    }, toRows(entries));
+  }
+
+  private Iterator<Pair<FileSystemKey, byte[]>> toRows(final Iterator<SegmentEntry> entries) {
+    return Iterators.transform(
+        Iterators.filter(entries, e -> !e.isTombstone()),
+        e -> Pair.of(fileNameToKey.apply(e.getKey().getFileName()), e.getValue()));
+  }
+
+  @Override
+  public synchronized void flush() {
+    if (writeAheadLog != null) {
+      try {
+        writeAheadLog.flush();
+        writeAheadLogFile.getChannel().force(false);
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to flush write-ahead log", e);
+      }
+    }
+  }
+
+  /**
+   * Write the in-memory table as a new segment, unless it is not full yet and the write isn't
+   * forced. The table's lock must not be held, the segment is written while only holding the flush
+   * mutex so that reads and writes to the new in-memory table can continue.
+   */
+  private void flushMemTable(final boolean force) {
+    synchronized (flushMutex) {
+      // a table that previously failed to be written has to be written first
+      if ((flushingMemTable != null) && !writeFlushingMemTable()) {
+        return;
+      }
+      synchronized (this) {
+        if (memTable.isEmpty() || (!force && (memTableBytes < maxMemTableBytes))) {
+          // another writer flushed it while this one was waiting
+          return;
+        }
+        try {
+          // the rows of the frozen table stay durable in the renamed log until the segment is
+          // written
+          closeWriteAheadLog();
+          Files.move(
+              tableDirectory.resolve(WRITE_AHEAD_LOG),
+              tableDirectory.resolve(FLUSHING_WRITE_AHEAD_LOG),
+              StandardCopyOption.REPLACE_EXISTING);
+        } catch (final IOException e) {
+          // keep the rows in memory and in the log, it will be tried again on the next write
+          LOGGER.error("Unable to rotate write-ahead log in '" + tableDirectory + "'", e);
+          openWriteAheadLog(true);
+          return;
+        }
+        openWriteAheadLog(false);
+        flushingMemTable = memTable;
+        flushingSequence = nextSequence++;
+        memTable = new ConcurrentSkipListMap<>();
+        memTableBytes = 0;
+      }
+      writeFlushingMemTable();
+    }
+  }
+
+  /**
+   * Write the frozen in-memory table as a segment. This must be called while holding the flush
+   * mutex.
+   *
+   * @return whether the segment was written
+   */
+  private boolean writeFlushingMemTable() {
+    final ConcurrentSkipListMap<FileSystemRowKey, byte[]> rows;
+    final long sequence;
+    synchronized (this) {
+      rows = flushingMemTable;
+      sequence = flushingSequence;
+    }
+    final FileSystemSegment segment;
+    try {
+      segment =
+          FileSystemSegment.write(
+              segmentPath(sequence, sequence),
+              Iterators.transform(
+                  rows.entrySet().iterator(),
+                  e -> toSegmentEntry(e.getKey(), e.getValue())),
+              sequence,
+              sequence,
+              // there may be older segments containing the deleted rows
+              false);
+    } catch (final IOException e) {
+      // keep the rows in memory and in the log, it will be tried again on the next flush
+      LOGGER.error("Unable to write segment in '" + tableDirectory + "'", e);
+      return false;
+    }
+    synchronized (this) {
+      final List<FileSystemSegment> newSegments = new ArrayList<>(segments.size() + 1);
+      newSegments.add(segment);
+      newSegments.addAll(segments);
+      segments = newSegments;
+      flushingMemTable = null;
+      if ((merge == null) || merge.isDone()) {
+        scheduleMerge();
+      }
+    }
+    try {
+      // the rows in the log are durable in the segment now
+      Files.deleteIfExists(tableDirectory.resolve(FLUSHING_WRITE_AHEAD_LOG));
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to delete write-ahead log in '" + tableDirectory + "'", e);
+    }
+    return true;
+  }
+
+  private Path segmentPath(final long minSequence, final long maxSequence) {
+    return tableDirectory.resolve(
+        String.format("%019d-%019d", minSequence, maxSequence) + FileSystemSegment.SEGMENT_SUFFIX);
+  }
+
+  private static SegmentEntry toSegmentEntry(final FileSystemRowKey key, final byte[] value) {
+    return new SegmentEntry(key, value == TOMBSTONE ? null : value);
+  }
+
+  /**
+   * Start merging the next run of segments, if there is one. This must be called while holding the
+   * table's lock and when no other merge is running.
+   */
+  private void scheduleMerge() {
+    if (closed) {
+      return;
+    }
+    final List<FileSystemSegment> toMerge = selectSegmentsToMerge(segments);
+    if (toMerge.isEmpty()) {
+      return;
+    }
+    toMerge.forEach(FileSystemSegment::retain);
+    final boolean includesOldest = toMerge.contains(segments.get(segments.size() - 1));
+    merge = MERGE_THREADS.submit(() -> merge(toMerge, includesOldest));
+  }
+
+  /**
+   * Choose adjacent segments to merge. Only adjacent segments can be merged, so that the merged
+   * segment takes the same place as the segments it replaces in the newest to oldest order. The
+   * newest run of segments of similar size is chosen, and if there are too many segments of
+   * differing sizes the smallest adjacent segments are merged instead.
+   *
+   * @param segments the segments ordered from newest to oldest
+   * @return the segments to merge, or an empty list if none should be merged
+   */
+  private List<FileSystemSegment> selectSegmentsToMerge(final List<FileSystemSegment> segments) {
+    if (segments.size() < MERGE_THRESHOLD) {
+      return Collections.emptyList();
+    }
+    for (int start = 0; start <= (segments.size() - MERGE_THRESHOLD); start++) {
+      long minSize = mergeSize(segments.get(start));
+      long maxSize = minSize;
+      int end = start + 1;
+      while (end < segments.size()) {
+        final long size = mergeSize(segments.get(end));
+        if ((Math.max(maxSize, size) / MERGE_SIZE_RATIO) > Math.min(minSize, size)) {
+          break;
+        }
+        minSize = Math.min(minSize, size);
+        maxSize = Math.max(maxSize, size);
+        end++;
+      }
+      if ((end - start) >= MERGE_THRESHOLD) {
+        return new ArrayList<>(segments.subList(start, end));
+      }
+    }
+    if (segments.size() < MAX_SEGMENTS) {
+      return Collections.emptyList();
+    }
+    int smallestStart = 0;
+    long smallestSize = Long.MAX_VALUE;
+    for (int start = 0; start <= (segments.size() - MERGE_THRESHOLD); start++) {
+      final long size =
+          segments.subList(start, start + MERGE_THRESHOLD).stream().mapToLong(
+              FileSystemSegment::getDataLength).sum();
+      if (size < smallestSize) {
+        smallestStart = start;
+        smallestSize = size;
+      }
+    }
+    return new ArrayList<>(segments.subList(smallestStart, smallestStart + MERGE_THRESHOLD));
+  }
+
+  private long mergeSize(final FileSystemSegment segment) {
+    // segments written from partially filled in-memory tables are treated as full ones, so that
+    // they are merged along with them instead of separating runs of full ones
+    return Math.max(segment.getDataLength(), maxMemTableBytes);
+  }
+
+  private void merge(final List<FileSystemSegment> toMerge, final boolean includesOldest) {
+    try {
+      final long minSequence =
+          toMerge.stream().mapToLong(FileSystemSegment::getMinSequence).min().getAsLong();
+      final long maxSequence =
+          toMerge.stream().mapToLong(FileSystemSegment::getMaxSequence).max().getAsLong();
+      final FileSystemSegment merged;
+      try (MergingIterator it =
+          new MergingIterator(Collections.emptyList(), toMerge, null, null, false)) {
+        // tombstones can only be dropped if there is no older segment that they could be hiding
+        // rows in
+        merged =
+            FileSystemSegment.write(
+                segmentPath(minSequence, maxSequence),
+                it,
+                minSequence,
+                maxSequence,
+                includesOldest);
+      }
+      synchronized (this) {
+        // only newer segments can have been added while merging, so the merged segments are still
+        // adjacent and the new segment takes their place
+        final List<FileSystemSegment> newSegments =
+            new ArrayList<>((segments.size() - toMerge.size()) + 1);
+        for (final FileSystemSegment segment : segments) {
+          if (!toMerge.contains(segment)) {
+            newSegments.add(segment);
+          } else if (!newSegments.contains(merged)) {
+            newSegments.add(merged);
+          }
+        }
+        segments = newSegments;
+        toMerge.forEach(FileSystemSegment::markObsolete);
+        // the merged segment may now be similar in size to the segments next to it
+        merge = null;
+        scheduleMerge();
+      }
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to merge segments in '" + tableDirectory + "'", e);
+    } finally {
+      toMerge.forEach(FileSystemSegment::release);
+    }
+  }
+
+  private synchronized Snapshot snapshot() {
+    segments.forEach(FileSystemSegment::retain);
+    return new Snapshot(
+        flushingMemTable == null ? Collections.singletonList(memTable)
+            : Arrays.asList(memTable, flushingMemTable),
+        segments);
+  }
+
+  @Override
+  public void close() {
+    final Future<?> pendingMerge;
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      pendingMerge = merge;
+    }
+    if (pendingMerge != null) {
+      try {
+        pendingMerge.get();
+      } catch (InterruptedException | ExecutionException e) {
+        LOGGER.warn("Unable to wait for segment merge to complete", e);
+      }
+    }
+    // write out what is left so that the next time the table is opened the log is empty
+    flushMemTable(true);
+    synchronized (this) {
+      try {
+        closeWriteAheadLog();
+      } catch (final IOException e) {
+        LOGGER.warn("Unable to close write-ahead log", e);
+      }
+    }
+  }
+
+  /**
+   * The in-memory tables and segments as of a point in time, the segments are retained until the
+   * snapshot is closed.
+   */
+  private static class Snapshot implements Closeable {
+    // ordered from newest to oldest
+    private final List<ConcurrentSkipListMap<FileSystemRowKey, byte[]>> memTables;
+    private final List<FileSystemSegment> segments;
+    private boolean closed = false;
+
+    private Snapshot(
+        final List<ConcurrentSkipListMap<FileSystemRowKey, byte[]>> memTables,
+        final List<FileSystemSegment> segments) {
+      this.memTables = memTables;
+      this.segments = segments;
+    }
+
+    @Override
+    public synchronized void close() {
+      if (!closed) {
+        closed = true;
+        segments.forEach(FileSystemSegment::release);
+      }
+    }
+  }
+
+  /**
+   * Merges the sorted rows of the in-memory table and each segment, returning only the newest row
+   * for each key. Tombstones are returned so that the caller can decide whether to keep them.
+   */
+  private class MergingIterator implements Iterator<SegmentEntry>, Closeable {
+    // ordered from newest to oldest, the first source with a key wins
+    private final List<PeekingIterator<SegmentEntry>> sources = new ArrayList<>();
+    private final List<SegmentIterator> segmentIterators = new ArrayList<>();
+    private final byte[] endKey;
+    private final boolean endKeyInclusive;
+
+    private MergingIterator(
+        final Snapshot snapshot,
+        final byte[] startKeyInclusive,
+        final byte[] endKey,
+        final boolean endKeyInclusive) {
+      this(snapshot.memTables, snapshot.segments, startKeyInclusive, endKey, endKeyInclusive);
+    }
+
+    private MergingIterator(
+        final List<ConcurrentSkipListMap<FileSystemRowKey, byte[]>> memTables,
+        final List<FileSystemSegment> segments,
+        final byte[] startKeyInclusive,
+        final byte[] endKey,
+        final boolean endKeyInclusive) {
+      this.endKey = endKey;
+      this.endKeyInclusive = endKeyInclusive;
+      for (final ConcurrentSkipListMap<FileSystemRowKey, byte[]> memTable : memTables) {
+        // the empty file name sorts before any row with the same sort order key
+        final Iterator<Entry<FileSystemRowKey, byte[]>> memTableRows =
+            startKeyInclusive == null ? memTable.entrySet().iterator()
+                : memTable.tailMap(
+                    new FileSystemRowKey(startKeyInclusive, ""),
+                    true).entrySet().iterator();
+        sources.add(
+            Iterators.peekingIterator(
+                Iterators.transform(memTableRows, e -> toSegmentEntry(e.getKey(), e.getValue()))));
+      }
+      for (final FileSystemSegment segment : segments) {
+        try {
+          final SegmentIterator it = segment.iterator(startKeyInclusive, endKey, endKeyInclusive);
+          segmentIterators.add(it);
+          sources.add(Iterators.peekingIterator(it));
+        } catch (final IOException e) {
+          LOGGER.warn("Unable to read segment '" + segment.getFile() + "'", e);
+        }
+      }
+    }
+
+    private boolean inRange(final FileSystemRowKey key) {
+      if (endKey == null) {
+        return true;
+      }
+      final int compare =
+          UnsignedBytes.lexicographicalComparator().compare(key.getSortOrderKey(), endKey);
+      return (compare < 0) || ((compare == 0) && endKeyInclusive);
+    }
+
+    @Override
+    public boolean hasNext() {
+      for (final PeekingIterator<SegmentEntry> source : sources) {
+        if (source.hasNext() && inRange(source.peek().getKey())) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public SegmentEntry next() {
+      SegmentEntry next = null;
+      for (final PeekingIterator<SegmentEntry> source : sources) {
+        if (source.hasNext()) {
+          final SegmentEntry candidate = source.peek();
+          if ((next == null) || (candidate.getKey().compareTo(next.getKey()) < 0)) {
+            next = candidate;
+          }
+        }
+      }
+      if ((next == null) || !inRange(next.getKey())) {
+        throw new NoSuchElementException();
+      }
+      // skip the older versions of the row
+      for (final PeekingIterator<SegmentEntry> source : sources) {
+        if (source.hasNext() && (source.peek().getKey().compareTo(next.getKey()) == 0)) {
+          source.next();
+        }
+      }
+      return next;
+    }
+
+    @Override
+    public void close() {
+      segmentIterators.forEach(SegmentIterator::close);
+    }
+  }
+}
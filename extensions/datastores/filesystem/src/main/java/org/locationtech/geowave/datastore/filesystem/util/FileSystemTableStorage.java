@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import java.io.Closeable;
+import java.util.Collection;
+import org.apache.commons.lang3.tuple.Pair;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.store.CloseableIterator;
+
+/**
+ * The way the rows of an index or data index table are kept within the table's directory. Rows are
+ * always identified by the file name the
+ * {@link org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter} gives them, whether
+ * or not they are actually stored as individual files.
+ */
+interface FileSystemTableStorage extends Closeable {
+  void write(String fileName, byte[] contents);
+
+  void delete(String fileName);
+
+  /**
+   * Delete every row with a sort order key within the given range.
+   *
+   * @param startKeyInclusive the start of the range
+   * @param endKeyExclusive the end of the range
+   */
+  void deleteRange(byte[] startKeyInclusive, byte[] endKeyExclusive);
+
+  /**
+   * @param fileName the file name of the row
+   * @return the contents of the row or null if it doesn't exist
+   */
+  byte[] read(String fileName);
+
+  /**
+   * Iterate the rows within the range in sort order, either key may be null to leave that end of
+   * the range unbounded.
+   */
+  CloseableIterator<Pair<FileSystemKey, byte[]>> iterator(
+      byte[] startKeyInclusive,
+      byte[] endKey,
+      boolean endKeyInclusive);
+
+  /**
+   * Iterate the rows within any of the ranges in sort order, or every row if there are no ranges.
+   */
+  CloseableIterator<Pair<FileSystemKey, byte[]>> iterator(Collection<ByteArrayRange> ranges);
+
+  /**
+   * Make every write and delete so far durable.
+   */
+  void flush();
+
+  @Override
+  void close();
+}
@@ -13,9 +13,12 @@ import java.io.Serializable;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NavigableSet;
 import java.util.Set;
 import java.util.SortedSet;
@@ -27,6 +30,7 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.index.ByteArrayRange;
 import org.locationtech.geowave.core.index.ByteArrayUtils;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
 import org.locationtech.geowave.core.store.adapter.RowMergingDataAdapter;
@@ -36,6 +40,8 @@ import org.locationtech.geowave.core.store.operations.RangeReaderParams;
 import org.locationtech.geowave.datastore.filesystem.FileSystemDataFormatter.IndexFormatter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Streams;
 import com.google.common.primitives.UnsignedBytes;
 
@@ -61,9 +67,11 @@ public class FileSystemUtils {
       final Supplier<NavigableSet<Pair<FileSystemKey, Path>>> sortedSetFactory =
           () -> new TreeSet<>();
       NavigableSet<Pair<FileSystemKey, Path>> sortedSet =
-          Files.walk(subDirectory).filter(Files::isRegularFile).map(
-              path -> Pair.of(fileNameToKey.apply(path.getFileName().toString()), path)).collect(
-                  Collectors.toCollection(sortedSetFactory));
+          Files.walk(subDirectory).filter(Files::isRegularFile).filter(
+              path -> !FileSystemKeyIndex.isIndexFile(path.getFileName().toString())).map(
+                  path -> Pair.of(
+                      fileNameToKey.apply(path.getFileName().toString()),
+                      path)).collect(Collectors.toCollection(sortedSetFactory));
       if (startKeyInclusive != null) {
         sortedSet =
             sortedSet.tailSet(
@@ -87,6 +95,46 @@ public class FileSystemUtils {
     return new TreeSet<>();
   }
 
+  /**
+   * Concatenate the rows within each range, in sort order. Rows that fall within more than one of
+   * the ranges are only returned once.
+   *
+   * @param ranges the ranges to read
+   * @param rangeIterator reads the sorted rows within a single range
+   * @param toRowKey gets the key of a row
+   * @return the rows
+   */
+  static <T> Iterator<T> concatenateRanges(
+      final Collection<ByteArrayRange> ranges,
+      final Function<ByteArrayRange, Iterator<T>> rangeIterator,
+      final Function<T, FileSystemRowKey> toRowKey) {
+    final List<ByteArrayRange> sortedRanges = new ArrayList<>(ranges);
+    sortedRanges.sort(
+        (r1, r2) -> (r1.getStart() == null) ? ((r2.getStart() == null) ? 0 : -1)
+            : ((r2.getStart() == null) ? 1
+                : UnsignedBytes.lexicographicalComparator().compare(r1.getStart(), r2.getStart())));
+    final Iterator<T> concatenated =
+        Iterators.concat(Iterators.transform(sortedRanges.iterator(), rangeIterator::apply));
+    // ranges are sorted by their start so skipping anything that isn't past the last row returned
+    // keeps rows in order and returns rows within overlapping ranges only once
+    return new AbstractIterator<T>() {
+      private FileSystemRowKey lastKey = null;
+
+      @Override
+      protected T computeNext() {
+        while (concatenated.hasNext()) {
+          final T next = concatenated.next();
+          final FileSystemRowKey key = toRowKey.apply(next);
+          if ((lastKey == null) || (key.compareTo(lastKey) > 0)) {
+            lastKey = key;
+            return next;
+          }
+        }
+        return endOfData();
+      }
+    };
+  }
+
   public static Path getSubdirectory(
       final String parentDir,
       final String subdirectory1,
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileSystemKeyIndexTest {
+  // the first four characters of a file name are its sort order key so that several files can
+  // share a key
+  private static final Function<String, FileSystemKey> FILE_NAME_TO_KEY =
+      fileName -> new BasicFileSystemKey(
+          fileName.substring(0, 4).getBytes(StandardCharsets.UTF_8),
+          fileName);
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testLookup() throws IOException {
+    final Path directory = tempFolder.newFolder().toPath();
+    // the index is built from the files that already exist
+    createFiles(directory, "0001a", "0003a", "0003b", "0005a", "0007a", "0009a");
+    try (FileSystemKeyIndex index = new FileSystemKeyIndex(directory, FILE_NAME_TO_KEY)) {
+      assertTrue(Files.exists(directory.resolve(FileSystemKeyIndex.INDEX_FILE)));
+      assertEquals(
+          Arrays.asList("0001a", "0003a", "0003b", "0005a", "0007a", "0009a"),
+          fileNames(index, null, null, false));
+      assertEquals(
+          Arrays.asList("0003a", "0003b", "0005a"),
+          fileNames(index, key("0003"), key("0005"), true));
+      assertEquals(
+          Arrays.asList("0003a", "0003b"),
+          fileNames(index, key("0003"), key("0005"), false));
+      // keys between the indexed keys and keys of a different length
+      assertEquals(
+          Arrays.asList("0005a", "0007a"),
+          fileNames(index, key("0004"), key("0008"), false));
+      assertEquals(
+          Arrays.asList("0003a", "0003b"),
+          fileNames(index, key("00025"), key("0003"), true));
+      assertEquals(Arrays.asList("0009a"), fileNames(index, key("0008"), null, false));
+      assertEquals(Collections.emptyList(), fileNames(index, key("0010"), null, false));
+      assertEquals(Collections.emptyList(), fileNames(index, null, key("0001"), false));
+    }
+  }
+
+  @Test
+  public void testChanges() throws IOException {
+    final Path directory = tempFolder.newFolder().toPath();
+    createFiles(directory, "0001a", "0003a", "0005a");
+    try (FileSystemKeyIndex index = new FileSystemKeyIndex(directory, FILE_NAME_TO_KEY)) {
+      index.add("0002a");
+      index.add("0003b");
+      index.remove("0003a");
+      index.remove("0005a");
+      index.add("0006a");
+      assertTrue(Files.exists(directory.resolve(FileSystemKeyIndex.DIRTY_FILE)));
+      final List<String> expected = Arrays.asList("0001a", "0002a", "0003b", "0006a");
+      assertEquals(expected, fileNames(index, null, null, false));
+      assertEquals(Arrays.asList("0003b"), fileNames(index, key("0003"), key("0003"), true));
+      // a row that is removed and added again exists
+      index.remove("0001a");
+      index.add("0001a");
+      index.compact();
+      assertFalse(Files.exists(directory.resolve(FileSystemKeyIndex.DIRTY_FILE)));
+      assertEquals(expected, fileNames(index, null, null, false));
+    }
+    // the changes were written when it was closed
+    try (FileSystemKeyIndex index = new FileSystemKeyIndex(directory, FILE_NAME_TO_KEY)) {
+      assertEquals(
+          Arrays.asList("0001a", "0002a", "0003b", "0006a"),
+          fileNames(index, null, null, false));
+      index.remove("0001a");
+      index.remove("0002a");
+      index.remove("0003b");
+      index.remove("0006a");
+    }
+    // no files are left behind once every row is removed
+    assertFalse(Files.exists(directory.resolve(FileSystemKeyIndex.INDEX_FILE)));
+    assertFalse(Files.exists(directory.resolve(FileSystemKeyIndex.DIRTY_FILE)));
+  }
+
+  @Test
+  public void testRebuildAfterUncleanClose() throws IOException {
+    final Path directory = tempFolder.newFolder().toPath();
+    createFiles(directory, "0001a", "0003a");
+    final FileSystemKeyIndex unclosed = new FileSystemKeyIndex(directory, FILE_NAME_TO_KEY);
+    createFiles(directory, "0002a");
+    unclosed.add("0002a");
+    Files.delete(directory.resolve("0003a"));
+    unclosed.remove("0003a");
+    // the changes only exist in memory, but the marker causes the index to be rebuilt
+    assertTrue(Files.exists(directory.resolve(FileSystemKeyIndex.DIRTY_FILE)));
+    try (FileSystemKeyIndex index = new FileSystemKeyIndex(directory, FILE_NAME_TO_KEY)) {
+      assertFalse(Files.exists(directory.resolve(FileSystemKeyIndex.DIRTY_FILE)));
+      assertEquals(Arrays.asList("0001a", "0002a"), fileNames(index, null, null, false));
+    }
+  }
+
+  @Test
+  public void testRebuildCorruptIndex() throws IOException {
+    final Path directory = tempFolder.newFolder().toPath();
+    createFiles(directory, "0001a", "0002a", "0003a");
+    new FileSystemKeyIndex(directory, FILE_NAME_TO_KEY).close();
+    final Path indexFile = directory.resolve(FileSystemKeyIndex.INDEX_FILE);
+
+    // truncated
+    final byte[] contents = Files.readAllBytes(indexFile);
+    Files.write(indexFile, Arrays.copyOf(contents, contents.length - 1));
+    assertRebuilt(directory);
+
+    // shorter than a footer
+    Files.write(indexFile, new byte[] {1, 2, 3});
+    assertRebuilt(directory);
+
+    // not an index file
+    final byte[] garbage = new byte[contents.length];
+    Arrays.fill(garbage, (byte) 7);
+    Files.write(indexFile, garbage);
+    assertRebuilt(directory);
+  }
+
+  @Test
+  public void testRebuildMissingIndex() throws IOException {
+    final Path directory = tempFolder.newFolder().toPath();
+    createFiles(directory, "0001a", "0002a");
+    new FileSystemKeyIndex(directory, FILE_NAME_TO_KEY).close();
+    Files.delete(directory.resolve(FileSystemKeyIndex.INDEX_FILE));
+    createFiles(directory, "0003a");
+    assertRebuilt(directory);
+  }
+
+  private static void assertRebuilt(final Path directory) throws IOException {
+    try (FileSystemKeyIndex index = new FileSystemKeyIndex(directory, FILE_NAME_TO_KEY)) {
+      final List<String> expected = new ArrayList<>();
+      try (Stream<Path> files = Files.list(directory)) {
+        files.map(p -> p.getFileName().toString()).filter(
+            f -> !FileSystemKeyIndex.isIndexFile(f)).sorted().forEach(expected::add);
+      }
+      assertEquals(expected, fileNames(index, null, null, false));
+    }
+  }
+
+  private static void createFiles(final Path directory, final String... fileNames)
+      throws IOException {
+    for (final String fileName : fileNames) {
+      Files.write(directory.resolve(fileName), new byte[] {1});
+    }
+  }
+
+  private static List<String> fileNames(
+      final FileSystemKeyIndex index,
+      final byte[] startKey,
+      final byte[] endKey,
+      final boolean endKeyInclusive) {
+    final List<String> fileNames = new ArrayList<>();
+    index.iterator(startKey, endKey, endKeyInclusive).forEachRemaining(
+        k -> fileNames.add(k.getFileName()));
+    return fileNames;
+  }
+
+  private static byte[] key(final String key) {
+    return key.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,221 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.filesystem.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.locationtech.geowave.core.store.CloseableIterator;
+
+public class FileSystemSegmentStorageTest {
+  // small enough that every test writes several segments and triggers merges
+  private static final long MEM_TABLE_BYTES = 4096;
+  private static final Function<String, FileSystemKey> FILE_NAME_TO_KEY =
+      fileName -> new BasicFileSystemKey(fileName.getBytes(StandardCharsets.UTF_8), fileName);
+
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
+  @Test
+  public void testRoundTrip() throws IOException {
+    final Path directory = tempFolder.newFolder().toPath();
+    FileSystemSegmentStorage storage = open(directory);
+    for (int i = 0; i < 1000; i++) {
+      storage.write(fileName(i), contents(i, 0));
+    }
+    // overwrite and delete rows that have already been written to segments
+    for (int i = 0; i < 1000; i += 3) {
+      storage.write(fileName(i), contents(i, 1));
+    }
+    for (int i = 0; i < 1000; i += 5) {
+      storage.delete(fileName(i));
+    }
+    assertRows(storage);
+    storage.close();
+    assertFalse(Files.exists(directory.resolve(FileSystemSegmentStorage.FLUSHING_WRITE_AHEAD_LOG)));
+
+    storage = open(directory);
+    assertRows(storage);
+    storage.deleteRange(key(100), key(200));
+    assertNull(storage.read(fileName(101)));
+    assertArrayEquals(contents(201, 1), storage.read(fileName(201)));
+    assertEquals(800 - 80, count(storage, null, null));
+    storage.close();
+  }
+
+  @Test
+  public void testRecoverFromWriteAheadLog() throws IOException {
+    final Path directory = tempFolder.newFolder().toPath();
+    final FileSystemSegmentStorage unclosed = open(directory);
+    for (int i = 0; i < 10; i++) {
+      unclosed.write(fileName(i), contents(i, 0));
+    }
+    unclosed.delete(fileName(3));
+    unclosed.flush();
+    // as if the process stopped while the in-memory table was being written as a segment
+    Files.move(
+        directory.resolve(FileSystemSegmentStorage.WRITE_AHEAD_LOG),
+        directory.resolve(FileSystemSegmentStorage.FLUSHING_WRITE_AHEAD_LOG));
+
+    final FileSystemSegmentStorage storage = open(directory);
+    assertFalse(Files.exists(directory.resolve(FileSystemSegmentStorage.FLUSHING_WRITE_AHEAD_LOG)));
+    assertArrayEquals(contents(2, 0), storage.read(fileName(2)));
+    assertNull(storage.read(fileName(3)));
+    assertEquals(9, count(storage, null, null));
+    storage.close();
+  }
+
+  @Test
+  public void testConcurrentReadsAndWrites() throws Exception {
+    final Path directory = tempFolder.newFolder().toPath();
+    final FileSystemSegmentStorage storage = open(directory);
+    final int writers = 4;
+    final int rowsPerWriter = 1000;
+    final AtomicBoolean writing = new AtomicBoolean(true);
+    final List<CompletableFuture<Void>> writes = new ArrayList<>();
+    for (int w = 0; w < writers; w++) {
+      final int writer = w;
+      writes.add(CompletableFuture.runAsync(() -> {
+        for (int i = writer; i < (writers * rowsPerWriter); i += writers) {
+          storage.write(fileName(i), contents(i, 0));
+          // a row must stay visible while the in-memory table it is in is written as a segment
+          assertArrayEquals(contents(i, 0), storage.read(fileName(i)));
+        }
+      }));
+    }
+    final CompletableFuture<Void> reads = CompletableFuture.runAsync(() -> {
+      while (writing.get()) {
+        try (CloseableIterator<Pair<FileSystemKey, byte[]>> it =
+            storage.iterator(null, null, false)) {
+          String previous = null;
+          while (it.hasNext()) {
+            final Pair<FileSystemKey, byte[]> row = it.next();
+            final String fileName = row.getLeft().getFileName();
+            assertTrue((previous == null) || (previous.compareTo(fileName) < 0));
+            assertArrayEquals(contents(Integer.parseInt(fileName), 0), row.getRight());
+            previous = fileName;
+          }
+        }
+      }
+    });
+    try {
+      CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).get();
+    } finally {
+      writing.set(false);
+    }
+    reads.get();
+    assertEquals(writers * rowsPerWriter, count(storage, null, null));
+    storage.close();
+
+    final FileSystemSegmentStorage reopened = open(directory);
+    assertEquals(writers * rowsPerWriter, count(reopened, null, null));
+    reopened.close();
+  }
+
+  @Test
+  public void testLargeSegmentIsNotRewrittenByEachMerge() throws IOException {
+    final Path directory = tempFolder.newFolder().toPath();
+    // write one large segment
+    final FileSystemSegmentStorage initial =
+        new FileSystemSegmentStorage(directory, FILE_NAME_TO_KEY, Long.MAX_VALUE);
+    for (int i = 0; i < 5000; i++) {
+      initial.write(fileName(i), contents(i, 0));
+    }
+    initial.close();
+    final List<Path> initialSegments = segmentFiles(directory);
+    assertEquals(1, initialSegments.size());
+    final Path largeSegment = initialSegments.get(0);
+
+    // enough small segments to be merged several times
+    final FileSystemSegmentStorage storage = open(directory);
+    for (int i = 5000; i < 6000; i++) {
+      storage.write(fileName(i), contents(i, 0));
+    }
+    storage.close();
+    final List<Path> segments = segmentFiles(directory);
+    assertTrue(segments.contains(largeSegment));
+    assertTrue(segments.size() > 1);
+    assertTrue(segments.size() < 10);
+
+    final FileSystemSegmentStorage reopened = open(directory);
+    assertEquals(6000, count(reopened, null, null));
+    assertArrayEquals(contents(10, 0), reopened.read(fileName(10)));
+    assertArrayEquals(contents(5500, 0), reopened.read(fileName(5500)));
+    reopened.close();
+  }
+
+  private static List<Path> segmentFiles(final Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(
+          f -> f.getFileName().toString().endsWith(FileSystemSegment.SEGMENT_SUFFIX)).collect(
+              Collectors.toList());
+    }
+  }
+
+  private static FileSystemSegmentStorage open(final Path directory) throws IOException {
+    return new FileSystemSegmentStorage(directory, FILE_NAME_TO_KEY, MEM_TABLE_BYTES);
+  }
+
+  private static void assertRows(final FileSystemSegmentStorage storage) {
+    for (int i = 0; i < 1000; i++) {
+      if ((i % 5) == 0) {
+        assertNull(storage.read(fileName(i)));
+      } else {
+        assertArrayEquals(contents(i, (i % 3) == 0 ? 1 : 0), storage.read(fileName(i)));
+      }
+    }
+    assertEquals(800, count(storage, null, null));
+    // rows 10 to 20 inclusive, less the deleted rows 10, 15 and 20
+    assertEquals(8, count(storage, key(10), key(20)));
+  }
+
+  private static int count(
+      final FileSystemSegmentStorage storage,
+      final byte[] startKey,
+      final byte[] endKey) {
+    int count = 0;
+    try (CloseableIterator<Pair<FileSystemKey, byte[]>> it =
+        storage.iterator(startKey, endKey, true)) {
+      while (it.hasNext()) {
+        it.next();
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static String fileName(final int i) {
+    return String.format("%06d", i);
+  }
+
+  private static byte[] key(final int i) {
+    return fileName(i).getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static byte[] contents(final int i, final int version) {
+    return (fileName(i) + "-" + version).getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -31,9 +31,11 @@ import org.locationtech.geowave.core.index.persist.Persistable;
 import org.locationtech.geowave.core.store.AdapterToIndexMapping;
 import org.locationtech.geowave.core.store.adapter.InternalDataAdapter;
 import org.locationtech.geowave.core.store.api.Aggregation;
+import org.locationtech.geowave.core.store.index.CommonIndexModel;
 import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.AggregationProtosServer;
 import org.locationtech.geowave.datastore.hbase.filters.HBaseDistributableFilter;
 import org.locationtech.geowave.datastore.hbase.filters.HBaseNumericIndexStrategyFilter;
+import org.locationtech.geowave.datastore.hbase.server.ServerSidePersistableCache;
 import org.locationtech.geowave.mapreduce.URLClassloaderUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -78,15 +80,52 @@ public class AggregationEndpoint extends AggregationProtosServer.AggregationServ
     Short internalAdapterId = null;
     AggregationProtosServer.AggregationResponse response = null;
     ByteString value = ByteString.EMPTY;
+    // the adapter, index mapping and index model are only used within this call, so decoded
+    // instances can be reused by later requests on this handler thread
+    final ServerSidePersistableCache cache = ServerSidePersistableCache.getInstance();
+    final AggregationProtosServer.AggregationType aggregationType = request.getAggregation();
+
+    // a client that has sent a binary before may only send its hash, aggregations and query
+    // filters keep state so only their binaries are cached and they are decoded for every request
+    final byte[] paramsHash =
+        toBinary(aggregationType.hasParamsHash(), aggregationType.getParamsHash());
+    final byte[] parameterBytes =
+        cache.getBinary(
+            paramsHash,
+            toBinary(aggregationType.hasParams(), aggregationType.getParams()));
+    final byte[] filterHash = toBinary(request.hasFilterHash(), request.getFilterHash());
+    final byte[] filterBytes =
+        cache.getBinary(filterHash, toBinary(request.hasFilter(), request.getFilter()));
+    final byte[] modelHash = toBinary(request.hasModelHash(), request.getModelHash());
+    final byte[] modelBytes =
+        cache.getBinary(modelHash, toBinary(request.hasModel(), request.getModel()));
+    final byte[] adapterHash = toBinary(request.hasAdapterHash(), request.getAdapterHash());
+    final byte[] adapterBytes =
+        cache.getBinary(adapterHash, toBinary(request.hasAdapter(), request.getAdapter()));
+    final byte[] mappingHash =
+        toBinary(request.hasIndexMappingHash(), request.getIndexMappingHash());
+    final byte[] mappingBytes =
+        cache.getBinary(
+            mappingHash,
+            toBinary(request.hasIndexMapping(), request.getIndexMapping()));
+    if (isMiss(paramsHash, parameterBytes)
+        || isMiss(filterHash, filterBytes)
+        || isMiss(modelHash, modelBytes)
+        || isMiss(adapterHash, adapterBytes)
+        || isMiss(mappingHash, mappingBytes)) {
+      // the client will resend the full request
+      done.run(
+          AggregationProtosServer.AggregationResponse.newBuilder().setValue(
+              ByteString.EMPTY).setCacheMiss(true).build());
+      return;
+    }
 
     // Get the aggregation type
     final Aggregation aggregation =
-        (Aggregation) URLClassloaderUtils.fromClassId(
-            request.getAggregation().getClassId().toByteArray());
+        (Aggregation) URLClassloaderUtils.fromClassId(aggregationType.getClassId().toByteArray());
 
     // Handle aggregation params
-    if (request.getAggregation().hasParams()) {
-      final byte[] parameterBytes = request.getAggregation().getParams().toByteArray();
+    if (parameterBytes != null) {
       final Persistable aggregationParams = URLClassloaderUtils.fromBinary(parameterBytes);
       aggregation.setParameters(aggregationParams);
     }
@@ -110,7 +149,7 @@ public class AggregationEndpoint extends AggregationProtosServer.AggregationServ
 
         try {
           final HBaseNumericIndexStrategyFilter numericIndexStrategyFilter =
-              HBaseNumericIndexStrategyFilter.parseFrom(nisFilterBytes);
+              HBaseNumericIndexStrategyFilter.parseFrom(nisFilterBytes, cache::getPersistable);
           if (filterList == null) {
             filterList = new FilterList(numericIndexStrategyFilter);
           } else {
@@ -124,7 +163,7 @@ public class AggregationEndpoint extends AggregationProtosServer.AggregationServ
       try {
         // Add distributable filters if requested, this has to be last
         // in the filter list for the dedupe filter to work correctly
-        if (request.hasModel()) {
+        if (modelBytes != null) {
           hdFilter = new HBaseDistributableFilter();
 
           if (request.hasWholeRowFilter()) {
@@ -135,15 +174,9 @@ public class AggregationEndpoint extends AggregationProtosServer.AggregationServ
             hdFilter.setPartitionKeyLength(request.getPartitionKeyLength());
           }
 
-          final byte[] filterBytes;
-          if (request.hasFilter()) {
-            filterBytes = request.getFilter().toByteArray();
-          } else {
-            filterBytes = null;
-          }
-          final byte[] modelBytes = request.getModel().toByteArray();
+          final CommonIndexModel model = (CommonIndexModel) cache.getPersistable(modelBytes);
 
-          if (hdFilter.init(filterBytes, modelBytes)) {
+          if (hdFilter.init(filterBytes, model)) {
             if (filterList == null) {
               filterList = new FilterList(hdFilter);
             } else {
@@ -159,18 +192,12 @@ public class AggregationEndpoint extends AggregationProtosServer.AggregationServ
         LOGGER.error("Error creating distributable filter.", e);
       }
 
-      if (request.hasAdapter()) {
-        final byte[] adapterBytes = request.getAdapter().toByteArray();
-        dataAdapter = (InternalDataAdapter<?>) URLClassloaderUtils.fromBinary(adapterBytes);
-      }
+      dataAdapter = (InternalDataAdapter<?>) cache.getPersistable(adapterBytes);
       if (request.hasInternalAdapterId()) {
         final byte[] adapterIdBytes = request.getInternalAdapterId().toByteArray();
         internalAdapterId = ByteArrayUtils.byteArrayToShort(adapterIdBytes);
       }
-      if (request.hasIndexMapping()) {
-        final byte[] mappingBytes = request.getIndexMapping().toByteArray();
-        indexMapping = (AdapterToIndexMapping) URLClassloaderUtils.fromBinary(mappingBytes);
-      }
+      indexMapping = (AdapterToIndexMapping) cache.getPersistable(mappingBytes);
       final String[] authorizations;
       if (request.hasVisLabels()) {
         final byte[] visBytes = request.getVisLabels().toByteArray();
@@ -210,11 +237,23 @@ public class AggregationEndpoint extends AggregationProtosServer.AggregationServ
       }
     }
 
-    response = AggregationProtosServer.AggregationResponse.newBuilder().setValue(value).build();
+    // the cache miss flag is always set so that the client knows that this coprocessor supports
+    // requests that only send hashes
+    response =
+        AggregationProtosServer.AggregationResponse.newBuilder().setValue(value).setCacheMiss(
+            false).build();
 
     done.run(response);
   }
 
+  private static byte[] toBinary(final boolean hasValue, final ByteString value) {
+    return hasValue ? value.toByteArray() : null;
+  }
+
+  private static boolean isMiss(final byte[] hash, final byte[] binary) {
+    return (hash != null) && (binary == null);
+  }
+
   private Object getValue(
       final Aggregation aggregation,
       final Filter filter,
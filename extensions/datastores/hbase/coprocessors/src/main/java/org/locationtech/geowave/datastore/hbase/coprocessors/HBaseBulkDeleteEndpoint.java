@@ -35,6 +35,7 @@ import org.apache.hadoop.hbase.regionserver.RegionScanner;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.locationtech.geowave.core.index.ByteArrayUtils;
 import org.locationtech.geowave.core.index.StringUtils;
+import org.locationtech.geowave.core.store.index.CommonIndexModel;
 import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.HBaseBulkDeleteProtosServer.BulkDeleteRequest;
 import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.HBaseBulkDeleteProtosServer.BulkDeleteRequest.BulkDeleteType;
 import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.HBaseBulkDeleteProtosServer.BulkDeleteResponse;
@@ -42,6 +43,7 @@ import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.HBaseBulkD
 import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.HBaseBulkDeleteProtosServer.BulkDeleteService;
 import org.locationtech.geowave.datastore.hbase.filters.HBaseDistributableFilter;
 import org.locationtech.geowave.datastore.hbase.filters.HBaseNumericIndexStrategyFilter;
+import org.locationtech.geowave.datastore.hbase.server.ServerSidePersistableCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.protobuf.RpcCallback;
@@ -75,6 +77,9 @@ public class HBaseBulkDeleteEndpoint extends BulkDeleteService implements Region
       timestamp = request.getTimestamp();
     }
     final BulkDeleteType deleteType = request.getDeleteType();
+    // the index model and index strategy are only used within this call, so decoded instances can
+    // be reused by later requests on this handler thread
+    final ServerSidePersistableCache cache = ServerSidePersistableCache.getInstance();
 
     /** Extract the filter from the bulkDeleteRequest */
     HBaseDistributableFilter hdFilter = null;
@@ -96,7 +101,7 @@ public class HBaseBulkDeleteEndpoint extends BulkDeleteService implements Region
 
       try {
         final HBaseNumericIndexStrategyFilter numericIndexStrategyFilter =
-            HBaseNumericIndexStrategyFilter.parseFrom(nisFilterBytes);
+            HBaseNumericIndexStrategyFilter.parseFrom(nisFilterBytes, cache::getPersistable);
         if (filterList == null) {
           filterList = new FilterList(numericIndexStrategyFilter);
         } else {
@@ -118,8 +123,9 @@ public class HBaseBulkDeleteEndpoint extends BulkDeleteService implements Region
         } else {
           filterBytes = null;
         }
-        final byte[] modelBytes = request.getModel().toByteArray();
-        if (hdFilter.init(filterBytes, modelBytes)) {
+        final CommonIndexModel model =
+            (CommonIndexModel) cache.getPersistable(request.getModel().toByteArray());
+        if (hdFilter.init(filterBytes, model)) {
           if (filterList == null) {
             filterList = new FilterList(hdFilter);
           } else {
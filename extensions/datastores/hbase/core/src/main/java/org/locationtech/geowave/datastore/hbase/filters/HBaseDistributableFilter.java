@@ -111,6 +111,20 @@ public class HBaseDistributableFilter extends FilterBase {
   }
 
   public boolean init(final byte[] filterBytes, final byte[] modelBytes) {
+    // a scan filter can be resumed by any handler thread, so it always decodes its own model
+    return init(filterBytes, (CommonIndexModel) URLClassloaderUtils.fromBinary(modelBytes));
+  }
+
+  /**
+   * Initialize the filter with an already decoded index model. The model must not be used by any
+   * other thread while this filter is in use. Query filters may keep state, so they are always
+   * decoded for each filter instance.
+   *
+   * @param filterBytes the serialized query filters
+   * @param model the index model
+   * @return {@code true} if the filter was initialized successfully
+   */
+  public boolean init(final byte[] filterBytes, final CommonIndexModel model) {
     filterList.clear();
     if ((filterBytes != null) && (filterBytes.length > 0)) {
       final List<Persistable> decodedFilterList = URLClassloaderUtils.fromBinaryAsList(filterBytes);
@@ -129,7 +143,7 @@ public class HBaseDistributableFilter extends FilterBase {
       }
     }
 
-    model = (CommonIndexModel) URLClassloaderUtils.fromBinary(modelBytes);
+    this.model = model;
 
     if (model == null) {
       LOGGER.error("Failed to decode index model");
@@ -10,6 +10,7 @@ package org.locationtech.geowave.datastore.hbase.filters;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.function.Function;
 import org.apache.hadoop.hbase.Cell;
 import org.apache.hadoop.hbase.exceptions.DeserializationException;
 import org.apache.hadoop.hbase.filter.FilterBase;
@@ -18,6 +19,7 @@ import org.locationtech.geowave.core.index.MultiDimensionalCoordinateRangesArray
 import org.locationtech.geowave.core.index.MultiDimensionalCoordinates;
 import org.locationtech.geowave.core.index.NumericIndexStrategy;
 import org.locationtech.geowave.core.index.VarintUtils;
+import org.locationtech.geowave.core.index.persist.Persistable;
 import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
 import org.locationtech.geowave.core.store.query.constraints.CoordinateRangeUtils.RangeCache;
 import org.locationtech.geowave.core.store.query.constraints.CoordinateRangeUtils.RangeLookupFactory;
@@ -41,6 +43,22 @@ public class HBaseNumericIndexStrategyFilter extends FilterBase {
 
   public static HBaseNumericIndexStrategyFilter parseFrom(final byte[] pbBytes)
       throws DeserializationException {
+    // a scan filter can be resumed by any handler thread, so it always decodes its own strategy
+    return parseFrom(pbBytes, URLClassloaderUtils::fromBinary);
+  }
+
+  /**
+   * Parse a filter that is only used by the calling thread, such as within a coprocessor endpoint
+   * call, so that its index strategy can come from a cache of decoded objects.
+   *
+   * @param pbBytes the serialized filter
+   * @param decoder decodes the binary of the index strategy
+   * @return the filter
+   * @throws DeserializationException if the filter could not be read
+   */
+  public static HBaseNumericIndexStrategyFilter parseFrom(
+      final byte[] pbBytes,
+      final Function<byte[], Persistable> decoder) throws DeserializationException {
     final ByteBuffer buf = ByteBuffer.wrap(pbBytes);
     NumericIndexStrategy indexStrategy;
     MultiDimensionalCoordinateRangesArray[] coordinateRanges;
@@ -48,7 +66,7 @@ public class HBaseNumericIndexStrategyFilter extends FilterBase {
       final int indexStrategyLength = VarintUtils.readUnsignedInt(buf);
       final byte[] indexStrategyBytes = new byte[indexStrategyLength];
       buf.get(indexStrategyBytes);
-      indexStrategy = (NumericIndexStrategy) URLClassloaderUtils.fromBinary(indexStrategyBytes);
+      indexStrategy = (NumericIndexStrategy) decoder.apply(indexStrategyBytes);
       final byte[] coordRangeBytes = new byte[buf.remaining()];
       buf.get(coordRangeBytes);
       final ArrayOfArrays arrays = new ArrayOfArrays();
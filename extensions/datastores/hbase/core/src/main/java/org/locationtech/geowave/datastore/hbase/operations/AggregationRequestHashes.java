@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.hbase.operations;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.hadoop.hbase.shaded.com.google.protobuf.ByteString;
+import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.AggregationProtosClient.AggregationRequest;
+import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.AggregationProtosClient.AggregationResponse;
+import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.AggregationProtosClient.AggregationService;
+import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.AggregationProtosClient.AggregationType;
+import org.locationtech.geowave.datastore.hbase.server.ServerSidePersistableCache;
+import org.locationtech.geowave.datastore.hbase.util.GeoWaveBlockingRpcCallback;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps track of the binaries that have been sent to the aggregation coprocessors of each table, so
+ * that later aggregations only need to send their hashes. Hash-only requests are only sent to a
+ * table once every region of it has answered with a coprocessor that understands them. A region
+ * that no longer has a binary cached, or that turns out to run an older coprocessor, is sent the
+ * full request instead.
+ */
+class AggregationRequestHashes {
+  private static final int MAX_SENT_BINARIES = 1000;
+  // the table and hash of each binary that the coprocessors of the table have cached
+  private final Cache<Pair<String, ByteArray>, Boolean> sentBinaries =
+      CacheBuilder.newBuilder().maximumSize(MAX_SENT_BINARIES).build();
+  private final Set<String> hashRequestTables = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Add the hash of each binary to a request so that the coprocessors cache the binaries for later
+   * requests. An older coprocessor ignores the hashes.
+   *
+   * @param request the full request
+   * @return the full request along with the hashes of its binaries
+   */
+  AggregationRequest withHashes(final AggregationRequest request) {
+    final AggregationRequest.Builder builder = request.toBuilder();
+    final AggregationType aggregation = request.getAggregation();
+    if (aggregation.hasParams()) {
+      builder.setAggregation(aggregation.toBuilder().setParamsHash(hash(aggregation.getParams())));
+    }
+    if (request.hasFilter()) {
+      builder.setFilterHash(hash(request.getFilter()));
+    }
+    if (request.hasModel()) {
+      builder.setModelHash(hash(request.getModel()));
+    }
+    if (request.hasAdapter()) {
+      builder.setAdapterHash(hash(request.getAdapter()));
+    }
+    if (request.hasIndexMapping()) {
+      builder.setIndexMappingHash(hash(request.getIndexMapping()));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Strip the binaries that the coprocessors of a table already have from a request.
+   *
+   * @param tableName the table the request is sent to
+   * @param request the full request, along with the hashes of its binaries
+   * @return the request with only the hashes of the cached binaries, or {@code null} if the full
+   *         request has to be sent
+   */
+  AggregationRequest toHashOnlyRequest(final String tableName, final AggregationRequest request) {
+    if (!hashRequestTables.contains(tableName)) {
+      return null;
+    }
+    final AggregationRequest.Builder builder = request.toBuilder();
+    boolean hashOnly = false;
+    final AggregationType aggregation = request.getAggregation();
+    if (isSent(tableName, aggregation.hasParamsHash(), aggregation.getParamsHash())) {
+      builder.setAggregation(aggregation.toBuilder().clearParams());
+      hashOnly = true;
+    }
+    if (isSent(tableName, request.hasFilterHash(), request.getFilterHash())) {
+      builder.clearFilter();
+      hashOnly = true;
+    }
+    if (isSent(tableName, request.hasModelHash(), request.getModelHash())) {
+      builder.clearModel();
+      hashOnly = true;
+    }
+    if (isSent(tableName, request.hasAdapterHash(), request.getAdapterHash())) {
+      builder.clearAdapter();
+      hashOnly = true;
+    }
+    if (isSent(tableName, request.hasIndexMappingHash(), request.getIndexMappingHash())) {
+      builder.clearIndexMapping();
+      hashOnly = true;
+    }
+    return hashOnly ? builder.build() : null;
+  }
+
+  /**
+   * Run an aggregation on a region, trying the hash-only request first if there is one.
+   *
+   * @param service the aggregation service of the region
+   * @param request the full request
+   * @param hashOnlyRequest the hash-only request, or {@code null} to only send the full request
+   * @return the response of the region, or {@code null} if it returned none
+   * @throws IOException if the call was interrupted
+   */
+  AggregationResponse aggregate(
+      final AggregationService service,
+      final AggregationRequest request,
+      final AggregationRequest hashOnlyRequest) throws IOException {
+    if (hashOnlyRequest != null) {
+      final AggregationResponse response = call(service, hashOnlyRequest);
+      // an older coprocessor never sets the cache miss flag because it ignored the hashes
+      if ((response != null) && response.hasCacheMiss() && !response.getCacheMiss()) {
+        return response;
+      }
+    }
+    return call(service, request);
+  }
+
+  /**
+   * Record the responses of every region of a table to an aggregation. Once all of them come from
+   * coprocessors that understand hashes, later requests to the table only send the hashes of the
+   * binaries in this request.
+   *
+   * @param tableName the table the request was sent to
+   * @param request the full request, along with the hashes of its binaries
+   * @param responses the response of each region
+   */
+  void aggregated(
+      final String tableName,
+      final AggregationRequest request,
+      final Collection<AggregationResponse> responses) {
+    if (!responses.stream().allMatch(r -> (r != null) && r.hasCacheMiss())) {
+      hashRequestTables.remove(tableName);
+      return;
+    }
+    hashRequestTables.add(tableName);
+    final AggregationType aggregation = request.getAggregation();
+    sent(tableName, aggregation.hasParamsHash(), aggregation.getParamsHash());
+    sent(tableName, request.hasFilterHash(), request.getFilterHash());
+    sent(tableName, request.hasModelHash(), request.getModelHash());
+    sent(tableName, request.hasAdapterHash(), request.getAdapterHash());
+    sent(tableName, request.hasIndexMappingHash(), request.getIndexMappingHash());
+  }
+
+  private boolean isSent(final String tableName, final boolean hasHash, final ByteString hash) {
+    return hasHash
+        && (sentBinaries.getIfPresent(Pair.of(tableName, new ByteArray(hash.toByteArray()))) != null);
+  }
+
+  private void sent(final String tableName, final boolean hasHash, final ByteString hash) {
+    if (hasHash) {
+      sentBinaries.put(Pair.of(tableName, new ByteArray(hash.toByteArray())), Boolean.TRUE);
+    }
+  }
+
+  private static ByteString hash(final ByteString binary) {
+    return ByteString.copyFrom(ServerSidePersistableCache.hash(binary.toByteArray()));
+  }
+
+  private static AggregationResponse call(
+      final AggregationService service,
+      final AggregationRequest request) throws IOException {
+    final GeoWaveBlockingRpcCallback<AggregationResponse> rpcCallback =
+        new GeoWaveBlockingRpcCallback<>();
+    service.aggregate(null, request, rpcCallback);
+    return rpcCallback.get();
+  }
+}
@@ -153,6 +153,7 @@ public class HBaseOperations implements MapReduceDataStoreOperations, ServerSide
   private final boolean schemaUpdateEnabled;
   private final HashMap<String, List<String>> coprocessorCache = new HashMap<>();
   private final Map<TableName, Set<ByteArray>> partitionCache = new HashMap<>();
+  private final AggregationRequestHashes aggregationRequestHashes = new AggregationRequestHashes();
   private final HashMap<TableName, Set<GeoWaveColumnFamily>> cfCache = new HashMap<>();
 
   private final HBaseOptions options;
@@ -1083,7 +1084,11 @@ public class HBaseOperations implements MapReduceDataStoreOperations, ServerSide
       requestBuilder.setPartitionKeyLength(
           readerParams.getIndex().getIndexStrategy().getPartitionKeyLength());
 
-      final AggregationProtosClient.AggregationRequest request = requestBuilder.build();
+      final AggregationProtosClient.AggregationRequest request =
+          aggregationRequestHashes.withHashes(requestBuilder.build());
+      // binaries that the coprocessors have already cached only need to be sent as hashes
+      final AggregationProtosClient.AggregationRequest hashOnlyRequest =
+          aggregationRequestHashes.toHashOnlyRequest(tableName, request);
 
       byte[] startRow = null;
       byte[] endRow = null;
@@ -1095,7 +1100,7 @@ public class HBaseOperations implements MapReduceDataStoreOperations, ServerSide
         endRow = aggRange.getEnd();
       }
 
-      Map<byte[], ByteString> results = null;
+      Map<byte[], AggregationProtosClient.AggregationResponse> results = null;
       boolean shouldRetry;
       int retries = 0;
       do {
@@ -1107,20 +1112,18 @@ public class HBaseOperations implements MapReduceDataStoreOperations, ServerSide
                   AggregationProtosClient.AggregationService.class,
                   startRow,
                   endRow,
-                  new Batch.Call<AggregationProtosClient.AggregationService, ByteString>() {
+                  new Batch.Call<AggregationProtosClient.AggregationService, AggregationProtosClient.AggregationResponse>() {
                     @Override
-                    public ByteString call(final AggregationProtosClient.AggregationService counter)
+                    public AggregationProtosClient.AggregationResponse call(
+                        final AggregationProtosClient.AggregationService counter)
                         throws IOException {
-                      final GeoWaveBlockingRpcCallback<AggregationProtosClient.AggregationResponse> rpcCallback =
-                          new GeoWaveBlockingRpcCallback<>();
-                      counter.aggregate(null, request, rpcCallback);
                       final AggregationProtosClient.AggregationResponse response =
-                          rpcCallback.get();
+                          aggregationRequestHashes.aggregate(counter, request, hashOnlyRequest);
                       if (response == null) {
                         // Region returned no response
                         throw new RegionException();
                       }
-                      return response.hasValue() ? response.getValue() : null;
+                      return response;
                     }
                   });
           break;
@@ -1142,12 +1145,13 @@ public class HBaseOperations implements MapReduceDataStoreOperations, ServerSide
         LOGGER.error("Aggregate timed out and exceeded max retries.");
         return null;
       }
+      aggregationRequestHashes.aggregated(tableName, request, results.values());
 
       return Iterators.transform(
           results.values().iterator(),
-          b -> new GeoWaveRowImpl(
+          r -> new GeoWaveRowImpl(
               null,
-              new GeoWaveValue[] {new GeoWaveValueImpl(null, null, b.toByteArray())}));
+              new GeoWaveValue[] {new GeoWaveValueImpl(null, null, r.getValue().toByteArray())}));
     } catch (final Exception e) {
       LOGGER.error("Error during aggregation.", e);
     } catch (final Throwable e) {
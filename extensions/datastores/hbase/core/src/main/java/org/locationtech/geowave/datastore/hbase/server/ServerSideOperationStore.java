@@ -108,9 +108,14 @@ public class ServerSideOperationStore {
       if (!scopes.contains(scope)) {
         return null;
       }
-      // defer instantiation of the filter until its required
+      // defer instantiation of the filter until its required, regions with the same configuration
+      // on this server share the operation rather than each decoding their own
       if (operation == null) {
-        operation = createOperation();
+        operation =
+            ServerSidePersistableCache.getInstance().getServerOp(
+                classId,
+                options,
+                this::createOperation);
       }
       return operation;
     }
@@ -121,7 +126,9 @@ public class ServerSideOperationStore {
         try {
           op.init(options);
         } catch (final IOException e) {
-          LOGGER.warn("Unable to initialize operation", e);
+          // not returned so that it isn't cached and the next request tries again
+          LOGGER.error("Unable to initialize operation", e);
+          return null;
         }
       }
       return op;
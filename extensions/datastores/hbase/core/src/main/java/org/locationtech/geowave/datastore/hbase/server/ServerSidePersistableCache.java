@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.hbase.server;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.locationtech.geowave.core.index.ByteArray;
+import org.locationtech.geowave.core.index.StringUtils;
+import org.locationtech.geowave.core.index.persist.Persistable;
+import org.locationtech.geowave.mapreduce.URLClassloaderUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * Region server side cache of objects that clients send serialized with every coprocessor request,
+ * so that a handler thread serving many regions of the same query doesn't deserialize the same
+ * adapter, index mapping and index model for each of them. Entries are keyed by a content hash of
+ * their binary form.
+ *
+ * <p> Binaries are immutable and are shared by the whole region server, which lets a client that
+ * has already sent a binary refer to it by its hash alone. If the binary has been evicted the
+ * lookup misses and the client has to send the full binary again.
+ *
+ * <p> Decoded objects are not guaranteed to be thread safe, so each thread has its own cache and a
+ * decoded object is never used by two threads at once. This only holds if the object is not used
+ * beyond the call that requested it. A scan filter, for example, may be resumed by a different
+ * handler thread and must decode its own objects. Stateful objects such as aggregations and query
+ * filters should never be cached. Server ops are the exception, they are shared by every thread
+ * that scans a region anyway, so regions with the same server op configuration share one instance.
+ */
+public class ServerSidePersistableCache {
+  private static final int MAX_ENTRIES_PER_THREAD = 100;
+  private static final long MAX_BINARY_BYTES = 64 * 1024 * 1024;
+  private static final long EXPIRE_AFTER_ACCESS_MINUTES = 30;
+  private static ServerSidePersistableCache singletonInstance;
+
+  public static synchronized ServerSidePersistableCache getInstance() {
+    if (singletonInstance == null) {
+      singletonInstance = new ServerSidePersistableCache();
+    }
+    return singletonInstance;
+  }
+
+  /**
+   * @param binary a serialized object
+   * @return the content hash that the binary is cached under
+   */
+  public static byte[] hash(final byte[] binary) {
+    return Hashing.sha256().hashBytes(binary).asBytes();
+  }
+
+  private final Cache<ByteArray, byte[]> binaries =
+      CacheBuilder.newBuilder().maximumWeight(MAX_BINARY_BYTES).<ByteArray, byte[]>weigher(
+          (k, v) -> v.length).expireAfterAccess(
+              EXPIRE_AFTER_ACCESS_MINUTES,
+              TimeUnit.MINUTES).build();
+  private final Cache<ByteArray, HBaseServerOp> serverOps =
+      CacheBuilder.newBuilder().expireAfterAccess(
+          EXPIRE_AFTER_ACCESS_MINUTES,
+          TimeUnit.MINUTES).build();
+  private final ThreadLocal<Cache<ByteArray, Persistable>> threadCaches =
+      ThreadLocal.withInitial(
+          () -> CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES_PER_THREAD).expireAfterAccess(
+              EXPIRE_AFTER_ACCESS_MINUTES,
+              TimeUnit.MINUTES).build());
+
+  protected ServerSidePersistableCache() {}
+
+  /**
+   * Resolve a binary that a client may have sent in full or as the hash of a binary it sent before.
+   * A binary that is sent in full along with a hash is cached so that later requests can send the
+   * hash alone.
+   *
+   * @param hash the hash of the binary, or {@code null} if the client doesn't refer to it by hash
+   * @param binary the full binary, or {@code null} if the client only sent the hash
+   * @return the binary, or {@code null} if it was only sent as a hash that is not cached
+   */
+  public byte[] getBinary(final byte[] hash, final byte[] binary) {
+    if (binary != null) {
+      if (hash != null) {
+        // the client's hash is not trusted, the binary is always cached under its own hash
+        binaries.put(new ByteArray(hash(binary)), binary);
+      }
+      return binary;
+    }
+    if (hash == null) {
+      return null;
+    }
+    return binaries.getIfPresent(new ByteArray(hash));
+  }
+
+  /**
+   * Get the decoded form of a serialized object, reusing the instance this thread previously
+   * decoded from the same binary.
+   *
+   * @param binary the serialized object
+   * @return the decoded object, or {@code null} if the binary is {@code null}
+   */
+  public Persistable getPersistable(final byte[] binary) {
+    if (binary == null) {
+      return null;
+    }
+    final Cache<ByteArray, Persistable> cache = threadCaches.get();
+    final ByteArray key = new ByteArray(hash(binary));
+    Persistable persistable = cache.getIfPresent(key);
+    if (persistable == null) {
+      persistable = URLClassloaderUtils.fromBinary(binary);
+      if (persistable != null) {
+        cache.put(key, persistable);
+      }
+    }
+    return persistable;
+  }
+
+  /**
+   * Get the server op for a class and its options, creating it only if no other region on this
+   * server has already created one with the same configuration.
+   *
+   * @param classId the class ID of the server op
+   * @param options the options the server op is initialized with
+   * @param opSupplier creates and initializes the server op
+   * @return the server op, or {@code null} if it could not be created
+   */
+  public HBaseServerOp getServerOp(
+      final byte[] classId,
+      final Map<String, String> options,
+      final Supplier<HBaseServerOp> opSupplier) {
+    final Hasher hasher = Hashing.sha256().newHasher().putInt(classId.length).putBytes(classId);
+    // sorted so that the same options always hash the same way
+    new TreeMap<>(options).forEach((k, v) -> {
+      hasher.putString(k, StringUtils.UTF8_CHARSET).putByte((byte) 0);
+      if (v != null) {
+        hasher.putString(v, StringUtils.UTF8_CHARSET);
+      }
+      hasher.putByte(v == null ? (byte) 0 : (byte) 1);
+    });
+    final ByteArray key = new ByteArray(hasher.hash().asBytes());
+    HBaseServerOp op = serverOps.getIfPresent(key);
+    if (op == null) {
+      synchronized (serverOps) {
+        op = serverOps.getIfPresent(key);
+        if (op == null) {
+          op = opSupplier.get();
+          if (op != null) {
+            serverOps.put(key, op);
+          }
+        }
+      }
+    }
+    return op;
+  }
+}
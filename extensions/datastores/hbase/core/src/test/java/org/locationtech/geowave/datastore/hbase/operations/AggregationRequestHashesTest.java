@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.hbase.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.apache.hadoop.hbase.shaded.com.google.protobuf.ByteString;
+import org.apache.hadoop.hbase.shaded.com.google.protobuf.RpcCallback;
+import org.apache.hadoop.hbase.shaded.com.google.protobuf.RpcController;
+import org.junit.Test;
+import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.AggregationProtosClient.AggregationRequest;
+import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.AggregationProtosClient.AggregationResponse;
+import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.AggregationProtosClient.AggregationService;
+import org.locationtech.geowave.datastore.hbase.coprocessors.protobuf.AggregationProtosClient.AggregationType;
+import org.locationtech.geowave.datastore.hbase.server.ServerSidePersistableCache;
+
+public class AggregationRequestHashesTest {
+  private static final String TABLE_NAME = "table";
+  private static final ByteString MODEL = ByteString.copyFromUtf8("model");
+
+  @Test
+  public void testHashesAreOnlySentOnceSupported() throws IOException {
+    final AggregationRequestHashes hashes = new AggregationRequestHashes();
+    final AggregationRequest request = hashes.withHashes(createRequest());
+    assertTrue(request.hasModel());
+    assertTrue(request.hasModelHash());
+    // nothing is known about the coprocessors of the table yet
+    assertNull(hashes.toHashOnlyRequest(TABLE_NAME, request));
+
+    final Region region = new Region(true);
+    final AggregationResponse response = hashes.aggregate(region, request, null);
+    hashes.aggregated(TABLE_NAME, request, Collections.singletonList(response));
+    final AggregationRequest hashOnlyRequest = hashes.toHashOnlyRequest(TABLE_NAME, request);
+    assertNotNull(hashOnlyRequest);
+    assertFalse(hashOnlyRequest.hasModel());
+    assertTrue(hashOnlyRequest.hasModelHash());
+
+    assertEquals(MODEL, hashes.aggregate(region, request, hashOnlyRequest).getValue());
+    assertFalse(region.requests.get(1).hasModel());
+    // binaries are tracked per table
+    assertNull(hashes.toHashOnlyRequest("other", request));
+  }
+
+  @Test
+  public void testCacheMissFallsBackToFullRequest() throws IOException {
+    final AggregationRequestHashes hashes = new AggregationRequestHashes();
+    final AggregationRequest request = hashes.withHashes(createRequest());
+    hashes.aggregated(
+        TABLE_NAME,
+        request,
+        Collections.singletonList(hashes.aggregate(new Region(true), request, null)));
+    final AggregationRequest hashOnlyRequest = hashes.toHashOnlyRequest(TABLE_NAME, request);
+
+    // a region on a server that never received the model, or that has evicted it
+    final Region region = new Region(true);
+    final AggregationResponse response = hashes.aggregate(region, request, hashOnlyRequest);
+    assertEquals(MODEL, response.getValue());
+    assertFalse(response.getCacheMiss());
+    assertEquals(2, region.requests.size());
+    assertFalse(region.requests.get(0).hasModel());
+    assertTrue(region.requests.get(1).hasModel());
+  }
+
+  @Test
+  public void testOlderCoprocessorIsSentFullRequest() throws IOException {
+    final AggregationRequestHashes hashes = new AggregationRequestHashes();
+    final AggregationRequest request = hashes.withHashes(createRequest());
+    final Region olderRegion = new Region(false);
+    final List<AggregationResponse> responses = new ArrayList<>();
+    responses.add(hashes.aggregate(new Region(true), request, null));
+    responses.add(hashes.aggregate(olderRegion, request, null));
+    // one older region is enough to never send hash-only requests to the table
+    hashes.aggregated(TABLE_NAME, request, responses);
+    assertNull(hashes.toHashOnlyRequest(TABLE_NAME, request));
+
+    // a region that moved to an older server after the table was found to support hashes
+    hashes.aggregated(
+        TABLE_NAME,
+        request,
+        Collections.singletonList(hashes.aggregate(new Region(true), request, null)));
+    final AggregationRequest hashOnlyRequest = hashes.toHashOnlyRequest(TABLE_NAME, request);
+    assertNotNull(hashOnlyRequest);
+    final Region movedRegion = new Region(false);
+    final AggregationResponse response = hashes.aggregate(movedRegion, request, hashOnlyRequest);
+    assertEquals(MODEL, response.getValue());
+    assertEquals(2, movedRegion.requests.size());
+    assertTrue(movedRegion.requests.get(1).hasModel());
+    hashes.aggregated(TABLE_NAME, request, Collections.singletonList(response));
+    assertNull(hashes.toHashOnlyRequest(TABLE_NAME, request));
+  }
+
+  private static AggregationRequest createRequest() {
+    return AggregationRequest.newBuilder().setAggregation(
+        AggregationType.newBuilder().setClassId(ByteString.copyFrom(new byte[] {1}))).setModel(
+            MODEL).build();
+  }
+
+  /**
+   * A region that answers with the model it was sent. An older coprocessor doesn't know about
+   * hashes, while a current one has its own empty cache, like a server that has evicted them.
+   */
+  private static class Region extends AggregationService {
+    private final boolean supportsHashes;
+    private final ServerSidePersistableCache cache = new ServerSidePersistableCache() {};
+    private final List<AggregationRequest> requests = new ArrayList<>();
+
+    private Region(final boolean supportsHashes) {
+      this.supportsHashes = supportsHashes;
+    }
+
+    @Override
+    public void aggregate(
+        final RpcController controller,
+        final AggregationRequest request,
+        final RpcCallback<AggregationResponse> done) {
+      requests.add(request);
+      if (!supportsHashes) {
+        done.run(AggregationResponse.newBuilder().setValue(request.getModel()).build());
+        return;
+      }
+      final byte[] model =
+          cache.getBinary(
+              request.hasModelHash() ? request.getModelHash().toByteArray() : null,
+              request.hasModel() ? request.getModel().toByteArray() : null);
+      if (model == null) {
+        done.run(
+            AggregationResponse.newBuilder().setValue(ByteString.EMPTY).setCacheMiss(true).build());
+        return;
+      }
+      done.run(
+          AggregationResponse.newBuilder().setValue(ByteString.copyFrom(model)).setCacheMiss(
+              false).build());
+    }
+  }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.hbase.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.NullNumericIndexStrategy;
+import org.locationtech.geowave.core.index.persist.Persistable;
+import org.locationtech.geowave.mapreduce.URLClassloaderUtils;
+
+public class ServerSidePersistableCacheTest {
+
+  @Test
+  public void testDecodedObjectsAreReused() {
+    final ServerSidePersistableCache cache = new ServerSidePersistableCache();
+    final byte[] binary = URLClassloaderUtils.toBinary(new NullNumericIndexStrategy("a"));
+    final Persistable decoded = cache.getPersistable(binary);
+    assertEquals("a", ((NullNumericIndexStrategy) decoded).getId());
+    assertSame(decoded, cache.getPersistable(binary));
+    // entries are keyed by content, not by array identity
+    assertSame(decoded, cache.getPersistable(Arrays.copyOf(binary, binary.length)));
+  }
+
+  @Test
+  public void testDifferentBinaries() {
+    final ServerSidePersistableCache cache = new ServerSidePersistableCache();
+    final Persistable a =
+        cache.getPersistable(URLClassloaderUtils.toBinary(new NullNumericIndexStrategy("a")));
+    final Persistable b =
+        cache.getPersistable(URLClassloaderUtils.toBinary(new NullNumericIndexStrategy("b")));
+    assertNotSame(a, b);
+    assertEquals("a", ((NullNumericIndexStrategy) a).getId());
+    assertEquals("b", ((NullNumericIndexStrategy) b).getId());
+  }
+
+  @Test
+  public void testNullBinary() {
+    assertNull(new ServerSidePersistableCache().getPersistable(null));
+  }
+
+  @Test
+  public void testThreadsDoNotShareDecodedObjects()
+      throws InterruptedException, ExecutionException {
+    final ServerSidePersistableCache cache = new ServerSidePersistableCache();
+    final byte[] binary = URLClassloaderUtils.toBinary(new NullNumericIndexStrategy("a"));
+    final Persistable decoded = cache.getPersistable(binary);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Persistable otherThreadDecoded =
+          executor.submit(() -> cache.getPersistable(binary)).get();
+      assertNotSame(decoded, otherThreadDecoded);
+      assertEquals("a", ((NullNumericIndexStrategy) otherThreadDecoded).getId());
+      // the other thread reuses its own instance
+      assertSame(otherThreadDecoded, executor.submit(() -> cache.getPersistable(binary)).get());
+    } finally {
+      executor.shutdownNow();
+    }
+    assertSame(decoded, cache.getPersistable(binary));
+  }
+
+  @Test
+  public void testUnknownHashIsAMiss() {
+    final ServerSidePersistableCache cache = new ServerSidePersistableCache();
+    final byte[] binary = URLClassloaderUtils.toBinary(new NullNumericIndexStrategy("a"));
+    assertNull(cache.getBinary(ServerSidePersistableCache.hash(binary), null));
+    // a binary that is sent without a hash is not cached
+    assertSame(binary, cache.getBinary(null, binary));
+    assertNull(cache.getBinary(ServerSidePersistableCache.hash(binary), null));
+    assertNull(cache.getBinary(null, null));
+  }
+
+  @Test
+  public void testFullBinaryIsCachedForLaterHashes()
+      throws InterruptedException, ExecutionException {
+    final ServerSidePersistableCache cache = new ServerSidePersistableCache();
+    final byte[] binary = URLClassloaderUtils.toBinary(new NullNumericIndexStrategy("a"));
+    final byte[] hash = ServerSidePersistableCache.hash(binary);
+    assertSame(binary, cache.getBinary(hash, binary));
+    assertArrayEquals(binary, cache.getBinary(hash, null));
+    // binaries are shared by every handler thread
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      assertArrayEquals(binary, executor.submit(() -> cache.getBinary(hash, null)).get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testMismatchedHashIsNotCached() {
+    final ServerSidePersistableCache cache = new ServerSidePersistableCache();
+    final byte[] binary = URLClassloaderUtils.toBinary(new NullNumericIndexStrategy("a"));
+    final byte[] otherHash =
+        ServerSidePersistableCache.hash(
+            URLClassloaderUtils.toBinary(new NullNumericIndexStrategy("b")));
+    cache.getBinary(otherHash, binary);
+    assertNull(cache.getBinary(otherHash, null));
+  }
+
+  @Test
+  public void testServerOpsAreSharedByConfiguration() {
+    final ServerSidePersistableCache cache = new ServerSidePersistableCache();
+    final AtomicInteger created = new AtomicInteger(0);
+    final byte[] classId = new byte[] {1};
+    final HBaseServerOp op =
+        cache.getServerOp(classId, Collections.singletonMap("a", "1"), () -> {
+          created.incrementAndGet();
+          return new MergingServerOp();
+        });
+    assertSame(
+        op,
+        cache.getServerOp(classId, Collections.singletonMap("a", "1"), MergingServerOp::new));
+    assertNotSame(
+        op,
+        cache.getServerOp(classId, Collections.singletonMap("a", "2"), MergingServerOp::new));
+    assertNotSame(
+        op,
+        cache.getServerOp(
+            new byte[] {2},
+            Collections.singletonMap("a", "1"),
+            MergingServerOp::new));
+    assertEquals(1, created.get());
+  }
+
+  @Test
+  public void testFailedServerOpsAreNotCached() {
+    final ServerSidePersistableCache cache = new ServerSidePersistableCache();
+    final byte[] classId = new byte[] {1};
+    final Map<String, String> options = Collections.singletonMap("a", "1");
+    assertNull(cache.getServerOp(classId, options, () -> null));
+    final HBaseServerOp op = new MergingServerOp();
+    assertSame(op, cache.getServerOp(classId, options, () -> op));
+  }
+}
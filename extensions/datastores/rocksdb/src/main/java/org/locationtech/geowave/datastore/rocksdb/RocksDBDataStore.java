@@ -39,6 +39,7 @@ public class RocksDBDataStore extends BaseMapReduceDataStore implements Closeabl
    */
   @Override
   public void close() {
+    closeDataIndexCache();
     ((RocksDBOperations) baseOperations).close();
   }
 
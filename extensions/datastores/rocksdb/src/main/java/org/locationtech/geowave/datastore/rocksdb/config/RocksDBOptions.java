@@ -16,6 +16,7 @@ import org.locationtech.geowave.core.store.StoreFactoryFamilySpi;
 import org.locationtech.geowave.core.store.StoreFactoryOptions;
 import org.locationtech.geowave.datastore.rocksdb.RocksDBStoreFactoryFamily;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBUtils;
+import com.beust.jcommander.IStringConverter;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
 import com.beust.jcommander.ParametersDelegate;
@@ -28,7 +29,7 @@ public class RocksDBOptions extends StoreFactoryOptions {
   private String dir = "rocksdb";
   @Parameter(
       names = "--compactOnWrite",
-      description = "Whether to compact on every write, if false it will only compact on merge. Defaults to true",
+      description = "Whether to schedule a compaction of each table shortly after it is written to, if false it will only compact on merge. Defaults to true",
       arity = 1)
   private boolean compactOnWrite = true;
   @Parameter(
@@ -39,6 +40,14 @@ public class RocksDBOptions extends StoreFactoryOptions {
       names = "--walOnBatchWrite",
       description = "Whether to enable write-ahead-log on batched writes.")
   private boolean walOnBatchWrite = true;
+  @Parameter(
+      names = "--storageLayout",
+      description = "Can be \"directory\" to open a separate RocksDB instance for every type, index, and partition or \"columnFamily\" to keep each of them as a column family within one shared RocksDB instance. Existing directory tables are migrated when a store is opened with \"columnFamily\". Defaults to directory.",
+      converter = StorageLayoutConverter.class)
+  private StorageLayout storageLayout = StorageLayout.DIRECTORY;
+
+  @ParametersDelegate
+  private RocksDBTuningOptions tuningOptions = new RocksDBTuningOptions();
 
   @ParametersDelegate
   protected BaseDataStoreOptions baseOptions = new BaseDataStoreOptions() {
@@ -127,4 +136,35 @@ public class RocksDBOptions extends StoreFactoryOptions {
   public void setWalOnBatchWrite(final boolean walOnBatchWrite) {
     this.walOnBatchWrite = walOnBatchWrite;
   }
+
+  public StorageLayout getStorageLayout() {
+    return storageLayout;
+  }
+
+  public void setStorageLayout(final StorageLayout storageLayout) {
+    this.storageLayout = storageLayout;
+  }
+
+  public RocksDBTuningOptions getTuningOptions() {
+    return tuningOptions;
+  }
+
+  public void setTuningOptions(final RocksDBTuningOptions tuningOptions) {
+    this.tuningOptions = tuningOptions;
+  }
+
+  public static enum StorageLayout {
+    DIRECTORY, COLUMN_FAMILY
+  };
+
+  public static class StorageLayoutConverter implements IStringConverter<StorageLayout> {
+
+    @Override
+    public StorageLayout convert(final String value) {
+      if ("columnFamily".equalsIgnoreCase(value)) {
+        return StorageLayout.COLUMN_FAMILY;
+      }
+      return StorageLayout.valueOf(value.toUpperCase());
+    }
+  }
 }
@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.config;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.CompressionType;
+import org.rocksdb.MutableColumnFamilyOptions;
+import org.rocksdb.Options;
+import com.beust.jcommander.Parameter;
+
+/**
+ * Options that control how RocksDB tables are tuned for writes and reads, these are shared by every
+ * table of a store.
+ */
+public class RocksDBTuningOptions {
+  private static final long MEGABYTE = 1024L * 1024L;
+  @Parameter(
+      names = "--blockCacheSize",
+      description = "The size (in megabytes) of the LRU block cache shared by all tables of the store. Defaults to 64.")
+  private long blockCacheSize = 64;
+  @Parameter(
+      names = "--bloomFilterBitsPerKey",
+      description = "The bits per key of the bloom filters on each table. Anything <= 0 will disable bloom filters. Defaults to 10.")
+  private int bloomFilterBitsPerKey = 10;
+  @Parameter(
+      names = "--prefixLength",
+      description = "The number of leading sort key bytes used for prefix bloom filters on index tables. This should be the length of the sort key prefix that decomposed query ranges of the index share. Anything <= 0 will disable prefix bloom filters. Defaults to 0.")
+  private int prefixLength = 0;
+  @Parameter(
+      names = "--compressionPerLevel",
+      description = "A comma-delimited list of the compression to use for each level of index tables, such as \"none,lz4,zstd\". The last compression is used for any remaining levels. Defaults to RocksDB's default compression.")
+  private String compressionPerLevel = null;
+  @Parameter(
+      names = "--queryOptimizeAfterIngest",
+      description = "Whether index tables should switch from bulk load options to query optimized options once an ingest is flushed. Defaults to true.",
+      arity = 1)
+  private boolean queryOptimizeAfterIngest = true;
+  @Parameter(
+      names = "--batchWriteThreads",
+      description = "The number of batches of each table that may be queued or written concurrently, further writes block until a batch completes. Defaults to the number of available processors.")
+  private int batchWriteThreads = Runtime.getRuntime().availableProcessors();
+  @Parameter(
+      names = "--bulkIngest",
+      description = "Whether to sort rows into SST files that are ingested directly into each table rather than using batched writes. Rows are not visible until the writer is flushed. Defaults to false.",
+      arity = 1)
+  private boolean bulkIngest = false;
+  @Parameter(
+      names = "--bulkIngestSize",
+      description = "The size (in records) of each SST file when bulk ingest is enabled. Defaults to 100000.")
+  private int bulkIngestSize = 100000;
+
+  public long getBlockCacheSize() {
+    return blockCacheSize;
+  }
+
+  public void setBlockCacheSize(final long blockCacheSize) {
+    this.blockCacheSize = blockCacheSize;
+  }
+
+  public long getBlockCacheSizeBytes() {
+    return blockCacheSize * MEGABYTE;
+  }
+
+  public int getBloomFilterBitsPerKey() {
+    return bloomFilterBitsPerKey;
+  }
+
+  public void setBloomFilterBitsPerKey(final int bloomFilterBitsPerKey) {
+    this.bloomFilterBitsPerKey = bloomFilterBitsPerKey;
+  }
+
+  public int getPrefixLength() {
+    return prefixLength;
+  }
+
+  public void setPrefixLength(final int prefixLength) {
+    this.prefixLength = prefixLength;
+  }
+
+  public String getCompressionPerLevel() {
+    return compressionPerLevel;
+  }
+
+  public void setCompressionPerLevel(final String compressionPerLevel) {
+    this.compressionPerLevel = compressionPerLevel;
+  }
+
+  public boolean isQueryOptimizeAfterIngest() {
+    return queryOptimizeAfterIngest;
+  }
+
+  public void setQueryOptimizeAfterIngest(final boolean queryOptimizeAfterIngest) {
+    this.queryOptimizeAfterIngest = queryOptimizeAfterIngest;
+  }
+
+  public int getBatchWriteThreads() {
+    return batchWriteThreads;
+  }
+
+  public void setBatchWriteThreads(final int batchWriteThreads) {
+    this.batchWriteThreads = batchWriteThreads;
+  }
+
+  public boolean isBulkIngest() {
+    return bulkIngest;
+  }
+
+  public void setBulkIngest(final boolean bulkIngest) {
+    this.bulkIngest = bulkIngest;
+  }
+
+  public int getBulkIngestSize() {
+    return bulkIngestSize;
+  }
+
+  public void setBulkIngestSize(final int bulkIngestSize) {
+    this.bulkIngestSize = bulkIngestSize;
+  }
+
+  public boolean isPrefixBloomEnabled() {
+    return prefixLength > 0;
+  }
+
+  private List<CompressionType> getCompressionTypes() {
+    return Arrays.stream(compressionPerLevel.split(",")).map(String::trim).filter(
+        s -> !s.isEmpty()).map(s -> {
+          final String name = s.toUpperCase();
+          if ("NONE".equals(name)) {
+            return CompressionType.NO_COMPRESSION;
+          }
+          return CompressionType.valueOf(
+              name.endsWith("_COMPRESSION") ? name : name + "_COMPRESSION");
+        }).collect(Collectors.toList());
+  }
+
+  public BlockBasedTableConfig createTableConfig(final Cache blockCache) {
+    final BlockBasedTableConfig tableConfig = new BlockBasedTableConfig().setBlockCache(blockCache);
+    if (bloomFilterBitsPerKey > 0) {
+      tableConfig.setFilterPolicy(new BloomFilter(bloomFilterBitsPerKey, false));
+    }
+    return tableConfig;
+  }
+
+  /**
+   * Options for index tables opened as separate RocksDB instances. These start out prepared for
+   * bulk loading and can be switched to query optimized options using
+   * {@link #getQueryOptimizedOptions()}.
+   */
+  public Options createIndexOptions(final Cache blockCache) {
+    final int cores = Runtime.getRuntime().availableProcessors();
+    final Options options =
+        new Options().setCreateIfMissing(true).prepareForBulkLoad().setIncreaseParallelism(
+            cores).setTableFormatConfig(createTableConfig(blockCache));
+    if (isPrefixBloomEnabled()) {
+      options.useFixedLengthPrefixExtractor(prefixLength);
+    }
+    if (compressionPerLevel != null) {
+      options.setCompressionPerLevel(getCompressionTypes());
+    }
+    return options;
+  }
+
+  /**
+   * Options for data index tables opened as separate RocksDB instances, data IDs are looked up
+   * directly so the sort key prefix does not apply.
+   */
+  public Options createDataIndexOptions(final Cache blockCache) {
+    final int cores = Runtime.getRuntime().availableProcessors();
+    final Options options =
+        new Options().setCreateIfMissing(true).prepareForBulkLoad().setIncreaseParallelism(
+            cores).setTableFormatConfig(createTableConfig(blockCache));
+    if (compressionPerLevel != null) {
+      options.setCompressionPerLevel(getCompressionTypes());
+    }
+    return options;
+  }
+
+  public Options createMetadataOptions(final Cache blockCache) {
+    return new Options().setCreateIfMissing(true).optimizeForSmallDb().setTableFormatConfig(
+        createTableConfig(blockCache));
+  }
+
+  /**
+   * Column family options for tables within a shared RocksDB instance. Similar to the stand-alone
+   * index options these start out with automatic compactions disabled for bulk loading.
+   */
+  public ColumnFamilyOptions createColumnFamilyOptions(
+      final Cache blockCache,
+      final boolean dataIndex) {
+    final ColumnFamilyOptions options =
+        new ColumnFamilyOptions().setTableFormatConfig(
+            createTableConfig(blockCache)).setDisableAutoCompactions(
+                true).setLevel0FileNumCompactionTrigger(1 << 30).setLevel0SlowdownWritesTrigger(
+                    1 << 30).setLevel0StopWritesTrigger(1 << 30).setSoftPendingCompactionBytesLimit(
+                        0).setHardPendingCompactionBytesLimit(0);
+    if (!dataIndex && isPrefixBloomEnabled()) {
+      options.useFixedLengthPrefixExtractor(prefixLength);
+    }
+    if (compressionPerLevel != null) {
+      options.setCompressionPerLevel(getCompressionTypes());
+    }
+    return options;
+  }
+
+  /**
+   * The mutable options to apply once ingest has completed, or when an existing table is opened to
+   * be read, to re-enable automatic compactions with RocksDB's default triggers.
+   */
+  public MutableColumnFamilyOptions getQueryOptimizedOptions() {
+    return MutableColumnFamilyOptions.builder().setDisableAutoCompactions(
+        false).setLevel0FileNumCompactionTrigger(4).setLevel0SlowdownWritesTrigger(
+            20).setLevel0StopWritesTrigger(36).setSoftPendingCompactionBytesLimit(
+                64 * 1024 * MEGABYTE).setHardPendingCompactionBytesLimit(
+                    256 * 1024 * MEGABYTE).build();
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+        blockCacheSize,
+        bloomFilterBitsPerKey,
+        prefixLength,
+        compressionPerLevel,
+        queryOptimizeAfterIngest,
+        batchWriteThreads,
+        bulkIngest,
+        bulkIngestSize);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    final RocksDBTuningOptions other = (RocksDBTuningOptions) obj;
+    return (blockCacheSize == other.blockCacheSize)
+        && (bloomFilterBitsPerKey == other.bloomFilterBitsPerKey)
+        && (prefixLength == other.prefixLength)
+        && Objects.equals(compressionPerLevel, other.compressionPerLevel)
+        && (queryOptimizeAfterIngest == other.queryOptimizeAfterIngest)
+        && (batchWriteThreads == other.batchWriteThreads)
+        && (bulkIngest == other.bulkIngest)
+        && (bulkIngestSize == other.bulkIngestSize);
+  }
+}
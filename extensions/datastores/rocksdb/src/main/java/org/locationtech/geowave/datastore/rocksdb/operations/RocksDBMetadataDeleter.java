@@ -40,6 +40,17 @@ public class RocksDBMetadataDeleter implements MetadataDeleter {
     return atLeastOneDeletion;
   }
 
+  @Override
+  public boolean canDeleteRows() {
+    return true;
+  }
+
+  @Override
+  public boolean deleteRow(final GeoWaveMetadata row) {
+    table.remove(((RocksDBGeoWaveMetadata) row).getKey());
+    return true;
+  }
+
   @Override
   public void flush() {
     table.flush();
@@ -32,6 +32,8 @@ import org.locationtech.geowave.core.store.operations.RowReader;
 import org.locationtech.geowave.core.store.operations.RowWriter;
 import org.locationtech.geowave.core.store.statistics.DataStatisticsStore;
 import org.locationtech.geowave.datastore.rocksdb.config.RocksDBOptions;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBOptions.StorageLayout;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBTuningOptions;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBClient;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBClientCache;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBDataIndexTable;
@@ -52,6 +54,8 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
   private final boolean compactOnWrite;
   private final boolean walOnBatchWrite;
   private final int batchWriteSize;
+  private final StorageLayout storageLayout;
+  private final RocksDBTuningOptions tuningOptions;
 
   public RocksDBOperations(final RocksDBOptions options) {
     // attempt to make the directory string as unique for a given file system as possible by using
@@ -81,6 +85,8 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
     compactOnWrite = options.isCompactOnWrite();
     batchWriteSize = options.getBatchWriteSize();
     walOnBatchWrite = options.isWalOnBatchWrite();
+    storageLayout = options.getStorageLayout();
+    tuningOptions = options.getTuningOptions();
     // a factory method that returns a RocksDB instance
     client =
         RocksDBClientCache.getInstance().getClient(
@@ -88,7 +94,9 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
             visibilityEnabled,
             compactOnWrite,
             batchWriteSize,
-            walOnBatchWrite);
+            walOnBatchWrite,
+            storageLayout,
+            tuningOptions);
   }
 
   @Override
@@ -148,6 +156,10 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
       final String... additionalAuthorizations) {
     final String prefix = RocksDBUtils.getTablePrefix(typeName, indexName);
     getClient().close(indexName, typeName);
+    if (getClient().isColumnFamilyLayout()) {
+      getClient().dropTables(prefix);
+      return true;
+    }
     Arrays.stream(new File(directory).listFiles((dir, name) -> name.startsWith(prefix))).forEach(
         f -> {
           try {
@@ -254,6 +266,8 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
         compactOnWrite,
         batchWriteSize,
         walOnBatchWrite,
+        storageLayout,
+        tuningOptions,
         invalidateCache);
     if (invalidateCache) {
       client = null;
@@ -283,7 +297,9 @@ public class RocksDBOperations implements MapReduceDataStoreOperations, Closeabl
                   visibilityEnabled,
                   compactOnWrite,
                   batchWriteSize,
-                  walOnBatchWrite);
+                  walOnBatchWrite,
+                  storageLayout,
+                  tuningOptions);
         }
         return client;
       }
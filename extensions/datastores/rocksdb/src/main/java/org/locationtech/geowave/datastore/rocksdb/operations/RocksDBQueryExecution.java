@@ -10,12 +10,23 @@ package org.locationtech.geowave.datastore.rocksdb.operations;
 
 import java.io.Closeable;
 import java.io.IOException;
-import java.io.Serializable;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.tuple.Pair;
@@ -27,6 +38,7 @@ import org.locationtech.geowave.core.store.CloseableIteratorWrapper;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
 import org.locationtech.geowave.core.store.entities.GeoWaveRowMergingIterator;
+import org.locationtech.geowave.core.store.util.RowConsumer;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBClient;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBIndexTable;
 import org.locationtech.geowave.datastore.rocksdb.util.RocksDBUtils;
@@ -34,9 +46,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.Streams;
-import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.MoreExecutors;
 
 public class RocksDBQueryExecution<T> {
   private static final Logger LOGGER = LoggerFactory.getLogger(RocksDBQueryExecution.class);
@@ -51,33 +64,15 @@ public class RocksDBQueryExecution<T> {
     }
   }
 
-  private static class ScoreOrderComparator implements Comparator<RangeReadInfo>, Serializable {
-    private static final long serialVersionUID = 1L;
-    private static final ScoreOrderComparator SINGLETON = new ScoreOrderComparator();
-
-    @Override
-    public int compare(final RangeReadInfo o1, final RangeReadInfo o2) {
-      int comp =
-          UnsignedBytes.lexicographicalComparator().compare(
-              o1.sortKeyRange.getStart(),
-              o2.sortKeyRange.getStart());
-      if (comp != 0) {
-        return comp;
-      }
-      comp =
-          UnsignedBytes.lexicographicalComparator().compare(
-              o1.sortKeyRange.getEnd(),
-              o2.sortKeyRange.getEnd());
-      if (comp != 0) {
-        return comp;
-      }
-      final byte[] otherComp = o2.partitionKey == null ? new byte[0] : o2.partitionKey;
-      final byte[] thisComp = o1.partitionKey == null ? new byte[0] : o1.partitionKey;
-
-      return UnsignedBytes.lexicographicalComparator().compare(thisComp, otherComp);
-    }
-  }
-
+  private static final int READ_THREAD_SIZE = Runtime.getRuntime().availableProcessors();
+  private static final ExecutorService READ_THREADS =
+      MoreExecutors.getExitingExecutorService(
+          (ThreadPoolExecutor) Executors.newFixedThreadPool(READ_THREAD_SIZE));
+  // the most ranges of a single query that are read at a time
+  private static final int MAX_CONCURRENT_RANGE_READS = READ_THREAD_SIZE;
+  static final int MAX_BOUNDED_READS_ENQUEUED = 10000;
+  // parked reads are resumed once the consumer has drained the results to this size
+  private static final int RESUME_THRESHOLD = MAX_BOUNDED_READS_ENQUEUED / 2;
   private static ByteArray EMPTY_PARTITION_KEY = new ByteArray();
   private final LoadingCache<ByteArray, RocksDBIndexTable> setCache =
       Caffeine.newBuilder().build(partitionKey -> getTable(partitionKey.getBytes()));
@@ -88,6 +83,7 @@ public class RocksDBQueryExecution<T> {
   private final GeoWaveRowIteratorTransformer<T> rowTransformer;
   private final Predicate<GeoWaveRow> filter;
   private final boolean rowMerging;
+  private final boolean async;
 
   private final Pair<Boolean, Boolean> groupByRowAndSortByTimePair;
   private final boolean isSortFinalResultsBySortKey;
@@ -110,6 +106,7 @@ public class RocksDBQueryExecution<T> {
     this.ranges = ranges;
     this.filter = filter;
     this.rowMerging = rowMerging;
+    this.async = async;
     this.groupByRowAndSortByTimePair = groupByRowAndSortByTimePair;
     this.isSortFinalResultsBySortKey = isSortFinalResultsBySortKey;
   }
@@ -135,18 +132,13 @@ public class RocksDBQueryExecution<T> {
 
   public CloseableIterator<T> executeQuery(final List<RangeReadInfo> reads) {
     if (isSortFinalResultsBySortKey) {
-      // order the reads by sort keys
-      reads.sort(ScoreOrderComparator.SINGLETON);
-    }
-    final List<CloseableIterator<GeoWaveRow>> iterators = reads.stream().map(r -> {
-      ByteArray partitionKey;
-      if ((r.partitionKey == null) || (r.partitionKey.length == 0)) {
-        partitionKey = EMPTY_PARTITION_KEY;
-      } else {
-        partitionKey = new ByteArray(r.partitionKey);
-      }
-      return setCache.get(partitionKey).iterator(r.sortKeyRange);
-    }).collect(Collectors.toList());
+      return executeSortedQuery(reads);
+    }
+    if (async && (reads.size() > 1)) {
+      return executeQueryAsync(reads);
+    }
+    final List<CloseableIterator<GeoWaveRow>> iterators =
+        reads.stream().map(this::read).collect(Collectors.toList());
     return transformAndFilter(new CloseableIteratorWrapper<>(new Closeable() {
       @Override
       public void close() throws IOException {
@@ -155,22 +147,256 @@ public class RocksDBQueryExecution<T> {
     }, Iterators.concat(iterators.iterator())));
   }
 
-  private CloseableIterator<T> transformAndFilter(final CloseableIterator<GeoWaveRow> result) {
-    final Iterator<GeoWaveRow> iterator = Streams.stream(result).filter(filter).iterator();
-    return new CloseableIteratorWrapper<>(
-        result,
-        rowTransformer.apply(
-            sortByKeyIfRequired(
-                isSortFinalResultsBySortKey,
-                rowMerging ? new GeoWaveRowMergingIterator(iterator) : iterator)));
+  private CloseableIterator<GeoWaveRow> read(final RangeReadInfo r) {
+    ByteArray partitionKey;
+    if ((r.partitionKey == null) || (r.partitionKey.length == 0)) {
+      partitionKey = EMPTY_PARTITION_KEY;
+    } else {
+      partitionKey = new ByteArray(r.partitionKey);
+    }
+    return setCache.get(partitionKey).iterator(r.sortKeyRange);
   }
 
-  private static Iterator<GeoWaveRow> sortByKeyIfRequired(
-      final boolean isRequired,
-      final Iterator<GeoWaveRow> it) {
-    if (isRequired) {
-      return RocksDBUtils.sortBySortKey(it);
+  /**
+   * Each range is already in sort key order so rather than sorting the full result set the range
+   * iterators are merged. In async mode the ranges are seeked concurrently before merging.
+   */
+  private CloseableIterator<T> executeSortedQuery(final List<RangeReadInfo> reads) {
+    final List<CloseableIterator<GeoWaveRow>> iterators;
+    if (async && (reads.size() > 1)) {
+      final List<CompletableFuture<CloseableIterator<GeoWaveRow>>> futures =
+          reads.stream().map(
+              r -> CompletableFuture.supplyAsync(() -> read(r), READ_THREADS)).collect(
+                  Collectors.toList());
+      try {
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+      } catch (final CompletionException e) {
+        // every read has completed, so close the ranges that were opened before rethrowing
+        futures.stream().filter(f -> !f.isCompletedExceptionally()).forEach(
+            f -> f.join().close());
+        throw new RuntimeException("Async RocksDB range read failed", e.getCause());
+      }
+      iterators = futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    } else {
+      iterators = reads.stream().map(this::read).collect(Collectors.toList());
     }
-    return it;
+    final Iterator<GeoWaveRow> merged =
+        RocksDBUtils.mergeSortedBySortKey(
+            iterators.stream().map(this::filterAndMerge).collect(Collectors.toList()));
+    return new CloseableIteratorWrapper<>(new Closeable() {
+      @Override
+      public void close() throws IOException {
+        iterators.forEach(i -> i.close());
+      }
+    }, rowTransformer.apply(merged));
+  }
+
+  private CloseableIterator<T> executeQueryAsync(final List<RangeReadInfo> reads) {
+    final AsyncRangeReads asyncReads = new AsyncRangeReads(reads);
+    asyncReads.start();
+    final RowConsumer<T> consumer = new RowConsumer<>(asyncReads.results);
+    return new CloseableIteratorWrapper<>(asyncReads, new Iterator<T>() {
+      @Override
+      public boolean hasNext() {
+        asyncReads.checkFailure();
+        final boolean hasNext = consumer.hasNext();
+        // taking a row may have made room for reads that are waiting on this consumer
+        asyncReads.resumeParked();
+        if (!hasNext) {
+          // the last read may have failed after the rows already read were consumed
+          asyncReads.checkFailure();
+        }
+        return hasNext;
+      }
+
+      @Override
+      public T next() {
+        return consumer.next();
+      }
+    });
+  }
+
+  /**
+   * Wrap an iterator so that it ends early once the given condition is met, this is checked for
+   * every row so that long scans of rows that are filtered out still stop promptly.
+   */
+  private static <R> Iterator<R> stopWhen(final Iterator<R> it, final BooleanSupplier stop) {
+    return new AbstractIterator<R>() {
+      @Override
+      protected R computeNext() {
+        if (stop.getAsBoolean() || Thread.currentThread().isInterrupted() || !it.hasNext()) {
+          return endOfData();
+        }
+        return it.next();
+      }
+    };
+  }
+
+  /**
+   * The range reads of a single async query. Only a limited number of ranges of a query are read at
+   * a time, and a range read never blocks a shared read thread on a slow consumer. When the results
+   * are full the read is parked, keeping its position, and it is resubmitted once the consumer has
+   * drained them. This way a consumer that stops reading, or is never closed, only holds its own
+   * open iterators rather than the read threads that every other query shares.
+   */
+  private class AsyncRangeReads implements Closeable {
+    // the queue is only bounded by parking reads, so that the end of the results can always be
+    // added
+    private final BlockingQueue<Object> results = new LinkedBlockingQueue<>();
+    private final Queue<RangeReadInfo> pending;
+    private final Queue<RangeReader> parked = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+    // stop scanning as soon as the consumer is closed or any range read fails
+    private final BooleanSupplier stopped = () -> closed.get() || (failure.get() != null);
+    // reads that are running or parked
+    private int active = 0;
+    private boolean finished = false;
+
+    private AsyncRangeReads(final List<RangeReadInfo> reads) {
+      pending = new ArrayDeque<>(reads);
+    }
+
+    private synchronized void start() {
+      while ((active < MAX_CONCURRENT_RANGE_READS) && !pending.isEmpty()) {
+        submit(new RangeReader(pending.poll()));
+      }
+    }
+
+    private void submit(final RangeReader reader) {
+      active++;
+      READ_THREADS.execute(reader);
+    }
+
+    /**
+     * Park a read that could not add a row to the results. If the consumer has already drained the
+     * results in the meantime, the read continues right away instead.
+     *
+     * @return whether the read was parked
+     */
+    private synchronized boolean park(final RangeReader reader) {
+      if (stopped.getAsBoolean()) {
+        return false;
+      }
+      parked.add(reader);
+      // the consumer only looks for parked reads after taking a row, so the results are checked
+      // once the read is visible to it
+      return (results.size() >= RESUME_THRESHOLD) || !parked.remove(reader);
+    }
+
+    private void resumeParked() {
+      if (parked.isEmpty() || (results.size() >= RESUME_THRESHOLD)) {
+        return;
+      }
+      synchronized (this) {
+        if (results.size() < RESUME_THRESHOLD) {
+          RangeReader reader;
+          while ((reader = parked.poll()) != null) {
+            READ_THREADS.execute(reader);
+          }
+        }
+      }
+    }
+
+    private synchronized void finished() {
+      active--;
+      if (stopped.getAsBoolean()) {
+        // parked reads will never be resumed, so they are finished here
+        closeParked();
+      } else if (!pending.isEmpty()) {
+        submit(new RangeReader(pending.poll()));
+        return;
+      }
+      if ((active <= 0) && !finished) {
+        finished = true;
+        results.add(RowConsumer.POISON);
+      }
+    }
+
+    private void closeParked() {
+      RangeReader reader;
+      while ((reader = parked.poll()) != null) {
+        reader.close();
+        active--;
+      }
+      pending.clear();
+    }
+
+    private void checkFailure() {
+      final Exception e = failure.get();
+      if (e != null) {
+        throw new RuntimeException("Async RocksDB range read failed", e);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      closed.set(true);
+      synchronized (this) {
+        closeParked();
+      }
+      results.clear();
+    }
+
+    /**
+     * Reads a single range into the results. It runs until the range is exhausted or the results
+     * are full, in which case it is parked and picks up where it left off when it is resumed.
+     */
+    private class RangeReader implements Runnable {
+      private final RangeReadInfo range;
+      private CloseableIterator<GeoWaveRow> it = null;
+      private Iterator<T> transformed = null;
+      // a row that was read but not yet added to the results when the read was parked
+      private T nextRow = null;
+
+      private RangeReader(final RangeReadInfo range) {
+        this.range = range;
+      }
+
+      @Override
+      public void run() {
+        try {
+          if ((it == null) && !stopped.getAsBoolean()) {
+            it = read(range);
+            transformed = rowTransformer.apply(filterAndMerge(stopWhen(it, stopped)));
+          }
+          while (!stopped.getAsBoolean()) {
+            if (nextRow == null) {
+              if (!transformed.hasNext()) {
+                break;
+              }
+              nextRow = transformed.next();
+            }
+            // give the thread back rather than waiting on the consumer
+            if ((results.size() >= MAX_BOUNDED_READS_ENQUEUED) && park(this)) {
+              return;
+            }
+            results.add(nextRow);
+            nextRow = null;
+          }
+        } catch (final Exception e) {
+          failure.compareAndSet(null, e);
+        }
+        close();
+        finished();
+      }
+
+      private void close() {
+        if (it != null) {
+          it.close();
+          it = null;
+        }
+        nextRow = null;
+      }
+    }
+  }
+
+  private Iterator<GeoWaveRow> filterAndMerge(final Iterator<GeoWaveRow> it) {
+    final Iterator<GeoWaveRow> iterator = Streams.stream(it).filter(filter).iterator();
+    return rowMerging ? new GeoWaveRowMergingIterator(iterator) : iterator;
+  }
+
+  private CloseableIterator<T> transformAndFilter(final CloseableIterator<GeoWaveRow> result) {
+    return new CloseableIteratorWrapper<>(result, rowTransformer.apply(filterAndMerge(result)));
   }
 }
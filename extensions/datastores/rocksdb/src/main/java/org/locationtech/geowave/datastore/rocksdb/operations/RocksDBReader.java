@@ -52,7 +52,7 @@ public class RocksDBReader<T> implements RowReader<T> {
       final ReaderParams<T> readerParams,
       final boolean async) {
     this.iterator =
-        createIteratorForReader(client, readerParams, readerParams.getRowTransformer(), false);
+        createIteratorForReader(client, readerParams, readerParams.getRowTransformer(), async);
   }
 
   public RocksDBReader(final RocksDBClient client, final RecordReaderParams recordReaderParams) {
@@ -92,7 +92,7 @@ public class RocksDBReader<T> implements RowReader<T> {
                 readerParams.getInternalAdapterStore().getTypeName(adapterId),
                 readerParams.getIndex().getName());
         final Stream<CloseableIterator<GeoWaveRow>> streamIt =
-            RocksDBUtils.getPartitions(client.getSubDirectory(), indexNamePrefix).stream().map(
+            RocksDBUtils.getPartitions(client, indexNamePrefix).stream().map(
                 p -> RocksDBUtils.getIndexTableFromPrefix(
                     client,
                     indexNamePrefix,
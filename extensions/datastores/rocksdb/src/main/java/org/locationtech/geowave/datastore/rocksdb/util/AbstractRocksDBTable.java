@@ -9,63 +9,148 @@
 package org.locationtech.geowave.datastore.rocksdb.util;
 
 import java.io.File;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBTuningOptions;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
 import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.SstFileWriter;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.primitives.UnsignedBytes;
 import com.google.common.util.concurrent.MoreExecutors;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 abstract public class AbstractRocksDBTable {
   private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRocksDBTable.class);
-  private static final int BATCH_WRITE_THREAD_SIZE = 16;
-  private static final ExecutorService BATCH_WRITE_THREADS =
-      MoreExecutors.getExitingExecutorService(
-          (ThreadPoolExecutor) Executors.newFixedThreadPool(BATCH_WRITE_THREAD_SIZE));
-  private static final int MAX_CONCURRENT_WRITE = 100;
-  // only allow so many outstanding async reads or writes, use this semaphore
-  // to control it
+  // compactions are run one at a time, well after the writes that triggered them
+  private static final ScheduledExecutorService COMPACTION_THREAD = createCompactionThread();
+  private static final long COMPACTION_DELAY_MILLIS = 30000;
   private final Object BATCH_WRITE_MUTEX = new Object();
-  private final Semaphore writeSemaphore = new Semaphore(MAX_CONCURRENT_WRITE);
+  // held for the duration of a compaction so that the table isn't closed underneath it
+  private final Object COMPACTION_MUTEX = new Object();
 
   private WriteBatch currentBatch;
+  private TreeMap<byte[], byte[]> currentBulkIngest;
+  private final RocksDBBatchWriter batchWriter;
+  private ScheduledFuture<?> pendingCompaction;
   private final int batchSize;
   private RocksDB writeDb;
   private final Options writeOptions;
   private final WriteOptions batchWriteOptions;
+  protected final RocksDBTuningOptions tuningOptions;
+  private boolean queryOptimized = false;
   protected final String subDirectory;
+  private final RocksDBSharedDB sharedDb;
+  private final String tableName;
+  private ColumnFamilyHandle columnFamily;
   private boolean exists;
   protected final short adapterId;
   protected boolean visibilityEnabled;
   protected boolean compactOnWrite;
   private final boolean batchWrite;
+  private final boolean bulkIngest;
+
+  private static ScheduledExecutorService createCompactionThread() {
+    final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+    // compactions that haven't started yet shouldn't hold up exiting
+    executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    executor.setRemoveOnCancelPolicy(true);
+    return MoreExecutors.getExitingScheduledExecutorService(executor);
+  }
 
   public AbstractRocksDBTable(
       final Options writeOptions,
       final WriteOptions batchWriteOptions,
+      final RocksDBTuningOptions tuningOptions,
       final String subDirectory,
       final short adapterId,
       final boolean visibilityEnabled,
       final boolean compactOnWrite,
       final int batchSize) {
+    this(
+        writeOptions,
+        batchWriteOptions,
+        tuningOptions,
+        subDirectory,
+        null,
+        null,
+        adapterId,
+        visibilityEnabled,
+        compactOnWrite,
+        batchSize);
+  }
+
+  public AbstractRocksDBTable(
+      final WriteOptions batchWriteOptions,
+      final RocksDBTuningOptions tuningOptions,
+      final RocksDBSharedDB sharedDb,
+      final String tableName,
+      final short adapterId,
+      final boolean visibilityEnabled,
+      final boolean compactOnWrite,
+      final int batchSize) {
+    this(
+        null,
+        batchWriteOptions,
+        tuningOptions,
+        sharedDb.getDirectory(),
+        sharedDb,
+        tableName,
+        adapterId,
+        visibilityEnabled,
+        compactOnWrite,
+        batchSize);
+  }
+
+  private AbstractRocksDBTable(
+      final Options writeOptions,
+      final WriteOptions batchWriteOptions,
+      final RocksDBTuningOptions tuningOptions,
+      final String subDirectory,
+      final RocksDBSharedDB sharedDb,
+      final String tableName,
+      final short adapterId,
+      final boolean visibilityEnabled,
+      final boolean compactOnWrite,
+      final int batchSize) {
     super();
     this.writeOptions = writeOptions;
     this.batchWriteOptions = batchWriteOptions;
+    this.tuningOptions = tuningOptions;
     this.subDirectory = subDirectory;
+    this.sharedDb = sharedDb;
+    this.tableName = tableName;
     this.adapterId = adapterId;
-    exists = new File(subDirectory).exists();
+    if (sharedDb == null) {
+      exists = new File(subDirectory).exists();
+    } else {
+      exists = sharedDb.columnFamilyExists(tableName);
+    }
     this.visibilityEnabled = visibilityEnabled;
     this.compactOnWrite = compactOnWrite;
     this.batchSize = batchSize;
-    batchWrite = batchSize > 1;
+    bulkIngest = tuningOptions.isBulkIngest();
+    batchWrite = bulkIngest || (batchSize > 1);
+    batchWriter =
+        new RocksDBBatchWriter(
+            sharedDb == null ? subDirectory : tableName,
+            tuningOptions.getBatchWriteThreads());
   }
 
   public void delete(final byte[] key) {
@@ -75,7 +160,11 @@ abstract public class AbstractRocksDBTable {
       return;
     }
     try {
-      db.singleDelete(key);
+      if (columnFamily == null) {
+        db.singleDelete(key);
+      } else {
+        db.singleDelete(columnFamily, key);
+      }
     } catch (final RocksDBException e) {
       LOGGER.warn("Unable to delete key", e);
     }
@@ -84,7 +173,17 @@ abstract public class AbstractRocksDBTable {
   @SuppressFBWarnings(
       justification = "The null check outside of the synchronized block is intentional to minimize the need for synchronization.")
   protected void put(final byte[] key, final byte[] value) {
-    if (batchWrite) {
+    if (bulkIngest) {
+      synchronized (BATCH_WRITE_MUTEX) {
+        if (currentBulkIngest == null) {
+          currentBulkIngest = new TreeMap<>(UnsignedBytes.lexicographicalComparator());
+        }
+        currentBulkIngest.put(key, value);
+        if (currentBulkIngest.size() >= tuningOptions.getBulkIngestSize()) {
+          flushWriteQueue();
+        }
+      }
+    } else if (batchWrite) {
       WriteBatch thisBatch = currentBatch;
       if (thisBatch == null) {
         synchronized (BATCH_WRITE_MUTEX) {
@@ -95,7 +194,13 @@ abstract public class AbstractRocksDBTable {
         }
       }
       try {
-        thisBatch.put(key, value);
+        if (sharedDb == null) {
+          thisBatch.put(key, value);
+        } else {
+          // make sure the column family is resolved before it is referenced by the batch
+          getDb(false);
+          thisBatch.put(columnFamily, key, value);
+        }
       } catch (final RocksDBException e) {
         LOGGER.warn("Unable to add data to batched write", e);
       }
@@ -111,7 +216,11 @@ abstract public class AbstractRocksDBTable {
     {
       final RocksDB db = getDb(false);
       try {
-        db.put(key, value);
+        if (columnFamily == null) {
+          db.put(key, value);
+        } else {
+          db.put(columnFamily, key, value);
+        }
       } catch (final RocksDBException e) {
         LOGGER.warn("Unable to write key-value", e);
       }
@@ -119,16 +228,105 @@ abstract public class AbstractRocksDBTable {
   }
 
   private void flushWriteQueue() {
+    final RocksDB db = getDb(false);
+    if (currentBulkIngest != null) {
+      final TreeMap<byte[], byte[]> rows = currentBulkIngest;
+      currentBulkIngest = null;
+      batchWriter.write(rows.size(), () -> ingest(db, rows));
+    }
+    if (currentBatch != null) {
+      final WriteBatch batch = currentBatch;
+      currentBatch = null;
+      batchWriter.write(batch.count(), () -> {
+        try {
+          db.write(batchWriteOptions, batch);
+        } finally {
+          batch.close();
+        }
+      }, batch::close);
+    }
+  }
+
+  /**
+   * Write sorted rows to an SST file and ingest it directly into the table, bypassing the memtable
+   * and write-ahead-log. If the SST file can't be created or ingested the rows are written normally
+   * instead.
+   */
+  private void ingest(final RocksDB db, final TreeMap<byte[], byte[]> rows)
+      throws RocksDBException {
+    if (rows.isEmpty()) {
+      return;
+    }
+    final File sstFile = createSstFile();
+    if (sstFile != null) {
+      try {
+        ingestSstFile(db, sstFile, rows);
+        return;
+      } catch (final RocksDBException e) {
+        LOGGER.warn("Unable to bulk ingest SST file, writing rows directly instead", e);
+      } finally {
+        if (sstFile.exists() && !sstFile.delete()) {
+          LOGGER.warn("Unable to delete SST file '" + sstFile + "'");
+        }
+      }
+    }
+    try (WriteBatch batch = new WriteBatch()) {
+      for (final Entry<byte[], byte[]> row : rows.entrySet()) {
+        if (columnFamily == null) {
+          batch.put(row.getKey(), row.getValue());
+        } else {
+          batch.put(columnFamily, row.getKey(), row.getValue());
+        }
+      }
+      db.write(batchWriteOptions, batch);
+    }
+  }
+
+  private File createSstFile() {
+    final File ingestDirectory =
+        new File(new File(subDirectory).getParentFile(), RocksDBUtils.BULK_INGEST_DIRECTORY);
+    if (!ingestDirectory.exists() && !ingestDirectory.mkdirs()) {
+      LOGGER.warn(
+          "Unable to create bulk ingest directory '"
+              + ingestDirectory
+              + "', writing rows directly instead");
+      return null;
+    }
     try {
-      writeSemaphore.acquire();
-      CompletableFuture.runAsync(
-          new BatchWriter(currentBatch, getDb(false), batchWriteOptions, writeSemaphore),
-          BATCH_WRITE_THREADS);
-    } catch (final InterruptedException e) {
-      LOGGER.warn("async write semaphore interrupted", e);
-      writeSemaphore.release();
-    }
-    currentBatch = null;
+      return File.createTempFile("ingest", ".sst", ingestDirectory);
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to create SST file for bulk ingest, writing rows directly instead", e);
+      return null;
+    }
+  }
+
+  private void ingestSstFile(
+      final RocksDB db,
+      final File sstFile,
+      final TreeMap<byte[], byte[]> rows) throws RocksDBException {
+    final Options sstOptions =
+        sharedDb == null ? writeOptions : sharedDb.createSstFileOptions(tableName);
+    try (EnvOptions envOptions = new EnvOptions();
+        SstFileWriter writer = new SstFileWriter(envOptions, sstOptions)) {
+      writer.open(sstFile.getAbsolutePath());
+      for (final Entry<byte[], byte[]> row : rows.entrySet()) {
+        writer.put(row.getKey(), row.getValue());
+      }
+      writer.finish();
+    } finally {
+      if (sharedDb != null) {
+        sstOptions.close();
+      }
+    }
+    try (IngestExternalFileOptions ingestOptions =
+        new IngestExternalFileOptions().setMoveFiles(true)) {
+      final List<String> files = Collections.singletonList(sstFile.getAbsolutePath());
+      if (columnFamily == null) {
+        db.ingestExternalFile(files, ingestOptions);
+      } else {
+        db.ingestExternalFile(columnFamily, files, ingestOptions);
+      }
+    }
   }
 
   @SuppressFBWarnings(
@@ -136,25 +334,60 @@ abstract public class AbstractRocksDBTable {
   public void flush() {
     if (batchWrite) {
       synchronized (BATCH_WRITE_MUTEX) {
-        if (currentBatch != null) {
+        if ((currentBatch != null) || (currentBulkIngest != null)) {
           flushWriteQueue();
         }
-        waitForBatchWrite();
+        batchWriter.waitForWrites();
       }
     }
     internalFlush();
   }
 
   protected void internalFlush() {
+    if (tuningOptions.isQueryOptimizeAfterIngest()) {
+      optimizeForQuery();
+    }
     if (compactOnWrite) {
-      final RocksDB db = getDb(true);
-      if (db == null) {
-        return;
+      scheduleCompaction();
+    }
+  }
+
+  /**
+   * Rather than compacting within every flush, a compaction is scheduled once writes to the table
+   * have quiesced. Subsequent flushes push the compaction back.
+   */
+  private synchronized void scheduleCompaction() {
+    if (writeDb == null) {
+      return;
+    }
+    if (pendingCompaction != null) {
+      pendingCompaction.cancel(false);
+    }
+    pendingCompaction =
+        COMPACTION_THREAD.schedule(
+            this::runScheduledCompaction,
+            COMPACTION_DELAY_MILLIS,
+            TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Compact the table if it is still open. A compaction can take a long time so the table's lock is
+   * not held while it runs, only the compaction mutex which close waits on.
+   */
+  private void runScheduledCompaction() {
+    synchronized (COMPACTION_MUTEX) {
+      final RocksDB db;
+      final ColumnFamilyHandle compactionColumnFamily;
+      synchronized (this) {
+        db = writeDb;
+        compactionColumnFamily = columnFamily;
       }
-      try {
-        db.compactRange();
-      } catch (final RocksDBException e) {
-        LOGGER.warn("Unable to compact range", e);
+      if (db != null) {
+        try {
+          compactRange(db, compactionColumnFamily);
+        } catch (final RocksDBException e) {
+          LOGGER.warn("Unable to compact range", e);
+        }
       }
     }
   }
@@ -165,32 +398,126 @@ abstract public class AbstractRocksDBTable {
       return;
     }
     try {
-      db.compactRange();
+      compactRange(db);
     } catch (final RocksDBException e) {
       LOGGER.warn("Unable to force compacting range", e);
     }
   }
 
-  private void waitForBatchWrite() {
+  /**
+   * Tables are opened with options that favor bulk loading, once an ingest is flushed automatic
+   * compactions are re-enabled so that reads don't have to merge an ever growing number of level 0
+   * files.
+   */
+  private synchronized void optimizeForQuery() {
+    if (queryOptimized) {
+      return;
+    }
+    final RocksDB db = getDb(true);
+    if (db == null) {
+      return;
+    }
+    applyQueryOptimizedOptions(db);
+  }
+
+  /**
+   * Must be called while holding the lock on this table.
+   */
+  private void applyQueryOptimizedOptions(final RocksDB db) {
+    try {
+      db.setOptions(
+          columnFamily == null ? db.getDefaultColumnFamily() : columnFamily,
+          tuningOptions.getQueryOptimizedOptions());
+      queryOptimized = true;
+    } catch (final RocksDBException e) {
+      LOGGER.warn("Unable to switch to query optimized options", e);
+    }
+  }
+
+  private void compactRange(final RocksDB db) throws RocksDBException {
+    compactRange(db, columnFamily);
+  }
+
+  private static void compactRange(final RocksDB db, final ColumnFamilyHandle columnFamily)
+      throws RocksDBException {
+    if (columnFamily == null) {
+      db.compactRange();
+    } else {
+      db.compactRange(columnFamily);
+    }
+  }
+
+  protected RocksIterator newIterator(final RocksDB db, final ReadOptions options) {
+    if (columnFamily == null) {
+      return options == null ? db.newIterator() : db.newIterator(options);
+    }
+    return options == null ? db.newIterator(columnFamily) : db.newIterator(columnFamily, options);
+  }
+
+  protected void deleteRange(final RocksDB db, final byte[] beginKey, final byte[] endKey)
+      throws RocksDBException {
+    if (columnFamily == null) {
+      db.deleteRange(beginKey, endKey);
+    } else {
+      db.deleteRange(columnFamily, beginKey, endKey);
+    }
+  }
+
+  protected List<byte[]> multiGet(final RocksDB db, final List<byte[]> keys)
+      throws RocksDBException {
+    if (columnFamily == null) {
+      return db.multiGetAsList(keys);
+    }
+    return db.multiGetAsList(Collections.nCopies(keys.size(), columnFamily), keys);
+  }
+
+  /**
+   * @return the writer of this table's batches which reports its throughput and queue depth
+   */
+  public RocksDBBatchWriter getBatchWriter() {
+    return batchWriter;
+  }
+
+  public void close() {
     if (batchWrite) {
       // need to wait for all asynchronous batches to finish writing
       // before exiting close() method
-      try {
-        writeSemaphore.acquire(MAX_CONCURRENT_WRITE);
-      } catch (final InterruptedException e) {
-        LOGGER.warn("Unable to wait for batch write to complete");
+      batchWriter.waitForWrites();
+    }
+    final boolean compactionPending;
+    synchronized (this) {
+      // a compaction that has not started yet would otherwise be dropped, for example when the
+      // JVM exits shortly after an ingest
+      compactionPending = (pendingCompaction != null) && pendingCompaction.cancel(false);
+      pendingCompaction = null;
+    }
+    if (compactionPending) {
+      runScheduledCompaction();
+    }
+    // wait for a compaction that is already running
+    synchronized (COMPACTION_MUTEX) {
+      synchronized (this) {
+        if (writeDb != null) {
+          // the shared instance is owned by the client, only the table's reference is released
+          if (sharedDb == null) {
+            writeDb.close();
+          }
+          writeDb = null;
+          columnFamily = null;
+          queryOptimized = false;
+        }
       }
-      writeSemaphore.release(MAX_CONCURRENT_WRITE);
     }
   }
 
-  public void close() {
-    waitForBatchWrite();
-    synchronized (this) {
-      if (writeDb != null) {
-        writeDb.close();
-        writeDb = null;
-      }
+  /**
+   * An existing table is always opened with the bulk load options. If it is opened to be read, for
+   * example by a new process after the ingest, the ingest's flush never switches it to the query
+   * optimized options so they are applied right away.
+   */
+  private void openedForRead(final boolean read) {
+    if (read && tuningOptions.isQueryOptimizeAfterIngest()) {
+      applyQueryOptimizedOptions(writeDb);
     }
   }
 
@@ -207,6 +534,18 @@ abstract public class AbstractRocksDBTable {
       synchronized (this) {
         // check again within synchronized block
         if (writeDb == null) {
+          if (sharedDb != null) {
+            if (read && !exists && !sharedDb.columnFamilyExists(tableName)) {
+              return null;
+            }
+            columnFamily = sharedDb.getColumnFamily(tableName);
+            if (columnFamily != null) {
+              exists = true;
+              writeDb = sharedDb.getDb();
+              openedForRead(read);
+            }
+            return writeDb;
+          }
           if (read && !exists) {
             return null;
           }
@@ -214,6 +553,7 @@ abstract public class AbstractRocksDBTable {
             if (exists || new File(subDirectory).mkdirs()) {
               exists = true;
               writeDb = RocksDB.open(writeOptions, subDirectory);
+              openedForRead(read);
             } else {
               LOGGER.error("Unable to open to create directory '" + subDirectory + "'");
             }
@@ -225,35 +565,4 @@ abstract public class AbstractRocksDBTable {
     }
     return writeDb;
   }
-
-  private static class BatchWriter implements Runnable {
-    private final WriteBatch dataToWrite;
-    private final RocksDB db;
-    private final WriteOptions options;
-    private final Semaphore writeSemaphore;
-
-    private BatchWriter(
-        final WriteBatch dataToWrite,
-        final RocksDB db,
-        final WriteOptions options,
-        final Semaphore writeSemaphore) {
-      super();
-      this.dataToWrite = dataToWrite;
-      this.db = db;
-      this.options = options;
-      this.writeSemaphore = writeSemaphore;
-    }
-
-    @Override
-    public void run() {
-      try {
-        db.write(options, dataToWrite);
-        dataToWrite.close();
-      } catch (final RocksDBException e) {
-        LOGGER.warn("Unable to write batch", e);
-      } finally {
-        writeSemaphore.release();
-      }
-    }
-  }
 }
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.rocksdb.RocksDBException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Writes the batches of a single table asynchronously. The number of batches of the table that may
+ * be queued or in progress at once is bounded so that producers block rather than buffering an
+ * unbounded amount of data, while the next batch is filled as the previous ones are written.
+ */
+public class RocksDBBatchWriter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RocksDBBatchWriter.class);
+  private static final ExecutorService BATCH_WRITE_THREADS =
+      MoreExecutors.getExitingExecutorService(
+          (ThreadPoolExecutor) Executors.newFixedThreadPool(
+              Runtime.getRuntime().availableProcessors()));
+
+  private final String tableName;
+  private final int maxConcurrentWrites;
+  private final Semaphore writeSemaphore;
+  private final AtomicLong rowsWritten = new AtomicLong(0);
+  private final AtomicLong batchesWritten = new AtomicLong(0);
+  private final AtomicInteger peakQueueDepth = new AtomicInteger(0);
+  private volatile long firstWriteNanos = -1;
+  private volatile long lastWriteNanos = -1;
+
+  public RocksDBBatchWriter(final String tableName, final int maxConcurrentWrites) {
+    this.tableName = tableName;
+    this.maxConcurrentWrites = Math.max(1, maxConcurrentWrites);
+    writeSemaphore = new Semaphore(this.maxConcurrentWrites);
+  }
+
+  /**
+   * Submit a write, blocking until one of the table's outstanding writes completes if the maximum
+   * number are already queued or in progress.
+   *
+   * @param rowCount the number of rows that will be written
+   * @param write the write to perform
+   */
+  public void write(final long rowCount, final Write write) {
+    write(rowCount, write, () -> {
+    });
+  }
+
+  /**
+   * Submit a write, blocking until one of the table's outstanding writes completes if the maximum
+   * number are already queued or in progress.
+   *
+   * @param rowCount the number of rows that will be written
+   * @param write the write to perform
+   * @param discard releases the resources of the write if it is never submitted
+   * @throws RuntimeException if interrupted while waiting to submit the write
+   */
+  public void write(final long rowCount, final Write write, final Runnable discard) {
+    try {
+      writeSemaphore.acquire();
+    } catch (final InterruptedException e) {
+      discard.run();
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(
+          "Interrupted waiting to write " + rowCount + " rows to '" + tableName + "'",
+          e);
+    }
+    if (firstWriteNanos < 0) {
+      firstWriteNanos = System.nanoTime();
+    }
+    peakQueueDepth.accumulateAndGet(getQueueDepth(), Math::max);
+    CompletableFuture.runAsync(() -> {
+      try {
+        write.write();
+        rowsWritten.addAndGet(rowCount);
+        batchesWritten.incrementAndGet();
+        lastWriteNanos = System.nanoTime();
+      } catch (final RocksDBException e) {
+        LOGGER.warn("Unable to write batch", e);
+      } finally {
+        writeSemaphore.release();
+      }
+    }, BATCH_WRITE_THREADS);
+  }
+
+  /**
+   * Block until every write that has been submitted has completed.
+   */
+  public void waitForWrites() {
+    try {
+      writeSemaphore.acquire(maxConcurrentWrites);
+    } catch (final InterruptedException e) {
+      LOGGER.warn("Unable to wait for batch write to complete");
+      Thread.currentThread().interrupt();
+      return;
+    }
+    writeSemaphore.release(maxConcurrentWrites);
+    if (LOGGER.isDebugEnabled() && (batchesWritten.get() > 0)) {
+      LOGGER.debug(
+          String.format(
+              "Wrote %d rows in %d batches to '%s' (%.1f rows/s, peak queue depth %d of %d)",
+              getRowsWritten(),
+              getBatchesWritten(),
+              tableName,
+              getRowsPerSecond(),
+              getPeakQueueDepth(),
+              maxConcurrentWrites));
+    }
+  }
+
+  /**
+   * @return the number of writes currently queued or in progress
+   */
+  public int getQueueDepth() {
+    return maxConcurrentWrites - writeSemaphore.availablePermits();
+  }
+
+  public int getPeakQueueDepth() {
+    return peakQueueDepth.get();
+  }
+
+  public int getMaxConcurrentWrites() {
+    return maxConcurrentWrites;
+  }
+
+  public long getRowsWritten() {
+    return rowsWritten.get();
+  }
+
+  public long getBatchesWritten() {
+    return batchesWritten.get();
+  }
+
+  /**
+   * @return the rows written per second from the first submitted write to the latest completed
+   *         write
+   */
+  public double getRowsPerSecond() {
+    final long first = firstWriteNanos;
+    final long last = lastWriteNanos;
+    if ((first < 0) || (last <= first)) {
+      return 0;
+    }
+    return (rowsWritten.get() * (double) TimeUnit.SECONDS.toNanos(1)) / (last - first);
+  }
+
+  @FunctionalInterface
+  public static interface Write {
+    void write() throws RocksDBException;
+  }
+}
@@ -11,11 +11,16 @@ package org.locationtech.geowave.datastore.rocksdb.util;
 import java.io.Closeable;
 import java.io.File;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import org.locationtech.geowave.core.store.operations.MetadataType;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBOptions.StorageLayout;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBTuningOptions;
+import org.rocksdb.LRUCache;
 import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
@@ -173,22 +178,94 @@ public class RocksDBClient implements Closeable {
   private final boolean compactOnWrite;
   private final int batchWriteSize;
   private final boolean walOnBatchWrite;
+  private final StorageLayout storageLayout;
+  private final RocksDBTuningOptions tuningOptions;
+  private RocksDBSharedDB sharedDb = null;
 
-  protected static Options indexWriteOptions = null;
+  private LRUCache blockCache = null;
+  protected Options indexWriteOptions = null;
+  protected Options dataIndexWriteOptions = null;
   protected WriteOptions batchWriteOptions = null;
-  protected static Options metadataOptions = null;
+  protected Options metadataOptions = null;
 
   public RocksDBClient(
       final String subDirectory,
       final boolean visibilityEnabled,
       final boolean compactOnWrite,
       final int batchWriteSize,
-      final boolean walOnBatchWrite) {
+      final boolean walOnBatchWrite,
+      final StorageLayout storageLayout,
+      final RocksDBTuningOptions tuningOptions) {
     this.subDirectory = subDirectory;
     this.visibilityEnabled = visibilityEnabled;
     this.compactOnWrite = compactOnWrite;
     this.batchWriteSize = batchWriteSize;
     this.walOnBatchWrite = walOnBatchWrite;
+    this.storageLayout = storageLayout;
+    this.tuningOptions = tuningOptions;
+  }
+
+  public boolean isColumnFamilyLayout() {
+    return StorageLayout.COLUMN_FAMILY.equals(storageLayout);
+  }
+
+  private synchronized RocksDBSharedDB getSharedDb() {
+    if (sharedDb == null) {
+      sharedDb =
+          new RocksDBSharedDB(
+              subDirectory + "/" + RocksDBUtils.COLUMN_FAMILY_DIRECTORY,
+              tuningOptions,
+              getBlockCache());
+      migrateLegacyTables();
+    }
+    return sharedDb;
+  }
+
+  /**
+   * Any table directories left behind by the directory-per-table layout are moved into column
+   * families the first time the shared instance is opened.
+   */
+  private void migrateLegacyTables() {
+    final Set<String> metadataDirectories =
+        Arrays.stream(MetadataType.values()).map(MetadataType::id).collect(Collectors.toSet());
+    final File[] legacyTables =
+        new File(subDirectory).listFiles(
+            f -> f.isDirectory()
+                && !RocksDBUtils.COLUMN_FAMILY_DIRECTORY.equals(f.getName())
+                && !RocksDBUtils.BULK_INGEST_DIRECTORY.equals(f.getName())
+                && !metadataDirectories.contains(f.getName()));
+    if (legacyTables != null) {
+      for (final File legacyTable : legacyTables) {
+        sharedDb.importLegacyTable(legacyTable.getName(), legacyTable);
+      }
+    }
+  }
+
+  /**
+   * Every table of this store shares one block cache so that its size bounds the memory used for
+   * reads regardless of the number of tables.
+   */
+  private synchronized LRUCache getBlockCache() {
+    if (blockCache == null) {
+      RocksDB.loadLibrary();
+      blockCache = new LRUCache(tuningOptions.getBlockCacheSizeBytes());
+    }
+    return blockCache;
+  }
+
+  private synchronized void initWriteOptions() {
+    if (indexWriteOptions == null) {
+      indexWriteOptions = tuningOptions.createIndexOptions(getBlockCache());
+      dataIndexWriteOptions = tuningOptions.createDataIndexOptions(getBlockCache());
+    }
+    if (batchWriteOptions == null) {
+      batchWriteOptions =
+          new WriteOptions().setDisableWAL(!walOnBatchWrite).setNoSlowdown(false).setSync(false);
+    }
+  }
+
+  private String getTableName(final CacheKey key) {
+    return key.directory.substring(subDirectory.length() + 1);
   }
 
   private RocksDBMetadataTable loadMetadataTable(final CacheKey key) throws RocksDBException {
@@ -207,9 +284,23 @@ public class RocksDBClient implements Closeable {
       value = "IS2_INCONSISTENT_SYNC",
       justification = "This is only called from the loading cache which is synchronized")
   private RocksDBIndexTable loadIndexTable(final IndexCacheKey key) {
+    if (isColumnFamilyLayout()) {
+      return new RocksDBIndexTable(
+          batchWriteOptions,
+          tuningOptions,
+          getSharedDb(),
+          getTableName(key),
+          key.adapterId,
+          key.partition,
+          key.requiresTimestamp,
+          visibilityEnabled,
+          compactOnWrite,
+          batchWriteSize);
+    }
     return new RocksDBIndexTable(
         indexWriteOptions,
         batchWriteOptions,
+        tuningOptions,
         key.directory,
         key.adapterId,
         key.partition,
@@ -223,9 +314,21 @@ public class RocksDBClient implements Closeable {
       value = "IS2_INCONSISTENT_SYNC",
       justification = "This is only called from the loading cache which is synchronized")
   private RocksDBDataIndexTable loadDataIndexTable(final DataIndexCacheKey key) {
+    if (isColumnFamilyLayout()) {
+      return new RocksDBDataIndexTable(
+          batchWriteOptions,
+          tuningOptions,
+          getSharedDb(),
+          getTableName(key),
+          key.adapterId,
+          visibilityEnabled,
+          compactOnWrite,
+          batchWriteSize);
+    }
     return new RocksDBDataIndexTable(
-        indexWriteOptions,
+        dataIndexWriteOptions,
         batchWriteOptions,
+        tuningOptions,
         key.directory,
         key.adapterId,
         visibilityEnabled,
@@ -242,16 +345,7 @@ public class RocksDBClient implements Closeable {
       final short adapterId,
       final byte[] partition,
       final boolean requiresTimestamp) {
-    if (indexWriteOptions == null) {
-      RocksDB.loadLibrary();
-      final int cores = Runtime.getRuntime().availableProcessors();
-      indexWriteOptions =
-          new Options().setCreateIfMissing(true).prepareForBulkLoad().setIncreaseParallelism(cores);
-    }
-    if (batchWriteOptions == null) {
-      batchWriteOptions =
-          new WriteOptions().setDisableWAL(!walOnBatchWrite).setNoSlowdown(false).setSync(false);
-    }
+    initWriteOptions();
     final String directory = subDirectory + "/" + tableName;
     return indexTableCache.get(
         (IndexCacheKey) keyCache.get(
@@ -262,16 +356,7 @@ public class RocksDBClient implements Closeable {
   public synchronized RocksDBDataIndexTable getDataIndexTable(
       final String tableName,
       final short adapterId) {
-    if (indexWriteOptions == null) {
-      RocksDB.loadLibrary();
-      final int cores = Runtime.getRuntime().availableProcessors();
-      indexWriteOptions =
-          new Options().setCreateIfMissing(true).prepareForBulkLoad().setIncreaseParallelism(cores);
-    }
-    if (batchWriteOptions == null) {
-      batchWriteOptions =
-          new WriteOptions().setDisableWAL(!walOnBatchWrite).setNoSlowdown(false).setSync(false);
-    }
+    initWriteOptions();
     final String directory = subDirectory + "/" + tableName;
     return dataIndexTableCache.get(
         (DataIndexCacheKey) keyCache.get(directory, d -> new DataIndexCacheKey(d, adapterId)));
@@ -279,8 +364,7 @@ public class RocksDBClient implements Closeable {
 
   public synchronized RocksDBMetadataTable getMetadataTable(final MetadataType type) {
     if (metadataOptions == null) {
-      RocksDB.loadLibrary();
-      metadataOptions = new Options().setCreateIfMissing(true).optimizeForSmallDb();
+      metadataOptions = tuningOptions.createMetadataOptions(getBlockCache());
     }
     final String directory = subDirectory + "/" + type.id();
     return metadataTableCache.get(
@@ -288,6 +372,10 @@ public class RocksDBClient implements Closeable {
   }
 
   public boolean indexTableExists(final String indexName) {
+    if (isColumnFamilyLayout()) {
+      return getSharedDb().getColumnFamilyNames("").stream().anyMatch(
+          name -> name.contains(indexName));
+    }
     // then look for prefixes of this index directory in which case there is
     // a partition key
     for (final String key : keyCache.asMap().keySet()) {
@@ -301,6 +389,30 @@ public class RocksDBClient implements Closeable {
     return (listing != null) && (listing.length > 0);
   }
 
+  /**
+   * Get the names of all tables starting with the given prefix, regardless of whether they have
+   * been opened by this client.
+   */
+  public List<String> getTableNames(final String tableNamePrefix) {
+    if (isColumnFamilyLayout()) {
+      return getSharedDb().getColumnFamilyNames(tableNamePrefix);
+    }
+    final String[] listing =
+        new File(subDirectory).list((dir, name) -> name.startsWith(tableNamePrefix));
+    return listing == null ? Collections.emptyList() : Arrays.asList(listing);
+  }
+
+  /**
+   * Drop the column families of all tables starting with the given prefix. This has no effect for
+   * the directory layout in which case the table directories should be deleted.
+   */
+  public void dropTables(final String tableNamePrefix) {
+    if (isColumnFamilyLayout()) {
+      final RocksDBSharedDB db = getSharedDb();
+      db.getColumnFamilyNames(tableNamePrefix).forEach(db::dropColumnFamily);
+    }
+  }
+
   public boolean metadataTableExists(final MetadataType type) {
     // this could have been created by a different process so check the
     // directory listing
@@ -369,10 +481,30 @@ public class RocksDBClient implements Closeable {
     metadataTableCache.asMap().values().forEach(db -> db.close());
     metadataTableCache.invalidateAll();
     synchronized (this) {
+      if (sharedDb != null) {
+        sharedDb.close();
+        sharedDb = null;
+      }
       if (batchWriteOptions != null) {
         batchWriteOptions.close();
         batchWriteOptions = null;
       }
+      if (indexWriteOptions != null) {
+        indexWriteOptions.close();
+        indexWriteOptions = null;
+      }
+      if (dataIndexWriteOptions != null) {
+        dataIndexWriteOptions.close();
+        dataIndexWriteOptions = null;
+      }
+      if (metadataOptions != null) {
+        metadataOptions.close();
+        metadataOptions = null;
+      }
+      if (blockCache != null) {
+        blockCache.close();
+        blockCache = null;
+      }
     }
   }
 }
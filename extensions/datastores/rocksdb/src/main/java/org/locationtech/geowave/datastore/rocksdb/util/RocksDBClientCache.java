@@ -10,6 +10,8 @@ package org.locationtech.geowave.datastore.rocksdb.util;
 
 import java.io.File;
 import java.io.IOException;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBOptions.StorageLayout;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBTuningOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.github.benmanes.caffeine.cache.Caffeine;
@@ -33,7 +35,9 @@ public class RocksDBClientCache {
             subDirectoryVisiblityPair.visibilityEnabled,
             subDirectoryVisiblityPair.compactOnWrite,
             subDirectoryVisiblityPair.batchSize,
-            subDirectoryVisiblityPair.walOnBatchWrite);
+            subDirectoryVisiblityPair.walOnBatchWrite,
+            subDirectoryVisiblityPair.storageLayout,
+            subDirectoryVisiblityPair.tuningOptions);
       });
 
   protected RocksDBClientCache() {}
@@ -43,14 +47,18 @@ public class RocksDBClientCache {
       final boolean visibilityEnabled,
       final boolean compactOnWrite,
       final int batchWriteSize,
-      final boolean walOnBatchWrite) {
+      final boolean walOnBatchWrite,
+      final StorageLayout storageLayout,
+      final RocksDBTuningOptions tuningOptions) {
     return clientCache.get(
         new ClientKey(
             directory,
             visibilityEnabled,
             compactOnWrite,
             batchWriteSize,
-            walOnBatchWrite));
+            walOnBatchWrite,
+            storageLayout,
+            tuningOptions));
   }
 
   public synchronized void close(
@@ -59,6 +67,8 @@ public class RocksDBClientCache {
       final boolean compactOnWrite,
       final int batchWriteSize,
       final boolean walOnBatchWrite,
+      final StorageLayout storageLayout,
+      final RocksDBTuningOptions tuningOptions,
       final boolean invalidateCache) {
     final ClientKey key =
         new ClientKey(
@@ -66,7 +76,9 @@ public class RocksDBClientCache {
             visibilityEnabled,
             compactOnWrite,
             batchWriteSize,
-            walOnBatchWrite);
+            walOnBatchWrite,
+            storageLayout,
+            tuningOptions);
     final RocksDBClient client = clientCache.getIfPresent(key);
     if (client != null) {
       if (invalidateCache) {
@@ -74,29 +86,11 @@ public class RocksDBClientCache {
       }
       client.close();
     }
-    if (clientCache.estimatedSize() == 0) {
-      if (RocksDBClient.metadataOptions != null) {
-        RocksDBClient.metadataOptions.close();
-        RocksDBClient.metadataOptions = null;
-      }
-      if (RocksDBClient.indexWriteOptions != null) {
-        RocksDBClient.indexWriteOptions.close();
-        RocksDBClient.indexWriteOptions = null;
-      }
-    }
   }
 
   public synchronized void closeAll() {
     clientCache.asMap().forEach((k, v) -> v.close());
     clientCache.invalidateAll();
-    if (RocksDBClient.metadataOptions != null) {
-      RocksDBClient.metadataOptions.close();
-      RocksDBClient.metadataOptions = null;
-    }
-    if (RocksDBClient.indexWriteOptions != null) {
-      RocksDBClient.indexWriteOptions.close();
-      RocksDBClient.indexWriteOptions = null;
-    }
   }
 
   private static class ClientKey {
@@ -105,13 +99,17 @@ public class RocksDBClientCache {
     private final boolean compactOnWrite;;
     private final int batchSize;
     private final boolean walOnBatchWrite;
+    private final StorageLayout storageLayout;
+    private final RocksDBTuningOptions tuningOptions;
 
     public ClientKey(
         final String directory,
         final boolean visibilityEnabled,
         final boolean compactOnWrite,
         final int batchSize,
-        final boolean walOnBatchWrite) {
+        final boolean walOnBatchWrite,
+        final StorageLayout storageLayout,
+        final RocksDBTuningOptions tuningOptions) {
       super();
       String path = directory;
       try {
@@ -124,6 +122,8 @@ public class RocksDBClientCache {
       this.compactOnWrite = compactOnWrite;
       this.batchSize = batchSize;
       this.walOnBatchWrite = walOnBatchWrite;
+      this.storageLayout = storageLayout;
+      this.tuningOptions = tuningOptions;
     }
 
     @Override
@@ -135,6 +135,8 @@ public class RocksDBClientCache {
       result = (prime * result) + ((directory == null) ? 0 : directory.hashCode());
       result = (prime * result) + (visibilityEnabled ? 1231 : 1237);
       result = (prime * result) + (walOnBatchWrite ? 1231 : 1237);
+      result = (prime * result) + ((storageLayout == null) ? 0 : storageLayout.hashCode());
+      result = (prime * result) + ((tuningOptions == null) ? 0 : tuningOptions.hashCode());
       return result;
     }
 
@@ -169,6 +171,16 @@ public class RocksDBClientCache {
       if (walOnBatchWrite != other.walOnBatchWrite) {
         return false;
       }
+      if (storageLayout != other.storageLayout) {
+        return false;
+      }
+      if (tuningOptions == null) {
+        if (other.tuningOptions != null) {
+          return false;
+        }
+      } else if (!tuningOptions.equals(other.tuningOptions)) {
+        return false;
+      }
       return true;
     }
 
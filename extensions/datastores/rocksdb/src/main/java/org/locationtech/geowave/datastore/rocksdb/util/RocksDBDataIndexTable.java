@@ -16,6 +16,7 @@ import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.base.dataidx.DataIndexUtils;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBTuningOptions;
 import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
@@ -33,6 +34,7 @@ public class RocksDBDataIndexTable extends AbstractRocksDBTable {
   public RocksDBDataIndexTable(
       final Options writeOptions,
       final WriteOptions batchWriteOptions,
+      final RocksDBTuningOptions tuningOptions,
       final String subDirectory,
       final short adapterId,
       final boolean visibilityEnabled,
@@ -41,6 +43,7 @@ public class RocksDBDataIndexTable extends AbstractRocksDBTable {
     super(
         writeOptions,
         batchWriteOptions,
+        tuningOptions,
         subDirectory,
         adapterId,
         visibilityEnabled,
@@ -48,6 +51,26 @@ public class RocksDBDataIndexTable extends AbstractRocksDBTable {
         batchSize);
   }
 
+  public RocksDBDataIndexTable(
+      final WriteOptions batchWriteOptions,
+      final RocksDBTuningOptions tuningOptions,
+      final RocksDBSharedDB sharedDb,
+      final String tableName,
+      final short adapterId,
+      final boolean visibilityEnabled,
+      final boolean compactOnWrite,
+      final int batchSize) {
+    super(
+        batchWriteOptions,
+        tuningOptions,
+        sharedDb,
+        tableName,
+        adapterId,
+        visibilityEnabled,
+        compactOnWrite,
+        batchSize);
+  }
+
   public synchronized void add(final byte[] dataId, final GeoWaveValue value) {
     put(dataId, DataIndexUtils.serializeDataIndexValue(value, visibilityEnabled));
   }
@@ -63,7 +86,7 @@ public class RocksDBDataIndexTable extends AbstractRocksDBTable {
 
     try {
       final List<byte[]> dataIdsList = Arrays.asList(dataIds);
-      final List<byte[]> dataIdxResults = readDb.multiGetAsList(dataIdsList);
+      final List<byte[]> dataIdxResults = multiGet(readDb, dataIdsList);
       if (dataIdsList.size() != dataIdxResults.size()) {
         LOGGER.warn("Result size differs from original keys");
       } else {
@@ -94,7 +117,7 @@ public class RocksDBDataIndexTable extends AbstractRocksDBTable {
     }
     final RocksIterator it;
     if (reverse) {
-      it = readDb.newIterator();
+      it = newIterator(readDb, null);
       if (endDataId == null) {
         it.seekToLast();
       } else {
@@ -108,12 +131,12 @@ public class RocksDBDataIndexTable extends AbstractRocksDBTable {
       final ReadOptions options;
       if (endDataId == null) {
         options = null;
-        it = readDb.newIterator();
+        it = newIterator(readDb, null);
       } else {
         options =
             new ReadOptions().setIterateUpperBound(
                 new Slice(ByteArrayUtils.getNextPrefix(endDataId)));
-        it = readDb.newIterator(options);
+        it = newIterator(readDb, options);
       }
       if (startDataId == null) {
         it.seekToFirst();
@@ -13,6 +13,7 @@ import org.locationtech.geowave.core.index.ByteArrayUtils;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.entities.GeoWaveValue;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBTuningOptions;
 import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
@@ -34,6 +35,7 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
   public RocksDBIndexTable(
       final Options writeOptions,
       final WriteOptions batchWriteOptions,
+      final RocksDBTuningOptions tuningOptions,
       final String subDirectory,
       final short adapterId,
       final byte[] partition,
@@ -44,6 +46,7 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
     super(
         writeOptions,
         batchWriteOptions,
+        tuningOptions,
         subDirectory,
         adapterId,
         visibilityEnabled,
@@ -53,6 +56,30 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
     this.partition = partition;
   }
 
+  public RocksDBIndexTable(
+      final WriteOptions batchWriteOptions,
+      final RocksDBTuningOptions tuningOptions,
+      final RocksDBSharedDB sharedDb,
+      final String tableName,
+      final short adapterId,
+      final byte[] partition,
+      final boolean requiresTimestamp,
+      final boolean visibilityEnabled,
+      final boolean compactOnWrite,
+      final int batchSize) {
+    super(
+        batchWriteOptions,
+        tuningOptions,
+        sharedDb,
+        tableName,
+        adapterId,
+        visibilityEnabled,
+        compactOnWrite,
+        batchSize);
+    this.requiresTimestamp = requiresTimestamp;
+    this.partition = partition;
+  }
+
   public void delete(final byte[] sortKey, final byte[] dataId) {
     final RocksDB db = getDb(false);
     if (db == null) {
@@ -61,7 +88,7 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
     }
     try {
       final byte[] prefix = Bytes.concat(sortKey, dataId);
-      db.deleteRange(prefix, ByteArrayUtils.getNextPrefix(prefix));
+      deleteRange(db, prefix, ByteArrayUtils.getNextPrefix(prefix));
     } catch (final RocksDBException e) {
       LOGGER.warn("Unable to delete by sort key and data ID", e);
     }
@@ -113,8 +140,11 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
     if (readDb == null) {
       return new CloseableIterator.Empty<>();
     }
-    final ReadOptions options = new ReadOptions().setFillCache(false);
-    final RocksIterator it = readDb.newIterator(options);
+    // a full scan crosses every prefix so the prefix bloom filters can't be used
+    final ReadOptions options =
+        new ReadOptions().setFillCache(false).setTotalOrderSeek(
+            tuningOptions.isPrefixBloomEnabled());
+    final RocksIterator it = newIterator(readDb, options);
     it.seekToFirst();
     return new RocksDBRowIterator(
         options,
@@ -133,11 +163,24 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
     final ReadOptions options;
     final RocksIterator it;
     if (range.getEnd() == null) {
-      options = null;
-      it = readDb.newIterator();
+      if (tuningOptions.isPrefixBloomEnabled()) {
+        options = new ReadOptions().setTotalOrderSeek(true);
+      } else {
+        options = null;
+      }
+      it = newIterator(readDb, options);
     } else {
       options = new ReadOptions().setIterateUpperBound(new Slice(range.getEndAsNextPrefix()));
-      it = readDb.newIterator(options);
+      if (tuningOptions.isPrefixBloomEnabled()) {
+        // the prefix bloom filters can only skip files when every key in the range shares the
+        // prefix of the start key, otherwise fall back to a total order seek
+        if (sharesPrefix(range)) {
+          options.setPrefixSameAsStart(true);
+        } else {
+          options.setTotalOrderSeek(true);
+        }
+      }
+      it = newIterator(readDb, options);
     }
     if (range.getStart() == null) {
       it.seekToFirst();
@@ -153,4 +196,22 @@ public class RocksDBIndexTable extends AbstractRocksDBTable {
         requiresTimestamp,
         visibilityEnabled);
   }
+
+  private boolean sharesPrefix(final ByteArrayRange range) {
+    final int prefixLength = tuningOptions.getPrefixLength();
+    final byte[] start = range.getStart();
+    final byte[] end = range.getEnd();
+    if ((start == null)
+        || (end == null)
+        || (start.length < prefixLength)
+        || (end.length < prefixLength)) {
+      return false;
+    }
+    for (int i = 0; i < prefixLength; i++) {
+      if (start[i] != end[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
@@ -0,0 +1,283 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.apache.commons.io.FileUtils;
+import org.locationtech.geowave.core.store.base.dataidx.DataIndexUtils;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBTuningOptions;
+import org.rocksdb.Cache;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.DBOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteBufferManager;
+import org.rocksdb.WriteOptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single RocksDB instance that holds each index and data index table as its own column family.
+ * All column families share the store's block cache and one write buffer manager so the memory and
+ * file handle footprint no longer grows with the number of partitions.
+ */
+public class RocksDBSharedDB implements Closeable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(RocksDBSharedDB.class);
+  private static final int MIGRATION_BATCH_SIZE = 10000;
+
+  private final String directory;
+  private final RocksDBTuningOptions tuningOptions;
+  private final Cache blockCache;
+  private final Map<String, ColumnFamilyHandle> columnFamilies = new ConcurrentHashMap<>();
+  private WriteBufferManager writeBufferManager;
+  private DBOptions dbOptions;
+  private ColumnFamilyOptions indexOptions;
+  private ColumnFamilyOptions dataIndexOptions;
+  private ColumnFamilyHandle defaultColumnFamily;
+  private RocksDB db;
+
+  public RocksDBSharedDB(
+      final String directory,
+      final RocksDBTuningOptions tuningOptions,
+      final Cache blockCache) {
+    this.directory = directory;
+    this.tuningOptions = tuningOptions;
+    this.blockCache = blockCache;
+  }
+
+  public String getDirectory() {
+    return directory;
+  }
+
+  public synchronized RocksDB getDb() {
+    if (db == null) {
+      open();
+    }
+    return db;
+  }
+
+  private void open() {
+    RocksDB.loadLibrary();
+    final File dir = new File(directory);
+    if (!dir.exists() && !dir.mkdirs()) {
+      LOGGER.error("Unable to create directory for rocksdb store '" + directory + "'");
+    }
+    // memtables are charged against the block cache, allow them up to half of it
+    writeBufferManager =
+        new WriteBufferManager(tuningOptions.getBlockCacheSizeBytes() / 2, blockCache);
+    final int cores = Runtime.getRuntime().availableProcessors();
+    dbOptions =
+        new DBOptions().setCreateIfMissing(true).setCreateMissingColumnFamilies(
+            true).setIncreaseParallelism(cores).setWriteBufferManager(writeBufferManager);
+    indexOptions = tuningOptions.createColumnFamilyOptions(blockCache, false);
+    dataIndexOptions = tuningOptions.createColumnFamilyOptions(blockCache, true);
+    final List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+    for (final byte[] name : listExistingColumnFamilies()) {
+      descriptors.add(
+          new ColumnFamilyDescriptor(
+              name,
+              getColumnFamilyOptions(new String(name, StandardCharsets.UTF_8))));
+    }
+    if (descriptors.isEmpty()) {
+      descriptors.add(new ColumnFamilyDescriptor(RocksDB.DEFAULT_COLUMN_FAMILY, dataIndexOptions));
+    }
+    final List<ColumnFamilyHandle> handles = new ArrayList<>();
+    try {
+      db = RocksDB.open(dbOptions, directory, descriptors, handles);
+    } catch (final RocksDBException e) {
+      LOGGER.error("Unable to open shared rocksdb instance '" + directory + "'", e);
+      return;
+    }
+    for (int i = 0; i < descriptors.size(); i++) {
+      final byte[] name = descriptors.get(i).getName();
+      if (Arrays.equals(RocksDB.DEFAULT_COLUMN_FAMILY, name)) {
+        defaultColumnFamily = handles.get(i);
+      } else {
+        columnFamilies.put(new String(name, StandardCharsets.UTF_8), handles.get(i));
+      }
+    }
+  }
+
+  private ColumnFamilyOptions getColumnFamilyOptions(final String tableName) {
+    if (tableName.endsWith("_" + DataIndexUtils.DATA_ID_INDEX.getName())) {
+      return dataIndexOptions;
+    }
+    return indexOptions;
+  }
+
+  /**
+   * @param tableName the table name
+   * @return options matching the table's column family for writing SST files to be ingested into it
+   */
+  public Options createSstFileOptions(final String tableName) {
+    getDb();
+    return new Options(dbOptions, getColumnFamilyOptions(tableName));
+  }
+
+  private List<byte[]> listExistingColumnFamilies() {
+    if (!new File(directory, "CURRENT").exists()) {
+      return new ArrayList<>();
+    }
+    try (Options options = new Options()) {
+      return RocksDB.listColumnFamilies(options, directory);
+    } catch (final RocksDBException e) {
+      LOGGER.warn("Unable to list column families for '" + directory + "'", e);
+      return new ArrayList<>();
+    }
+  }
+
+  public boolean columnFamilyExists(final String tableName) {
+    getDb();
+    return columnFamilies.containsKey(tableName);
+  }
+
+  public List<String> getColumnFamilyNames(final String tableNamePrefix) {
+    getDb();
+    return columnFamilies.keySet().stream().filter(n -> n.startsWith(tableNamePrefix)).collect(
+        Collectors.toList());
+  }
+
+  public ColumnFamilyHandle getColumnFamily(final String tableName) {
+    final ColumnFamilyHandle handle = columnFamilies.get(tableName);
+    if (handle != null) {
+      return handle;
+    }
+    return createColumnFamily(tableName);
+  }
+
+  private synchronized ColumnFamilyHandle createColumnFamily(final String tableName) {
+    final RocksDB rocksDb = getDb();
+    ColumnFamilyHandle handle = columnFamilies.get(tableName);
+    if ((handle == null) && (rocksDb != null)) {
+      try {
+        handle =
+            rocksDb.createColumnFamily(
+                new ColumnFamilyDescriptor(
+                    tableName.getBytes(StandardCharsets.UTF_8),
+                    getColumnFamilyOptions(tableName)));
+        columnFamilies.put(tableName, handle);
+      } catch (final RocksDBException e) {
+        LOGGER.error("Unable to create column family '" + tableName + "'", e);
+      }
+    }
+    return handle;
+  }
+
+  public synchronized void dropColumnFamily(final String tableName) {
+    final ColumnFamilyHandle handle = columnFamilies.remove(tableName);
+    if ((handle != null) && (db != null)) {
+      try {
+        db.dropColumnFamily(handle);
+      } catch (final RocksDBException e) {
+        LOGGER.warn("Unable to drop column family '" + tableName + "'", e);
+      }
+      handle.close();
+    }
+  }
+
+  /**
+   * Copy a table written with the directory-per-table layout into a column family of this instance
+   * and remove the original directory once every row has been written.
+   *
+   * @param tableName the name of the table which is also the name of its legacy directory
+   * @param legacyDirectory the directory of the stand-alone RocksDB instance
+   * @return whether the table was migrated
+   */
+  public boolean importLegacyTable(final String tableName, final File legacyDirectory) {
+    final ColumnFamilyHandle handle = getColumnFamily(tableName);
+    if (handle == null) {
+      return false;
+    }
+    long count = 0;
+    try (Options legacyOptions = new Options();
+        RocksDB legacyDb = RocksDB.open(legacyOptions, legacyDirectory.getAbsolutePath());
+        RocksIterator it = legacyDb.newIterator();
+        WriteOptions writeOptions = new WriteOptions();
+        WriteBatch batch = new WriteBatch()) {
+      for (it.seekToFirst(); it.isValid(); it.next()) {
+        batch.put(handle, it.key(), it.value());
+        if (batch.count() >= MIGRATION_BATCH_SIZE) {
+          db.write(writeOptions, batch);
+          batch.clear();
+        }
+        count++;
+      }
+      db.write(writeOptions, batch);
+    } catch (final RocksDBException e) {
+      LOGGER.error(
+          "Unable to migrate '" + legacyDirectory.getAbsolutePath() + "' to a column family",
+          e);
+      dropColumnFamily(tableName);
+      return false;
+    }
+    try {
+      FileUtils.deleteDirectory(legacyDirectory);
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to delete migrated directory '" + legacyDirectory + "'", e);
+    }
+    LOGGER.info("Migrated " + count + " rows from '" + legacyDirectory + "' to a column family");
+    return true;
+  }
+
+  public synchronized void compact() {
+    if (db != null) {
+      for (final ColumnFamilyHandle handle : columnFamilies.values()) {
+        try {
+          db.compactRange(handle);
+        } catch (final RocksDBException e) {
+          LOGGER.warn("Unable to force compacting range", e);
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    columnFamilies.values().forEach(ColumnFamilyHandle::close);
+    columnFamilies.clear();
+    if (defaultColumnFamily != null) {
+      defaultColumnFamily.close();
+      defaultColumnFamily = null;
+    }
+    if (db != null) {
+      db.close();
+      db = null;
+    }
+    if (indexOptions != null) {
+      indexOptions.close();
+      indexOptions = null;
+    }
+    if (dataIndexOptions != null) {
+      dataIndexOptions.close();
+      dataIndexOptions = null;
+    }
+    if (dbOptions != null) {
+      dbOptions.close();
+      dbOptions = null;
+    }
+    if (writeBufferManager != null) {
+      writeBufferManager.close();
+      writeBufferManager = null;
+    }
+  }
+}
@@ -13,8 +13,10 @@ import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.tuple.Pair;
 import org.locationtech.geowave.core.index.ByteArray;
 import org.locationtech.geowave.core.index.ByteArrayUtils;
@@ -24,6 +26,7 @@ import org.locationtech.geowave.core.store.base.dataidx.DataIndexUtils;
 import org.locationtech.geowave.core.store.entities.GeoWaveRow;
 import org.locationtech.geowave.core.store.operations.MetadataType;
 import org.locationtech.geowave.core.store.operations.RangeReaderParams;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Streams;
 import com.google.common.primitives.UnsignedBytes;
 
@@ -32,6 +35,9 @@ public class RocksDBUtils {
   public static int ROCKSDB_DEFAULT_MAX_RANGE_DECOMPOSITION = 250;
   public static int ROCKSDB_DEFAULT_AGGREGATION_MAX_RANGE_DECOMPOSITION = 250;
   public static ByteArray EMPTY_PARTITION_KEY = new ByteArray();
+  // the leading underscore keeps this from colliding with a "typeName_indexName" table directory
+  public static final String COLUMN_FAMILY_DIRECTORY = "_columnFamilies";
+  public static final String BULK_INGEST_DIRECTORY = "_bulkIngest";
 
   public static RocksDBMetadataTable getMetadataTable(
       final RocksDBClient client,
@@ -111,12 +117,25 @@ public class RocksDBUtils {
   }
 
   public static Set<ByteArray> getPartitions(final String directory, final String tableNamePrefix) {
-    return Arrays.stream(
-        new File(directory).list((dir, name) -> name.startsWith(tableNamePrefix))).map(
-            str -> str.length() > (tableNamePrefix.length() + 1)
-                ? new ByteArray(
-                    ByteArrayUtils.byteArrayFromString(str.substring(tableNamePrefix.length() + 1)))
-                : new ByteArray()).collect(Collectors.toSet());
+    return getPartitions(
+        Arrays.stream(new File(directory).list((dir, name) -> name.startsWith(tableNamePrefix))),
+        tableNamePrefix);
+  }
+
+  public static Set<ByteArray> getPartitions(
+      final RocksDBClient client,
+      final String tableNamePrefix) {
+    return getPartitions(client.getTableNames(tableNamePrefix).stream(), tableNamePrefix);
+  }
+
+  private static Set<ByteArray> getPartitions(
+      final Stream<String> tableNames,
+      final String tableNamePrefix) {
+    return tableNames.map(
+        str -> str.length() > (tableNamePrefix.length() + 1)
+            ? new ByteArray(
+                ByteArrayUtils.byteArrayFromString(str.substring(tableNamePrefix.length() + 1)))
+            : new ByteArray()).collect(Collectors.toSet());
   }
 
   public static boolean isSortByTime(final InternalDataAdapter<?> adapter) {
@@ -133,6 +152,15 @@ public class RocksDBUtils {
     return Streams.stream(it).sorted(SortKeyOrder.SINGLETON).iterator();
   }
 
+  /**
+   * Merge iterators that are each individually in sort key order into a single iterator in sort key
+   * order without buffering the full result set.
+   */
+  public static Iterator<GeoWaveRow> mergeSortedBySortKey(
+      final List<? extends Iterator<GeoWaveRow>> sortedIterators) {
+    return Iterators.mergeSorted(sortedIterators, SortKeyOrder.SINGLETON);
+  }
+
   public static Pair<Boolean, Boolean> isGroupByRowAndIsSortByTime(
       final RangeReaderParams<?> readerParams,
       final short adapterId) {
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb;
+
+import java.io.File;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.CompoundIndexStrategy;
+import org.locationtech.geowave.core.index.simple.RoundRobinKeyIndexStrategy;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.adapter.BasicDataTypeAdapter;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveDataType;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveField;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.Index;
+import org.locationtech.geowave.core.store.api.QueryBuilder;
+import org.locationtech.geowave.core.store.api.Writer;
+import org.locationtech.geowave.core.store.index.AttributeDimensionalityTypeProvider;
+import org.locationtech.geowave.core.store.index.AttributeIndexOptions;
+import org.locationtech.geowave.core.store.index.CustomNameIndex;
+import org.locationtech.geowave.core.store.query.filter.expression.numeric.NumericFieldValue;
+import org.locationtech.geowave.datastore.rocksdb.RocksDBLockfileTest.IndexWrapper;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBOptions;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBOptions.StorageLayout;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBClientCache;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBUtils;
+import com.google.common.collect.Iterators;
+
+public class RocksDBColumnFamilyLayoutTest {
+  private static final String DEFAULT_DB_DIRECTORY = "./target/rocksdb-cf";
+  private static final File STORE_DIRECTORY = new File(DEFAULT_DB_DIRECTORY, "default");
+  private static final String TYPE_NAME = "Sensor";
+  private static final int NUM_PARTITIONS = 16;
+  private static final int NUM_ROWS = 100;
+
+  @Test
+  public void testColumnFamilyLayout() {
+    final DataStore store = createStore(StorageLayout.COLUMN_FAMILY, false);
+    store.deleteAll();
+    addTypeAndIndex(store);
+    write(store, 0, NUM_ROWS);
+    assertCount(store, NUM_ROWS);
+    // every partition is a column family of the one shared instance
+    Assert.assertEquals(0, countTableDirectories());
+    Assert.assertTrue(new File(STORE_DIRECTORY, RocksDBUtils.COLUMN_FAMILY_DIRECTORY).exists());
+    store.deleteAll();
+  }
+
+  @Test
+  public void testSecondaryIndexColumnFamilyLayout() {
+    final DataStore store = createStore(StorageLayout.COLUMN_FAMILY, true);
+    store.deleteAll();
+    addTypeAndIndex(store);
+    write(store, 0, NUM_ROWS);
+    assertCount(store, NUM_ROWS);
+    store.deleteAll();
+  }
+
+  @Test
+  public void testPartitionedRangeQuery() {
+    final DataStore store = createStore(StorageLayout.COLUMN_FAMILY, false);
+    store.deleteAll();
+    addTypeAndIndex(store);
+    write(store, 0, NUM_ROWS);
+    // the range is decomposed for every partition and the ranges are read concurrently
+    try (CloseableIterator<Sensor> it =
+        store.query(
+            QueryBuilder.newBuilder(Sensor.class).filter(
+                NumericFieldValue.of("value").isBetween(10, 29)).build())) {
+      Assert.assertEquals(20, Iterators.size(it));
+    }
+    store.deleteAll();
+  }
+
+  @Test
+  public void testMigrationFromDirectoryLayout() {
+    final DataStore directoryStore = createStore(StorageLayout.DIRECTORY, false);
+    directoryStore.deleteAll();
+    addTypeAndIndex(directoryStore);
+    write(directoryStore, 0, NUM_ROWS);
+    assertCount(directoryStore, NUM_ROWS);
+    Assert.assertEquals(NUM_PARTITIONS, countTableDirectories());
+    // release the directory layout's instances so they can be migrated
+    RocksDBClientCache.getInstance().closeAll();
+
+    final DataStore columnFamilyStore = createStore(StorageLayout.COLUMN_FAMILY, false);
+    assertCount(columnFamilyStore, NUM_ROWS);
+    Assert.assertEquals(0, countTableDirectories());
+    write(columnFamilyStore, NUM_ROWS, NUM_ROWS);
+    assertCount(columnFamilyStore, NUM_ROWS * 2);
+    columnFamilyStore.deleteAll();
+  }
+
+  private static int countTableDirectories() {
+    final File[] directories = STORE_DIRECTORY.listFiles(f -> f.getName().startsWith(TYPE_NAME));
+    return directories == null ? 0 : directories.length;
+  }
+
+  private static DataStore createStore(
+      final StorageLayout storageLayout,
+      final boolean secondaryIndexing) {
+    final RocksDBOptions options = new RocksDBOptions();
+    options.setDirectory(DEFAULT_DB_DIRECTORY);
+    options.setStorageLayout(storageLayout);
+    options.getStoreOptions().setSecondaryIndexing(secondaryIndexing);
+    return new RocksDBStoreFactoryFamily().getDataStoreFactory().createStore(options);
+  }
+
+  private static void addTypeAndIndex(final DataStore store) {
+    store.addType(BasicDataTypeAdapter.newAdapter(TYPE_NAME, Sensor.class, "name"));
+    final Index index =
+        AttributeDimensionalityTypeProvider.createIndexFromOptions(
+            store,
+            new AttributeIndexOptions(TYPE_NAME, "value"));
+    store.addIndex(
+        TYPE_NAME,
+        new IndexWrapper(
+            new CustomNameIndex(
+                new CompoundIndexStrategy(
+                    new RoundRobinKeyIndexStrategy(NUM_PARTITIONS),
+                    index.getIndexStrategy()),
+                index.getIndexModel(),
+                index.getName() + "_" + NUM_PARTITIONS)));
+  }
+
+  private static void write(final DataStore store, final int offset, final int count) {
+    try (Writer<Sensor> w = store.createWriter(TYPE_NAME)) {
+      for (int i = offset; i < (offset + count); i++) {
+        w.write(new Sensor("sensor" + i, (double) i));
+      }
+    }
+  }
+
+  private static void assertCount(final DataStore store, final int expected) {
+    try (
+        CloseableIterator<Sensor> it = store.query(QueryBuilder.newBuilder(Sensor.class).build())) {
+      Assert.assertEquals(expected, Iterators.size(it));
+    }
+  }
+
+  @GeoWaveDataType
+  private static class Sensor {
+    @GeoWaveField
+    private final String name;
+    @GeoWaveField
+    private final Double value;
+
+    protected Sensor() {
+      this.name = null;
+      this.value = null;
+    }
+
+    public Sensor(final String name, final Double value) {
+      this.name = name;
+      this.value = value;
+    }
+  }
+}
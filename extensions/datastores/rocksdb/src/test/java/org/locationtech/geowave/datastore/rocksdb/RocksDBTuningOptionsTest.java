@@ -0,0 +1,184 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Comparator;
+import org.junit.Assert;
+import org.junit.Test;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.adapter.BasicDataTypeAdapter;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveDataType;
+import org.locationtech.geowave.core.store.adapter.annotation.GeoWaveField;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.QueryBuilder;
+import org.locationtech.geowave.core.store.api.Writer;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
+import org.locationtech.geowave.core.store.index.AttributeDimensionalityTypeProvider;
+import org.locationtech.geowave.core.store.index.AttributeIndexOptions;
+import org.locationtech.geowave.core.store.query.filter.expression.numeric.NumericFieldValue;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBOptions;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBOptions.StorageLayout;
+import org.locationtech.geowave.datastore.rocksdb.operations.RocksDBOperations;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBIndexTable;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBUtils;
+import com.google.common.collect.Iterators;
+import com.google.common.primitives.Ints;
+
+public class RocksDBTuningOptionsTest {
+  private static final String DEFAULT_DB_DIRECTORY = "./target/rocksdb-tuning";
+  private static final File STORE_DIRECTORY = new File(DEFAULT_DB_DIRECTORY, "default");
+  private static final String TYPE_NAME = "Reading";
+  private static final int NUM_ROWS = 100;
+
+  @Test
+  public void testDirectoryLayout() {
+    testRangeQueries(StorageLayout.DIRECTORY, false);
+  }
+
+  @Test
+  public void testColumnFamilyLayout() {
+    testRangeQueries(StorageLayout.COLUMN_FAMILY, false);
+  }
+
+  @Test
+  public void testDirectoryLayoutBulkIngest() {
+    testRangeQueries(StorageLayout.DIRECTORY, true);
+  }
+
+  @Test
+  public void testColumnFamilyLayoutBulkIngest() {
+    testRangeQueries(StorageLayout.COLUMN_FAMILY, true);
+  }
+
+  @Test
+  public void testReopenForReadIsQueryOptimized() throws Exception {
+    final RocksDBOptions options = new RocksDBOptions();
+    options.setDirectory(DEFAULT_DB_DIRECTORY);
+    final RocksDBOperations operations = new RocksDBOperations(options);
+    operations.deleteAll();
+    try {
+      final RocksDBIndexTable table =
+          RocksDBUtils.getIndexTableFromPrefix(
+              operations.getClient(),
+              RocksDBUtils.getTablePrefix(TYPE_NAME, "index"),
+              (short) 0,
+              new byte[0],
+              false);
+      for (int i = 0; i < NUM_ROWS; i++) {
+        table.add(
+            Ints.toByteArray(i),
+            Ints.toByteArray(i),
+            (short) 0,
+            new GeoWaveValueImpl(new byte[0], new byte[0], new byte[] {1}));
+      }
+      table.flush();
+      Assert.assertFalse(isAutoCompactionDisabled(table));
+      // a new process reading the table opens it with the bulk load options
+      table.close();
+      Assert.assertNotNull(table.getDb(true));
+      Assert.assertFalse(isAutoCompactionDisabled(table));
+      table.close();
+    } finally {
+      operations.deleteAll();
+    }
+  }
+
+  /**
+   * RocksDB persists the current options to a new options file whenever they change.
+   */
+  private static boolean isAutoCompactionDisabled(final RocksDBIndexTable table)
+      throws IOException {
+    final File latestOptions =
+        Arrays.stream(new File(table.getSubDirectory()).listFiles()).filter(
+            f -> f.getName().startsWith("OPTIONS-")).max(
+                Comparator.comparingLong(
+                    f -> Long.parseLong(f.getName().substring("OPTIONS-".length())))).get();
+    final String contents =
+        new String(Files.readAllBytes(latestOptions.toPath()), StandardCharsets.UTF_8);
+    Assert.assertTrue(contents.contains("disable_auto_compactions="));
+    return contents.contains("disable_auto_compactions=true");
+  }
+
+  private static void testRangeQueries(
+      final StorageLayout storageLayout,
+      final boolean bulkIngest) {
+    final RocksDBOptions options = new RocksDBOptions();
+    options.setDirectory(DEFAULT_DB_DIRECTORY);
+    options.setStorageLayout(storageLayout);
+    options.getTuningOptions().setBulkIngest(bulkIngest);
+    // make sure several SST files are ingested into each table
+    options.getTuningOptions().setBulkIngestSize(30);
+    options.getTuningOptions().setBlockCacheSize(8);
+    options.getTuningOptions().setPrefixLength(2);
+    options.getTuningOptions().setCompressionPerLevel("none,snappy,zstd");
+    final DataStore store =
+        new RocksDBStoreFactoryFamily().getDataStoreFactory().createStore(options);
+    store.deleteAll();
+    store.addType(BasicDataTypeAdapter.newAdapter(TYPE_NAME, Reading.class, "name"));
+    store.addIndex(
+        TYPE_NAME,
+        AttributeDimensionalityTypeProvider.createIndexFromOptions(
+            store,
+            new AttributeIndexOptions(TYPE_NAME, "value")));
+    try (Writer<Reading> w = store.createWriter(TYPE_NAME)) {
+      for (int i = 0; i < NUM_ROWS; i++) {
+        w.write(new Reading("reading" + i, (double) i));
+      }
+    }
+    if (bulkIngest) {
+      final String[] sstFiles =
+          new File(STORE_DIRECTORY, RocksDBUtils.BULK_INGEST_DIRECTORY).list();
+      Assert.assertTrue((sstFiles == null) || (sstFiles.length == 0));
+    }
+    // a narrow range shares the sort key prefix while a wide range spans many prefixes
+    assertCount(store, 10, 12, 3);
+    assertCount(store, 0, NUM_ROWS, NUM_ROWS);
+    try (CloseableIterator<Reading> it =
+        store.query(QueryBuilder.newBuilder(Reading.class).build())) {
+      Assert.assertEquals(NUM_ROWS, Iterators.size(it));
+    }
+    store.deleteAll();
+  }
+
+  private static void assertCount(
+      final DataStore store,
+      final double min,
+      final double max,
+      final int expected) {
+    try (CloseableIterator<Reading> it =
+        store.query(
+            QueryBuilder.newBuilder(Reading.class).filter(
+                NumericFieldValue.of("value").isBetween(min, max)).build())) {
+      Assert.assertEquals(expected, Iterators.size(it));
+    }
+  }
+
+  @GeoWaveDataType
+  private static class Reading {
+    @GeoWaveField
+    private final String name;
+    @GeoWaveField
+    private final Double value;
+
+    protected Reading() {
+      this.name = null;
+      this.value = null;
+    }
+
+    public Reading(final String name, final Double value) {
+      this.name = name;
+      this.value = value;
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.operations;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.geowave.core.index.ByteArrayRange;
+import org.locationtech.geowave.core.index.SinglePartitionQueryRanges;
+import org.locationtech.geowave.core.store.CloseableIterator;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowIteratorTransformer;
+import org.locationtech.geowave.core.store.entities.GeoWaveValueImpl;
+import org.locationtech.geowave.datastore.rocksdb.config.RocksDBOptions;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBIndexTable;
+import org.locationtech.geowave.datastore.rocksdb.util.RocksDBUtils;
+import com.google.common.collect.Iterators;
+import com.google.common.primitives.Ints;
+
+public class RocksDBQueryExecutionTest {
+  private static final String DEFAULT_DB_DIRECTORY = "./target/rocksdb-query-execution";
+  private static final String TABLE_PREFIX = RocksDBUtils.getTablePrefix("type", "index");
+  private static final short ADAPTER_ID = 0;
+  private static final int NUM_ROWS = 100;
+  private static final int FAILING_ROW = 50;
+
+  private RocksDBOperations operations;
+
+  @Before
+  public void setUp() throws Exception {
+    final RocksDBOptions options = new RocksDBOptions();
+    options.setDirectory(DEFAULT_DB_DIRECTORY);
+    operations = new RocksDBOperations(options);
+    operations.deleteAll();
+    final RocksDBIndexTable table =
+        RocksDBUtils.getIndexTableFromPrefix(
+            operations.getClient(),
+            TABLE_PREFIX,
+            ADAPTER_ID,
+            new byte[0],
+            false);
+    for (int i = 0; i < NUM_ROWS; i++) {
+      table.add(
+          Ints.toByteArray(i),
+          Ints.toByteArray(i),
+          (short) 0,
+          new GeoWaveValueImpl(new byte[0], new byte[0], new byte[] {1}));
+    }
+    table.flush();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    operations.deleteAll();
+  }
+
+  @Test
+  public void testAsyncRead() {
+    final int syncCount;
+    try (CloseableIterator<GeoWaveRow> it =
+        createExecution(GeoWaveRowIteratorTransformer.NO_OP_TRANSFORMER, false).results()) {
+      syncCount = Iterators.size(it);
+    }
+    Assert.assertTrue(syncCount > 0);
+    try (CloseableIterator<GeoWaveRow> it =
+        createExecution(GeoWaveRowIteratorTransformer.NO_OP_TRANSFORMER, true).results()) {
+      Assert.assertEquals(syncCount, Iterators.size(it));
+    }
+  }
+
+  @Test
+  public void testAsyncReadFailure() {
+    final IllegalStateException failure = new IllegalStateException("Unable to decode row");
+    final GeoWaveRowIteratorTransformer<GeoWaveRow> failingTransformer =
+        input -> Iterators.transform(input, row -> {
+          if (Ints.fromByteArray(row.getSortKey()) == FAILING_ROW) {
+            throw failure;
+          }
+          return row;
+        });
+    // a failed range must not look like a successful read of fewer rows
+    try (CloseableIterator<GeoWaveRow> it = createExecution(failingTransformer, true).results()) {
+      Iterators.size(it);
+      Assert.fail("The failed range read should be reported");
+    } catch (final RuntimeException e) {
+      Assert.assertSame(failure, e.getCause());
+    }
+  }
+
+  @Test
+  public void testAbandonedAsyncReadDoesNotBlockOtherReads() throws Exception {
+    // enough rows that a consumer that stops reading fills its results
+    final int rowCount = RocksDBQueryExecution.MAX_BOUNDED_READS_ENQUEUED * 2;
+    final RocksDBIndexTable table =
+        RocksDBUtils.getIndexTableFromPrefix(
+            operations.getClient(),
+            TABLE_PREFIX,
+            ADAPTER_ID,
+            new byte[0],
+            false);
+    for (int i = NUM_ROWS; i < rowCount; i++) {
+      table.add(
+          Ints.toByteArray(i),
+          Ints.toByteArray(i),
+          (short) 0,
+          new GeoWaveValueImpl(new byte[0], new byte[0], new byte[] {1}));
+    }
+    table.flush();
+    final List<ByteArrayRange> ranges = new ArrayList<>();
+    for (int i = 0; i < rowCount; i += rowCount / 4) {
+      ranges.add(
+          new ByteArrayRange(Ints.toByteArray(i), Ints.toByteArray((i + (rowCount / 4)) - 1)));
+    }
+    final int syncCount;
+    try (CloseableIterator<GeoWaveRow> it =
+        createExecution(GeoWaveRowIteratorTransformer.NO_OP_TRANSFORMER, false, ranges).results()) {
+      syncCount = Iterators.size(it);
+    }
+    Assert.assertTrue(syncCount > RocksDBQueryExecution.MAX_BOUNDED_READS_ENQUEUED);
+    // more stalled queries than there are read threads
+    final List<CloseableIterator<GeoWaveRow>> abandoned = new ArrayList<>();
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      for (int i = 0; i <= Runtime.getRuntime().availableProcessors(); i++) {
+        final CloseableIterator<GeoWaveRow> it =
+            createExecution(
+                GeoWaveRowIteratorTransformer.NO_OP_TRANSFORMER,
+                true,
+                ranges).results();
+        Assert.assertTrue(it.hasNext());
+        abandoned.add(it);
+      }
+      final Future<Integer> count = executor.submit(() -> {
+        try (CloseableIterator<GeoWaveRow> it =
+            createExecution(
+                GeoWaveRowIteratorTransformer.NO_OP_TRANSFORMER,
+                true,
+                ranges).results()) {
+          return Iterators.size(it);
+        }
+      });
+      Assert.assertEquals(syncCount, count.get(60, TimeUnit.SECONDS).intValue());
+    } finally {
+      executor.shutdownNow();
+      abandoned.forEach(CloseableIterator::close);
+    }
+  }
+
+  private RocksDBQueryExecution<GeoWaveRow> createExecution(
+      final GeoWaveRowIteratorTransformer<GeoWaveRow> rowTransformer,
+      final boolean async) {
+    return createExecution(
+        rowTransformer,
+        async,
+        Arrays.asList(
+            new ByteArrayRange(Ints.toByteArray(0), Ints.toByteArray(FAILING_ROW - 1)),
+            new ByteArrayRange(Ints.toByteArray(FAILING_ROW), Ints.toByteArray(NUM_ROWS))));
+  }
+
+  private RocksDBQueryExecution<GeoWaveRow> createExecution(
+      final GeoWaveRowIteratorTransformer<GeoWaveRow> rowTransformer,
+      final boolean async,
+      final List<ByteArrayRange> ranges) {
+    return new RocksDBQueryExecution<>(
+        operations.getClient(),
+        TABLE_PREFIX,
+        ADAPTER_ID,
+        rowTransformer,
+        Collections.singletonList(new SinglePartitionQueryRanges(ranges)),
+        r -> true,
+        false,
+        async,
+        Pair.of(false, false),
+        false);
+  }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2013-2022 Contributors to the Eclipse Foundation
+ *
+ * <p> See the NOTICE file distributed with this work for additional information regarding copyright
+ * ownership. All rights reserved. This program and the accompanying materials are made available
+ * under the terms of the Apache License, Version 2.0 which accompanies this distribution and is
+ * available at http://www.apache.org/licenses/LICENSE-2.0.txt
+ */
+package org.locationtech.geowave.datastore.rocksdb.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.Test;
+
+public class RocksDBBatchWriterTest {
+
+  @Test
+  public void testInterruptedWriteIsDiscarded() throws InterruptedException {
+    final RocksDBBatchWriter writer = new RocksDBBatchWriter("table", 1);
+    final CountDownLatch blocked = new CountDownLatch(1);
+    writer.write(1, () -> {
+      try {
+        blocked.await();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    final AtomicBoolean written = new AtomicBoolean(false);
+    final AtomicBoolean discarded = new AtomicBoolean(false);
+    Thread.currentThread().interrupt();
+    try {
+      writer.write(1, () -> written.set(true), () -> discarded.set(true));
+      fail("an interrupted write should not be silently dropped");
+    } catch (final RuntimeException e) {
+      assertTrue(e.getCause() instanceof InterruptedException);
+    }
+    // clears the interrupt so that the rest of the test can wait
+    assertTrue(Thread.interrupted());
+    assertTrue(discarded.get());
+
+    blocked.countDown();
+    writer.waitForWrites();
+    assertFalse(written.get());
+    assertEquals(1, writer.getBatchesWritten());
+  }
+}
@@ -8,8 +8,19 @@
  */
 package org.locationtech.geowave.datastore.rocksdb.util;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.Test;
+import org.locationtech.geowave.core.store.entities.GeoWaveKeyImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveRow;
+import org.locationtech.geowave.core.store.entities.GeoWaveRowImpl;
+import org.locationtech.geowave.core.store.entities.GeoWaveValue;
 
 public class RocksDBUtilsTest {
 
@@ -22,4 +33,29 @@ public class RocksDBUtilsTest {
     assertEquals("prefix-empty", emptyPartitionKeyName);
   }
 
+  @Test
+  public void testMergeSortedBySortKey() {
+    final List<Iterator<GeoWaveRow>> sortedIterators =
+        Arrays.asList(
+            rows(new byte[] {0}, 1, 4, 7),
+            rows(new byte[] {1}, 2, 5, 8),
+            rows(null, 3, 6));
+    final Iterator<GeoWaveRow> merged = RocksDBUtils.mergeSortedBySortKey(sortedIterators);
+    for (int i = 1; i <= 8; i++) {
+      assertArrayEquals(new byte[] {(byte) i}, merged.next().getSortKey());
+    }
+    assertFalse(merged.hasNext());
+  }
+
+  private static Iterator<GeoWaveRow> rows(final byte[] partitionKey, final int... sortKeys) {
+    return IntStream.of(sortKeys).mapToObj(
+        sortKey -> (GeoWaveRow) new GeoWaveRowImpl(
+            new GeoWaveKeyImpl(
+                new byte[] {(byte) sortKey},
+                (short) 0,
+                partitionKey,
+                new byte[] {(byte) sortKey},
+                0),
+            new GeoWaveValue[0])).collect(Collectors.toList()).iterator();
+  }
 }
@@ -36,6 +36,8 @@ import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.ingest.GeoWaveData;
 import org.locationtech.geowave.core.store.ingest.IngestPluginBase;
+import org.locationtech.geowave.core.store.ingest.LineRangeReader;
+import org.locationtech.geowave.core.store.ingest.SplittableLocalFileIngestPlugin;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.opengis.feature.simple.SimpleFeature;
@@ -47,11 +49,13 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /*
  */
-public class GDELTIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroWholeFile> {
+public class GDELTIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroWholeFile> implements
+    SplittableLocalFileIngestPlugin<SimpleFeature> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(GDELTIngestPlugin.class);
 
-  private SimpleFeatureBuilder gdeltEventBuilder;
+  private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory();
+
   private SimpleFeatureType gdeltEventType;
 
   private final String eventKey;
@@ -75,7 +79,6 @@ public class GDELTIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroWho
     this.includeSupplementalFields = includeSupplementalFields;
 
     gdeltEventType = GDELTUtils.createGDELTEventDataType(includeSupplementalFields);
-    gdeltEventBuilder = new SimpleFeatureBuilder(gdeltEventType);
   }
 
   @Override
@@ -86,7 +89,7 @@ public class GDELTIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroWho
 
   @Override
   public String[] getFileExtensionFilters() {
-    return new String[] {"zip"};
+    return new String[] {"zip", "csv"};
   }
 
   @Override
@@ -133,9 +136,83 @@ public class GDELTIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroWho
   }
 
   @Override
-  @SuppressFBWarnings(
-      value = {"REC_CATCH_EXCEPTION"},
-      justification = "Intentionally catching any possible exception as there may be unknown format issues in a file and we don't want to error partially through parsing")
+  public boolean isSplittable(final URL file) {
+    return !GDELTUtils.isCompressed(file);
+  }
+
+  @Override
+  public CloseableIterator<GeoWaveData<SimpleFeature>> toGeoWaveData(
+      final URL input,
+      final String[] indexNames) {
+    if (isSplittable(input)) {
+      // stream uncompressed files rather than reading them into memory
+      return toGeoWaveData(input, 0, Long.MAX_VALUE, indexNames);
+    }
+    return super.toGeoWaveData(input, indexNames);
+  }
+
+  @Override
+  public CloseableIterator<GeoWaveData<SimpleFeature>> toGeoWaveData(
+      final URL file,
+      final long start,
+      final long end,
+      final String[] indexNames) {
+    final LineRangeReader reader;
+    try {
+      reader = new LineRangeReader(file, start, end, StringUtils.UTF8_CHARSET);
+    } catch (final IOException e) {
+      LOGGER.warn("Unable to read GDELT file: " + file.getPath(), e);
+      return new CloseableIterator.Empty<>();
+    }
+    // feature builders are not thread-safe, so each split has its own
+    final SimpleFeatureBuilder builder = new SimpleFeatureBuilder(gdeltEventType);
+    return wrapIteratorWithFilters(new CloseableIterator<GeoWaveData<SimpleFeature>>() {
+      GeoWaveData<SimpleFeature> next = null;
+
+      private void computeNext() {
+        if (next == null) {
+          try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+              next =
+                  toGeoWaveData(
+                      line,
+                      builder,
+                      indexNames,
+                      file.getPath(),
+                      reader.getLineStart());
+              if (next != null) {
+                return;
+              }
+            }
+          } catch (final IOException e) {
+            LOGGER.warn("Error reading line from GDELT file: " + file.getPath(), e);
+          }
+        }
+      }
+
+      @Override
+      public boolean hasNext() {
+        computeNext();
+        return next != null;
+      }
+
+      @Override
+      public GeoWaveData<SimpleFeature> next() {
+        computeNext();
+        final GeoWaveData<SimpleFeature> retVal = next;
+        next = null;
+        return retVal;
+      }
+
+      @Override
+      public void close() {
+        IOUtils.closeQuietly(reader);
+      }
+    });
+  }
+
+  @Override
   protected CloseableIterator<GeoWaveData<SimpleFeature>> toGeoWaveDataInternal(
       final AvroWholeFile hfile,
       final String[] indexNames) {
@@ -143,175 +220,185 @@ public class GDELTIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroWho
     final List<GeoWaveData<SimpleFeature>> featureData = new ArrayList<>();
 
     final InputStream in = new ByteArrayInputStream(hfile.getOriginalFile().array());
-    final ZipInputStream zip = new ZipInputStream(in);
-    try {
-      // Expected input is zipped single files (exactly one entry)
-      zip.getNextEntry();
-    } catch (final IOException e) {
-      LOGGER.error(
-          "Failed to read ZipEntry from GDELT input file: " + hfile.getOriginalFilePath(),
-          e);
+    final InputStream entryIn;
+    if (GDELTUtils.isCompressed(hfile.getOriginalFilePath().toString())) {
+      final ZipInputStream zip = new ZipInputStream(in);
+      try {
+        // Expected input is zipped single files (exactly one entry)
+        zip.getNextEntry();
+      } catch (final IOException e) {
+        LOGGER.error(
+            "Failed to read ZipEntry from GDELT input file: " + hfile.getOriginalFilePath(),
+            e);
+      }
+      entryIn = zip;
+    } else {
+      entryIn = in;
     }
 
-    final InputStreamReader isr = new InputStreamReader(zip, StringUtils.UTF8_CHARSET);
+    final InputStreamReader isr = new InputStreamReader(entryIn, StringUtils.UTF8_CHARSET);
     final BufferedReader br = new BufferedReader(isr);
-
-    final GeometryFactory geometryFactory = new GeometryFactory();
-
-    Date timeStamp = null;
-    String timestring = "";
-    String eventId = "";
-    int actionGeoType;
-    double lat = 0;
-    double lon = 0;
-    String actor1Name = "";
-    String actor2Name = "";
-    String countryCode = "";
-    String sourceUrl = "";
-    String actor1CC = "";
-    String actor2CC = "";
-    String numMentions = "";
-    String numSources = "";
-    String numArticles = "";
-    String avgTone = "";
+    final SimpleFeatureBuilder builder = new SimpleFeatureBuilder(gdeltEventType);
 
     String line;
     int lineNumber = 0;
     try {
       while ((line = br.readLine()) != null) {
         lineNumber++;
-        try {
-          final String[] vals = line.split("\t");
-          if ((vals.length < GDELTUtils.GDELT_MIN_COLUMNS)
-              || (vals.length > GDELTUtils.GDELT_MAX_COLUMNS)) {
-            LOGGER.debug(
-                "Invalid GDELT line length: "
-                    + vals.length
-                    + " tokens found on line "
-                    + lineNumber
-                    + " of "
-                    + hfile.getOriginalFilePath());
-            continue;
-          }
+        final GeoWaveData<SimpleFeature> data =
+            toGeoWaveData(
+                line,
+                builder,
+                indexNames,
+                hfile.getOriginalFilePath().toString(),
+                lineNumber);
+        if (data != null) {
+          featureData.add(data);
+        }
+      }
 
-          actionGeoType = Integer.parseInt(vals[GDELTUtils.GDELT_ACTION_GEO_TYPE_COLUMN_ID]);
-          if (actionGeoType == 0) {
-            // No geo associated with this event
-            continue;
-          }
+    } catch (final IOException e) {
+      LOGGER.warn("Error reading line from GDELT file: " + hfile.getOriginalFilePath(), e);
+    } finally {
+      IOUtils.closeQuietly(br);
+      IOUtils.closeQuietly(isr);
+      IOUtils.closeQuietly(in);
+    }
 
-          eventId = vals[GDELTUtils.GDELT_EVENT_ID_COLUMN_ID];
+    return new CloseableIterator.Wrapper<>(featureData.iterator());
+  }
 
-          try {
-            final Pair<Double, Double> latLon = GDELTUtils.parseLatLon(vals);
-            if (latLon == null) {
-              LOGGER.debug(
-                  "No spatial data on line " + lineNumber + " of " + hfile.getOriginalFilePath());
-              continue;
-            }
-            lat = latLon.getLeft();
-            lon = latLon.getRight();
-          } catch (final Exception e) {
-            LOGGER.debug(
-                "Error reading GDELT lat/lon on line "
-                    + lineNumber
-                    + " of "
-                    + hfile.getOriginalFilePath(),
-                e);
-            continue;
-          }
+  /**
+   * Convert a line of a GDELT file to a feature.
+   *
+   * @param line the line
+   * @param builder the feature builder to use
+   * @param indexNames the index names
+   * @param source the path of the file, for logging
+   * @param location the line number or byte offset of the line, for logging
+   * @return the feature, or {@code null} if the line is not a valid event with a location
+   */
+  @SuppressFBWarnings(
+      value = {"REC_CATCH_EXCEPTION"},
+      justification = "Intentionally catching any possible exception as there may be unknown format issues in a file and we don't want to error partially through parsing")
+  private GeoWaveData<SimpleFeature> toGeoWaveData(
+      final String line,
+      final SimpleFeatureBuilder builder,
+      final String[] indexNames,
+      final String source,
+      final long location) {
+    try {
+      final String[] vals = line.split("\t");
+      if ((vals.length < GDELTUtils.GDELT_MIN_COLUMNS)
+          || (vals.length > GDELTUtils.GDELT_MAX_COLUMNS)) {
+        LOGGER.debug(
+            "Invalid GDELT line length: "
+                + vals.length
+                + " tokens found at "
+                + location
+                + " of "
+                + source);
+        return null;
+      }
 
-          final Coordinate cord = new Coordinate(lon, lat);
+      final int actionGeoType =
+          Integer.parseInt(vals[GDELTUtils.GDELT_ACTION_GEO_TYPE_COLUMN_ID]);
+      if (actionGeoType == 0) {
+        // No geo associated with this event
+        return null;
+      }
 
-          gdeltEventBuilder.set(
-              GDELTUtils.GDELT_GEOMETRY_ATTRIBUTE,
-              geometryFactory.createPoint(cord));
+      final String eventId = vals[GDELTUtils.GDELT_EVENT_ID_COLUMN_ID];
 
-          gdeltEventBuilder.set(GDELTUtils.GDELT_EVENT_ID_ATTRIBUTE, eventId);
+      final double lat;
+      final double lon;
+      try {
+        final Pair<Double, Double> latLon = GDELTUtils.parseLatLon(vals);
+        if (latLon == null) {
+          LOGGER.debug("No spatial data at " + location + " of " + source);
+          return null;
+        }
+        lat = latLon.getLeft();
+        lon = latLon.getRight();
+      } catch (final Exception e) {
+        LOGGER.debug("Error reading GDELT lat/lon at " + location + " of " + source, e);
+        return null;
+      }
 
-          timestring = vals[GDELTUtils.GDELT_TIMESTAMP_COLUMN_ID];
-          timeStamp = GDELTUtils.parseDate(timestring);
-          gdeltEventBuilder.set(GDELTUtils.GDELT_TIMESTAMP_ATTRIBUTE, timeStamp);
+      final Coordinate cord = new Coordinate(lon, lat);
 
-          gdeltEventBuilder.set(GDELTUtils.GDELT_LATITUDE_ATTRIBUTE, lat);
-          gdeltEventBuilder.set(GDELTUtils.GDELT_LONGITUDE_ATTRIBUTE, lon);
+      builder.set(GDELTUtils.GDELT_GEOMETRY_ATTRIBUTE, GEOMETRY_FACTORY.createPoint(cord));
 
-          actor1Name = vals[GDELTUtils.ACTOR_1_NAME_COLUMN_ID];
-          if ((actor1Name != null) && !actor1Name.isEmpty()) {
-            gdeltEventBuilder.set(GDELTUtils.ACTOR_1_NAME_ATTRIBUTE, actor1Name);
-          }
+      builder.set(GDELTUtils.GDELT_EVENT_ID_ATTRIBUTE, eventId);
 
-          actor2Name = vals[GDELTUtils.ACTOR_2_NAME_COLUMN_ID];
-          if ((actor2Name != null) && !actor2Name.isEmpty()) {
-            gdeltEventBuilder.set(GDELTUtils.ACTOR_2_NAME_ATTRIBUTE, actor2Name);
-          }
+      final String timestring = vals[GDELTUtils.GDELT_TIMESTAMP_COLUMN_ID];
+      final Date timeStamp = GDELTUtils.parseDate(timestring);
+      builder.set(GDELTUtils.GDELT_TIMESTAMP_ATTRIBUTE, timeStamp);
 
-          countryCode = vals[GDELTUtils.ACTION_COUNTRY_CODE_COLUMN_ID];
-          if ((countryCode != null) && !countryCode.isEmpty()) {
-            gdeltEventBuilder.set(GDELTUtils.ACTION_COUNTRY_CODE_ATTRIBUTE, countryCode);
-          }
-          if (vals.length > GDELTUtils.SOURCE_URL_COLUMN_ID) {
-            sourceUrl = vals[GDELTUtils.SOURCE_URL_COLUMN_ID];
-          }
-          if ((sourceUrl != null) && !sourceUrl.isEmpty()) {
-            gdeltEventBuilder.set(GDELTUtils.SOURCE_URL_ATTRIBUTE, sourceUrl);
-          }
+      builder.set(GDELTUtils.GDELT_LATITUDE_ATTRIBUTE, lat);
+      builder.set(GDELTUtils.GDELT_LONGITUDE_ATTRIBUTE, lon);
 
-          if (includeSupplementalFields) {
+      final String actor1Name = vals[GDELTUtils.ACTOR_1_NAME_COLUMN_ID];
+      if ((actor1Name != null) && !actor1Name.isEmpty()) {
+        builder.set(GDELTUtils.ACTOR_1_NAME_ATTRIBUTE, actor1Name);
+      }
 
-            actor1CC = vals[GDELTUtils.ACTOR_1_COUNTRY_CODE_COLUMN_ID];
-            if ((actor1CC != null) && !actor1CC.isEmpty()) {
-              gdeltEventBuilder.set(GDELTUtils.ACTOR_1_COUNTRY_CODE_ATTRIBUTE, actor1CC);
-            }
+      final String actor2Name = vals[GDELTUtils.ACTOR_2_NAME_COLUMN_ID];
+      if ((actor2Name != null) && !actor2Name.isEmpty()) {
+        builder.set(GDELTUtils.ACTOR_2_NAME_ATTRIBUTE, actor2Name);
+      }
 
-            actor2CC = vals[GDELTUtils.ACTOR_2_COUNTRY_CODE_COLUMN_ID];
-            if ((actor2CC != null) && !actor2CC.isEmpty()) {
-              gdeltEventBuilder.set(GDELTUtils.ACTOR_2_COUNTRY_CODE_ATTRIBUTE, actor2CC);
-            }
+      final String countryCode = vals[GDELTUtils.ACTION_COUNTRY_CODE_COLUMN_ID];
+      if ((countryCode != null) && !countryCode.isEmpty()) {
+        builder.set(GDELTUtils.ACTION_COUNTRY_CODE_ATTRIBUTE, countryCode);
+      }
+      if (vals.length > GDELTUtils.SOURCE_URL_COLUMN_ID) {
+        final String sourceUrl = vals[GDELTUtils.SOURCE_URL_COLUMN_ID];
+        if ((sourceUrl != null) && !sourceUrl.isEmpty()) {
+          builder.set(GDELTUtils.SOURCE_URL_ATTRIBUTE, sourceUrl);
+        }
+      }
 
-            numMentions = vals[GDELTUtils.NUM_MENTIONS_COLUMN_ID];
-            if ((numMentions != null) && !numMentions.isEmpty()) {
-              gdeltEventBuilder.set(
-                  GDELTUtils.NUM_MENTIONS_ATTRIBUTE,
-                  Integer.parseInt(numMentions));
-            }
+      if (includeSupplementalFields) {
 
-            numSources = vals[GDELTUtils.NUM_SOURCES_COLUMN_ID];
-            if ((numSources != null) && !numSources.isEmpty()) {
-              gdeltEventBuilder.set(GDELTUtils.NUM_SOURCES_ATTRIBUTE, Integer.parseInt(numSources));
-            }
+        final String actor1CC = vals[GDELTUtils.ACTOR_1_COUNTRY_CODE_COLUMN_ID];
+        if ((actor1CC != null) && !actor1CC.isEmpty()) {
+          builder.set(GDELTUtils.ACTOR_1_COUNTRY_CODE_ATTRIBUTE, actor1CC);
+        }
 
-            numArticles = vals[GDELTUtils.NUM_ARTICLES_COLUMN_ID];
-            if ((numArticles != null) && !numArticles.isEmpty()) {
-              gdeltEventBuilder.set(
-                  GDELTUtils.NUM_ARTICLES_ATTRIBUTE,
-                  Integer.parseInt(numArticles));
-            }
+        final String actor2CC = vals[GDELTUtils.ACTOR_2_COUNTRY_CODE_COLUMN_ID];
+        if ((actor2CC != null) && !actor2CC.isEmpty()) {
+          builder.set(GDELTUtils.ACTOR_2_COUNTRY_CODE_ATTRIBUTE, actor2CC);
+        }
 
-            avgTone = vals[GDELTUtils.AVG_TONE_COLUMN_ID];
-            if ((avgTone != null) && !avgTone.isEmpty()) {
-              gdeltEventBuilder.set(GDELTUtils.AVG_TONE_ATTRIBUTE, Double.parseDouble(avgTone));
-            }
-          }
+        final String numMentions = vals[GDELTUtils.NUM_MENTIONS_COLUMN_ID];
+        if ((numMentions != null) && !numMentions.isEmpty()) {
+          builder.set(GDELTUtils.NUM_MENTIONS_ATTRIBUTE, Integer.parseInt(numMentions));
+        }
 
-          featureData.add(
-              new GeoWaveData<>(eventKey, indexNames, gdeltEventBuilder.buildFeature(eventId)));
-        } catch (final Exception e) {
+        final String numSources = vals[GDELTUtils.NUM_SOURCES_COLUMN_ID];
+        if ((numSources != null) && !numSources.isEmpty()) {
+          builder.set(GDELTUtils.NUM_SOURCES_ATTRIBUTE, Integer.parseInt(numSources));
+        }
+
+        final String numArticles = vals[GDELTUtils.NUM_ARTICLES_COLUMN_ID];
+        if ((numArticles != null) && !numArticles.isEmpty()) {
+          builder.set(GDELTUtils.NUM_ARTICLES_ATTRIBUTE, Integer.parseInt(numArticles));
+        }
 
-          LOGGER.error("Error parsing line: " + line, e);
-          continue;
+        final String avgTone = vals[GDELTUtils.AVG_TONE_COLUMN_ID];
+        if ((avgTone != null) && !avgTone.isEmpty()) {
+          builder.set(GDELTUtils.AVG_TONE_ATTRIBUTE, Double.parseDouble(avgTone));
         }
       }
 
-    } catch (final IOException e) {
-      LOGGER.warn("Error reading line from GDELT file: " + hfile.getOriginalFilePath(), e);
-    } finally {
-      IOUtils.closeQuietly(br);
-      IOUtils.closeQuietly(isr);
-      IOUtils.closeQuietly(in);
+      return new GeoWaveData<>(eventKey, indexNames, builder.buildFeature(eventId));
+    } catch (final Exception e) {
+      LOGGER.error("Error parsing line: " + line, e);
+      // clear any attributes that were set before the error
+      builder.reset();
+      return null;
     }
-
-    return new CloseableIterator.Wrapper<>(featureData.iterator());
   }
 
   @Override
@@ -165,9 +165,18 @@ public class GDELTUtils {
   }
 
   public static boolean validate(final URL file) {
+    // files can be zipped, as they are distributed, or uncompressed
     return FilenameUtils.getName(file.getPath()).toLowerCase(Locale.ENGLISH).matches(
-        "\\d{8}\\.export\\.csv\\.zip")
+        "\\d{8}\\.export\\.csv(\\.zip)?")
         || FilenameUtils.getName(file.getPath()).toLowerCase(Locale.ENGLISH).matches(
-            "\\d{4,6}\\.zip");
+            "\\d{4,6}\\.(zip|csv)");
+  }
+
+  public static boolean isCompressed(final URL file) {
+    return isCompressed(file.getPath());
+  }
+
+  public static boolean isCompressed(final String path) {
+    return path.toLowerCase(Locale.ENGLISH).endsWith(".zip");
   }
 }
@@ -8,17 +8,29 @@
  */
 package org.locationtech.geowave.format.gdelt;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.ZipInputStream;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.locationtech.geowave.adapter.vector.ingest.DataSchemaOptionProvider;
 import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.ingest.GeoWaveData;
 import org.opengis.feature.simple.SimpleFeature;
 
 public class GDELTIngestTest {
+  @Rule
+  public TemporaryFolder tempFolder = new TemporaryFolder();
+
   private DataSchemaOptionProvider optionsProvider;
   private GDELTIngestPlugin ingester;
   private GDELTIngestPlugin ingesterExt;
@@ -90,6 +102,54 @@ public class GDELTIngestTest {
     assertTrue(readExpectedCountExt);
   }
 
+  @Test
+  public void testSplitIngest() throws IOException {
+    final URL zipped = this.getClass().getClassLoader().getResource(filePath);
+    assertFalse(ingester.isSplittable(zipped));
+
+    final File csv = tempFolder.newFile("20130401.export.CSV");
+    try (InputStream in = zipped.openStream(); ZipInputStream zip = new ZipInputStream(in)) {
+      zip.getNextEntry();
+      Files.copy(zip, csv.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+    final URL toIngest = csv.toURI().toURL();
+    assertTrue(GDELTUtils.validate(toIngest));
+    assertTrue(ingester.isSplittable(toIngest));
+
+    assertEquals(
+        expectedCount,
+        countValidFeatures(ingester.toGeoWaveData(toIngest, new String[] {"123"})));
+
+    // every record should be read exactly once regardless of where the splits fall
+    final long length = csv.length();
+    final long splitSize = (length / 7) + 1;
+    int featureCount = 0;
+    for (long start = 0; start < length; start += splitSize) {
+      featureCount +=
+          countValidFeatures(
+              ingester.toGeoWaveData(
+                  toIngest,
+                  start,
+                  Math.min(start + splitSize, length),
+                  new String[] {"123"}));
+    }
+    assertEquals(expectedCount, featureCount);
+  }
+
+  private int countValidFeatures(final CloseableIterator<GeoWaveData<SimpleFeature>> features) {
+    int featureCount = 0;
+    try {
+      while (features.hasNext()) {
+        if (isValidGDELTFeature(features.next())) {
+          featureCount++;
+        }
+      }
+    } finally {
+      features.close();
+    }
+    return featureCount;
+  }
+
   private boolean isValidGDELTFeature(final GeoWaveData<SimpleFeature> feature) {
     if ((feature.getValue().getAttribute(GDELTUtils.GDELT_EVENT_ID_ATTRIBUTE) == null)
         || (feature.getValue().getAttribute(GDELTUtils.GDELT_GEOMETRY_ATTRIBUTE) == null)
@@ -37,6 +37,7 @@ import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.ingest.GeoWaveData;
 import org.locationtech.geowave.core.store.ingest.IngestPluginBase;
+import org.locationtech.geowave.core.store.ingest.SplittableLocalFileIngestPlugin;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.opengis.feature.simple.SimpleFeature;
@@ -49,14 +50,13 @@ import jersey.repackaged.com.google.common.collect.Iterators;
 
 /*
  */
-public class GeoLifeIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroWholeFile> {
+public class GeoLifeIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroWholeFile> implements
+    SplittableLocalFileIngestPlugin<SimpleFeature> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(GeoLifeIngestPlugin.class);
 
-  private final SimpleFeatureBuilder geolifePointBuilder;
   private final SimpleFeatureType geolifePointType;
 
-  private final SimpleFeatureBuilder geolifeTrackBuilder;
   private final SimpleFeatureType geolifeTrackType;
 
   private final String pointKey;
@@ -67,11 +67,9 @@ public class GeoLifeIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroW
   public GeoLifeIngestPlugin() {
     geolifePointType = GeoLifeUtils.createGeoLifePointDataType();
     pointKey = GeoLifeUtils.GEOLIFE_POINT_FEATURE;
-    geolifePointBuilder = new SimpleFeatureBuilder(geolifePointType);
 
     geolifeTrackType = GeoLifeUtils.createGeoLifeTrackDataType();
     trackKey = GeoLifeUtils.GEOLIFE_TRACK_FEATURE;
-    geolifeTrackBuilder = new SimpleFeatureBuilder(geolifeTrackType);
     try {
       crs = CRS.decode("EPSG:4326");
     } catch (final FactoryException e) {
@@ -134,12 +132,30 @@ public class GeoLifeIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroW
     throw new UnsupportedOperationException("GeoLife tracks cannot be ingested with a reducer");
   }
 
+  @Override
+  public boolean isSplittable(final URL file) {
+    // each file is a single track built from all of its points
+    return false;
+  }
+
+  @Override
+  public CloseableIterator<GeoWaveData<SimpleFeature>> toGeoWaveData(
+      final URL file,
+      final long start,
+      final long end,
+      final String[] indexNames) {
+    return toGeoWaveData(file, indexNames);
+  }
+
   @Override
   protected CloseableIterator<GeoWaveData<SimpleFeature>> toGeoWaveDataInternal(
       final AvroWholeFile hfile,
       final String[] indexNames) {
 
     final List<GeoWaveData<SimpleFeature>> featureData = new ArrayList<>();
+    // files may be converted concurrently, and feature builders are not thread-safe
+    final SimpleFeatureBuilder geolifePointBuilder = new SimpleFeatureBuilder(geolifePointType);
+    final SimpleFeatureBuilder geolifeTrackBuilder = new SimpleFeatureBuilder(geolifeTrackType);
 
     final InputStream in = new ByteArrayInputStream(hfile.getOriginalFile().array());
     final InputStreamReader isr = new InputStreamReader(in, StringUtils.getGeoWaveCharset());
@@ -31,6 +31,7 @@ import org.locationtech.geowave.core.store.CloseableIterator;
 import org.locationtech.geowave.core.store.api.Index;
 import org.locationtech.geowave.core.store.ingest.GeoWaveData;
 import org.locationtech.geowave.core.store.ingest.IngestPluginBase;
+import org.locationtech.geowave.core.store.ingest.SplittableLocalFileIngestPlugin;
 import org.locationtech.jts.geom.Coordinate;
 import org.mortbay.log.Log;
 import org.opengis.feature.simple.SimpleFeature;
@@ -40,18 +41,35 @@ import org.slf4j.LoggerFactory;
 
 /*
  */
-public class TdriveIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroTdrivePoint> {
+public class TdriveIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroTdrivePoint> implements
+    SplittableLocalFileIngestPlugin<SimpleFeature> {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(TdriveIngestPlugin.class);
 
-  private final SimpleFeatureBuilder tdrivepointBuilder;
+  // files may be converted concurrently, and feature builders are not thread-safe
+  private final ThreadLocal<SimpleFeatureBuilder> tdrivepointBuilder;
   private final SimpleFeatureType tdrivepointType;
 
   public TdriveIngestPlugin() {
 
     tdrivepointType = TdriveUtils.createTdrivePointDataType();
 
-    tdrivepointBuilder = new SimpleFeatureBuilder(tdrivepointType);
+    tdrivepointBuilder = ThreadLocal.withInitial(() -> new SimpleFeatureBuilder(tdrivepointType));
+  }
+
+  @Override
+  public boolean isSplittable(final URL file) {
+    // point instances are numbered by their position within the file
+    return false;
+  }
+
+  @Override
+  public CloseableIterator<GeoWaveData<SimpleFeature>> toGeoWaveData(
+      final URL file,
+      final long start,
+      final long end,
+      final String[] indexNames) {
+    return toGeoWaveData(file, indexNames);
   }
 
   @Override
@@ -168,7 +186,7 @@ public class TdriveIngestPlugin extends AbstractSimpleFeatureIngestPlugin<AvroTd
 
     final List<GeoWaveData<SimpleFeature>> featureData = new ArrayList<>();
 
-    // tdrivepointBuilder = new SimpleFeatureBuilder(tdrivepointType);
+    final SimpleFeatureBuilder tdrivepointBuilder = this.tdrivepointBuilder.get();
     tdrivepointBuilder.set(
         "geometry",
         GeometryUtils.GEOMETRY_FACTORY.createPoint(
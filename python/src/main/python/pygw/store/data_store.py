@@ -8,6 +8,7 @@
 # available at http://www.apache.org/licenses/LICENSE-2.0.txt
 # ===============================================================================================
 
+import io
 from pygw.base import GeoWaveObject
 from pygw.base import CloseableIterator
 from pygw.base import Writer
@@ -74,6 +75,29 @@ class DataStore(GeoWaveObject):
         j_query = q._java_ref
         return iter(CloseableIterator(self._java_ref.query(j_query), q.java_transformer))
 
+    def query_arrow(self, q, batch_size=10000):
+        """
+        Returns all data in this data store that matches the query parameter as a `pyarrow.Table`. The results
+        are converted to Arrow record batches in the JVM and streamed to Python one record batch at a time, which
+        avoids converting each result individually and is much faster than `query` for large result sets.
+        Geometries are returned as WKB and can be converted with `shapely.wkb.loads` or
+        `geopandas.GeoSeries.from_wkb`.
+
+        This requires the optional `pyarrow` dependency.
+
+        Args:
+            q (pygw.query.query.Query): The query to preform.  The query must be limited to a single type unless
+                the data store only has one type.
+            batch_size (int): The maximum number of rows in each Arrow record batch.
+        Returns:
+            A `pyarrow.Table` of the results.
+        """
+        assert isinstance(q, Query)
+        import pyarrow
+        j_chunks = geowave_pkg.core.arrow.ArrowUtils.queryToArrow(self._java_ref, q._java_ref, batch_size)
+        with _ArrowChunkStream(j_chunks) as stream:
+            return pyarrow.ipc.open_stream(io.BufferedReader(stream)).read_all()
+
     def aggregate(self, q):
         """
         Perform an aggregation on the data and just return the aggregated result. The query criteria is
@@ -309,3 +333,33 @@ class DataStore(GeoWaveObject):
             return None
 
         return Writer(j_writer)
+
+
+class _ArrowChunkStream(io.RawIOBase):
+    """
+    A readable stream over the chunks of an Arrow IPC stream that are written by the JVM as they are read.
+    """
+
+    def __init__(self, j_chunks):
+        self._j_chunks = j_chunks
+        self._chunk = b''
+        self._offset = 0
+
+    def readable(self):
+        return True
+
+    def readinto(self, b):
+        while self._offset >= len(self._chunk):
+            if not self._j_chunks.hasNext():
+                return 0
+            self._chunk = self._j_chunks.next()
+            self._offset = 0
+        length = min(len(b), len(self._chunk) - self._offset)
+        b[:length] = self._chunk[self._offset:self._offset + length]
+        self._offset += length
+        return length
+
+    def close(self):
+        if not self.closed:
+            self._j_chunks.close()
+        super().close()
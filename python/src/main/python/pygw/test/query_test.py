@@ -10,6 +10,8 @@
 
 from datetime import datetime
 
+import pytest
+import shapely.wkb
 from shapely.geometry import Polygon
 
 from pygw.index import SpatialIndexBuilder
@@ -122,3 +124,29 @@ def test_query_filter(test_ds):
 
     # then
     assert len(res) == 10
+
+
+def test_query_arrow(test_ds):
+    pyarrow = pytest.importorskip("pyarrow")
+    # given
+    index = SpatialIndexBuilder().set_name("idx1").create_index()
+    adapter = POINT_TYPE_ADAPTER
+    test_ds.add_type(adapter, index)
+    write_test_data(test_ds, index)
+
+    # when
+    qbldr = VectorQueryBuilder()
+    constraints_factory = qbldr.constraints_factory()
+    # filter encompasses 10 features (1, 1) - (10, 10)
+    constraints = constraints_factory.cql_constraints("BBOX(the_geom, 0.5, 0.5, 10.5, 10.5)")
+    qbldr.constraints(constraints)
+    res = test_ds.query_arrow(qbldr.build(), batch_size=3)
+
+    # then
+    assert res.num_rows == 10
+    assert res.column_names == ["the_geom", "date", "flt", "color", "shape"]
+    assert pyarrow.types.is_binary(res.schema.field("the_geom").type)
+    assert pyarrow.types.is_timestamp(res.schema.field("date").type)
+    for wkb in res.column("the_geom").to_pylist():
+        point = shapely.wkb.loads(wkb)
+        assert 0.5 <= point.x <= 10.5
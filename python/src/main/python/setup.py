@@ -45,5 +45,6 @@ setup(
         'Operating System :: OS Independent',
     ],
     install_requires=['py4j==0.10.8.1', 'shapely==1.7'],
+    extras_require={'arrow': ['pyarrow']},
     python_requires='>=3,<3.8'  # py4j does not support python 3.8 yet
 )
@@ -74,6 +74,8 @@ import org.slf4j.LoggerFactory;
 public class CustomCRSKDERasterResizeIT {
   private static final String TEST_COVERAGE_NAME_MR_PREFIX = "TEST_COVERAGE_MR";
   private static final String TEST_COVERAGE_NAME_SPARK_PREFIX = "TEST_COVERAGE_SPARK";
+  private static final String TEST_COVERAGE_NAME_SPARK_SINGLE_PASS_PREFIX =
+      "TEST_COVERAGE_SPARK_SINGLE_PASS";
   private static final String TEST_RESIZE_COVERAGE_NAME_MR_PREFIX = "TEST_RESIZE_MR";
   private static final String TEST_RESIZE_COVERAGE_NAME_SPARK_PREFIX = "TEST_RESIZE_SPARK";
   private static final String TEST_COVERAGE_NAMESPACE = "mil_nga_giat_geowave_test_coverage";
@@ -90,6 +92,9 @@ public class CustomCRSKDERasterResizeIT {
   private static final int INCREMENT = 4;
   private static final int BASE_MIN_LEVEL = 15;
   private static final int BASE_MAX_LEVEL = 16;
+  // the single pass KDE estimates percentiles from a sketch rather than a global sort
+  private static final double SINGLE_PASS_PERCENTILE_EPSILON = 0.05;
+  private static final int PERCENTILE_BAND = 2;
 
   @NamespaceOverride(TEST_COVERAGE_NAMESPACE)
   protected DataStorePluginOptions outputDataStorePluginOptions;
@@ -274,6 +279,39 @@ public class CustomCRSKDERasterResizeIT {
               (int) (numCellsMinLevel * Math.pow(2, l))),
           initialSampleValuesPerRequestSize[l]);
     }
+    for (int i = MIN_TILE_SIZE_POWER_OF_2; i <= MAX_TILE_SIZE_POWER_OF_2; i += INCREMENT) {
+      LOGGER.warn("running single pass spark kde: " + i);
+      final String tileSizeCoverageName = TEST_COVERAGE_NAME_SPARK_SINGLE_PASS_PREFIX + i;
+
+      final KDESparkCommand command = new KDESparkCommand();
+
+      command.setParameters("test-in", "raster-spatial");
+
+      command.getKDESparkOptions().setOutputIndex(outputIndexName);
+      command.getKDESparkOptions().setCqlFilter(cqlStr);
+      command.getKDESparkOptions().setTypeName(KDE_FEATURE_TYPE_NAME);
+      command.getKDESparkOptions().setMinLevel(BASE_MIN_LEVEL);
+      command.getKDESparkOptions().setMaxLevel(BASE_MAX_LEVEL);
+      command.getKDESparkOptions().setMinSplits(MapReduceTestUtils.MIN_INPUT_SPLITS);
+      command.getKDESparkOptions().setMaxSplits(MapReduceTestUtils.MAX_INPUT_SPLITS);
+      command.getKDESparkOptions().setCoverageName(tileSizeCoverageName);
+      command.getKDESparkOptions().setMaster("local[*]");
+      command.getKDESparkOptions().setTileSize((int) Math.pow(2, i));
+      command.getKDESparkOptions().setSinglePass(true);
+      command.execute(params);
+    }
+    LOGGER.warn("testing single pass spark kdes");
+    for (int l = 0; l < numLevels; l++) {
+      testSamplesMatch(
+          TEST_COVERAGE_NAME_SPARK_SINGLE_PASS_PREFIX,
+          ((MAX_TILE_SIZE_POWER_OF_2 - MIN_TILE_SIZE_POWER_OF_2) / INCREMENT) + 1,
+          queryEnvelope,
+          new Rectangle(
+              (int) (numCellsMinLevel * Math.pow(2, l)),
+              (int) (numCellsMinLevel * Math.pow(2, l))),
+          initialSampleValuesPerRequestSize[l],
+          SINGLE_PASS_PERCENTILE_EPSILON);
+    }
     // go from the original mr KDEs to a resized version using the MR command
     for (int i = MIN_TILE_SIZE_POWER_OF_2; i <= MAX_TILE_SIZE_POWER_OF_2; i += INCREMENT) {
       LOGGER.warn("running mapreduce resize: " + i);
@@ -362,7 +400,23 @@ public class CustomCRSKDERasterResizeIT {
       final int numCoverages,
       final GeneralEnvelope queryEnvelope,
       final Rectangle pixelDimensions,
-      double[][][] expectedResults) throws Exception {
+      final double[][][] expectedResults) throws Exception {
+    return testSamplesMatch(
+        coverageNamePrefix,
+        numCoverages,
+        queryEnvelope,
+        pixelDimensions,
+        expectedResults,
+        TestUtils.DOUBLE_EPSILON);
+  }
+
+  private double[][][] testSamplesMatch(
+      final String coverageNamePrefix,
+      final int numCoverages,
+      final GeneralEnvelope queryEnvelope,
+      final Rectangle pixelDimensions,
+      double[][][] expectedResults,
+      final double percentileEpsilon) throws Exception {
     final StringBuilder str =
         new StringBuilder(StoreFactoryOptions.GEOWAVE_NAMESPACE_OPTION).append("=").append(
             TEST_COVERAGE_NAMESPACE).append(
@@ -433,7 +487,9 @@ public class CustomCRSKDERasterResizeIT {
             } else {
               if ((Double.isNaN(sample) && !Double.isNaN(expectedResults[x][y][b]))
                   || (!Double.isNaN(sample) && Double.isNaN(expectedResults[x][y][b]))
-                  || (Math.abs(expectedResults[x][y][b] - sample) > TestUtils.DOUBLE_EPSILON)) {
+                  || (Math.abs(expectedResults[x][y][b] - sample) > (b == PERCENTILE_BAND
+                      ? percentileEpsilon
+                      : TestUtils.DOUBLE_EPSILON))) {
                 mismatchedSamples++;
               }
             }
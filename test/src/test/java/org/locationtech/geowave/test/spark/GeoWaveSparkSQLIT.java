@@ -13,16 +13,24 @@ import org.apache.spark.api.java.JavaPairRDD;
 import org.apache.spark.sql.Dataset;
 import org.apache.spark.sql.Row;
 import org.apache.spark.sql.SparkSession;
+import org.geotools.data.DataUtilities;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.locationtech.geowave.adapter.vector.FeatureDataAdapter;
 import org.locationtech.geowave.analytic.spark.GeoWaveRDD;
 import org.locationtech.geowave.analytic.spark.GeoWaveRDDLoader;
 import org.locationtech.geowave.analytic.spark.RDDOptions;
 import org.locationtech.geowave.analytic.spark.sparksql.SqlQueryRunner;
 import org.locationtech.geowave.analytic.spark.sparksql.SqlResultsWriter;
+import org.locationtech.geowave.analytic.spark.sparksql.datasource.GeoWaveDataSource;
+import org.locationtech.geowave.analytic.spark.sparksql.udf.GeomFunctionRegistry;
+import org.locationtech.geowave.core.geotime.util.GeometryUtils;
+import org.locationtech.geowave.core.store.api.DataStore;
+import org.locationtech.geowave.core.store.api.Writer;
 import org.locationtech.geowave.core.store.cli.store.DataStorePluginOptions;
 import org.locationtech.geowave.mapreduce.input.GeoWaveInputKey;
 import org.locationtech.geowave.test.GeoWaveITRunner;
@@ -33,8 +41,10 @@ import org.locationtech.geowave.test.annotation.Environments.Environment;
 import org.locationtech.geowave.test.annotation.GeoWaveTestStore;
 import org.locationtech.geowave.test.annotation.GeoWaveTestStore.GeoWaveStoreType;
 import org.locationtech.geowave.test.basic.AbstractGeoWaveBasicVectorIT;
+import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.util.Stopwatch;
 import org.opengis.feature.simple.SimpleFeature;
+import org.opengis.feature.simple.SimpleFeatureType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -199,6 +209,58 @@ public class GeoWaveSparkSQLIT extends AbstractGeoWaveBasicVectorIT {
     TestUtils.deleteAll(dataStore);
   }
 
+  @Test
+  public void testDataSourceFilterPushDown() throws Exception {
+    final SparkSession session = SparkTestEnvironment.getInstance().getDefaultSession();
+    GeomFunctionRegistry.registerGeometryFunctions(session);
+
+    final SimpleFeatureType type =
+        DataUtilities.createType(
+            "points",
+            "geometry:Point:srid=4326,name:String,population:Integer");
+    final FeatureDataAdapter adapter = new FeatureDataAdapter(type);
+    final DataStore store = dataStore.createDataStore();
+    store.addType(adapter, TestUtils.DEFAULT_SPATIAL_INDEX);
+    final SimpleFeatureBuilder builder = new SimpleFeatureBuilder(type);
+    try (Writer<SimpleFeature> writer = store.createWriter(adapter.getTypeName())) {
+      for (int i = 0; i < 10; i++) {
+        builder.set("geometry", GeometryUtils.GEOMETRY_FACTORY.createPoint(new Coordinate(i, i)));
+        builder.set("name", "point" + i);
+        builder.set("population", i * 1000);
+        writer.write(builder.buildFeature("point" + i));
+      }
+    }
+
+    try {
+      final Dataset<Row> points =
+          session.read().format(GeoWaveDataSource.SHORT_NAME).options(
+              GeoWaveDataSource.options(dataStore, adapter.getTypeName())).load();
+      Assert.assertEquals(10, points.count());
+
+      // the comparison is pushed into the GeoWave query
+      final Dataset<Row> populated = points.filter("population >= 5000").select("name");
+      assertFiltersPushedDown(populated);
+      Assert.assertEquals(5, populated.count());
+
+      // spatial predicates are pushed down by the session extensions
+      points.createOrReplaceTempView("points");
+      final String bbox = "POLYGON ((-0.5 -0.5, 3.5 -0.5, 3.5 3.5, -0.5 3.5, -0.5 -0.5))";
+      final Dataset<Row> within =
+          session.sql(
+              "SELECT name FROM points WHERE GeomWithin(geom, GeomFromWKT('" + bbox + "'))");
+      assertFiltersPushedDown(within);
+      Assert.assertEquals(4, within.count());
+    } finally {
+      TestUtils.deleteAll(dataStore);
+    }
+  }
+
+  private static void assertFiltersPushedDown(final Dataset<Row> results) {
+    final String plan = results.queryExecution().executedPlan().toString();
+    Assert.assertTrue(plan, plan.contains("GeoWaveScan [type=points"));
+    Assert.assertFalse(plan, plan.contains("filters=[]"));
+  }
+
   @Override
   protected DataStorePluginOptions getDataStorePluginOptions() {
     return dataStore;